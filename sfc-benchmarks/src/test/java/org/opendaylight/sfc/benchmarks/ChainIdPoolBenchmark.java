@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.opendaylight.sfc.util.macchaining.ChainIdPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Contention benchmark of the MAC chaining chain id pool, as happens when
+ * many MAC chaining RSPs are created at once: several threads reserve and
+ * release the ids of new chains, or look up the ids of existing ones, on the
+ * same pool. Run it with -t to change the number of threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Threads(4)
+@Fork(1)
+public class ChainIdPoolBenchmark {
+
+    // Chain ids in use before the measurement, out of the 16384 available
+    @Param({"0", "8192", "15360"})
+    private int allocatedChainIds;
+
+    private ChainIdPool pool;
+
+    // the chains created during the measurement do not collide with the
+    // ones allocated in the setup
+    private final AtomicLong nextChain = new AtomicLong(Integer.MAX_VALUE);
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        pool = new ChainIdPool(16384);
+        for (long chain = 0; chain < allocatedChainIds; chain++) {
+            pool.getChainIdFor(new UUID(0, chain), chain);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadChains {
+        private long lookups;
+    }
+
+    @Benchmark
+    public int reserveAndReleaseChainId() {
+        long chain = nextChain.getAndIncrement();
+        UUID uuid = new UUID(0, chain);
+        int chainId = pool.getChainIdFor(uuid, chain);
+        pool.release(uuid);
+        return chainId;
+    }
+
+    @Benchmark
+    public int lookUpChainId(ThreadChains threadChains) {
+        long chain = allocatedChainIds == 0 ? 0 : threadChains.lookups++ % allocatedChainIds;
+        return pool.getChainIdFor(new UUID(0, chain), chain);
+    }
+}
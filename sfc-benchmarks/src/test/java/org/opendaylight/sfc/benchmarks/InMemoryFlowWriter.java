@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2017 Ericsson S.A. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.sfc.util.openflow.writer.FlowDetails;
+import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterInterface;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.TableKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.GroupBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+
+/**
+ * Flow writer keeping the flows in memory instead of writing them to the data
+ * store, so that the flow generation can be measured on its own. The flows
+ * are built as the real writer does and dropped on flush.
+ */
+public class InMemoryFlowWriter implements SfcOfFlowWriterInterface {
+
+    private final List<FlowDetails> flows = new ArrayList<>();
+    private FlowBuilder flowBuilder;
+    private long flushedFlows;
+
+    /**
+     * Get the number of flows flushed so far.
+     *
+     * @return the number of flows
+     */
+    public long getFlushedFlows() {
+        return flushedFlows;
+    }
+
+    @Override
+    public void injectTransaction(WriteTransaction theTx) {
+    }
+
+    @Override
+    public void updateTransactionObject() {
+    }
+
+    @Override
+    public void registerTransactionListener(Object interestedParty) {
+    }
+
+    @Override
+    public void deregisterTransactionListener(Object interestedParty) {
+    }
+
+    @Override
+    public void writeFlow(Long rspId, String sffNodeName, FlowBuilder flow) {
+        flowBuilder = flow;
+        flows.add(new FlowDetails(sffNodeName, flow.getKey(), new TableKey(flow.getTableId()), flow.build(), rspId));
+    }
+
+    @Override
+    public void writeFlow(FlowDetails theFlowData) {
+        flows.add(theFlowData);
+    }
+
+    @Override
+    public boolean writeFlows(Collection<FlowDetails> theFlows) {
+        return flows.addAll(theFlows);
+    }
+
+    @Override
+    public void removeFlow(String sffNodeName, FlowKey flowKey, TableKey tableKey) {
+    }
+
+    @Override
+    public void removeFlow(FlowDetails theFlowData) {
+    }
+
+    @Override
+    public boolean removeFlows(Collection<FlowDetails> theFlows) {
+        return true;
+    }
+
+    @Override
+    public void writeGroupToDataStore(String sffNodeName, GroupBuilder gb, boolean isAdd) {
+    }
+
+    @Override
+    public void deleteRspFlows(Long rspId) {
+    }
+
+    @Override
+    public void deleteRspsFlows(Map<Long, Set<String>> rspSffNodeNames) {
+    }
+
+    @Override
+    public void beginRspFlowsUpdate(Long rspId) {
+    }
+
+    @Override
+    public void finishRspFlowsUpdate(Long rspId) {
+    }
+
+    @Override
+    public void abortRspFlowsUpdate(Long rspId) {
+    }
+
+    @Override
+    public Set<NodeId> clearSffsIfNoRspExists() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public FlowBuilder getFlowBuilder() {
+        return flowBuilder;
+    }
+
+    @Override
+    public void flushFlows() {
+        flushedFlows += flows.size();
+        flows.clear();
+    }
+
+    @Override
+    public void beginFlowsBatch() {
+    }
+
+    @Override
+    public void flushFlowsBatch() {
+    }
+
+    @Override
+    public void deleteFlowSet() {
+    }
+
+    @Override
+    public void purgeFlows() {
+        flows.clear();
+    }
+
+    @Override
+    public void shutdown() {
+    }
+}
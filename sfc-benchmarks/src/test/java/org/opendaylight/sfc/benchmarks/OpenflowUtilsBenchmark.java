@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2017 Ericsson S.A. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.benchmarks;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.sfc.util.openflow.SfcOpenflowUtils;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.list.Action;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.flow.InstructionsBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.flow.Match;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.flow.MatchBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the {@link SfcOpenflowUtils} match and action builders, using
+ * the matches and actions of typical SFC flows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class OpenflowUtilsBenchmark {
+
+    private static final short TABLE_ID = 4;
+    private static final short NEXT_TABLE_ID = 10;
+    private static final int PRIORITY = 350;
+    private static final BigInteger COOKIE = new BigInteger("1100000000000000", 16);
+    private static final long NSP = 42;
+    private static final short NSI = 255;
+    private static final String MAC = "00:00:00:00:00:01";
+    private static final String IP = "192.168.0.1";
+
+    @Benchmark
+    public Match buildNshMatch() {
+        MatchBuilder match = SfcOpenflowUtils.getNshMatches(NSP, NSI);
+        SfcOpenflowUtils.addMatchEtherType(match, SfcOpenflowUtils.ETHERTYPE_NSH);
+        return match.build();
+    }
+
+    @Benchmark
+    public Match buildClassifierMatch() {
+        MatchBuilder match = new MatchBuilder();
+        SfcOpenflowUtils.addMatchEtherType(match, SfcOpenflowUtils.ETHERTYPE_IPV4);
+        SfcOpenflowUtils.addMatchSrcIpv4(match, IP, 32);
+        SfcOpenflowUtils.addMatchDstIpv4(match, IP, 24);
+        SfcOpenflowUtils.addMatchIpProtocol(match, SfcOpenflowUtils.IP_PROTOCOL_TCP);
+        SfcOpenflowUtils.addMatchDstTcpPort(match, 80);
+        return match.build();
+    }
+
+    @Benchmark
+    public List<Action> buildNshEgressActions() {
+        int order = 0;
+        List<Action> actions = new ArrayList<>();
+        actions.add(SfcOpenflowUtils.createActionNxMoveNsc1ToTunIpv4DstRegister(order++));
+        actions.add(SfcOpenflowUtils.createActionNxMoveNsc2ToTunIdRegister(order++));
+        actions.add(SfcOpenflowUtils.createActionNxLoadNshc1(NSP, order++));
+        actions.add(SfcOpenflowUtils.createActionNxLoadTunIpv4Dst(IP, order++));
+        actions.add(SfcOpenflowUtils.createActionNxLoadEncapEthDst(MAC, order++));
+        actions.add(SfcOpenflowUtils.createActionOutPort("INPORT", order++));
+        return actions;
+    }
+
+    @Benchmark
+    public FlowBuilder buildNshFlow() {
+        MatchBuilder match = SfcOpenflowUtils.getNshMatches(NSP, NSI);
+        List<Action> actions = new ArrayList<>();
+        actions.add(SfcOpenflowUtils.createActionSetDlDst(MAC, 0));
+        actions.add(SfcOpenflowUtils.createActionNxLoadNsi(NSI, 1));
+        InstructionsBuilder isb = SfcOpenflowUtils.wrapActionsIntoApplyActionsInstruction(actions);
+        SfcOpenflowUtils.appendGotoTableInstruction(isb, NEXT_TABLE_ID);
+        return SfcOpenflowUtils.createFlowBuilder(TABLE_ID, PRIORITY, COOKIE, "nsh-flow-" + NSP + "-" + NSI, match,
+                isb);
+    }
+}
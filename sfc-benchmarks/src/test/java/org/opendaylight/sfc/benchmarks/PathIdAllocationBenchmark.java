@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2017 Ericsson S.A. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.sfc.provider.api.SfcServicePathId;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.GenerationAlgorithmEnum;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the path id allocation of {@link SfcServicePathId}, for both
+ * generation algorithms and with an increasing number of path ids already in
+ * use. Each invocation allocates a path id and frees it, so that the number
+ * of path ids in use is kept constant.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class PathIdAllocationBenchmark {
+
+    @Param({"Random", "Sequential"})
+    private String algorithm;
+
+    // Path ids in use before the measurement, out of the 4096 available
+    @Param({"0", "2048", "3840"})
+    private int allocatedPathIds;
+
+    private final SfcInMemoryDataStore dataStore = new SfcInMemoryDataStore();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dataStore.start();
+        SfcServicePathId.setGenerationAlgorithm(GenerationAlgorithmEnum.valueOf(algorithm));
+        for (long pathId = 0; pathId < allocatedPathIds; pathId++) {
+            SfcServicePathId.allocatePathId(pathId);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        dataStore.stop();
+    }
+
+    @Benchmark
+    public long allocateAndFreePathId() {
+        long pathId = SfcServicePathId.checkAndAllocatePathId();
+        if (pathId >= 0) {
+            SfcServicePathId.freePathId(pathId);
+        }
+        return pathId;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2017 Ericsson S.A. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.sfc.provider.topology.SfcProviderGraph;
+import org.opendaylight.sfc.provider.topology.SfcProviderTopologyNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link SfcProviderGraph#getShortestPath(String, String)} over
+ * a ring of Service Function Forwarders with several Service Functions
+ * attached to each of them, looking up the path between two Service
+ * Functions on opposite sides of the ring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ProviderGraphBenchmark {
+
+    @Param({"16", "256", "1024"})
+    private int numSffs;
+
+    @Param({"4"})
+    private int sfsPerSff;
+
+    private SfcProviderGraph graph;
+    private String fromNodeName;
+    private String toNodeName;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = new SfcProviderGraph();
+        for (int sff = 0; sff < numSffs; sff++) {
+            graph.addNode(getSffNodeName(sff));
+        }
+        for (int sff = 0; sff < numSffs; sff++) {
+            graph.addEdge(getSffNodeName(sff), getSffNodeName((sff + 1) % numSffs));
+            for (int sf = 0; sf < sfsPerSff; sf++) {
+                graph.addNode(getSfNodeName(sff, sf));
+                graph.addEdge(getSfNodeName(sff, sf), getSffNodeName(sff));
+            }
+        }
+        fromNodeName = getSfNodeName(0, 0);
+        toNodeName = getSfNodeName(numSffs / 2, sfsPerSff - 1);
+    }
+
+    @Benchmark
+    public List<SfcProviderTopologyNode> getShortestPath() {
+        return graph.getShortestPath(fromNodeName, toNodeName);
+    }
+
+    private static String getSffNodeName(int sff) {
+        return "sff-" + sff;
+    }
+
+    private static String getSfNodeName(int sff, int sf) {
+        return "sf-" + sff + "-" + sf;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2017 Ericsson S.A. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.sfc.provider.api.SfcServiceFunctionLoadBalanceSchedulerAPI;
+import org.opendaylight.sfc.provider.api.SfcServiceFunctionRandomSchedulerAPI;
+import org.opendaylight.sfc.provider.api.SfcServiceFunctionRoundRobinSchedulerAPI;
+import org.opendaylight.sfc.provider.api.SfcServiceFunctionSchedulerAPI;
+import org.opendaylight.sfc.provider.api.SfcServiceFunctionShortestPathSchedulerAPI;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.service.function.chain.grouping.ServiceFunctionChain;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the Service Function schedulers, scheduling a chain with one
+ * Service Function of each type over a ring of Service Function Forwarders.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SchedulerBenchmark {
+
+    private static final int SERVICE_INDEX = 255;
+
+    @Param({"RANDOM", "ROUND_ROBIN", "LOAD_BALANCE", "SHORTEST_PATH"})
+    private String scheduler;
+
+    @Param({"8", "64"})
+    private int numSffs;
+
+    @Param({"4"})
+    private int chainLength;
+
+    @Param({"4", "32"})
+    private int sfsPerType;
+
+    private final SfcInMemoryDataStore dataStore = new SfcInMemoryDataStore();
+    private SfcServiceFunctionSchedulerAPI schedulerApi;
+    private ServiceFunctionChain chain;
+    private ServiceFunctionPath path;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dataStore.start();
+        SfcBenchmarkTopology topology = new SfcBenchmarkTopology(numSffs, chainLength, sfsPerType);
+        topology.write();
+        chain = topology.buildServiceFunctionChain();
+        path = topology.buildServiceFunctionPath();
+        schedulerApi = createScheduler(scheduler);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        dataStore.stop();
+    }
+
+    @Benchmark
+    public List<SfName> scheduleServiceFunctions() {
+        return schedulerApi.scheduleServiceFunctions(chain, SERVICE_INDEX, path);
+    }
+
+    private static SfcServiceFunctionSchedulerAPI createScheduler(String scheduler) {
+        switch (scheduler) {
+            case "RANDOM":
+                return new SfcServiceFunctionRandomSchedulerAPI();
+            case "ROUND_ROBIN":
+                return new SfcServiceFunctionRoundRobinSchedulerAPI();
+            case "LOAD_BALANCE":
+                return new SfcServiceFunctionLoadBalanceSchedulerAPI();
+            case "SHORTEST_PATH":
+                return new SfcServiceFunctionShortestPathSchedulerAPI();
+            default:
+                throw new IllegalArgumentException("Unknown scheduler " + scheduler);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2017 Ericsson S.A. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
+import org.opendaylight.sfc.provider.api.SfcProviderServiceFunctionAPI;
+import org.opendaylight.sfc.provider.api.SfcProviderServiceTypeAPI;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfcName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfpName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunctionBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunctionKey;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.service.function.chain.grouping.ServiceFunctionChain;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.service.function.chain.grouping.ServiceFunctionChainBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.service.function.chain.grouping.ServiceFunctionChainKey;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.service.function.chain.grouping.service.function.chain.SfcServiceFunction;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.service.function.chain.grouping.service.function.chain.SfcServiceFunctionBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.service.function.chain.grouping.service.function.chain.SfcServiceFunctionKey;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarderBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarderKey;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.service.function.forwarder.ConnectedSffDictionary;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.service.function.forwarder.ConnectedSffDictionaryBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.service.function.forwarder.ServiceFunctionDictionary;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.service.function.forwarder.ServiceFunctionDictionaryBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.service.function.forwarder.ServiceFunctionDictionaryKey;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPathBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.ServiceFunctionTypeBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.service.function.type.SftServiceFunctionName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.service.function.type.SftServiceFunctionNameBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.service.function.type.SftServiceFunctionNameKey;
+
+/**
+ * Builds a deterministic SFC topology into the data store for the benchmarks:
+ * a ring of Service Function Forwarders, each of them connected to its two
+ * neighbours, with Service Functions of every type spread over the ring.
+ */
+public final class SfcBenchmarkTopology {
+
+    private static final String SFF_NAME_PREFIX = "sff-";
+    private static final String SF_NAME_PREFIX = "sf-";
+    private static final String SF_TYPE_PREFIX = "type-";
+
+    private final int numSffs;
+    private final int numTypes;
+    private final int sfsPerType;
+
+    /**
+     * Constructor.
+     *
+     * @param numSffs
+     *            number of Service Function Forwarders of the ring
+     * @param numTypes
+     *            number of Service Function Types, which is also the length
+     *            of the chain
+     * @param sfsPerType
+     *            number of Service Functions of each type
+     */
+    public SfcBenchmarkTopology(int numSffs, int numTypes, int sfsPerType) {
+        this.numSffs = numSffs;
+        this.numTypes = numTypes;
+        this.sfsPerType = sfsPerType;
+    }
+
+    /**
+     * Write the Service Functions, Service Function Types and Service Function
+     * Forwarders of the topology to the data store.
+     */
+    public void write() {
+        List<List<ServiceFunctionDictionary>> dictionaries = new ArrayList<>();
+        for (int sff = 0; sff < numSffs; sff++) {
+            dictionaries.add(new ArrayList<>());
+        }
+
+        int sfIndex = 0;
+        for (int type = 0; type < numTypes; type++) {
+            List<SftServiceFunctionName> sftServiceFunctionNames = new ArrayList<>();
+            for (int sf = 0; sf < sfsPerType; sf++) {
+                SfName sfName = new SfName(SF_NAME_PREFIX + type + "-" + sf);
+                SfcProviderServiceFunctionAPI.putServiceFunction(new ServiceFunctionBuilder().setName(sfName)
+                        .setKey(new ServiceFunctionKey(sfName)).setType(getSfType(type)).build());
+                sftServiceFunctionNames.add(new SftServiceFunctionNameBuilder().setName(sfName)
+                        .setKey(new SftServiceFunctionNameKey(sfName)).build());
+                dictionaries.get(sfIndex++ % numSffs).add(new ServiceFunctionDictionaryBuilder().setName(sfName)
+                        .setKey(new ServiceFunctionDictionaryKey(sfName)).build());
+            }
+            SfcProviderServiceTypeAPI.putServiceFunctionType(new ServiceFunctionTypeBuilder().setType(getSfType(type))
+                    .setSftServiceFunctionName(sftServiceFunctionNames).build());
+        }
+
+        for (int sff = 0; sff < numSffs; sff++) {
+            List<ConnectedSffDictionary> connectedSffs = new ArrayList<>();
+            connectedSffs.add(new ConnectedSffDictionaryBuilder()
+                    .setName(getSffName((sff + 1) % numSffs)).build());
+            connectedSffs.add(new ConnectedSffDictionaryBuilder()
+                    .setName(getSffName((sff + numSffs - 1) % numSffs)).build());
+            SfcProviderServiceForwarderAPI.putServiceFunctionForwarder(new ServiceFunctionForwarderBuilder()
+                    .setName(getSffName(sff)).setKey(new ServiceFunctionForwarderKey(getSffName(sff)))
+                    .setServiceFunctionDictionary(dictionaries.get(sff)).setConnectedSffDictionary(connectedSffs)
+                    .build());
+        }
+    }
+
+    /**
+     * Build a chain with one Service Function of each type of the topology.
+     *
+     * @return the Service Function Chain
+     */
+    public ServiceFunctionChain buildServiceFunctionChain() {
+        List<SfcServiceFunction> sfcServiceFunctions = new ArrayList<>();
+        for (int type = 0; type < numTypes; type++) {
+            String name = SF_TYPE_PREFIX + type;
+            sfcServiceFunctions.add(new SfcServiceFunctionBuilder().setName(name)
+                    .setKey(new SfcServiceFunctionKey(name)).setType(getSfType(type)).build());
+        }
+        SfcName sfcName = new SfcName("benchmark-chain");
+        return new ServiceFunctionChainBuilder().setName(sfcName).setKey(new ServiceFunctionChainKey(sfcName))
+                .setSfcServiceFunction(sfcServiceFunctions).build();
+    }
+
+    /**
+     * Build an empty path for the chain, leaving the scheduler free to pick
+     * any Service Function.
+     *
+     * @return the Service Function Path
+     */
+    public ServiceFunctionPath buildServiceFunctionPath() {
+        return new ServiceFunctionPathBuilder().setName(new SfpName("benchmark-path"))
+                .setServiceChainName(new SfcName("benchmark-chain")).build();
+    }
+
+    public SffName getSffName(int index) {
+        return new SffName(SFF_NAME_PREFIX + index);
+    }
+
+    public int getNumSffs() {
+        return numSffs;
+    }
+
+    private static SftTypeName getSfType(int type) {
+        return new SftTypeName(SF_TYPE_PREFIX + type);
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2017 Ericsson S.A. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.benchmarks;
+
+import java.util.concurrent.ExecutionException;
+import org.opendaylight.sfc.provider.AbstractDataStoreManager;
+
+/**
+ * In-memory data store with the SFC models loaded, backing the static SFC
+ * provider APIs during the benchmarks. It reuses the data store set up by the
+ * provider unit tests, so that no running controller is needed.
+ */
+public class SfcInMemoryDataStore extends AbstractDataStoreManager {
+
+    /**
+     * Create a new empty data store and make the SFC provider APIs use it.
+     *
+     * @throws Exception
+     *             if the data store cannot be created
+     */
+    public void start() throws Exception {
+        setup();
+        setupSfc();
+    }
+
+    /**
+     * Delete all the SFC data written to the data store.
+     *
+     * @throws ExecutionException
+     *             if the deletion fails
+     * @throws InterruptedException
+     *             if interrupted while waiting for the deletion
+     */
+    public void stop() throws ExecutionException, InterruptedException {
+        close();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2017 Ericsson S.A. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer.openflow;
+
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.sfc.benchmarks.InMemoryFlowWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the generation of single flows by the
+ * {@link SfcOfFlowProgrammerImpl}, per flow type and transport, in flows per
+ * second. Run it with the JMH gc profiler (-prof gc) to get the bytes
+ * allocated per flow (gc.alloc.rate.norm). The flows are kept in memory
+ * instead of being written to the data store, and dropped once built.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SfcOfFlowProgrammerBenchmark {
+
+    private static final String SFF_NODE_NAME = "openflow:1";
+    private static final String PORT = "1";
+    private static final String SRC_MAC = "00:00:00:00:00:01";
+    private static final String DST_MAC = "00:00:00:00:00:02";
+    private static final int VLAN = 100;
+    private static final long MPLS_LABEL = 1000;
+    private static final long NSP = 42;
+    private static final short NSI = 255;
+
+    // table base of the app coexistence, or -1 if not used
+    @Param({"-1", "20"})
+    private short tableBase;
+
+    private InMemoryFlowWriter flowWriter;
+    private SfcOfFlowProgrammerImpl flowProgrammer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        flowWriter = new InMemoryFlowWriter();
+        flowProgrammer = new SfcOfFlowProgrammerImpl(flowWriter);
+        flowProgrammer.setTableBase(tableBase);
+        flowProgrammer.setFlowRspId(NSP);
+    }
+
+    @Benchmark
+    public void nshVxgpeNscTransportEgressFlow() {
+        flowProgrammer.configureNshNscTransportEgressFlow(SFF_NODE_NAME, NSP, NSI, PORT);
+        flowWriter.flushFlows();
+    }
+
+    @Benchmark
+    public void nshEthTransportEgressFlow() {
+        flowProgrammer.configureNshEthTransportEgressFlow(SFF_NODE_NAME, NSP, NSI, PORT);
+        flowWriter.flushFlows();
+    }
+
+    @Benchmark
+    public void nshEthNextHopFlow() {
+        flowProgrammer.configureNshEthNextHopFlow(SFF_NODE_NAME, SRC_MAC, DST_MAC, NSP, NSI);
+        flowWriter.flushFlows();
+    }
+
+    @Benchmark
+    public void vlanPathMapperFlow() {
+        flowProgrammer.configureVlanPathMapperFlow(SFF_NODE_NAME, VLAN, NSP, false);
+        flowWriter.flushFlows();
+    }
+
+    @Benchmark
+    public void vlanTransportEgressFlow() {
+        flowProgrammer.configureVlanTransportEgressFlow(SFF_NODE_NAME, SRC_MAC, DST_MAC, VLAN, PORT, NSP);
+        flowWriter.flushFlows();
+    }
+
+    @Benchmark
+    public void mplsPathMapperFlow() {
+        flowProgrammer.configureMplsPathMapperFlow(SFF_NODE_NAME, MPLS_LABEL, NSP, false);
+        flowWriter.flushFlows();
+    }
+
+    @Benchmark
+    public void mplsTransportEgressFlow() {
+        flowProgrammer.configureMplsTransportEgressFlow(SFF_NODE_NAME, SRC_MAC, DST_MAC, MPLS_LABEL, PORT, NSP);
+        flowWriter.flushFlows();
+    }
+
+    @Benchmark
+    public void macChainingTransportEgressFlow() {
+        flowProgrammer.configureMacChainingSfTransportEgressFlow(SFF_NODE_NAME, DST_MAC, PORT, SRC_MAC);
+        flowWriter.flushFlows();
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2017 Ericsson S.A. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer.processors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.sfc.benchmarks.InMemoryFlowWriter;
+import org.opendaylight.sfc.ofrenderer.RspBuilder;
+import org.opendaylight.sfc.ofrenderer.openflow.SfcOfFlowProgrammerImpl;
+import org.opendaylight.sfc.ofrenderer.utils.SfcOfProviderUtilsTestMock;
+import org.opendaylight.sfc.ofrenderer.utils.SfcSynchronizer;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.Mac;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.Mpls;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.Nsh;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.Transport;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.VxlanGpe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the OpenFlow rendering of a Rendered Service Path, per
+ * transport: the population of the {@link SffGraph} and the generation of the
+ * flows by the {@link SfcOfFlowProgrammerImpl}, measured together through
+ * {@link SfcOfRspProcessor#processRenderedServicePath(RenderedServicePath)}.
+ * The SFC data is served from memory and the flows are kept in memory instead
+ * of being written to the data store.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SfcOfRspProcessorBenchmark {
+
+    @Param({"VLAN", "MPLS", "NSH_VXGPE"})
+    private String transport;
+
+    @Param({"2", "8"})
+    private int chainLength;
+
+    private SfcOfRspProcessor sfcOfRspProcessor;
+    private RenderedServicePath rsp;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SfcOfProviderUtilsTestMock sfcUtilsTestMock = new SfcOfProviderUtilsTestMock();
+        sfcOfRspProcessor = new SfcOfRspProcessor(new SfcOfFlowProgrammerImpl(new InMemoryFlowWriter()),
+                sfcUtilsTestMock, new SfcSynchronizer(), null, null);
+
+        List<SftTypeName> sfTypes = new ArrayList<>();
+        for (int i = 0; i < chainLength; i++) {
+            sfTypes.add(new SftTypeName("type-" + i));
+        }
+        RspBuilder rspBuilder = new RspBuilder(sfcUtilsTestMock);
+        switch (transport) {
+            case "VLAN":
+                rsp = rspBuilder.createRspFromSfTypes(sfTypes, Mac.class, Transport.class);
+                break;
+            case "MPLS":
+                rsp = rspBuilder.createRspFromSfTypes(sfTypes, Mpls.class, Transport.class);
+                break;
+            case "NSH_VXGPE":
+                rsp = rspBuilder.createRspFromSfTypes(sfTypes, VxlanGpe.class, Nsh.class);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown transport " + transport);
+        }
+
+        // Render once so that the SFFs are initialized, as in steady state
+        sfcOfRspProcessor.processRenderedServicePath(rsp);
+    }
+
+    @Benchmark
+    public void processRenderedServicePath() {
+        sfcOfRspProcessor.processRenderedServicePath(rsp);
+    }
+}
@@ -79,6 +79,10 @@ public class MacChainingClassifier implements ClassifierInterface {
                 nodeId, String.format("%s.%s", flowKey, ofsDpl.getOfsPort().getPortId()), match,
                         ofsDpl.getOfsPort().getPortId(), sfcRspInfo.getNshNsp(), sfcRspInfo.getNshStartNsi());
 
+        if (fb == null) {
+            return null;
+        }
+
         return classifierHandler.addRspRelatedFlowIntoNode(nodeId, fb, sfcRspInfo.getNshNsp());
 
     }
@@ -111,6 +115,10 @@ public class MacChainingClassifier implements ClassifierInterface {
                 terminationPoint.getPortId(), terminationPoint.getMacAddress().getValue(),
                 sfcRspInfo.getNshNsp(), sfcRspInfo.getNshStartNsi());
 
+        if (fb == null) {
+            return null;
+        }
+
         return classifierHandler.addRspRelatedFlowIntoNode(classifierNodeName, fb,sfcRspInfo.getNshNsp());
 
     }
@@ -144,6 +152,10 @@ public class MacChainingClassifier implements ClassifierInterface {
                 nodeId, flowKey, ofsDpl.getOfsPort().getPortId(), sfcRspInfo.getNshNsp(),
                 sfcRspInfo.getNshStartNsi(), sfcRspInfo.getNshEndNsi());
 
+        if (fb == null) {
+            return null;
+        }
+
         return classifierHandler.addRspRelatedFlowIntoNode(nodeId, fb, sfcRspInfo.getNshNsp());
 
     }
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.scfofrenderer.listeners;
+
+import javax.annotation.Nonnull;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.genius.datastoreutils.listeners.AbstractSyncDataTreeChangeListener;
+import org.opendaylight.sfc.scfofrenderer.rspupdatelistener.ClassifierRspIndex;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.AccessLists;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.Acl;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * This class listens to changes in the ACLs to keep the
+ * {@link ClassifierRspIndex} up to date.
+ */
+public class ClassifierAclIndexListener extends AbstractSyncDataTreeChangeListener<Acl> {
+
+    private final ClassifierRspIndex classifierRspIndex;
+
+    public ClassifierAclIndexListener(DataBroker dataBroker, ClassifierRspIndex classifierRspIndex) {
+        super(dataBroker, LogicalDatastoreType.CONFIGURATION,
+              InstanceIdentifier.create(AccessLists.class).child(Acl.class));
+        this.classifierRspIndex = classifierRspIndex;
+    }
+
+    @Override
+    public void add(@Nonnull Acl acl) {
+        classifierRspIndex.updateAcl(acl);
+    }
+
+    @Override
+    public void remove(@Nonnull Acl acl) {
+        classifierRspIndex.removeAcl(acl);
+    }
+
+    @Override
+    public void update(@Nonnull Acl originalAcl, @Nonnull Acl updatedAcl) {
+        classifierRspIndex.updateAcl(updatedAcl);
+    }
+}
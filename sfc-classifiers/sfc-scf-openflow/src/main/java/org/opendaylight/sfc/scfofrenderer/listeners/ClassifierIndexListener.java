@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.scfofrenderer.listeners;
+
+import javax.annotation.Nonnull;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.genius.datastoreutils.listeners.AbstractSyncDataTreeChangeListener;
+import org.opendaylight.sfc.scfofrenderer.rspupdatelistener.ClassifierRspIndex;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.ServiceFunctionClassifiers;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.service.function.classifiers.ServiceFunctionClassifier;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * This class listens to changes in the Service Function Classifiers to keep
+ * the {@link ClassifierRspIndex} up to date.
+ */
+public class ClassifierIndexListener extends AbstractSyncDataTreeChangeListener<ServiceFunctionClassifier> {
+
+    private final ClassifierRspIndex classifierRspIndex;
+
+    public ClassifierIndexListener(DataBroker dataBroker, ClassifierRspIndex classifierRspIndex) {
+        super(dataBroker, LogicalDatastoreType.CONFIGURATION,
+              InstanceIdentifier.create(ServiceFunctionClassifiers.class).child(ServiceFunctionClassifier.class));
+        this.classifierRspIndex = classifierRspIndex;
+    }
+
+    @Override
+    public void add(@Nonnull ServiceFunctionClassifier classifier) {
+        classifierRspIndex.updateClassifier(classifier);
+    }
+
+    @Override
+    public void remove(@Nonnull ServiceFunctionClassifier classifier) {
+        classifierRspIndex.removeClassifier(classifier);
+    }
+
+    @Override
+    public void update(@Nonnull ServiceFunctionClassifier originalClassifier,
+                       @Nonnull ServiceFunctionClassifier updatedClassifier) {
+        classifierRspIndex.updateClassifier(updatedClassifier);
+    }
+}
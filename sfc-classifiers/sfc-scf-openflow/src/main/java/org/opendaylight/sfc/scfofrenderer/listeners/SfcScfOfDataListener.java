@@ -11,7 +11,7 @@ package org.opendaylight.sfc.scfofrenderer.listeners;
 import javax.annotation.Nonnull;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
-import org.opendaylight.genius.datastoreutils.listeners.AbstractSyncDataTreeChangeListener;
+import org.opendaylight.sfc.provider.listeners.AbstractKeyedAsyncDataTreeChangeListener;
 import org.opendaylight.sfc.scfofrenderer.processors.SfcScfOfProcessor;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.ServiceFunctionClassifiers;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.service.function.classifiers.ServiceFunctionClassifier;
@@ -24,15 +24,16 @@ import org.slf4j.LoggerFactory;
  *
  * @author Ursicio Martin (ursicio.javier.martin@ericsson.com)
  */
-public class SfcScfOfDataListener extends AbstractSyncDataTreeChangeListener<ServiceFunctionClassifier> {
+public class SfcScfOfDataListener extends AbstractKeyedAsyncDataTreeChangeListener<ServiceFunctionClassifier> {
 
     private static final Logger LOG = LoggerFactory.getLogger(SfcScfOfDataListener.class);
 
     private final SfcScfOfProcessor sfcScfProcessor;
 
     public SfcScfOfDataListener(DataBroker dataBroker, SfcScfOfProcessor sfcScfProcessor) {
+        // single lane: the processor shares one flow writer transaction
         super(dataBroker, LogicalDatastoreType.CONFIGURATION,
-              InstanceIdentifier.create(ServiceFunctionClassifiers.class).child(ServiceFunctionClassifier.class));
+              InstanceIdentifier.create(ServiceFunctionClassifiers.class).child(ServiceFunctionClassifier.class), 1);
         this.sfcScfProcessor = sfcScfProcessor;
     }
 
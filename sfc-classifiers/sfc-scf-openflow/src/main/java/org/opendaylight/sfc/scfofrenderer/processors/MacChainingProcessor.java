@@ -210,7 +210,7 @@ public class MacChainingProcessor implements ClassifierProcessorInterface {
         String flowKey = theFlowKey.replaceFirst(".in", ".relay");
         if (addClassifier) {
 
-            relayFlow = Optional.of(classifierInterface.createClassifierRelayFlow(
+            relayFlow = Optional.ofNullable(classifierInterface.createClassifierRelayFlow(
                     nodeName, flowKey, sfcRspInfo, classifierName));
         } else {
             relayFlow = Optional.of(classifierHandler.deleteFlowFromTable(nodeName,
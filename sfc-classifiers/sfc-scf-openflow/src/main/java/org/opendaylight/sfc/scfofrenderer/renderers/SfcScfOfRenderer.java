@@ -15,12 +15,15 @@ import org.opendaylight.controller.sal.binding.api.RpcProviderRegistry;
 import org.opendaylight.sfc.genius.util.SfcGeniusRpcClient;
 import org.opendaylight.sfc.scfofrenderer.flowgenerators.BareClassifier;
 import org.opendaylight.sfc.scfofrenderer.flowgenerators.LogicallyAttachedClassifier;
+import org.opendaylight.sfc.scfofrenderer.listeners.ClassifierAclIndexListener;
+import org.opendaylight.sfc.scfofrenderer.listeners.ClassifierIndexListener;
 import org.opendaylight.sfc.scfofrenderer.listeners.ClassifierRspsUpdateListener;
 import org.opendaylight.sfc.scfofrenderer.listeners.SfcScfOfDataListener;
 import org.opendaylight.sfc.scfofrenderer.logicalclassifier.LogicalClassifierDataGetter;
 import org.opendaylight.sfc.scfofrenderer.processors.ClassifierRspUpdateProcessor;
 import org.opendaylight.sfc.scfofrenderer.processors.OpenflowClassifierProcessor;
 import org.opendaylight.sfc.scfofrenderer.processors.SfcScfOfProcessor;
+import org.opendaylight.sfc.scfofrenderer.rspupdatelistener.ClassifierRspIndex;
 import org.opendaylight.sfc.scfofrenderer.rspupdatelistener.ClassifierRspUpdateDataGetter;
 import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterImpl;
 import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterInterface;
@@ -32,6 +35,8 @@ import org.slf4j.LoggerFactory;
 public class SfcScfOfRenderer implements AutoCloseable {
 
     private static final Logger LOG = LoggerFactory.getLogger(SfcScfOfRenderer.class);
+    private final ClassifierAclIndexListener classifierAclIndexListener;
+    private final ClassifierIndexListener classifierIndexListener;
     private final ClassifierRspsUpdateListener classifierRspsUpdateListener;
     private final SfcScfOfDataListener sfcScfDataListener;
 
@@ -62,9 +67,18 @@ public class SfcScfOfRenderer implements AutoCloseable {
         // the classifierProcessor share the same transaction object
         openflowWriter.injectTransaction(theTx);
 
+        // the RSP -> ACL -> classifier index is kept up to date by its own
+        // listeners, registered first so that it is populated with the
+        // existing configuration before any RSP update is handled
+        ClassifierRspIndex classifierRspIndex = new ClassifierRspIndex();
+        classifierAclIndexListener = new ClassifierAclIndexListener(dataBroker, classifierRspIndex);
+        classifierIndexListener = new ClassifierIndexListener(dataBroker, classifierRspIndex);
+        classifierAclIndexListener.register();
+        classifierIndexListener.register();
+
         classifierRspsUpdateListener = new ClassifierRspsUpdateListener(dataBroker,
                 new ClassifierRspUpdateProcessor(logicalClassifier), openflowWriter,
-                new ClassifierRspUpdateDataGetter(), dataGetter);
+                new ClassifierRspUpdateDataGetter(classifierRspIndex), dataGetter);
         sfcScfDataListener = new SfcScfOfDataListener(dataBroker,
                 new SfcScfOfProcessor(openflowWriter, logicalClassifierHandler));
         classifierRspsUpdateListener.register();
@@ -80,6 +94,8 @@ public class SfcScfOfRenderer implements AutoCloseable {
     public void close()  {
         classifierRspsUpdateListener.close();
         sfcScfDataListener.close();
+        classifierIndexListener.close();
+        classifierAclIndexListener.close();
         LOG.info("SfcScfOfRenderer auto-closed");
     }
 }
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.scfofrenderer.rspupdatelistener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.Actions1;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.access.lists.acl.access.list.entries.ace.actions.sfc.action.AclRenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.service.function.classifiers.ServiceFunctionClassifier;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.service.function.classifiers.service.function.classifier.SclServiceFunctionForwarder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.Acl;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.Ace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reverse index from Rendered Service Paths (RSPs) to the ACLs pointing to
+ * them, and from those ACLs to the classifier nodes enforcing them. It is
+ * incrementally kept up to date from the ACL and classifier configuration
+ * changes, so that the classifiers affected by a RSP change can be found
+ * without scanning the whole configuration.
+ */
+public class ClassifierRspIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClassifierRspIndex.class);
+
+    // ACL name -> ACL
+    private final Map<String, Acl> aclsByName = new HashMap<>();
+
+    // ACL name -> names of the RSPs the ACEs of the ACL point to
+    private final Map<String, Set<RspName>> rspNamesByAclName = new HashMap<>();
+
+    // RSP name -> names of the ACLs with an ACE pointing to the RSP
+    private final Map<RspName, Set<String>> aclNamesByRspName = new HashMap<>();
+
+    // classifier name -> classifier
+    private final Map<String, ServiceFunctionClassifier> classifiersByName = new HashMap<>();
+
+    // classifier name -> name of the ACL enforced by the classifier
+    private final Map<String, String> aclNameByClassifierName = new HashMap<>();
+
+    // ACL name -> names of the classifiers enforcing the ACL
+    private final Map<String, Set<String>> classifierNamesByAclName = new HashMap<>();
+
+    /**
+     * Add or replace an ACL in the index.
+     *
+     * @param acl
+     *            the ACL
+     */
+    public synchronized void updateAcl(Acl acl) {
+        removeAcl(acl.getAclName());
+        Set<RspName> rspNames = getRspNames(acl);
+        aclsByName.put(acl.getAclName(), acl);
+        rspNamesByAclName.put(acl.getAclName(), rspNames);
+        rspNames.forEach(rspName -> aclNamesByRspName.computeIfAbsent(rspName, key -> new HashSet<>())
+                .add(acl.getAclName()));
+        LOG.debug("updateAcl - indexed ACL {}", acl.getAclName());
+    }
+
+    /**
+     * Remove an ACL from the index.
+     *
+     * @param acl
+     *            the ACL
+     */
+    public synchronized void removeAcl(Acl acl) {
+        removeAcl(acl.getAclName());
+        LOG.debug("removeAcl - removed ACL {}", acl.getAclName());
+    }
+
+    /**
+     * Add or replace a classifier in the index.
+     *
+     * @param classifier
+     *            the classifier
+     */
+    public synchronized void updateClassifier(ServiceFunctionClassifier classifier) {
+        removeClassifier(classifier.getName());
+        classifiersByName.put(classifier.getName(), classifier);
+        getAclName(classifier).ifPresent(aclName -> {
+            aclNameByClassifierName.put(classifier.getName(), aclName);
+            classifierNamesByAclName.computeIfAbsent(aclName, key -> new HashSet<>()).add(classifier.getName());
+        });
+        LOG.debug("updateClassifier - indexed classifier {}", classifier.getName());
+    }
+
+    /**
+     * Remove a classifier from the index.
+     *
+     * @param classifier
+     *            the classifier
+     */
+    public synchronized void removeClassifier(ServiceFunctionClassifier classifier) {
+        removeClassifier(classifier.getName());
+        LOG.debug("removeClassifier - removed classifier {}", classifier.getName());
+    }
+
+    /**
+     * Get the ACLs that apply to the given RSP name.
+     *
+     * @param rspName
+     *            the name of the RSP
+     * @return a list of all the ACLs having an ACE pointing to the RSP
+     */
+    public synchronized List<Acl> getAclsByRspName(RspName rspName) {
+        return aclNamesByRspName.getOrDefault(rspName, Collections.emptySet()).stream().map(aclsByName::get)
+                .filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    /**
+     * Get the classifier nodes enforcing the given ACL.
+     *
+     * @param aclName
+     *            the name of the ACL
+     * @return a list of all the {@link SclServiceFunctionForwarder} enforcing
+     *         the given ACL
+     */
+    public synchronized List<SclServiceFunctionForwarder> getClassifierNodesByAclName(String aclName) {
+        List<SclServiceFunctionForwarder> classifierNodes = new ArrayList<>();
+        classifierNamesByAclName.getOrDefault(aclName, Collections.emptySet()).stream()
+                .map(classifiersByName::get).filter(Objects::nonNull)
+                .map(ServiceFunctionClassifier::getSclServiceFunctionForwarder).filter(Objects::nonNull)
+                .forEach(classifierNodes::addAll);
+        return classifierNodes;
+    }
+
+    private void removeAcl(String aclName) {
+        aclsByName.remove(aclName);
+        Set<RspName> rspNames = rspNamesByAclName.remove(aclName);
+        if (rspNames == null) {
+            return;
+        }
+        rspNames.forEach(rspName -> {
+            Set<String> aclNames = aclNamesByRspName.get(rspName);
+            if (aclNames != null) {
+                aclNames.remove(aclName);
+                if (aclNames.isEmpty()) {
+                    aclNamesByRspName.remove(rspName);
+                }
+            }
+        });
+    }
+
+    private void removeClassifier(String classifierName) {
+        classifiersByName.remove(classifierName);
+        String aclName = aclNameByClassifierName.remove(classifierName);
+        if (aclName == null) {
+            return;
+        }
+        Set<String> classifierNames = classifierNamesByAclName.get(aclName);
+        if (classifierNames != null) {
+            classifierNames.remove(classifierName);
+            if (classifierNames.isEmpty()) {
+                classifierNamesByAclName.remove(aclName);
+            }
+        }
+    }
+
+    private static Set<RspName> getRspNames(Acl acl) {
+        if (acl.getAccessListEntries() == null || acl.getAccessListEntries().getAce() == null) {
+            return Collections.emptySet();
+        }
+        return acl.getAccessListEntries().getAce().stream().map(Ace::getActions).filter(Objects::nonNull)
+                .map(actions -> actions.getAugmentation(Actions1.class)).filter(Objects::nonNull)
+                .map(Actions1::getSfcAction).filter(AclRenderedServicePath.class::isInstance)
+                .map(AclRenderedServicePath.class::cast).map(AclRenderedServicePath::getRenderedServicePath)
+                .filter(Objects::nonNull).map(RspName::new).collect(Collectors.toSet());
+    }
+
+    private static Optional<String> getAclName(ServiceFunctionClassifier classifier) {
+        return Optional.ofNullable(classifier.getAcl()).map(acl -> acl.getName());
+    }
+}
@@ -8,24 +8,19 @@
 
 package org.opendaylight.sfc.scfofrenderer.rspupdatelistener;
 
-import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
-import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
-import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.Actions1;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.access.lists.acl.access.list.entries.ace.actions.sfc.action.AclRenderedServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.ServiceFunctionClassifiers;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.service.function.classifiers.ServiceFunctionClassifier;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.service.function.classifiers.service.function.classifier.SclServiceFunctionForwarder;
-import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.AccessLists;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.Acl;
-import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.Ace;
-import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 
 public class ClassifierRspUpdateDataGetter {
+
+    private final ClassifierRspIndex classifierRspIndex;
+
+    public ClassifierRspUpdateDataGetter(ClassifierRspIndex classifierRspIndex) {
+        this.classifierRspIndex = classifierRspIndex;
+    }
+
     /**
      * Filter ACLs by RSP name.
      * @param theRspName
@@ -33,16 +28,7 @@ public class ClassifierRspUpdateDataGetter {
      * @return a list of all the ACLs that apply to the given RSP name
      */
     public List<Acl> filterAclsByRspName(RspName theRspName) {
-        InstanceIdentifier<AccessLists> ifConfigIID = InstanceIdentifier.builder(AccessLists.class).build();
-
-        return Optional.ofNullable(SfcDataStoreAPI.readTransactionAPI(ifConfigIID, LogicalDatastoreType.CONFIGURATION))
-                .map(AccessLists::getAcl).orElse(Collections.emptyList()).stream()
-                .filter(acl -> acl.getAccessListEntries() != null)
-                .filter(acl -> acl.getAccessListEntries().getAce().stream().map(Ace::getActions)
-                        .map(actions -> actions.getAugmentation(Actions1.class)).map(
-                            actions1 -> (AclRenderedServicePath) actions1.getSfcAction())
-                        .anyMatch(sfcAction -> sfcAction.getRenderedServicePath().equals(theRspName.getValue())))
-                .collect(Collectors.toList());
+        return classifierRspIndex.getAclsByRspName(theRspName);
     }
 
     /**
@@ -53,13 +39,6 @@ public class ClassifierRspUpdateDataGetter {
      *         the given ACL
      */
     public List<SclServiceFunctionForwarder> filterClassifierNodesByAclName(String theAclName) {
-        InstanceIdentifier<ServiceFunctionClassifiers> ifConfigIID = InstanceIdentifier
-                .builder(ServiceFunctionClassifiers.class).build();
-
-        return Optional.ofNullable(SfcDataStoreAPI.readTransactionAPI(ifConfigIID, LogicalDatastoreType.CONFIGURATION))
-                .map(ServiceFunctionClassifiers::getServiceFunctionClassifier).orElse(Collections.emptyList()).stream()
-                .filter(classifier -> classifier.getAcl().getName().equals(theAclName))
-                .map(ServiceFunctionClassifier::getSclServiceFunctionForwarder).findAny()
-                .orElse(Collections.emptyList());
+        return classifierRspIndex.getClassifierNodesByAclName(theAclName);
     }
 }
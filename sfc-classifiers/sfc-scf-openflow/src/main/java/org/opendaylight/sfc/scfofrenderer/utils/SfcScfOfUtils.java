@@ -256,9 +256,9 @@ public final class SfcScfOfUtils {
                                                               String outPort, Long pathId, short startIndex) {
         int order = 0;
 
-        VirtualMacAddress vmac = VirtualMacAddress.getForwardAddress(pathId, 0);
+        VirtualMacAddress vmac = VirtualMacAddress.peekForwardAddress(pathId, 0);
 
-        if (nodeName == null || flowKey == null) {
+        if (nodeName == null || flowKey == null || vmac == null) {
             return null;
         }
 
@@ -296,9 +296,9 @@ public final class SfcScfOfUtils {
                                                                    Long pathId, short startIndex, short lastIndex) {
         int order = 0;
 
-        VirtualMacAddress vmac = VirtualMacAddress.getForwardAddress(pathId, 0);
+        VirtualMacAddress vmac = VirtualMacAddress.peekForwardAddress(pathId, 0);
 
-        if (nodeName == null || flowKey == null) {
+        if (nodeName == null || flowKey == null || vmac == null) {
             return null;
         }
 
@@ -340,9 +340,9 @@ public final class SfcScfOfUtils {
                                                              String gwMac, Long pathId, short startIndex) {
         int order = 0;
 
-        VirtualMacAddress vmac = VirtualMacAddress.getForwardAddress(pathId, 0);
+        VirtualMacAddress vmac = VirtualMacAddress.peekForwardAddress(pathId, 0);
 
-        if (nodeName == null || flowKey == null) {
+        if (nodeName == null || flowKey == null || vmac == null) {
             return null;
         }
 
@@ -8,7 +8,6 @@
 
 package org.opendaylight.sfc.scfofrenderer.rspupdatelistener;
 
-import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
@@ -18,33 +17,18 @@ import java.util.List;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
-import org.junit.runner.RunWith;
 import org.mockito.Mock;
-import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.Actions1;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.access.lists.acl.access.list.entries.ace.actions.sfc.action.AclRenderedServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.ServiceFunctionClassifiers;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.service.function.classifiers.ServiceFunctionClassifier;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.service.function.classifiers.service.function.classifier.SclServiceFunctionForwarder;
-import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.AccessLists;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.Acl;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.AccessListEntries;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.Ace;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.Actions;
-import org.powermock.api.mockito.PowerMockito;
-import org.powermock.core.classloader.annotations.PrepareForTest;
-import org.powermock.modules.junit4.PowerMockRunner;
 
-@RunWith(PowerMockRunner.class)
-@PrepareForTest(SfcDataStoreAPI.class)
 public class ClassifierRspUpdateDataGetterTest {
-    @Mock
-    AccessLists accessLists;
-
-    @Mock
-    ServiceFunctionClassifiers classifierContainer;
-
     @Mock
     ServiceFunctionClassifier theClassifier;
 
@@ -76,26 +60,18 @@ public class ClassifierRspUpdateDataGetterTest {
     @Mock
     SclServiceFunctionForwarder sclForwarder;
 
-    private final List<Acl> aclList = new ArrayList<>();
-
     private final List<Ace> aceList = new ArrayList<>();
 
-    private final List<ServiceFunctionClassifier> classifierList = new ArrayList<>();
-
     private final List<SclServiceFunctionForwarder> sclClassifierList = new ArrayList<>();
 
+    private ClassifierRspIndex classifierRspIndex;
+
     public ClassifierRspUpdateDataGetterTest() {
         initMocks(this);
     }
 
     @Before
     public void setUp() {
-        PowerMockito.mockStatic(SfcDataStoreAPI.class);
-
-        when(accessLists.getAcl()).thenReturn(aclList);
-
-        aclList.add(acl);
-
         when(acl.getAclName()).thenReturn("acl1");
 
         when(acl.getAccessListEntries()).thenReturn(aces);
@@ -117,22 +93,24 @@ public class ClassifierRspUpdateDataGetterTest {
 
         when(theClassifier.getAcl()).thenReturn(classifierAcl);
 
-        classifierList.add(theClassifier);
+        when(theClassifier.getName()).thenReturn("classifier1");
 
         when(sclForwarder.getName()).thenReturn("c1");
 
         sclClassifierList.add(sclForwarder);
 
         when(theClassifier.getSclServiceFunctionForwarder()).thenReturn(sclClassifierList);
+
+        classifierRspIndex = new ClassifierRspIndex();
+        classifierRspIndex.updateAcl(acl);
+        classifierRspIndex.updateClassifier(theClassifier);
     }
 
     @Test
     public void testAclFilteringByRspName() {
-        PowerMockito.when(SfcDataStoreAPI
-                .readTransactionAPI(any(), any())).thenReturn(accessLists);
         RspName theRspName = new RspName("rsp1");
 
-        ClassifierRspUpdateDataGetter rspUpdateListener = new ClassifierRspUpdateDataGetter();
+        ClassifierRspUpdateDataGetter rspUpdateListener = new ClassifierRspUpdateDataGetter(classifierRspIndex);
         Assert.assertFalse(rspUpdateListener.filterAclsByRspName(theRspName).isEmpty());
         Assert.assertEquals(1, rspUpdateListener.filterAclsByRspName(theRspName).size());
         Assert.assertEquals("acl1", rspUpdateListener.filterAclsByRspName(theRspName).get(0).getAclName());
@@ -140,14 +118,35 @@ public class ClassifierRspUpdateDataGetterTest {
 
     @Test
     public void testClassifierFilteringByAclName() {
-        PowerMockito.when(SfcDataStoreAPI
-                .readTransactionAPI(any(), any())).thenReturn(classifierContainer);
-
-        when(classifierContainer.getServiceFunctionClassifier()).thenReturn(classifierList);
-
-        ClassifierRspUpdateDataGetter rspUpdateListener = new ClassifierRspUpdateDataGetter();
+        ClassifierRspUpdateDataGetter rspUpdateListener = new ClassifierRspUpdateDataGetter(classifierRspIndex);
         Assert.assertFalse(rspUpdateListener.filterClassifierNodesByAclName("acl1").isEmpty());
         Assert.assertEquals(1, rspUpdateListener.filterClassifierNodesByAclName("acl1").size());
         Assert.assertEquals("c1", rspUpdateListener.filterClassifierNodesByAclName("acl1").get(0).getName());
     }
+
+    @Test
+    public void testAclRemovedFromIndex() {
+        classifierRspIndex.removeAcl(acl);
+
+        ClassifierRspUpdateDataGetter rspUpdateListener = new ClassifierRspUpdateDataGetter(classifierRspIndex);
+        Assert.assertTrue(rspUpdateListener.filterAclsByRspName(new RspName("rsp1")).isEmpty());
+    }
+
+    @Test
+    public void testAclUpdatedInIndex() {
+        when(aclRsp.getRenderedServicePath()).thenReturn("rsp2");
+        classifierRspIndex.updateAcl(acl);
+
+        ClassifierRspUpdateDataGetter rspUpdateListener = new ClassifierRspUpdateDataGetter(classifierRspIndex);
+        Assert.assertTrue(rspUpdateListener.filterAclsByRspName(new RspName("rsp1")).isEmpty());
+        Assert.assertEquals(1, rspUpdateListener.filterAclsByRspName(new RspName("rsp2")).size());
+    }
+
+    @Test
+    public void testClassifierRemovedFromIndex() {
+        classifierRspIndex.removeClassifier(theClassifier);
+
+        ClassifierRspUpdateDataGetter rspUpdateListener = new ClassifierRspUpdateDataGetter(classifierRspIndex);
+        Assert.assertTrue(rspUpdateListener.filterClassifierNodesByAclName("acl1").isEmpty());
+    }
 }
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2017 Ericsson S.A. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.scfvpprenderer.processors;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compiles the ordered rules of an ACL into a chain of VPP classify tables.
+ *
+ * <p>
+ * The rules sharing a mask are grouped into a single table with one session
+ * per rule, VPP looking up all of them with a single hash lookup. The tables
+ * are then ordered by decreasing number of sessions, as the best estimate of
+ * hit likelihood available, so that most packets are classified walking few
+ * tables. A table is however never moved ahead of another one holding an
+ * earlier rule that overlaps one of its rules with a different action, so
+ * that the first matching rule of the ACL still wins. If the rules cannot be
+ * grouped by mask without breaking that precedence, only consecutive rules
+ * sharing a mask are grouped, keeping the ACL order.
+ */
+public class VppClassifierCompiler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VppClassifierCompiler.class);
+
+    private final List<Rule> rules = new ArrayList<>();
+
+    /**
+     * A classify session: the mask and match selecting the packets and the
+     * service path and index they are classified to.
+     */
+    public static final class Rule {
+        private final VppClassifyMaskMatch maskMatch;
+        private final Long nsp;
+        private final Short nsi;
+
+        Rule(VppClassifyMaskMatch maskMatch, Long nsp, Short nsi) {
+            this.maskMatch = maskMatch;
+            this.nsp = nsp;
+            this.nsi = nsi;
+        }
+
+        public VppClassifyMaskMatch getMaskMatch() {
+            return maskMatch;
+        }
+
+        public Long getNsp() {
+            return nsp;
+        }
+
+        public Short getNsi() {
+            return nsi;
+        }
+
+        boolean hasSameAction(Rule other) {
+            return Objects.equals(nsp, other.nsp) && Objects.equals(nsi, other.nsi);
+        }
+    }
+
+    /**
+     * A classify table: the mask shared by all its sessions and the rules
+     * building them.
+     */
+    public static final class Table {
+        private final String maskKey;
+        private final int firstRule;
+        private final List<Rule> rules = new ArrayList<>();
+        private final Set<VppClassifyMaskMatch> matches = new HashSet<>();
+
+        Table(String maskKey, int firstRule) {
+            this.maskKey = maskKey;
+            this.firstRule = firstRule;
+        }
+
+        public VppClassifyMaskMatch getMask() {
+            return rules.get(0).getMaskMatch();
+        }
+
+        public List<Rule> getRules() {
+            return Collections.unmodifiableList(rules);
+        }
+
+        boolean add(Rule rule) {
+            // a later rule with the same match is shadowed by the first one
+            if (!matches.add(rule.getMaskMatch())) {
+                LOG.debug("Rule {} shadowed by an earlier rule with the same match", rule.getMaskMatch());
+                return false;
+            }
+            rules.add(rule);
+            return true;
+        }
+    }
+
+    /**
+     * Add the next rule, in ACL order.
+     *
+     * @param maskMatch
+     *            the mask and match of the rule
+     * @param nsp
+     *            the service path of the matching packets
+     * @param nsi
+     *            the service index of the matching packets
+     */
+    public void addRule(VppClassifyMaskMatch maskMatch, Long nsp, Short nsi) {
+        rules.add(new Rule(maskMatch, nsp, nsi));
+    }
+
+    /**
+     * Compile the rules added so far into the chain of classify tables.
+     *
+     * @return the classify tables, in lookup order
+     */
+    public List<Table> compile() {
+        Map<String, Table> tablesByMask = new LinkedHashMap<>();
+        List<Rule> kept = new ArrayList<>();
+        List<Table> ruleTables = new ArrayList<>();
+        for (Rule rule : rules) {
+            Table table = tablesByMask.computeIfAbsent(rule.getMaskMatch().getMaskKey(),
+                key -> new Table(key, kept.size()));
+            if (table.add(rule)) {
+                kept.add(rule);
+                ruleTables.add(table);
+            }
+        }
+
+        // table A must be looked up before table B if a rule of A overlaps a
+        // later rule of B with a different action
+        Map<Table, Set<Table>> successors = new LinkedHashMap<>();
+        Map<Table, Integer> predecessorCount = new LinkedHashMap<>();
+        for (Table table : tablesByMask.values()) {
+            successors.put(table, new HashSet<>());
+            predecessorCount.put(table, 0);
+        }
+        for (int i = 0; i < kept.size(); i++) {
+            for (int j = i + 1; j < kept.size(); j++) {
+                Table before = ruleTables.get(i);
+                Table after = ruleTables.get(j);
+                if (before != after && !kept.get(i).hasSameAction(kept.get(j))
+                        && kept.get(i).getMaskMatch().overlaps(kept.get(j).getMaskMatch())
+                        && successors.get(before).add(after)) {
+                    predecessorCount.merge(after, 1, Integer::sum);
+                }
+            }
+        }
+
+        Comparator<Table> bySessionsThenAclOrder = Comparator.<Table>comparingInt(table -> -table.rules.size())
+                .thenComparingInt(table -> table.firstRule);
+        PriorityQueue<Table> ready = new PriorityQueue<>(bySessionsThenAclOrder);
+        predecessorCount.forEach((table, count) -> {
+            if (count == 0) {
+                ready.add(table);
+            }
+        });
+        List<Table> ordered = new ArrayList<>(tablesByMask.size());
+        while (!ready.isEmpty()) {
+            Table table = ready.poll();
+            ordered.add(table);
+            for (Table successor : successors.get(table)) {
+                if (predecessorCount.merge(successor, -1, Integer::sum) == 0) {
+                    ready.add(successor);
+                }
+            }
+        }
+
+        if (ordered.size() < tablesByMask.size()) {
+            LOG.warn("ACL rules can not be grouped by mask without breaking their precedence, keeping ACL order");
+            return compileInAclOrder();
+        }
+        return ordered;
+    }
+
+    private List<Table> compileInAclOrder() {
+        List<Table> tables = new ArrayList<>();
+        Set<VppClassifyMaskMatch> matches = new HashSet<>();
+        Table current = null;
+        for (Rule rule : rules) {
+            if (!matches.add(rule.getMaskMatch())) {
+                // shadowed by an earlier rule with the same match
+                continue;
+            }
+            String maskKey = rule.getMaskMatch().getMaskKey();
+            if (current == null || !current.maskKey.equals(maskKey)) {
+                current = new Table(maskKey, tables.size());
+                tables.add(current);
+            }
+            current.add(rule);
+        }
+        return tables;
+    }
+}
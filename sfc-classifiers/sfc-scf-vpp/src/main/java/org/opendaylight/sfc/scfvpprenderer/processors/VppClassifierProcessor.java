@@ -10,17 +10,15 @@ package org.opendaylight.sfc.scfvpprenderer.processors;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterables;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
-import org.apache.commons.lang3.StringUtils;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.sfc.provider.api.SfcProviderAclAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathAPI;
@@ -43,12 +41,8 @@ import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.cont
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.ace.ip.ace.ip.version.AceIpv4;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.ace.ip.ace.ip.version.AceIpv6;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
-import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Prefix;
-import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv6Address;
-import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv6AddressNoZone;
-import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv6Prefix;
-import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.yang.types.rev130715.HexString;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.classify.table.base.attributes.ClassifySessionBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.PortNumber;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.classify.table.base.attributes.ClassifySession;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.vpp.classifier.ClassifyTableBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -61,26 +55,10 @@ public class VppClassifierProcessor {
     private final VppNodeManager nodeManager;
     private static final String SFC_BD_NAME = "SFCVPP";
     private static final String DUMMY_BD_NAME = "SFCDUMMY";
+    private static final long ETHERTYPE_IPV4 = 0x0800;
+    private static final long ETHERTYPE_IPV6 = 0x86dd;
     private final Map<String, String> bridgeDomainCreated = new HashMap<>();
 
-    private static class Pair<T> {
-        private final T mask;
-        private final T match;
-
-        Pair(T mask, T match) {
-            this.mask = mask;
-            this.match = match;
-        }
-
-        T getMask() {
-            return mask;
-        }
-
-        T getMatch() {
-            return match;
-        }
-    }
-
     private static class SffInfo {
         private final DataBroker mountPoint;
         private final SffName sffName;
@@ -97,6 +75,16 @@ public class VppClassifierProcessor {
         }
     }
 
+    private static class ReverseRspInfo {
+        private final Long pathId;
+        private final Short serviceIndex;
+
+        ReverseRspInfo(Long pathId, Short serviceIndex) {
+            this.pathId = pathId;
+            this.serviceIndex = serviceIndex;
+        }
+    }
+
     @Inject
     public VppClassifierProcessor(VppNodeManager nodeManager) {
         this.nodeManager = Preconditions.checkNotNull(nodeManager);
@@ -134,226 +122,75 @@ public class VppClassifierProcessor {
         return true;
     }
 
-    private byte[] ipv4AddressPrefixToBytes(final Ipv4Prefix ipv4Prefix) {
-        byte[] retval = new byte[4];
-        String[] address = ipv4Prefix.getValue().substring(0, ipv4Prefix.getValue().indexOf('/')).split("\\.");
-        String prefix = ipv4Prefix.getValue().substring(ipv4Prefix.getValue().indexOf('/') + 1);
-        int mask = Short.parseShort(prefix);
-        for (int i = mask % 8; i < 4; i++) {
-            address[i] = "0";
-        }
-
-        for (int d = 0; d < 4; d++) {
-            retval[d] = (byte) (Short.parseShort(address[d]) & 0xff);
-        }
-        return retval;
-    }
-
-    private byte[] ipv6AddressNoZoneToArray(final String address) {
-        byte[] retval = new byte[16];
-
-        //splits address and add ommited zeros for easier parsing
-        List<String> segments = Arrays.asList(address.split(":"))
-                .stream()
-                .map(segment -> StringUtils.repeat('0', 4 - segment.length()) + segment)
-                .collect(Collectors.toList());
-
-        byte index = 0;
-        for (String segment : segments) {
-
-            String firstPart = segment.substring(0, 2);
-            String secondPart = segment.substring(2);
-
-            //first part should be ommited
-            if ("00".equals(firstPart)) {
-                index++;
-            } else {
-                retval[index++] = (byte) Short.parseShort(firstPart, 16);
-            }
-
-            retval[index++] = (byte) Short.parseShort(secondPart, 16);
-        }
-
-        return retval;
-    }
-
-    private byte[] ipv6AddressPrefixToBytes(final Ipv6Prefix ipv6Prefix) {
-        return ipv6AddressNoZoneToArray(new Ipv6AddressNoZone(
-                new Ipv6Address(ipv6Prefix.getValue().substring(0, ipv6Prefix.getValue().indexOf('/')))).getValue());
-    }
-
-    private Pair<HexString> getMaskAndMatch(Matches matches) {
+    private VppClassifyMaskMatch getMaskAndMatch(Matches matches) {
         if (matches == null) {
             return null;
         }
 
-        int maskLength = 0;
-        String mask = "";
-        String match = "";
+        VppClassifyMaskMatchBuilder maskMatchBuilder = new VppClassifyMaskMatchBuilder();
         if (matches.getAceType() instanceof AceEth) {
             AceEth eth = (AceEth) matches.getAceType();
-
-            if (eth.getDestinationMacAddress() != null) {
-                mask = mask + "ff:ff:ff:ff:ff:ff";
-                match = match + eth.getDestinationMacAddress().getValue();
-            } else {
-                mask = mask + "00:00:00:00:00:00";
-                match = match + "00:00:00:00:00:00";
-            }
-            if (eth.getSourceMacAddress() != null) {
-                mask = mask + ":ff:ff:ff:ff:ff:ff";
-                match = match + ":" + eth.getSourceMacAddress().getValue();
-            } else {
-                mask = mask + ":00:00:00:00:00:00";
-                match = match + ":00:00:00:00:00:00";
-            }
-            maskLength += 12;
+            maskMatchBuilder.appendMac(eth.getDestinationMacAddress() == null ? null
+                    : eth.getDestinationMacAddress().getValue());
+            maskMatchBuilder.appendMac(eth.getSourceMacAddress() == null ? null
+                    : eth.getSourceMacAddress().getValue());
         } else if (matches.getAceType() instanceof AceIp) {
-            mask = mask + "00:00:00:00:00:00:00:00:00:00:00:00";
-            match = match + "00:00:00:00:00:00:00:00:00:00:00:00";
-            maskLength += 12;
             AceIp aceip = (AceIp) matches.getAceType();
 
+            // Ethernet destination and source addresses
+            maskMatchBuilder.skip(12);
             if (aceip.getAceIpVersion() instanceof AceIpv4) {
-                //Ethernet Type
-                mask = mask + ":ff:ff";
-                match = match + ":08:00";
-                maskLength += 2;
+                AceIpv4 ipv4 = (AceIpv4) aceip.getAceIpVersion();
+                maskMatchBuilder.appendExact(ETHERTYPE_IPV4, 2);
 
-                //Transport Type
-                mask = mask + ":00:00:00:00:00:00:00:00:00:ff:00:00";
-                match = match + String.format(":00:00:00:00:00:00:00:00:00:%1$02x:00:00", aceip.getProtocol());
-                maskLength += 12;
+                // IPv4 header up to the addresses, protocol at offset 9
+                maskMatchBuilder.skip(9);
+                appendProtocol(maskMatchBuilder, aceip.getProtocol());
+                maskMatchBuilder.skip(2);
 
-                //L3: IPv4
-                AceIpv4 ipv4 = (AceIpv4) aceip.getAceIpVersion();
-                Ipv4Prefix src = ipv4.getSourceIpv4Network();
-                if (src != null) {
-                    byte[] retval = ipv4AddressPrefixToBytes(src);
-                    StringBuilder maskBuf = new StringBuilder(mask);
-                    for (int i = 0; i < 4; i++) {
-                        if (retval[i] == 0) {
-                            maskBuf.append(":00");
-                        } else {
-                            maskBuf.append(":ff");
-                        }
-                    }
-
-                    mask = maskBuf.toString();
-                    match += String.format(":%1$02x:%2$02x:%3$02x:%4$02x", retval[0], retval[1], retval[2], retval[3]);
-                } else {
-                    mask = mask + ":00:00:00:00";
-                    match = match + ":00:00:00:00";
-                }
-                maskLength += 4;
-
-                Ipv4Prefix dst = ipv4.getDestinationIpv4Network();
-                if (dst != null) {
-                    byte[] retval = ipv4AddressPrefixToBytes(dst);
-                    StringBuilder maskBuf = new StringBuilder(mask);
-                    for (int i = 0; i < 4; i++) {
-                        if (retval[i] == 0) {
-                            maskBuf.append(":00");
-                        } else {
-                            maskBuf.append(":ff");
-                        }
-                    }
-
-                    mask = maskBuf.toString();
-                    match += String.format(":%1$02x:%2$02x:%3$02x:%4$02x", retval[0], retval[1], retval[2], retval[3]);
-                } else {
-                    mask = mask + ":00:00:00:00";
-                    match = match + ":00:00:00:00";
-                }
-                maskLength += 4;
+                maskMatchBuilder.appendIpPrefix(ipv4.getSourceIpv4Network() == null ? null
+                        : ipv4.getSourceIpv4Network().getValue(), 4);
+                maskMatchBuilder.appendIpPrefix(ipv4.getDestinationIpv4Network() == null ? null
+                        : ipv4.getDestinationIpv4Network().getValue(), 4);
             } else if (aceip.getAceIpVersion() instanceof AceIpv6) {
-                //Ethernet Type
-                mask = mask + ":ff:ff";
-                match = match + ":86:dd";
-                maskLength += 2;
+                AceIpv6 ipv6 = (AceIpv6) aceip.getAceIpVersion();
+                maskMatchBuilder.appendExact(ETHERTYPE_IPV6, 2);
 
-                //Transport Type
-                mask = mask + ":00:00:00:00:00:00:ff:00";
-                match = match + String.format(":00:00:00:00:00:00:%1$02x:00", aceip.getProtocol());
-                maskLength += 8;
+                // IPv6 header up to the addresses, next header at offset 6
+                maskMatchBuilder.skip(6);
+                appendProtocol(maskMatchBuilder, aceip.getProtocol());
+                maskMatchBuilder.skip(1);
 
-                //L3: IPv6
-                AceIpv6 ipv6 = (AceIpv6) aceip.getAceIpVersion();
-                Ipv6Prefix src = ipv6.getSourceIpv6Network();
-                if (src != null) {
-                    byte[] retval = ipv6AddressPrefixToBytes(src);
-                    mask = mask + ":ff:ff:ff:ff:ff:ff:ff:ff::ff:ff:ff:ff:ff:ff:ff:ff";
-                    match += String.format(":%1$02x:%2$02x:%3$02x:%4$02x:%5$02x:%6$02x:%7$02x:%8$02x:%9$02x:%10$02x:"
-                            + "%11$02x:%12$02x:%13$02x:%14$02x:%15$02x:%16$02x", retval[0], retval[1], retval[2],
-                            retval[3], retval[4], retval[5], retval[6], retval[7], retval[8], retval[9], retval[10],
-                            retval[11], retval[12], retval[13], retval[14], retval[15]);
-                } else {
-                    mask = mask + ":00:00:00:00:00:00:00:00:00:00:00:00:00:00:00:00";
-                    match = match + ":00:00:00:00:00:00:00:00:00:00:00:00:00:00:00:00";
-                }
-                maskLength += 16;
-
-                Ipv6Prefix dst = ipv6.getDestinationIpv6Network();
-                if (dst != null) {
-                    byte[] retval = ipv6AddressPrefixToBytes(dst);
-                    mask = mask + ":ff:ff:ff:ff:ff:ff:ff:ff::ff:ff:ff:ff:ff:ff:ff:ff";
-                    match += String.format(":%1$02x:%2$02x:%3$02x:%4$02x:%5$02x:%6$02x:%7$02x:%8$02x:%9$02x:%10$02x"
-                            + ":%11$02x:%12$02x:%13$02x:%14$02x:%15$02x:%16$02x", retval[0], retval[1], retval[2],
-                            retval[3], retval[4], retval[5], retval[6], retval[7], retval[8], retval[9], retval[10],
-                            retval[11], retval[12], retval[13], retval[14], retval[15]);
-                } else {
-                    mask = mask + ":00:00:00:00:00:00:00:00:00:00:00:00:00:00:00:00";
-                    match = match + ":00:00:00:00:00:00:00:00:00:00:00:00:00:00:00:00";
-                }
-                maskLength += 16;
+                maskMatchBuilder.appendIpPrefix(ipv6.getSourceIpv6Network() == null ? null
+                        : ipv6.getSourceIpv6Network().getValue(), 16);
+                maskMatchBuilder.appendIpPrefix(ipv6.getDestinationIpv6Network() == null ? null
+                        : ipv6.getDestinationIpv6Network().getValue(), 16);
             }
 
             if (aceip.getProtocol() != null) {
-                aceip.getProtocol();
-
-                Integer srcPort = null;
-                Integer dstPort = null;
-
-                if (aceip.getSourcePortRange() != null && aceip.getSourcePortRange().getLowerPort() != null
-                        && aceip.getSourcePortRange().getLowerPort().getValue() != null
-                        && aceip.getSourcePortRange().getLowerPort().getValue() != 0) {
-                    srcPort = aceip.getSourcePortRange().getLowerPort().getValue();
-                }
-                if (aceip.getDestinationPortRange() != null && aceip.getDestinationPortRange().getLowerPort() != null
-                        && aceip.getDestinationPortRange().getLowerPort().getValue() != null
-                        && aceip.getDestinationPortRange().getLowerPort().getValue() != 0) {
-                    dstPort = aceip.getDestinationPortRange().getLowerPort().getValue();
-                }
-
                 // don't support port range
-                if (srcPort != null) {
-                    mask = mask + ":ff:ff";
-                    match += String.format(":%1$02x:%2$02x", srcPort.intValue() & 0xFF00, srcPort.intValue() & 0x00FF);
-                } else {
-                    mask = mask + ":00:00";
-                    match = match + ":00:00";
-                }
-                maskLength += 2;
-
-                if (dstPort != null) {
-                    mask = mask + ":ff:ff";
-                    match += String.format(":%1$02x:%2$02x", dstPort.intValue() & 0xFF00, dstPort.intValue() & 0x00FF);
-                } else {
-                    mask = mask + ":00:00";
-                    match = match + ":00:00";
-                }
-                maskLength += 2;
+                appendPort(maskMatchBuilder, aceip.getSourcePortRange() == null ? null
+                        : aceip.getSourcePortRange().getLowerPort());
+                appendPort(maskMatchBuilder, aceip.getDestinationPortRange() == null ? null
+                        : aceip.getDestinationPortRange().getLowerPort());
             }
         }
-        if (maskLength == 0) {
-            return null;
+        return maskMatchBuilder.build();
+    }
+
+    private static void appendProtocol(VppClassifyMaskMatchBuilder maskMatchBuilder, Short protocol) {
+        if (protocol == null) {
+            maskMatchBuilder.skip(1);
         } else {
-            if (maskLength % 16 != 0) {
-                int padLength = 16 - maskLength % 16;
-                mask = mask + StringUtils.repeat(":00", padLength);
-                match = match + StringUtils.repeat(":00", padLength);
-            }
-            return new Pair<>(new HexString(mask), new HexString(match));
+            maskMatchBuilder.appendExact(protocol, 1);
+        }
+    }
+
+    private static void appendPort(VppClassifyMaskMatchBuilder maskMatchBuilder, PortNumber port) {
+        if (port == null || port.getValue() == null || port.getValue() == 0) {
+            maskMatchBuilder.skip(2);
+        } else {
+            maskMatchBuilder.appendExact(port.getValue(), 2);
         }
     }
 
@@ -402,28 +239,80 @@ public class VppClassifierProcessor {
         return new SffInfo(mountPoint, sffName, sffIp, pathId, serviceIndex);
     }
 
+    private Optional<RspName> getRspName(Ace ace) {
+        return Optional.ofNullable(ace.getActions())
+            .map(theActions -> theActions.getAugmentation(Actions1.class))
+            .map(actions1 -> (AclRenderedServicePath) actions1.getSfcAction())
+            .map(aclRsp -> new RspName(aclRsp.getRenderedServicePath()));
+    }
+
+    private ReverseRspInfo getReverseRspInfo(RspName rspName) {
+        RspName reverseRspName = getReverseRspName(rspName);
+        RenderedServicePath reverseRenderedServicePath = getRenderedServicePath(reverseRspName);
+        if (reverseRenderedServicePath == null) {
+            LOG.error("reverseRenderedServicePath is null\n");
+            return null;
+        }
+
+        List<RenderedServicePathHop> hopList = reverseRenderedServicePath.getRenderedServicePathHop();
+        if (hopList == null || hopList.isEmpty()) {
+            LOG.error("Rendered path {} does not contain any hop", reverseRenderedServicePath.getName().getValue());
+            return null;
+        }
+
+        RenderedServicePathHop lastRspHop = Iterables.getLast(hopList);
+        if (lastRspHop == null) {
+            LOG.error("last rsp hop is null\n");
+            return null;
+        }
+
+        return new ReverseRspInfo(reverseRenderedServicePath.getPathId(),
+                (short) (lastRspHop.getServiceIndex() - 1));
+    }
+
     private boolean configureVxlanGpeClassifier(ServiceFunctionClassifier scf) {
         Optional<Acl> theAcl = extractAcl(scf);
         if (!theAcl.isPresent() || !validateInputs(theAcl.get())) {
             LOG.error("Could not retrieve the ACL from the classifier: {}", scf);
             return false;
         }
-        Map<RspName, List<Pair<HexString>>> rspPairList = new HashMap<>();
+
+        // Compile the ACEs of all the RSPs into a single chain of classify
+        // tables, grouping the ACEs sharing a mask in the same table
+        Map<RspName, SffInfo> rspSffInfos = new LinkedHashMap<>();
+        VppClassifierCompiler compiler = new VppClassifierCompiler();
         List<Ace> aceList = theAcl.get().getAccessListEntries().getAce();
         for (Ace ace : aceList) {
-            Optional<RspName> rspName = Optional.ofNullable(ace.getActions())
-                .map(theActions -> theActions.getAugmentation(Actions1.class))
-                .map(actions1 -> (AclRenderedServicePath) actions1.getSfcAction())
-                .map(aclRsp -> new RspName(aclRsp.getRenderedServicePath()));
+            Optional<RspName> rspName = getRspName(ace);
             if (!rspName.isPresent()) {
                 LOG.error("Could not retrieve the RSP from the classifier: {}", scf);
+                continue;
+            }
+            VppClassifyMaskMatch maskMatch = getMaskAndMatch(ace.getMatches());
+            if (maskMatch == null) {
+                LOG.error("Could not build the classify mask and match of ACE {}, it has no supported match field",
+                        ace.getRuleName());
+                continue;
             }
-            List<Pair<HexString>> pairList = rspPairList.get(rspName.get());
-            if (pairList == null) {
-                pairList = new ArrayList<>();
-                rspPairList.put(rspName.get(), pairList);
+            SffInfo sffInfo = rspSffInfos.computeIfAbsent(rspName.get(), this::getFirstSffInfoInRsp);
+            if (sffInfo == null) {
+                return false;
             }
-            pairList.add(getMaskAndMatch(ace.getMatches()));
+            compiler.addRule(maskMatch, sffInfo.pathId, sffInfo.serviceIndex);
+        }
+        List<VppClassifierCompiler.Table> tables = compiler.compile();
+        if (tables.isEmpty()) {
+            LOG.error("No classify session to configure for the classifier: {}", scf.getName());
+            return false;
+        }
+
+        Map<RspName, ReverseRspInfo> reverseRspInfos = new LinkedHashMap<>();
+        for (RspName rsp : rspSffInfos.keySet()) {
+            ReverseRspInfo reverseRspInfo = getReverseRspInfo(rsp);
+            if (reverseRspInfo == null) {
+                return false;
+            }
+            reverseRspInfos.put(rsp, reverseRspInfo);
         }
 
         List<SclServiceFunctionForwarder> sfflist = scf.getSclServiceFunctionForwarder();
@@ -438,6 +327,7 @@ public class VppClassifierProcessor {
 
             if (!itfName.isPresent()) {
                 LOG.error("Could not get LogicalInterface from the classifier's attachment point");
+                continue;
             }
 
             IpAddress sffIp = SfcVppUtils.getSffFirstDplIp(sffName);
@@ -449,69 +339,46 @@ public class VppClassifierProcessor {
                 SfcVppUtils.addBridgeDomain(mountPoint, SFC_BD_NAME, sffName.getValue());
                 bridgeDomainCreated.put(sffName.getValue(), SFC_BD_NAME);
             }
-            for (Entry<RspName, List<Pair<HexString>>> entry : rspPairList.entrySet()) {
-                RspName rsp = entry.getKey();
-                SffInfo sffInfo = getFirstSffInfoInRsp(rsp);
-                RspName reverseRspName = getReverseRspName(rsp);
-                RenderedServicePath reverseRenderedServicePath = getRenderedServicePath(reverseRspName);
-                if (reverseRenderedServicePath == null) {
-                    LOG.error("reverseRenderedServicePath is null\n");
-                    return false;
-                }
 
-                final Long reversePathId = reverseRenderedServicePath.getPathId();
-                List<RenderedServicePathHop> hopList = reverseRenderedServicePath.getRenderedServicePathHop();
-                if (hopList == null || hopList.isEmpty()) {
-                    LOG.error("Rendered path {} does not contain any hop",
-                            reverseRenderedServicePath.getName().getValue());
-                    return false;
-                }
-
-                RenderedServicePathHop lastRspHop = Iterables.getLast(hopList);
-                if (lastRspHop == null) {
-                    LOG.error("kast rsp hop is null\n");
-                    return false;
-                }
-
-                final Short reverseServiceIndex = (short)(lastRspHop.getServiceIndex() - 1);
-                List<Pair<HexString>> pairList = entry.getValue();
-                int length = pairList.size();
-                int index = 0;
-
-                // Configure VPP classfier classify tables, sessions and enable ingress ACL
-                List<ClassifyTableBuilder> classifyTableList = new ArrayList<>();
-                List<ClassifySessionBuilder> classifySessionList = new ArrayList<>();
-                for (Pair<HexString> maskMatch : pairList) {
-                    boolean hasNext = false;
-                    if (index < length - 1) {
-                        hasNext = true;
-                    }
-                    ClassifyTableBuilder classifyTableBuilder = SfcVppUtils.buildVppClassifyTable(sffName,
-                            rsp.getValue(), maskMatch.getMask(), hasNext);
-                    classifyTableList.add(classifyTableBuilder);
+            // Configure VPP classfier classify tables, sessions and enable ingress ACL
+            List<ClassifyTableBuilder> classifyTableList = new ArrayList<>();
+            for (int index = 0; index < tables.size(); index++) {
+                VppClassifierCompiler.Table table = tables.get(index);
+                ClassifyTableBuilder classifyTableBuilder = SfcVppUtils.buildVppClassifyTable(sffName,
+                        scf.getName(), table.getMask().getMask(), table.getRules().size(),
+                        index < tables.size() - 1);
+                List<ClassifySession> classifySessionList = new ArrayList<>();
+                for (VppClassifierCompiler.Rule rule : table.getRules()) {
                     classifySessionList.add(SfcVppUtils.buildVppClassifySession(classifyTableBuilder,
-                            maskMatch.getMatch(), sffInfo.pathId, sffInfo.serviceIndex));
-                    SfcVppUtils.increaseNextTableIndex(sffName.getValue());
-                    index++;
+                            rule.getMaskMatch().getMatch(), rule.getNsp(), rule.getNsi()).build());
                 }
-                SfcVppUtils.configureVppClassifier(mountPoint, sffName, classifyTableList, classifySessionList);
+                classifyTableBuilder.setClassifySession(classifySessionList);
+                classifyTableList.add(classifyTableBuilder);
+                SfcVppUtils.increaseNextTableIndex(sffName.getValue());
+            }
+            SfcVppUtils.configureVppClassifier(mountPoint, sffName, classifyTableList);
 
-                //Enable Ingress Acl on table 0
-                SfcVppUtils.enableIngressAcl(mountPoint, itfName.get(), SfcVppUtils.buildClassifyTableKey(0),
-                        sffName.getValue());
+            //Enable Ingress Acl on the first table of the chain
+            SfcVppUtils.enableIngressAcl(mountPoint, itfName.get(), classifyTableList.get(0).getName(),
+                    sffName.getValue());
+
+            for (Entry<RspName, SffInfo> entry : rspSffInfos.entrySet()) {
+                SffInfo sffInfo = entry.getValue();
+                ReverseRspInfo reverseRspInfo = reverseRspInfos.get(entry.getKey());
 
                 // Configure VPP classifier node
                 SfcVppUtils.configureClassifierVxlanGpeNsh(mountPoint, sffName, SFC_BD_NAME, sffIp, sffInfo.ip,
                         sffInfo.pathId, sffInfo.serviceIndex);
 
                 // For the traffic from the first SFF to VPP classifier node
-                SfcVppUtils.addNshEntry(mountPoint, reversePathId, reverseServiceIndex, sffName.getValue());
-                SfcVppUtils.addNshMapWithPop(mountPoint, reversePathId, reverseServiceIndex, reversePathId,
-                        reverseServiceIndex, null, sffName.getValue());
+                SfcVppUtils.addNshEntry(mountPoint, reverseRspInfo.pathId, reverseRspInfo.serviceIndex,
+                        sffName.getValue());
+                SfcVppUtils.addNshMapWithPop(mountPoint, reverseRspInfo.pathId, reverseRspInfo.serviceIndex,
+                        reverseRspInfo.pathId, reverseRspInfo.serviceIndex, null, sffName.getValue());
 
                 // Configure the first SFF, VPP renderer doesn't know this
                 SfcVppUtils.configureVxlanGpeNsh(sffInfo.mountPoint, sffInfo.sffName, SFC_BD_NAME, sffInfo.ip, sffIp,
-                        reversePathId, reverseServiceIndex);
+                        reverseRspInfo.pathId, reverseRspInfo.serviceIndex);
             }
         }
         return true;
@@ -523,22 +390,26 @@ public class VppClassifierProcessor {
             LOG.error("Could not retrieve the ACL from the classifier: {}", scf);
             return false;
         }
-        Map<RspName, List<Pair<HexString>>> rspPairList = new HashMap<>();
+
+        Map<RspName, SffInfo> rspSffInfos = new LinkedHashMap<>();
+        Map<RspName, ReverseRspInfo> reverseRspInfos = new LinkedHashMap<>();
         List<Ace> aceList = theAcl.get().getAccessListEntries().getAce();
         for (Ace ace : aceList) {
-            Optional<RspName> rspName = Optional.ofNullable(ace.getActions())
-                .map(theActions -> theActions.getAugmentation(Actions1.class))
-                .map(actions1 -> (AclRenderedServicePath) actions1.getSfcAction())
-                .map(aclRsp -> new RspName(aclRsp.getRenderedServicePath()));
+            Optional<RspName> rspName = getRspName(ace);
             if (!rspName.isPresent()) {
                 LOG.error("Could not retrieve the RSP from the classifier: {}", scf);
+                continue;
             }
-            List<Pair<HexString>> pairList = rspPairList.get(rspName.get());
-            if (pairList == null) {
-                pairList = new ArrayList<>();
-                rspPairList.put(rspName.get(), pairList);
+            if (rspSffInfos.containsKey(rspName.get())) {
+                continue;
             }
-            pairList.add(getMaskAndMatch(ace.getMatches()));
+            SffInfo sffInfo = getFirstSffInfoInRsp(rspName.get());
+            ReverseRspInfo reverseRspInfo = getReverseRspInfo(rspName.get());
+            if (sffInfo == null || reverseRspInfo == null) {
+                return false;
+            }
+            rspSffInfos.put(rspName.get(), sffInfo);
+            reverseRspInfos.put(rspName.get(), reverseRspInfo);
         }
 
         List<SclServiceFunctionForwarder> sfflist = scf.getSclServiceFunctionForwarder();
@@ -553,63 +424,35 @@ public class VppClassifierProcessor {
 
             if (!itfName.isPresent()) {
                 LOG.error("Could not get LogicalInterface from the classifier's attachment point");
+                continue;
             }
 
             IpAddress sffIp = SfcVppUtils.getSffFirstDplIp(sffName);
             DataBroker mountPoint = SfcVppUtils.getSffMountpoint(this.nodeManager.getMountPointService(), sffName);
-            for (Entry<RspName, List<Pair<HexString>>> entry : rspPairList.entrySet()) {
-                RspName rsp = entry.getKey();
-                final SffInfo sffInfo = getFirstSffInfoInRsp(rsp);
-                RspName reverseRspName = getReverseRspName(rsp);
-                RenderedServicePath reverseRenderedServicePath = getRenderedServicePath(reverseRspName);
-                if (reverseRenderedServicePath == null) {
-                    LOG.error("reverseRenderedServicePath is null\n");
-                    return false;
-                }
-
-                final Long reversePathId = reverseRenderedServicePath.getPathId();
-                List<RenderedServicePathHop> hopList = reverseRenderedServicePath.getRenderedServicePathHop();
-                if (hopList == null || hopList.isEmpty()) {
-                    LOG.error("Rendered path {} does not contain any hop",
-                            reverseRenderedServicePath.getName().getValue());
-                    return false;
-                }
 
-                RenderedServicePathHop lastRspHop = Iterables.getLast(hopList);
-                if (lastRspHop == null) {
-                    LOG.error("kast rsp hop is null\n");
-                    return false;
-                }
+            // Disable Ingress Acl
+            List<String> tableKeyList = SfcVppUtils.getSavedClassifyTableKeys(sffName.getValue(), scf.getName());
+            if (!tableKeyList.isEmpty()) {
+                SfcVppUtils.disableIngressAcl(mountPoint, itfName.get(), tableKeyList.get(0), sffName.getValue());
+            }
 
-                final Short reverseServiceIndex = (short)(lastRspHop.getServiceIndex() - 1);
-
-                // Remove VPP classfier classify tables, sessions and disable ingress ACL
-                List<Pair<HexString>> pairList = entry.getValue();
-                int index = 0;
-                List<String> tableKeyList = new ArrayList<>();
-                List<HexString> matchList = new ArrayList<>();
-                for (Pair<HexString> maskMatch : pairList) {
-                    String classifyTableKey = SfcVppUtils.getSavedClassifyTableKey(sffName.getValue(), rsp.getValue(),
-                            index);
-                    tableKeyList.add(classifyTableKey);
-                    matchList.add(maskMatch.getMatch());
-                    index++;
-                }
-                // Disable Ingress Acl
-                SfcVppUtils.disableIngressAcl(mountPoint, itfName.get(), SfcVppUtils.buildClassifyTableKey(0),
-                        sffName.getValue());
+            // Remove classify tables along with their sessions
+            SfcVppUtils.removeVppClassifier(mountPoint, sffName, tableKeyList);
+            SfcVppUtils.clearSavedClassifyTableKeys(sffName.getValue(), scf.getName());
 
-                // Remove classify sessions and tables
-                SfcVppUtils.removeVppClassifier(mountPoint, sffName, tableKeyList, matchList);
+            for (Entry<RspName, SffInfo> entry : rspSffInfos.entrySet()) {
+                SffInfo sffInfo = entry.getValue();
+                ReverseRspInfo reverseRspInfo = reverseRspInfos.get(entry.getKey());
 
                 // Remove NSH entry and map for the traffic from the first SFF to VPP classifier node
-                SfcVppUtils.removeNshMap(mountPoint, reversePathId, reverseServiceIndex, reversePathId,
-                        reverseServiceIndex, sffName.getValue());
-                SfcVppUtils.removeNshEntry(mountPoint, reversePathId, reverseServiceIndex, sffName.getValue());
+                SfcVppUtils.removeNshMap(mountPoint, reverseRspInfo.pathId, reverseRspInfo.serviceIndex,
+                        reverseRspInfo.pathId, reverseRspInfo.serviceIndex, sffName.getValue());
+                SfcVppUtils.removeNshEntry(mountPoint, reverseRspInfo.pathId, reverseRspInfo.serviceIndex,
+                        sffName.getValue());
 
                 // Remove configuration for the first SFF, VPP renderer doesn't know this
-                SfcVppUtils.removeVxlanGpeNsh(sffInfo.mountPoint, sffInfo.sffName, sffInfo.ip, sffIp, reversePathId,
-                        reverseServiceIndex);
+                SfcVppUtils.removeVxlanGpeNsh(sffInfo.mountPoint, sffInfo.sffName, sffInfo.ip, sffIp,
+                        reverseRspInfo.pathId, reverseRspInfo.serviceIndex);
 
                 // Remove vxlan-gpe port and nsh entry and map for classifier
                 SfcVppUtils.removeClassifierVxlanGpeNsh(mountPoint, sffName, SFC_BD_NAME, sffIp, sffInfo.ip,
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2017 Ericsson S.A. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.scfvpprenderer.processors;
+
+import java.util.Arrays;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.yang.types.rev130715.HexString;
+
+/**
+ * The mask of a VPP classify table together with the match of one of its
+ * sessions, both kept as byte arrays of the same length, multiple of the VPP
+ * classifier vector size. The match only has bits set where the mask does.
+ */
+public final class VppClassifyMaskMatch {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final byte[] mask;
+    private final byte[] match;
+
+    VppClassifyMaskMatch(byte[] mask, byte[] match) {
+        this.mask = mask;
+        this.match = match;
+    }
+
+    public HexString getMask() {
+        return new HexString(toHexString(mask));
+    }
+
+    public HexString getMatch() {
+        return new HexString(toHexString(match));
+    }
+
+    /**
+     * Get the key identifying the mask, to group the matches sharing it.
+     *
+     * @return the mask key
+     */
+    public String getMaskKey() {
+        return toHexString(mask);
+    }
+
+    /**
+     * Check whether any packet could be matched by both this and another mask
+     * and match, that is, whether both matches are equal on the bits masked
+     * by both masks.
+     *
+     * @param other
+     *            the other mask and match
+     * @return true if there might be packets matching both
+     */
+    public boolean overlaps(VppClassifyMaskMatch other) {
+        int length = Math.min(mask.length, other.mask.length);
+        for (int i = 0; i < length; i++) {
+            int commonMask = mask[i] & other.mask[i];
+            if ((match[i] & commonMask) != (other.match[i] & commonMask)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String toHexString(byte[] bytes) {
+        if (bytes.length == 0) {
+            return "";
+        }
+        char[] chars = new char[bytes.length * 3 - 1];
+        for (int i = 0; i < bytes.length; i++) {
+            int pos = i * 3;
+            if (i > 0) {
+                chars[pos - 1] = ':';
+            }
+            chars[pos] = HEX_DIGITS[bytes[i] >> 4 & 0x0f];
+            chars[pos + 1] = HEX_DIGITS[bytes[i] & 0x0f];
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof VppClassifyMaskMatch)) {
+            return false;
+        }
+        VppClassifyMaskMatch other = (VppClassifyMaskMatch) obj;
+        return Arrays.equals(mask, other.mask) && Arrays.equals(match, other.match);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(mask) + Arrays.hashCode(match);
+    }
+
+    @Override
+    public String toString() {
+        return "VppClassifyMaskMatch [mask=" + toHexString(mask) + ", match=" + toHexString(match) + "]";
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2017 Ericsson S.A. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.scfvpprenderer.processors;
+
+import com.google.common.net.InetAddresses;
+import java.util.Arrays;
+
+/**
+ * Builds the mask and the match of a VPP classify session field by field,
+ * directly into byte arrays, starting from the beginning of the Ethernet
+ * header. Fields not appended, or skipped, are not matched.
+ */
+public class VppClassifyMaskMatchBuilder {
+
+    // VPP classify tables match on 16 bytes vectors
+    static final int VECTOR_SIZE = 16;
+
+    private byte[] mask = new byte[4 * VECTOR_SIZE];
+    private byte[] match = new byte[4 * VECTOR_SIZE];
+    private int length;
+
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Skip the given number of bytes, not matching them.
+     *
+     * @param bytes
+     *            the number of bytes to skip
+     * @return this builder
+     */
+    public VppClassifyMaskMatchBuilder skip(int bytes) {
+        ensureCapacity(length + bytes);
+        length += bytes;
+        return this;
+    }
+
+    /**
+     * Append a field matching exactly the given value, in network order.
+     *
+     * @param value
+     *            the value to match
+     * @param bytes
+     *            the field length in bytes
+     * @return this builder
+     */
+    public VppClassifyMaskMatchBuilder appendExact(long value, int bytes) {
+        ensureCapacity(length + bytes);
+        for (int i = bytes - 1; i >= 0; i--) {
+            mask[length] = (byte) 0xff;
+            match[length] = (byte) (value >>> 8 * i);
+            length++;
+        }
+        return this;
+    }
+
+    /**
+     * Append a field matching the given value on its first prefixLength bits.
+     *
+     * @param value
+     *            the value to match, in network order
+     * @param prefixLength
+     *            the number of leading bits to match
+     * @return this builder
+     */
+    public VppClassifyMaskMatchBuilder appendPrefix(byte[] value, int prefixLength) {
+        ensureCapacity(length + value.length);
+        for (int i = 0; i < value.length; i++) {
+            int bits = Math.min(8, Math.max(0, prefixLength - 8 * i));
+            byte maskByte = (byte) (0xff << 8 - bits);
+            mask[length] = maskByte;
+            match[length] = (byte) (value[i] & maskByte);
+            length++;
+        }
+        return this;
+    }
+
+    /**
+     * Append a MAC address field, or skip it if the address is null.
+     *
+     * @param macAddress
+     *            the MAC address in colon separated hexadecimal notation
+     * @return this builder
+     */
+    public VppClassifyMaskMatchBuilder appendMac(String macAddress) {
+        if (macAddress == null) {
+            return skip(6);
+        }
+        byte[] value = new byte[6];
+        for (int i = 0; i < value.length; i++) {
+            value[i] = (byte) Integer.parseInt(macAddress.substring(i * 3, i * 3 + 2), 16);
+        }
+        return appendPrefix(value, 48);
+    }
+
+    /**
+     * Append an IP address field, or skip it if the prefix is null.
+     *
+     * @param ipPrefix
+     *            the IPv4 or IPv6 prefix, in address/length notation
+     * @param addressLength
+     *            the field length in bytes, 4 for IPv4 and 16 for IPv6
+     * @return this builder
+     */
+    public VppClassifyMaskMatchBuilder appendIpPrefix(String ipPrefix, int addressLength) {
+        if (ipPrefix == null) {
+            return skip(addressLength);
+        }
+        int slash = ipPrefix.indexOf('/');
+        String address = slash < 0 ? ipPrefix : ipPrefix.substring(0, slash);
+        int prefixLength = slash < 0 ? addressLength * 8 : Integer.parseInt(ipPrefix.substring(slash + 1));
+        byte[] value = InetAddresses.forString(address).getAddress();
+        if (value.length != addressLength) {
+            throw new IllegalArgumentException("Unexpected address length for " + ipPrefix);
+        }
+        return appendPrefix(value, prefixLength);
+    }
+
+    /**
+     * Build the mask and match, padded to a multiple of the VPP classifier
+     * vector size. A mask without any bit set would match any packet, so it
+     * is rejected, as happens when all the fields are skipped.
+     *
+     * @return the mask and match, or null if no bit is matched
+     */
+    public VppClassifyMaskMatch build() {
+        if (!hasMaskedBits()) {
+            return null;
+        }
+        int paddedLength = (length + VECTOR_SIZE - 1) / VECTOR_SIZE * VECTOR_SIZE;
+        ensureCapacity(paddedLength);
+        return new VppClassifyMaskMatch(Arrays.copyOf(mask, paddedLength), Arrays.copyOf(match, paddedLength));
+    }
+
+    private boolean hasMaskedBits() {
+        for (int i = 0; i < length; i++) {
+            if (mask[i] != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > mask.length) {
+            int newLength = Math.max(capacity, mask.length * 2);
+            mask = Arrays.copyOf(mask, newLength);
+            match = Arrays.copyOf(match, newLength);
+        }
+    }
+}
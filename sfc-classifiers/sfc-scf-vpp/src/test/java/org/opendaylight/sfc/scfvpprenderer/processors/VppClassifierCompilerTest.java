@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2017 Ericsson S.A. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.scfvpprenderer.processors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import org.junit.Test;
+
+public class VppClassifierCompilerTest {
+
+    private static VppClassifyMaskMatch ipv4(String src, String dst) {
+        return new VppClassifyMaskMatchBuilder()
+                .skip(12)
+                .appendExact(0x0800, 2)
+                .skip(12)
+                .appendIpPrefix(src, 4)
+                .appendIpPrefix(dst, 4)
+                .build();
+    }
+
+    @Test
+    public void buildMaskAndMatch() {
+        VppClassifyMaskMatch maskMatch = ipv4("10.1.2.3/20", null);
+
+        assertEquals("00:00:00:00:00:00:00:00:00:00:00:00:ff:ff:00:00"
+                + ":00:00:00:00:00:00:00:00:00:00:ff:ff:f0:00:00:00"
+                + ":00:00:00:00:00:00:00:00:00:00:00:00:00:00:00:00", maskMatch.getMask().getValue());
+        assertEquals("00:00:00:00:00:00:00:00:00:00:00:00:08:00:00:00"
+                + ":00:00:00:00:00:00:00:00:00:00:0a:01:00:00:00:00"
+                + ":00:00:00:00:00:00:00:00:00:00:00:00:00:00:00:00",
+                maskMatch.getMatch().getValue());
+    }
+
+    @Test
+    public void buildMaskAndMatchIpv6() {
+        VppClassifyMaskMatch maskMatch = new VppClassifyMaskMatchBuilder().appendIpPrefix("2001:db8::1/64", 16)
+                .build();
+
+        assertEquals("ff:ff:ff:ff:ff:ff:ff:ff:00:00:00:00:00:00:00:00", maskMatch.getMask().getValue());
+        assertEquals("20:01:0d:b8:00:00:00:00:00:00:00:00:00:00:00:00",
+                maskMatch.getMatch().getValue());
+    }
+
+    @Test
+    public void buildEmptyMaskAndMatch() {
+        assertNull(new VppClassifyMaskMatchBuilder().build());
+    }
+
+    @Test
+    public void buildMatchAnythingMaskAndMatch() {
+        // all the fields skipped, as for an Ethernet ACE without addresses
+        assertNull(new VppClassifyMaskMatchBuilder().appendMac(null).appendMac(null).build());
+        assertNull(new VppClassifyMaskMatchBuilder().appendIpPrefix("10.0.0.0/0", 4).build());
+    }
+
+    @Test
+    public void overlaps() {
+        assertTrue(ipv4("10.0.0.0/8", null).overlaps(ipv4("10.1.0.0/16", null)));
+        assertTrue(ipv4("10.0.0.0/8", null).overlaps(ipv4(null, "20.0.0.1/32")));
+        assertFalse(ipv4("10.0.0.0/8", null).overlaps(ipv4("11.1.0.0/16", null)));
+    }
+
+    @Test
+    public void groupRulesByMask() {
+        VppClassifierCompiler compiler = new VppClassifierCompiler();
+        compiler.addRule(ipv4("192.168.0.0/16", "20.0.0.1/32"), 1L, (short) 255);
+        compiler.addRule(ipv4("10.0.0.1/32", null), 2L, (short) 255);
+        compiler.addRule(ipv4("10.0.0.2/32", null), 2L, (short) 255);
+        compiler.addRule(ipv4("10.0.0.3/32", null), 3L, (short) 255);
+        // shadowed by the second rule
+        compiler.addRule(ipv4("10.0.0.1/32", null), 4L, (short) 255);
+
+        List<VppClassifierCompiler.Table> tables = compiler.compile();
+
+        assertEquals(2, tables.size());
+        // the table with most sessions first, no overlap with the other
+        assertEquals(3, tables.get(0).getRules().size());
+        assertEquals(Long.valueOf(2L), tables.get(0).getRules().get(0).getNsp());
+        assertEquals(Long.valueOf(3L), tables.get(0).getRules().get(2).getNsp());
+        assertEquals(1, tables.get(1).getRules().size());
+    }
+
+    @Test
+    public void keepPrecedenceOfOverlappingRules() {
+        VppClassifierCompiler compiler = new VppClassifierCompiler();
+        compiler.addRule(ipv4(null, "20.0.0.1/32"), 1L, (short) 255);
+        compiler.addRule(ipv4("10.0.0.1/32", null), 2L, (short) 255);
+        compiler.addRule(ipv4("10.0.0.2/32", null), 2L, (short) 255);
+
+        List<VppClassifierCompiler.Table> tables = compiler.compile();
+
+        // 10.0.0.1 -> 20.0.0.1 must be classified by the first rule
+        assertEquals(2, tables.size());
+        assertEquals(1, tables.get(0).getRules().size());
+        assertEquals(Long.valueOf(1L), tables.get(0).getRules().get(0).getNsp());
+    }
+
+    @Test
+    public void keepAclOrderOnConflict() {
+        VppClassifierCompiler compiler = new VppClassifierCompiler();
+        compiler.addRule(ipv4("10.0.0.1/32", null), 1L, (short) 255);
+        compiler.addRule(ipv4(null, "20.0.0.1/32"), 2L, (short) 255);
+        compiler.addRule(ipv4("10.0.0.2/32", null), 3L, (short) 255);
+        compiler.addRule(ipv4(null, "20.0.0.2/32"), 4L, (short) 255);
+        compiler.addRule(ipv4("10.0.0.2/32", null), 5L, (short) 255);
+
+        List<VppClassifierCompiler.Table> tables = compiler.compile();
+
+        // src and dst tables must precede each other, rules stay in ACL order
+        assertEquals(4, tables.size());
+        assertEquals(Long.valueOf(1L), tables.get(0).getRules().get(0).getNsp());
+        assertEquals(Long.valueOf(2L), tables.get(1).getRules().get(0).getNsp());
+        assertEquals(Long.valueOf(3L), tables.get(2).getRules().get(0).getNsp());
+        assertEquals(Long.valueOf(4L), tables.get(3).getRules().get(0).getNsp());
+    }
+}
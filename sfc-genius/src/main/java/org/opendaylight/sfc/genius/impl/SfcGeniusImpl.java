@@ -9,10 +9,12 @@
 package org.opendaylight.sfc.genius.impl;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.sal.binding.api.RpcProviderRegistry;
+import org.opendaylight.sfc.genius.impl.handlers.SfcGeniusBindingQueue;
 import org.opendaylight.sfc.genius.impl.handlers.SfcGeniusServiceManagerImpl;
 import org.opendaylight.sfc.genius.impl.listeners.SfcGeniusInterfaceStateListener;
 import org.opendaylight.sfc.genius.impl.listeners.SfcGeniusSfListener;
@@ -38,14 +40,19 @@ public class SfcGeniusImpl {
 
         // Listeners will submit jobs to this executor, data store events will be
         // handled synchronously, one at a time and in order.
-        ExecutorService listenerExecutor = Executors.newSingleThreadExecutor();
+        ExecutorService listenerExecutor = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("sfc-genius-listener-%d").build());
 
         // Handlers will submit asynchronous callback jobs to this executor
-        ExecutorService handlerExecutor = Executors.newSingleThreadExecutor();
+        ExecutorService handlerExecutor = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("sfc-genius-handler-%d").build());
 
-        // Main handler of data store events
-        SfcGeniusServiceManager interfaceManager;
-        interfaceManager = new SfcGeniusServiceManagerImpl(dataBroker, rpcProviderRegistry, handlerExecutor);
+        // Main handler of data store events, the events of a short window
+        // are coalesced and handled together
+        SfcGeniusServiceManagerImpl serviceManager;
+        serviceManager = new SfcGeniusServiceManagerImpl(dataBroker, rpcProviderRegistry, handlerExecutor);
+        SfcGeniusBindingQueue interfaceManager;
+        interfaceManager = new SfcGeniusBindingQueue(serviceManager, SfcGeniusBindingQueue.DEFAULT_WINDOW_MILLIS);
 
         // Listeners to data store events
         SfcGeniusSfStateListener sfStateListener;
@@ -69,6 +76,7 @@ public class SfcGeniusImpl {
             interfaceStateListener.close();
             sfcGeniusSffDpnStateListener.close();
             sfcGeniusSfListener.close();
+            interfaceManager.close();
         };
 
         LOG.info("SFC Genius module {} initialized", this);
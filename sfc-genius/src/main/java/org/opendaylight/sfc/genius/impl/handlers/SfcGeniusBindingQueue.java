@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.genius.impl.handlers;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.sfc.genius.impl.SfcGeniusServiceManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@inheritDoc}
+ *
+ * <p>
+ * The requests are queued for a short window and then handed all together
+ * to {@link SfcGeniusServiceManagerImpl}: the binding changes of all the
+ * service functions and nodes are applied in a single transaction, and the
+ * rendered service paths of the interfaces that became available are
+ * re-rendered in another one, each of them once. A binding and an unbinding
+ * of the same service function or node within the window, as happens when
+ * virtual machines migrate, cancel each other out.
+ *
+ * <p>
+ * The requests are handled asynchronously, in order, by a single thread.
+ */
+public class SfcGeniusBindingQueue implements SfcGeniusServiceManager, AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcGeniusBindingQueue.class);
+
+    public static final long DEFAULT_WINDOW_MILLIS = 100;
+
+    private static final long SHUTDOWN_TIME = 5;
+
+    private final SfcGeniusServiceManagerImpl serviceManager;
+    private final ScheduledExecutorService executor;
+    private final long windowMillis;
+    private SfcGeniusBindings pendingBindings = new SfcGeniusBindings();
+    private boolean flushScheduled;
+
+    public SfcGeniusBindingQueue(SfcGeniusServiceManagerImpl serviceManager, long windowMillis) {
+        this(serviceManager, new ScheduledThreadPoolExecutor(1,
+                new ThreadFactoryBuilder().setNameFormat("sfc-genius-bindings-%d").build()), windowMillis);
+    }
+
+    SfcGeniusBindingQueue(SfcGeniusServiceManagerImpl serviceManager, ScheduledExecutorService executor,
+            long windowMillis) {
+        this.serviceManager = serviceManager;
+        this.executor = executor;
+        this.windowMillis = windowMillis;
+    }
+
+    @Override
+    public synchronized void interfaceStateUp(String interfaceName, BigInteger dpnId) {
+        pendingBindings.interfaceStateUp(interfaceName, dpnId);
+        scheduleFlush();
+    }
+
+    @Override
+    public synchronized void bindInterfacesOfServiceFunction(String sfName) {
+        pendingBindings.bindServiceFunction(sfName);
+        scheduleFlush();
+    }
+
+    @Override
+    public synchronized void unbindInterfacesOfServiceFunction(String sfName) {
+        pendingBindings.unbindServiceFunction(sfName);
+        scheduleFlush();
+    }
+
+    @Override
+    public synchronized void unbindInterfaces(List<String> interfaceNames) {
+        interfaceNames.forEach(pendingBindings::unbindInterface);
+        scheduleFlush();
+    }
+
+    @Override
+    public synchronized void bindNode(BigInteger dpnId) {
+        pendingBindings.bindNode(dpnId);
+        scheduleFlush();
+    }
+
+    @Override
+    public synchronized void unbindNode(BigInteger dpnId) {
+        pendingBindings.unbindNode(dpnId);
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (!flushScheduled) {
+            flushScheduled = true;
+            executor.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized SfcGeniusBindings takePendingBindings() {
+        SfcGeniusBindings bindings = pendingBindings;
+        pendingBindings = new SfcGeniusBindings();
+        flushScheduled = false;
+        return bindings;
+    }
+
+    /**
+     * Handle the queued requests from the calling thread.
+     */
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    public void flush() {
+        SfcGeniusBindings bindings = takePendingBindings();
+        if (bindings.isEmpty()) {
+            return;
+        }
+
+        LOG.debug("Flush bindings {}", bindings);
+
+        try {
+            if (bindings.hasBindingChanges()) {
+                serviceManager.applyBindings(bindings);
+            }
+            // the interfaces are bound before their paths are re-rendered
+            if (!bindings.getInterfacesUp().isEmpty()) {
+                serviceManager.interfacesStateUp(bindings.getInterfacesUp());
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Error handling bindings {}", bindings, e);
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(SHUTDOWN_TIME, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.genius.impl.handlers;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A set of pending SFC service binding changes, applied together in a single
+ * transaction by {@link SfcGeniusServiceManagerImpl#applyBindings}.
+ *
+ * <p>
+ * A binding followed by an unbinding of the same service function or node,
+ * or the other way around, cancel each other out: the binding state the
+ * pair leaves behind is the one it started from.
+ */
+public class SfcGeniusBindings {
+
+    // true to bind, false to unbind
+    private final Map<String, Boolean> serviceFunctions = new LinkedHashMap<>();
+    private final Map<BigInteger, Boolean> nodes = new LinkedHashMap<>();
+    private final Set<String> interfacesToUnbind = new LinkedHashSet<>();
+    private final Map<String, BigInteger> interfacesUp = new HashMap<>();
+
+    public void bindServiceFunction(String sfName) {
+        change(serviceFunctions, sfName, true);
+    }
+
+    public void unbindServiceFunction(String sfName) {
+        change(serviceFunctions, sfName, false);
+    }
+
+    public void unbindInterface(String interfaceName) {
+        interfacesToUnbind.add(interfaceName);
+    }
+
+    public void bindNode(BigInteger dpnId) {
+        change(nodes, dpnId, true);
+    }
+
+    public void unbindNode(BigInteger dpnId) {
+        change(nodes, dpnId, false);
+    }
+
+    /**
+     * Record an interface that became available, so that the rendered
+     * service paths of its service functions are re-rendered once, however
+     * many times it goes up.
+     *
+     * @param interfaceName
+     *            the name of the interface
+     * @param dpnId
+     *            the data plane node of the interface
+     */
+    public void interfaceStateUp(String interfaceName, BigInteger dpnId) {
+        interfacesUp.put(interfaceName, dpnId);
+    }
+
+    public Set<String> getServiceFunctionsToBind() {
+        return filter(serviceFunctions, true);
+    }
+
+    public Set<String> getServiceFunctionsToUnbind() {
+        return filter(serviceFunctions, false);
+    }
+
+    public Set<String> getInterfacesToUnbind() {
+        return interfacesToUnbind;
+    }
+
+    public Set<BigInteger> getNodesToBind() {
+        return filter(nodes, true);
+    }
+
+    public Set<BigInteger> getNodesToUnbind() {
+        return filter(nodes, false);
+    }
+
+    public Map<String, BigInteger> getInterfacesUp() {
+        return interfacesUp;
+    }
+
+    public boolean hasBindingChanges() {
+        return !serviceFunctions.isEmpty() || !nodes.isEmpty() || !interfacesToUnbind.isEmpty();
+    }
+
+    public boolean isEmpty() {
+        return !hasBindingChanges() && interfacesUp.isEmpty();
+    }
+
+    private static <K> void change(Map<K, Boolean> changes, K key, boolean bind) {
+        Boolean pending = changes.get(key);
+        if (pending == null) {
+            changes.put(key, bind);
+        } else if (pending != bind) {
+            changes.remove(key);
+        }
+    }
+
+    private static <K> Set<K> filter(Map<K, Boolean> changes, boolean bind) {
+        return changes.entrySet().stream()
+                .filter(entry -> entry.getValue() == bind)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    @Override
+    public String toString() {
+        return "SfcGeniusBindings [serviceFunctions=" + serviceFunctions + ", nodes=" + nodes
+                + ", interfacesToUnbind=" + interfacesToUnbind + ", interfacesUp=" + interfacesUp.keySet() + "]";
+    }
+}
@@ -8,6 +8,8 @@
 
 package org.opendaylight.sfc.genius.impl.handlers;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
@@ -48,9 +50,24 @@ class SfcGeniusRspHandler {
      * @return future signaling completion of the operation.
      */
     CompletableFuture<Void> interfaceStateUp(String interfaceName, List<SfName> sfNameList) {
+        return interfacesStateUp(Collections.singleton(interfaceName), sfNameList);
+    }
+
+    /**
+     * Handle the rendered service paths for several interfaces that have
+     * become available: re-render, only once each, the rendered service paths
+     * associated to service functions that have any of such interfaces as
+     * data plane locator.
+     *
+     * @param interfaceNames the names of the interfaces.
+     * @param sfNameList the service function names with any of such interfaces
+     *                   as locator.
+     * @return future signaling completion of the operation.
+     */
+    CompletableFuture<Void> interfacesStateUp(Collection<String> interfaceNames, List<SfName> sfNameList) {
         SfcGeniusSfStatesReader sfStatesReader = getSfStatesReader();
 
-        LOG.debug("Re-render for interface {} of service functions {}", interfaceName, sfNameList);
+        LOG.debug("Re-render for interfaces {} of service functions {}", interfaceNames, sfNameList);
 
         return sfStatesReader.readSfpNames(sfNameList)
                 .thenCompose(rspList -> CompletableFuture.allOf(
@@ -9,10 +9,18 @@
 package org.opendaylight.sfc.genius.impl.handlers;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.ReadWriteTransaction;
 import org.opendaylight.controller.sal.binding.api.RpcProviderRegistry;
@@ -171,6 +179,129 @@ public class SfcGeniusServiceManagerImpl implements org.opendaylight.sfc.genius.
                 }).join();
     }
 
+    /**
+     * Apply several binding changes in a single transaction. The interfaces
+     * of the service functions are read once the transaction is opened and an
+     * interface that is both unbound and bound, for instance because it is
+     * shared by several service functions, ends up bound. If the transaction
+     * fails, the changes are applied again one by one, so that a failing
+     * change does not lose the others.
+     *
+     * @param bindings
+     *            the binding changes.
+     */
+    public void applyBindings(SfcGeniusBindings bindings) {
+        if (!applyBindingsInTransaction(bindings)) {
+            LOG.warn("Applying bindings {} one by one", bindings);
+            applyBindingsOneByOne(bindings);
+        }
+    }
+
+    private boolean applyBindingsInTransaction(SfcGeniusBindings bindings) {
+        ReadWriteTransaction readWriteTransaction = dataBroker.newReadWriteTransaction();
+        SfcGeniusSfReader sfReader = getSfcGeniusSfReader(readWriteTransaction);
+        SfcGeniusServiceHandler serviceHandler = getSfcGeniusServiceHandler(readWriteTransaction);
+
+        LOG.debug("Apply bindings {}", bindings);
+
+        CompletableFuture<Set<String>> interfacesToBind = readInterfacesOfServiceFunctions(sfReader,
+                bindings.getServiceFunctionsToBind());
+        CompletableFuture<Set<String>> interfacesToUnbind = readInterfacesOfServiceFunctions(sfReader,
+                bindings.getServiceFunctionsToUnbind());
+        return interfacesToBind.thenCombine(interfacesToUnbind, (toBind, toUnbind) -> {
+            toUnbind.addAll(bindings.getInterfacesToUnbind());
+            toUnbind.removeAll(toBind);
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            toUnbind.forEach(interfaceName -> futures.add(serviceHandler.unbindFromInterface(interfaceName)));
+            toBind.forEach(interfaceName -> futures.add(serviceHandler.bindToInterface(interfaceName)));
+            bindings.getNodesToUnbind().forEach(dpnId -> futures.add(serviceHandler.unbindFromNode(dpnId)));
+            bindings.getNodesToBind().forEach(dpnId -> futures.add(serviceHandler.bindToNode(dpnId)));
+            return futures;
+        }).thenCompose(futures -> CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])))
+                .thenCompose(aVoid -> SfcGeniusUtils.toCompletableFuture(readWriteTransaction.submit(), executor))
+                .handle((nop, exception) -> {
+                    if (exception != null) {
+                        LOG.error("Error applying bindings {}", bindings, exception);
+                        readWriteTransaction.cancel();
+                        return false;
+                    }
+                    return true;
+                }).join();
+    }
+
+    // the unbindings go first, so that an interface that is both unbound and
+    // bound ends up bound, as in a single transaction
+    private void applyBindingsOneByOne(SfcGeniusBindings bindings) {
+        bindings.getServiceFunctionsToUnbind().forEach(sfName -> applyBinding(
+            () -> unbindInterfacesOfServiceFunction(sfName), "unbind service function", sfName));
+        bindings.getInterfacesToUnbind().forEach(interfaceName -> applyBinding(
+            () -> unbindInterfaces(Collections.singletonList(interfaceName)), "unbind interface", interfaceName));
+        bindings.getNodesToUnbind().forEach(dpnId -> applyBinding(
+            () -> unbindNode(dpnId), "unbind node", dpnId));
+        bindings.getServiceFunctionsToBind().forEach(sfName -> applyBinding(
+            () -> bindInterfacesOfServiceFunction(sfName), "bind service function", sfName));
+        bindings.getNodesToBind().forEach(dpnId -> applyBinding(
+            () -> bindNode(dpnId), "bind node", dpnId));
+    }
+
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private static void applyBinding(Runnable binding, String description, Object target) {
+        try {
+            binding.run();
+        } catch (RuntimeException e) {
+            LOG.error("Error applying binding: {} {}", description, target, e);
+        }
+    }
+
+    /**
+     * Handle several interfaces that have become available in a single
+     * transaction: a rendered service path is re-rendered once, however
+     * many of the interfaces its service functions are on.
+     *
+     * @param interfaces
+     *            the interface names, and the data plane node of each.
+     */
+    public void interfacesStateUp(Map<String, BigInteger> interfaces) {
+        ReadWriteTransaction readWriteTransaction = dataBroker.newReadWriteTransaction();
+        SfcGeniusRspHandler rspHandler = getSfcGeniusRspHandler(readWriteTransaction);
+        SfcGeniusSfReader sfReader = getSfcGeniusSfReader(readWriteTransaction);
+
+        interfaces.keySet().stream()
+                .map(sfReader::readSfOnInterface)
+                .map(futureList -> futureList.thenApply(List::stream))
+                .reduce(CompletableFuture.completedFuture(Stream.empty()),
+                    (f1, f2) -> f1.thenCombine(f2, Stream::concat))
+                .thenApply(s -> s.distinct().collect(Collectors.toList()))
+                .thenCompose(serviceFunctions -> serviceFunctions.isEmpty()
+                        ? CompletableFuture.completedFuture(null)
+                        : rspHandler.interfacesStateUp(interfaces.keySet(), serviceFunctions))
+                .thenCompose(aVoid -> SfcGeniusUtils.toCompletableFuture(readWriteTransaction.submit(), executor))
+                .handle((nop, exception) -> {
+                    if (exception != null) {
+                        LOG.error("Error handling interfaces {} state up", interfaces, exception);
+                    }
+                    return null;
+                }).join();
+    }
+
+    private static CompletableFuture<Set<String>> readInterfacesOfServiceFunctions(SfcGeniusSfReader sfReader,
+            Collection<String> sfNames) {
+        CompletableFuture<Set<String>> interfaces = CompletableFuture.completedFuture(new HashSet<>());
+        for (String sfName : sfNames) {
+            // a service function that cannot be read does not fail the others
+            CompletableFuture<List<String>> interfacesOfSf = sfReader.readInterfacesOfSf(new SfName(sfName))
+                    .exceptionally(exception -> {
+                        LOG.error("Error reading interfaces of service function {}", sfName, exception);
+                        return Collections.emptyList();
+                    });
+            interfaces = interfaces.thenCombine(interfacesOfSf, (interfaceSet, interfaceList) -> {
+                interfaceSet.addAll(interfaceList);
+                return interfaceSet;
+            });
+        }
+        return interfaces;
+    }
+
     protected SfcGeniusRspHandler getSfcGeniusRspHandler(ReadWriteTransaction readWriteTransaction) {
         return new SfcGeniusRspHandler(readWriteTransaction, executor);
     }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.genius.impl.handlers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SfcGeniusBindingQueueTest {
+
+    private static final long WINDOW = 100;
+
+    @Mock
+    SfcGeniusServiceManagerImpl serviceManager;
+
+    @Mock
+    ScheduledExecutorService executor;
+
+    @Captor
+    ArgumentCaptor<SfcGeniusBindings> bindingsCaptor;
+
+    @Captor
+    ArgumentCaptor<Map<String, BigInteger>> interfacesCaptor;
+
+    SfcGeniusBindingQueue bindingQueue;
+
+    @Before
+    public void setup() {
+        bindingQueue = new SfcGeniusBindingQueue(serviceManager, executor, WINDOW);
+    }
+
+    @Test
+    public void bindingsInOneTransaction() throws Exception {
+        bindingQueue.bindInterfacesOfServiceFunction("SF1");
+        bindingQueue.bindInterfacesOfServiceFunction("SF2");
+        bindingQueue.unbindInterfaces(Arrays.asList("IF1", "IF2"));
+        bindingQueue.bindNode(BigInteger.ONE);
+
+        // the flush is scheduled once for the whole window
+        verify(executor).schedule(any(Runnable.class), eq(WINDOW), eq(TimeUnit.MILLISECONDS));
+        bindingQueue.flush();
+
+        verify(serviceManager).applyBindings(bindingsCaptor.capture());
+        SfcGeniusBindings bindings = bindingsCaptor.getValue();
+        assertEquals(new HashSet<>(Arrays.asList("SF1", "SF2")), bindings.getServiceFunctionsToBind());
+        assertTrue(bindings.getServiceFunctionsToUnbind().isEmpty());
+        assertEquals(new HashSet<>(Arrays.asList("IF1", "IF2")), bindings.getInterfacesToUnbind());
+        assertEquals(Collections.singleton(BigInteger.ONE), bindings.getNodesToBind());
+        verify(serviceManager, never()).interfacesStateUp(any());
+
+        // the next request opens a new window
+        bindingQueue.unbindNode(BigInteger.ONE);
+        verify(executor, times(2)).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    @Test
+    public void flappingBindingsCancelOut() throws Exception {
+        bindingQueue.bindInterfacesOfServiceFunction("SF1");
+        bindingQueue.unbindInterfacesOfServiceFunction("SF1");
+        bindingQueue.unbindNode(BigInteger.ONE);
+        bindingQueue.bindNode(BigInteger.ONE);
+
+        bindingQueue.flush();
+
+        verifyZeroInteractions(serviceManager);
+    }
+
+    @Test
+    public void flappingBindingsLastOneWins() throws Exception {
+        bindingQueue.unbindInterfacesOfServiceFunction("SF1");
+        bindingQueue.bindInterfacesOfServiceFunction("SF1");
+        bindingQueue.unbindInterfacesOfServiceFunction("SF1");
+
+        bindingQueue.flush();
+
+        verify(serviceManager).applyBindings(bindingsCaptor.capture());
+        assertTrue(bindingsCaptor.getValue().getServiceFunctionsToBind().isEmpty());
+        assertEquals(Collections.singleton("SF1"), bindingsCaptor.getValue().getServiceFunctionsToUnbind());
+    }
+
+    @Test
+    public void interfacesStateUpDebounced() throws Exception {
+        bindingQueue.interfaceStateUp("IF1", BigInteger.ONE);
+        bindingQueue.interfaceStateUp("IF2", BigInteger.ONE);
+        bindingQueue.interfaceStateUp("IF1", BigInteger.TEN);
+
+        bindingQueue.flush();
+
+        verify(serviceManager, never()).applyBindings(any());
+        verify(serviceManager).interfacesStateUp(interfacesCaptor.capture());
+        assertEquals(2, interfacesCaptor.getValue().size());
+        assertEquals(BigInteger.TEN, interfacesCaptor.getValue().get("IF1"));
+    }
+}
@@ -11,7 +11,9 @@ package org.opendaylight.sfc.genius.impl.handlers;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
@@ -31,6 +33,7 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.ReadWriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
 import org.opendaylight.controller.sal.binding.api.RpcProviderRegistry;
 import org.opendaylight.sfc.genius.impl.handlers.readers.SfcGeniusSfReader;
 import org.opendaylight.sfc.genius.impl.utils.SfcGeniusRuntimeException;
@@ -157,6 +160,48 @@ public class SfcGeniusInterfaceServiceManagerTest {
         verify(readWriteTransaction).submit();
     }
 
+    @Test
+    public void applyBindings() throws Exception {
+        when(sfcGeniusSfReader.readInterfacesOfSf(new SfName("SF1")))
+                .thenReturn(CompletableFuture.completedFuture(Arrays.asList("IF1", "IF2")));
+        when(sfcGeniusSfReader.readInterfacesOfSf(new SfName("SF2")))
+                .thenReturn(CompletableFuture.completedFuture(Arrays.asList("IF2", "IF3")));
+        SfcGeniusBindings bindings = new SfcGeniusBindings();
+        bindings.bindServiceFunction("SF1");
+        bindings.unbindServiceFunction("SF2");
+        bindings.unbindInterface("IF4");
+
+        sfcGeniusInterfaceServiceManager.applyBindings(bindings);
+
+        verify(sfcGeniusServiceHandler).bindToInterface("IF1");
+        verify(sfcGeniusServiceHandler).bindToInterface("IF2");
+        verify(sfcGeniusServiceHandler).unbindFromInterface("IF3");
+        verify(sfcGeniusServiceHandler).unbindFromInterface("IF4");
+        verify(sfcGeniusServiceHandler, never()).unbindFromInterface("IF2");
+        verify(readWriteTransaction).submit();
+    }
+
+    @Test
+    public void applyBindingsOneByOneOnFailure() throws Exception {
+        when(sfcGeniusSfReader.readInterfacesOfSf(new SfName("SF1")))
+                .thenReturn(CompletableFuture.completedFuture(Collections.singletonList("IF1")));
+        when(readWriteTransaction.submit())
+                .thenReturn(Futures.immediateFailedCheckedFuture(new TransactionCommitFailedException("failed")))
+                .thenReturn(Futures.immediateCheckedFuture(null));
+        SfcGeniusBindings bindings = new SfcGeniusBindings();
+        bindings.bindServiceFunction("SF1");
+        bindings.unbindInterface("IF2");
+
+        sfcGeniusInterfaceServiceManager.applyBindings(bindings);
+
+        verify(readWriteTransaction).cancel();
+        verify(sfcGeniusInterfaceServiceManager).unbindInterfaces(Collections.singletonList("IF2"));
+        verify(sfcGeniusInterfaceServiceManager).bindInterfacesOfServiceFunction("SF1");
+        verify(sfcGeniusServiceHandler, times(2)).bindToInterface("IF1");
+        verify(sfcGeniusServiceHandler, times(2)).unbindFromInterface("IF2");
+        verify(readWriteTransaction, times(3)).submit();
+    }
+
     @Test
     public void unbindInterfacesOfServiceFunctionNoInterfaces() throws Exception {
         when(sfcGeniusSfReader.readInterfacesOfSf(any()))
@@ -16,6 +16,7 @@ import static org.mockito.Mockito.when;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -95,7 +96,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
     }
 
     @Test
-    public void testAddSff_NoDpl() {
+    public void testAddSff_NoDpl() throws Exception {
         final ServiceFunctionForwarder sff = buildServiceFunctionForwarderNoDPL();
         createOvsdbNodeForSff(testIpAddress, testPort);
 
@@ -107,6 +108,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
         // This will call sfcOvsSffEntryDataListener.add()
         collection.add(dataTreeModification);
         sfcOvsSffEntryDataListener.onDataTreeChanged(collection);
+        sfcOvsSffEntryDataListener.awaitIdle(5, TimeUnit.SECONDS);
 
         NodeId ovsdbBridgeId = SfcOvsUtil.getOvsdbAugmentationNodeIdBySff(sff);
         // The DPL is used to lookup the topology node
@@ -116,7 +118,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
     }
 
     @Test
-    public void testAddSff_WithDpl() {
+    public void testAddSff_WithDpl() throws Exception {
         ServiceFunctionForwarder sff = build_service_function_forwarder_withDpl();
         // For this test, If there's a DPL, there will only ever be just 1
         // SffDpl
@@ -132,6 +134,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
         // This will call sfcOvsSffEntryDataListener.add()
         collection.add(dataTreeModification);
         sfcOvsSffEntryDataListener.onDataTreeChanged(collection);
+        sfcOvsSffEntryDataListener.awaitIdle(5, TimeUnit.SECONDS);
 
         NodeId ovsdbBridgeId = SfcOvsUtil.getOvsdbAugmentationNodeIdBySff(sff);
         assertNotNull(ovsdbBridgeId);
@@ -139,7 +142,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
     }
 
     @Test
-    public void testRemoveSff() {
+    public void testRemoveSff() throws Exception {
         // First we need to create the ovsdbBridge and termination point
         // Then remove the SFF and test the ovsdbBridge and termination point
         // get deleted
@@ -162,6 +165,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
         // This will call sfcOvsSffEntryDataListener.add()
         collection.add(dataTreeModification);
         sfcOvsSffEntryDataListener.onDataTreeChanged(collection);
+        sfcOvsSffEntryDataListener.awaitIdle(5, TimeUnit.SECONDS);
 
         NodeId ovsdbBridgeId = SfcOvsUtil.getOvsdbAugmentationNodeIdBySff(sff);
         assertNotNull(ovsdbBridgeId);
@@ -178,13 +182,14 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
         // This will call sfcOvsSffEntryDataListener.remove()
         collection.add(dataTreeModification);
         sfcOvsSffEntryDataListener.onDataTreeChanged(collection);
+        sfcOvsSffEntryDataListener.awaitIdle(5, TimeUnit.SECONDS);
 
         ovsdbBridgeId = SfcOvsUtil.getOvsdbAugmentationNodeIdBySff(sff);
         assertNull(getSffTerminationPoint(ovsdbBridgeId, sff));
     }
 
     @Test
-    public void testUpdateSff() {
+    public void testUpdateSff() throws Exception {
         // First add an SFF with no DPL and check nothing special is created
         // Then update the SFF and check that the ovsdbBridge and termination
         // point get created
@@ -203,6 +208,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
         // This will call sfcOvsSffEntryDataListener.add()
         collection.add(dataTreeModification);
         sfcOvsSffEntryDataListener.onDataTreeChanged(collection);
+        sfcOvsSffEntryDataListener.awaitIdle(5, TimeUnit.SECONDS);
 
         NodeId ovsdbBridgeId = SfcOvsUtil.getOvsdbAugmentationNodeIdBySff(originalSff);
         assertNull(ovsdbBridgeId);
@@ -226,6 +232,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
         // This will call sfcOvsSffEntryDataListener.update()
         collection.add(dataTreeModification);
         sfcOvsSffEntryDataListener.onDataTreeChanged(collection);
+        sfcOvsSffEntryDataListener.awaitIdle(5, TimeUnit.SECONDS);
 
         ovsdbBridgeId = SfcOvsUtil.getOvsdbAugmentationNodeIdBySff(updatedSff);
         assertNotNull(ovsdbBridgeId);
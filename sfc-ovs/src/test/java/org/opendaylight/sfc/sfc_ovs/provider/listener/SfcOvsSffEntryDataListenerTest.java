@@ -16,6 +16,7 @@ import static org.mockito.Mockito.when;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -96,7 +97,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
     }
 
     @Test
-    public void testAddSff_NoDpl() {
+    public void testAddSff_NoDpl() throws Exception {
         final ServiceFunctionForwarder sff = buildServiceFunctionForwarderNoDPL();
         createOvsdbNodeForSff(testIpAddress, testPort);
 
@@ -108,6 +109,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
         // This will call sfcOvsSffEntryDataListener.add()
         collection.add(dataTreeModification);
         sfcOvsSffEntryDataListener.onDataTreeChanged(collection);
+        sfcOvsSffEntryDataListener.awaitIdle(5, TimeUnit.SECONDS);
 
         NodeId ovsdbBridgeId = SfcOvsUtil.getOvsdbAugmentationNodeIdBySff(sff);
         // The DPL is used to lookup the topology node
@@ -117,7 +119,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
     }
 
     @Test
-    public void testAddSff_WithDpl() {
+    public void testAddSff_WithDpl() throws Exception {
         ServiceFunctionForwarder sff = build_service_function_forwarder_withDpl();
         // For this test, If there's a DPL, there will only ever be just 1
         // SffDpl
@@ -133,6 +135,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
         // This will call sfcOvsSffEntryDataListener.add()
         collection.add(dataTreeModification);
         sfcOvsSffEntryDataListener.onDataTreeChanged(collection);
+        sfcOvsSffEntryDataListener.awaitIdle(5, TimeUnit.SECONDS);
 
         NodeId ovsdbBridgeId = SfcOvsUtil.getOvsdbAugmentationNodeIdBySff(sff);
         assertNotNull(ovsdbBridgeId);
@@ -140,7 +143,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
     }
 
     @Test
-    public void testRemoveSff() {
+    public void testRemoveSff() throws Exception {
         // First we need to create the ovsdbBridge and termination point
         // Then remove the SFF and test the ovsdbBridge and termination point
         // get deleted
@@ -163,6 +166,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
         // This will call sfcOvsSffEntryDataListener.add()
         collection.add(dataTreeModification);
         sfcOvsSffEntryDataListener.onDataTreeChanged(collection);
+        sfcOvsSffEntryDataListener.awaitIdle(5, TimeUnit.SECONDS);
 
         NodeId ovsdbBridgeId = SfcOvsUtil.getOvsdbAugmentationNodeIdBySff(sff);
         assertNotNull(ovsdbBridgeId);
@@ -179,13 +183,14 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
         // This will call sfcOvsSffEntryDataListener.remove()
         collection.add(dataTreeModification);
         sfcOvsSffEntryDataListener.onDataTreeChanged(collection);
+        sfcOvsSffEntryDataListener.awaitIdle(5, TimeUnit.SECONDS);
 
         ovsdbBridgeId = SfcOvsUtil.getOvsdbAugmentationNodeIdBySff(sff);
         assertNull(getSffTerminationPoint(ovsdbBridgeId, sff));
     }
 
     @Test
-    public void testUpdateSff() {
+    public void testUpdateSff() throws Exception {
         // First add an SFF with no DPL and check nothing special is created
         // Then update the SFF and check that the ovsdbBridge and termination
         // point get created
@@ -204,6 +209,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
         // This will call sfcOvsSffEntryDataListener.add()
         collection.add(dataTreeModification);
         sfcOvsSffEntryDataListener.onDataTreeChanged(collection);
+        sfcOvsSffEntryDataListener.awaitIdle(5, TimeUnit.SECONDS);
 
         NodeId ovsdbBridgeId = SfcOvsUtil.getOvsdbAugmentationNodeIdBySff(originalSff);
         assertNull(ovsdbBridgeId);
@@ -227,6 +233,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
         // This will call sfcOvsSffEntryDataListener.update()
         collection.add(dataTreeModification);
         sfcOvsSffEntryDataListener.onDataTreeChanged(collection);
+        sfcOvsSffEntryDataListener.awaitIdle(5, TimeUnit.SECONDS);
 
         ovsdbBridgeId = SfcOvsUtil.getOvsdbAugmentationNodeIdBySff(updatedSff);
         assertNotNull(ovsdbBridgeId);
@@ -319,7 +319,8 @@ public class SfcPotRspProcessorTest extends AbstractDataBrokerTest {
                 .setSymmetric(true);
         CreateRenderedPathInput createRenderedPathInput = createRenderedPathInputBuilder.build();
 
-        SfcProviderRenderedPathAPI.createRenderedServicePathAndState(serviceFunctionPath, createRenderedPathInput);
+        SfcProviderRenderedPathAPI.createRenderedServicePathsAndState(serviceFunctionPath, createRenderedPathInput,
+                null);
 
         // Note: Intermediate checks skipped
 
@@ -12,11 +12,20 @@ import static org.opendaylight.sfc.provider.SfcProviderDebug.printTraceStart;
 import static org.opendaylight.sfc.provider.SfcProviderDebug.printTraceStop;
 
 import com.google.common.base.Optional;
+import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
 import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
@@ -44,11 +53,18 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev1
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfpName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.CreateRenderedPathInput;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.CreateRenderedPathInputBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.CreateRenderedPathOutput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.CreateRenderedPathOutputBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.CreateRenderedPathsInput;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.CreateRenderedPathsOutput;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.CreateRenderedPathsOutputBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.DeleteRenderedPathInput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.DeleteRenderedPathOutput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.DeleteRenderedPathOutputBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.DeleteRenderedPathsInput;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.DeleteRenderedPathsOutput;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.DeleteRenderedPathsOutputBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.ReadRenderedServicePathFirstHopInput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.ReadRenderedServicePathFirstHopOutput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.ReadRenderedServicePathFirstHopOutputBuilder;
@@ -58,6 +74,11 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev1407
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.RenderedServicePathService;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.TraceRenderedServicePathInput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.TraceRenderedServicePathOutput;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.create.rendered.paths.input.RenderedPath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.create.rendered.paths.output.CreatedRenderedPath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.create.rendered.paths.output.CreatedRenderedPathBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.delete.rendered.paths.output.DeletedRenderedPath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.delete.rendered.paths.output.DeletedRenderedPathBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.path.first.hop.info.RenderedServicePathFirstHop;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.DeleteServiceFunctionInput;
@@ -96,13 +117,29 @@ import org.slf4j.LoggerFactory;
  */
 
 public class SfcProviderRpc implements ServiceFunctionService, ServiceFunctionChainService, RenderedServicePathService,
-        ServicePathIdService {
+        ServicePathIdService, AutoCloseable {
 
     private static final Logger LOG = LoggerFactory.getLogger(SfcProviderRpc.class);
+
+    // Number of threads used to process bulk RSP requests; the schedulers
+    // picking the SFs of the paths keep their shared state thread safe
+    private static final int BULK_THREAD_POOL_SIZE = 8;
+
+    // Number of paths of a bulk RSP request processed by each task
+    private static final int BULK_BATCH_SIZE = 50;
+
     private final DataBroker dataBroker;
+    private final ListeningExecutorService bulkExecutor;
 
     public SfcProviderRpc(DataBroker dataBroker) {
         this.dataBroker = dataBroker;
+        this.bulkExecutor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(BULK_THREAD_POOL_SIZE,
+                new ThreadFactoryBuilder().setNameFormat("sfc-bulk-rsp-%d").setDaemon(true).build()));
+    }
+
+    @Override
+    public void close() {
+        bulkExecutor.shutdownNow();
     }
 
     @Override
@@ -214,7 +251,6 @@ public class SfcProviderRpc implements ServiceFunctionService, ServiceFunctionCh
             CreateRenderedPathInput createRenderedPathInput) {
         ServiceFunctionPath createdServiceFunctionPath;
         RenderedServicePath renderedServicePath;
-        RenderedServicePath revRenderedServicePath;
         CreateRenderedPathOutputBuilder createRenderedPathOutputBuilder = new CreateRenderedPathOutputBuilder();
         RpcResult<CreateRenderedPathOutput> rpcResult;
         RspName retRspName;
@@ -224,21 +260,11 @@ public class SfcProviderRpc implements ServiceFunctionService, ServiceFunctionCh
 
         if (createdServiceFunctionPath != null) {
             renderedServicePath = SfcProviderRenderedPathAPI
-                    .createRenderedServicePathAndState(createdServiceFunctionPath, createRenderedPathInput);
+                    .createRenderedServicePathsAndState(createdServiceFunctionPath, createRenderedPathInput, null);
             if (renderedServicePath != null) {
                 retRspName = renderedServicePath.getName();
                 createRenderedPathOutputBuilder.setName(retRspName.getValue());
                 rpcResult = RpcResultBuilder.success(createRenderedPathOutputBuilder.build()).build();
-                if (SfcProviderRenderedPathAPI.isChainSymmetric(createdServiceFunctionPath, renderedServicePath)) {
-                    revRenderedServicePath = SfcProviderRenderedPathAPI
-                            .createSymmetricRenderedServicePathAndState(renderedServicePath);
-                    if (revRenderedServicePath == null) {
-                        LOG.error("Failed to create symmetric service path: {}");
-                    } else {
-                        SfcProviderRenderedPathAPI.setSymmetricPathId(renderedServicePath,
-                                revRenderedServicePath.getPathId());
-                    }
-                }
             } else {
                 rpcResult = RpcResultBuilder.<CreateRenderedPathOutput>failed()
                         .withError(ErrorType.APPLICATION, "Failed to create RSP").build();
@@ -251,6 +277,78 @@ public class SfcProviderRpc implements ServiceFunctionService, ServiceFunctionCh
         return Futures.immediateFuture(rpcResult);
     }
 
+    /**
+     * Create several RSPs via an RPC operation. The paths are split in
+     * batches that are processed in parallel, and a result is reported for
+     * each path, in the order of the request, along with the total elapsed
+     * time. The returned future completes once all the paths have been
+     * processed.
+     *
+     * <p>
+     * @param input
+     *            schema path
+     *            <i>rendered-service-path/create-rendered-paths/input</i>
+     * @return RPC output
+     */
+    @Override
+    public Future<RpcResult<CreateRenderedPathsOutput>> createRenderedPaths(CreateRenderedPathsInput input) {
+        final long startTime = System.nanoTime();
+        List<RenderedPath> renderedPaths = input.getRenderedPath() != null ? input.getRenderedPath()
+                : Collections.emptyList();
+        LOG.info("createRenderedPaths: creating {} paths", renderedPaths.size());
+
+        List<ListenableFuture<List<CreatedRenderedPath>>> batchFutures = Lists
+                .partition(renderedPaths, BULK_BATCH_SIZE).stream()
+                .map(batch -> bulkExecutor.submit(() -> batch.stream().map(this::createRenderedPathInBulk)
+                        .collect(Collectors.toList())))
+                .collect(Collectors.toList());
+
+        return Futures.transform(Futures.allAsList(batchFutures), batchResults -> {
+            List<CreatedRenderedPath> createdRenderedPaths = new ArrayList<>();
+            batchResults.forEach(createdRenderedPaths::addAll);
+            long elapsedTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            LOG.info("createRenderedPaths: processed {} paths in {} ms", createdRenderedPaths.size(), elapsedTime);
+            return RpcResultBuilder.success(new CreateRenderedPathsOutputBuilder()
+                    .setCreatedRenderedPath(createdRenderedPaths).setElapsedTime(elapsedTime).build()).build();
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Create a single RSP, and its symmetric one if needed, as part of a bulk
+     * request.
+     *
+     * <p>
+     * @param renderedPath
+     *            the requested path
+     * @return the result of creating the path
+     */
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private CreatedRenderedPath createRenderedPathInBulk(RenderedPath renderedPath) {
+        CreatedRenderedPathBuilder createdRenderedPathBuilder = new CreatedRenderedPathBuilder()
+                .setParentServiceFunctionPath(renderedPath.getParentServiceFunctionPath()).setResult(false);
+        try {
+            ServiceFunctionPath serviceFunctionPath = SfcProviderServicePathAPI
+                    .readServiceFunctionPath(new SfpName(renderedPath.getParentServiceFunctionPath()));
+            if (serviceFunctionPath == null) {
+                return createdRenderedPathBuilder.setMessage("Service Function Path does not exist").build();
+            }
+            CreateRenderedPathInput createRenderedPathInput = new CreateRenderedPathInputBuilder()
+                    .setName(renderedPath.getName())
+                    .setParentServiceFunctionPath(renderedPath.getParentServiceFunctionPath()).build();
+            RenderedServicePath renderedServicePath = SfcProviderRenderedPathAPI
+                    .createRenderedServicePathsAndState(serviceFunctionPath, createRenderedPathInput, null);
+            if (renderedServicePath == null) {
+                return createdRenderedPathBuilder.setMessage("Failed to create RSP").build();
+            }
+            return createdRenderedPathBuilder.setName(renderedServicePath.getName().getValue()).setResult(true)
+                    .build();
+        } catch (RuntimeException e) {
+            LOG.error("createRenderedPathInBulk: failed to create RSP for SFP {}",
+                    renderedPath.getParentServiceFunctionPath(), e);
+            return createdRenderedPathBuilder.setMessage("Failed to create RSP: " + e.getMessage()).build();
+        }
+    }
+
     /**
      * When a RSP is deleted, it has to be removed from: SFF, SF and RSP
      * operational state.
@@ -282,15 +380,8 @@ public class SfcProviderRpc implements ServiceFunctionService, ServiceFunctionCh
     @Override
     public Future<RpcResult<DeleteRenderedPathOutput>> deleteRenderedPath(DeleteRenderedPathInput input) {
 
-        boolean ret = true;
         RpcResultBuilder<DeleteRenderedPathOutput> rpcResultBuilder;
-        RspName rspName = new RspName(input.getName());
-        RspName reverseRspName = SfcProviderRenderedPathAPI.getReversedRspName(rspName);
-        if (reverseRspName != null) {
-            // The RSP has a symmetric ("Reverse") Path
-            ret = this.deleteRenderedPathWithRspName(reverseRspName);
-        }
-        ret = ret && this.deleteRenderedPathWithRspName(rspName);
+        boolean ret = deleteRenderedPathAndReversePath(new RspName(input.getName()));
 
         DeleteRenderedPathOutputBuilder deleteRenderedPathOutputBuilder = new DeleteRenderedPathOutputBuilder();
         deleteRenderedPathOutputBuilder.setResult(ret);
@@ -305,6 +396,69 @@ public class SfcProviderRpc implements ServiceFunctionService, ServiceFunctionCh
         return Futures.immediateFuture(rpcResultBuilder.build());
     }
 
+    /**
+     * Remove several RSPs from all the operational state. The paths are split
+     * in batches that are processed in parallel, and a result is reported for
+     * each path along with the total elapsed time.
+     *
+     * <p>
+     * @param input
+     *            schema path
+     *            <i>rendered-service-path/delete-rendered-paths/input</i>
+     * @return RPC output
+     */
+    @Override
+    public Future<RpcResult<DeleteRenderedPathsOutput>> deleteRenderedPaths(DeleteRenderedPathsInput input) {
+        final long startTime = System.nanoTime();
+        List<String> names = input.getName() != null ? input.getName() : Collections.emptyList();
+        LOG.info("deleteRenderedPaths: deleting {} paths", names.size());
+
+        List<ListenableFuture<List<DeletedRenderedPath>>> batchFutures = Lists.partition(names, BULK_BATCH_SIZE)
+                .stream()
+                .map(batch -> bulkExecutor.submit(() -> batch.stream().map(this::deleteRenderedPathInBulk)
+                        .collect(Collectors.toList())))
+                .collect(Collectors.toList());
+
+        return Futures.transform(Futures.allAsList(batchFutures), batchResults -> {
+            List<DeletedRenderedPath> deletedRenderedPaths = new ArrayList<>();
+            batchResults.forEach(deletedRenderedPaths::addAll);
+            long elapsedTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            LOG.info("deleteRenderedPaths: processed {} paths in {} ms", deletedRenderedPaths.size(), elapsedTime);
+            return RpcResultBuilder.success(new DeleteRenderedPathsOutputBuilder()
+                    .setDeletedRenderedPath(deletedRenderedPaths).setElapsedTime(elapsedTime).build()).build();
+        }, MoreExecutors.directExecutor());
+    }
+
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private DeletedRenderedPath deleteRenderedPathInBulk(String name) {
+        boolean ret;
+        try {
+            ret = deleteRenderedPathAndReversePath(new RspName(name));
+        } catch (RuntimeException e) {
+            LOG.error("deleteRenderedPathInBulk: failed to delete RSP {}", name, e);
+            ret = false;
+        }
+        return new DeletedRenderedPathBuilder().setName(name).setResult(ret).build();
+    }
+
+    /**
+     * Delete a RSP and its symmetric ("Reverse") path, if any.
+     *
+     * <p>
+     * @param rspName
+     *            the name of the RSP
+     * @return true if all paths were deleted, false otherwise.
+     */
+    private boolean deleteRenderedPathAndReversePath(RspName rspName) {
+        boolean ret = true;
+        RspName reverseRspName = SfcProviderRenderedPathAPI.getReversedRspName(rspName);
+        if (reverseRspName != null) {
+            // The RSP has a symmetric ("Reverse") Path
+            ret = this.deleteRenderedPathWithRspName(reverseRspName);
+        }
+        return ret && this.deleteRenderedPathWithRspName(rspName);
+    }
+
     /**
      * This method gets all necessary information for a system to construct a
      * NSH header and associated overlay packet to target the first service hop
@@ -8,9 +8,15 @@
 
 package org.opendaylight.sfc.provider.api;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Striped;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -25,6 +31,8 @@ import org.slf4j.LoggerFactory;
 public final class SfcConcurrencyAPI {
     private static final Lock SFC_LOCK = new ReentrantLock();
     private static final Lock SFC_PATHID_LOCK = new ReentrantLock();
+    private static final int SFC_RSP_LOCK_STRIPES = 64;
+    private static final Striped<Lock> SFC_RSP_LOCKS = Striped.lock(SFC_RSP_LOCK_STRIPES);
 
     private static final Logger LOG = LoggerFactory.getLogger(SfcConcurrencyAPI.class);
 
@@ -62,4 +70,25 @@ public final class SfcConcurrencyAPI {
     public static void releasePathIdLock() {
         SFC_PATHID_LOCK.unlock();
     }
+
+    /**
+     * Acquires the locks of the given RSPs, so that an RSP is torn down or
+     * re-rendered by one thread at a time whichever SF or SFF change caused
+     * it. The locks are reentrant and always acquired in the same order, so
+     * callers locking overlapping sets of RSPs do not deadlock.
+     *
+     * @param rspNames
+     *            the names of the RSPs to lock
+     * @return the acquired locks, to be released with
+     *         {@link #releaseRspLocks(List)}
+     */
+    public static List<Lock> getRspLocks(Collection<RspName> rspNames) {
+        List<Lock> locks = ImmutableList.copyOf(SFC_RSP_LOCKS.bulkGet(rspNames));
+        locks.forEach(Lock::lock);
+        return locks;
+    }
+
+    public static void releaseRspLocks(List<Lock> locks) {
+        Lists.reverse(locks).forEach(Lock::unlock);
+    }
 }
@@ -11,6 +11,7 @@ package org.opendaylight.sfc.provider.api;
 import com.google.common.base.Optional;
 import com.google.common.util.concurrent.CheckedFuture;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.function.Consumer;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
 import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
@@ -107,6 +108,32 @@ public final class SfcDataStoreAPI {
         return ret;
     }
 
+    /**
+     * Submit several write operations in a single transaction, so that they
+     * are all committed or none is.
+     *
+     * @param writeOperations
+     *            adds the operations to the transaction
+     * @return true if the transaction was committed, false otherwise
+     */
+    public static boolean writeTransactionAPI(Consumer<WriteTransaction> writeOperations) {
+        boolean ret = false;
+        if (dataProvider == null) {
+            LOG.error("writeTransactionAPI: dataProvider not initialized!");
+            return ret;
+        }
+        WriteTransaction writeTx = dataProvider.newWriteOnlyTransaction();
+        writeOperations.accept(writeTx);
+        CheckedFuture<Void, TransactionCommitFailedException> submitFuture = writeTx.submit();
+        try {
+            submitFuture.checkedGet();
+            ret = true;
+        } catch (TransactionCommitFailedException e) {
+            LOG.error("writeTransactionAPI: Transaction failed", e);
+        }
+        return ret;
+    }
+
     public static <U extends org.opendaylight.yangtools.yang.binding.DataObject> U readTransactionAPI(
             InstanceIdentifier<U> readIID, LogicalDatastoreType logicalDatastoreType) {
         U ret = null;
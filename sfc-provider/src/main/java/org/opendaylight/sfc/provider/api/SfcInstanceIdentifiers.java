@@ -27,6 +27,7 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfg.rev1502
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.ServiceFunctionPaths;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.ServiceFunctionTypes;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.ServiceFunctionType;
 
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.AccessLists;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.Acl;
@@ -81,6 +82,9 @@ public final class SfcInstanceIdentifiers implements AutoCloseable {
     public static final InstanceIdentifier<ServiceFunctionTypes> SFT_IID = InstanceIdentifier
             .builder(ServiceFunctionTypes.class).build();
 
+    public static final InstanceIdentifier<ServiceFunctionType> SFT_ENTRY_IID = InstanceIdentifier
+            .builder(ServiceFunctionTypes.class).child(ServiceFunctionType.class).build();
+
     public static final InstanceIdentifier<Acl> ACL_ENTRY_IID = InstanceIdentifier.builder(AccessLists.class)
             .child(Acl.class).build();
 
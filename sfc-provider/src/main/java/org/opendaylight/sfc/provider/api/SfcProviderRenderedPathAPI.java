@@ -13,12 +13,20 @@ import static org.opendaylight.sfc.provider.SfcProviderDebug.printTraceStop;
 
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
+import com.google.common.collect.Lists;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.provider.perf.RspLifecycleStage;
+import org.opendaylight.sfc.provider.perf.SfcRspLatencyTracer;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfcName;
@@ -47,10 +55,12 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev1407
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.service.function.chain.grouping.service.function.chain.SfcServiceFunctionBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarder.base.SffDataPlaneLocator;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.state.service.function.forwarder.state.SffServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfg.rev150214.service.function.groups.ServiceFunctionGroup;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPathBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.ServiceFunctionType;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.service.function.type.SftServiceFunctionName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.Nsh;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.Transport;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.VxlanGpe;
@@ -87,6 +97,7 @@ public final class SfcProviderRenderedPathAPI {
     private static final String MPLS = "mpls";
     private static final int MAX_STARTING_INDEX = 255;
     private static final String REVERSED_PATH_SUFFIX = "-Reverse";
+    private static final int RSP_DELETION_BATCH_SIZE = 500;
 
     private static final Logger LOG = LoggerFactory.getLogger(SfcProviderRenderedPathAPI.class);
 
@@ -134,28 +145,26 @@ public final class SfcProviderRenderedPathAPI {
     }
 
     /**
-     * Creates an RSP and all the associated operational state based on the given
-     * service function path and scheduler. Deprecated in Oxygen. RSPs will now be
-     * created when an SFP is created.
+     * Creates a RSP, and its symmetric RSP if the chain is symmetric, with all
+     * the associated operational state. The service functions are scheduled
+     * once for both RSPs, the path ids of both RSPs are allocated together,
+     * and the RSPs and their state are written in a single transaction.
      *
      * <p>
      *
-     * @param createdServiceFunctionPath
+     * @param serviceFunctionPath
      *            Service Function Path
      * @param createRenderedPathInput
      *            CreateRenderedPathInput object
      * @param possibleScheduler
      *            SfcServiceFunctionSchedulerAPI object
-     * @return RenderedServicePath Created RSP or null
+     * @return the created RSP, the symmetric one being named after it; null if
+     *         none was created
      */
-    @Deprecated
-    public static RenderedServicePath createRenderedServicePathAndState(ServiceFunctionPath createdServiceFunctionPath,
+    public static RenderedServicePath createRenderedServicePathsAndState(ServiceFunctionPath serviceFunctionPath,
             CreateRenderedPathInput createRenderedPathInput,
             @Nullable SfcServiceFunctionSchedulerAPI possibleScheduler) {
-        boolean rspSuccessful = false;
-        boolean addPathToSffStateSuccessful = false;
-        boolean addPathToSfStateSuccessful = false;
-        RenderedServicePath renderedServicePath;
+        printTraceStart(LOG);
 
         // Fall back to defaultScheduler
         SfcServiceFunctionSchedulerAPI scheduler = possibleScheduler;
@@ -163,149 +172,98 @@ public final class SfcProviderRenderedPathAPI {
             scheduler = DEFAULT_SCHEDULER_SUPPLIER.get();
         }
 
-        // Create RSP
-        if ((renderedServicePath = SfcProviderRenderedPathAPI.createRenderedServicePathEntry(createdServiceFunctionPath,
-                createRenderedPathInput, scheduler)) != null) {
-            rspSuccessful = true;
-
-        } else {
-            LOG.error("Could not create RSP. System state inconsistent. Deleting and add SFP {} back",
-                    createdServiceFunctionPath.getName());
-        }
-
-        // Add Path name to SFF operational state
-        if (rspSuccessful && SfcProviderServiceForwarderAPI.addPathToServiceForwarderState(renderedServicePath)) {
-            addPathToSffStateSuccessful = true;
-        } else {
-            if (renderedServicePath != null) {
-                SfcProviderRenderedPathAPI.deleteRenderedServicePath(renderedServicePath.getName());
-            }
+        final long traceStartTime = SfcRspLatencyTracer.now();
+        RenderedServicePathBuilder renderedServicePathBuilder = buildRenderedServicePath(serviceFunctionPath,
+                createRenderedPathInput, scheduler, traceStartTime);
+        if (renderedServicePathBuilder == null) {
+            LOG.error("Failed to create RSP for SFP {}", serviceFunctionPath.getName());
+            return null;
         }
 
-        // Add Path to SF operational state
-        if (addPathToSffStateSuccessful
-                && SfcProviderServiceFunctionAPI.addPathToServiceFunctionState(renderedServicePath)) {
+        boolean symmetric = isChainSymmetric(serviceFunctionPath,
+                renderedServicePathBuilder.getRenderedServicePathHop());
 
-            addPathToSfStateSuccessful = true;
+        final long allocationStartTime = SfcRspLatencyTracer.now();
+        long[] pathIds;
+        if (symmetric) {
+            pathIds = SfcServicePathId.checkAndAllocatePathIdPair(serviceFunctionPath.getPathId());
         } else {
-            SfcProviderServiceForwarderAPI.deletePathFromServiceForwarderState(createdServiceFunctionPath);
-            if (renderedServicePath != null) {
-                SfcProviderRenderedPathAPI.deleteRenderedServicePath(renderedServicePath.getName());
-            }
+            long pathId = serviceFunctionPath.getPathId() == null ? SfcServicePathId.checkAndAllocatePathId()
+                    : SfcServicePathId.chechAndAllocatePathId(serviceFunctionPath.getPathId());
+            pathIds = pathId == -1 ? new long[0] : new long[] {pathId};
+        }
+        if (pathIds.length == 0) {
+            LOG.error("{}: Failed to allocate path-id for SFP {}", Thread.currentThread().getStackTrace()[1],
+                    serviceFunctionPath.getName());
+            return null;
         }
+        SfcRspLatencyTracer.recordStage(RspLifecycleStage.PATH_ID_ALLOCATION, allocationStartTime);
+        SfcRspLatencyTracer.startTrace(pathIds[0], traceStartTime);
 
-        // Add RSP to SFP operational state
-        if (!(addPathToSfStateSuccessful && SfcProviderServicePathAPI.addRenderedPathToServicePathState(
-                createdServiceFunctionPath.getName(), renderedServicePath.getName()))) {
-            SfcProviderServiceFunctionAPI
-                    .deleteServicePathFromServiceFunctionState(createdServiceFunctionPath.getName());
-            SfcProviderServiceForwarderAPI.deletePathFromServiceForwarderState(createdServiceFunctionPath);
-            if (renderedServicePath != null) {
-                SfcProviderRenderedPathAPI.deleteRenderedServicePath(renderedServicePath.getName());
-            }
+        if (!setRenderedServicePathId(renderedServicePathBuilder, serviceFunctionPath, createRenderedPathInput,
+                pathIds[0])) {
+            freePathIds(pathIds);
+            return null;
         }
+        if (symmetric) {
+            renderedServicePathBuilder.setSymmetricPathId(pathIds[1]);
+        }
+        final RenderedServicePath renderedServicePath = renderedServicePathBuilder.build();
+        final RenderedServicePath revRenderedServicePath = symmetric
+                ? buildReverseRenderedServicePath(renderedServicePath, pathIds[1]) : null;
 
-        if (renderedServicePath == null) {
-            LOG.error("Failed to create RSP for SFP {}", createdServiceFunctionPath.getName());
-        } else {
-            LOG.info("Create RSP {} for SFP {} successfully", renderedServicePath.getName(),
-                    createdServiceFunctionPath.getName());
+        SfcRspCache.getInstance().beginWrite(renderedServicePath);
+        if (revRenderedServicePath != null) {
+            SfcRspCache.getInstance().beginWrite(revRenderedServicePath);
+        }
+        boolean committed = SfcDataStoreAPI.writeTransactionAPI(writeTx -> {
+            addRenderedServicePathAndState(renderedServicePath, writeTx);
+            if (revRenderedServicePath != null) {
+                addRenderedServicePathAndState(revRenderedServicePath, writeTx);
+            }
+        });
+        if (!committed) {
+            SfcRspCache.getInstance().cancelChange(renderedServicePath.getName());
+            if (revRenderedServicePath != null) {
+                SfcRspCache.getInstance().cancelChange(revRenderedServicePath.getName());
+            }
+            SfcRspLatencyTracer.discardTrace(pathIds[0]);
+            freePathIds(pathIds);
+            LOG.error("Failed to create RSP for SFP {}", serviceFunctionPath.getName());
+            return null;
         }
+        SfcRspLatencyTracer.markStage(pathIds[0], RspLifecycleStage.RSP_COMMIT);
 
+        LOG.info("Create RSP {} for SFP {} successfully{}", renderedServicePath.getName(),
+                serviceFunctionPath.getName(), symmetric ? " along with its symmetric RSP" : "");
+        printTraceStop(LOG);
         return renderedServicePath;
     }
 
     /**
-     * Creates a RSP and all the associated operational state based on the given
-     * service function path. Deprecated in Oxygen. RSPs should be created via
-     * config data store instead of RPC.
-     *
-     * <p>
-     *
-     * @param createdServiceFunctionPath
-     *            Service Function Path
-     * @param createRenderedPathInput
-     *            CreateRenderedPathInput object
-     * @return RenderedServicePath Created RSP or null
-     */
-    @Deprecated
-    public static RenderedServicePath createRenderedServicePathAndState(ServiceFunctionPath createdServiceFunctionPath,
-            CreateRenderedPathInput createRenderedPathInput) {
-        return createRenderedServicePathAndState(createdServiceFunctionPath, createRenderedPathInput, null);
-    }
-
-    /**
-     * Create a Symmetric Path and all the associated operational state based on
-     * the given rendered service path.
-     *
-     * <p>
+     * Add a RSP and its operational state in the SFFs, SFs and SFP to a
+     * transaction.
      *
      * @param renderedServicePath
-     *            RSP Object
-     * @return Nothing.
+     *            RSP object
+     * @param writeTx
+     *            the transaction
      */
-    public static RenderedServicePath createSymmetricRenderedServicePathAndState(
-            RenderedServicePath renderedServicePath) {
-
-        // Reverse Path
-        boolean revRspSuccessful = false;
-        final RenderedServicePath revRenderedServicePath = SfcProviderRenderedPathAPI
-                .createReverseRenderedServicePathEntry(renderedServicePath);
-        if (revRenderedServicePath != null) {
-            revRspSuccessful = true;
-        } else {
-            LOG.error("Could not create Reverse RSP {}", renderedServicePath.getName());
-        }
-
-        // Add Path name to SFF operational state
-        boolean addRevPathToSffStateSuccessful = false;
-        if (revRspSuccessful) {
-            if (SfcProviderServiceForwarderAPI.addPathToServiceForwarderState(revRenderedServicePath)) {
-                addRevPathToSffStateSuccessful = true;
-            } else {
-                deleteRenderedServicePath(revRenderedServicePath.getName());
-            }
-        }
-
-        // Add Path to SF operational state
-        boolean addRevPathToSfStateSuccessful = false;
-        if (addRevPathToSffStateSuccessful) {
-            if (SfcProviderServiceFunctionAPI.addPathToServiceFunctionState(revRenderedServicePath)) {
-                addRevPathToSfStateSuccessful = true;
-            } else {
-                SfcProviderServiceForwarderAPI.deletePathFromServiceForwarderState(revRenderedServicePath.getName());
-                deleteRenderedServicePath(revRenderedServicePath.getName());
-            }
-        }
-
-        // Add RSP to SFP operational state
-        if (!(addRevPathToSfStateSuccessful && SfcProviderServicePathAPI.addRenderedPathToServicePathState(
-                renderedServicePath.getParentServiceFunctionPath(), revRenderedServicePath.getName()))) {
-            // TODO Bug 4495 - RPCs hiding heuristics using Strings - alagalah
-            /*
-             * XXX TODO this exemplifies the issue. There is no method called
-             * SfcProviderServiceFunctionAPI.
-             * deleteServicePathFromServiceFunctionState() with signature
-             * (RspName): ie SfcProviderServiceFunctionAPI.
-             * deleteServicePathFromServiceFunctionState(
-             * revRenderedServicePath.getName()); There is one with signature
-             * (RspName, SfName).... and there's one with signature (SfpName)
-             * ... so what should this method be? Which one should I really be
-             * using? If you use rspName and sfpName interchangeably because
-             * they were strings, then you get this sort of confusion going on.
-             * I suspect that SfpName is correct, so I'll make the change here,
-             * and test.
-             */
-
-            if (revRenderedServicePath != null) {
-                SfcProviderServiceFunctionAPI.deleteServicePathFromServiceFunctionState(
-                        new SfpName(revRenderedServicePath.getName().getValue()));
-                SfcProviderServiceForwarderAPI.deletePathFromServiceForwarderState(revRenderedServicePath.getName());
-                deleteRenderedServicePath(revRenderedServicePath.getName());
-            }
+    private static void addRenderedServicePathAndState(RenderedServicePath renderedServicePath,
+            WriteTransaction writeTx) {
+        InstanceIdentifier<RenderedServicePath> rspIID = InstanceIdentifier.builder(RenderedServicePaths.class)
+                .child(RenderedServicePath.class, new RenderedServicePathKey(renderedServicePath.getName())).build();
+        writeTx.merge(LogicalDatastoreType.OPERATIONAL, rspIID, renderedServicePath, true);
+        SfcProviderServiceForwarderAPI.addPathToServiceForwarderState(renderedServicePath, writeTx);
+        SfcProviderServiceFunctionAPI.addPathToServiceFunctionState(renderedServicePath, writeTx);
+        SfcProviderServicePathAPI.addRenderedPathToServicePathState(renderedServicePath.getParentServiceFunctionPath(),
+                renderedServicePath.getName(), writeTx);
+    }
 
+    private static void freePathIds(long[] pathIds) {
+        for (long pathId : pathIds) {
+            SfcServicePathId.freePathId(pathId);
         }
-        return revRenderedServicePath;
     }
 
     /**
@@ -424,29 +382,22 @@ public final class SfcProviderRenderedPathAPI {
     }
 
     /**
-     * Create a Rendered Path and all the associated operational state based on
-     * the given rendered service path and scheduler. Deprecated in Oxygen. RSPs
-     * should be created via config data store instead of RPC.
-     *
-     * <p>
+     * Schedules the service functions of the given service function path and
+     * builds the RSP going through them, without its path id and name.
      *
      * @param serviceFunctionPath
-     *            RSP Object
+     *            Service Function Path
      * @param createRenderedPathInput
      *            CreateRenderedPathInput object
      * @param scheduler
      *            SfcServiceFunctionSchedulerAPI object
-     * @return RenderedServicePath
+     * @param traceStartTime
+     *            the start of the RSP creation, for the latency trace
+     * @return the RSP builder, null if the RSP cannot be built
      */
-    @Deprecated
-    protected static RenderedServicePath createRenderedServicePathEntry(ServiceFunctionPath serviceFunctionPath,
-            CreateRenderedPathInput createRenderedPathInput, SfcServiceFunctionSchedulerAPI scheduler) {
-        printTraceStart(LOG);
-
-        long pathId;
-
-        RenderedServicePath ret = null;
-
+    private static RenderedServicePathBuilder buildRenderedServicePath(ServiceFunctionPath serviceFunctionPath,
+            CreateRenderedPathInput createRenderedPathInput, SfcServiceFunctionSchedulerAPI scheduler,
+            long traceStartTime) {
         // Provisional code to test new RPC parameters
         ContextHeaderAllocationType1 contextHeaderAllocationType1 = createRenderedPathInput
                 .getContextHeaderAllocationType1();
@@ -475,19 +426,33 @@ public final class SfcProviderRenderedPathAPI {
         List<String> sfgNameList = SfcProviderServiceFunctionGroupAPI.getSfgNameList(serviceFunctionChain);
         List<SfName> sfNameList = scheduler.scheduleServiceFunctions(serviceFunctionChain, serviceIndex,
                 serviceFunctionPath);
+        SfcRspLatencyTracer.recordStage(RspLifecycleStage.SCHEDULING, traceStartTime);
         if (sfNameList == null && sfgNameList == null) {
-            LOG.warn("createRenderedServicePathEntry scheduler.scheduleServiceFunctions() returned null list");
+            LOG.warn("buildRenderedServicePath scheduler.scheduleServiceFunctions() returned null list");
             return null;
         }
 
         // Before trying to create the RSP, iterate the SFs checking for one-chain-only
         if (sfNameList != null) {
-            for (SfName sfName : sfNameList) {
+            for (ListIterator<SfName> sfNameIterator = sfNameList.listIterator(); sfNameIterator.hasNext();) {
+                int hop = sfNameIterator.nextIndex();
+                SfName sfName = sfNameIterator.next();
+                ServiceFunction sf = sfName != null ? SfcProviderServiceFunctionAPI.readServiceFunction(sfName) : null;
+                if (sf == null) {
+                    // the scheduler picks from the SF type registry, which may
+                    // still list a SF that was just deleted
+                    sf = rescheduleServiceFunction(serviceFunctionChain, serviceFunctionPath, hop, sfName);
+                    if (sf == null) {
+                        LOG.error("buildRenderedServicePath SF [{}] of hop {} does not exist", sfName, hop);
+                        return null;
+                    }
+                    sfName = sf.getName();
+                    sfNameIterator.set(sfName);
+                }
                 List<SfServicePath> sfServicePathList = SfcProviderServiceFunctionAPI.readServiceFunctionState(sfName);
-                ServiceFunction sf = SfcProviderServiceFunctionAPI.readServiceFunction(sfName);
                 if (Boolean.TRUE.equals(sf.isOneChainOnly()) && sfServicePathList != null
                         && !sfServicePathList.isEmpty()) {
-                    LOG.error("createRenderedServicePathEntry SF [{}] is-one-chain-only is TRUE and the SF "
+                    LOG.error("buildRenderedServicePath SF [{}] is-one-chain-only is TRUE and the SF "
                             + "is already in use", sfName);
                     return null;
                 }
@@ -498,7 +463,7 @@ public final class SfcProviderRenderedPathAPI {
                 sfgNameList, serviceIndex);
 
         if (renderedServicePathHopArrayList == null) {
-            LOG.warn("createRenderedServicePathEntry createRenderedServicePathHopList returned null list");
+            LOG.warn("buildRenderedServicePath createRenderedServicePathHopList returned null list");
             return null;
         }
 
@@ -508,35 +473,9 @@ public final class SfcProviderRenderedPathAPI {
          * serviceFunctionPath.getPathId() : numCreatedPathIncrementGet();
          */
 
-        if (serviceFunctionPath.getPathId() == null) {
-            pathId = SfcServicePathId.checkAndAllocatePathId();
-        } else {
-            pathId = SfcServicePathId.chechAndAllocatePathId(serviceFunctionPath.getPathId());
-        }
-
-        if (pathId == -1) {
-            LOG.error("{}: Failed to allocate path-id: {}", Thread.currentThread().getStackTrace()[1], pathId);
-            return null;
-        }
-
         RenderedServicePathBuilder renderedServicePathBuilder = new RenderedServicePathBuilder();
         renderedServicePathBuilder.setRenderedServicePathHop(renderedServicePathHopArrayList);
-        // TODO Bug 4495 - RPCs hiding heuristics using Strings - alagalah
-        if (createRenderedPathInput.getName() == null || createRenderedPathInput.getName().isEmpty()) {
-            if (serviceFunctionPath.getName() != null) {
-                renderedServicePathBuilder
-                        .setName(new RspName(serviceFunctionPath.getName().getValue() + "-Path-" + pathId));
-            } else {
-                LOG.error("{}: Failed to set RSP Name as it was null and SFP Name was null.",
-                        Thread.currentThread().getStackTrace()[1]);
-                return null;
-            }
-        } else {
-            renderedServicePathBuilder.setName(new RspName(createRenderedPathInput.getName()));
 
-        }
-
-        renderedServicePathBuilder.setPathId(pathId);
         // TODO: Find out the exact rules for service index generation
         // renderedServicePathBuilder.setStartingIndex((short)
         // renderedServicePathHopArrayList.size());
@@ -563,45 +502,111 @@ public final class SfcProviderRenderedPathAPI {
                 ? serviceFunctionPath.getSfcEncapsulation()
                 : renderedServicePathBuilder.getTransportType().equals(VxlanGpe.class) ? Nsh.class : Transport.class);
 
-        RenderedServicePathKey renderedServicePathKey = new RenderedServicePathKey(
-                renderedServicePathBuilder.getName());
-        InstanceIdentifier<RenderedServicePath> rspIID;
-        rspIID = InstanceIdentifier.builder(RenderedServicePaths.class)
-                .child(RenderedServicePath.class, renderedServicePathKey).build();
+        return renderedServicePathBuilder;
+    }
 
-        RenderedServicePath renderedServicePath = renderedServicePathBuilder.build();
+    /**
+     * Replaces a scheduled service function that does not exist anymore with
+     * another one of the same type, read from the data store. The replacement
+     * is taken at the position the scheduler picked the deleted one from, so
+     * the scheduler state is not advanced again.
+     *
+     * @param serviceFunctionChain
+     *            the chain being rendered
+     * @param serviceFunctionPath
+     *            Service Function Path
+     * @param hop
+     *            the hop of the deleted service function
+     * @param deletedSfName
+     *            the deleted service function, may be null
+     * @return the replacing service function, null if there is none
+     */
+    private static ServiceFunction rescheduleServiceFunction(ServiceFunctionChain serviceFunctionChain,
+            ServiceFunctionPath serviceFunctionPath, int hop, SfName deletedSfName) {
+        List<SfcServiceFunction> sfcServiceFunctions = serviceFunctionChain.getSfcServiceFunction();
+        if (sfcServiceFunctions == null || hop >= sfcServiceFunctions.size()) {
+            return null;
+        }
+        if (serviceFunctionPath.getServicePathHop() != null && serviceFunctionPath.getServicePathHop().stream()
+                .anyMatch(servicePathHop -> Short.valueOf((short) hop).equals(servicePathHop.getHopNumber()))) {
+            // the SF of the hop was given in the SFP
+            return null;
+        }
+        SftTypeName sftType = sfcServiceFunctions.get(hop).getType();
+        ServiceFunctionType storedType = SfcProviderServiceTypeAPI.readServiceFunctionType(sftType);
+        if (storedType == null || storedType.getSftServiceFunctionName() == null
+                || storedType.getSftServiceFunctionName().isEmpty()) {
+            return null;
+        }
+        List<SftServiceFunctionName> storedNames = storedType.getSftServiceFunctionName();
+        int start = 0;
+        ServiceFunctionType registeredType = SfcServiceFunctionTypeRegistry.getInstance()
+                .getServiceFunctionType(sftType);
+        if (deletedSfName != null && registeredType != null && registeredType.getSftServiceFunctionName() != null) {
+            start = Math.max(0, registeredType.getSftServiceFunctionName().stream()
+                    .map(sftServiceFunctionName -> new SfName(sftServiceFunctionName.getName()))
+                    .collect(Collectors.toList()).indexOf(deletedSfName));
+        }
+        for (int i = 0; i < storedNames.size(); i++) {
+            SfName sfName = new SfName(storedNames.get((start + i) % storedNames.size()).getName());
+            if (sfName.equals(deletedSfName)) {
+                continue;
+            }
+            ServiceFunction sf = SfcProviderServiceFunctionAPI.readServiceFunction(sfName);
+            if (sf != null) {
+                LOG.debug("Service function {} of type {} not found, scheduling {} instead", deletedSfName, sftType,
+                        sfName);
+                return sf;
+            }
+        }
+        return null;
+    }
 
-        if (SfcDataStoreAPI.writeMergeTransactionAPI(rspIID, renderedServicePath, LogicalDatastoreType.OPERATIONAL)) {
-            ret = renderedServicePath;
+    /**
+     * Sets the path id of a RSP, and its name if not given.
+     *
+     * @param renderedServicePathBuilder
+     *            the RSP builder
+     * @param serviceFunctionPath
+     *            Service Function Path
+     * @param createRenderedPathInput
+     *            CreateRenderedPathInput object
+     * @param pathId
+     *            the path id
+     * @return true if the name was set, false otherwise
+     */
+    private static boolean setRenderedServicePathId(RenderedServicePathBuilder renderedServicePathBuilder,
+            ServiceFunctionPath serviceFunctionPath, CreateRenderedPathInput createRenderedPathInput, long pathId) {
+        // TODO Bug 4495 - RPCs hiding heuristics using Strings - alagalah
+        if (createRenderedPathInput.getName() == null || createRenderedPathInput.getName().isEmpty()) {
+            if (serviceFunctionPath.getName() != null) {
+                renderedServicePathBuilder
+                        .setName(new RspName(serviceFunctionPath.getName().getValue() + "-Path-" + pathId));
+            } else {
+                LOG.error("{}: Failed to set RSP Name as it was null and SFP Name was null.",
+                        Thread.currentThread().getStackTrace()[1]);
+                return false;
+            }
         } else {
-            LOG.error("{}: Failed to create Rendered Service Path: {}", Thread.currentThread().getStackTrace()[1],
-                    serviceFunctionPath.getName());
+            renderedServicePathBuilder.setName(new RspName(createRenderedPathInput.getName()));
+
         }
-        printTraceStop(LOG);
-        return ret;
+        renderedServicePathBuilder.setPathId(pathId);
+        return true;
     }
 
     /**
-     * Creates a RSP that is mirror image of the given one. It reverses the hop
-     * list and adjusts hop number and service index accordingly.
-     *
-     * <p>
+     * Builds the RSP that is mirror image of the given one. It reverses the
+     * hop list and adjusts hop number and service index accordingly.
      *
      * @param renderedServicePath
      *            RSP object
-     * @return Nothing
+     * @param pathId
+     *            the path id of the reverse RSP
+     * @return the reverse RSP
      */
-    public static RenderedServicePath createReverseRenderedServicePathEntry(RenderedServicePath renderedServicePath) {
-        RenderedServicePath ret = null;
-
-        long pathId = SfcServicePathId.checkAndAllocateSymmetricPathId(renderedServicePath.getPathId());
-        printTraceStart(LOG);
-
-        if (pathId == -1) {
-            LOG.error("{}: Failed to allocate symmetric path Id for Path Id: {}",
-                    Thread.currentThread().getStackTrace()[1], renderedServicePath.getPathId());
-        }
-
+    private static RenderedServicePath buildReverseRenderedServicePath(RenderedServicePath renderedServicePath,
+            long pathId) {
         RenderedServicePathBuilder revRenderedServicePathBuilder = new RenderedServicePathBuilder(renderedServicePath);
         revRenderedServicePathBuilder.setPathId(pathId);
         RspName revPathName = generateReversedPathName(renderedServicePath.getName());
@@ -635,22 +640,7 @@ public final class SfcProviderRenderedPathAPI {
         revRenderedServicePathBuilder.setRenderedServicePathHop(revRenderedServicePathHopArrayList);
         revRenderedServicePathBuilder.setSymmetricPathId(renderedServicePath.getPathId());
 
-        InstanceIdentifier<RenderedServicePath> rspIID;
-
-        rspIID = InstanceIdentifier.builder(RenderedServicePaths.class)
-                .child(RenderedServicePath.class, revRenderedServicePathKey).build();
-
-        RenderedServicePath revRenderedServicePath = revRenderedServicePathBuilder.build();
-
-        if (SfcDataStoreAPI.writeMergeTransactionAPI(rspIID, revRenderedServicePath,
-                LogicalDatastoreType.OPERATIONAL)) {
-            ret = revRenderedServicePath;
-        } else {
-            LOG.error("{}: Failed to create Reverse Rendered Service Path: {}",
-                    Thread.currentThread().getStackTrace()[1], revPathName);
-        }
-        printTraceStop(LOG);
-        return ret;
+        return revRenderedServicePathBuilder.build();
     }
 
     /**
@@ -687,7 +677,10 @@ public final class SfcProviderRenderedPathAPI {
     }
 
     /**
-     * This function reads a RSP from the datastore.
+     * This function reads a RSP from the {@link SfcRspCache}, or from the
+     * datastore if not cached. The RSPs written or deleted from this cluster
+     * member are read from the datastore until the cache has caught up with
+     * the change.
      *
      * <p>
      *
@@ -696,6 +689,14 @@ public final class SfcProviderRenderedPathAPI {
      * @return Nothing.
      */
     public static RenderedServicePath readRenderedServicePath(RspName rspName) {
+        RenderedServicePath cachedRsp = SfcRspCache.getInstance().getRenderedServicePath(rspName);
+        if (cachedRsp != null) {
+            return cachedRsp;
+        }
+        return readRenderedServicePathFromDataStore(rspName);
+    }
+
+    private static RenderedServicePath readRenderedServicePathFromDataStore(RspName rspName) {
         printTraceStart(LOG);
 
         RenderedServicePathKey renderedServicePathKey = new RenderedServicePathKey(rspName);
@@ -742,15 +743,152 @@ public final class SfcProviderRenderedPathAPI {
     /**
      * Delete a list of RSPs and associated states.
      *
+     * <p>
+     * The RSPs are read up front from the datastore, then deleted along with
+     * their SF, SFF and SFP states in a transaction per batch of RSPs, and
+     * the path ids of each batch are freed at once. The states left behind by
+     * the RSPs no longer found are deleted by name. The SFF states left empty
+     * are deleted last.
+     * The RSPs are locked meanwhile.
+     *
      * @param rspNames
      *            the list of RSP names.
      * @return true if everything was deleted ok, false otherwise.
      */
     public static boolean deleteRenderedServicePathsAndStates(List<RspName> rspNames) {
-        boolean sfStateOk = SfcProviderServiceFunctionAPI.deleteServicePathFromServiceFunctionState(rspNames);
-        boolean sffStateOk = SfcProviderServiceForwarderAPI.deletePathFromServiceForwarderState(rspNames);
-        boolean rspOk = SfcProviderRenderedPathAPI.deleteRenderedServicePaths(rspNames);
-        return sfStateOk && sffStateOk && rspOk;
+        List<Lock> rspLocks = SfcConcurrencyAPI.getRspLocks(rspNames);
+        try {
+            return deleteLockedRenderedServicePathsAndStates(rspNames);
+        } finally {
+            SfcConcurrencyAPI.releaseRspLocks(rspLocks);
+        }
+    }
+
+    private static boolean deleteLockedRenderedServicePathsAndStates(List<RspName> rspNames) {
+        printTraceStart(LOG);
+        List<RenderedServicePath> renderedServicePaths = new ArrayList<>();
+        Set<RspName> missingRspNames = new HashSet<>();
+        for (RspName rspName : rspNames) {
+            RenderedServicePath renderedServicePath = readRenderedServicePathFromDataStore(rspName);
+            if (renderedServicePath != null) {
+                renderedServicePaths.add(renderedServicePath);
+            } else {
+                LOG.debug("RSP {} already deleted by another thread or client", rspName);
+                missingRspNames.add(rspName);
+            }
+        }
+
+        boolean ret = true;
+        Set<SffName> sffNames = new HashSet<>();
+        if (!missingRspNames.isEmpty() && !SfcDataStoreAPI.writeTransactionAPI(writeTx -> {
+            SfcProviderServiceFunctionAPI.deletePathsFromServiceFunctionStates(missingRspNames, writeTx);
+            sffNames.addAll(SfcProviderServiceForwarderAPI.deletePathsFromServiceForwarderStates(missingRspNames,
+                    writeTx));
+            SfcProviderServicePathAPI.deleteRenderedPathsFromServicePathStates(missingRspNames, writeTx);
+        })) {
+            LOG.error("{}: Failed to delete the states of {} missing RSPs", Thread.currentThread().getStackTrace()[1],
+                    missingRspNames.size());
+            ret = false;
+        }
+        for (List<RenderedServicePath> batch : Lists.partition(renderedServicePaths, RSP_DELETION_BATCH_SIZE)) {
+            batch.forEach(renderedServicePath -> SfcRspCache.getInstance().beginDelete(renderedServicePath.getName()));
+            boolean committed = SfcDataStoreAPI.writeTransactionAPI(writeTx -> {
+                for (RenderedServicePath renderedServicePath : batch) {
+                    sffNames.addAll(deleteRenderedServicePathAndState(renderedServicePath, writeTx));
+                }
+            });
+            if (!committed) {
+                batch.forEach(renderedServicePath -> SfcRspCache.getInstance().cancelChange(
+                        renderedServicePath.getName()));
+                LOG.error("{}: Failed to delete {} RSPs", Thread.currentThread().getStackTrace()[1], batch.size());
+                ret = false;
+                continue;
+            }
+            List<Long> pathIds = new ArrayList<>(batch.size());
+            for (RenderedServicePath renderedServicePath : batch) {
+                pathIds.add(renderedServicePath.getPathId());
+                SfcRspLatencyTracer.discardTrace(renderedServicePath.getPathId());
+            }
+            if (!SfcServicePathId.freePathIds(pathIds)) {
+                LOG.error("{}: Failed to free the path ids {}", Thread.currentThread().getStackTrace()[1], pathIds);
+                ret = false;
+            }
+        }
+
+        for (SffName sffName : sffNames) {
+            List<SffServicePath> sffServicePathList = SfcProviderServiceForwarderAPI.readSffState(sffName);
+            if (sffServicePathList != null && sffServicePathList.isEmpty()
+                    && !SfcProviderServiceForwarderAPI.deleteServiceFunctionForwarderState(sffName)) {
+                ret = false;
+            }
+        }
+        printTraceStop(LOG);
+        return ret;
+    }
+
+    /**
+     * Delete a RSP and its operational state in the SFFs, SFs and SFP as part
+     * of a transaction.
+     *
+     * @param renderedServicePath
+     *            RSP object
+     * @param writeTx
+     *            the transaction
+     * @return the names of the SFFs of the RSP
+     */
+    private static Set<SffName> deleteRenderedServicePathAndState(RenderedServicePath renderedServicePath,
+            WriteTransaction writeTx) {
+        InstanceIdentifier<RenderedServicePath> rspIID = InstanceIdentifier.builder(RenderedServicePaths.class)
+                .child(RenderedServicePath.class, new RenderedServicePathKey(renderedServicePath.getName())).build();
+        writeTx.delete(LogicalDatastoreType.OPERATIONAL, rspIID);
+        SfcProviderServiceFunctionAPI.deletePathFromServiceFunctionState(renderedServicePath, writeTx);
+        if (renderedServicePath.getParentServiceFunctionPath() != null) {
+            SfcProviderServicePathAPI.deleteRenderedPathFromServicePathState(
+                    renderedServicePath.getParentServiceFunctionPath(), renderedServicePath.getName(), writeTx);
+        }
+        return SfcProviderServiceForwarderAPI.deletePathFromServiceForwarderState(renderedServicePath, writeTx);
+    }
+
+    /**
+     * Writes again the given RSPs, as they are, to the operational datastore
+     * so that renderers render them again. The RSPs keep their names and path
+     * ids, as well as their SF, SFF and SFP states. The RSPs are locked
+     * meanwhile.
+     *
+     * @param rspNames
+     *            the list of RSP names.
+     * @return true if all the RSPs were written ok, false otherwise.
+     */
+    public static boolean rerenderRenderedServicePaths(List<RspName> rspNames) {
+        List<Lock> rspLocks = SfcConcurrencyAPI.getRspLocks(rspNames);
+        try {
+            return rerenderLockedRenderedServicePaths(rspNames);
+        } finally {
+            SfcConcurrencyAPI.releaseRspLocks(rspLocks);
+        }
+    }
+
+    private static boolean rerenderLockedRenderedServicePaths(List<RspName> rspNames) {
+        boolean ret = true;
+        printTraceStart(LOG);
+        for (RspName rspName : rspNames) {
+            InstanceIdentifier<RenderedServicePath> rspEntryIID = InstanceIdentifier
+                    .builder(RenderedServicePaths.class)
+                    .child(RenderedServicePath.class, new RenderedServicePathKey(rspName)).build();
+            RenderedServicePath renderedServicePath = SfcDataStoreAPI.readTransactionAPI(rspEntryIID,
+                    LogicalDatastoreType.OPERATIONAL);
+            if (renderedServicePath == null) {
+                LOG.warn("rerenderRenderedServicePaths: RSP {} does not exist", rspName);
+                continue;
+            }
+            if (!SfcDataStoreAPI.writePutTransactionAPI(rspEntryIID, renderedServicePath,
+                    LogicalDatastoreType.OPERATIONAL)) {
+                LOG.error("{}: Failed to re-render RSP: {}", Thread.currentThread().getStackTrace()[1], rspName);
+                ret = false;
+            }
+        }
+        printTraceStop(LOG);
+        return ret;
     }
 
     /**
@@ -774,11 +912,14 @@ public final class SfcProviderRenderedPathAPI {
                 LogicalDatastoreType.OPERATIONAL);
         if (renderedServicePath != null) {
             long pathId = renderedServicePath.getPathId();
+            SfcRspLatencyTracer.discardTrace(pathId);
+            SfcRspCache.getInstance().beginDelete(renderedServicePathName);
             if (SfcDataStoreAPI.deleteTransactionAPI(rspEntryIID, LogicalDatastoreType.OPERATIONAL)) {
                 ret = true;
                 // Free pathId
                 SfcServicePathId.freePathId(pathId);
             } else {
+                SfcRspCache.getInstance().cancelChange(renderedServicePathName);
                 LOG.error("{}: Failed to delete RSP: {}", Thread.currentThread().getStackTrace()[1],
                         renderedServicePathName);
             }
@@ -955,54 +1096,19 @@ public final class SfcProviderRenderedPathAPI {
 
         CreateRenderedPathInputBuilder createRenderedPathInputBuilder = new CreateRenderedPathInputBuilder();
 
-        RenderedServicePath renderedServicePath = createRenderedServicePathAndState(serviceFunctionPath,
+        RenderedServicePath renderedServicePath = createRenderedServicePathsAndState(serviceFunctionPath,
                 createRenderedPathInputBuilder.build(), scheduler);
         if (renderedServicePath == null) {
             LOG.error("Failed to create RenderedServicePath for ServiceFunctionPath: {}", pathName);
             return null;
         }
 
-        if (isChainSymmetric(serviceFunctionPath, renderedServicePath)) {
-            final RenderedServicePath revRenderedServicePath = SfcProviderRenderedPathAPI
-                    .createSymmetricRenderedServicePathAndState(renderedServicePath);
-            if (revRenderedServicePath == null) {
-                LOG.error("Failed to create symmetric RenderedServicePath for ServiceFunctionPath: {}", pathName);
-            } else {
-                // Set the symmetric path ID on the original RSP
-                setSymmetricPathId(renderedServicePath, revRenderedServicePath.getPathId());
-            }
-        }
-
         RenderedServicePathFirstHop firstHop = SfcProviderRenderedPathAPI
                 .readRenderedServicePathFirstHop(renderedServicePath.getName());
         printTraceStop(LOG);
         return firstHop;
     }
 
-    /**
-     * This method gets all necessary information for a system to construct a
-     * NSH header and associated overlay packet to target the first service hop
-     * of a Rendered Service Path by ServiceFunctionTypeIdentity list.
-     *
-     * <p>
-     *
-     * @param renderedServicePath
-     *            RenderedServicePath Object
-     * @param pathId
-     *            Symmetric Path Id
-     * @return true if symmetric path-id was set, otherwise false
-     */
-    public static boolean setSymmetricPathId(RenderedServicePath renderedServicePath, long pathId) {
-        RenderedServicePathKey renderedServicePathKey = new RenderedServicePathKey(renderedServicePath.getName());
-        InstanceIdentifier<RenderedServicePath> rspIID;
-        rspIID = InstanceIdentifier.builder(RenderedServicePaths.class)
-                .child(RenderedServicePath.class, renderedServicePathKey).build();
-        RenderedServicePathBuilder renderedServicePathBuilder = new RenderedServicePathBuilder(renderedServicePath);
-        renderedServicePathBuilder.setSymmetricPathId(pathId);
-        return SfcDataStoreAPI.writeMergeTransactionAPI(rspIID, renderedServicePathBuilder.build(),
-                LogicalDatastoreType.OPERATIONAL);
-    }
-
     /**
      * Determine if a Rendered Service Path should be Symmetric. The Service
      * Function Path symmetric field, if present, has priority over the SF
@@ -1019,11 +1125,14 @@ public final class SfcProviderRenderedPathAPI {
      * @return True is there the RSP is symmetric, false otherwise.
      */
     public static boolean isChainSymmetric(ServiceFunctionPath sfp, RenderedServicePath rsp) {
+        return isChainSymmetric(sfp, rsp.getRenderedServicePathHop());
+    }
+
+    private static boolean isChainSymmetric(ServiceFunctionPath sfp, List<RenderedServicePathHop> rspHops) {
         if (sfp.isSymmetric() != null) {
             return sfp.isSymmetric();
         }
 
-        List<RenderedServicePathHop> rspHops = rsp.getRenderedServicePathHop();
         for (RenderedServicePathHop hop : rspHops) {
             ServiceFunction sf = SfcProviderServiceFunctionAPI.readServiceFunction(hop.getServiceFunctionName());
             ServiceFunctionType sfType = SfcProviderServiceTypeAPI.readServiceFunctionType(sf.getType());
@@ -18,6 +18,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffDataPlaneLocatorName;
@@ -224,6 +225,101 @@ public final class SfcProviderServiceForwarderAPI {
         return ret;
     }
 
+    /**
+     * Add the path name to the operational store of each SFF as part of the
+     * given transaction.
+     *
+     * @param renderedServicePath
+     *            RSP Object
+     * @param writeTx
+     *            the transaction
+     */
+    public static void addPathToServiceForwarderState(RenderedServicePath renderedServicePath,
+                                                      WriteTransaction writeTx) {
+        SfpName sfpName = new SfpName(renderedServicePath.getName().getValue());
+        SffServicePathKey sffServicePathKey = new SffServicePathKey(sfpName);
+        SffServicePath sffServicePath = new SffServicePathBuilder().setKey(sffServicePathKey).setName(sfpName).build();
+
+        for (RenderedServicePathHop renderedServicePathHop : renderedServicePath.getRenderedServicePathHop()) {
+            ServiceFunctionForwarderStateKey serviceFunctionForwarderStateKey =
+                    new ServiceFunctionForwarderStateKey(renderedServicePathHop.getServiceFunctionForwarder());
+            InstanceIdentifier<SffServicePath> sfStateIID =
+                    InstanceIdentifier.builder(ServiceFunctionForwardersState.class)
+                            .child(ServiceFunctionForwarderState.class, serviceFunctionForwarderStateKey)
+                            .child(SffServicePath.class, sffServicePathKey).build();
+            writeTx.put(LogicalDatastoreType.OPERATIONAL, sfStateIID, sffServicePath, true);
+        }
+    }
+
+    /**
+     * Delete the path name from the operational store of each SFF as part of
+     * the given transaction. The SFF states left empty are not deleted.
+     *
+     * @param renderedServicePath
+     *            RSP Object
+     * @param writeTx
+     *            the transaction
+     * @return the names of the SFFs of the path
+     */
+    public static Set<SffName> deletePathFromServiceForwarderState(RenderedServicePath renderedServicePath,
+                                                                   WriteTransaction writeTx) {
+        SffServicePathKey sffServicePathKey = new SffServicePathKey(
+                new SfpName(renderedServicePath.getName().getValue()));
+        Set<SffName> sffNameSet = new HashSet<>();
+        for (RenderedServicePathHop renderedServicePathHop : renderedServicePath.getRenderedServicePathHop()) {
+            SffName sffName = renderedServicePathHop.getServiceFunctionForwarder();
+            if (sffNameSet.add(sffName)) {
+                ServiceFunctionForwarderStateKey serviceFunctionForwarderStateKey =
+                        new ServiceFunctionForwarderStateKey(sffName);
+                InstanceIdentifier<SffServicePath> sfStateIID =
+                        InstanceIdentifier.builder(ServiceFunctionForwardersState.class)
+                                .child(ServiceFunctionForwarderState.class, serviceFunctionForwarderStateKey)
+                                .child(SffServicePath.class, sffServicePathKey).build();
+                writeTx.delete(LogicalDatastoreType.OPERATIONAL, sfStateIID);
+            }
+        }
+        return sffNameSet;
+    }
+
+    /**
+     * Delete the given paths from the operational state of every SFF as part
+     * of the given transaction. This is meant for paths whose RSP can no
+     * longer be read to find its SFFs. The SFF states left empty are not
+     * deleted.
+     *
+     * @param rspNames
+     *            the RSP names
+     * @param writeTx
+     *            the transaction
+     * @return the names of the SFFs the paths were deleted from
+     */
+    public static Set<SffName> deletePathsFromServiceForwarderStates(Set<RspName> rspNames,
+                                                                     WriteTransaction writeTx) {
+        InstanceIdentifier<ServiceFunctionForwardersState> sffsStateIID = InstanceIdentifier
+                .create(ServiceFunctionForwardersState.class);
+        ServiceFunctionForwardersState sffsState = SfcDataStoreAPI.readTransactionAPI(sffsStateIID,
+                LogicalDatastoreType.OPERATIONAL);
+        Set<SffName> sffNameSet = new HashSet<>();
+        if (sffsState == null || sffsState.getServiceFunctionForwarderState() == null) {
+            return sffNameSet;
+        }
+        for (ServiceFunctionForwarderState sffState : sffsState.getServiceFunctionForwarderState()) {
+            if (sffState.getSffServicePath() == null) {
+                continue;
+            }
+            for (SffServicePath sffServicePath : sffState.getSffServicePath()) {
+                // TODO Bug 4495 - RPCs hiding heuristics using Strings
+                if (rspNames.contains(new RspName(sffServicePath.getName().getValue()))) {
+                    writeTx.delete(LogicalDatastoreType.OPERATIONAL, sffsStateIID.child(
+                            ServiceFunctionForwarderState.class, sffState.getKey())
+                            .child(SffServicePath.class, sffServicePath.getKey()));
+                    sffNameSet.add(sffState.getName());
+                }
+            }
+        }
+        return sffNameSet;
+    }
+
     /**
      * When a SFF is deleted we need to delete all SFPs from the associated SFF
      * operational state.
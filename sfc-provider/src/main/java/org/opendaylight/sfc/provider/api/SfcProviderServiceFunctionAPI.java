@@ -12,7 +12,10 @@ import static org.opendaylight.sfc.provider.SfcProviderDebug.printTraceStart;
 import static org.opendaylight.sfc.provider.SfcProviderDebug.printTraceStop;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
@@ -229,6 +232,89 @@ public final class SfcProviderServiceFunctionAPI {
         return ret;
     }
 
+    /**
+     * This method adds a RSP name to the corresponding SF operational state as
+     * part of the given transaction.
+     *
+     * @param renderedServicePath
+     *            RSP object
+     * @param writeTx
+     *            the transaction
+     */
+    public static void addPathToServiceFunctionState(RenderedServicePath renderedServicePath,
+                                                     WriteTransaction writeTx) {
+        SfpName sfpName = new SfpName(renderedServicePath.getName().getValue());
+        SfServicePathKey sfServicePathKey = new SfServicePathKey(sfpName);
+        SfServicePath sfServicePath = new SfServicePathBuilder().setKey(sfServicePathKey).setName(sfpName).build();
+        for (RenderedServicePathHop renderedServicePathHop : renderedServicePath.getRenderedServicePathHop()) {
+            // the SFGs have no operational state
+            if (renderedServicePathHop.getServiceFunctionName() != null) {
+                ServiceFunctionStateKey serviceFunctionStateKey = new ServiceFunctionStateKey(
+                        renderedServicePathHop.getServiceFunctionName());
+                InstanceIdentifier<SfServicePath> sfStateIID = InstanceIdentifier.builder(ServiceFunctionsState.class)
+                        .child(ServiceFunctionState.class, serviceFunctionStateKey)
+                        .child(SfServicePath.class, sfServicePathKey).build();
+                writeTx.put(LogicalDatastoreType.OPERATIONAL, sfStateIID, sfServicePath, true);
+            }
+        }
+    }
+
+    /**
+     * This method deletes a RSP name from the corresponding SF operational
+     * state as part of the given transaction.
+     *
+     * @param renderedServicePath
+     *            RSP object
+     * @param writeTx
+     *            the transaction
+     */
+    public static void deletePathFromServiceFunctionState(RenderedServicePath renderedServicePath,
+                                                          WriteTransaction writeTx) {
+        SfServicePathKey sfServicePathKey = new SfServicePathKey(new SfpName(renderedServicePath.getName().getValue()));
+        Set<SfName> sfNames = new HashSet<>();
+        for (RenderedServicePathHop renderedServicePathHop : renderedServicePath.getRenderedServicePathHop()) {
+            // the SFGs have no operational state
+            SfName sfName = renderedServicePathHop.getServiceFunctionName();
+            if (sfName != null && sfNames.add(sfName)) {
+                InstanceIdentifier<SfServicePath> sfStateIID = InstanceIdentifier.builder(ServiceFunctionsState.class)
+                        .child(ServiceFunctionState.class, new ServiceFunctionStateKey(sfName))
+                        .child(SfServicePath.class, sfServicePathKey).build();
+                writeTx.delete(LogicalDatastoreType.OPERATIONAL, sfStateIID);
+            }
+        }
+    }
+
+    /**
+     * Delete the given paths from the operational state of every SF as part
+     * of the given transaction. This is meant for paths whose RSP can no
+     * longer be read to find its SFs.
+     *
+     * @param rspNames
+     *            the RSP names
+     * @param writeTx
+     *            the transaction
+     */
+    public static void deletePathsFromServiceFunctionStates(Set<RspName> rspNames, WriteTransaction writeTx) {
+        InstanceIdentifier<ServiceFunctionsState> sfsStateIID = InstanceIdentifier.create(ServiceFunctionsState.class);
+        ServiceFunctionsState sfsState = SfcDataStoreAPI.readTransactionAPI(sfsStateIID,
+                LogicalDatastoreType.OPERATIONAL);
+        if (sfsState == null || sfsState.getServiceFunctionState() == null) {
+            return;
+        }
+        for (ServiceFunctionState sfState : sfsState.getServiceFunctionState()) {
+            if (sfState.getSfServicePath() == null) {
+                continue;
+            }
+            for (SfServicePath sfServicePath : sfState.getSfServicePath()) {
+                // TODO Bug 4495 - RPCs hiding heuristics using Strings
+                if (rspNames.contains(new RspName(sfServicePath.getName().getValue()))) {
+                    writeTx.delete(LogicalDatastoreType.OPERATIONAL, sfsStateIID.child(ServiceFunctionState.class,
+                            sfState.getKey()).child(SfServicePath.class, sfServicePath.getKey()));
+                }
+            }
+        }
+    }
+
     /**
      * This method puts a SF to data store.
      *
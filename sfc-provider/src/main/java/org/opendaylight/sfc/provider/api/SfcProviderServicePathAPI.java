@@ -12,6 +12,8 @@ import static org.opendaylight.sfc.provider.SfcProviderDebug.printTraceStart;
 import static org.opendaylight.sfc.provider.SfcProviderDebug.printTraceStop;
 
 import java.util.List;
+import java.util.Set;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfpName;
@@ -111,6 +113,80 @@ public final class SfcProviderServicePathAPI {
         return ret;
     }
 
+    /**
+     * Add a RSP to the operational state of its SFP as part of the given
+     * transaction.
+     *
+     * @param servicePathName
+     *            Service Function Path name
+     * @param renderedPathName
+     *            Rendered Path name
+     * @param writeTx
+     *            the transaction
+     */
+    public static void addRenderedPathToServicePathState(SfpName servicePathName, RspName renderedPathName,
+                                                         WriteTransaction writeTx) {
+        SfpRenderedServicePathKey sfpRenderedServicePathKey = new SfpRenderedServicePathKey(renderedPathName);
+        SfpRenderedServicePath sfpRenderedServicePath = new SfpRenderedServicePathBuilder()
+                .setKey(sfpRenderedServicePathKey).setName(renderedPathName).build();
+        InstanceIdentifier<SfpRenderedServicePath> rspIID = InstanceIdentifier.builder(ServiceFunctionPathsState.class)
+                .child(ServiceFunctionPathState.class, new ServiceFunctionPathStateKey(servicePathName))
+                .child(SfpRenderedServicePath.class, sfpRenderedServicePathKey).build();
+        writeTx.merge(LogicalDatastoreType.OPERATIONAL, rspIID, sfpRenderedServicePath, true);
+    }
+
+    /**
+     * Delete a RSP from the operational state of its SFP as part of the given
+     * transaction.
+     *
+     * @param servicePathName
+     *            Service Path Name
+     * @param renderedPathName
+     *            Rendered Path name
+     * @param writeTx
+     *            the transaction
+     */
+    public static void deleteRenderedPathFromServicePathState(SfpName servicePathName, RspName renderedPathName,
+                                                              WriteTransaction writeTx) {
+        InstanceIdentifier<SfpRenderedServicePath> rspIID = InstanceIdentifier.builder(ServiceFunctionPathsState.class)
+                .child(ServiceFunctionPathState.class, new ServiceFunctionPathStateKey(servicePathName))
+                .child(SfpRenderedServicePath.class, new SfpRenderedServicePathKey(renderedPathName)).build();
+        writeTx.delete(LogicalDatastoreType.OPERATIONAL, rspIID);
+    }
+
+    /**
+     * Delete the given RSPs from the operational state of every SFP as part
+     * of the given transaction. This is meant for RSPs that can no longer be
+     * read to find their SFP.
+     *
+     * @param renderedPathNames
+     *            the RSP names
+     * @param writeTx
+     *            the transaction
+     */
+    public static void deleteRenderedPathsFromServicePathStates(Set<RspName> renderedPathNames,
+                                                                WriteTransaction writeTx) {
+        InstanceIdentifier<ServiceFunctionPathsState> sfpsStateIID = InstanceIdentifier
+                .create(ServiceFunctionPathsState.class);
+        ServiceFunctionPathsState sfpsState = SfcDataStoreAPI.readTransactionAPI(sfpsStateIID,
+                LogicalDatastoreType.OPERATIONAL);
+        if (sfpsState == null || sfpsState.getServiceFunctionPathState() == null) {
+            return;
+        }
+        for (ServiceFunctionPathState sfpState : sfpsState.getServiceFunctionPathState()) {
+            if (sfpState.getSfpRenderedServicePath() == null) {
+                continue;
+            }
+            for (SfpRenderedServicePath sfpRenderedServicePath : sfpState.getSfpRenderedServicePath()) {
+                if (renderedPathNames.contains(sfpRenderedServicePath.getName())) {
+                    writeTx.delete(LogicalDatastoreType.OPERATIONAL, sfpsStateIID.child(
+                            ServiceFunctionPathState.class, sfpState.getKey())
+                            .child(SfpRenderedServicePath.class, sfpRenderedServicePath.getKey()));
+                }
+            }
+        }
+    }
+
     /**
      * This function reads a SFP from the datastore.
      *
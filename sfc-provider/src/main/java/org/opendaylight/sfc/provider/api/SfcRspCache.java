@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.api;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of the rendered service paths of the operational data store, by
+ * name. It is shared by all the SFC modules and kept up to date by
+ * {@link org.opendaylight.sfc.provider.listeners.RenderedServicePathCacheListener}.
+ *
+ * <p>
+ * The cache holds up to a maximum number of RSPs; the RSPs created once it
+ * is full are not cached. A lookup that is not answered by the cache, as
+ * happens as well for an RSP just created whose notification is not handled
+ * yet, has to fall back to the data store, as
+ * {@link SfcProviderRenderedPathAPI} does.
+ *
+ * <p>
+ * The RSPs written or deleted from this cluster member are evicted before
+ * the write is submitted, and not cached again until the notification of
+ * that change is handled, the notifications of the older changes being
+ * ignored meanwhile. A read right after a write therefore falls back to the
+ * data store instead of returning the previous RSP, and a deleted RSP is not
+ * brought back by a notification still queued. The data store may merge a
+ * write with the data already there, or report it together with a later
+ * change, so a pending change whose notification is not recognized expires
+ * after {@link #PENDING_CHANGE_TIMEOUT_MILLIS}, and the next notification is
+ * cached. The RSPs written from other cluster members are cached once their
+ * notifications are handled.
+ */
+public final class SfcRspCache {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+    public static final long PENDING_CHANGE_TIMEOUT_MILLIS = 30000;
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcRspCache.class);
+
+    private static final SfcRspCache INSTANCE = new SfcRspCache(DEFAULT_MAXIMUM_SIZE);
+
+    private final int maximumSize;
+    private final LongSupplier nanoClock;
+    private final Map<RspName, RenderedServicePath> rspsByName = new ConcurrentHashMap<>();
+    // the RSPs that exist but did not fit in the cache
+    private final Set<RspName> uncachedRspNames = ConcurrentHashMap.newKeySet();
+    // the RSPs being written from this cluster member, until the
+    // notification of the change or the expiration of the change
+    private final Map<RspName, PendingChange> pendingChanges = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public SfcRspCache(int maximumSize) {
+        this(maximumSize, System::nanoTime);
+    }
+
+    SfcRspCache(int maximumSize, LongSupplier nanoClock) {
+        this.maximumSize = maximumSize;
+        this.nanoClock = nanoClock;
+    }
+
+    public static SfcRspCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Evict an RSP about to be written from this cluster member, until the
+     * notification of the write is handled. To be called before the write is
+     * submitted.
+     *
+     * @param rsp
+     *            the RSP to write
+     */
+    public synchronized void beginWrite(RenderedServicePath rsp) {
+        evict(rsp.getName());
+        pendingChanges.put(rsp.getName(), new PendingChange(Optional.of(rsp), nanoClock.getAsLong()));
+    }
+
+    /**
+     * Evict an RSP about to be deleted from this cluster member, until the
+     * notification of the deletion is handled. To be called before the
+     * deletion is submitted.
+     *
+     * @param rspName
+     *            the name of the RSP to delete
+     */
+    public synchronized void beginDelete(RspName rspName) {
+        evict(rspName);
+        pendingChanges.put(rspName, new PendingChange(Optional.empty(), nanoClock.getAsLong()));
+    }
+
+    /**
+     * Forget the write or deletion of an RSP that failed, so that it is
+     * cached again from the next notification.
+     *
+     * @param rspName
+     *            the name of the RSP
+     */
+    public synchronized void cancelChange(RspName rspName) {
+        pendingChanges.remove(rspName);
+    }
+
+    /**
+     * Handle the notification of a change of an RSP. The changes older than
+     * a write or deletion made from this cluster member are ignored, until
+     * that write or deletion expires.
+     *
+     * @param dataBefore
+     *            the RSP before the change, null if created
+     * @param dataAfter
+     *            the RSP after the change, null if deleted
+     */
+    public synchronized void changed(RenderedServicePath dataBefore, RenderedServicePath dataAfter) {
+        RspName rspName = dataAfter != null ? dataAfter.getName() : dataBefore.getName();
+        PendingChange pendingChange = pendingChanges.get(rspName);
+        if (pendingChange != null) {
+            // the pending change, or a later change made on top of it
+            if (!pendingChange.data.equals(Optional.ofNullable(dataAfter))
+                    && !(pendingChange.data.isPresent() && pendingChange.data.get().equals(dataBefore))) {
+                if (nanoClock.getAsLong() - pendingChange.startNanos
+                        < TimeUnit.MILLISECONDS.toNanos(PENDING_CHANGE_TIMEOUT_MILLIS)) {
+                    LOG.debug("changed: ignoring a change of RSP {} older than the pending one",
+                            rspName.getValue());
+                    return;
+                }
+                LOG.debug("changed: pending change of RSP {} expired", rspName.getValue());
+            }
+            pendingChanges.remove(rspName);
+        }
+        if (dataAfter == null) {
+            remove(rspName);
+        } else {
+            put(dataAfter);
+        }
+    }
+
+    /**
+     * Add or replace an RSP.
+     *
+     * @param rsp
+     *            the RSP
+     */
+    public synchronized void put(RenderedServicePath rsp) {
+        RspName rspName = rsp.getName();
+        if (!rspsByName.containsKey(rspName) && rspsByName.size() >= maximumSize) {
+            if (uncachedRspNames.add(rspName)) {
+                rejected.incrementAndGet();
+                LOG.warn("put: RSP cache full with {} RSPs, not caching RSP {}", maximumSize, rspName.getValue());
+            }
+            return;
+        }
+        rspsByName.put(rspName, rsp);
+        uncachedRspNames.remove(rspName);
+    }
+
+    /**
+     * Remove an RSP.
+     *
+     * @param rspName
+     *            the name of the RSP
+     */
+    public synchronized void remove(RspName rspName) {
+        uncachedRspNames.remove(rspName);
+        evict(rspName);
+    }
+
+    /**
+     * Remove all the RSPs.
+     */
+    public synchronized void clear() {
+        rspsByName.clear();
+        uncachedRspNames.clear();
+        pendingChanges.clear();
+    }
+
+    /**
+     * Get an RSP by name.
+     *
+     * @param rspName
+     *            the name of the RSP
+     * @return the RSP, null if not cached
+     */
+    public RenderedServicePath getRenderedServicePath(RspName rspName) {
+        RenderedServicePath rsp = rspsByName.get(rspName);
+        if (rsp == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return rsp;
+    }
+
+    public int size() {
+        return rspsByName.size();
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the number of RSPs that were not cached because the cache was
+     * full.
+     *
+     * @return the number of RSPs not cached
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+        rejected.set(0);
+    }
+
+    private void evict(RspName rspName) {
+        rspsByName.remove(rspName);
+    }
+
+    private static final class PendingChange {
+        // the data written, empty for a deletion
+        private final Optional<RenderedServicePath> data;
+        private final long startNanos;
+
+        PendingChange(Optional<RenderedServicePath> data, long startNanos) {
+            this.data = data;
+            this.startNanos = startNanos;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2017 Ericsson S.A. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHop;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.function.base.SfDataPlaneLocator;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarder.base.SffDataPlaneLocator;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.service.function.forwarder.ServiceFunctionDictionary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class works out which Rendered Service Paths have hops affected by a
+ * change on a Service Function Forwarder or a Service Function, and whether
+ * those paths can be re-rendered in place or have to be torn down.
+ *
+ * <p>
+ * A path has to be torn down when the change leaves any of its hops without
+ * something it requires: the Service Function dictionary of the hop, a data
+ * plane locator that may be in use, the Service Function Forwarder the
+ * Service Function is attached to or the Service Function type the chain
+ * asks for. Any other relevant change only requires the path to be rendered
+ * again, keeping its name and path id, so that renderers can apply only the
+ * flows that actually changed.
+ */
+public final class SfcRspImpactAnalyzer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcRspImpactAnalyzer.class);
+
+    private SfcRspImpactAnalyzer() {
+    }
+
+    /**
+     * The impact of a change on a Rendered Service Path.
+     */
+    public static final class RspImpact {
+        private final RspName rspName;
+        private final boolean teardownRequired;
+
+        RspImpact(RspName rspName, boolean teardownRequired) {
+            this.rspName = rspName;
+            this.teardownRequired = teardownRequired;
+        }
+
+        public RspName getRspName() {
+            return rspName;
+        }
+
+        /**
+         * Whether the path can no longer be rendered and has to be deleted.
+         *
+         * @return true if the path has to be deleted, false if it just needs
+         *         to be rendered again.
+         */
+        public boolean isTeardownRequired() {
+            return teardownRequired;
+        }
+
+        @Override
+        public String toString() {
+            return "RspImpact [rspName=" + rspName + ", teardownRequired=" + teardownRequired + "]";
+        }
+    }
+
+    /**
+     * Works out the impact of a change on a SFF over the given RSPs.
+     *
+     * @param originalSff the original SFF.
+     * @param updatedSff  the updated SFF.
+     * @param rsps        the RSPs that make use of the SFF.
+     * @return the list of impacts, one per affected RSP.
+     */
+    public static List<RspImpact> analyzeSffUpdate(ServiceFunctionForwarder originalSff,
+                                                   ServiceFunctionForwarder updatedSff,
+                                                   List<RenderedServicePath> rsps) {
+        final SffName sffName = originalSff.getName();
+        final Predicate<RenderedServicePathHop> isSffHop = hop -> sffName.equals(hop.getServiceFunctionForwarder());
+
+        // If any data plane locator was removed, any RSP might be broken
+        // TODO Current data model does not allow to know which DPL is used on a RSP
+        Set<Object> removedLocators = removedKeys(originalSff.getSffDataPlaneLocator(),
+                updatedSff.getSffDataPlaneLocator(), SffDataPlaneLocator::getName);
+        if (!removedLocators.isEmpty()) {
+            LOG.debug("SFF {} locators removed {}", sffName, removedLocators);
+            return analyze(rsps, isSffHop, isSffHop);
+        }
+
+        // If service node, ip address or any data plane locator changed, all
+        // the hops on the SFF need to be rendered again
+        boolean isSffChanged = !Objects.equals(originalSff.getServiceNode(), updatedSff.getServiceNode())
+                || !Objects.equals(originalSff.getIpMgmtAddress(), updatedSff.getIpMgmtAddress())
+                || !modifiedKeys(originalSff.getSffDataPlaneLocator(), updatedSff.getSffDataPlaneLocator(),
+                    SffDataPlaneLocator::getName).isEmpty();
+        if (isSffChanged) {
+            LOG.debug("SFF {} updated, all its hops are affected", sffName);
+            return analyze(rsps, isSffHop, hop -> false);
+        }
+
+        // If a dictionary was removed, any hop of the SFF making use of it is
+        // broken. If it was modified, those hops need to be rendered again.
+        List<ServiceFunctionDictionary> originalDictList = originalSff.getServiceFunctionDictionary();
+        List<ServiceFunctionDictionary> updatedDictList = updatedSff.getServiceFunctionDictionary();
+        Set<Object> removedDicts = removedKeys(originalDictList, updatedDictList, ServiceFunctionDictionary::getName);
+        Set<Object> modifiedDicts = modifiedKeys(originalDictList, updatedDictList,
+                ServiceFunctionDictionary::getName);
+        if (removedDicts.isEmpty() && modifiedDicts.isEmpty()) {
+            return Collections.emptyList();
+        }
+        LOG.debug("SFF {} dictionaries removed {} modified {}", sffName, removedDicts, modifiedDicts);
+        return analyze(rsps,
+            hop -> isSffHop.test(hop) && (removedDicts.contains(hop.getServiceFunctionName())
+                    || modifiedDicts.contains(hop.getServiceFunctionName())),
+            hop -> isSffHop.test(hop) && removedDicts.contains(hop.getServiceFunctionName()));
+    }
+
+    /**
+     * Works out the impact of a change on a SF over the given RSPs.
+     *
+     * @param originalSf the original SF.
+     * @param updatedSf  the updated SF.
+     * @param rsps       the RSPs that make use of the SF.
+     * @return the list of impacts, one per affected RSP.
+     */
+    public static List<RspImpact> analyzeSfUpdate(ServiceFunction originalSf,
+                                                  ServiceFunction updatedSf,
+                                                  List<RenderedServicePath> rsps) {
+        final SfName sfName = originalSf.getName();
+        final Predicate<RenderedServicePathHop> isSfHop = hop -> sfName.equals(hop.getServiceFunctionName());
+
+        // If the type changed, the SF does no longer fit in the chains.
+        // If any data plane locator was removed, it might have been in use.
+        Set<Object> removedLocators = removedKeys(originalSf.getSfDataPlaneLocator(),
+                updatedSf.getSfDataPlaneLocator(), SfDataPlaneLocator::getName);
+        if (!Objects.equals(originalSf.getType(), updatedSf.getType()) || !removedLocators.isEmpty()) {
+            LOG.debug("SF {} type changed or locators removed {}", sfName, removedLocators);
+            return analyze(rsps, isSfHop, isSfHop);
+        }
+
+        // If the SFF of a data plane locator changed, the hops of the SF go
+        // through an SFF the SF might no longer be attached to
+        Map<Object, SfDataPlaneLocator> updatedLocators = nullToEmpty(updatedSf.getSfDataPlaneLocator()).stream()
+                .collect(Collectors.toMap(SfDataPlaneLocator::getName, Function.identity(), (first, second) -> first));
+        boolean isLocatorSffChanged = nullToEmpty(originalSf.getSfDataPlaneLocator()).stream()
+                .anyMatch(locator -> !Objects.equals(locator.getServiceFunctionForwarder(),
+                        updatedLocators.get(locator.getName()).getServiceFunctionForwarder()));
+        if (isLocatorSffChanged) {
+            LOG.debug("SF {} locators moved to another SFF", sfName);
+            return analyze(rsps, isSfHop, isSfHop);
+        }
+
+        // If ip address or any data plane locator changed, all the hops of the
+        // SF need to be rendered again
+        boolean isSfChanged = !Objects.equals(originalSf.getIpMgmtAddress(), updatedSf.getIpMgmtAddress())
+                || !modifiedKeys(originalSf.getSfDataPlaneLocator(), updatedSf.getSfDataPlaneLocator(),
+                    SfDataPlaneLocator::getName).isEmpty();
+        if (isSfChanged) {
+            LOG.debug("SF {} updated, all its hops are affected", sfName);
+            return analyze(rsps, isSfHop, hop -> false);
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Obtains the names of the RSPs that have to be torn down.
+     *
+     * @param impacts the list of impacts.
+     * @return the list of {@link RspName}.
+     */
+    public static List<RspName> getRspsToTearDown(List<RspImpact> impacts) {
+        return impacts.stream().filter(RspImpact::isTeardownRequired).map(RspImpact::getRspName)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Obtains the names of the RSPs that have to be rendered again.
+     *
+     * @param impacts the list of impacts.
+     * @return the list of {@link RspName}.
+     */
+    public static List<RspName> getRspsToRerender(List<RspImpact> impacts) {
+        return impacts.stream().filter(impact -> !impact.isTeardownRequired()).map(RspImpact::getRspName)
+                .collect(Collectors.toList());
+    }
+
+    private static List<RspImpact> analyze(List<RenderedServicePath> rsps,
+                                           Predicate<RenderedServicePathHop> isHopAffected,
+                                           Predicate<RenderedServicePathHop> isHopBroken) {
+        List<RspImpact> impacts = new ArrayList<>();
+        for (RenderedServicePath rsp : rsps) {
+            List<RenderedServicePathHop> hops = rsp.getRenderedServicePathHop() != null
+                    ? rsp.getRenderedServicePathHop() : Collections.emptyList();
+            if (hops.stream().anyMatch(isHopAffected)) {
+                RspImpact impact = new RspImpact(rsp.getName(), hops.stream().anyMatch(isHopBroken));
+                LOG.debug("RSP impact {}", impact);
+                impacts.add(impact);
+            }
+        }
+        return impacts;
+    }
+
+    private static <T> Set<Object> removedKeys(List<T> originalList, List<T> updatedList,
+                                               Function<T, Object> keyFunction) {
+        Set<Object> updatedKeys = nullToEmpty(updatedList).stream().map(keyFunction).collect(Collectors.toSet());
+        return nullToEmpty(originalList).stream().map(keyFunction).filter(key -> !updatedKeys.contains(key))
+                .collect(Collectors.toSet());
+    }
+
+    private static <T> Set<Object> modifiedKeys(List<T> originalList, List<T> updatedList,
+                                                Function<T, Object> keyFunction) {
+        Map<Object, T> updatedByKey = nullToEmpty(updatedList).stream()
+                .collect(Collectors.toMap(keyFunction, Function.identity(), (first, second) -> first));
+        return nullToEmpty(originalList).stream()
+                .filter(original -> updatedByKey.containsKey(keyFunction.apply(original)))
+                .filter(original -> !original.equals(updatedByKey.get(keyFunction.apply(original))))
+                .map(keyFunction).collect(Collectors.toSet());
+    }
+
+    private static <T> List<T> nullToEmpty(List<T> list) {
+        return list != null ? list : Collections.emptyList();
+    }
+}
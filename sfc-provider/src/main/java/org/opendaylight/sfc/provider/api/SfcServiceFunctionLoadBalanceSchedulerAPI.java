@@ -123,7 +123,7 @@ public final class SfcServiceFunctionLoadBalanceSchedulerAPI extends SfcServiceF
              */
 
             ServiceFunctionType serviceFunctionType;
-            serviceFunctionType = SfcProviderServiceTypeAPI.readServiceFunctionType(sfcServiceFunction.getType());
+            serviceFunctionType = readServiceFunctionType(sfcServiceFunction.getType());
             if (serviceFunctionType != null) {
                 List<SftServiceFunctionName> sftServiceFunctionNameList = serviceFunctionType
                         .getSftServiceFunctionName();
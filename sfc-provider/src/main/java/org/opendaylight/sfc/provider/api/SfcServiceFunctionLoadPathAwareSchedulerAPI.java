@@ -333,8 +333,7 @@ public final class SfcServiceFunctionLoadPathAwareSchedulerAPI extends SfcServic
                 continue;
             }
 
-            ServiceFunctionType serviceFunctionType = SfcProviderServiceTypeAPI
-                    .readServiceFunctionType(sfcServiceFunction.getType());
+            ServiceFunctionType serviceFunctionType = readServiceFunctionType(sfcServiceFunction.getType());
             if (serviceFunctionType != null) {
                 List<SftServiceFunctionName> sftServiceFunctionNameList = serviceFunctionType
                         .getSftServiceFunctionName();
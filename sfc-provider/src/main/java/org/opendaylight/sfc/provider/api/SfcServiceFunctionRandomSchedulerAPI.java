@@ -95,7 +95,7 @@ public final class SfcServiceFunctionRandomSchedulerAPI extends SfcServiceFuncti
              */
 
             ServiceFunctionType serviceFunctionType;
-            serviceFunctionType = SfcProviderServiceTypeAPI.readServiceFunctionType(sfcServiceFunction.getType());
+            serviceFunctionType = readServiceFunctionType(sfcServiceFunction.getType());
             if (serviceFunctionType != null) {
                 List<SftServiceFunctionName> sftServiceFunctionNameList =
                         serviceFunctionType.getSftServiceFunctionName();
@@ -9,12 +9,9 @@
 package org.opendaylight.sfc.provider.api;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.service.function.chain.grouping.ServiceFunctionChain;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.service.function.chain.grouping.service.function.chain.SfcServiceFunction;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPath;
@@ -37,30 +34,16 @@ public final class SfcServiceFunctionRoundRobinSchedulerAPI extends SfcServiceFu
 
     private static final Logger LOG = LoggerFactory.getLogger(SfcServiceFunctionRoundRobinSchedulerAPI.class);
 
-    private static Map<SftTypeName, Integer> MAP_COUNT_ROUND_ROBIN = new HashMap<>();
-
     protected SfcServiceFunctionRoundRobinSchedulerAPI() {
         super.setSfcServiceFunctionSchedulerType(RoundRobin.class);
     }
 
     private SfName getServiceFunctionByType(ServiceFunctionType serviceFunctionType) {
         List<SftServiceFunctionName> sftServiceFunctionNameList = serviceFunctionType.getSftServiceFunctionName();
-        int countRoundRobin = 0;
-
-        if (!MAP_COUNT_ROUND_ROBIN.isEmpty()) {
-            for (Entry<SftTypeName, Integer> entry : MAP_COUNT_ROUND_ROBIN.entrySet()) {
-                SftTypeName sfType = entry.getKey();
-                if (sfType.equals(serviceFunctionType.getType())) {
-                    countRoundRobin = entry.getValue();
-                    LOG.debug("countRoundRobin: {}", countRoundRobin);
-                    break;
-                }
-            }
-        }
-
+        int countRoundRobin = SfcServiceFunctionTypeRegistry.getInstance()
+                .nextRoundRobinIndex(serviceFunctionType.getType(), sftServiceFunctionNameList.size());
+        LOG.debug("countRoundRobin: {}", countRoundRobin);
         SftServiceFunctionName sftServiceFunctionName = sftServiceFunctionNameList.get(countRoundRobin);
-        countRoundRobin = (countRoundRobin + 1) % sftServiceFunctionNameList.size();
-        MAP_COUNT_ROUND_ROBIN.put(serviceFunctionType.getType(), countRoundRobin);
         return new SfName(sftServiceFunctionName.getName());
     }
 
@@ -92,7 +75,7 @@ public final class SfcServiceFunctionRoundRobinSchedulerAPI extends SfcServiceFu
              * Pointer exceptions
              */
             ServiceFunctionType serviceFunctionType;
-            serviceFunctionType = SfcProviderServiceTypeAPI.readServiceFunctionType(sfcServiceFunction.getType());
+            serviceFunctionType = readServiceFunctionType(sfcServiceFunction.getType());
             if (serviceFunctionType != null) {
                 List<SftServiceFunctionName> sftServiceFunctionNameList = serviceFunctionType
                         .getSftServiceFunctionName();
@@ -12,9 +12,11 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.service.function.chain.grouping.ServiceFunctionChain;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.service.function.path.ServicePathHop;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.ServiceFunctionType;
 
 /**
  * This class defines the Generic API for SF scheduling.
@@ -56,4 +58,22 @@ public abstract class SfcServiceFunctionSchedulerAPI {
         }
         return ret;
     }
+
+    /**
+     * Read a service function type from the {@link SfcServiceFunctionTypeRegistry},
+     * or from the data store if it is not registered yet or has no service
+     * functions registered.
+     *
+     * @param serviceFunctionType
+     *            the type
+     * @return the service function type, null if it does not exist
+     */
+    protected static ServiceFunctionType readServiceFunctionType(SftTypeName serviceFunctionType) {
+        ServiceFunctionType sft = SfcServiceFunctionTypeRegistry.getInstance()
+                .getServiceFunctionType(serviceFunctionType);
+        if (sft == null || sft.getSftServiceFunctionName() == null || sft.getSftServiceFunctionName().isEmpty()) {
+            sft = SfcProviderServiceTypeAPI.readServiceFunctionType(serviceFunctionType);
+        }
+        return sft;
+    }
 }
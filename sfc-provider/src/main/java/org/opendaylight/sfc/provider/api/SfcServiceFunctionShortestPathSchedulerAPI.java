@@ -252,8 +252,7 @@ public final class SfcServiceFunctionShortestPathSchedulerAPI extends SfcService
                 continue;
             }
 
-            ServiceFunctionType serviceFunctionType = SfcProviderServiceTypeAPI
-                    .readServiceFunctionType(sfcServiceFunction.getType());
+            ServiceFunctionType serviceFunctionType = readServiceFunctionType(sfcServiceFunction.getType());
             if (serviceFunctionType != null) {
                 List<SftServiceFunctionName> sftServiceFunctionNameList = serviceFunctionType
                         .getSftServiceFunctionName();
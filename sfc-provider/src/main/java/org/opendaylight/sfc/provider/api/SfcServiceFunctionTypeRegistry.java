@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.api;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.ServiceFunctionType;
+
+/**
+ * Registry of the service function types of the configuration data store,
+ * with the service functions of each type, used by the SF schedulers to pick
+ * the service functions of a chain without reading the data store. It is
+ * shared by all the schedulers and kept up to date by
+ * {@link org.opendaylight.sfc.provider.listeners.ServiceFunctionTypeListener}.
+ *
+ * <p>
+ * The service function types are immutable, so that a scheduler always sees
+ * a consistent list of service functions. Each type also has a round robin
+ * cursor, advanced atomically so that the service functions are still taken
+ * in turn when several paths are scheduled concurrently. A type that is not
+ * in the registry, as happens for a type just created whose notification is
+ * not handled yet, has to be read from the data store, as
+ * {@link SfcServiceFunctionSchedulerAPI#readServiceFunctionType(SftTypeName)}
+ * does.
+ */
+public final class SfcServiceFunctionTypeRegistry {
+
+    private static final SfcServiceFunctionTypeRegistry INSTANCE = new SfcServiceFunctionTypeRegistry();
+
+    private final Map<SftTypeName, ServiceFunctionType> serviceFunctionTypes = new ConcurrentHashMap<>();
+    private final Map<SftTypeName, AtomicInteger> roundRobinCursors = new ConcurrentHashMap<>();
+
+    public static SfcServiceFunctionTypeRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Add or replace a service function type. The round robin cursor of the
+     * type is kept.
+     *
+     * @param serviceFunctionType
+     *            the service function type
+     */
+    public void put(ServiceFunctionType serviceFunctionType) {
+        serviceFunctionTypes.put(serviceFunctionType.getType(), serviceFunctionType);
+    }
+
+    /**
+     * Remove a service function type and its round robin cursor.
+     *
+     * @param sftType
+     *            the type
+     */
+    public void remove(SftTypeName sftType) {
+        serviceFunctionTypes.remove(sftType);
+        roundRobinCursors.remove(sftType);
+    }
+
+    /**
+     * Remove all the service function types and round robin cursors.
+     */
+    public void clear() {
+        serviceFunctionTypes.clear();
+        roundRobinCursors.clear();
+    }
+
+    /**
+     * Get a service function type.
+     *
+     * @param sftType
+     *            the type
+     * @return the service function type, null if not registered
+     */
+    public ServiceFunctionType getServiceFunctionType(SftTypeName sftType) {
+        return serviceFunctionTypes.get(sftType);
+    }
+
+    /**
+     * Advance the round robin cursor of a type.
+     *
+     * @param sftType
+     *            the type
+     * @param size
+     *            the number of service functions of the type
+     * @return the position of the next service function, in between 0 and
+     *         size - 1
+     */
+    public int nextRoundRobinIndex(SftTypeName sftType, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid size %d", size));
+        }
+        AtomicInteger cursor = roundRobinCursors.computeIfAbsent(sftType, key -> new AtomicInteger());
+        return Math.floorMod(cursor.getAndIncrement(), size);
+    }
+
+    public int size() {
+        return serviceFunctionTypes.size();
+    }
+}
@@ -8,6 +8,11 @@
 
 package org.opendaylight.sfc.provider.api;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.GenerationAlgorithmEnum;
@@ -190,6 +195,39 @@ public final class SfcServicePathId {
         }
     }
 
+    /**
+     * Allocate the path ids of a path and of its symmetric path at once, so
+     * that either both are allocated or none is.
+     *
+     * <p>
+     *
+     * @param pathid
+     *            Candidate Path Id of the path, null to generate one
+     * @return The path id of the path and the one of its symmetric path, or an
+     *         empty array if they could not be allocated.
+     */
+    public static long[] checkAndAllocatePathIdPair(Long pathid) {
+        if (SfcConcurrencyAPI.getPathIdLock()) {
+            // the lock is reentrant, it is held along both allocations
+            try {
+                long pathId = pathid == null ? checkAndAllocatePathId() : chechAndAllocatePathId(pathid);
+                if (pathId == -1) {
+                    return new long[0];
+                }
+                long symmetricPathId = checkAndAllocateSymmetricPathId(pathId);
+                if (symmetricPathId == -1) {
+                    freePathId(pathId);
+                    return new long[0];
+                }
+                return new long[] {pathId, symmetricPathId};
+            } finally {
+                SfcConcurrencyAPI.releasePathIdLock();
+            }
+        } else {
+            return new long[0];
+        }
+    }
+
     /**
      * Check if Pathid is available.
      *
@@ -283,6 +321,58 @@ public final class SfcServicePathId {
         return false;
     }
 
+    /**
+     * Free several path ids at once. Each entry of the bit array is read and
+     * written once, however many of its path ids are freed, and all the
+     * entries are written in a single transaction.
+     *
+     * @param pathids
+     *            Path Ids to be freed
+     * @return True if freed, otherwise false.
+     */
+    public static boolean freePathIds(Collection<Long> pathids) {
+        if (pathids.isEmpty()) {
+            return true;
+        }
+        if (SfcConcurrencyAPI.getPathIdLock()) {
+            try {
+                /* Bits to clear in each entry of the bitarray */
+                Map<Long, Long> clearedBitsByEntry = new HashMap<>();
+                for (long pathid : pathids) {
+                    long bitEntry = pathid % Long.SIZE;
+                    clearedBitsByEntry.merge(pathid / Long.SIZE, 1L << Long.SIZE - bitEntry,
+                            (bits, bit) -> bits | bit);
+                }
+
+                List<ServicePathId> servicePathIds = new ArrayList<>();
+                for (Map.Entry<Long, Long> entry : clearedBitsByEntry.entrySet()) {
+                    ServicePathIdKey servicePathIdKey = new ServicePathIdKey(entry.getKey());
+                    InstanceIdentifier<ServicePathId> spIID = InstanceIdentifier.builder(ServicePathIds.class)
+                            .child(ServicePathId.class, servicePathIdKey).build();
+                    ServicePathId servicePathId = SfcDataStoreAPI.readTransactionAPI(spIID,
+                            LogicalDatastoreType.OPERATIONAL);
+                    if (servicePathId == null) {
+                        /* Nothing allocated in this entry */
+                        continue;
+                    }
+                    servicePathIds.add(new ServicePathIdBuilder(servicePathId).setKey(servicePathIdKey)
+                            .setPathIdBitarray(servicePathId.getPathIdBitarray() & ~entry.getValue()).build());
+                }
+
+                return SfcDataStoreAPI.writeTransactionAPI(writeTx -> {
+                    for (ServicePathId servicePathId : servicePathIds) {
+                        InstanceIdentifier<ServicePathId> spIID = InstanceIdentifier.builder(ServicePathIds.class)
+                                .child(ServicePathId.class, servicePathId.getKey()).build();
+                        writeTx.merge(LogicalDatastoreType.OPERATIONAL, spIID, servicePathId, true);
+                    }
+                });
+            } finally {
+                SfcConcurrencyAPI.releasePathIdLock();
+            }
+        }
+        return false;
+    }
+
     /**
      * Get the Path-Id Generation-algorithm from the data-store.
      *
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2017 Ericsson S.A. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.listeners;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.DataObjectModification;
+import org.opendaylight.controller.md.sal.binding.api.DataTreeChangeListener;
+import org.opendaylight.controller.md.sal.binding.api.DataTreeIdentifier;
+import org.opendaylight.controller.md.sal.binding.api.DataTreeModification;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.yangtools.concepts.ListenerRegistration;
+import org.opendaylight.yangtools.yang.binding.DataObject;
+import org.opendaylight.yangtools.yang.binding.Identifiable;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * Data tree change listener handling the modifications out of the data store
+ * notification thread, on an {@link OrderedLaneExecutor}. The modifications
+ * are keyed by the instance identifier of the modified object, so that the
+ * modifications of an object are handled in order while the modifications of
+ * unrelated objects are handled in parallel. If all the lanes of the
+ * listener are full, the notification thread waits for room in them.
+ *
+ * <p>
+ * The derived classes implement {@link #add}, {@link #remove} and
+ * {@link #update} as with the Genius synchronous listeners.
+ *
+ * @param <T>
+ *            type of the data object the listener is registered to.
+ */
+public abstract class AbstractKeyedAsyncDataTreeChangeListener<T extends DataObject>
+        implements DataTreeChangeListener<T>, AutoCloseable {
+
+    public static final int DEFAULT_LANE_COUNT = 4;
+    public static final int DEFAULT_LANE_CAPACITY = 1024;
+
+    private final DataBroker dataBroker;
+    private final DataTreeIdentifier<T> dataTreeIdentifier;
+    private final OrderedLaneExecutor executor;
+    private ListenerRegistration<AbstractKeyedAsyncDataTreeChangeListener<T>> listenerRegistration;
+
+    protected AbstractKeyedAsyncDataTreeChangeListener(DataBroker dataBroker, LogicalDatastoreType datastoreType,
+            InstanceIdentifier<T> instanceIdentifier) {
+        this(dataBroker, datastoreType, instanceIdentifier, DEFAULT_LANE_COUNT);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param dataBroker
+     *            the data broker to register to
+     * @param datastoreType
+     *            the data store to listen to
+     * @param instanceIdentifier
+     *            the wildcarded path of the objects to listen to
+     * @param laneCount
+     *            the number of modifications that may be handled in
+     *            parallel, 1 if the derived class is not thread safe
+     */
+    protected AbstractKeyedAsyncDataTreeChangeListener(DataBroker dataBroker, LogicalDatastoreType datastoreType,
+            InstanceIdentifier<T> instanceIdentifier, int laneCount) {
+        this.dataBroker = dataBroker;
+        this.dataTreeIdentifier = new DataTreeIdentifier<>(datastoreType, instanceIdentifier);
+        this.executor = new OrderedLaneExecutor(getClass().getName(), laneCount, DEFAULT_LANE_CAPACITY);
+    }
+
+    @PostConstruct
+    public void register() {
+        if (listenerRegistration != null) {
+            return;
+        }
+        listenerRegistration = dataBroker.registerDataTreeChangeListener(dataTreeIdentifier, this);
+        executor.registerMBean();
+    }
+
+    @Override
+    public void onDataTreeChanged(@Nonnull Collection<DataTreeModification<T>> collection) {
+        for (final DataTreeModification<T> dataTreeModification : collection) {
+            final DataObjectModification<T> dataObjectModification = dataTreeModification.getRootNode();
+            final T dataBefore = dataObjectModification.getDataBefore();
+            final T dataAfter = dataObjectModification.getDataAfter();
+            switch (dataObjectModification.getModificationType()) {
+                case SUBTREE_MODIFIED:
+                    executor.execute(getKey(dataTreeModification, dataAfter), () -> update(dataBefore, dataAfter));
+                    break;
+                case DELETE:
+                    executor.execute(getKey(dataTreeModification, dataBefore), () -> remove(dataBefore));
+                    break;
+                case WRITE:
+                    if (dataBefore == null) {
+                        executor.execute(getKey(dataTreeModification, dataAfter), () -> add(dataAfter));
+                    } else {
+                        executor.execute(getKey(dataTreeModification, dataAfter),
+                            () -> update(dataBefore, dataAfter));
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private Object getKey(DataTreeModification<T> dataTreeModification, T dataObject) {
+        DataTreeIdentifier<T> rootPath = dataTreeModification.getRootPath();
+        if (rootPath != null && rootPath.getRootIdentifier() != null) {
+            return rootPath.getRootIdentifier();
+        }
+        if (dataObject instanceof Identifiable) {
+            return ((Identifiable<?>) dataObject).getKey();
+        }
+        return dataTreeIdentifier;
+    }
+
+    /**
+     * Wait until all the modifications received so far have been handled.
+     *
+     * @param timeout
+     *            the maximum time to wait
+     * @param unit
+     *            the unit of the timeout
+     * @return true if all the modifications were handled, false on timeout
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitIdle(timeout, unit);
+    }
+
+    public SfcListenerDispatchMXBean getDispatchStatistics() {
+        return executor;
+    }
+
+    @Override
+    @PreDestroy
+    public void close() {
+        if (listenerRegistration != null) {
+            listenerRegistration.close();
+            listenerRegistration = null;
+        }
+        executor.close();
+    }
+
+    /**
+     * Method add to be implemented by the specific listener.
+     *
+     * @param newDataObject
+     *            newly added object
+     */
+    public abstract void add(@Nonnull T newDataObject);
+
+    /**
+     * Method remove to be implemented by the specific listener.
+     *
+     * @param removedDataObject
+     *            existing object being removed
+     */
+    public abstract void remove(@Nonnull T removedDataObject);
+
+    /**
+     * Method update to be implemented by the specific listener.
+     *
+     * @param originalDataObject
+     *            existing object being modified
+     * @param updatedDataObject
+     *            modified data object
+     */
+    public abstract void update(@Nonnull T originalDataObject, @Nonnull T updatedDataObject);
+}
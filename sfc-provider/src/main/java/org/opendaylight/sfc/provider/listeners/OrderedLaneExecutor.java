@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2017 Ericsson S.A. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.listeners;
+
+import com.google.common.base.Preconditions;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanRegistrationException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.NotCompliantMBeanException;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes tasks on a fixed number of lanes, each one served by its own
+ * thread. Tasks are assigned to a lane by hashing their key, so that the
+ * tasks of a same key are executed in submission order while the tasks of
+ * unrelated keys are executed in parallel. Lanes are bounded: submitting to
+ * a full lane blocks the submitter until there is room in it.
+ */
+public class OrderedLaneExecutor implements SfcListenerDispatchMXBean, AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OrderedLaneExecutor.class);
+
+    private static final String OBJECT_NAME_PREFIX = "org.opendaylight.sfc:type=ListenerDispatch,name=";
+
+    private static final Runnable STOP = () -> { };
+
+    private final String name;
+    private final List<BlockingQueue<Runnable>> lanes;
+    private final Object idleLock = new Object();
+    private final AtomicLong submittedTasks = new AtomicLong();
+    private final AtomicLong completedTasks = new AtomicLong();
+    private final AtomicLong failedTasks = new AtomicLong();
+    private final AtomicLong lastLagNanos = new AtomicLong();
+    private final AtomicLong maxLagNanos = new AtomicLong();
+    private volatile boolean closed;
+    private ObjectName objectName;
+
+    /**
+     * Create the lanes and start their threads.
+     *
+     * @param name
+     *            the name of the executor, used for its threads and JMX bean
+     * @param laneCount
+     *            the number of lanes
+     * @param laneCapacity
+     *            the maximum number of tasks waiting in each lane
+     */
+    public OrderedLaneExecutor(String name, int laneCount, int laneCapacity) {
+        Preconditions.checkArgument(laneCount > 0, "laneCount must be positive");
+        Preconditions.checkArgument(laneCapacity > 0, "laneCapacity must be positive");
+        this.name = name;
+        this.lanes = new ArrayList<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            BlockingQueue<Runnable> lane = new ArrayBlockingQueue<>(laneCapacity);
+            Thread laneThread = new Thread(() -> runLane(lane), name + "-lane-" + i);
+            laneThread.setDaemon(true);
+            lanes.add(lane);
+            laneThread.start();
+        }
+    }
+
+    /**
+     * Submit a task to the lane of its key, blocking while that lane is full.
+     *
+     * @param key
+     *            the key selecting the lane, tasks with equal keys are
+     *            executed in submission order
+     * @param task
+     *            the task to execute
+     */
+    public void execute(Object key, Runnable task) {
+        if (closed) {
+            throw new RejectedExecutionException(name + " is closed");
+        }
+        BlockingQueue<Runnable> lane = lanes.get(Math.floorMod(key.hashCode(), lanes.size()));
+        long submitTime = System.nanoTime();
+        submittedTasks.incrementAndGet();
+        Runnable timedTask = () -> {
+            long lag = System.nanoTime() - submitTime;
+            lastLagNanos.set(lag);
+            maxLagNanos.accumulateAndGet(lag, Math::max);
+            task.run();
+        };
+        try {
+            if (!lane.offer(timedTask)) {
+                LOG.debug("{} lane full, waiting for room to submit the task", name);
+                lane.put(timedTask);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            taskDone(false);
+            throw new RejectedExecutionException(name + " interrupted while submitting a task", e);
+        }
+    }
+
+    /**
+     * Wait until all the tasks submitted so far have been executed.
+     *
+     * @param timeout
+     *            the maximum time to wait
+     * @param unit
+     *            the unit of the timeout
+     * @return true if all the tasks were executed, false on timeout
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (idleLock) {
+            while (getQueueDepth() > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(idleLock, remaining);
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void runLane(BlockingQueue<Runnable> lane) {
+        while (true) {
+            Runnable task;
+            try {
+                task = lane.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (task == STOP) {
+                return;
+            }
+            boolean succeeded = false;
+            try {
+                task.run();
+                succeeded = true;
+            } catch (RuntimeException e) {
+                LOG.error("{} failed to execute a task", name, e);
+            } finally {
+                taskDone(succeeded);
+            }
+        }
+    }
+
+    private void taskDone(boolean succeeded) {
+        if (!succeeded) {
+            failedTasks.incrementAndGet();
+        }
+        synchronized (idleLock) {
+            completedTasks.incrementAndGet();
+            idleLock.notifyAll();
+        }
+    }
+
+    /**
+     * Register this executor statistics in the platform MBean server.
+     */
+    public void registerMBean() {
+        MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+        try {
+            objectName = new ObjectName(OBJECT_NAME_PREFIX + ObjectName.quote(name));
+            mbeanServer.registerMBean(this, objectName);
+        } catch (MalformedObjectNameException | InstanceAlreadyExistsException | MBeanRegistrationException
+                | NotCompliantMBeanException e) {
+            LOG.warn("Failed to register listener dispatch MBean for {}", name, e);
+            objectName = null;
+        }
+    }
+
+    /**
+     * Stop accepting tasks and stop the lane threads once the tasks already
+     * submitted have been executed.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (BlockingQueue<Runnable> lane : lanes) {
+            try {
+                lane.put(STOP);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (InstanceNotFoundException | MBeanRegistrationException e) {
+                LOG.warn("Failed to unregister listener dispatch MBean for {}", name, e);
+            }
+            objectName = null;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getLaneCount() {
+        return lanes.size();
+    }
+
+    @Override
+    public long getQueueDepth() {
+        return submittedTasks.get() - completedTasks.get();
+    }
+
+    @Override
+    public long getMaxLaneDepth() {
+        long max = 0;
+        for (BlockingQueue<Runnable> lane : lanes) {
+            max = Math.max(max, lane.size());
+        }
+        return max;
+    }
+
+    @Override
+    public long getSubmittedTasks() {
+        return submittedTasks.get();
+    }
+
+    @Override
+    public long getCompletedTasks() {
+        return completedTasks.get();
+    }
+
+    @Override
+    public long getFailedTasks() {
+        return failedTasks.get();
+    }
+
+    @Override
+    public long getLastLagMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(lastLagNanos.get());
+    }
+
+    @Override
+    public long getMaxLagMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(maxLagNanos.get());
+    }
+
+    @Override
+    public void resetMaxLag() {
+        maxLagNanos.set(0);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.listeners;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.genius.datastoreutils.listeners.AbstractClusteredSyncDataTreeChangeListener;
+import org.opendaylight.sfc.provider.api.SfcInstanceIdentifiers;
+import org.opendaylight.sfc.provider.api.SfcRspCache;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+
+/**
+ * This class listens to changes (addition, update, removal) in the
+ * operational Rendered Service Paths to keep the {@link SfcRspCache} up to
+ * date. It is a clustered listener so that the cache is kept in every
+ * cluster member.
+ */
+@Singleton
+public class RenderedServicePathCacheListener
+        extends AbstractClusteredSyncDataTreeChangeListener<RenderedServicePath> {
+
+    private final SfcRspCache rspCache;
+
+    @Inject
+    public RenderedServicePathCacheListener(DataBroker dataBroker) {
+        this(dataBroker, SfcRspCache.getInstance());
+    }
+
+    public RenderedServicePathCacheListener(DataBroker dataBroker, SfcRspCache rspCache) {
+        super(dataBroker, LogicalDatastoreType.OPERATIONAL, SfcInstanceIdentifiers.RSP_ENTRY_IID);
+        this.rspCache = rspCache;
+    }
+
+    @Override
+    public void add(@Nonnull RenderedServicePath renderedServicePath) {
+        rspCache.changed(null, renderedServicePath);
+    }
+
+    @Override
+    public void remove(@Nonnull RenderedServicePath renderedServicePath) {
+        rspCache.changed(renderedServicePath, null);
+    }
+
+    @Override
+    public void update(@Nonnull RenderedServicePath originalRenderedServicePath,
+                       @Nonnull RenderedServicePath updatedRenderedServicePath) {
+        rspCache.changed(originalRenderedServicePath, updatedRenderedServicePath);
+    }
+}
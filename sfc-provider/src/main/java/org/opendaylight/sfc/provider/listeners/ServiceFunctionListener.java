@@ -8,23 +8,26 @@
 package org.opendaylight.sfc.provider.listeners;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
-import org.opendaylight.genius.datastoreutils.listeners.AbstractSyncDataTreeChangeListener;
+import org.opendaylight.sfc.provider.api.SfcConcurrencyAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathAPI;
-import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceFunctionAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceTypeAPI;
+import org.opendaylight.sfc.provider.api.SfcRspImpactAnalyzer;
+import org.opendaylight.sfc.provider.api.SfcRspImpactAnalyzer.RspImpact;
 import org.opendaylight.sfc.provider.validators.util.SfcDatastoreCache;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.ServiceFunctions;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.function.base.SfDataPlaneLocator;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.state.service.function.state.SfServicePath;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
@@ -38,7 +41,7 @@ import org.slf4j.LoggerFactory;
  * @author David Suárez (david.suarez.fuentes@gmail.com)
  */
 @Singleton
-public class ServiceFunctionListener extends AbstractSyncDataTreeChangeListener<ServiceFunction> {
+public class ServiceFunctionListener extends AbstractKeyedAsyncDataTreeChangeListener<ServiceFunction> {
 
     private static final Logger LOG = LoggerFactory.getLogger(ServiceFunctionListener.class);
 
@@ -76,69 +79,46 @@ public class ServiceFunctionListener extends AbstractSyncDataTreeChangeListener<
                        @Nonnull ServiceFunction updatedServiceFunction) {
         LOG.debug("update:Updating Service Function: {}", originalServiceFunction.getName());
 
-        if (!compareSfs(originalServiceFunction, updatedServiceFunction)) {
-            // We only update SF type entry if type has changed
-            if (!updatedServiceFunction.getType().equals(originalServiceFunction.getType())) {
-                // We remove the original SF from SF type list
-                SfcDatastoreCache.getSfToSfTypeCache().invalidate(originalServiceFunction.getName());
-                SfcProviderServiceTypeAPI.deleteServiceFunctionTypeEntry(originalServiceFunction);
-                SfcDatastoreCache.getSfToSfTypeCache()
-                        .put(updatedServiceFunction.getName(), updatedServiceFunction.getType().getValue());
-                // We create a independent entry
-                SfcProviderServiceTypeAPI.createServiceFunctionTypeEntry(updatedServiceFunction);
-            }
-
-            deleteSfRsps(originalServiceFunction);
+        // We only update SF type entry if type has changed
+        if (!updatedServiceFunction.getType().equals(originalServiceFunction.getType())) {
+            // We remove the original SF from SF type list
+            SfcDatastoreCache.getSfToSfTypeCache().invalidate(originalServiceFunction.getName());
+            SfcProviderServiceTypeAPI.deleteServiceFunctionTypeEntry(originalServiceFunction);
+            SfcDatastoreCache.getSfToSfTypeCache()
+                    .put(updatedServiceFunction.getName(), updatedServiceFunction.getType().getValue());
+            // We create a independent entry
+            SfcProviderServiceTypeAPI.createServiceFunctionTypeEntry(updatedServiceFunction);
         }
-    }
 
-    private boolean compareSfs(@Nonnull ServiceFunction originalServiceFunction,
-                               @Nonnull ServiceFunction serviceFunction) {
-        // Compare SFF IP Mgmt Addresses
-        if (serviceFunction.getIpMgmtAddress() != null && originalServiceFunction.getIpMgmtAddress() != null) {
-            if (!serviceFunction.getIpMgmtAddress().toString()
-                    .equals(originalServiceFunction.getIpMgmtAddress().toString())) {
-                LOG.info("compareSFs: IP mgmt addresses changed orig [{}] new [{}]",
-                         originalServiceFunction.getIpMgmtAddress().toString(),
-                         serviceFunction.getIpMgmtAddress().toString());
-                return false;
+        // The RSPs are locked from the moment they are read until they are
+        // torn down or re-rendered, so that concurrent SF and SFF changes
+        // involving the same RSP are handled one after the other
+        List<RspName> rspNames = SfcProviderServiceFunctionAPI.getRspsBySfName(originalServiceFunction.getName());
+        List<Lock> rspLocks = SfcConcurrencyAPI.getRspLocks(rspNames);
+        try {
+            List<RenderedServicePath> rsps = rspNames.stream()
+                    .map(SfcProviderRenderedPathAPI::readRenderedServicePath).filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            List<RspImpact> impacts = SfcRspImpactAnalyzer.analyzeSfUpdate(originalServiceFunction,
+                    updatedServiceFunction, rsps);
+
+            // Only the RSPs that can no longer be rendered are deleted, the
+            // rest of the affected RSPs are rendered again keeping their path
+            // ids
+            List<RspName> deletedRspNames = SfcRspImpactAnalyzer.getRspsToTearDown(impacts);
+            if (!deletedRspNames.isEmpty()) {
+                LOG.info("update: Deleting RSPs {} on SF [{}]", deletedRspNames, originalServiceFunction.getName());
+                SfcProviderRenderedPathAPI.deleteRenderedServicePathsAndStates(deletedRspNames);
             }
-        } else if (originalServiceFunction.getIpMgmtAddress() != null && serviceFunction.getIpMgmtAddress() == null) {
-            LOG.info("compareSFFs: the IP mgmt address has been removed");
-            return false;
-        }
-
-        // Compare SF Types
-        if (!serviceFunction.getType().getValue().equals(originalServiceFunction.getType().getValue())) {
-            LOG.info("compareSFs: SF type changed orig [{}] new [{}]", originalServiceFunction.getType().getValue(),
-                     serviceFunction.getType().getValue());
-            return false;
-        }
-
-        // Compare SF DPLs
-        List<SfDataPlaneLocator> origSfDplList = originalServiceFunction.getSfDataPlaneLocator();
-        List<SfDataPlaneLocator> sfDplList = serviceFunction.getSfDataPlaneLocator();
-
-        if (origSfDplList.size() > sfDplList.size()) {
-            LOG.info("compareSfDpls An SF DPL has been removed");
-            // TODO should we check if the removed SF DPL is used??
-            return false;
-        }
-
-        Collection<SfDataPlaneLocator> differentSfDpls = new ArrayList<>(sfDplList);
-        // This will remove everything in common, thus leaving only the
-        // different values
-        differentSfDpls.removeAll(origSfDplList);
-
-        // If the different SfDpl entries are all contained in the sfDplList,
-        // then this was a simple case of adding a new SfDpl entry, else one
-        // of the entries was modified, and the RSPs should be deleted
-        if (!sfDplList.containsAll(differentSfDpls)) {
-            LOG.info("compareSfDpls An SF DPL has been modified");
-            return false;
+            List<RspName> rerenderedRspNames = SfcRspImpactAnalyzer.getRspsToRerender(impacts);
+            if (!rerenderedRspNames.isEmpty()) {
+                LOG.info("update: Re-rendering RSPs {} on SF [{}]", rerenderedRspNames,
+                         originalServiceFunction.getName());
+                SfcProviderRenderedPathAPI.rerenderRenderedServicePaths(rerenderedRspNames);
+            }
+        } finally {
+            SfcConcurrencyAPI.releaseRspLocks(rspLocks);
         }
-
-        return true;
     }
 
     /**
@@ -146,24 +126,23 @@ public class ServiceFunctionListener extends AbstractSyncDataTreeChangeListener<
      */
     private void deleteSfRsps(ServiceFunction serviceFunction) {
         /*
-         * Before removing RSPs used by this Service Function, we need to remove
-         * all references in the SFF/SF operational trees
+         * The RSPs used by this Service Function are deleted in bulk along
+         * with their references in the SFF/SF/SFP operational trees, then the
+         * SF operational state itself
          */
         SfName sfName = serviceFunction.getName();
         List<SfServicePath> sfServicePathList = SfcProviderServiceFunctionAPI.readServiceFunctionState(sfName);
         List<RspName> rspList = new ArrayList<>();
         if (sfServicePathList != null && !sfServicePathList.isEmpty()) {
+            for (SfServicePath sfServicePath : sfServicePathList) {
+                rspList.add(new RspName(sfServicePath.getName().getValue()));
+            }
+            LOG.info("Deleting RSPs {} on SF [{}]", rspList, sfName);
+            SfcProviderRenderedPathAPI.deleteRenderedServicePathsAndStates(rspList);
             if (!SfcProviderServiceFunctionAPI.deleteServiceFunctionState(sfName)) {
                 LOG.error("{}: Failed to delete SF {} operational state", Thread.currentThread().getStackTrace()[1],
                           sfName);
             }
-            for (SfServicePath sfServicePath : sfServicePathList) {
-                RspName rspName = new RspName(sfServicePath.getName().getValue());
-                SfcProviderServiceForwarderAPI.deletePathFromServiceForwarderState(rspName);
-                LOG.info("Deleting RSP [{}] on SF [{}]", rspName, sfName);
-                rspList.add(rspName);
-            }
-            SfcProviderRenderedPathAPI.deleteRenderedServicePaths(rspList);
         }
 
         /*
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.listeners;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.genius.datastoreutils.listeners.AbstractClusteredSyncDataTreeChangeListener;
+import org.opendaylight.sfc.provider.api.SfcInstanceIdentifiers;
+import org.opendaylight.sfc.provider.api.SfcServiceFunctionTypeRegistry;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.ServiceFunctionType;
+
+/**
+ * This class listens to changes (addition, update, removal) in the
+ * configuration Service Function Types, which are maintained as service
+ * functions are added and removed, to keep the
+ * {@link SfcServiceFunctionTypeRegistry} up to date. It is a clustered
+ * listener so that the registry is kept in every cluster member.
+ */
+@Singleton
+public class ServiceFunctionTypeListener extends AbstractClusteredSyncDataTreeChangeListener<ServiceFunctionType> {
+
+    private final SfcServiceFunctionTypeRegistry serviceFunctionTypeRegistry;
+
+    @Inject
+    public ServiceFunctionTypeListener(DataBroker dataBroker) {
+        this(dataBroker, SfcServiceFunctionTypeRegistry.getInstance());
+    }
+
+    public ServiceFunctionTypeListener(DataBroker dataBroker,
+                                       SfcServiceFunctionTypeRegistry serviceFunctionTypeRegistry) {
+        super(dataBroker, LogicalDatastoreType.CONFIGURATION, SfcInstanceIdentifiers.SFT_ENTRY_IID);
+        this.serviceFunctionTypeRegistry = serviceFunctionTypeRegistry;
+    }
+
+    @Override
+    public void add(@Nonnull ServiceFunctionType serviceFunctionType) {
+        serviceFunctionTypeRegistry.put(serviceFunctionType);
+    }
+
+    @Override
+    public void remove(@Nonnull ServiceFunctionType serviceFunctionType) {
+        serviceFunctionTypeRegistry.remove(serviceFunctionType.getType());
+    }
+
+    @Override
+    public void update(@Nonnull ServiceFunctionType originalServiceFunctionType,
+                       @Nonnull ServiceFunctionType updatedServiceFunctionType) {
+        serviceFunctionTypeRegistry.put(updatedServiceFunctionType);
+    }
+}
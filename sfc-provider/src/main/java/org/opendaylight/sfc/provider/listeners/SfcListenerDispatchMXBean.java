@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2017 Ericsson S.A. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.listeners;
+
+/**
+ * JMX interface to the dispatch statistics of a data tree change listener
+ * handling its modifications on an {@link OrderedLaneExecutor}.
+ */
+public interface SfcListenerDispatchMXBean {
+
+    String getName();
+
+    int getLaneCount();
+
+    /**
+     * Get the number of modifications submitted and not yet handled.
+     *
+     * @return the number of pending modifications
+     */
+    long getQueueDepth();
+
+    /**
+     * Get the number of modifications waiting in the most loaded lane.
+     *
+     * @return the number of modifications waiting
+     */
+    long getMaxLaneDepth();
+
+    long getSubmittedTasks();
+
+    long getCompletedTasks();
+
+    long getFailedTasks();
+
+    /**
+     * Get the time the last handled modification waited in its lane.
+     *
+     * @return the lag, in microseconds
+     */
+    long getLastLagMicros();
+
+    /**
+     * Get the longest time a modification waited in its lane since the last
+     * reset.
+     *
+     * @return the lag, in microseconds
+     */
+    long getMaxLagMicros();
+
+    void resetMaxLag();
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2017 Ericsson S.A. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.perf;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock free latency histogram with a fixed memory footprint.
+ *
+ * <p>
+ * Latencies, in nanoseconds, are counted in log-linear buckets: each power of
+ * two range is split in {@value #SUB_BUCKET_COUNT} buckets of the same width,
+ * so that any recorded value is reported with a relative error below
+ * 1/{@value #SUB_BUCKET_COUNT}. Values above {@link #MAX_TRACKABLE_VALUE}
+ * are counted in the last bucket.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_VALUE_BITS = 40;
+
+    // Roughly 36 minutes
+    public static final long MAX_TRACKABLE_VALUE = (1L << MAX_VALUE_BITS + 1) - 1;
+
+    private static final int BUCKET_COUNT = (MAX_VALUE_BITS - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Record a latency.
+     *
+     * @param nanos
+     *            the latency in nanoseconds, negative values are ignored
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+        long value = Math.min(nanos, MAX_TRACKABLE_VALUE);
+        buckets.incrementAndGet(bucketIndex(value));
+        maxValue.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Clear all the recorded latencies.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        maxValue.set(0);
+    }
+
+    /**
+     * Take a consistent copy of the recorded latencies to query them.
+     *
+     * @return the snapshot
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return new Snapshot(counts, maxValue.get());
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        int group = index / SUB_BUCKET_COUNT;
+        long subBucket = index % SUB_BUCKET_COUNT;
+        if (group == 0) {
+            return subBucket;
+        }
+        return ((SUB_BUCKET_COUNT + subBucket + 1) << group - 1) - 1;
+    }
+
+    /**
+     * An immutable copy of the latencies recorded on a histogram.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long totalCount;
+        private final long max;
+
+        private Snapshot(long[] counts, long max) {
+            this.counts = counts;
+            long total = 0;
+            for (long count : counts) {
+                total += count;
+            }
+            this.totalCount = total;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return totalCount;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Get the latency below which the given fraction of the recorded
+         * latencies fall.
+         *
+         * @param fraction
+         *            the fraction, between 0 and 1, i.e. 0.99 for the 99th
+         *            percentile
+         * @return the latency in nanoseconds, or 0 if nothing was recorded
+         */
+        public long getValueAtPercentile(double fraction) {
+            if (totalCount == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(fraction * totalCount));
+            long accumulated = 0;
+            for (int i = 0; i < counts.length; i++) {
+                accumulated += counts[i];
+                if (accumulated >= rank) {
+                    return Math.min(bucketUpperBound(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
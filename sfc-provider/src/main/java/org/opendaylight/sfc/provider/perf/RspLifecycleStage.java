@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2017 Ericsson S.A. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.perf;
+
+/**
+ * The stages a Rendered Service Path goes through from the moment its
+ * creation starts until its flows are committed to the datastore. Each stage
+ * measures the time elapsed since the previous one.
+ */
+public enum RspLifecycleStage {
+    SCHEDULING("Service Function scheduling"),
+    PATH_ID_ALLOCATION("Path id allocation"),
+    RSP_COMMIT("RSP datastore commit"),
+    RENDERER_DISPATCH("Dispatch to the renderer"),
+    FLOW_GENERATION("Flow generation"),
+    FLOW_FLUSH("Flow flush"),
+    FLOW_COMMIT("Flow datastore commit"),
+    TOTAL("Total");
+
+    private final String description;
+
+    RspLifecycleStage(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
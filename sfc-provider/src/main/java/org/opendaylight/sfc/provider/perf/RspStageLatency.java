@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2017 Ericsson S.A. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.perf;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Latency statistics of a {@link RspLifecycleStage}, in microseconds.
+ */
+public class RspStageLatency {
+    private final String stage;
+    private final String description;
+    private final long count;
+    private final long p50;
+    private final long p99;
+    private final long p999;
+    private final long max;
+
+    @ConstructorProperties({"stage", "description", "count", "p50", "p99", "p999", "max"})
+    public RspStageLatency(String stage, String description, long count, long p50, long p99, long p999, long max) {
+        this.stage = stage;
+        this.description = description;
+        this.count = count;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getP999() {
+        return p999;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "RspStageLatency [stage=" + stage + ", count=" + count + ", p50=" + p50 + ", p99=" + p99 + ", p999="
+                + p999 + ", max=" + max + "]";
+    }
+}
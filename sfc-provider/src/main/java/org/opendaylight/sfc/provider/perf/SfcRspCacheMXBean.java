@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.perf;
+
+/**
+ * JMX interface to the statistics of the shared
+ * {@link org.opendaylight.sfc.provider.api.SfcRspCache}.
+ */
+public interface SfcRspCacheMXBean {
+
+    int getSize();
+
+    int getMaximumSize();
+
+    long getHits();
+
+    long getMisses();
+
+    /**
+     * Get the ratio of the lookups answered by the cache.
+     *
+     * @return the hit ratio, between 0 and 1
+     */
+    double getHitRatio();
+
+    /**
+     * Get the number of RSPs that were not cached because the cache was
+     * full.
+     *
+     * @return the number of RSPs not cached
+     */
+    long getRejected();
+
+    /**
+     * Clear the hit, miss and rejected counters.
+     */
+    void reset();
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.perf;
+
+import java.lang.management.ManagementFactory;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanRegistrationException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.NotCompliantMBeanException;
+import javax.management.ObjectName;
+import org.opendaylight.sfc.provider.api.SfcRspCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registers the RSP cache statistics in the platform MBean server, under the
+ * {@value #OBJECT_NAME} name.
+ */
+public class SfcRspCacheMXBeanImpl implements SfcRspCacheMXBean, AutoCloseable {
+
+    public static final String OBJECT_NAME = "org.opendaylight.sfc:type=RspCache";
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcRspCacheMXBeanImpl.class);
+
+    private final MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+    private final SfcRspCache rspCache = SfcRspCache.getInstance();
+
+    private ObjectName objectName;
+
+    public void register() {
+        try {
+            objectName = new ObjectName(OBJECT_NAME);
+            mbeanServer.registerMBean(this, objectName);
+            LOG.info("Registered RSP cache MBean {}", OBJECT_NAME);
+        } catch (MalformedObjectNameException | InstanceAlreadyExistsException | MBeanRegistrationException
+                | NotCompliantMBeanException e) {
+            LOG.error("Failed to register RSP cache MBean {}", OBJECT_NAME, e);
+            objectName = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            mbeanServer.unregisterMBean(objectName);
+        } catch (InstanceNotFoundException | MBeanRegistrationException e) {
+            LOG.warn("Failed to unregister RSP cache MBean {}", OBJECT_NAME, e);
+        }
+        objectName = null;
+    }
+
+    @Override
+    public int getSize() {
+        return rspCache.size();
+    }
+
+    @Override
+    public int getMaximumSize() {
+        return rspCache.getMaximumSize();
+    }
+
+    @Override
+    public long getHits() {
+        return rspCache.getHits();
+    }
+
+    @Override
+    public long getMisses() {
+        return rspCache.getMisses();
+    }
+
+    @Override
+    public double getHitRatio() {
+        long hits = rspCache.getHits();
+        long lookups = hits + rspCache.getMisses();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public long getRejected() {
+        return rspCache.getRejected();
+    }
+
+    @Override
+    public void reset() {
+        rspCache.resetStatistics();
+    }
+}
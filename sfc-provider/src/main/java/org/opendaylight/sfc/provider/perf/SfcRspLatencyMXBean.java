@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2017 Ericsson S.A. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.perf;
+
+import java.util.List;
+
+/**
+ * JMX interface to the RSP life cycle latency statistics gathered by
+ * {@link SfcRspLatencyTracer}.
+ */
+public interface SfcRspLatencyMXBean {
+
+    /**
+     * Get the latency statistics of all the stages, in microseconds.
+     *
+     * @return the list of statistics, in stage order
+     */
+    List<RspStageLatency> getStageLatencies();
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    /**
+     * Clear all the recorded latencies.
+     */
+    void reset();
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2017 Ericsson S.A. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.perf;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanRegistrationException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.NotCompliantMBeanException;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registers the RSP life cycle latency statistics in the platform MBean
+ * server, under the {@value #OBJECT_NAME} name.
+ */
+public class SfcRspLatencyMXBeanImpl implements SfcRspLatencyMXBean, AutoCloseable {
+
+    public static final String OBJECT_NAME = "org.opendaylight.sfc:type=RspLatency";
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcRspLatencyMXBeanImpl.class);
+
+    private final MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    private ObjectName objectName;
+
+    public void register() {
+        try {
+            objectName = new ObjectName(OBJECT_NAME);
+            mbeanServer.registerMBean(this, objectName);
+            LOG.info("Registered RSP latency MBean {}", OBJECT_NAME);
+        } catch (MalformedObjectNameException | InstanceAlreadyExistsException | MBeanRegistrationException
+                | NotCompliantMBeanException e) {
+            LOG.error("Failed to register RSP latency MBean {}", OBJECT_NAME, e);
+            objectName = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            mbeanServer.unregisterMBean(objectName);
+        } catch (InstanceNotFoundException | MBeanRegistrationException e) {
+            LOG.warn("Failed to unregister RSP latency MBean {}", OBJECT_NAME, e);
+        }
+        objectName = null;
+    }
+
+    @Override
+    public List<RspStageLatency> getStageLatencies() {
+        return SfcRspLatencyTracer.getStageLatencies();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return SfcRspLatencyTracer.isEnabled();
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        SfcRspLatencyTracer.setEnabled(enabled);
+    }
+
+    @Override
+    public void reset() {
+        SfcRspLatencyTracer.reset();
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2017 Ericsson S.A. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.perf;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class traces the time a Rendered Service Path spends on each of the
+ * stages of its life cycle, from the scheduling of its Service Functions to
+ * the commit of its flows, and aggregates them in a latency histogram per
+ * {@link RspLifecycleStage}.
+ *
+ * <p>
+ * Traces are keyed by the RSP path id, so that the stages happening in
+ * different components, i.e. the provider and the renderers, can be related.
+ * A trace is started once the path id is allocated, and each stage marked on
+ * it records the time elapsed since the previous stage. The trace is finished
+ * when the {@link RspLifecycleStage#FLOW_COMMIT} stage is marked, recording
+ * the {@link RspLifecycleStage#TOTAL} time. Marking a stage on a path id with
+ * no ongoing trace does nothing. When there are too many ongoing traces, the
+ * stale or oldest ones are discarded to trace new paths.
+ */
+public final class SfcRspLatencyTracer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcRspLatencyTracer.class);
+
+    // Upper bound of ongoing traces, to bound the memory used by traces that
+    // are never finished, i.e. paths whose rendering failed
+    static final int MAX_ONGOING_TRACES = 10000;
+
+    private static final Map<RspLifecycleStage, LatencyHistogram> HISTOGRAMS = new EnumMap<>(RspLifecycleStage.class);
+
+    private static final Map<Long, Trace> ONGOING_TRACES = new ConcurrentHashMap<>();
+
+    private static volatile boolean enabled = true;
+
+    static {
+        for (RspLifecycleStage stage : RspLifecycleStage.values()) {
+            HISTOGRAMS.put(stage, new LatencyHistogram());
+        }
+    }
+
+    private SfcRspLatencyTracer() {
+    }
+
+    private static final class Trace {
+        private final long startTime;
+        private long lastMarkTime;
+
+        Trace(long startTime, long lastMarkTime) {
+            this.startTime = startTime;
+            this.lastMarkTime = lastMarkTime;
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        SfcRspLatencyTracer.enabled = enabled;
+        if (!enabled) {
+            ONGOING_TRACES.clear();
+        }
+    }
+
+    /**
+     * Get the current time to be used as the start time of a stage.
+     *
+     * @return the current time, in nanoseconds
+     */
+    public static long now() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Record a stage that happened before the path id was known.
+     *
+     * @param stage
+     *            the stage
+     * @param stageStartTime
+     *            the start time of the stage, as returned by {@link #now()}
+     * @return the end time of the stage, to be used as the start time of the
+     *         next one
+     */
+    public static long recordStage(RspLifecycleStage stage, long stageStartTime) {
+        long endTime = now();
+        if (enabled) {
+            HISTOGRAMS.get(stage).record(endTime - stageStartTime);
+        }
+        return endTime;
+    }
+
+    /**
+     * Start the trace of a path.
+     *
+     * @param pathId
+     *            the path id of the RSP
+     * @param traceStartTime
+     *            the time the creation of the RSP started, as returned by
+     *            {@link #now()}
+     */
+    public static void startTrace(long pathId, long traceStartTime) {
+        if (!enabled) {
+            return;
+        }
+        long startTime = now();
+        if (ONGOING_TRACES.size() >= MAX_ONGOING_TRACES) {
+            evictTraces(startTime);
+        }
+        ONGOING_TRACES.put(pathId, new Trace(traceStartTime, startTime));
+    }
+
+    /**
+     * Make room for a new trace: drop the traces older than the histogram
+     * range, that would not be recorded anyway, or the oldest trace if none
+     * is that old.
+     *
+     * @param time
+     *            the current time, as returned by {@link #now()}
+     */
+    private static void evictTraces(long time) {
+        if (ONGOING_TRACES.values()
+                .removeIf(trace -> time - trace.startTime > LatencyHistogram.MAX_TRACKABLE_VALUE)) {
+            return;
+        }
+        ONGOING_TRACES.entrySet().stream()
+                .min(Comparator.comparingLong(entry -> entry.getValue().startTime - time))
+                .ifPresent(oldest -> {
+                    LOG.debug("startTrace: too many ongoing traces, discarding the trace of path {}",
+                            oldest.getKey());
+                    ONGOING_TRACES.remove(oldest.getKey(), oldest.getValue());
+                });
+    }
+
+    /**
+     * Mark a stage as completed on the trace of a path.
+     *
+     * @param pathId
+     *            the path id of the RSP
+     * @param stage
+     *            the completed stage
+     */
+    public static void markStage(long pathId, RspLifecycleStage stage) {
+        Trace trace = ONGOING_TRACES.get(pathId);
+        if (trace == null) {
+            return;
+        }
+        long markTime = now();
+        synchronized (trace) {
+            HISTOGRAMS.get(stage).record(markTime - trace.lastMarkTime);
+            trace.lastMarkTime = markTime;
+        }
+        if (stage == RspLifecycleStage.FLOW_COMMIT && ONGOING_TRACES.remove(pathId, trace)) {
+            HISTOGRAMS.get(RspLifecycleStage.TOTAL).record(markTime - trace.startTime);
+        }
+    }
+
+    /**
+     * Discard the trace of a path, i.e. because the path was deleted.
+     *
+     * @param pathId
+     *            the path id of the RSP
+     */
+    public static void discardTrace(long pathId) {
+        ONGOING_TRACES.remove(pathId);
+    }
+
+    /**
+     * Get the latency statistics of all the stages.
+     *
+     * @return the list of statistics, in stage order
+     */
+    public static List<RspStageLatency> getStageLatencies() {
+        List<RspStageLatency> latencies = new ArrayList<>();
+        HISTOGRAMS.forEach((stage, histogram) -> {
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            latencies.add(new RspStageLatency(stage.name(), stage.getDescription(), snapshot.getCount(),
+                    toMicros(snapshot.getValueAtPercentile(0.5)), toMicros(snapshot.getValueAtPercentile(0.99)),
+                    toMicros(snapshot.getValueAtPercentile(0.999)), toMicros(snapshot.getMax())));
+        });
+        return latencies;
+    }
+
+    /**
+     * Clear all the recorded latencies and ongoing traces.
+     */
+    public static void reset() {
+        ONGOING_TRACES.clear();
+        HISTOGRAMS.values().forEach(LatencyHistogram::reset);
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
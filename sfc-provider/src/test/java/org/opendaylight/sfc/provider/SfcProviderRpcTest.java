@@ -15,6 +15,8 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -42,15 +44,24 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev1
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.CreateRenderedPathInput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.CreateRenderedPathInputBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.CreateRenderedPathOutput;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.CreateRenderedPathsInput;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.CreateRenderedPathsInputBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.CreateRenderedPathsOutput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.DeleteRenderedPathInput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.DeleteRenderedPathInputBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.DeleteRenderedPathOutput;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.DeleteRenderedPathsInput;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.DeleteRenderedPathsInputBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.DeleteRenderedPathsOutput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.ReadRenderedServicePathFirstHopInput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.ReadRenderedServicePathFirstHopInputBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.ReadRenderedServicePathFirstHopOutput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.ReadRspFirstHopBySftListInput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.ReadRspFirstHopBySftListInputBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.ReadRspFirstHopBySftListOutput;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.create.rendered.paths.input.RenderedPathBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.create.rendered.paths.output.CreatedRenderedPath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.delete.rendered.paths.output.DeletedRenderedPath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHop;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.ServiceFunctionClassifiers;
@@ -184,6 +195,7 @@ public class SfcProviderRpcTest extends AbstractSfcRendererServicePathAPITest {
 
     @After
     public void after() throws ExecutionException, InterruptedException {
+        sfcProviderRpc.close();
         close();
     }
 
@@ -199,26 +211,30 @@ public class SfcProviderRpcTest extends AbstractSfcRendererServicePathAPITest {
                 .setSymmetric(true);
         CreateRenderedPathInput createRenderedPathInput = createRenderedPathInputBuilder.build();
 
-        SfcProviderRenderedPathAPI.createRenderedServicePathAndState(serviceFunctionPath, createRenderedPathInput);
+        SfcProviderRenderedPathAPI.createRenderedServicePathsAndState(serviceFunctionPath, createRenderedPathInput,
+                null);
 
         // check if SFF oper contains RSP
         List<SffServicePath> sffServicePathList = SfcProviderServiceForwarderAPI.readSffState(SFF_NAMES.get(0));
         assertNotNull("Must be not null", sffServicePathList);
         // XXX TODO ... same problem... why equivalence between these two
         // things? Its hidden in RPC.
-        assertEquals(sffServicePathList.get(0).getName().getValue(), RSP_NAME.getValue());
+        assertTrue(sffServicePathList.stream()
+                .anyMatch(sffServicePath -> RSP_NAME.getValue().equals(sffServicePath.getName().getValue())));
 
         // check if SF oper contains RSP
         // XXX TODO why refer to string directly when it appears in variables
         // initialised at top ?
         List<SfServicePath> sfServicePathList = SfcProviderServiceFunctionAPI
                 .readServiceFunctionState(new SfName("unittest-fw-1"));
-        assertEquals(sfServicePathList.get(0).getName().getValue(), RSP_NAME.getValue());
+        assertTrue(sfServicePathList.stream()
+                .anyMatch(sfServicePath -> RSP_NAME.getValue().equals(sfServicePath.getName().getValue())));
 
         // check if SFP oper contains RSP
         List<SfpRenderedServicePath> sfpRenderedServicePathList = SfcProviderServicePathAPI
                 .readServicePathState(SFP_NAME);
-        assertEquals(sfpRenderedServicePathList.get(0).getName().getValue(), RSP_NAME.getValue());
+        assertTrue(sfpRenderedServicePathList.stream()
+                .anyMatch(sfpRenderedServicePath -> RSP_NAME.equals(sfpRenderedServicePath.getName())));
 
         ServiceFunctionClassifierBuilder serviceFunctionClassifierBuilder = new ServiceFunctionClassifierBuilder();
         serviceFunctionClassifierBuilder.setName(SFP_NAME.getValue());
@@ -312,22 +328,26 @@ public class SfcProviderRpcTest extends AbstractSfcRendererServicePathAPITest {
         createRenderedPathInputBuilder.setName(RSP_NAME.getValue()).setParentServiceFunctionPath(SFP_NAME.getValue());
         CreateRenderedPathInput createRenderedPathInput = createRenderedPathInputBuilder.build();
 
-        SfcProviderRenderedPathAPI.createRenderedServicePathAndState(serviceFunctionPath, createRenderedPathInput);
+        SfcProviderRenderedPathAPI.createRenderedServicePathsAndState(serviceFunctionPath, createRenderedPathInput,
+                null);
 
         // check if SFF oper contains RSP
         List<SffServicePath> sffServicePathList = SfcProviderServiceForwarderAPI.readSffState(SFF_NAMES.get(1));
         assertNotNull("Must be not null", sffServicePathList);
-        assertEquals(sffServicePathList.get(0).getName().getValue(), RSP_NAME.getValue());
+        assertTrue(sffServicePathList.stream()
+                .anyMatch(sffServicePath -> RSP_NAME.getValue().equals(sffServicePath.getName().getValue())));
 
         // check if SF oper contains RSP
         List<SfServicePath> sfServicePathList = SfcProviderServiceFunctionAPI
                 .readServiceFunctionState(new SfName("unittest-fw-1"));
-        assertEquals(sfServicePathList.get(0).getName().getValue(), RSP_NAME.getValue());
+        assertTrue(sfServicePathList.stream()
+                .anyMatch(sfServicePath -> RSP_NAME.getValue().equals(sfServicePath.getName().getValue())));
 
         // check if SFP oper contains RSP
         List<SfpRenderedServicePath> sfpRenderedServicePathList = SfcProviderServicePathAPI
                 .readServicePathState(SFP_NAME);
-        assertEquals(sfpRenderedServicePathList.get(0).getName(), RSP_NAME);
+        assertTrue(sfpRenderedServicePathList.stream()
+                .anyMatch(sfpRenderedServicePath -> RSP_NAME.equals(sfpRenderedServicePath.getName())));
 
         ServiceFunctionClassifierBuilder serviceFunctionClassifierBuilder = new ServiceFunctionClassifierBuilder();
         serviceFunctionClassifierBuilder.setName(SFP_NAME.getValue());
@@ -474,6 +494,50 @@ public class SfcProviderRpcTest extends AbstractSfcRendererServicePathAPITest {
         assertRenderedServicePathDoesNotExist(pathName1);
     }
 
+    @Test
+    public void createAndDeleteRenderedPathsTest() throws Exception {
+        init();
+
+        final RspName pathName = new RspName("rspName1");
+        final RspName otherPathName = new RspName("rspName2");
+        final String unknownSfpName = "unknownSfp";
+
+        // create two paths from an existing SFP and another from a non-existing one
+        CreateRenderedPathsInput createInput = new CreateRenderedPathsInputBuilder().setRenderedPath(Arrays.asList(
+                new RenderedPathBuilder().setParentServiceFunctionPath(SFP_NAME.getValue())
+                        .setName(pathName.getValue()).build(),
+                new RenderedPathBuilder().setParentServiceFunctionPath(SFP_NAME.getValue())
+                        .setName(otherPathName.getValue()).build(),
+                new RenderedPathBuilder().setParentServiceFunctionPath(unknownSfpName).build())).build();
+        RpcResult<CreateRenderedPathsOutput> createResult = sfcProviderRpc.createRenderedPaths(createInput).get();
+        assertTrue(createResult.isSuccessful());
+        assertNotNull(createResult.getResult().getElapsedTime());
+        List<CreatedRenderedPath> createdPaths = createResult.getResult().getCreatedRenderedPath();
+        assertEquals(3, createdPaths.size());
+        assertEquals(SFP_NAME.getValue(), createdPaths.get(0).getParentServiceFunctionPath());
+        assertEquals(pathName.getValue(), createdPaths.get(0).getName());
+        assertTrue(createdPaths.get(0).isResult());
+        assertEquals(SFP_NAME.getValue(), createdPaths.get(1).getParentServiceFunctionPath());
+        assertEquals(otherPathName.getValue(), createdPaths.get(1).getName());
+        assertTrue(createdPaths.get(1).isResult());
+        assertEquals(unknownSfpName, createdPaths.get(2).getParentServiceFunctionPath());
+        assertFalse(createdPaths.get(2).isResult());
+        assertNotNull(createdPaths.get(2).getMessage());
+        assertRenderedServicePathExists(pathName);
+        assertRenderedServicePathExists(otherPathName);
+
+        DeleteRenderedPathsInput deleteInput = new DeleteRenderedPathsInputBuilder()
+                .setName(Collections.singletonList(pathName.getValue())).build();
+        RpcResult<DeleteRenderedPathsOutput> deleteResult = sfcProviderRpc.deleteRenderedPaths(deleteInput).get();
+        assertTrue(deleteResult.isSuccessful());
+        assertNotNull(deleteResult.getResult().getElapsedTime());
+        List<DeletedRenderedPath> deletedPaths = deleteResult.getResult().getDeletedRenderedPath();
+        assertEquals(1, deletedPaths.size());
+        assertEquals(pathName.getValue(), deletedPaths.get(0).getName());
+        assertTrue(deletedPaths.get(0).isResult());
+        assertRenderedServicePathDoesNotExist(pathName);
+    }
+
     private void createRenderedServicePath(RspName pathName) throws Exception {
         CreateRenderedPathInputBuilder inputBuilder = new CreateRenderedPathInputBuilder();
         inputBuilder.setName(pathName.getValue()).setParentServiceFunctionPath(SFP_NAME.getValue());
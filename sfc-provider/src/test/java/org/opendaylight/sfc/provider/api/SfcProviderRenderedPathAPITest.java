@@ -11,23 +11,34 @@ package org.opendaylight.sfc.provider.api;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.CreateRenderedPathInputBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.RenderedServicePaths;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.path.first.hop.info.RenderedServicePathFirstHop;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePathKey;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHop;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.state.service.function.state.SfServicePath;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.state.service.function.forwarder.state.SffServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPathBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.state.service.function.path.state.SfpRenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.ServiceFunctionTypeBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.service.function.type.SftServiceFunctionNameBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.service.function.type.SftServiceFunctionNameKey;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.Mac;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.Mpls;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.Nsh;
@@ -41,6 +52,7 @@ import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.yang.sfc.sfst.rev150
 import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.yang.sfc.sfst.rev150312.RoundRobin;
 import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.yang.sfc.sfst.rev150312.ServiceFunctionSchedulerTypeIdentity;
 import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.yang.sfc.sfst.rev150312.ShortestPath;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 import org.powermock.reflect.Whitebox;
 
 public class SfcProviderRenderedPathAPITest extends AbstractSfcRendererServicePathAPITest {
@@ -94,12 +106,12 @@ public class SfcProviderRenderedPathAPITest extends AbstractSfcRendererServicePa
         CreateRenderedPathInputBuilder createRenderedPathInputBuilder = new CreateRenderedPathInputBuilder();
         createRenderedPathInputBuilder.setName(RSP_NAME.getValue());
 
-        renderedServicePath = SfcProviderRenderedPathAPI.createRenderedServicePathAndState(serviceFunctionPath,
-                createRenderedPathInputBuilder.build());
+        renderedServicePath = SfcProviderRenderedPathAPI.createRenderedServicePathsAndState(serviceFunctionPath,
+                createRenderedPathInputBuilder.build(), null);
         assertNotNull("Must be not null", renderedServicePath);
 
         RenderedServicePath revRenderedServicePath = SfcProviderRenderedPathAPI
-                .createSymmetricRenderedServicePathAndState(renderedServicePath);
+                .readRenderedServicePath(SfcProviderRenderedPathAPI.generateReversedPathName(RSP_NAME));
         assertNotNull("Must be not null", revRenderedServicePath);
 
         RenderedServicePathFirstHop firstHop;
@@ -189,7 +201,7 @@ public class SfcProviderRenderedPathAPITest extends AbstractSfcRendererServicePa
     }
 
     @Test
-    public void testCreateRenderedServicePathAndState() {
+    public void testCreateRenderedServicePathsAndState() {
         init();
 
         ServiceFunctionPath serviceFunctionPath = SfcProviderServicePathAPI.readServiceFunctionPath(SFP_NAME);
@@ -198,24 +210,134 @@ public class SfcProviderRenderedPathAPITest extends AbstractSfcRendererServicePa
         CreateRenderedPathInputBuilder createRenderedPathInputBuilder = new CreateRenderedPathInputBuilder();
         createRenderedPathInputBuilder.setName(RSP_NAME.getValue());
 
-        SfcProviderRenderedPathAPI.createRenderedServicePathAndState(serviceFunctionPath,
-                createRenderedPathInputBuilder.build());
+        // the SFP is symmetric, both RSPs are created at once
+        RenderedServicePath renderedServicePath = SfcProviderRenderedPathAPI.createRenderedServicePathsAndState(
+                serviceFunctionPath, createRenderedPathInputBuilder.build(), null);
+        assertNotNull("Must be not null", renderedServicePath);
+        RspName revRspName = SfcProviderRenderedPathAPI.generateReversedPathName(RSP_NAME);
+        RenderedServicePath revRenderedServicePath = SfcProviderRenderedPathAPI.readRenderedServicePath(revRspName);
+        assertNotNull("Must be not null", revRenderedServicePath);
+        assertEquals(renderedServicePath.getSymmetricPathId(), revRenderedServicePath.getPathId());
+        assertEquals(revRenderedServicePath.getSymmetricPathId(), renderedServicePath.getPathId());
+        assertEquals(renderedServicePath, SfcProviderRenderedPathAPI.readRenderedServicePath(RSP_NAME));
+
+        // the reverse RSP goes through the SFs backwards
+        List<RenderedServicePathHop> hops = renderedServicePath.getRenderedServicePathHop();
+        List<RenderedServicePathHop> revHops = revRenderedServicePath.getRenderedServicePathHop();
+        assertEquals(hops.size(), revHops.size());
+        for (int i = 0; i < hops.size(); i++) {
+            assertEquals(hops.get(i).getServiceFunctionName(),
+                    revHops.get(hops.size() - 1 - i).getServiceFunctionName());
+        }
+
+        // both RSPs are in the SFF, SF and SFP oper
+        Set<String> sffPaths = new HashSet<>();
+        SfcProviderServiceForwarderAPI.readSffState(new SffName(SFF_NAMES.get(1)))
+                .forEach(sffServicePath -> sffPaths.add(sffServicePath.getName().getValue()));
+        assertEquals(new HashSet<>(Arrays.asList(RSP_NAME.getValue(), revRspName.getValue())), sffPaths);
+        Set<String> sfPaths = new HashSet<>();
+        SfcProviderServiceFunctionAPI.readServiceFunctionState(new SfName("unittest-fw-1"))
+                .forEach(sfServicePath -> sfPaths.add(sfServicePath.getName().getValue()));
+        assertEquals(new HashSet<>(Arrays.asList(RSP_NAME.getValue(), revRspName.getValue())), sfPaths);
+        Set<RspName> sfpPaths = new HashSet<>();
+        SfcProviderServicePathAPI.readServicePathState(SFP_NAME)
+                .forEach(sfpRenderedServicePath -> sfpPaths.add(sfpRenderedServicePath.getName()));
+        assertEquals(new HashSet<>(Arrays.asList(RSP_NAME, revRspName)), sfpPaths);
+    }
+
+    /*
+     * a service function deleted but still in the service function type
+     * registry is replaced by one of the data store service function type
+     */
+    @Test
+    public void testCreateRenderedServicePathsAndStateDeletedServiceFunction() {
+        init();
 
-        // check if SFF oper contains RSP
-        List<SffServicePath> sffServicePathList = SfcProviderServiceForwarderAPI
-                .readSffState(new SffName(SFF_NAMES.get(1)));
-        assertNotNull("Must be not null", sffServicePathList);
-        assertEquals(sffServicePathList.get(0).getName().getValue(), RSP_NAME.getValue());
+        SfName deletedSfName = new SfName("unittest-fw-deleted");
+        SfcServiceFunctionTypeRegistry.getInstance().clear();
+        SfcServiceFunctionTypeRegistry.getInstance().put(new ServiceFunctionTypeBuilder()
+                .setType(SERVICE_FUNCTION_TYPES.get(0))
+                .setSftServiceFunctionName(Collections.singletonList(new SftServiceFunctionNameBuilder()
+                        .setName(deletedSfName).setKey(new SftServiceFunctionNameKey(deletedSfName)).build()))
+                .build());
+
+        try {
+            ServiceFunctionPath serviceFunctionPath = SfcProviderServicePathAPI.readServiceFunctionPath(SFP_NAME);
+            CreateRenderedPathInputBuilder createRenderedPathInputBuilder = new CreateRenderedPathInputBuilder();
+            createRenderedPathInputBuilder.setName(RSP_NAME.getValue());
+            RenderedServicePath renderedServicePath = SfcProviderRenderedPathAPI.createRenderedServicePathsAndState(
+                    serviceFunctionPath, createRenderedPathInputBuilder.build(),
+                    new SfcServiceFunctionRoundRobinSchedulerAPI());
+            assertNotNull("Must be not null", renderedServicePath);
+            assertEquals(SERVICE_FUNCTION_NAMES.get(0),
+                    renderedServicePath.getRenderedServicePathHop().get(0).getServiceFunctionName());
+        } finally {
+            SfcServiceFunctionTypeRegistry.getInstance().clear();
+        }
+    }
 
-        // check if SF oper contains RSP
-        List<SfServicePath> sfServicePathList = SfcProviderServiceFunctionAPI
-                .readServiceFunctionState(new SfName("unittest-fw-1"));
-        assertEquals(sfServicePathList.get(0).getName().getValue(), RSP_NAME.getValue());
+    @Test
+    public void testDeleteRenderedServicePathsAndStates() {
+        init();
+
+        ServiceFunctionPath serviceFunctionPath = SfcProviderServicePathAPI.readServiceFunctionPath(SFP_NAME);
+        assertNotNull("Must be not null", serviceFunctionPath);
 
-        // check if SFP oper contains RSP
-        List<SfpRenderedServicePath> sfpRenderedServicePathList = SfcProviderServicePathAPI
-                .readServicePathState(SFP_NAME);
-        assertEquals(sfpRenderedServicePathList.get(0).getName(), RSP_NAME);
+        CreateRenderedPathInputBuilder createRenderedPathInputBuilder = new CreateRenderedPathInputBuilder();
+        createRenderedPathInputBuilder.setName(RSP_NAME.getValue());
+        RenderedServicePath renderedServicePath = SfcProviderRenderedPathAPI.createRenderedServicePathsAndState(
+                serviceFunctionPath, createRenderedPathInputBuilder.build(), null);
+        assertNotNull("Must be not null", renderedServicePath);
+        RspName revRspName = SfcProviderRenderedPathAPI.generateReversedPathName(RSP_NAME);
+
+        // both RSPs are deleted at once, an RSP that does not exist is skipped
+        assertTrue(SfcProviderRenderedPathAPI.deleteRenderedServicePathsAndStates(
+                Arrays.asList(RSP_NAME, revRspName, new RspName("unittest-missing-rsp"))));
+        assertNull(SfcProviderRenderedPathAPI.readRenderedServicePath(RSP_NAME));
+        assertNull(SfcProviderRenderedPathAPI.readRenderedServicePath(revRspName));
+
+        // the SFF state left empty is deleted, the SF and SFP states are empty
+        assertNull(SfcProviderServiceForwarderAPI.readSffState(new SffName(SFF_NAMES.get(1))));
+        List<SfServicePath> sfPaths = SfcProviderServiceFunctionAPI.readServiceFunctionState(
+                new SfName("unittest-fw-1"));
+        assertTrue(sfPaths == null || sfPaths.isEmpty());
+        List<SfpRenderedServicePath> sfpPaths = SfcProviderServicePathAPI.readServicePathState(SFP_NAME);
+        assertTrue(sfpPaths == null || sfpPaths.isEmpty());
+
+        // the path ids are free again
+        assertTrue(SfcServicePathId.checkSuitablePathId(renderedServicePath.getPathId()));
+        assertTrue(SfcServicePathId.checkSuitablePathId(renderedServicePath.getSymmetricPathId()));
+    }
+
+    @Test
+    public void testDeleteRenderedServicePathsAndStatesOfMissingRsps() {
+        init();
+
+        ServiceFunctionPath serviceFunctionPath = SfcProviderServicePathAPI.readServiceFunctionPath(SFP_NAME);
+        assertNotNull("Must be not null", serviceFunctionPath);
+
+        CreateRenderedPathInputBuilder createRenderedPathInputBuilder = new CreateRenderedPathInputBuilder();
+        createRenderedPathInputBuilder.setName(RSP_NAME.getValue());
+        assertNotNull("Must be not null", SfcProviderRenderedPathAPI.createRenderedServicePathsAndState(
+                serviceFunctionPath, createRenderedPathInputBuilder.build(), null));
+        RspName revRspName = SfcProviderRenderedPathAPI.generateReversedPathName(RSP_NAME);
+
+        // the RSPs are gone, but not their states
+        for (RspName rspName : Arrays.asList(RSP_NAME, revRspName)) {
+            assertTrue(SfcDataStoreAPI.deleteTransactionAPI(InstanceIdentifier.builder(RenderedServicePaths.class)
+                    .child(RenderedServicePath.class, new RenderedServicePathKey(rspName)).build(),
+                    LogicalDatastoreType.OPERATIONAL));
+        }
+
+        // the states left behind are deleted by name
+        assertTrue(SfcProviderRenderedPathAPI.deleteRenderedServicePathsAndStates(
+                Arrays.asList(RSP_NAME, revRspName)));
+        assertNull(SfcProviderServiceForwarderAPI.readSffState(new SffName(SFF_NAMES.get(1))));
+        List<SfServicePath> sfPaths = SfcProviderServiceFunctionAPI.readServiceFunctionState(
+                new SfName("unittest-fw-1"));
+        assertTrue(sfPaths == null || sfPaths.isEmpty());
+        List<SfpRenderedServicePath> sfpPaths = SfcProviderServicePathAPI.readServicePathState(SFP_NAME);
+        assertTrue(sfpPaths == null || sfpPaths.isEmpty());
     }
 
     @SuppressWarnings("static-access")
@@ -223,7 +345,7 @@ public class SfcProviderRenderedPathAPITest extends AbstractSfcRendererServicePa
     /*
      * there are null test cases of this method using partial mock
      */
-    public void testCreateRenderedServicePathEntryUnsuccessful() throws Exception {
+    public void testCreateRenderedServicePathsAndStateUnsuccessful() throws Exception {
         setupSfc();
 
         ServiceFunctionPathBuilder serviceFunctionPathBuilder = new ServiceFunctionPathBuilder();
@@ -237,7 +359,7 @@ public class SfcProviderRenderedPathAPITest extends AbstractSfcRendererServicePa
 
         CreateRenderedPathInputBuilder createRenderedPathInputBuilder = new CreateRenderedPathInputBuilder();
 
-        RenderedServicePath testRenderedServicePath = SfcProviderRenderedPathAPI.createRenderedServicePathEntry(
+        RenderedServicePath testRenderedServicePath = SfcProviderRenderedPathAPI.createRenderedServicePathsAndState(
                 serviceFunctionPathBuilder.build(), createRenderedPathInputBuilder.build(), testScheduler);
 
         // method "readServiceFunctionTypeExecutor" returns null, so there is no
@@ -250,7 +372,7 @@ public class SfcProviderRenderedPathAPITest extends AbstractSfcRendererServicePa
     /*
      * there are null test cases of this method
      */
-    public void testCreateRenderedServicePathEntryUnsuccessful1() throws Exception {
+    public void testCreateRenderedServicePathsAndStateUnsuccessful1() throws Exception {
         setupSfc();
         CreateRenderedPathInputBuilder createRenderedPathInputBuilder = new CreateRenderedPathInputBuilder();
         ServiceFunctionPathBuilder serviceFunctionPathBuilder = new ServiceFunctionPathBuilder();
@@ -259,7 +381,7 @@ public class SfcProviderRenderedPathAPITest extends AbstractSfcRendererServicePa
 
         serviceFunctionPathBuilder.setServiceChainName(SFC_NAME);
 
-        testRenderedServicePath = SfcProviderRenderedPathAPI.createRenderedServicePathEntry(
+        testRenderedServicePath = SfcProviderRenderedPathAPI.createRenderedServicePathsAndState(
                 serviceFunctionPathBuilder.build(), createRenderedPathInputBuilder.build(), testScheduler);
 
         // method "createRenderedServicePathHopList", so there is no RSP hop
@@ -271,7 +393,7 @@ public class SfcProviderRenderedPathAPITest extends AbstractSfcRendererServicePa
     /*
      * there are null test cases of this method
      */
-    public void testCreateRenderedServicePathEntryUnsuccessful2() throws Exception {
+    public void testCreateRenderedServicePathsAndStateUnsuccessful2() throws Exception {
         setupSfc();
         CreateRenderedPathInputBuilder createRenderedPathInputBuilder = new CreateRenderedPathInputBuilder();
         ServiceFunctionPathBuilder serviceFunctionPathBuilder = new ServiceFunctionPathBuilder();
@@ -281,7 +403,7 @@ public class SfcProviderRenderedPathAPITest extends AbstractSfcRendererServicePa
         serviceFunctionPathBuilder.setTransportType(Mpls.class);
 
         SfcServiceFunctionSchedulerAPI testScheduler = new SfcServiceFunctionRandomSchedulerAPI();
-        RenderedServicePath testRenderedServicePath = SfcProviderRenderedPathAPI.createRenderedServicePathEntry(
+        RenderedServicePath testRenderedServicePath = SfcProviderRenderedPathAPI.createRenderedServicePathsAndState(
                 serviceFunctionPathBuilder.build(), createRenderedPathInputBuilder.build(), testScheduler);
 
         assertNull("Must be null", testRenderedServicePath);
@@ -291,7 +413,7 @@ public class SfcProviderRenderedPathAPITest extends AbstractSfcRendererServicePa
     /*
      * there is successful test with all attributes correctly set
      */
-    public void testCreateRenderedServicePathEntrySuccessful() throws Exception {
+    public void testCreateRenderedServicePathsAndStateSuccessful() throws Exception {
         init();
 
         CreateRenderedPathInputBuilder createRenderedPathInputBuilder = new CreateRenderedPathInputBuilder();
@@ -307,7 +429,7 @@ public class SfcProviderRenderedPathAPITest extends AbstractSfcRendererServicePa
         serviceFunctionPathBuilder.setName(SFP_NAME);
 
         SfcServiceFunctionSchedulerAPI testScheduler = new SfcServiceFunctionRandomSchedulerAPI();
-        RenderedServicePath testRenderedServicePath = SfcProviderRenderedPathAPI.createRenderedServicePathEntry(
+        RenderedServicePath testRenderedServicePath = SfcProviderRenderedPathAPI.createRenderedServicePathsAndState(
                 serviceFunctionPathBuilder.build(), createRenderedPathInputBuilder.build(), testScheduler);
 
         assertNotNull("Must not be null", testRenderedServicePath);
@@ -323,7 +445,7 @@ public class SfcProviderRenderedPathAPITest extends AbstractSfcRendererServicePa
      * there is successful test with some attributes correctly set, and expect
      * default values for the others
      */
-    public void testCreateRenderedServicePathEntrySuccessfulDefaults() throws Exception {
+    public void testCreateRenderedServicePathsAndStateSuccessfulDefaults() throws Exception {
         init();
 
         CreateRenderedPathInputBuilder createRenderedPathInputBuilder = new CreateRenderedPathInputBuilder();
@@ -337,7 +459,7 @@ public class SfcProviderRenderedPathAPITest extends AbstractSfcRendererServicePa
         serviceFunctionPathBuilder.setName(SFP_NAME);
 
         SfcServiceFunctionSchedulerAPI testScheduler = new SfcServiceFunctionRandomSchedulerAPI();
-        RenderedServicePath testRenderedServicePath = SfcProviderRenderedPathAPI.createRenderedServicePathEntry(
+        RenderedServicePath testRenderedServicePath = SfcProviderRenderedPathAPI.createRenderedServicePathsAndState(
                 serviceFunctionPathBuilder.build(), createRenderedPathInputBuilder.build(), testScheduler);
 
         assertNotNull("Must not be null", testRenderedServicePath);
@@ -352,7 +474,7 @@ public class SfcProviderRenderedPathAPITest extends AbstractSfcRendererServicePa
      * Test that a Service Function with OneChainOnly set True, can only be used in one RSP
      */
     @Test
-    public void testCreateRenderedServicePathAndStateOneChainSfTrue() {
+    public void testCreateRenderedServicePathsAndStateOneChainSfTrue() {
         // Instead of calling the generic init(), first call
         // initSfsOneChainOnly() then call the rest of the
         // init methods like init() does internally.
@@ -368,16 +490,16 @@ public class SfcProviderRenderedPathAPITest extends AbstractSfcRendererServicePa
         // Create the RSP, the first one should be created successfully
         CreateRenderedPathInputBuilder createRenderedPathInputBuilder = new CreateRenderedPathInputBuilder();
         createRenderedPathInputBuilder.setName(RSP_NAME.getValue());
-        RenderedServicePath rsp1 = SfcProviderRenderedPathAPI.createRenderedServicePathAndState(serviceFunctionPath,
-                createRenderedPathInputBuilder.build());
+        RenderedServicePath rsp1 = SfcProviderRenderedPathAPI.createRenderedServicePathsAndState(serviceFunctionPath,
+                createRenderedPathInputBuilder.build(), null);
         assertNotNull("Must be not null", rsp1);
 
         // Now, try creating a second RSP with the same SFP
         // This should fail, since the SFs are already used, and have OneChainOnly set true
         createRenderedPathInputBuilder = new CreateRenderedPathInputBuilder();
         createRenderedPathInputBuilder.setName(RSP2_NAME.getValue());
-        RenderedServicePath rsp2 = SfcProviderRenderedPathAPI.createRenderedServicePathAndState(serviceFunctionPath,
-                createRenderedPathInputBuilder.build());
+        RenderedServicePath rsp2 = SfcProviderRenderedPathAPI.createRenderedServicePathsAndState(serviceFunctionPath,
+                createRenderedPathInputBuilder.build(), null);
         assertNull("Must be null", rsp2);
     }
 
@@ -385,7 +507,7 @@ public class SfcProviderRenderedPathAPITest extends AbstractSfcRendererServicePa
      * Test that a Service Function with OneChainOnly set False, can be used in multiple RSPs
      */
     @Test
-    public void testCreateRenderedServicePathAndStateOneChainSfFalse() {
+    public void testCreateRenderedServicePathsAndStateOneChainSfFalse() {
         // Instead of calling the generic init(), first call
         // initSfsOneChainOnly() then call the rest of the
         // init methods like init() does internally.
@@ -401,16 +523,16 @@ public class SfcProviderRenderedPathAPITest extends AbstractSfcRendererServicePa
         // Create the RSP, the first one should be created successfully
         CreateRenderedPathInputBuilder createRenderedPathInputBuilder = new CreateRenderedPathInputBuilder();
         createRenderedPathInputBuilder.setName(RSP_NAME.getValue());
-        RenderedServicePath rsp1 = SfcProviderRenderedPathAPI.createRenderedServicePathAndState(serviceFunctionPath,
-                createRenderedPathInputBuilder.build());
+        RenderedServicePath rsp1 = SfcProviderRenderedPathAPI.createRenderedServicePathsAndState(serviceFunctionPath,
+                createRenderedPathInputBuilder.build(), null);
         assertNotNull("Must be not null", rsp1);
 
         // Now, try creating a second RSP with the same SFP
         // This should pass, since OneChainOnly is set false
         createRenderedPathInputBuilder = new CreateRenderedPathInputBuilder();
         createRenderedPathInputBuilder.setName(RSP2_NAME.getValue());
-        RenderedServicePath rsp2 = SfcProviderRenderedPathAPI.createRenderedServicePathAndState(serviceFunctionPath,
-                createRenderedPathInputBuilder.build());
+        RenderedServicePath rsp2 = SfcProviderRenderedPathAPI.createRenderedServicePathsAndState(serviceFunctionPath,
+                createRenderedPathInputBuilder.build(), null);
         assertNotNull("Must be null", rsp2);
     }
 }
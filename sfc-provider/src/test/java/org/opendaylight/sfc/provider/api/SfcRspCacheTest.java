@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePathBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePathKey;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHop;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHopBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHopKey;
+
+public class SfcRspCacheTest {
+
+    private static final SffName SFF1 = new SffName("sff1");
+    private static final SffName SFF2 = new SffName("sff2");
+    private static final SffName SFF3 = new SffName("sff3");
+
+    @Test
+    public void putAndRemove() {
+        SfcRspCache rspCache = new SfcRspCache(10);
+        RenderedServicePath rsp1 = buildRsp("rsp1", 1L, SFF1, SFF2);
+        RenderedServicePath rsp2 = buildRsp("rsp2", 2L, SFF2);
+        rspCache.put(rsp1);
+        rspCache.put(rsp2);
+
+        assertEquals(rsp1, rspCache.getRenderedServicePath(new RspName("rsp1")));
+        assertEquals(rsp2, rspCache.getRenderedServicePath(new RspName("rsp2")));
+        assertNull(rspCache.getRenderedServicePath(new RspName("rsp3")));
+        assertEquals(2, rspCache.getHits());
+        assertEquals(1, rspCache.getMisses());
+
+        RenderedServicePath updatedRsp1 = buildRsp("rsp1", 3L, SFF3);
+        rspCache.put(updatedRsp1);
+        assertEquals(updatedRsp1, rspCache.getRenderedServicePath(new RspName("rsp1")));
+
+        rspCache.remove(new RspName("rsp2"));
+        assertNull(rspCache.getRenderedServicePath(new RspName("rsp2")));
+        assertEquals(1, rspCache.size());
+    }
+
+    @Test
+    public void bounded() {
+        SfcRspCache rspCache = new SfcRspCache(2);
+        rspCache.put(buildRsp("rsp1", 1L, SFF1));
+        rspCache.put(buildRsp("rsp2", 2L, SFF1));
+        rspCache.put(buildRsp("rsp3", 3L, SFF1));
+        rspCache.put(buildRsp("rsp3", 3L, SFF2));
+
+        assertEquals(2, rspCache.size());
+        assertEquals(1, rspCache.getRejected());
+        assertNull(rspCache.getRenderedServicePath(new RspName("rsp3")));
+
+        // an RSP that did not fit is cached once there is room
+        rspCache.remove(new RspName("rsp1"));
+        rspCache.put(buildRsp("rsp3", 3L, SFF1));
+        assertEquals(buildRsp("rsp3", 3L, SFF1), rspCache.getRenderedServicePath(new RspName("rsp3")));
+    }
+
+    @Test
+    public void readAfterWrite() {
+        SfcRspCache rspCache = new SfcRspCache(10);
+        RenderedServicePath rsp1 = buildRsp("rsp1", 1L, SFF1);
+        RenderedServicePath updatedRsp1 = buildRsp("rsp1", 1L, SFF2);
+        rspCache.changed(null, rsp1);
+
+        // the RSP is not read from the cache until the update is notified
+        rspCache.beginWrite(updatedRsp1);
+        assertNull(rspCache.getRenderedServicePath(new RspName("rsp1")));
+
+        // an older notification is ignored
+        rspCache.changed(null, rsp1);
+        assertNull(rspCache.getRenderedServicePath(new RspName("rsp1")));
+
+        rspCache.changed(rsp1, updatedRsp1);
+        assertEquals(updatedRsp1, rspCache.getRenderedServicePath(new RspName("rsp1")));
+    }
+
+    @Test
+    public void deletedRspNotBroughtBack() {
+        SfcRspCache rspCache = new SfcRspCache(10);
+        RenderedServicePath rsp1 = buildRsp("rsp1", 1L, SFF1);
+        RenderedServicePath updatedRsp1 = buildRsp("rsp1", 1L, SFF2);
+        rspCache.changed(null, rsp1);
+
+        rspCache.beginDelete(new RspName("rsp1"));
+        assertNull(rspCache.getRenderedServicePath(new RspName("rsp1")));
+
+        // the notifications still queued do not bring the RSP back
+        rspCache.changed(rsp1, updatedRsp1);
+        assertNull(rspCache.getRenderedServicePath(new RspName("rsp1")));
+
+        rspCache.changed(updatedRsp1, null);
+        assertNull(rspCache.getRenderedServicePath(new RspName("rsp1")));
+
+        // the RSP is cached again once created again
+        rspCache.changed(null, rsp1);
+        assertEquals(rsp1, rspCache.getRenderedServicePath(new RspName("rsp1")));
+    }
+
+    @Test
+    public void unrecognizedWriteExpires() {
+        AtomicLong nanoTime = new AtomicLong();
+        SfcRspCache rspCache = new SfcRspCache(10, nanoTime::get);
+        RenderedServicePath rsp1 = buildRsp("rsp1", 1L, SFF1);
+        RenderedServicePath mergedRsp1 = buildRsp("rsp1", 1L, SFF1, SFF2);
+
+        // the data store notifies the write merged with other data
+        rspCache.beginWrite(rsp1);
+        rspCache.changed(null, mergedRsp1);
+        assertNull(rspCache.getRenderedServicePath(new RspName("rsp1")));
+
+        // the write no longer holds the notifications back once expired
+        nanoTime.set(TimeUnit.MILLISECONDS.toNanos(SfcRspCache.PENDING_CHANGE_TIMEOUT_MILLIS));
+        rspCache.changed(mergedRsp1, mergedRsp1);
+        assertEquals(mergedRsp1, rspCache.getRenderedServicePath(new RspName("rsp1")));
+    }
+
+    @Test
+    public void changeOnTopOfPendingWrite() {
+        SfcRspCache rspCache = new SfcRspCache(10);
+        RenderedServicePath rsp1 = buildRsp("rsp1", 1L, SFF1);
+        RenderedServicePath updatedRsp1 = buildRsp("rsp1", 1L, SFF2);
+
+        // the notification of the write itself was not matched, but the
+        // next change is made on top of it
+        rspCache.beginWrite(rsp1);
+        rspCache.changed(rsp1, updatedRsp1);
+        assertEquals(updatedRsp1, rspCache.getRenderedServicePath(new RspName("rsp1")));
+    }
+
+    @Test
+    public void cancelledWrite() {
+        SfcRspCache rspCache = new SfcRspCache(10);
+        RenderedServicePath rsp1 = buildRsp("rsp1", 1L, SFF1);
+        RenderedServicePath updatedRsp1 = buildRsp("rsp1", 1L, SFF2);
+        rspCache.changed(null, rsp1);
+
+        rspCache.beginWrite(updatedRsp1);
+        rspCache.cancelChange(new RspName("rsp1"));
+        assertNull(rspCache.getRenderedServicePath(new RspName("rsp1")));
+
+        // the RSP is cached again from the next notification
+        rspCache.changed(null, rsp1);
+        assertEquals(rsp1, rspCache.getRenderedServicePath(new RspName("rsp1")));
+    }
+
+    private static RenderedServicePath buildRsp(String name, long pathId, SffName... sffNames) {
+        List<RenderedServicePathHop> hops = new ArrayList<>();
+        for (short index = 0; index < sffNames.length; index++) {
+            hops.add(new RenderedServicePathHopBuilder().setKey(new RenderedServicePathHopKey(index))
+                    .setHopNumber(index).setServiceFunctionForwarder(sffNames[index]).build());
+        }
+        return new RenderedServicePathBuilder().setKey(new RenderedServicePathKey(new RspName(name)))
+                .setName(new RspName(name)).setPathId(pathId).setRenderedServicePathHop(hops).build();
+    }
+}
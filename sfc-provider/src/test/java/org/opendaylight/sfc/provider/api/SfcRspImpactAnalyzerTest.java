@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2017 Ericsson S.A. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.sfc.provider.api.SfcRspImpactAnalyzer.RspImpact;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfDataPlaneLocatorName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffDataPlaneLocatorName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePathBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHop;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHopBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.function.base.SfDataPlaneLocatorBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunctionBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarderBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.service.function.forwarder.ServiceFunctionDictionary;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.service.function.forwarder.ServiceFunctionDictionaryBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.service.function.forwarder.ServiceFunctionDictionaryKey;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.service.function.forwarder.service.function.dictionary.SffSfDataPlaneLocatorBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
+
+/**
+ * Test Suite to test the SfcRspImpactAnalyzer class.
+ */
+public class SfcRspImpactAnalyzerTest {
+
+    private static final SffName SFF_1 = new SffName("sff1");
+    private static final SffName SFF_2 = new SffName("sff2");
+    private static final SfName SF_1 = new SfName("sf1");
+    private static final SfName SF_2 = new SfName("sf2");
+    private static final RspName RSP_NAME = new RspName("rsp1");
+
+    private List<RenderedServicePath> rsps;
+    private ServiceFunctionForwarder sff;
+    private ServiceFunction sf;
+
+    @Before
+    public void setUp() {
+        List<RenderedServicePathHop> hops = Arrays.asList(
+                new RenderedServicePathHopBuilder().setHopNumber((short) 0).setServiceFunctionName(SF_1)
+                        .setServiceFunctionForwarder(SFF_1).build(),
+                new RenderedServicePathHopBuilder().setHopNumber((short) 1).setServiceFunctionName(SF_2)
+                        .setServiceFunctionForwarder(SFF_2).build());
+        rsps = Collections.singletonList(
+                new RenderedServicePathBuilder().setName(RSP_NAME).setRenderedServicePathHop(hops).build());
+        sff = new ServiceFunctionForwarderBuilder().setName(SFF_1)
+                .setIpMgmtAddress(new IpAddress(new Ipv4Address("10.0.0.1")))
+                .setServiceFunctionDictionary(Collections.singletonList(buildDictionary(SF_1, "eth1"))).build();
+        sf = new ServiceFunctionBuilder().setName(SF_1).setType(new SftTypeName("firewall"))
+                .setSfDataPlaneLocator(Collections.singletonList(
+                        new SfDataPlaneLocatorBuilder().setName(new SfDataPlaneLocatorName("dpl1")).build()))
+                .build();
+    }
+
+    @Test
+    public void testSffIpMgmtUpdateRerendersSffHops() {
+        ServiceFunctionForwarder updatedSff = new ServiceFunctionForwarderBuilder(sff)
+                .setIpMgmtAddress(new IpAddress(new Ipv4Address("10.0.0.2"))).build();
+
+        List<RspImpact> impacts = SfcRspImpactAnalyzer.analyzeSffUpdate(sff, updatedSff, rsps);
+
+        assertEquals(1, impacts.size());
+        assertFalse(impacts.get(0).isTeardownRequired());
+        assertEquals(Collections.singletonList(RSP_NAME), SfcRspImpactAnalyzer.getRspsToRerender(impacts));
+        assertTrue(SfcRspImpactAnalyzer.getRspsToTearDown(impacts).isEmpty());
+    }
+
+    @Test
+    public void testSffDictionaryModifiedRerendersHop() {
+        ServiceFunctionForwarder updatedSff = new ServiceFunctionForwarderBuilder(sff)
+                .setServiceFunctionDictionary(Collections.singletonList(buildDictionary(SF_1, "eth2"))).build();
+
+        List<RspImpact> impacts = SfcRspImpactAnalyzer.analyzeSffUpdate(sff, updatedSff, rsps);
+
+        assertEquals(Collections.singletonList(RSP_NAME), SfcRspImpactAnalyzer.getRspsToRerender(impacts));
+        assertTrue(SfcRspImpactAnalyzer.getRspsToTearDown(impacts).isEmpty());
+    }
+
+    @Test
+    public void testSffDictionaryRemovedTearsDownRsp() {
+        ServiceFunctionForwarder updatedSff = new ServiceFunctionForwarderBuilder(sff)
+                .setServiceFunctionDictionary(Collections.emptyList()).build();
+
+        List<RspImpact> impacts = SfcRspImpactAnalyzer.analyzeSffUpdate(sff, updatedSff, rsps);
+
+        assertEquals(Collections.singletonList(RSP_NAME), SfcRspImpactAnalyzer.getRspsToTearDown(impacts));
+        assertTrue(SfcRspImpactAnalyzer.getRspsToRerender(impacts).isEmpty());
+    }
+
+    @Test
+    public void testSffDictionaryAddedHasNoImpact() {
+        ServiceFunctionForwarder updatedSff = new ServiceFunctionForwarderBuilder(sff)
+                .setServiceFunctionDictionary(
+                        Arrays.asList(buildDictionary(SF_1, "eth1"), buildDictionary(new SfName("sf3"), "eth3")))
+                .build();
+
+        assertTrue(SfcRspImpactAnalyzer.analyzeSffUpdate(sff, updatedSff, rsps).isEmpty());
+    }
+
+    @Test
+    public void testSfTypeUpdateTearsDownRsp() {
+        ServiceFunction updatedSf = new ServiceFunctionBuilder(sf).setType(new SftTypeName("dpi")).build();
+
+        List<RspImpact> impacts = SfcRspImpactAnalyzer.analyzeSfUpdate(sf, updatedSf, rsps);
+
+        assertEquals(Collections.singletonList(RSP_NAME), SfcRspImpactAnalyzer.getRspsToTearDown(impacts));
+    }
+
+    @Test
+    public void testSfIpMgmtUpdateRerendersSfHops() {
+        ServiceFunction updatedSf = new ServiceFunctionBuilder(sf)
+                .setIpMgmtAddress(new IpAddress(new Ipv4Address("10.0.0.3"))).build();
+
+        List<RspImpact> impacts = SfcRspImpactAnalyzer.analyzeSfUpdate(sf, updatedSf, rsps);
+
+        assertEquals(1, impacts.size());
+        assertEquals(Collections.singletonList(RSP_NAME), SfcRspImpactAnalyzer.getRspsToRerender(impacts));
+    }
+
+    @Test
+    public void testSfLocatorSffUpdateTearsDownRsp() {
+        ServiceFunction updatedSf = new ServiceFunctionBuilder(sf)
+                .setSfDataPlaneLocator(Collections.singletonList(new SfDataPlaneLocatorBuilder()
+                        .setName(new SfDataPlaneLocatorName("dpl1")).setServiceFunctionForwarder(SFF_2).build()))
+                .build();
+
+        List<RspImpact> impacts = SfcRspImpactAnalyzer.analyzeSfUpdate(sf, updatedSf, rsps);
+
+        assertEquals(Collections.singletonList(RSP_NAME), SfcRspImpactAnalyzer.getRspsToTearDown(impacts));
+        assertTrue(SfcRspImpactAnalyzer.getRspsToRerender(impacts).isEmpty());
+    }
+
+    private static ServiceFunctionDictionary buildDictionary(SfName sfName, String sffDplName) {
+        return new ServiceFunctionDictionaryBuilder().setName(sfName).setKey(new ServiceFunctionDictionaryKey(sfName))
+                .setSffSfDataPlaneLocator(new SffSfDataPlaneLocatorBuilder()
+                        .setSffDplName(new SffDataPlaneLocatorName(sffDplName)).build())
+                .build();
+    }
+}
@@ -13,7 +13,6 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
@@ -44,7 +43,6 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev1407
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.service.function.type.SftServiceFunctionNameBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.service.function.type.SftServiceFunctionNameKey;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
-import org.powermock.reflect.Whitebox;
 
 /**
  * This class contains unit tests for SfcServiceFunctionRoundRobinSchedulerAPI.
@@ -92,13 +90,11 @@ public class SfcServiceFunctionRoundRobinSchedulerAPITest extends AbstractDataSt
      * returned as a string
      */
     @Test
-    public void testServiceFunctionRoundRobinScheduler1() throws IllegalAccessException {
+    public void testServiceFunctionRoundRobinScheduler1() {
 
-        // before test, private static variable MAP_COUNT_ROUND_ROBIN has to be
-        // restored to original
-        // state
-        Whitebox.getField(SfcServiceFunctionRoundRobinSchedulerAPI.class, "MAP_COUNT_ROUND_ROBIN").set(HashMap.class,
-                new HashMap<>());
+        // before test, the round robin cursors have to be restored to
+        // original state
+        SfcServiceFunctionTypeRegistry.getInstance().clear();
 
         SfcServiceFunctionRoundRobinSchedulerAPI scheduler = new SfcServiceFunctionRoundRobinSchedulerAPI();
 
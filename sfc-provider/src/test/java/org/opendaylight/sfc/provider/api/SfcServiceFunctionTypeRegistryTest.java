@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.junit.Test;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.ServiceFunctionType;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.ServiceFunctionTypeBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.service.function.type.SftServiceFunctionName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.service.function.type.SftServiceFunctionNameBuilder;
+
+public class SfcServiceFunctionTypeRegistryTest {
+
+    private static final SftTypeName FIREWALL = new SftTypeName("firewall");
+
+    @Test
+    public void putAndRemove() {
+        SfcServiceFunctionTypeRegistry registry = new SfcServiceFunctionTypeRegistry();
+        ServiceFunctionType firewall = buildServiceFunctionType(FIREWALL, "fw1", "fw2");
+        registry.put(firewall);
+        assertEquals(firewall, registry.getServiceFunctionType(FIREWALL));
+        assertEquals(0, registry.nextRoundRobinIndex(FIREWALL, 2));
+
+        // an update keeps the cursor
+        ServiceFunctionType updatedFirewall = buildServiceFunctionType(FIREWALL, "fw1", "fw2", "fw3");
+        registry.put(updatedFirewall);
+        assertEquals(updatedFirewall, registry.getServiceFunctionType(FIREWALL));
+        assertEquals(1, registry.nextRoundRobinIndex(FIREWALL, 3));
+
+        // a removal resets it
+        registry.remove(FIREWALL);
+        assertNull(registry.getServiceFunctionType(FIREWALL));
+        assertEquals(0, registry.size());
+        assertEquals(0, registry.nextRoundRobinIndex(FIREWALL, 3));
+    }
+
+    @Test
+    public void concurrentRoundRobin() throws Exception {
+        SfcServiceFunctionTypeRegistry registry = new SfcServiceFunctionTypeRegistry();
+        final int threads = 8;
+        final int picksPerThread = 3000;
+        final int size = 3;
+        AtomicIntegerArray picks = new AtomicIntegerArray(size);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < picksPerThread; j++) {
+                        picks.incrementAndGet(registry.nextRoundRobinIndex(FIREWALL, size));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // no pick is lost: every SF is picked the same number of times
+        for (int i = 0; i < size; i++) {
+            assertEquals(threads * picksPerThread / size, picks.get(i));
+        }
+        assertEquals(0, registry.nextRoundRobinIndex(FIREWALL, size));
+    }
+
+    private static ServiceFunctionType buildServiceFunctionType(SftTypeName type, String... sfNames) {
+        List<SftServiceFunctionName> sftServiceFunctionNames = new ArrayList<>();
+        for (String sfName : sfNames) {
+            sftServiceFunctionNames.add(new SftServiceFunctionNameBuilder().setName(new SfName(sfName)).build());
+        }
+        return new ServiceFunctionTypeBuilder().setType(type).setSftServiceFunctionName(sftServiceFunctionNames)
+                .build();
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2017 Ericsson S.A. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.listeners;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OrderedLaneExecutorTest {
+
+    private OrderedLaneExecutor executor;
+
+    @Before
+    public void setUp() {
+        executor = new OrderedLaneExecutor("test", 4, 16);
+    }
+
+    @After
+    public void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    public void executeInOrderPerKey() throws Exception {
+        List<Integer> handled = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 1000; i++) {
+            final int value = i;
+            executor.execute("key", () -> handled.add(value));
+        }
+
+        assertTrue(executor.awaitIdle(5, TimeUnit.SECONDS));
+        assertEquals(1000, handled.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Integer.valueOf(i), handled.get(i));
+        }
+        assertEquals(1000, executor.getCompletedTasks());
+        assertEquals(0, executor.getQueueDepth());
+    }
+
+    @Test
+    public void executeUnrelatedKeysInParallel() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch other = new CountDownLatch(1);
+        // keys 0 and 1 hash to different lanes
+        executor.execute(0, () -> {
+            try {
+                blocked.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        executor.execute(1, other::countDown);
+
+        assertTrue(other.await(5, TimeUnit.SECONDS));
+        blocked.countDown();
+        assertTrue(executor.awaitIdle(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void countFailedTasks() throws Exception {
+        executor.execute("key", () -> {
+            throw new IllegalStateException("failure");
+        });
+        executor.execute("key", () -> { });
+
+        assertTrue(executor.awaitIdle(5, TimeUnit.SECONDS));
+        assertEquals(2, executor.getCompletedTasks());
+        assertEquals(1, executor.getFailedTasks());
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void rejectAfterClose() {
+        executor.close();
+        executor.execute("key", () -> { });
+    }
+}
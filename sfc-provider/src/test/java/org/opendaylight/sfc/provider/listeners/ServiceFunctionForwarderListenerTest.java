@@ -222,16 +222,19 @@ public class ServiceFunctionForwarderListenerTest extends AbstractDataStoreManag
         when(dataObjectModification.getDataBefore()).thenReturn(originalServiceFunctionForwarder);
         when(dataObjectModification.getDataAfter()).thenReturn(updatedServiceFunctionForwarder);
 
-        // The listener will remove the Original Service Function Forwarder
-        // Entry and associated RSPs
+        // The listener will NOT remove the RSP, it will be rendered again
+        // keeping its path id
         collection.add(dataTreeModification);
         serviceFunctionForwarderListener.onDataTreeChanged(collection);
         Thread.sleep(500);
-        assertNull(SfcProviderRenderedPathAPI.readRenderedServicePath(renderedServicePath.getName()));
+        RenderedServicePath updatedRenderedServicePath = SfcProviderRenderedPathAPI
+                .readRenderedServicePath(renderedServicePath.getName());
+        assertNotNull(updatedRenderedServicePath);
+        assertEquals(renderedServicePath.getPathId(), updatedRenderedServicePath.getPathId());
 
-        // Verify that State was removed
+        // Verify that State was NOT removed
         List<SffServicePath> sffServicePathList = SfcProviderServiceForwarderAPI.readSffState(sffName);
-        assertNull(sffServicePathList);
+        assertNotNull(sffServicePathList);
         assertTrue(SfcDataStoreAPI.deleteTransactionAPI(SfcInstanceIdentifiers.SFF_IID,
                 LogicalDatastoreType.CONFIGURATION));
         assertTrue(SfcDataStoreAPI.deleteTransactionAPI(SfcInstanceIdentifiers.SF_IID,
@@ -247,7 +250,7 @@ public class ServiceFunctionForwarderListenerTest extends AbstractDataStoreManag
      * trigger a more complete code coverage within the listener. In order to
      * simulate a removal from the data store this test does the following: -
      * Create RSP - Update the Service node used by the SFF by setting it to
-     * null, which should cause the RSP to be deleted. - creates a IID and add
+     * null, which should cause the RSP to be rendered again. - creates a IID and add
      * to removedPaths data structure. This IID points to the SFF objects stored
      * in the original data - Call listener explicitly. - Cleans up
      */
@@ -274,16 +277,19 @@ public class ServiceFunctionForwarderListenerTest extends AbstractDataStoreManag
         when(dataObjectModification.getDataBefore()).thenReturn(originalServiceFunctionForwarder);
         when(dataObjectModification.getDataAfter()).thenReturn(updatedServiceFunctionForwarder);
 
-        // The listener will remove the Original Service Function Forwarder
-        // Entry and associated RSPs
+        // The listener will NOT remove the RSP, it will be rendered again
+        // keeping its path id
         collection.add(dataTreeModification);
         serviceFunctionForwarderListener.onDataTreeChanged(collection);
         Thread.sleep(500);
-        assertNull(SfcProviderRenderedPathAPI.readRenderedServicePath(renderedServicePath.getName()));
+        RenderedServicePath updatedRenderedServicePath = SfcProviderRenderedPathAPI
+                .readRenderedServicePath(renderedServicePath.getName());
+        assertNotNull(updatedRenderedServicePath);
+        assertEquals(renderedServicePath.getPathId(), updatedRenderedServicePath.getPathId());
 
-        // Verify that State was removed
+        // Verify that State was NOT removed
         List<SffServicePath> sffServicePathList = SfcProviderServiceForwarderAPI.readSffState(sffName);
-        assertNull(sffServicePathList);
+        assertNotNull(sffServicePathList);
 
         assertTrue(SfcDataStoreAPI.deleteTransactionAPI(SfcInstanceIdentifiers.SFF_IID,
                 LogicalDatastoreType.CONFIGURATION));
@@ -820,8 +826,8 @@ public class ServiceFunctionForwarderListenerTest extends AbstractDataStoreManag
         CreateRenderedPathInputBuilder createRenderedPathInputBuilder = new CreateRenderedPathInputBuilder();
         createRenderedPathInputBuilder.setName(RSP_NAME.getValue());
         createRenderedPathInputBuilder.setSymmetric(serviceFunctionPath.isSymmetric());
-        renderedServicePath = SfcProviderRenderedPathAPI.createRenderedServicePathAndState(serviceFunctionPath,
-                createRenderedPathInputBuilder.build());
+        renderedServicePath = SfcProviderRenderedPathAPI.createRenderedServicePathsAndState(serviceFunctionPath,
+                createRenderedPathInputBuilder.build(), null);
         assertNotNull("Must be not null", renderedServicePath);
         return renderedServicePath;
     }
@@ -280,25 +280,23 @@ public class ServiceFunctionListenerTest extends AbstractDataStoreManager {
         when(dataObjectModification.getDataBefore()).thenReturn(originalServiceFunction);
         when(dataObjectModification.getDataAfter()).thenReturn(updatedServiceFunction);
 
-        // The listener will remove the Original Service Function Type Entry and
-        // create a new one with the new type
+        // The listener will NOT remove the RSP, it will be rendered again
         collection.add(dataTreeModification);
         serviceFunctionListener.onDataTreeChanged(collection);
         Thread.sleep(500);
         // The original SF type is only deleted if the SF type changes
         assertNotNull(SfcProviderServiceTypeAPI.readServiceFunctionTypeEntry(originalServiceFunction));
         assertNotNull(SfcProviderServiceTypeAPI.readServiceFunctionTypeEntry(updatedServiceFunction));
-        assertNull(SfcProviderRenderedPathAPI.readRenderedServicePath(renderedServicePath.getName()));
+        RenderedServicePath updatedRenderedServicePath = SfcProviderRenderedPathAPI
+                .readRenderedServicePath(renderedServicePath.getName());
+        assertNotNull(updatedRenderedServicePath);
+        assertEquals(renderedServicePath.getPathId(), updatedRenderedServicePath.getPathId());
+        assertTrue(SfcProviderServiceFunctionAPI.getRspsBySfName(originalServiceFunction.getName())
+                .contains(renderedServicePath.getName()));
 
         // Clean-up
         assertTrue(SfcProviderServiceTypeAPI.deleteServiceFunctionTypeEntry(updatedServiceFunction));
-        assertNull(SfcProviderRenderedPathAPI.readRenderedServicePath(renderedServicePath.getName()));
-        List<RspName> rspNameList = SfcProviderServiceFunctionAPI.getRspsBySfName(originalServiceFunction.getName());
-        if (rspNameList != null) {
-            for (RspName rspName : rspNameList) {
-                assertNotEquals(rspName, renderedServicePath.getName());
-            }
-        }
+        assertTrue(SfcProviderRenderedPathAPI.deleteRenderedServicePath(renderedServicePath.getName()));
 
         assertTrue(SfcDataStoreAPI.deleteTransactionAPI(SfcInstanceIdentifiers.SFF_IID,
                 LogicalDatastoreType.CONFIGURATION));
@@ -787,8 +785,8 @@ public class ServiceFunctionListenerTest extends AbstractDataStoreManager {
         CreateRenderedPathInputBuilder createRenderedPathInputBuilder = new CreateRenderedPathInputBuilder();
         createRenderedPathInputBuilder.setName(RSP_NAME);
         createRenderedPathInputBuilder.setSymmetric(serviceFunctionPath.isSymmetric());
-        renderedServicePath = SfcProviderRenderedPathAPI.createRenderedServicePathAndState(serviceFunctionPath,
-                createRenderedPathInputBuilder.build());
+        renderedServicePath = SfcProviderRenderedPathAPI.createRenderedServicePathsAndState(serviceFunctionPath,
+                createRenderedPathInputBuilder.build(), null);
         assertNotNull("Must be not null", renderedServicePath);
         return renderedServicePath;
     }
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2017 Ericsson S.A. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.perf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Test Suite to test the LatencyHistogram class.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testEmptyHistogram() {
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getValueAtPercentile(0.99));
+    }
+
+    @Test
+    public void testBucketBoundaries() {
+        // every value falls in a bucket whose upper bound is not below it
+        // and within the histogram precision
+        for (long value = 0; value < 1 << 20; value += 7) {
+            long upperBound = LatencyHistogram.bucketUpperBound(LatencyHistogram.bucketIndex(value));
+            assertTrue(upperBound >= value);
+            assertTrue(upperBound - value <= value / 16);
+        }
+        long upperBound = LatencyHistogram.bucketUpperBound(
+                LatencyHistogram.bucketIndex(LatencyHistogram.MAX_TRACKABLE_VALUE));
+        assertEquals(LatencyHistogram.MAX_TRACKABLE_VALUE, upperBound);
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000);
+        }
+        histogram.record(-1);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(1000000, snapshot.getMax());
+        assertWithinPrecision(500000, snapshot.getValueAtPercentile(0.5));
+        assertWithinPrecision(990000, snapshot.getValueAtPercentile(0.99));
+        assertWithinPrecision(999000, snapshot.getValueAtPercentile(0.999));
+        assertEquals(1000000, snapshot.getValueAtPercentile(1.0));
+    }
+
+    @Test
+    public void testReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1000);
+        histogram.reset();
+        assertEquals(0, histogram.snapshot().getCount());
+        assertEquals(0, histogram.snapshot().getMax());
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue("Expected " + expected + " but was " + actual,
+                actual >= expected && actual - expected <= expected / 16);
+    }
+}
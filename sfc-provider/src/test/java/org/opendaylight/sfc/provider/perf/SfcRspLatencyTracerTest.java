@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2017 Ericsson S.A. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.perf;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test Suite to test the SfcRspLatencyTracer class.
+ */
+public class SfcRspLatencyTracerTest {
+
+    private static final long PATH_ID = 10L;
+
+    @Before
+    public void setUp() {
+        SfcRspLatencyTracer.setEnabled(true);
+        SfcRspLatencyTracer.reset();
+    }
+
+    @After
+    public void tearDown() {
+        SfcRspLatencyTracer.reset();
+    }
+
+    @Test
+    public void testCompleteTrace() {
+        long startTime = SfcRspLatencyTracer.now();
+        long scheduledTime = SfcRspLatencyTracer.recordStage(RspLifecycleStage.SCHEDULING, startTime);
+        SfcRspLatencyTracer.recordStage(RspLifecycleStage.PATH_ID_ALLOCATION, scheduledTime);
+        SfcRspLatencyTracer.startTrace(PATH_ID, startTime);
+        SfcRspLatencyTracer.markStage(PATH_ID, RspLifecycleStage.RSP_COMMIT);
+        SfcRspLatencyTracer.markStage(PATH_ID, RspLifecycleStage.RENDERER_DISPATCH);
+        SfcRspLatencyTracer.markStage(PATH_ID, RspLifecycleStage.FLOW_GENERATION);
+        SfcRspLatencyTracer.markStage(PATH_ID, RspLifecycleStage.FLOW_FLUSH);
+        SfcRspLatencyTracer.markStage(PATH_ID, RspLifecycleStage.FLOW_COMMIT);
+        // the trace is finished, further marks are ignored
+        SfcRspLatencyTracer.markStage(PATH_ID, RspLifecycleStage.FLOW_COMMIT);
+
+        getCountsByStage().values().forEach(count -> assertEquals(1L, (long) count));
+    }
+
+    @Test
+    public void testMarkWithoutTrace() {
+        SfcRspLatencyTracer.markStage(PATH_ID, RspLifecycleStage.FLOW_GENERATION);
+        assertEquals(0L, (long) getCountsByStage().get(RspLifecycleStage.FLOW_GENERATION.name()));
+    }
+
+    @Test
+    public void testDiscardedTrace() {
+        SfcRspLatencyTracer.startTrace(PATH_ID, SfcRspLatencyTracer.now());
+        SfcRspLatencyTracer.discardTrace(PATH_ID);
+        SfcRspLatencyTracer.markStage(PATH_ID, RspLifecycleStage.FLOW_COMMIT);
+
+        Map<String, Long> counts = getCountsByStage();
+        assertEquals(0L, (long) counts.get(RspLifecycleStage.FLOW_COMMIT.name()));
+        assertEquals(0L, (long) counts.get(RspLifecycleStage.TOTAL.name()));
+    }
+
+    @Test
+    public void testStaleTraceExpires() {
+        long startTime = SfcRspLatencyTracer.now();
+        SfcRspLatencyTracer.startTrace(PATH_ID, startTime - LatencyHistogram.MAX_TRACKABLE_VALUE - 1);
+        for (long pathId = 1; pathId < SfcRspLatencyTracer.MAX_ONGOING_TRACES; pathId++) {
+            SfcRspLatencyTracer.startTrace(PATH_ID + pathId, startTime);
+        }
+        long newPathId = PATH_ID + SfcRspLatencyTracer.MAX_ONGOING_TRACES;
+        SfcRspLatencyTracer.startTrace(newPathId, startTime);
+
+        SfcRspLatencyTracer.markStage(PATH_ID, RspLifecycleStage.FLOW_COMMIT);
+        SfcRspLatencyTracer.markStage(newPathId, RspLifecycleStage.FLOW_COMMIT);
+        assertEquals(1L, (long) getCountsByStage().get(RspLifecycleStage.TOTAL.name()));
+    }
+
+    @Test
+    public void testOldestTraceEvicted() {
+        long startTime = SfcRspLatencyTracer.now();
+        for (long pathId = 0; pathId < SfcRspLatencyTracer.MAX_ONGOING_TRACES; pathId++) {
+            SfcRspLatencyTracer.startTrace(PATH_ID + pathId, startTime + pathId);
+        }
+        long newPathId = PATH_ID + SfcRspLatencyTracer.MAX_ONGOING_TRACES;
+        SfcRspLatencyTracer.startTrace(newPathId, startTime + SfcRspLatencyTracer.MAX_ONGOING_TRACES);
+
+        SfcRspLatencyTracer.markStage(PATH_ID, RspLifecycleStage.FLOW_COMMIT);
+        assertEquals(0L, (long) getCountsByStage().get(RspLifecycleStage.TOTAL.name()));
+        SfcRspLatencyTracer.markStage(PATH_ID + 1, RspLifecycleStage.FLOW_COMMIT);
+        SfcRspLatencyTracer.markStage(newPathId, RspLifecycleStage.FLOW_COMMIT);
+        assertEquals(2L, (long) getCountsByStage().get(RspLifecycleStage.TOTAL.name()));
+    }
+
+    @Test
+    public void testDisabled() {
+        SfcRspLatencyTracer.setEnabled(false);
+        long startTime = SfcRspLatencyTracer.now();
+        SfcRspLatencyTracer.recordStage(RspLifecycleStage.SCHEDULING, startTime);
+        SfcRspLatencyTracer.startTrace(PATH_ID, startTime);
+        SfcRspLatencyTracer.markStage(PATH_ID, RspLifecycleStage.FLOW_COMMIT);
+        SfcRspLatencyTracer.setEnabled(true);
+
+        getCountsByStage().values().forEach(count -> assertEquals(0L, (long) count));
+    }
+
+    private static Map<String, Long> getCountsByStage() {
+        List<RspStageLatency> latencies = SfcRspLatencyTracer.getStageLatencies();
+        assertEquals(RspLifecycleStage.values().length, latencies.size());
+        return latencies.stream().collect(Collectors.toMap(RspStageLatency::getStage, RspStageLatency::getCount));
+    }
+}
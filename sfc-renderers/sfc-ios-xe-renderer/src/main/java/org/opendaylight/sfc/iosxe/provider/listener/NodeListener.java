@@ -13,8 +13,8 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
-import org.opendaylight.genius.datastoreutils.listeners.AbstractSyncDataTreeChangeListener;
 import org.opendaylight.sfc.iosxe.provider.renderer.NodeManager;
+import org.opendaylight.sfc.provider.listeners.AbstractKeyedAsyncDataTreeChangeListener;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NetworkTopology;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.Topology;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
@@ -24,7 +24,7 @@ import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
  * DataChangeListener attached to the Network Topology.
  */
 @Singleton
-public class NodeListener extends AbstractSyncDataTreeChangeListener<Node> {
+public class NodeListener extends AbstractKeyedAsyncDataTreeChangeListener<Node> {
 
     private final NodeManager nodeManager;
 
@@ -8,18 +8,24 @@
 
 package org.opendaylight.sfc.iosxe.provider.listener;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
-import org.opendaylight.genius.datastoreutils.listeners.AbstractSyncDataTreeChangeListener;
 import org.opendaylight.sfc.iosxe.provider.renderer.IosXeRspProcessor;
+import org.opendaylight.sfc.provider.listeners.AbstractKeyedAsyncDataTreeChangeListener;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.RenderedServicePaths;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePathKey;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 
 @Singleton
-public class RenderedPathListener extends AbstractSyncDataTreeChangeListener<RenderedServicePaths> {
+public class RenderedPathListener extends AbstractKeyedAsyncDataTreeChangeListener<RenderedServicePaths> {
 
     private final IosXeRspProcessor rspProcessor;
 
@@ -36,14 +42,27 @@ public class RenderedPathListener extends AbstractSyncDataTreeChangeListener<Ren
 
     @Override
     public void remove(@Nonnull RenderedServicePaths renderedServicePaths) {
-        renderedServicePaths.getRenderedServicePath().forEach(rspProcessor::deleteRsp);
+        if (renderedServicePaths.getRenderedServicePath() != null) {
+            rspProcessor.deleteRsps(renderedServicePaths.getRenderedServicePath());
+        }
     }
 
     @Override
     public void update(@Nonnull RenderedServicePaths originalRenderedServicePaths,
                        RenderedServicePaths updatedRenderedServicePaths) {
-        if (updatedRenderedServicePaths.getRenderedServicePath() != null) {
-            updatedRenderedServicePaths.getRenderedServicePath().forEach(rspProcessor::updateRsp);
+        List<RenderedServicePath> updatedRsps = updatedRenderedServicePaths.getRenderedServicePath() == null
+                ? Collections.emptyList() : updatedRenderedServicePaths.getRenderedServicePath();
+        if (originalRenderedServicePaths.getRenderedServicePath() != null) {
+            Set<RenderedServicePathKey> updatedKeys = updatedRsps.stream().map(RenderedServicePath::getKey)
+                    .collect(Collectors.toSet());
+            List<RenderedServicePath> removedRsps = originalRenderedServicePaths.getRenderedServicePath().stream()
+                    .filter(rsp -> !updatedKeys.contains(rsp.getKey())).collect(Collectors.toList());
+            if (!removedRsps.isEmpty()) {
+                rspProcessor.deleteRsps(removedRsps);
+            }
+        }
+        if (!updatedRsps.isEmpty()) {
+            rspProcessor.updateRsps(updatedRsps);
         }
     }
 }
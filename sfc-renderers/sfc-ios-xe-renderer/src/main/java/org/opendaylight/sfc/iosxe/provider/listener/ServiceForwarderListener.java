@@ -13,13 +13,13 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
-import org.opendaylight.genius.datastoreutils.listeners.AbstractSyncDataTreeChangeListener;
 import org.opendaylight.sfc.iosxe.provider.renderer.IosXeServiceForwarderMapper;
+import org.opendaylight.sfc.provider.listeners.AbstractKeyedAsyncDataTreeChangeListener;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.ServiceFunctionForwarders;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 
 @Singleton
-public class ServiceForwarderListener extends AbstractSyncDataTreeChangeListener<ServiceFunctionForwarders> {
+public class ServiceForwarderListener extends AbstractKeyedAsyncDataTreeChangeListener<ServiceFunctionForwarders> {
 
     private final IosXeServiceForwarderMapper sffManager;
 
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.iosxe.provider.renderer;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import org.opendaylight.sfc.iosxe.provider.utils.IosXeConfigDelta;
+import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.ServicePath;
+import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.service.function.forwarder.ServiceFfName;
+
+/**
+ * The service chain configuration rendered on an IOS-XE device: the service
+ * paths, and the remote forwarders they send traffic to. A remote forwarder
+ * is shared by all the paths leaving the device towards it and is only
+ * removed with the last of them.
+ */
+public class IosXeDeviceConfig {
+
+    private final Map<Long, ServicePath> servicePaths;
+    private final Map<String, ServiceFfName> remoteForwarders;
+    // the ids of the paths using each remote forwarder
+    private final Map<String, Set<Long>> remoteForwarderPaths;
+
+    public IosXeDeviceConfig() {
+        servicePaths = new HashMap<>();
+        remoteForwarders = new HashMap<>();
+        remoteForwarderPaths = new HashMap<>();
+    }
+
+    public IosXeDeviceConfig(IosXeDeviceConfig config) {
+        servicePaths = new HashMap<>(config.servicePaths);
+        remoteForwarders = new HashMap<>(config.remoteForwarders);
+        remoteForwarderPaths = new HashMap<>();
+        config.remoteForwarderPaths.forEach((name, pathIds) -> remoteForwarderPaths.put(name, new HashSet<>(pathIds)));
+    }
+
+    /**
+     * Add a service path, or replace the one with the same id.
+     *
+     * @param servicePath
+     *            the service path
+     * @param usedRemoteForwarders
+     *            the remote forwarders the path sends traffic to
+     */
+    public void putServicePath(ServicePath servicePath, Collection<ServiceFfName> usedRemoteForwarders) {
+        Long pathId = servicePath.getServicePathId();
+        removeServicePath(pathId);
+        servicePaths.put(pathId, servicePath);
+        for (ServiceFfName remoteForwarder : usedRemoteForwarders) {
+            remoteForwarders.put(remoteForwarder.getName(), remoteForwarder);
+            remoteForwarderPaths.computeIfAbsent(remoteForwarder.getName(), name -> new HashSet<>()).add(pathId);
+        }
+    }
+
+    /**
+     * Remove a service path, and the remote forwarders no other path uses.
+     *
+     * @param pathId
+     *            the id of the service path
+     */
+    public void removeServicePath(Long pathId) {
+        servicePaths.remove(pathId);
+        Iterator<Map.Entry<String, Set<Long>>> iterator = remoteForwarderPaths.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Set<Long>> entry = iterator.next();
+            if (entry.getValue().remove(pathId) && entry.getValue().isEmpty()) {
+                remoteForwarders.remove(entry.getKey());
+                iterator.remove();
+            }
+        }
+    }
+
+    public boolean containsServicePath(Long pathId) {
+        return servicePaths.containsKey(pathId);
+    }
+
+    public ServicePath getServicePath(Long pathId) {
+        return servicePaths.get(pathId);
+    }
+
+    public ServiceFfName getRemoteForwarder(String name) {
+        return remoteForwarders.get(name);
+    }
+
+    public boolean isEmpty() {
+        return servicePaths.isEmpty() && remoteForwarders.isEmpty();
+    }
+
+    /**
+     * Compute the changes that turn this configuration into another one.
+     *
+     * @param config
+     *            the configuration to turn this one into
+     * @return the changes, empty if both configurations are the same
+     */
+    public IosXeConfigDelta diff(IosXeDeviceConfig config) {
+        IosXeConfigDelta configDelta = new IosXeConfigDelta();
+        config.remoteForwarders.forEach((name, remoteForwarder) -> {
+            if (!remoteForwarder.equals(remoteForwarders.get(name))) {
+                configDelta.mergeRemoteForwarder(remoteForwarder);
+            }
+        });
+        config.servicePaths.forEach((pathId, servicePath) -> {
+            if (!servicePath.equals(servicePaths.get(pathId))) {
+                configDelta.mergeServicePath(servicePath);
+            }
+        });
+        servicePaths.forEach((pathId, servicePath) -> {
+            if (!config.servicePaths.containsKey(pathId)) {
+                configDelta.deleteServicePath(servicePath.getKey());
+            }
+        });
+        remoteForwarders.forEach((name, remoteForwarder) -> {
+            if (!config.remoteForwarders.containsKey(name)) {
+                configDelta.deleteRemoteForwarder(remoteForwarder);
+            }
+        });
+        return configDelta;
+    }
+}
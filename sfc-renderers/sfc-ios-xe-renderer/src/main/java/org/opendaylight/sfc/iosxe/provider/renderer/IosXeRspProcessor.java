@@ -8,31 +8,44 @@
 
 package org.opendaylight.sfc.iosxe.provider.renderer;
 
-import static org.opendaylight.sfc.iosxe.provider.utils.IosXeDataStoreAPI.Transaction.DELETE_PATH;
-import static org.opendaylight.sfc.iosxe.provider.utils.IosXeDataStoreAPI.Transaction.WRITE_PATH;
-import static org.opendaylight.sfc.iosxe.provider.utils.IosXeDataStoreAPI.Transaction.WRITE_REMOTE;
+import static org.opendaylight.sfc.iosxe.provider.utils.IosXeDataStoreAPI.Transaction.COMMIT_CONFIG;
 import static org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.rsp.manager.rev160421.renderer.path.states.renderer.path.state.configured.rendered.paths.ConfiguredRenderedPath.PathStatus.Failure;
 import static org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.rsp.manager.rev160421.renderer.path.states.renderer.path.state.configured.rendered.paths.ConfiguredRenderedPath.PathStatus.InProgress;
 import static org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.rsp.manager.rev160421.renderer.path.states.renderer.path.state.configured.rendered.paths.ConfiguredRenderedPath.PathStatus.Success;
 
 import com.google.common.base.Preconditions;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.iosxe.provider.utils.IosXeConfigDelta;
 import org.opendaylight.sfc.iosxe.provider.utils.IosXeDataStoreAPI;
 import org.opendaylight.sfc.iosxe.provider.utils.RspStatus;
 import org.opendaylight.sfc.iosxe.provider.utils.SfcIosXeUtils;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceFunctionAPI;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHop;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.ServiceFunctions;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
 import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.ServicePath;
@@ -51,13 +64,28 @@ import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.serv
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Renders RSPs as service paths on the IOS-XE devices of their SFFs.
+ *
+ * <p>
+ * The configuration last committed to each device is kept. RSPs are rendered
+ * in batches: the desired configuration of every device involved is built
+ * for the whole batch, diffed against the last one, and only the changes are
+ * committed, in a single transaction per device. The devices are configured
+ * in parallel.
+ */
 @Singleton
 public class IosXeRspProcessor {
 
     private static final Logger LOG = LoggerFactory.getLogger(IosXeRspProcessor.class);
 
+    private static final int DEVICE_THREADS = 10;
+
     private final DataBroker dataBroker;
     private final NodeManager nodeManager;
+    private final ExecutorService executor = Executors.newFixedThreadPool(DEVICE_THREADS);
+    // the configuration last committed to the device of each SFF
+    private final Map<SffName, IosXeDeviceConfig> deviceConfigs = new HashMap<>();
 
     @Inject
     public IosXeRspProcessor(DataBroker dataBroker, NodeManager nodeManager) {
@@ -66,146 +94,214 @@ public class IosXeRspProcessor {
     }
 
     public void updateRsp(RenderedServicePath renderedServicePath) {
-        // Set status
-        RspStatus status = new RspStatus(dataBroker, renderedServicePath.getName());
-        status.writeStatus(InProgress);
+        updateRsps(Collections.singletonList(renderedServicePath));
+    }
 
-        Preconditions.checkNotNull(renderedServicePath);
-        Long pathId = renderedServicePath.getPathId();
+    /**
+     * Render RSPs, replacing the service paths previously rendered for them.
+     *
+     * @param renderedServicePaths
+     *            the RSPs to render
+     */
+    public synchronized void updateRsps(Collection<RenderedServicePath> renderedServicePaths) {
+        ConfigBatch batch = new ConfigBatch();
+        Set<SfName> sfNames = readServiceFunctionNames();
+        Map<RspName, Set<SffName>> rspSffNames = new LinkedHashMap<>();
+        Set<RspName> failedRspNames = new HashSet<>();
+        for (RenderedServicePath renderedServicePath : renderedServicePaths) {
+            Preconditions.checkNotNull(renderedServicePath);
+            // Set status
+            new RspStatus(dataBroker, renderedServicePath.getName()).writeStatus(InProgress);
 
-        DataBroker previousMountPoint;
-        DataBroker currentMountpoint;
-        SffName previousSffName;
-        SffName currentSffName;
-        if (renderedServicePath.getRenderedServicePathHop() == null
-                || renderedServicePath.getRenderedServicePathHop().isEmpty()) {
-            LOG.warn("Rendered path {} does not contain any hop", renderedServicePath.getName().getValue());
-            status.writeStatus(Failure);
-            return;
+            Long pathId = renderedServicePath.getPathId();
+            Set<SffName> sffNames = batch.removeServicePath(pathId);
+            Map<SffName, DevicePath> devicePaths = renderRsp(renderedServicePath, sfNames, batch);
+            if (devicePaths == null) {
+                // the previous service paths of the RSP are removed
+                failedRspNames.add(renderedServicePath.getName());
+            } else {
+                devicePaths.forEach((sffName, devicePath) -> batch.getConfig(sffName).putServicePath(
+                        createServicePath(pathId, devicePath.services), devicePath.remoteForwarders));
+                sffNames.addAll(devicePaths.keySet());
+            }
+            rspSffNames.put(renderedServicePath.getName(), sffNames);
         }
-        Iterator<RenderedServicePathHop> rspHopIterator = renderedServicePath.getRenderedServicePathHop().iterator();
-        // Proceed first hop in Rsp. Service Type choice for first hop is always
-        // Service Function
-        RenderedServicePathHop hop = rspHopIterator.next();
-        currentSffName = hop.getServiceFunctionForwarder();
-        currentMountpoint = getSffMountpoint(currentSffName);
-        if (currentMountpoint == null) {
-            LOG.error("Resolving of RSP {} failed, mountpoint for SFF {} is null",
-                    renderedServicePath.getName().getValue(), currentSffName.getValue());
-            deleteRsp(renderedServicePath);
-            status.writeStatus(Failure);
-            return;
+
+        Set<SffName> failedSffNames = commit(batch);
+        rspSffNames.forEach((rspName, sffNames) -> {
+            RspStatus status = new RspStatus(dataBroker, rspName);
+            if (failedRspNames.contains(rspName) || !Collections.disjoint(sffNames, failedSffNames)) {
+                status.writeStatus(Failure);
+            } else {
+                LOG.info("Rendered service path {} successfully processed", rspName.getValue());
+                status.writeStatus(Success);
+            }
+        });
+    }
+
+    public void deleteRsp(RenderedServicePath renderedServicePath) {
+        deleteRsps(Collections.singletonList(renderedServicePath));
+    }
+
+    /**
+     * Remove the service paths rendered for RSPs.
+     *
+     * @param renderedServicePaths
+     *            the RSPs to remove
+     */
+    public synchronized void deleteRsps(Collection<RenderedServicePath> renderedServicePaths) {
+        ConfigBatch batch = new ConfigBatch();
+        Map<Long, Set<SffName>> pathSffNames = new LinkedHashMap<>();
+        for (RenderedServicePath renderedServicePath : renderedServicePaths) {
+            Long pathId = renderedServicePath.getPathId();
+            Set<SffName> sffNames = batch.removeServicePath(pathId);
+            if (sffNames.isEmpty() && renderedServicePath.getRenderedServicePathHop() != null) {
+                // not rendered by this instance, remove it from all its hops
+                for (RenderedServicePathHop renderedServicePathHop : renderedServicePath.getRenderedServicePathHop()) {
+                    SffName sffName = renderedServicePathHop.getServiceFunctionForwarder();
+                    batch.deleteUnknownServicePath(sffName, pathId);
+                    sffNames.add(sffName);
+                }
+            }
+            pathSffNames.put(pathId, sffNames);
         }
-        // New list of services has to be created every time new mountpoint is
-        // created
-        List<Services> services = new ArrayList<>();
-        SfName sfName = hop.getServiceFunctionName();
-        ServiceFunction serviceFunction = SfcProviderServiceFunctionAPI.readServiceFunction(sfName);
-        if (serviceFunction == null) {
-            LOG.error("Service function {} not present in datastore", sfName.getValue());
-            return;
+
+        Set<SffName> failedSffNames = commit(batch);
+        pathSffNames.forEach((pathId, sffNames) -> {
+            if (Collections.disjoint(sffNames, failedSffNames)) {
+                LOG.info("Service path {} removed", pathId);
+            } else {
+                LOG.error("Failed to remove service path {}", pathId);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * Build the service paths of an RSP on the devices of its SFFs. The hops
+     * on the same SFF are rendered as service function entries of the path on
+     * its device. The last entry on a device sends the traffic to the next
+     * SFF, which is configured there as remote forwarder, and the last hop is
+     * followed by a terminate entry.
+     *
+     * @return the service path entries and the remote forwarders of each
+     *         device, null if the RSP cannot be rendered
+     */
+    private Map<SffName, DevicePath> renderRsp(RenderedServicePath renderedServicePath, Set<SfName> sfNames,
+            ConfigBatch batch) {
+        String rspName = renderedServicePath.getName().getValue();
+        if (renderedServicePath.getRenderedServicePathHop() == null
+                || renderedServicePath.getRenderedServicePathHop().isEmpty()) {
+            LOG.warn("Rendered path {} does not contain any hop", rspName);
+            return null;
         }
-        ServiceTypeChoice serviceTypeChoice = buildServiceFunctionChoice(serviceFunction);
+
+        Map<SffName, DevicePath> devicePaths = new LinkedHashMap<>();
+        DevicePath devicePath = null;
+        SffName previousSffName = null;
         short serviceIndex = renderedServicePath.getStartingIndex().shortValue();
-        Services serviceEntry = createServicesEntry(serviceIndex, serviceTypeChoice);
-        services.add(serviceEntry);
-        serviceIndex--;
-        while (rspHopIterator.hasNext()) {
-            hop = rspHopIterator.next();
-            // Find out whether next hop SF is connected to the same SFF
-            previousSffName = currentSffName;
-            currentSffName = hop.getServiceFunctionForwarder();
-            if (previousSffName.equals(currentSffName)) {
-                // Next hop SF is on the same local SFF/node as the previous one
-                sfName = hop.getServiceFunctionName();
-                serviceFunction = SfcProviderServiceFunctionAPI.readServiceFunction(sfName);
-                if (serviceFunction == null) {
-                    LOG.error("Service function {} not present in datastore", sfName.getValue());
-                    return;
-                }
-                serviceTypeChoice = buildServiceFunctionChoice(serviceFunction);
-                serviceEntry = createServicesEntry(serviceIndex, serviceTypeChoice);
-                services.add(serviceEntry);
-                serviceIndex--;
-            } else {
-                // Next hop SF is on different node. Store previous SFF and its
-                // mountpoint
-                previousMountPoint = currentMountpoint;
-                currentSffName = hop.getServiceFunctionForwarder();
-                currentMountpoint = getSffMountpoint(currentSffName);
-                if (currentMountpoint == null) {
-                    LOG.error("Resolving of RSP {} failed, mountpoint for SFF {} is null",
-                            renderedServicePath.getName().getValue(), currentSffName.getValue());
-                    deleteRsp(renderedServicePath);
-                    status.writeStatus(Failure);
-                    return;
-                }
-                // Write current SFF to previous SFF node as remote
-                ServiceFfName currentRemoteForwarder = SfcIosXeUtils.createRemoteForwarder(currentSffName);
-                if (currentRemoteForwarder == null) {
-                    LOG.error("SFF {} ip address is null", currentSffName.getValue());
-                    deleteRsp(renderedServicePath);
-                    status.writeStatus(Failure);
-                    return;
+        for (RenderedServicePathHop hop : renderedServicePath.getRenderedServicePathHop()) {
+            SffName sffName = hop.getServiceFunctionForwarder();
+            if (!sffName.equals(previousSffName)) {
+                if (batch.getMountpoint(sffName) == null) {
+                    LOG.error("Resolving of RSP {} failed, mountpoint for SFF {} is null", rspName,
+                            sffName.getValue());
+                    return null;
                 }
-                new IosXeDataStoreAPI(previousMountPoint, currentRemoteForwarder, WRITE_REMOTE,
-                        LogicalDatastoreType.CONFIGURATION).call();
-                // Create last service entry to previous node which sends
-                // traffic to current node
-                serviceTypeChoice = buildServiceFunctionForwarderChoice(currentSffName.getValue());
-                serviceEntry = createServicesEntry(serviceIndex, serviceTypeChoice);
-                services.add(serviceEntry);
-                // List of services completed for last mountpoint, create
-                // service path entries and write it
-                ServicePath servicePath = createServicePath(pathId, services);
-                new IosXeDataStoreAPI(previousMountPoint, servicePath, WRITE_PATH, LogicalDatastoreType.CONFIGURATION)
-                        .call();
-                // Start with new services list
-                services = new ArrayList<>();
-                sfName = hop.getServiceFunctionName();
-                serviceFunction = SfcProviderServiceFunctionAPI.readServiceFunction(sfName);
-                if (serviceFunction == null) {
-                    LOG.error("Service function {} not present in datastore", sfName.getValue());
-                    return;
+                if (devicePath != null) {
+                    // Next hop SF is on different node, the previous node
+                    // sends the traffic to it as remote forwarder
+                    ServiceFfName remoteForwarder = batch.getRemoteForwarder(sffName);
+                    if (remoteForwarder == null) {
+                        LOG.error("SFF {} ip address is null", sffName.getValue());
+                        return null;
+                    }
+                    devicePath.remoteForwarders.add(remoteForwarder);
+                    devicePath.services.add(createServicesEntry(serviceIndex,
+                            buildServiceFunctionForwarderChoice(sffName.getValue())));
                 }
-                serviceTypeChoice = buildServiceFunctionChoice(serviceFunction);
-                serviceEntry = createServicesEntry(serviceIndex, serviceTypeChoice);
-                services.add(serviceEntry);
-                serviceIndex--;
+                devicePath = devicePaths.computeIfAbsent(sffName, name -> new DevicePath());
+                previousSffName = sffName;
+            }
+
+            SfName sfName = hop.getServiceFunctionName();
+            if (!sfNames.contains(sfName)) {
+                LOG.error("Service function {} not present in datastore", sfName.getValue());
+                return null;
             }
+            devicePath.services.add(createServicesEntry(serviceIndex, buildServiceFunctionChoice(sfName)));
+            serviceIndex--;
         }
-        // Proceed last entry (it's the same hop as the previous one using same
-        // mountpoint and list of services)
-        // Service Type choice is always Terminate
-        serviceTypeChoice = buildTerminateChoice();
-        serviceEntry = createServicesEntry(serviceIndex, serviceTypeChoice);
-        services.add(serviceEntry);
-        // List of services completed for last mountpoint, create last service
-        // path entries and write it
-        ServicePath servicePath = createServicePath(pathId, services);
-        new IosXeDataStoreAPI(currentMountpoint, servicePath, WRITE_PATH, LogicalDatastoreType.CONFIGURATION).call();
-        LOG.info("Rendered service path {} successfully processed", renderedServicePath.getName().getValue());
-        status.writeStatus(Success);
+        // Service Type choice of the last entry is always Terminate
+        devicePath.services.add(createServicesEntry(serviceIndex, buildTerminateChoice()));
+        return devicePaths;
     }
 
-    public void deleteRsp(RenderedServicePath renderedServicePath) {
-        boolean success = true;
-        long pathId = renderedServicePath.getPathId();
-        ServicePathKey servicePathKey = new ServicePathKey(pathId);
-        for (RenderedServicePathHop renderedServicePathHop : renderedServicePath.getRenderedServicePathHop()) {
-            SffName sffName = renderedServicePathHop.getServiceFunctionForwarder();
-            DataBroker sffDataBroker = getSffMountpoint(sffName);
-            boolean transaction = (boolean) new IosXeDataStoreAPI(sffDataBroker, servicePathKey, DELETE_PATH,
-                    LogicalDatastoreType.CONFIGURATION).call();
-            if (!transaction) {
-                success = false;
+    /**
+     * Commit the changes of the device configurations of a batch, in
+     * parallel.
+     *
+     * @return the SFFs whose device could not be configured, their last
+     *         committed configuration is kept so that the next batch retries
+     */
+    private Set<SffName> commit(ConfigBatch batch) {
+        Set<SffName> failedSffNames = new HashSet<>();
+        Map<SffName, Future<Object>> commits = new HashMap<>();
+        batch.configs.forEach((sffName, config) -> {
+            IosXeDeviceConfig deviceConfig = deviceConfigs.getOrDefault(sffName, new IosXeDeviceConfig());
+            IosXeConfigDelta configDelta = deviceConfig.diff(config);
+            batch.unknownServicePaths.getOrDefault(sffName, Collections.emptySet())
+                    .forEach(configDelta::deleteServicePath);
+            if (configDelta.isEmpty()) {
+                return;
+            }
+            DataBroker mountpoint = batch.getMountpoint(sffName);
+            if (mountpoint == null) {
+                LOG.error("Unable to configure SFF {}, mountpoint is null", sffName.getValue());
+                failedSffNames.add(sffName);
+                return;
+            }
+            LOG.debug("Committing {} to SFF {}", configDelta, sffName.getValue());
+            commits.put(sffName, executor.submit(() -> new IosXeDataStoreAPI(mountpoint, configDelta,
+                    COMMIT_CONFIG, LogicalDatastoreType.CONFIGURATION).call()));
+        });
+
+        commits.forEach((sffName, commit) -> {
+            try {
+                if (!Boolean.TRUE.equals(commit.get())) {
+                    failedSffNames.add(sffName);
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                LOG.error("Failed to configure SFF {}", sffName.getValue(), e);
+                failedSffNames.add(sffName);
+            }
+        });
+
+        batch.configs.forEach((sffName, config) -> {
+            if (failedSffNames.contains(sffName)) {
+                LOG.error("Failed to configure SFF {}", sffName.getValue());
+            } else if (config.isEmpty()) {
+                deviceConfigs.remove(sffName);
+            } else {
+                deviceConfigs.put(sffName, config);
+            }
+        });
+        return failedSffNames;
+    }
+
+    private static Set<SfName> readServiceFunctionNames() {
+        Set<SfName> sfNames = new HashSet<>();
+        ServiceFunctions serviceFunctions = SfcProviderServiceFunctionAPI.readAllServiceFunctions();
+        if (serviceFunctions != null && serviceFunctions.getServiceFunction() != null) {
+            for (ServiceFunction serviceFunction : serviceFunctions.getServiceFunction()) {
+                sfNames.add(serviceFunction.getName());
             }
         }
-        if (success) {
-            LOG.info("Service path {} removed", pathId);
-        } else {
-            LOG.error("Failed to remove service path {}", pathId);
-        }
+        return sfNames;
     }
 
     private ServiceTypeChoice buildServiceFunctionForwarderChoice(String sffName) {
@@ -214,9 +310,9 @@ public class IosXeRspProcessor {
         return serviceFunctionForwarderBuilder.build();
     }
 
-    private ServiceTypeChoice buildServiceFunctionChoice(ServiceFunction serviceFunction) {
+    private ServiceTypeChoice buildServiceFunctionChoice(SfName sfName) {
         ServiceFunctionBuilder serviceFunctionTypeChoice = new ServiceFunctionBuilder();
-        serviceFunctionTypeChoice.setServiceFunction(serviceFunction.getName().getValue());
+        serviceFunctionTypeChoice.setServiceFunction(sfName.getValue());
         return serviceFunctionTypeChoice.build();
     }
 
@@ -246,21 +342,89 @@ public class IosXeRspProcessor {
         return servicesBuilder.build();
     }
 
-    private DataBroker getSffMountpoint(SffName sffName) {
-        // Read SFF from Controller CONF
-        org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701
-            .service.function.forwarders.ServiceFunctionForwarder sfcForwarder = SfcProviderServiceForwarderAPI
-                .readServiceFunctionForwarder(sffName);
-        if (sfcForwarder == null) {
-            LOG.error("SFF name {} not found in data store", sffName.getValue());
-            return null;
-        }
+    private DataBroker getSffMountpoint(ServiceFunctionForwarder sfcForwarder) {
         IpAddress sffMgmtIp = sfcForwarder.getIpMgmtAddress();
         if (sffMgmtIp == null) {
-            LOG.error("Unable to obtain management IP for SFF {}", sffName.getValue());
+            LOG.error("Unable to obtain management IP for SFF {}", sfcForwarder.getName().getValue());
             return null;
         }
         return nodeManager
                 .getMountpointFromIpAddress(new IpAddress(new Ipv4Address(sffMgmtIp.getIpv4Address().getValue())));
     }
+
+    /**
+     * The service path entries and remote forwarders of an RSP on a device.
+     */
+    private static class DevicePath {
+        private final List<Services> services = new ArrayList<>();
+        private final List<ServiceFfName> remoteForwarders = new ArrayList<>();
+    }
+
+    /**
+     * The desired device configurations of a batch of RSPs, along with the
+     * SFFs read from the data store for it.
+     */
+    private final class ConfigBatch {
+        private final Map<SffName, ServiceFunctionForwarder> sfcForwarders = new HashMap<>();
+        private final Map<SffName, DataBroker> mountpoints = new HashMap<>();
+        private final Map<SffName, ServiceFfName> remoteForwarders = new HashMap<>();
+        private final Map<SffName, IosXeDeviceConfig> configs = new HashMap<>();
+        // the service paths to delete from devices without knowing if they
+        // are configured there
+        private final Map<SffName, Set<ServicePathKey>> unknownServicePaths = new HashMap<>();
+
+        private ServiceFunctionForwarder getSfcForwarder(SffName sffName) {
+            // Read SFF from Controller CONF
+            ServiceFunctionForwarder sfcForwarder = sfcForwarders.computeIfAbsent(sffName,
+                    SfcProviderServiceForwarderAPI::readServiceFunctionForwarder);
+            if (sfcForwarder == null) {
+                LOG.error("SFF name {} not found in data store", sffName.getValue());
+            }
+            return sfcForwarder;
+        }
+
+        private DataBroker getMountpoint(SffName sffName) {
+            if (!mountpoints.containsKey(sffName)) {
+                ServiceFunctionForwarder sfcForwarder = getSfcForwarder(sffName);
+                mountpoints.put(sffName, sfcForwarder == null ? null : getSffMountpoint(sfcForwarder));
+            }
+            return mountpoints.get(sffName);
+        }
+
+        private ServiceFfName getRemoteForwarder(SffName sffName) {
+            if (!remoteForwarders.containsKey(sffName)) {
+                ServiceFunctionForwarder sfcForwarder = getSfcForwarder(sffName);
+                remoteForwarders.put(sffName,
+                        sfcForwarder == null ? null : SfcIosXeUtils.createRemoteForwarder(sfcForwarder));
+            }
+            return remoteForwarders.get(sffName);
+        }
+
+        private IosXeDeviceConfig getConfig(SffName sffName) {
+            return configs.computeIfAbsent(sffName, name -> deviceConfigs.containsKey(name)
+                    ? new IosXeDeviceConfig(deviceConfigs.get(name)) : new IosXeDeviceConfig());
+        }
+
+        /**
+         * Remove a service path from all the devices it is rendered on.
+         *
+         * @return the SFFs of the devices the path was removed from
+         */
+        private Set<SffName> removeServicePath(Long pathId) {
+            Set<SffName> sffNames = new HashSet<>(deviceConfigs.keySet());
+            sffNames.addAll(configs.keySet());
+            sffNames.removeIf(sffName -> {
+                IosXeDeviceConfig config = configs.containsKey(sffName) ? configs.get(sffName)
+                        : deviceConfigs.get(sffName);
+                return !config.containsServicePath(pathId);
+            });
+            sffNames.forEach(sffName -> getConfig(sffName).removeServicePath(pathId));
+            return sffNames;
+        }
+
+        private void deleteUnknownServicePath(SffName sffName, Long pathId) {
+            getConfig(sffName);
+            unknownServicePaths.computeIfAbsent(sffName, name -> new HashSet<>()).add(new ServicePathKey(pathId));
+        }
+    }
 }
@@ -12,9 +12,9 @@ import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -50,8 +50,8 @@ public class NodeManager implements BindingAwareProvider {
     private List<String> requiredCapabilities = new ArrayList<>();
 
     // Data
-    private final Map<NodeId, Node> connectedNodes = new HashMap<>();
-    private final Map<NodeId, DataBroker> activeMountPoints = new HashMap<>();
+    private final Map<NodeId, Node> connectedNodes = new ConcurrentHashMap<>();
+    private final Map<NodeId, DataBroker> activeMountPoints = new ConcurrentHashMap<>();
 
     @Inject
     public NodeManager(DataBroker dataBroker, BindingAwareBroker bindingAwareBroker) {
@@ -62,7 +62,7 @@ public class NodeManager implements BindingAwareProvider {
         requiredCapabilities = initializeRequiredCapabilities();
     }
 
-    public void updateNode(Node node) {
+    public synchronized void updateNode(Node node) {
         NetconfNode netconfNode = node.getAugmentation(NetconfNode.class);
         Preconditions.checkNotNull(netconfNode);
         // Check connection status
@@ -83,7 +83,7 @@ public class NodeManager implements BindingAwareProvider {
         }
     }
 
-    public void removeNode(Node node) {
+    public synchronized void removeNode(Node node) {
         NetconfNode netconfNode = node.getAugmentation(NetconfNode.class);
         Preconditions.checkNotNull(netconfNode);
         ConnectionStatus connectionStatus = netconfNode.getConnectionStatus();
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.iosxe.provider.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.ServicePath;
+import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.ServicePathKey;
+import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.service.function.forwarder.ServiceFfName;
+
+/**
+ * The changes to the service chain configuration of a device, committed in a
+ * single transaction with
+ * {@link IosXeDataStoreAPI.Transaction#COMMIT_CONFIG}.
+ */
+public class IosXeConfigDelta {
+
+    private final List<ServiceFfName> mergedRemoteForwarders = new ArrayList<>();
+    private final List<ServicePath> mergedServicePaths = new ArrayList<>();
+    private final List<ServicePathKey> deletedServicePaths = new ArrayList<>();
+    private final List<ServiceFfName> deletedRemoteForwarders = new ArrayList<>();
+
+    public IosXeConfigDelta mergeRemoteForwarder(ServiceFfName remoteForwarder) {
+        mergedRemoteForwarders.add(remoteForwarder);
+        return this;
+    }
+
+    public IosXeConfigDelta mergeServicePath(ServicePath servicePath) {
+        mergedServicePaths.add(servicePath);
+        return this;
+    }
+
+    public IosXeConfigDelta deleteServicePath(ServicePathKey servicePathKey) {
+        deletedServicePaths.add(servicePathKey);
+        return this;
+    }
+
+    public IosXeConfigDelta deleteRemoteForwarder(ServiceFfName remoteForwarder) {
+        deletedRemoteForwarders.add(remoteForwarder);
+        return this;
+    }
+
+    public List<ServiceFfName> getMergedRemoteForwarders() {
+        return mergedRemoteForwarders;
+    }
+
+    public List<ServicePath> getMergedServicePaths() {
+        return mergedServicePaths;
+    }
+
+    public List<ServicePathKey> getDeletedServicePaths() {
+        return deletedServicePaths;
+    }
+
+    public List<ServiceFfName> getDeletedRemoteForwarders() {
+        return deletedRemoteForwarders;
+    }
+
+    public boolean isEmpty() {
+        return mergedRemoteForwarders.isEmpty() && mergedServicePaths.isEmpty() && deletedServicePaths.isEmpty()
+                && deletedRemoteForwarders.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "IosXeConfigDelta [mergedRemoteForwarders=" + mergedRemoteForwarders.size() + ", mergedServicePaths="
+                + mergedServicePaths.size() + ", deletedServicePaths=" + deletedServicePaths.size()
+                + ", deletedRemoteForwarders=" + deletedRemoteForwarders.size() + "]";
+    }
+}
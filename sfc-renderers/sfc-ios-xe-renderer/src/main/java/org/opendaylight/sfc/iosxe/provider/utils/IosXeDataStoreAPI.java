@@ -46,7 +46,8 @@ public class IosXeDataStoreAPI implements Callable {
         WRITE_FUNCTION, READ_FUNCTION, DELETE_FUNCTION,
         WRITE_LOCAL, READ_LOCAL, DELETE_LOCAL,
         WRITE_REMOTE, READ_REMOTE, DELETE_REMOTE,
-        WRITE_PATH, READ_PATH, DELETE_PATH
+        WRITE_PATH, READ_PATH, DELETE_PATH,
+        COMMIT_CONFIG
     }
 
     public IosXeDataStoreAPI(DataBroker mountPoint, Object data, Transaction transaction,
@@ -182,6 +183,16 @@ public class IosXeDataStoreAPI implements Callable {
                 }
                 break;
             }
+            case COMMIT_CONFIG: {
+                try {
+                    Preconditions.checkNotNull(data);
+                    IosXeConfigDelta configDelta = (IosXeConfigDelta) data;
+                    return commitConfigTransaction(configDelta);
+                } catch (ClassCastException e) {
+                    LOG.error("Argument data {} is not an instance of IosXeConfigDelta", data, e);
+                }
+                break;
+            }
             default:
                 break;
         }
@@ -190,30 +201,8 @@ public class IosXeDataStoreAPI implements Callable {
 
     @SuppressWarnings("checkstyle:IllegalCatch")
     private <U extends DataObject> boolean writeMergeTransaction(InstanceIdentifier<U> addIID, U data) {
-        long timeout = 5000L;
-        int attempt = 0;
-        WriteTransaction transaction = null;
-        do {
-            attempt++;
-            try {
-                transaction = mountpoint.newWriteOnlyTransaction();
-            } catch (RuntimeException e) {
-                if (e.getCause().getClass().equals(NetconfDocumentedException.class)) {
-                    LOG.warn("NetconfDocumentedException thrown, retrying ({})...", attempt, e.getCause());
-                    try {
-                        Thread.sleep(timeout);
-                        timeout += 1000L;
-                    } catch (InterruptedException i) {
-                        LOG.error("Thread interrupted while waiting ... {} ", i);
-                    }
-                } else {
-                    LOG.error("Runtime exception ...", e);
-                }
-            }
-        }
-        while (attempt <= 5 && transaction == null);
+        WriteTransaction transaction = newWriteOnlyTransaction();
         if (transaction == null) {
-            LOG.error("Maximum number of attempts reached");
             return false;
         }
         try {
@@ -232,6 +221,64 @@ public class IosXeDataStoreAPI implements Callable {
 
     @SuppressWarnings("checkstyle:IllegalCatch")
     private <U extends DataObject> boolean deleteTransaction(InstanceIdentifier<U> deleteIID) {
+        WriteTransaction transaction = newWriteOnlyTransaction();
+        if (transaction == null) {
+            return false;
+        }
+        try {
+            transaction.delete(Preconditions.checkNotNull(datastoreType), deleteIID);
+            CheckedFuture<Void, TransactionCommitFailedException> submitFuture = transaction.submit();
+            submitFuture.checkedGet();
+            return true;
+        } catch (TransactionCommitFailedException e) {
+            LOG.error("Delete transaction failed", e);
+            return false;
+        } catch (Exception e) {
+            LOG.error("Delete transaction failed", e);
+            return false;
+        }
+    }
+
+    /**
+     * Commit all the changes to the service chain configuration of the device
+     * in a single transaction: the remote forwarders and service paths are
+     * merged first, then the service paths and remote forwarders no longer
+     * used are deleted.
+     */
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private boolean commitConfigTransaction(IosXeConfigDelta configDelta) {
+        WriteTransaction transaction = newWriteOnlyTransaction();
+        if (transaction == null) {
+            return false;
+        }
+        try {
+            LogicalDatastoreType type = Preconditions.checkNotNull(datastoreType);
+            for (ServiceFfName remoteSff : configDelta.getMergedRemoteForwarders()) {
+                transaction.merge(type, SfcIosXeUtils.createRemoteSffIid(remoteSff), remoteSff);
+            }
+            for (ServicePath path : configDelta.getMergedServicePaths()) {
+                transaction.merge(type, SfcIosXeUtils.createServicePathIid(path.getKey()), path);
+            }
+            for (ServicePathKey pathKey : configDelta.getDeletedServicePaths()) {
+                transaction.delete(type, SfcIosXeUtils.createServicePathIid(pathKey));
+            }
+            for (ServiceFfName remoteSff : configDelta.getDeletedRemoteForwarders()) {
+                transaction.delete(type, SfcIosXeUtils.createRemoteSffIid(remoteSff));
+            }
+            CheckedFuture<Void, TransactionCommitFailedException> submitFuture = transaction.submit();
+            submitFuture.checkedGet();
+            return true;
+        } catch (TransactionCommitFailedException e) {
+            LOG.error("Config transaction failed", e);
+            return false;
+        } catch (Exception e) {
+            LOG.error("Config transaction failed", e);
+            return false;
+        }
+    }
+
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private WriteTransaction newWriteOnlyTransaction() {
         long timeout = 5000L;
         int attempt = 0;
         WriteTransaction transaction = null;
@@ -256,20 +303,8 @@ public class IosXeDataStoreAPI implements Callable {
         while (attempt <= 5 && transaction == null);
         if (transaction == null) {
             LOG.error("Maximum number of attempts reached");
-            return false;
-        }
-        try {
-            transaction.delete(Preconditions.checkNotNull(datastoreType), deleteIID);
-            CheckedFuture<Void, TransactionCommitFailedException> submitFuture = transaction.submit();
-            submitFuture.checkedGet();
-            return true;
-        } catch (TransactionCommitFailedException e) {
-            LOG.error("Delete transaction failed", e);
-            return false;
-        } catch (Exception e) {
-            LOG.error("Delete transaction failed", e);
-            return false;
         }
+        return transaction;
     }
 
     @SuppressWarnings("checkstyle:IllegalCatch")
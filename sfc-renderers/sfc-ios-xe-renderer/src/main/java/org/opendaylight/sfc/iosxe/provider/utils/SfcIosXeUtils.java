@@ -89,6 +89,20 @@ public final class SfcIosXeUtils {
         if (sfcForwarder == null) {
             return null;
         }
+        return createRemoteForwarder(sfcForwarder);
+    }
+
+    /**
+     * Creates remote service function forwarder from an sfc forwarder already
+     * read from the data store.
+     *
+     * @param sfcForwarder
+     *            the service function forwarder
+     * @return remote SFF (ios-xe SFC entity), null if SFF does not contain data
+     *         plane locator with IP locator type
+     */
+    public static ServiceFfName createRemoteForwarder(ServiceFunctionForwarder sfcForwarder) {
+        SffName sffName = sfcForwarder.getName();
         Ipv4Address sffIp = null;
         for (SffDataPlaneLocator sffDpl : sfcForwarder.getSffDataPlaneLocator()) {
             DataPlaneLocator dataPlaneLocator = sffDpl.getDataPlaneLocator();
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.iosxe.provider.test.renderer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import org.junit.Test;
+import org.opendaylight.sfc.iosxe.provider.renderer.IosXeDeviceConfig;
+import org.opendaylight.sfc.iosxe.provider.utils.IosXeConfigDelta;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
+import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.ServicePath;
+import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.ServicePathBuilder;
+import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.ServicePathKey;
+import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.service.function.forwarder.ServiceFfName;
+import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.service.function.forwarder.ServiceFfNameBuilder;
+import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.service.function.forwarder.ServiceFfNameKey;
+import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.service.path.ConfigServiceChainPathModeBuilder;
+import org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.service.chain.service.path.config.service.chain.path.mode.ServiceIndexBuilder;
+
+public class IosXeDeviceConfigTest {
+
+    private static final String REMOTE_FORWARDER = "remote-forwarder";
+
+    @Test
+    public void diffOnlyChanges() {
+        IosXeDeviceConfig config = new IosXeDeviceConfig();
+        config.putServicePath(buildServicePath(1L), Collections.singletonList(buildRemoteServiceForwarder()));
+
+        IosXeDeviceConfig newConfig = new IosXeDeviceConfig(config);
+        IosXeConfigDelta configDelta = config.diff(newConfig);
+        assertTrue(configDelta.isEmpty());
+
+        newConfig.putServicePath(buildServicePath(2L), Collections.emptyList());
+        configDelta = config.diff(newConfig);
+        assertEquals(Collections.singletonList(buildServicePath(2L)), configDelta.getMergedServicePaths());
+        assertTrue(configDelta.getMergedRemoteForwarders().isEmpty());
+        assertTrue(configDelta.getDeletedServicePaths().isEmpty());
+        assertTrue(configDelta.getDeletedRemoteForwarders().isEmpty());
+
+        // the copy is not changed
+        assertNull(config.getServicePath(2L));
+    }
+
+    @Test
+    public void remoteForwarderSharedByPaths() {
+        IosXeDeviceConfig config = new IosXeDeviceConfig();
+        config.putServicePath(buildServicePath(1L), Collections.singletonList(buildRemoteServiceForwarder()));
+        config.putServicePath(buildServicePath(2L), Collections.singletonList(buildRemoteServiceForwarder()));
+
+        IosXeDeviceConfig newConfig = new IosXeDeviceConfig(config);
+        newConfig.removeServicePath(1L);
+        assertNotNull(newConfig.getRemoteForwarder(REMOTE_FORWARDER));
+        IosXeConfigDelta configDelta = config.diff(newConfig);
+        assertEquals(Collections.singletonList(new ServicePathKey(1L)), configDelta.getDeletedServicePaths());
+        assertTrue(configDelta.getDeletedRemoteForwarders().isEmpty());
+
+        newConfig.removeServicePath(2L);
+        assertNull(newConfig.getRemoteForwarder(REMOTE_FORWARDER));
+        assertTrue(newConfig.isEmpty());
+        configDelta = config.diff(newConfig);
+        assertEquals(2, configDelta.getDeletedServicePaths().size());
+        assertEquals(Collections.singletonList(buildRemoteServiceForwarder()),
+                configDelta.getDeletedRemoteForwarders());
+    }
+
+    @Test
+    public void replaceServicePath() {
+        IosXeDeviceConfig config = new IosXeDeviceConfig();
+        config.putServicePath(buildServicePath(1L), Collections.singletonList(buildRemoteServiceForwarder()));
+
+        // the path no longer leaves the device
+        IosXeDeviceConfig newConfig = new IosXeDeviceConfig(config);
+        newConfig.putServicePath(buildServicePath(1L), Collections.emptyList());
+        assertFalse(newConfig.isEmpty());
+        IosXeConfigDelta configDelta = config.diff(newConfig);
+        assertTrue(configDelta.getMergedServicePaths().isEmpty());
+        assertTrue(configDelta.getDeletedServicePaths().isEmpty());
+        assertEquals(Collections.singletonList(buildRemoteServiceForwarder()),
+                configDelta.getDeletedRemoteForwarders());
+    }
+
+    private ServiceFfName buildRemoteServiceForwarder() {
+        ServiceFfNameBuilder serviceFfNameBuilder = new ServiceFfNameBuilder();
+        serviceFfNameBuilder.setName(REMOTE_FORWARDER).setKey(new ServiceFfNameKey(REMOTE_FORWARDER))
+                .setIp(new org.opendaylight.yang.gen.v1.urn.ios.rev160308._native.config
+                        .service.chain.grouping.IpBuilder().setAddress(new Ipv4Address("200.0.0.1")).build());
+        return serviceFfNameBuilder.build();
+    }
+
+    private ServicePath buildServicePath(long pathId) {
+        ConfigServiceChainPathModeBuilder configServiceChainPathModeBuilder = new ConfigServiceChainPathModeBuilder();
+        configServiceChainPathModeBuilder.setServiceIndex(new ServiceIndexBuilder().build());
+        ServicePathBuilder servicePathBuilder = new ServicePathBuilder();
+        servicePathBuilder.setKey(new ServicePathKey(pathId)).setServicePathId(pathId)
+                .setConfigServiceChainPathMode(configServiceChainPathModeBuilder.build());
+        return servicePathBuilder.build();
+    }
+}
@@ -9,11 +9,13 @@
 package org.opendaylight.sfc.iosxe.provider.test.renderer;
 
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.opendaylight.sfc.iosxe.provider.utils.IosXeDataStoreAPI.Transaction.DELETE_PATH;
 import static org.opendaylight.sfc.iosxe.provider.utils.IosXeDataStoreAPI.Transaction.READ_PATH;
 
 import java.util.ArrayList;
@@ -89,6 +91,36 @@ public class IosXeRspProcessorTest extends AbstractDataBrokerTest {
         assertTrue(chainPathMode.getServiceIndex().getServices().size() == 4);
     }
 
+    @Test
+    public void updateUnchangedRsp() {
+        when(nodeManager.getMountpointFromIpAddress(new IpAddress(new Ipv4Address(mgmtIp)))).thenReturn(dataBroker);
+
+        IosXeRspProcessor processor = new IosXeRspProcessor(dataBroker, nodeManager);
+        processor.updateRsp(createTestRenderedServicePath());
+
+        // Remove the service path behind the renderer's back: an unchanged
+        // RSP is not written again
+        new IosXeDataStoreAPI(dataBroker, new ServicePathKey(10L), DELETE_PATH, LogicalDatastoreType.CONFIGURATION)
+                .call();
+        processor.updateRsp(createTestRenderedServicePath());
+        assertNull(new IosXeDataStoreAPI(dataBroker, new ServicePathKey(10L), READ_PATH,
+                LogicalDatastoreType.CONFIGURATION).call());
+    }
+
+    @Test
+    public void deleteRsp() {
+        when(nodeManager.getMountpointFromIpAddress(new IpAddress(new Ipv4Address(mgmtIp)))).thenReturn(dataBroker);
+
+        IosXeRspProcessor processor = new IosXeRspProcessor(dataBroker, nodeManager);
+        processor.updateRsp(createTestRenderedServicePath());
+        assertNotNull(new IosXeDataStoreAPI(dataBroker, new ServicePathKey(10L), READ_PATH,
+                LogicalDatastoreType.CONFIGURATION).call());
+
+        processor.deleteRsp(createTestRenderedServicePath());
+        assertNull(new IosXeDataStoreAPI(dataBroker, new ServicePathKey(10L), READ_PATH,
+                LogicalDatastoreType.CONFIGURATION).call());
+    }
+
     private RenderedServicePath createTestRenderedServicePath() {
         // Prepare hops
         final List<RenderedServicePathHop> hops = new ArrayList<>();
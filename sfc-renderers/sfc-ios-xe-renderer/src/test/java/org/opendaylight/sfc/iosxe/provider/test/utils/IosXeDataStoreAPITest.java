@@ -11,12 +11,14 @@ package org.opendaylight.sfc.iosxe.provider.test.utils;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.opendaylight.sfc.iosxe.provider.utils.IosXeDataStoreAPI.Transaction.COMMIT_CONFIG;
 import static org.opendaylight.sfc.iosxe.provider.utils.IosXeDataStoreAPI.Transaction.DELETE_FUNCTION;
 import static org.opendaylight.sfc.iosxe.provider.utils.IosXeDataStoreAPI.Transaction.DELETE_LOCAL;
 import static org.opendaylight.sfc.iosxe.provider.utils.IosXeDataStoreAPI.Transaction.DELETE_PATH;
 import static org.opendaylight.sfc.iosxe.provider.utils.IosXeDataStoreAPI.Transaction.DELETE_REMOTE;
 import static org.opendaylight.sfc.iosxe.provider.utils.IosXeDataStoreAPI.Transaction.READ_FUNCTION;
 import static org.opendaylight.sfc.iosxe.provider.utils.IosXeDataStoreAPI.Transaction.READ_LOCAL;
+import static org.opendaylight.sfc.iosxe.provider.utils.IosXeDataStoreAPI.Transaction.READ_PATH;
 import static org.opendaylight.sfc.iosxe.provider.utils.IosXeDataStoreAPI.Transaction.READ_REMOTE;
 import static org.opendaylight.sfc.iosxe.provider.utils.IosXeDataStoreAPI.Transaction.WRITE_FUNCTION;
 import static org.opendaylight.sfc.iosxe.provider.utils.IosXeDataStoreAPI.Transaction.WRITE_LOCAL;
@@ -28,6 +30,7 @@ import org.junit.Test;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.test.AbstractDataBrokerTest;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.iosxe.provider.utils.IosXeConfigDelta;
 import org.opendaylight.sfc.iosxe.provider.utils.IosXeDataStoreAPI;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
@@ -218,6 +221,36 @@ public class IosXeDataStoreAPITest extends AbstractDataBrokerTest {
         assertTrue(result);
     }
 
+    @Test
+    public void commitConfig() {
+        IosXeConfigDelta configDelta = new IosXeConfigDelta().mergeRemoteForwarder(buildRemoteServiceForwarder())
+                .mergeServicePath(buildServicePath());
+        iosXeDataStoreAPI = new IosXeDataStoreAPI(mountpoint, configDelta, COMMIT_CONFIG,
+                LogicalDatastoreType.CONFIGURATION);
+        boolean result = (boolean) iosXeDataStoreAPI.call();
+        assertTrue(result);
+        iosXeDataStoreAPI = new IosXeDataStoreAPI(mountpoint, new SffName(REMOTE_FORWARDER), READ_REMOTE,
+                LogicalDatastoreType.CONFIGURATION);
+        assertEquals(buildRemoteServiceForwarder(), iosXeDataStoreAPI.call());
+        iosXeDataStoreAPI = new IosXeDataStoreAPI(mountpoint, new ServicePathKey(1L), READ_PATH,
+                LogicalDatastoreType.CONFIGURATION);
+        assertEquals(buildServicePath(), iosXeDataStoreAPI.call());
+
+        // Remove both in one transaction
+        configDelta = new IosXeConfigDelta().deleteServicePath(new ServicePathKey(1L))
+                .deleteRemoteForwarder(buildRemoteServiceForwarder());
+        iosXeDataStoreAPI = new IosXeDataStoreAPI(mountpoint, configDelta, COMMIT_CONFIG,
+                LogicalDatastoreType.CONFIGURATION);
+        result = (boolean) iosXeDataStoreAPI.call();
+        assertTrue(result);
+        iosXeDataStoreAPI = new IosXeDataStoreAPI(mountpoint, new SffName(REMOTE_FORWARDER), READ_REMOTE,
+                LogicalDatastoreType.CONFIGURATION);
+        assertNull(iosXeDataStoreAPI.call());
+        iosXeDataStoreAPI = new IosXeDataStoreAPI(mountpoint, new ServicePathKey(1L), READ_PATH,
+                LogicalDatastoreType.CONFIGURATION);
+        assertNull(iosXeDataStoreAPI.call());
+    }
+
     private ServiceFunction buildTestServiceFunction() {
         ConfigServiceChainSfModeBuilder sfModeBuilder = new ConfigServiceChainSfModeBuilder();
         sfModeBuilder.setIp(new IpBuilder().setAddress(new Ipv4Address("10.0.0.1")).build())
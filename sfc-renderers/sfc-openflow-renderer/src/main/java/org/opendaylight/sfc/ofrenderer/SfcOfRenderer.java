@@ -11,6 +11,8 @@ package org.opendaylight.sfc.ofrenderer;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.sal.binding.api.NotificationProviderService;
 import org.opendaylight.controller.sal.binding.api.RpcProviderRegistry;
+import org.opendaylight.mdsal.eos.binding.api.EntityOwnershipService;
+import org.opendaylight.sfc.ofrenderer.listeners.SfcOfNodeReconnectListener;
 import org.opendaylight.sfc.ofrenderer.listeners.SfcOfRendererDataListener;
 import org.opendaylight.sfc.ofrenderer.listeners.SfcOfRspDataListener;
 import org.opendaylight.sfc.ofrenderer.listeners.SfcOfSfgDataListener;
@@ -18,10 +20,16 @@ import org.opendaylight.sfc.ofrenderer.openflow.SfcIpv4PacketInHandler;
 import org.opendaylight.sfc.ofrenderer.openflow.SfcOfFlowProgrammerImpl;
 import org.opendaylight.sfc.ofrenderer.openflow.SfcOfFlowProgrammerInterface;
 import org.opendaylight.sfc.ofrenderer.processors.SfcOfRspProcessor;
+import org.opendaylight.sfc.ofrenderer.stats.SfcOfStatisticsAggregator;
+import org.opendaylight.sfc.ofrenderer.stats.SfcOfStatisticsMXBeanImpl;
 import org.opendaylight.sfc.ofrenderer.utils.SfcOfBaseProviderUtils;
+import org.opendaylight.sfc.ofrenderer.utils.SfcOfEntityOwnership;
+import org.opendaylight.sfc.ofrenderer.utils.SfcOfFlowReconciler;
 import org.opendaylight.sfc.ofrenderer.utils.SfcOfProviderUtils;
 import org.opendaylight.sfc.ofrenderer.utils.SfcSynchronizer;
 import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterImpl;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.SalFlowService;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.service.rev130918.SalGroupService;
 import org.opendaylight.yangtools.concepts.Registration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,19 +44,40 @@ public final class SfcOfRenderer implements AutoCloseable {
     private final SfcOfFlowProgrammerInterface sfcOfFlowProgrammer;
     private final Registration pktInRegistration;
     private final SfcSynchronizer sfcSynchronizer;
+    private final SfcOfEntityOwnership sfcOfEntityOwnership;
+    private final SfcOfFlowReconciler sfcOfFlowReconciler;
+    private final SfcOfStatisticsAggregator sfcOfStatisticsAggregator;
+    private final SfcOfStatisticsMXBeanImpl sfcOfStatisticsMXBean;
 
     private SfcOfRspDataListener openflowRspDataListener;
     private SfcOfSfgDataListener sfcOfSfgDataListener;
     private SfcIpv4PacketInHandler packetInHandler;
     private SfcOfRendererDataListener sfcOfRendererListener;
+    private SfcOfNodeReconnectListener sfcOfNodeReconnectListener;
 
     public SfcOfRenderer(DataBroker dataBroker, NotificationProviderService notificationService,
-                          RpcProviderRegistry rpcProviderRegistry) {
+                          RpcProviderRegistry rpcProviderRegistry, EntityOwnershipService entityOwnershipService) {
         LOG.info("SfcOfRenderer starting the SfcOfRenderer plugin...");
 
         this.sfcSynchronizer = new SfcSynchronizer();
         SfcOfFlowWriterImpl sfcofflowwriterimpl = new SfcOfFlowWriterImpl();
         sfcofflowwriterimpl.setDataProvider(dataBroker);
+        // Only the flows of the switches owned by this cluster member are
+        // written; the flows of a switch taken over from another member are
+        // written when the ownership is granted
+        this.sfcOfEntityOwnership = new SfcOfEntityOwnership(entityOwnershipService, sffNodeName -> {
+            try {
+                sfcSynchronizer.lock();
+                sfcofflowwriterimpl.restoreNodeFlows(sffNodeName);
+            } finally {
+                sfcSynchronizer.unlock();
+            }
+        });
+        sfcofflowwriterimpl.setNodeOwnership(sfcOfEntityOwnership);
+        // The flows of a deleted RSP are removed from each switch at once, by
+        // the path id encoded in their cookie
+        SalFlowService salFlowService = rpcProviderRegistry.getRpcService(SalFlowService.class);
+        sfcofflowwriterimpl.setFlowService(salFlowService);
         this.sfcOfFlowProgrammer = new SfcOfFlowProgrammerImpl(sfcofflowwriterimpl);
         SfcOfBaseProviderUtils sfcOfProviderUtils = new SfcOfProviderUtils();
         this.sfcOfRspProcessor = new SfcOfRspProcessor(sfcOfFlowProgrammer, sfcOfProviderUtils, sfcSynchronizer,
@@ -58,6 +87,20 @@ public final class SfcOfRenderer implements AutoCloseable {
         this.sfcOfSfgDataListener = new SfcOfSfgDataListener(dataBroker, sfcOfFlowProgrammer, sfcOfProviderUtils);
         this.sfcOfRendererListener = new SfcOfRendererDataListener(dataBroker, sfcOfFlowProgrammer, sfcSynchronizer);
 
+        // The flows of a switch that (re)connects are compared with the
+        // expected ones, and only the differences are written
+        this.sfcOfFlowReconciler = new SfcOfFlowReconciler(dataBroker, sfcofflowwriterimpl, sfcSynchronizer,
+                salFlowService, rpcProviderRegistry.getRpcService(SalGroupService.class));
+        this.sfcOfNodeReconnectListener = new SfcOfNodeReconnectListener(dataBroker, sfcOfFlowReconciler);
+
+        // The traffic of the RSPs is read from the flow statistics of the
+        // inventory and exposed over JMX
+        this.sfcOfStatisticsAggregator = new SfcOfStatisticsAggregator(dataBroker,
+                SfcOfStatisticsAggregator.DEFAULT_HISTORY_SIZE);
+        this.sfcOfStatisticsAggregator.start(SfcOfStatisticsAggregator.DEFAULT_POLL_INTERVAL_MILLIS);
+        this.sfcOfStatisticsMXBean = new SfcOfStatisticsMXBeanImpl(sfcOfStatisticsAggregator);
+        this.sfcOfStatisticsMXBean.register();
+
         this.packetInHandler = new SfcIpv4PacketInHandler((SfcOfFlowProgrammerImpl) sfcOfFlowProgrammer);
         this.pktInRegistration = notificationService.registerNotificationListener(packetInHandler);
 
@@ -71,6 +114,11 @@ public final class SfcOfRenderer implements AutoCloseable {
     public void close() throws Exception {
         LOG.info("SfcOfRenderer auto-closed");
         try {
+            sfcOfStatisticsMXBean.close();
+            sfcOfStatisticsAggregator.close();
+            sfcOfNodeReconnectListener.close();
+            sfcOfFlowReconciler.close();
+            sfcOfEntityOwnership.close();
             if (sfcOfFlowProgrammer != null) {
                 sfcOfFlowProgrammer.shutdown();
             }
@@ -80,6 +128,7 @@ public final class SfcOfRenderer implements AutoCloseable {
             openflowRspDataListener.close();
         } finally {
             openflowRspDataListener = null;
+            sfcOfNodeReconnectListener = null;
         }
     }
 }
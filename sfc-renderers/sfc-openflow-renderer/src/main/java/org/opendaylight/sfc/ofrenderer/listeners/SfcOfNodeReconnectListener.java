@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer.listeners;
+
+import java.util.Collection;
+import javax.annotation.Nonnull;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.DataObjectModification;
+import org.opendaylight.controller.md.sal.binding.api.DataTreeChangeListener;
+import org.opendaylight.controller.md.sal.binding.api.DataTreeIdentifier;
+import org.opendaylight.controller.md.sal.binding.api.DataTreeModification;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.ofrenderer.utils.SfcOfFlowReconciler;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
+import org.opendaylight.yangtools.concepts.ListenerRegistration;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class is notified when switches connect, or reconnect, to the
+ * controller, and schedules the reconciliation of their flows.
+ */
+public class SfcOfNodeReconnectListener implements DataTreeChangeListener<FlowCapableNode>, AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(SfcOfNodeReconnectListener.class);
+    private final SfcOfFlowReconciler flowReconciler;
+    private final ListenerRegistration<SfcOfNodeReconnectListener> nodeListenerRegistration;
+
+    public SfcOfNodeReconnectListener(DataBroker dataBroker, SfcOfFlowReconciler flowReconciler) {
+        this.flowReconciler = flowReconciler;
+        InstanceIdentifier<FlowCapableNode> nodesIid = InstanceIdentifier.create(Nodes.class).child(Node.class)
+                .augmentation(FlowCapableNode.class);
+        nodeListenerRegistration = dataBroker.registerDataTreeChangeListener(
+                new DataTreeIdentifier<>(LogicalDatastoreType.OPERATIONAL, nodesIid), this);
+    }
+
+    @Override
+    public void onDataTreeChanged(@Nonnull Collection<DataTreeModification<FlowCapableNode>> collection) {
+        for (DataTreeModification<FlowCapableNode> modification : collection) {
+            DataObjectModification<FlowCapableNode> rootNode = modification.getRootNode();
+            // the switch is added to the operational inventory when it
+            // connects, and removed when it disconnects
+            if (rootNode.getModificationType() == DataObjectModification.ModificationType.DELETE
+                    || rootNode.getDataBefore() != null || rootNode.getDataAfter() == null) {
+                continue;
+            }
+            NodeKey nodeKey = modification.getRootPath().getRootIdentifier().firstKeyOf(Node.class);
+            if (nodeKey == null) {
+                continue;
+            }
+            LOG.info("SfcOfNodeReconnectListener.onDataTreeChanged node {} connected", nodeKey.getId().getValue());
+            flowReconciler.scheduleReconciliation(nodeKey.getId().getValue(),
+                    SfcOfFlowReconciler.RECONCILIATION_DELAY_MILLIS);
+        }
+    }
+
+    @Override
+    public void close() {
+        nodeListenerRegistration.close();
+    }
+}
@@ -9,9 +9,12 @@
 package org.opendaylight.sfc.ofrenderer.listeners;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.DataObjectModification;
+import org.opendaylight.controller.md.sal.binding.api.DataObjectModification.ModificationType;
 import org.opendaylight.controller.md.sal.binding.api.DataTreeChangeListener;
 import org.opendaylight.controller.md.sal.binding.api.DataTreeIdentifier;
 import org.opendaylight.controller.md.sal.binding.api.DataTreeModification;
@@ -35,6 +38,9 @@ public class SfcOfRspDataListener implements DataTreeChangeListener<RenderedServ
     private static final Logger LOG = LoggerFactory.getLogger(SfcOfRspDataListener.class);
     private final SfcOfRspProcessor sfcOfRspProcessor;
     private final ListenerRegistration<SfcOfRspDataListener> rspListenerRegistration;
+    // the first notification received carries all the existing RSPs, for
+    // example after a controller restart
+    private boolean initialSyncDone = false;
 
     public SfcOfRspDataListener(DataBroker dataBroker, SfcOfRspProcessor sfcOfRspProcessor) {
         rspListenerRegistration = dataBroker.registerDataTreeChangeListener(
@@ -44,6 +50,37 @@ public class SfcOfRspDataListener implements DataTreeChangeListener<RenderedServ
 
     @Override
     public void onDataTreeChanged(@Nonnull Collection<DataTreeModification<RenderedServicePath>> collection) {
+        if (!initialSyncDone) {
+            initialSyncDone = true;
+            List<RenderedServicePath> existingRsps = collection.stream()
+                    .map(DataTreeModification::getRootNode)
+                    .filter(rootNode -> rootNode.getModificationType() == ModificationType.WRITE
+                            && rootNode.getDataBefore() == null && rootNode.getDataAfter() != null)
+                    .map(DataObjectModification::getDataAfter)
+                    .collect(Collectors.toList());
+            if (existingRsps.size() > 1 && existingRsps.size() == collection.size()) {
+                LOG.info("SfcOfRspDataListener.onDataTreeChanged initial sync of {} RSPs", existingRsps.size());
+                sfcOfRspProcessor.processRenderedServicePaths(existingRsps);
+                return;
+            }
+        }
+
+        // the deleted RSPs are handled first and at once, their path ids may
+        // already be reused by RSPs created in the same notification
+        List<RenderedServicePath> deletedRsps = collection.stream()
+                .map(DataTreeModification::getRootNode)
+                .filter(rootNode -> rootNode.getModificationType() == ModificationType.DELETE
+                        && rootNode.getDataBefore() != null)
+                .map(DataObjectModification::getDataBefore)
+                .collect(Collectors.toList());
+        if (deletedRsps.size() == 1) {
+            LOG.info("SfcOfRspDataListener.onDataTreeChanged delete RSP {}", deletedRsps.get(0));
+            sfcOfRspProcessor.deleteRenderedServicePath(deletedRsps.get(0));
+        } else if (deletedRsps.size() > 1) {
+            LOG.info("SfcOfRspDataListener.onDataTreeChanged delete {} RSPs", deletedRsps.size());
+            sfcOfRspProcessor.deleteRenderedServicePaths(deletedRsps);
+        }
+
         for (DataTreeModification<RenderedServicePath> modification : collection) {
             DataObjectModification<RenderedServicePath> rootNode = modification.getRootNode();
 
@@ -56,15 +93,10 @@ public class SfcOfRspDataListener implements DataTreeChangeListener<RenderedServ
                     } else if (rootNode.getDataAfter().equals(rootNode.getDataBefore())) {
                         LOG.info("SfcOfRspDataListener.onDataTreeChanged update RSP Before:{} After:{}",
                                 rootNode.getDataAfter(), rootNode.getDataBefore());
-                        // This clause supports re-rendering of unmodified RSPs
-                        sfcOfRspProcessor.deleteRenderedServicePath(rootNode.getDataBefore());
-                        sfcOfRspProcessor.processRenderedServicePath(rootNode.getDataAfter());
-                    }
-                    break;
-                case DELETE:
-                    if (rootNode.getDataBefore() != null) {
-                        LOG.info("SfcOfRspDataListener.onDataTreeChanged delete RSP {}", rootNode.getDataBefore());
-                        sfcOfRspProcessor.deleteRenderedServicePath(rootNode.getDataBefore());
+                        // This clause supports re-rendering of unmodified RSPs,
+                        // i.e. when any of the SFFs or SFs they use changed.
+                        // Only the flows that changed are re-written.
+                        sfcOfRspProcessor.updateRenderedServicePath(rootNode.getDataAfter());
                     }
                     break;
                 default:
@@ -8,15 +8,19 @@
 
 package org.opendaylight.sfc.ofrenderer.listeners;
 
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.DataObjectModification;
 import org.opendaylight.controller.md.sal.binding.api.DataTreeModification;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.sfc.ofrenderer.openflow.SfcOfFlowProgrammerInterface;
 import org.opendaylight.sfc.ofrenderer.sfg.GroupBucketInfo;
+import org.opendaylight.sfc.ofrenderer.sfg.SfgBucketLayout;
 import org.opendaylight.sfc.ofrenderer.utils.SfcOfBaseProviderUtils;
 import org.opendaylight.sfc.provider.api.SfcInstanceIdentifiers;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
@@ -36,6 +40,7 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev14070
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.data.plane.locator.LocatorType;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.data.plane.locator.locator.type.Ip;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.data.plane.locator.locator.type.Mac;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.GroupTypes;
 import org.opendaylight.yangtools.yang.binding.DataContainer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,8 +57,11 @@ public class SfcOfSfgDataListener extends SfcOfAbstractDataListener<ServiceFunct
 
     private final SfcOfFlowProgrammerInterface sfcOfFlowProgrammer;
     private final SfcOfBaseProviderUtils sfcOfProviderUtils;
+    // the buckets rendered for each SFG, by SFG name
+    private final Map<String, SfgBucketLayout> sfgLayouts = new ConcurrentHashMap<>();
 
     private static final Logger LOG = LoggerFactory.getLogger(SfcOfSfgDataListener.class);
+    private static final int DEFAULT_BUCKET_WEIGHT = 1;
 
     public SfcOfSfgDataListener(DataBroker dataBroker, SfcOfFlowProgrammerInterface sfcOfFlowProgrammer,
             SfcOfBaseProviderUtils sfcOfProviderUtils) {
@@ -87,14 +95,26 @@ public class SfcOfSfgDataListener extends SfcOfAbstractDataListener<ServiceFunct
     }
 
     private void buildGroup(ServiceFunctionGroup sfg, boolean isAdd) {
+        if (!isAdd) {
+            removeGroup(sfg);
+            return;
+        }
+
         List<SfcServiceFunction> sfs = sfg.getSfcServiceFunction();
-        SfName sfName = new SfName(sfs.get(0).getName());
-        ServiceFunction sf = SfcProviderServiceFunctionAPI.readServiceFunction(sfName);
+        if (sfs == null || sfs.isEmpty()) {
+            LOG.warn("buildGroup: SFG {} has no service functions", sfg.getName());
+            return;
+        }
+        ServiceFunction sf = SfcProviderServiceFunctionAPI.readServiceFunction(new SfName(sfs.get(0).getName()));
+        if (sf == null) {
+            LOG.warn("buildGroup: failed to read SF {} of SFG {}", sfs.get(0).getName(), sfg.getName());
+            return;
+        }
         // assuming all SF's have the same SFF
         // should use the ovs id
         SffName sffName = sf.getSfDataPlaneLocator().get(0).getServiceFunctionForwarder();
-        String sffNodeId;
-        sffNodeId = getSffOpenFlowNodeName(sffName);
+        ServiceFunctionForwarder sff = SfcProviderServiceForwarderAPI.readServiceFunctionForwarder(sffName);
+        String sffNodeId = sfcOfProviderUtils.getSffOpenFlowNodeName(sff);
 
         if (sffNodeId == null) {
             LOG.warn("failed to find switch configuration: sffName: {}- \naborting", sffName);
@@ -103,32 +123,77 @@ public class SfcOfSfgDataListener extends SfcOfAbstractDataListener<ServiceFunct
 
         ServiceFunctionGroupAlgorithm algorithm = SfcProviderServiceFunctionGroupAlgAPI
                 .readServiceFunctionGroupAlg(sfg.getAlgorithm());
+        int groupType = algorithm.getAlgorithmType().getIntValue();
+        long groupId = sfg.getGroupId();
+
+        // The members keep their bucket position so the select groups only
+        // move the flows of the members added or removed
+        SfgBucketLayout layout = sfgLayouts.get(sfg.getName());
+        boolean isNewLayout = layout == null || !layout.matches(sffName.getValue(), sffNodeId, groupId, groupType);
+        if (isNewLayout) {
+            layout = new SfgBucketLayout(sffName.getValue(), sffNodeId, groupId, groupType);
+            sfgLayouts.put(sfg.getName(), layout);
+        }
+        boolean isSelect = groupType == GroupTypes.GroupSelect.getIntValue();
+        List<String> sfNames = sfs.stream().map(SfcServiceFunction::getName).collect(Collectors.toList());
+        boolean isChanged = layout.update(sfNames, sfName -> buildBucket(sff, new SfName(sfName), isSelect));
 
-        List<GroupBucketInfo> bucketsInfo = new ArrayList<>();
+        if (!isNewLayout && !isChanged) {
+            LOG.debug("buildGroup: the buckets of SFG {} did not change", sfg.getName());
+            return;
+        }
+        // All the buckets are written at once, in a single group modification
+        this.sfcOfFlowProgrammer.configureGroup(sffName.getValue(), sffNodeId, sfg.getName(), groupId, groupType,
+                layout.getBuckets(), true);
+    }
 
-        ServiceFunctionForwarder sff = SfcProviderServiceForwarderAPI.readServiceFunctionForwarder(sffName);
+    private void removeGroup(ServiceFunctionGroup sfg) {
+        SfgBucketLayout layout = sfgLayouts.remove(sfg.getName());
+        if (layout != null) {
+            this.sfcOfFlowProgrammer.configureGroup(layout.getSffName(), layout.getOpenflowNodeId(), sfg.getName(),
+                    layout.getGroupId(), layout.getGroupType(), layout.getBuckets(), false);
+            return;
+        }
 
-        int index = 0;
-        for (SfcServiceFunction sfcServiceFunction : sfg.getSfcServiceFunction()) {
-            sfName = new SfName(sfcServiceFunction.getName());
-            sf = SfcProviderServiceFunctionAPI.readServiceFunction(sfName);
-            ServiceFunctionDictionary sffSfDict = sfcOfProviderUtils.getSffSfDictionary(sff, sfName);
-            String outPort = sfcOfProviderUtils.getDictPortInfoPort(sff, sffSfDict);
-            bucketsInfo.add(buildBucket(sf, outPort, index));
-            index++;
+        // the group was rendered before this instance started
+        List<SfcServiceFunction> sfs = sfg.getSfcServiceFunction();
+        ServiceFunction sf = sfs == null || sfs.isEmpty() ? null
+                : SfcProviderServiceFunctionAPI.readServiceFunction(new SfName(sfs.get(0).getName()));
+        if (sf == null) {
+            LOG.warn("removeGroup: failed to find the SFF of SFG {}", sfg.getName());
+            return;
+        }
+        SffName sffName = sf.getSfDataPlaneLocator().get(0).getServiceFunctionForwarder();
+        String sffNodeId = getSffOpenFlowNodeName(sffName);
+        if (sffNodeId == null) {
+            LOG.warn("failed to find switch configuration: sffName: {}- \naborting", sffName);
+            return;
         }
+        ServiceFunctionGroupAlgorithm algorithm = SfcProviderServiceFunctionGroupAlgAPI
+                .readServiceFunctionGroupAlg(sfg.getAlgorithm());
         this.sfcOfFlowProgrammer.configureGroup(sffName.getValue(), sffNodeId, sfg.getName(), sfg.getGroupId(),
-                algorithm.getAlgorithmType().getIntValue(), bucketsInfo, isAdd);
+                algorithm.getAlgorithmType().getIntValue(), Collections.emptyList(), false);
     }
 
-    private GroupBucketInfo buildBucket(ServiceFunction sf, String outPort, int index) {
-        GroupBucketInfo gbi = new GroupBucketInfo();
-        gbi.setIndex(index);
+    private GroupBucketInfo buildBucket(ServiceFunctionForwarder sff, SfName sfName, boolean isSelect) {
+        ServiceFunction sf = SfcProviderServiceFunctionAPI.readServiceFunction(sfName);
+        if (sf == null) {
+            LOG.warn("buildBucket: failed to read SF {}, it is left out of the group", sfName);
+            return null;
+        }
+        ServiceFunctionDictionary sffSfDict = sfcOfProviderUtils.getSffSfDictionary(sff, sfName);
+        String outPort = sfcOfProviderUtils.getDictPortInfoPort(sff, sffSfDict);
 
+        GroupBucketInfo gbi = new GroupBucketInfo();
         SfDataPlaneLocator sfDpl = sf.getSfDataPlaneLocator().get(0);
         gbi.setSfMac(getSfDplMac(sfDpl));
         gbi.setSfIp(getSfDplIp(sfDpl));
         gbi.setOutPort(outPort);
+        if (isSelect) {
+            // the SFG model has no per member weight, the traffic is shared
+            // evenly
+            gbi.setWeight(DEFAULT_BUCKET_WEIGHT);
+        }
 
         return gbi;
     }
@@ -12,7 +12,7 @@ import com.google.common.net.InetAddresses;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.StringJoiner;
@@ -70,8 +70,10 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
     public static final int COOKIE_BIGINT_HEX_RADIX = 16;
 
-    // A common SFC Transport Egress Cookie Base String, allowing
-    // all SFC flows to be matched by using cookieStr.startsWith()
+    // A common SFC Transport Egress Cookie Base String. The flows of an RSP
+    // now carry the RSP cookie, made of the SFC cookie marker (the prefix of
+    // this base), the path id and the flow type; the flow types of the
+    // Transport Egress flows are the cookie suffixes below
     public static final String TRANSPORT_EGRESS_COOKIE_STR_BASE = "BA5EBA11";
     // The 000001** cookies are for NSH VXGPE Transport Egress flows
     public static final String TRANSPORT_EGRESS_NSH_VXGPE_COOKIE = "00000101";
@@ -94,6 +96,9 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
     public static final String TRANSPORT_EGRESS_MPLS_COOKIE = "00000401";
     public static final String TRANSPORT_EGRESS_MPLS_LASTHOP_COOKIE = "00000402";
     public static final String TRANSPORT_EGRESS_MAX_COOKIE = "00000FFF";
+    private static final long TRANSPORT_EGRESS_MIN_FLOW_TYPE = 0x100;
+    private static final long TRANSPORT_EGRESS_MAX_FLOW_TYPE = Long.parseLong(TRANSPORT_EGRESS_MAX_COOKIE,
+            COOKIE_BIGINT_HEX_RADIX);
 
     // Flow table names
     public static final String FLOW_NAME_DELIMITER = "_";
@@ -166,16 +171,19 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
     private SfcTableIndexMapper tableIndexMapper = null;
 
+    // The table id of each table index, computed from the table base and the
+    // table index mapper when either of them is set
+    private final short[] tableIds = new short[TABLE_INDEX_MAX_OFFSET + 1];
+
     public SfcOfFlowProgrammerImpl() {
         this.tableBase = APP_COEXISTENCE_NOT_SET;
         this.tableEgress = APP_COEXISTENCE_NOT_SET;
         this.flowRspId = 0L;
+        updateTableIds();
     }
 
     public SfcOfFlowProgrammerImpl(SfcOfFlowWriterInterface sfcOfFlowWriter) {
-        this.tableBase = APP_COEXISTENCE_NOT_SET;
-        this.tableEgress = APP_COEXISTENCE_NOT_SET;
-        this.flowRspId = 0L;
+        this();
         this.sfcOfFlowWriter = sfcOfFlowWriter;
     }
 
@@ -202,6 +210,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
     @Override
     public void setTableBase(short tableBase) {
         this.tableBase = tableBase;
+        updateTableIds();
     }
 
     @Override
@@ -232,11 +241,47 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         return nodes;
     }
 
+    @Override
+    public Set<NodeId> deleteRspsFlows(final Map<Long, Set<String>> rspSffNodeNames) {
+        sfcOfFlowWriter.deleteRspsFlows(rspSffNodeNames);
+        Set<NodeId> nodes = sfcOfFlowWriter.clearSffsIfNoRspExists();
+        sfcOfFlowWriter.deleteFlowSet();
+        return nodes;
+    }
+
+    @Override
+    public void beginRspFlowsUpdate(final long rspId) {
+        sfcOfFlowWriter.beginRspFlowsUpdate(rspId);
+    }
+
+    @Override
+    public Set<NodeId> finishRspFlowsUpdate(final long rspId) {
+        sfcOfFlowWriter.finishRspFlowsUpdate(rspId);
+        Set<NodeId> nodes = sfcOfFlowWriter.clearSffsIfNoRspExists();
+        sfcOfFlowWriter.deleteFlowSet();
+        return nodes;
+    }
+
+    @Override
+    public void abortRspFlowsUpdate(final long rspId) {
+        sfcOfFlowWriter.abortRspFlowsUpdate(rspId);
+    }
+
     @Override
     public void flushFlows() {
         this.sfcOfFlowWriter.flushFlows();
     }
 
+    @Override
+    public void beginFlowsBatch() {
+        this.sfcOfFlowWriter.beginFlowsBatch();
+    }
+
+    @Override
+    public void flushFlowsBatch() {
+        this.sfcOfFlowWriter.flushFlowsBatch();
+    }
+
     @Override
     public void purgeFlows() {
         this.sfcOfFlowWriter.purgeFlows();
@@ -251,9 +296,30 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
      *         otherwise
      */
     public boolean compareClassificationTableCookie(FlowCookie cookie) {
-        return cookie != null && cookie.getValue() != null && cookie.toString().toUpperCase(Locale.getDefault())
-                .startsWith(TRANSPORT_EGRESS_COOKIE_STR_BASE);
+        return cookie != null && SfcOpenflowUtils.isSfcCookie(cookie.getValue())
+                && SfcOpenflowUtils.getRspCookieFlowType(cookie.getValue()) > TRANSPORT_EGRESS_MIN_FLOW_TYPE
+                && SfcOpenflowUtils.getRspCookieFlowType(cookie.getValue()) <= TRANSPORT_EGRESS_MAX_FLOW_TYPE;
+    }
 
+    /**
+     * Write a flow of the current RSP, setting its cookie to the cookie of the
+     * RSP flows so that all the flows of the RSP can be removed at once. The
+     * flow type is kept from the cookie the flow was built with. The
+     * initialization flows do not belong to any RSP and are written as built.
+     *
+     * @param sffNodeName
+     *            - the openflow node name of the switch
+     * @param flowBuilder
+     *            - the flow to write
+     */
+    private void writeFlow(String sffNodeName, FlowBuilder flowBuilder) {
+        if (flowRspId != OpenflowConstants.SFC_FLOWS && flowBuilder.getCookie() != null) {
+            FlowCookie rspCookie = new FlowCookie(SfcOpenflowUtils.createRspCookie(flowRspId,
+                    SfcOpenflowUtils.getRspCookieFlowType(flowBuilder.getCookie().getValue())));
+            flowBuilder.setCookie(rspCookie);
+            flowBuilder.setCookieMask(rspCookie);
+        }
+        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, flowBuilder);
     }
 
     //
@@ -283,7 +349,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder flowBuilder = configureTableMatchAnyFlow(getTableId(TABLE_INDEX_CLASSIFIER),
                 getTableId(TABLE_INDEX_TRANSPORT_INGRESS));
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, flowBuilder);
+        writeFlow(sffNodeName, flowBuilder);
     }
 
     /**
@@ -319,7 +385,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         FlowBuilder classifierDpdkOutputFlow = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_CLASSIFIER),
                 FLOW_PRIORITY_CLASSIFIER, flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, classifierDpdkOutputFlow);
+        writeFlow(sffNodeName, classifierDpdkOutputFlow);
     }
 
     /**
@@ -354,7 +420,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         FlowBuilder classifierDpdkInputFlow = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_CLASSIFIER),
                 FLOW_PRIORITY_CLASSIFIER, flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, classifierDpdkInputFlow);
+        writeFlow(sffNodeName, classifierDpdkInputFlow);
     }
 
     /**
@@ -371,7 +437,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         }
 
         FlowBuilder flowBuilder = configureTableMatchAnyDropFlow(getTableId(TABLE_INDEX_TRANSPORT_INGRESS));
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, flowBuilder);
+        writeFlow(sffNodeName, flowBuilder);
     }
 
     /**
@@ -391,7 +457,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder flowBuilder = configureTableMatchAnyFlowResubmit(getTableId(TABLE_INDEX_TRANSPORT_INGRESS),
                  nextTableId);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, flowBuilder);
+        writeFlow(sffNodeName, flowBuilder);
     }
 
     /**
@@ -405,7 +471,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
     public void configurePathMapperTableMatchAny(final String sffNodeName) {
         FlowBuilder flowBuilder = configureTableMatchAnyFlow(getTableId(TABLE_INDEX_PATH_MAPPER),
                 getTableId(TABLE_INDEX_PATH_MAPPER_ACL));
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, flowBuilder);
+        writeFlow(sffNodeName, flowBuilder);
     }
 
     /**
@@ -419,7 +485,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
     public void configurePathMapperAclTableMatchAny(final String sffNodeName) {
         FlowBuilder flowBuilder = configureTableMatchAnyFlow(getTableId(TABLE_INDEX_PATH_MAPPER_ACL),
                 getTableId(TABLE_INDEX_NEXT_HOP));
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, flowBuilder);
+        writeFlow(sffNodeName, flowBuilder);
     }
 
     /**
@@ -433,7 +499,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
     public void configureNextHopTableMatchAny(final String sffNodeName) {
         FlowBuilder flowBuilder = configureTableMatchAnyFlow(getTableId(TABLE_INDEX_NEXT_HOP),
                 getTableId(TABLE_INDEX_TRANSPORT_EGRESS));
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, flowBuilder);
+        writeFlow(sffNodeName, flowBuilder);
     }
 
     /**
@@ -447,7 +513,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         // This is the last table, can't set next table AND doDrop should be
         // false
         FlowBuilder flowBuilder = configureTableMatchAnyDropFlow(getTableId(TABLE_INDEX_TRANSPORT_EGRESS));
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, flowBuilder);
+        writeFlow(sffNodeName, flowBuilder);
     }
 
     @Override
@@ -455,7 +521,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder flowBuilder = configureTableMatchAnyFlowResubmit(getTableId(TABLE_INDEX_TRANSPORT_EGRESS),
                 nextTableId);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, flowBuilder);
+        writeFlow(sffNodeName, flowBuilder);
     }
 
     /**
@@ -560,11 +626,11 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
     public void configureIpv4TransportIngressFlow(final String sffNodeName) {
         FlowBuilder transportIngressFlowTcp = configureTransportIngressFlow(SfcOpenflowUtils.ETHERTYPE_IPV4,
                 SfcOpenflowUtils.IP_PROTOCOL_TCP, FLOW_NAME_TRANSPORT_INGRESS_TCP);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportIngressFlowTcp);
+        writeFlow(sffNodeName, transportIngressFlowTcp);
 
         FlowBuilder transportIngressFlowUdp = configureTransportIngressFlow(SfcOpenflowUtils.ETHERTYPE_IPV4,
                 SfcOpenflowUtils.IP_PROTOCOL_UDP, FLOW_NAME_TRANSPORT_INGRESS_UDP);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportIngressFlowUdp);
+        writeFlow(sffNodeName, transportIngressFlowUdp);
     }
 
     /**
@@ -586,7 +652,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         match.setVlanMatch(vlanBuilder.build());
 
         FlowBuilder transportIngressFlow = configureTransportIngressFlow(match, FLOW_NAME_TRANSPORT_INGRESS_VLAN);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportIngressFlow);
+        writeFlow(sffNodeName, transportIngressFlow);
     }
 
     /**
@@ -600,7 +666,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         MatchBuilder match = new MatchBuilder();
 
         FlowBuilder transportIngressFlow = configureTransportIngressFlow(match, FLOW_NAME_TRANSPORT_INGRESS_MAC);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportIngressFlow);
+        writeFlow(sffNodeName, transportIngressFlow);
     }
 
     /**
@@ -619,7 +685,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder transportIngressFlow =
                 configureTransportIngressFlow(match, getTableId(TABLE_INDEX_NEXT_HOP), flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportIngressFlow);
+        writeFlow(sffNodeName, transportIngressFlow);
     }
 
     /**
@@ -633,7 +699,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
     public void configureMplsTransportIngressFlow(final String sffNodeName) {
         FlowBuilder transportIngressFlow = configureTransportIngressFlow(
                 SfcOpenflowUtils.ETHERTYPE_MPLS_UCAST, FLOW_NAME_TRANSPORT_INGRESS_MPLS);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportIngressFlow);
+        writeFlow(sffNodeName, transportIngressFlow);
     }
 
     /**
@@ -740,7 +806,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
                 getTableId(TABLE_INDEX_TRANSPORT_INGRESS), FLOW_PRIORITY_ARP_TRANSPORT_INGRESS,
                 flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, arpTransportIngressFlow);
+        writeFlow(sffNodeName, arpTransportIngressFlow);
     }
 
     @Override
@@ -766,7 +832,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         FlowBuilder sfFlow = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_TRANSPORT_INGRESS),
                 FLOW_PRIORITY_ARP_TRANSPORT_INGRESS, flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, sfFlow);
+        writeFlow(sffNodeName, sfFlow);
     }
 
     @Override
@@ -791,7 +857,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         FlowBuilder sfFlow = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_TRANSPORT_INGRESS),
                 FLOW_PRIORITY_ARP_TRANSPORT_INGRESS, flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, sfFlow);
+        writeFlow(sffNodeName, sfFlow);
     }
 
     //
@@ -816,8 +882,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         MatchBuilder match = new MatchBuilder();
         SfcOpenflowUtils.addMatchMplsLabel(match, mplsLabel);
 
-        List<Action> actionList = new ArrayList<>();
-        actionList.add(SfcOpenflowUtils.createActionPopMpls(0));
+        List<Action> actionList = SfcOfFlowTemplates.actionsFrom(SfcOfFlowTemplates.MPLS_PATH_MAPPER_ACTIONS);
 
         FlowBuilder pathMapperFlow;
         if (isSf) {
@@ -825,7 +890,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         } else {
             pathMapperFlow = configurePathMapperFlow(pathId, match, actionList);
         }
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, pathMapperFlow);
+        writeFlow(sffNodeName, pathMapperFlow);
     }
 
     /**
@@ -846,8 +911,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         MatchBuilder match = new MatchBuilder();
         SfcOpenflowUtils.addMatchVlan(match, vlan);
 
-        List<Action> actionList = new ArrayList<>();
-        actionList.add(SfcOpenflowUtils.createActionPopVlan(0));
+        List<Action> actionList = SfcOfFlowTemplates.actionsFrom(SfcOfFlowTemplates.VLAN_PATH_MAPPER_ACTIONS);
 
         FlowBuilder pathMapperFlow;
         if (isSf) {
@@ -855,7 +919,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         } else {
             pathMapperFlow = configurePathMapperFlow(pathId, match, actionList);
         }
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, pathMapperFlow);
+        writeFlow(sffNodeName, pathMapperFlow);
     }
 
     /**
@@ -963,7 +1027,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         // Set an idle timeout on this flow
         ingressFlow.setIdleTimeout(PKTIN_IDLE_TIMEOUT);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, ingressFlow);
+        writeFlow(sffNodeName, ingressFlow);
     }
 
     //
@@ -1009,7 +1073,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         flowName.add(FLOW_NAME_NEXT_HOP).add(String.valueOf(pathId)).add(srcMac).add(dstMac);
 
         FlowBuilder nextHopFlow = configureNextHopFlow(match, actionList, flowPriority, flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, nextHopFlow);
+        writeFlow(sffNodeName, nextHopFlow);
     }
 
     /**
@@ -1054,7 +1118,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         flowName.add(FLOW_NAME_NEXT_HOP).add(vmac).add(nextVMac).add(dstSfMac);
 
         FlowBuilder nextHopFlow = configureNextHopFlow(match, actionList, FLOW_PRIORITY_NEXT_HOP, flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, nextHopFlow);
+        writeFlow(sffNodeName, nextHopFlow);
     }
 
     /**
@@ -1095,7 +1159,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         flowName.add(FLOW_NAME_NEXT_HOP).add(String.valueOf(nshNsi)).add(String.valueOf(nshNsp));
 
         FlowBuilder nextHopFlow = configureNextHopFlow(match, actionList, flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, nextHopFlow);
+        writeFlow(sffNodeName, nextHopFlow);
     }
 
     /**
@@ -1126,7 +1190,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         MatchBuilder match = SfcOpenflowUtils.getNshMatches(nsp, nsi);
 
         FlowBuilder nextHopFlow = configureNextHopFlow(match, actionList, flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, nextHopFlow);
+        writeFlow(sffNodeName, nextHopFlow);
     }
 
     /**
@@ -1195,7 +1259,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
                                                                        FLOW_PRIORITY_TRANSPORT_EGRESS,
                                                                        TRANSPORT_EGRESS_MAC_CHAINING_COOKIE,
                                                                        flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
+        writeFlow(sffNodeName, transportEgressFlow);
     }
 
     @Override
@@ -1221,7 +1285,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder transportEgressFlow = configureMacTransportEgressFlow(match, actionList, port, pathId, srcMac,
                 dstMac, TRANSPORT_EGRESS_VLAN_SF_COOKIE);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
+        writeFlow(sffNodeName, transportEgressFlow);
     }
 
     /**
@@ -1306,13 +1370,12 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         MatchBuilder match = new MatchBuilder();
         SfcOpenflowUtils.addMatchMetada(match, getMetadataSFP(pathId), METADATA_MASK_SFP_MATCH);
 
-        List<Action> actionList = new ArrayList<>();
-        actionList.add(SfcOpenflowUtils.createActionPushVlan(actionList.size()));
+        List<Action> actionList = SfcOfFlowTemplates.actionsFrom(SfcOfFlowTemplates.VLAN_EGRESS_ACTIONS);
         actionList.add(SfcOpenflowUtils.createActionSetVlanId(dstVlan, actionList.size()));
 
         FlowBuilder transportEgressFlow = configureMacTransportEgressFlow(match, actionList, port, pathId, srcMac,
                 dstMac, cookieStr);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
+        writeFlow(sffNodeName, transportEgressFlow);
     }
 
     /**
@@ -1396,13 +1459,12 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         MatchBuilder match = new MatchBuilder();
         SfcOpenflowUtils.addMatchMetada(match, getMetadataSFP(pathId), METADATA_MASK_SFP_MATCH);
 
-        List<Action> actionList = new ArrayList<>();
-        actionList.add(SfcOpenflowUtils.createActionPushMpls(actionList.size()));
+        List<Action> actionList = SfcOfFlowTemplates.actionsFrom(SfcOfFlowTemplates.MPLS_EGRESS_ACTIONS);
         actionList.add(SfcOpenflowUtils.createActionSetMplsLabel(mplsLabel, actionList.size()));
 
         FlowBuilder transportEgressFlow = configureMacTransportEgressFlow(match, actionList, port, pathId, srcMac,
                 dstMac, cookieStr);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
+        writeFlow(sffNodeName, transportEgressFlow);
     }
 
     /**
@@ -1461,17 +1523,8 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         // On the last hop Copy/Move Nsi, Nsp, Nsc1=>TunIpv4Dst, and
         // Nsc2=>TunId(Vnid)
-        List<Action> actionList = new ArrayList<>();
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNshMdtype(actionList.size()));
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNshNp(actionList.size()));
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNsi(actionList.size()));
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNsp(actionList.size()));
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNsc1ToTunIpv4DstRegister(actionList.size()));
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNsc2ToTunIdRegister(actionList.size()));
-
-        /* Need to set TUN_GPE_NP for VxLAN-gpe port */
-        actionList
-                .add(SfcOpenflowUtils.createActionNxLoadTunGpeNp(OpenflowConstants.TUN_GPE_NP_NSH, actionList.size()));
+        // Need to set TUN_GPE_NP for VxLAN-gpe port
+        List<Action> actionList = SfcOfFlowTemplates.actionsFrom(SfcOfFlowTemplates.NSH_VXGPE_LASTHOP_EGRESS_ACTIONS);
 
         StringJoiner flowName = new StringJoiner(FLOW_NAME_DELIMITER);
         flowName.add(FLOW_NAME_TRANSPORT_EGRESS)
@@ -1479,7 +1532,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder transportEgressFlow = configureTransportEgressFlow(match, actionList, theOutPortToSet, flowPriority,
                 TRANSPORT_EGRESS_NSH_VXGPE_LASTHOP_COOKIE, flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
+        writeFlow(sffNodeName, transportEgressFlow);
     }
 
     /**
@@ -1529,15 +1582,14 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
                 .add(sfMacAddress.getValue());
 
         // Make the cookie
-        BigInteger cookie = new BigInteger(
-                TRANSPORT_EGRESS_COOKIE_STR_BASE + TRANSPORT_EGRESS_NSH_ETH_LASTHOP_PIPELINE_COOKIE,
-                COOKIE_BIGINT_HEX_RADIX);
+        BigInteger cookie = SfcOfFlowTemplates.transportEgressCookie(
+                TRANSPORT_EGRESS_NSH_ETH_LASTHOP_PIPELINE_COOKIE);
 
         // Create and return the flow
         FlowBuilder fb = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_TRANSPORT_EGRESS),
                 FLOW_PRIORITY_TRANSPORT_EGRESS_PIPELINE, cookie, flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, fb);
+        writeFlow(sffNodeName, fb);
     }
 
     @Override
@@ -1593,16 +1645,8 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         // 2. Write C2 to Vnid
         // 3. remove nsh header
         // 4. Egress to the specified port
-        List<Action> actionList = new ArrayList<>();
-
-        // Write C1 to Ipv4TunDst
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNsc1ToTunIpv4DstRegister(actionList.size()));
-
-        // Write C2 to Vnid
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNsc2ToTunIdRegister(actionList.size()));
-
-        // Pop NSH
-        actionList.add(SfcOpenflowUtils.createActionNxPopNsh(actionList.size()));
+        List<Action> actionList = SfcOfFlowTemplates.actionsFrom(
+                SfcOfFlowTemplates.NSH_ETH_LASTHOP_TUNNEL_EGRESS_ACTIONS);
 
         // Egress to port
         actionList.add(SfcOpenflowUtils.createActionOutPort(outport, actionList.size()));
@@ -1616,15 +1660,14 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
                 .add(outport);
 
         // Make the cookie
-        BigInteger cookie = new BigInteger(
-                TRANSPORT_EGRESS_COOKIE_STR_BASE + TRANSPORT_EGRESS_NSH_ETH_LASTHOP_TUNNEL_REMOTE_COOKIE,
-                COOKIE_BIGINT_HEX_RADIX);
+        BigInteger cookie = SfcOfFlowTemplates.transportEgressCookie(
+                TRANSPORT_EGRESS_NSH_ETH_LASTHOP_TUNNEL_REMOTE_COOKIE);
 
         // Create and return the flow
         FlowBuilder fb = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_TRANSPORT_EGRESS),
                 FLOW_PRIORITY_TRANSPORT_EGRESS_TUNNEL_REMOTE, cookie, flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, fb);
+        writeFlow(sffNodeName, fb);
     }
 
     /**
@@ -1656,16 +1699,8 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         // 1. Write C1 to Ipv4TunDst
         // 2. Write C2 to Vnid
         // 4. Resubmit to internal tunnel table
-        List<Action> actionList = new ArrayList<>();
-
-        // Write C1 to Ipv4TunDst
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNsc1ToTunIpv4DstRegister(actionList.size()));
-
-        // Write C2 to Vnid
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNsc2ToTunIdRegister(actionList.size()));
-
-        // Pop NSH
-        actionList.add(SfcOpenflowUtils.createActionNxPopNsh(actionList.size()));
+        List<Action> actionList = SfcOfFlowTemplates.actionsFrom(
+                SfcOfFlowTemplates.NSH_ETH_LASTHOP_TUNNEL_EGRESS_ACTIONS);
 
         // Resubmit to tunnel table
         actionList.add(SfcOpenflowUtils.createActionResubmitTable(
@@ -1680,15 +1715,14 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
                 .add(sffIpAddress);
 
         // Make the cookie
-        BigInteger cookie = new BigInteger(
-                TRANSPORT_EGRESS_COOKIE_STR_BASE + TRANSPORT_EGRESS_NSH_ETH_LASTHOP_TUNNEL_LOCAL_COOKIE,
-                COOKIE_BIGINT_HEX_RADIX);
+        BigInteger cookie = SfcOfFlowTemplates.transportEgressCookie(
+                TRANSPORT_EGRESS_NSH_ETH_LASTHOP_TUNNEL_LOCAL_COOKIE);
 
         // Create and return the flow
         FlowBuilder fb = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_TRANSPORT_EGRESS),
                 FLOW_PRIORITY_TRANSPORT_EGRESS_TUNNEL_LOCAL, cookie, flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, fb);
+        writeFlow(sffNodeName, fb);
     }
 
     /**
@@ -1729,15 +1763,14 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
                 .add(sffIpAddress);
 
         // Make the cookie
-        BigInteger cookie = new BigInteger(
-                TRANSPORT_EGRESS_COOKIE_STR_BASE + TRANSPORT_EGRESS_NSH_ETH_LASTHOP_NSH_LOCAL_COOKIE,
-                COOKIE_BIGINT_HEX_RADIX);
+        BigInteger cookie = SfcOfFlowTemplates.transportEgressCookie(
+                TRANSPORT_EGRESS_NSH_ETH_LASTHOP_NSH_LOCAL_COOKIE);
 
         // Create and return the flow
         FlowBuilder fb = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_TRANSPORT_EGRESS),
                 FLOW_PRIORITY_TRANSPORT_EGRESS_NSH_LOCAL, cookie, flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, fb);
+        writeFlow(sffNodeName, fb);
     }
 
     /**
@@ -1765,13 +1798,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         // 1. Write C1 to Ipv4TunDst
         // 2. Write C2 to Vnid
         // 4. Egress to the specified port
-        List<Action> actionList = new ArrayList<>();
-
-        // Write C1 to Ipv4TunDst
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNsc1ToTunIpv4DstRegister(actionList.size()));
-
-        // Write C2 to Vnid
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNsc2ToTunIdRegister(actionList.size()));
+        List<Action> actionList = SfcOfFlowTemplates.actionsFrom(SfcOfFlowTemplates.NSH_ETH_LASTHOP_NSH_EGRESS_ACTIONS);
 
         // Egress to port
         actionList.add(SfcOpenflowUtils.createActionOutPort(outport, actionList.size()));
@@ -1785,15 +1812,14 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
                 .add(outport);
 
         // Make the cookie
-        BigInteger cookie = new BigInteger(
-                TRANSPORT_EGRESS_COOKIE_STR_BASE + TRANSPORT_EGRESS_NSH_ETH_LASTHOP_NSH_REMOTE_COOKIE,
-                COOKIE_BIGINT_HEX_RADIX);
+        BigInteger cookie = SfcOfFlowTemplates.transportEgressCookie(
+                TRANSPORT_EGRESS_NSH_ETH_LASTHOP_NSH_REMOTE_COOKIE);
 
         // Create and return the flow
         FlowBuilder fb = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_TRANSPORT_EGRESS),
                 FLOW_PRIORITY_TRANSPORT_EGRESS_NSH_REMOTE, cookie, flowName.toString(), match, isb);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, fb);
+        writeFlow(sffNodeName, fb);
     }
 
     @Override
@@ -1838,19 +1864,9 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
             flowPriority += 5;
         }
 
-        List<Action> actionList = new ArrayList<>();
-        // Copy/Move Nsc1/Nsc2 to the next hop
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNshMdtype(actionList.size()));
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNshNp(actionList.size()));
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNsc1(actionList.size()));
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNsc2(actionList.size()));
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNsc3(actionList.size()));
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNsc4(actionList.size()));
-        actionList.add(SfcOpenflowUtils.createActionNxMoveTunIdRegister(actionList.size()));
-
-        /* Need to set TUN_GPE_NP for VxLAN-gpe port */
-        actionList
-                .add(SfcOpenflowUtils.createActionNxLoadTunGpeNp(OpenflowConstants.TUN_GPE_NP_NSH, actionList.size()));
+        // Copy/Move Nsc1/Nsc2 to the next hop, and set TUN_GPE_NP for
+        // VxLAN-gpe port
+        List<Action> actionList = SfcOfFlowTemplates.actionsFrom(SfcOfFlowTemplates.NSH_VXGPE_EGRESS_ACTIONS);
 
         StringJoiner flowName = new StringJoiner(FLOW_NAME_DELIMITER);
         flowName.add(FLOW_NAME_TRANSPORT_EGRESS)
@@ -1858,7 +1874,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder transportEgressFlow = configureTransportEgressFlow(match, actionList, theOutPortToSet, flowPriority,
                 TRANSPORT_EGRESS_NSH_VXGPE_COOKIE, flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
+        writeFlow(sffNodeName, transportEgressFlow);
     }
 
     /**
@@ -1888,16 +1904,14 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         SfcOpenflowUtils.addMatchNshNsc1(match, 0L);
 
         /* Need to set TUN_GPE_NP for VxLAN-gpe port */
-        List<Action> actionList = new ArrayList<>();
-        actionList
-                .add(SfcOpenflowUtils.createActionNxLoadTunGpeNp(OpenflowConstants.TUN_GPE_NP_NSH, actionList.size()));
+        List<Action> actionList = SfcOfFlowTemplates.actionsFrom(SfcOfFlowTemplates.NSH_VXGPE_NSC_EGRESS_ACTIONS);
 
         StringJoiner flowName = new StringJoiner(FLOW_NAME_DELIMITER);
         flowName.add(FLOW_NAME_TRANSPORT_EGRESS).add(String.valueOf(nshNsi)).add(String.valueOf(nshNsp)).add(port);
 
         FlowBuilder transportEgressFlow = configureTransportEgressFlow(match, actionList, port,
                 FLOW_PRIORITY_TRANSPORT_EGRESS + 10, TRANSPORT_EGRESS_NSH_VXGPE_NSC_COOKIE, flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
+        writeFlow(sffNodeName, transportEgressFlow);
     }
 
     @Override
@@ -1919,17 +1933,8 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         SfcOpenflowUtils.addMatchNshNsc1(match, ipl);
 
         // Copy/Move Nsi, Nsp, Nsc1=>TunIpv4Dst, and Nsc2=>TunId(Vnid)
-        List<Action> actionList = new ArrayList<>();
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNshMdtype(actionList.size()));
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNshNp(actionList.size()));
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNsi(actionList.size()));
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNsp(actionList.size()));
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNsc1ToTunIpv4DstRegister(actionList.size()));
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNsc2ToTunIdRegister(actionList.size()));
-
-        /* Need to set TUN_GPE_NP for VxLAN-gpe port */
-        actionList
-                .add(SfcOpenflowUtils.createActionNxLoadTunGpeNp(OpenflowConstants.TUN_GPE_NP_NSH, actionList.size()));
+        // Need to set TUN_GPE_NP for VxLAN-gpe port
+        List<Action> actionList = SfcOfFlowTemplates.actionsFrom(SfcOfFlowTemplates.NSH_VXGPE_LASTHOP_EGRESS_ACTIONS);
 
         StringJoiner flowName = new StringJoiner(FLOW_NAME_DELIMITER);
         flowName.add(FLOW_NAME_APPCOEXIST_TRANSPORT_EGRESS)
@@ -1937,7 +1942,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder transportEgressFlow = configureTransportEgressFlow(match, actionList, EMPTY_SWITCH_PORT,
                 FLOW_PRIORITY_TRANSPORT_EGRESS + 10, TRANSPORT_EGRESS_NSH_VXGPE_APPCOEXIST_COOKIE, flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
+        writeFlow(sffNodeName, transportEgressFlow);
     }
 
     /**
@@ -1955,18 +1960,9 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
      */
     @Override
     public void configureNshEthTransportEgressFlow(String sffNodeName, long nshNsp, short nshNsi, String port) {
-        List<Action> actionList = new ArrayList<>();
-        // Copy/Move Nsc1/Nsc2/Nsi/Nsp to the next hop
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNsc1(actionList.size()));
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNsc2(actionList.size()));
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNsi(actionList.size()));
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNsp(actionList.size()));
-        actionList.add(SfcOpenflowUtils.createActionNxMoveNshMdtype(actionList.size()));
-
-        // Dont need to set Ethernet EtherType
-
-        // Set NSH NextProtocol to Ethernet
-        actionList.add(SfcOpenflowUtils.createActionNxLoadNshNp(OpenflowConstants.NSH_NP_ETH, actionList.size()));
+        // Copy/Move Nsc1/Nsc2/Nsi/Nsp to the next hop, and set NSH
+        // NextProtocol to Ethernet. Dont need to set Ethernet EtherType
+        List<Action> actionList = SfcOfFlowTemplates.actionsFrom(SfcOfFlowTemplates.NSH_ETH_EGRESS_ACTIONS);
 
         // Ethernet encap is performed in configureNshEthNextHopFlow()
         // while setting the next hop outer MAC addresses
@@ -1978,7 +1974,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
         FlowBuilder transportEgressFlow = configureTransportEgressFlow(match, actionList, port,
                 FLOW_PRIORITY_TRANSPORT_EGRESS, TRANSPORT_EGRESS_NSH_ETH_COOKIE, flowName.toString());
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, transportEgressFlow);
+        writeFlow(sffNodeName, transportEgressFlow);
     }
 
     @Override
@@ -1992,6 +1988,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
     @Override
     public void setTableIndexMapper(SfcTableIndexMapper tableIndexMapper) {
         this.tableIndexMapper = tableIndexMapper;
+        updateTableIds();
     }
 
     /**
@@ -2068,7 +2065,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         InstructionsBuilder isb = SfcOpenflowUtils.wrapActionsIntoApplyActionsInstruction(actionList);
 
         // Make the cookie
-        BigInteger cookie = new BigInteger(TRANSPORT_EGRESS_COOKIE_STR_BASE + cookieStr, COOKIE_BIGINT_HEX_RADIX);
+        BigInteger cookie = SfcOfFlowTemplates.transportEgressCookie(cookieStr);
 
         // Create and return the flow
         return SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_TRANSPORT_EGRESS), flowPriority, cookie,
@@ -2084,11 +2081,11 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         InstructionsBuilder isb = SfcOpenflowUtils.wrapActionsIntoApplyActionsInstruction(actionList);
 
         // Make the cookie
-        BigInteger cookie = new BigInteger(TRANSPORT_EGRESS_COOKIE_STR_BASE + cookieStr, COOKIE_BIGINT_HEX_RADIX);
+        BigInteger cookie = SfcOfFlowTemplates.transportEgressCookie(cookieStr);
 
         FlowBuilder transportEgressFlowBuilder = SfcOpenflowUtils.createFlowBuilder(
                 getTableId(TABLE_INDEX_TRANSPORT_EGRESS), flowPriority, cookie, flowName, match, isb);
-        sfcOfFlowWriter.writeFlow(flowRspId, openflowName, transportEgressFlowBuilder);
+        writeFlow(openflowName, transportEgressFlowBuilder);
     }
 
     @Override
@@ -2121,6 +2118,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         BucketId bucketId = new BucketId((long) bucketInfo.getIndex());
         bb.setBucketId(bucketId);
         bb.setKey(new BucketKey(bucketId));
+        bb.setWeight(bucketInfo.getWeight());
         String sfMac = bucketInfo.getSfMac();
         String sfIp = bucketInfo.getSfIp();
         List<Action> actionList = new ArrayList<>();
@@ -2192,7 +2190,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         // Create and configure the FlowBuilder
         FlowBuilder nextHopFlow = SfcOpenflowUtils.createFlowBuilder(getTableId(TABLE_INDEX_NEXT_HOP), flowPriority,
                 FLOW_NAME_NEXT_HOP, match, isb);
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, nextHopFlow);
+        writeFlow(sffNodeName, nextHopFlow);
     }
 
     private static BigInteger getMetadataSFP(long sfpId) {
@@ -2200,8 +2198,29 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
     }
 
     /**
-     * getTableId Having a TableBase allows us to "offset" the SFF tables by
-     * this.tableBase tables. This is used for App Coexistence. When a
+     * getTableId Get the table id of a table index, as last computed by
+     * {@link #updateTableIds()}.
+     *
+     * @param tableIndex
+     *            - the table to offset
+     * @return the resulting table id
+     */
+    private short getTableId(short tableIndex) {
+        if (tableIndex >= 0 && tableIndex < tableIds.length) {
+            return tableIds[tableIndex];
+        }
+        return computeTableId(tableIndex);
+    }
+
+    private void updateTableIds() {
+        for (short tableIndex = 0; tableIndex < tableIds.length; tableIndex++) {
+            tableIds[tableIndex] = computeTableId(tableIndex);
+        }
+    }
+
+    /**
+     * computeTableId Having a TableBase allows us to "offset" the SFF tables
+     * by this.tableBase tables. This is used for App Coexistence. When a
      * {@link SfcTableIndexMapper} has been provided, it is used (this is
      * another way of performing App coexistence)
      *
@@ -2209,7 +2228,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
      *            - the table to offset
      * @return the resulting table id
      */
-    private short getTableId(short tableIndex) {
+    private short computeTableId(short tableIndex) {
 
         // A transport processor can provide a table index mapper in order
         // to retrieve table positions
@@ -9,6 +9,7 @@
 package org.opendaylight.sfc.ofrenderer.openflow;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import org.opendaylight.sfc.genius.util.appcoexistence.SfcTableIndexMapper;
@@ -56,9 +57,61 @@ public interface SfcOfFlowProgrammerInterface {
      */
     Set<NodeId> deleteRspFlows(long rspId);
 
+    /**
+     * Deletes all flows created for the given RSPs, and removes initialization
+     * flows from SFFs if the last RSP was removed. The flows of the RSPs that
+     * are not stored, for example after a restart, are matched by the path id
+     * encoded in their cookie on the given SFFs.
+     *
+     * @param rspSffNodeNames
+     *            the ids of the RSPs to be deleted, each with the openflow
+     *            node names of its SFFs
+     *
+     * @return Node IDs from which initialization flows were removed.
+     */
+    Set<NodeId> deleteRspsFlows(Map<Long, Set<String>> rspSffNodeNames);
+
+    /**
+     * Starts an update of the flows of a particular RSP. Flows configured for
+     * the RSP from now on replace the ones currently installed, only the
+     * flows that changed are actually written.
+     *
+     * @param rspId
+     *            the id of the RSP to be updated
+     */
+    void beginRspFlowsUpdate(long rspId);
+
+    /**
+     * Finishes an update of the flows of a particular RSP, removing the flows
+     * that are no longer needed once the new flows have been written, and
+     * removing initialization flows from SFFs no longer used by any RSP.
+     *
+     * @param rspId
+     *            the id of the RSP being updated
+     *
+     * @return Node IDs from which initialization flows were removed.
+     */
+    Set<NodeId> finishRspFlowsUpdate(long rspId);
+
+    /**
+     * Aborts an update of the flows of a particular RSP, keeping the flows
+     * that were installed before the update started.
+     *
+     * @param rspId
+     *            the id of the RSP being updated
+     */
+    void abortRspFlowsUpdate(long rspId);
+
     // Write any buffered flows to the data store
     void flushFlows();
 
+    // Start a batch of flows, written all together on flushFlowsBatch() instead
+    // of on each flushFlows()
+    void beginFlowsBatch();
+
+    // Write the flows flushed since the batch started and end the batch
+    void flushFlowsBatch();
+
     // Purge any unwritten flows not written yet. This should be called upon
     // errors, when the remaining buffered flows should not be written.
     void purgeFlows();
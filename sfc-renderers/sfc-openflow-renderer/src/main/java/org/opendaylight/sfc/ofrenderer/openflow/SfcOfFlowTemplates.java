@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer.openflow;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+import org.opendaylight.sfc.util.openflow.OpenflowConstants;
+import org.opendaylight.sfc.util.openflow.SfcOpenflowUtils;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.list.Action;
+
+/**
+ * Precompiled invariant parts of the flows written by the
+ * {@link SfcOfFlowProgrammerImpl}. The leading actions of most flows only
+ * depend on the flow type and transport, not on the rendered service path,
+ * and the actions are immutable, so they are built once and shared by all the
+ * flows of that type; only the per-RSP actions are built for each flow. The
+ * transport egress cookies are built once per cookie type as well.
+ */
+final class SfcOfFlowTemplates {
+
+    // NSH VXGPE transport egress: move the NSH context to the next hop
+    static final List<Action> NSH_VXGPE_EGRESS_ACTIONS = actions(
+            SfcOpenflowUtils::createActionNxMoveNshMdtype,
+            SfcOpenflowUtils::createActionNxMoveNshNp,
+            SfcOpenflowUtils::createActionNxMoveNsc1,
+            SfcOpenflowUtils::createActionNxMoveNsc2,
+            SfcOpenflowUtils::createActionNxMoveNsc3,
+            SfcOpenflowUtils::createActionNxMoveNsc4,
+            SfcOpenflowUtils::createActionNxMoveTunIdRegister,
+            order -> SfcOpenflowUtils.createActionNxLoadTunGpeNp(OpenflowConstants.TUN_GPE_NP_NSH, order));
+
+    // NSH VXGPE last hop and app coexistence transport egress: move Nsi, Nsp,
+    // Nsc1=>TunIpv4Dst and Nsc2=>TunId(Vnid)
+    static final List<Action> NSH_VXGPE_LASTHOP_EGRESS_ACTIONS = actions(
+            SfcOpenflowUtils::createActionNxMoveNshMdtype,
+            SfcOpenflowUtils::createActionNxMoveNshNp,
+            SfcOpenflowUtils::createActionNxMoveNsi,
+            SfcOpenflowUtils::createActionNxMoveNsp,
+            SfcOpenflowUtils::createActionNxMoveNsc1ToTunIpv4DstRegister,
+            SfcOpenflowUtils::createActionNxMoveNsc2ToTunIdRegister,
+            order -> SfcOpenflowUtils.createActionNxLoadTunGpeNp(OpenflowConstants.TUN_GPE_NP_NSH, order));
+
+    // NSH VXGPE transport egress when Nsc1 is not set
+    static final List<Action> NSH_VXGPE_NSC_EGRESS_ACTIONS = actions(
+            order -> SfcOpenflowUtils.createActionNxLoadTunGpeNp(OpenflowConstants.TUN_GPE_NP_NSH, order));
+
+    // NSH Ethernet transport egress: move the NSH context to the next hop and
+    // set the NSH next protocol to Ethernet
+    static final List<Action> NSH_ETH_EGRESS_ACTIONS = actions(
+            SfcOpenflowUtils::createActionNxMoveNsc1,
+            SfcOpenflowUtils::createActionNxMoveNsc2,
+            SfcOpenflowUtils::createActionNxMoveNsi,
+            SfcOpenflowUtils::createActionNxMoveNsp,
+            SfcOpenflowUtils::createActionNxMoveNshMdtype,
+            order -> SfcOpenflowUtils.createActionNxLoadNshNp(OpenflowConstants.NSH_NP_ETH, order));
+
+    // NSH Ethernet last hop transport egress to an NSH service: write C1 to
+    // Ipv4TunDst and C2 to Vnid
+    static final List<Action> NSH_ETH_LASTHOP_NSH_EGRESS_ACTIONS = actions(
+            SfcOpenflowUtils::createActionNxMoveNsc1ToTunIpv4DstRegister,
+            SfcOpenflowUtils::createActionNxMoveNsc2ToTunIdRegister);
+
+    // NSH Ethernet last hop transport egress to a tunnel service: write C1 to
+    // Ipv4TunDst and C2 to Vnid, and remove the NSH header
+    static final List<Action> NSH_ETH_LASTHOP_TUNNEL_EGRESS_ACTIONS = actions(
+            SfcOpenflowUtils::createActionNxMoveNsc1ToTunIpv4DstRegister,
+            SfcOpenflowUtils::createActionNxMoveNsc2ToTunIdRegister,
+            SfcOpenflowUtils::createActionNxPopNsh);
+
+    static final List<Action> VLAN_PATH_MAPPER_ACTIONS = actions(SfcOpenflowUtils::createActionPopVlan);
+
+    static final List<Action> VLAN_EGRESS_ACTIONS = actions(SfcOpenflowUtils::createActionPushVlan);
+
+    static final List<Action> MPLS_PATH_MAPPER_ACTIONS = actions(SfcOpenflowUtils::createActionPopMpls);
+
+    static final List<Action> MPLS_EGRESS_ACTIONS = actions(SfcOpenflowUtils::createActionPushMpls);
+
+    // Room left in the action lists for the per-RSP actions
+    private static final int RSP_ACTIONS_CAPACITY = 4;
+
+    private static final Map<String, BigInteger> TRANSPORT_EGRESS_COOKIES = new ConcurrentHashMap<>();
+
+    private SfcOfFlowTemplates() {
+    }
+
+    /**
+     * Start the action list of a flow from a template. The returned list can
+     * be extended with the per-RSP actions, whose order is the size of the
+     * list when they are added.
+     *
+     * @param template
+     *            - the invariant actions of the flow type
+     * @return a new modifiable list holding the template actions
+     */
+    static List<Action> actionsFrom(List<Action> template) {
+        List<Action> actionList = new ArrayList<>(template.size() + RSP_ACTIONS_CAPACITY);
+        actionList.addAll(template);
+        return actionList;
+    }
+
+    /**
+     * Get the cookie of a transport egress flow type.
+     *
+     * @param cookieStr
+     *            - the transport egress cookie suffix of the flow type
+     * @return the cookie, carrying the given suffix as flow type; the path id
+     *         is set when the flow is written for an RSP
+     */
+    static BigInteger transportEgressCookie(String cookieStr) {
+        return TRANSPORT_EGRESS_COOKIES.computeIfAbsent(cookieStr,
+            key -> SfcOpenflowUtils.createRspCookie(0,
+                Long.parseLong(key, SfcOfFlowProgrammerImpl.COOKIE_BIGINT_HEX_RADIX)));
+    }
+
+    @SafeVarargs
+    private static List<Action> actions(IntFunction<Action>... actionBuilders) {
+        List<Action> actionList = new ArrayList<>(actionBuilders.length);
+        for (IntFunction<Action> actionBuilder : actionBuilders) {
+            actionList.add(actionBuilder.apply(actionList.size()));
+        }
+        return Collections.unmodifiableList(actionList);
+    }
+}
@@ -8,11 +8,16 @@
 
 package org.opendaylight.sfc.ofrenderer.processors;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.sal.binding.api.RpcProviderRegistry;
 import org.opendaylight.genius.mdsalutil.NwConstants;
@@ -24,6 +29,9 @@ import org.opendaylight.sfc.ofrenderer.utils.SfcSynchronizer;
 import org.opendaylight.sfc.ofrenderer.utils.operdsupdate.OperDsUpdateHandlerInterface;
 import org.opendaylight.sfc.ofrenderer.utils.operdsupdate.OperDsUpdateHandlerLSFFImpl;
 import org.opendaylight.sfc.ovs.provider.SfcOvsUtil;
+import org.opendaylight.sfc.provider.perf.RspLifecycleStage;
+import org.opendaylight.sfc.provider.perf.SfcRspLatencyTracer;
+import org.opendaylight.sfc.util.macchaining.VirtualMacAddress;
 import org.opendaylight.sfc.util.openflow.OpenflowConstants;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
@@ -42,6 +50,7 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev14070
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.Transport;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.VxlanGpe;
 import org.opendaylight.yang.gen.v1.urn.ericsson.params.xml.ns.yang.sfc.sff.logical.rev160620.DpnIdType;
+import org.opendaylight.yang.gen.v1.urn.ericsson.params.xml.ns.yang.sfc.sff.logical.rev160620.RspLogicalSffAugmentation;
 import org.opendaylight.yang.gen.v1.urn.ericsson.params.xml.ns.yang.sfc.sff.logical.rev160620.service.functions.service.function.sf.data.plane.locator.locator.type.LogicalInterface;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
 import org.slf4j.Logger;
@@ -107,7 +116,88 @@ public class SfcOfRspProcessor {
         try {
             // This call blocks until the lock is obtained
             sfcSynchronizer.lock();
+            renderRenderedServicePath(rsp);
+        } finally {
+            sfcSynchronizer.unlock();
+        }
+    }
+
+    /**
+     * Renders many RSPs at once, as needed after a controller restart when all
+     * the existing RSPs are notified together. The SFs and SFFs are read once
+     * for all the RSPs, the SFF initialization flows are built once per SFF,
+     * and the flows of all the RSPs are written at the end in large
+     * transactions per switch, instead of a transaction per RSP.
+     *
+     * @param rsps
+     *            - the Rendered Service Paths to render
+     */
+    public void processRenderedServicePaths(List<RenderedServicePath> rsps) {
+        LOG.info("processRenderedServicePaths: rendering {} RSPs in bulk", rsps.size());
+        try {
+            // This call blocks until the lock is obtained
+            sfcSynchronizer.lock();
+            sfcOfProviderUtils.beginSnapshot();
+            sfcOfFlowProgrammer.beginFlowsBatch();
+            // The MAC chaining RSPs reserve their preferred chain ids before
+            // any new RSP takes them, so that most of them get back the ids
+            // they had before the restart
+            VirtualMacAddress.reserveChainIds(rsps.stream()
+                    .filter(SfcOfRspProcessor::isMacChaining)
+                    .map(RenderedServicePath::getPathId)
+                    .collect(Collectors.toList()));
+            rsps.forEach(this::renderRenderedServicePath);
+        } finally {
+            sfcOfFlowProgrammer.flushFlowsBatch();
+            sfcOfProviderUtils.endSnapshot();
+            sfcSynchronizer.unlock();
+        }
+        LOG.info("processRenderedServicePaths: rendered {} RSPs in bulk", rsps.size());
+    }
+
+    /**
+     * Updates the OpenFlow flows of an already rendered RSP, as needed when
+     * any of the SFFs or SFs used by the RSP changed. The flows of the RSP are
+     * calculated again, but only those that differ from the installed ones
+     * are written. The flows that are no longer needed are removed after the
+     * new ones are written (make-before-break), so traffic flowing through
+     * the unaffected hops is not disrupted. If the RSP cannot be rendered, the
+     * flows installed before the update are kept.
+     *
+     * @param rsp
+     *            - the Rendered Service Path to update
+     */
+    public void updateRenderedServicePath(RenderedServicePath rsp) {
+        try {
+            // This call blocks until the lock is obtained
+            sfcSynchronizer.lock();
+            sfcOfFlowProgrammer.beginRspFlowsUpdate(rsp.getPathId());
+            if (renderRenderedServicePath(rsp)) {
+                Set<NodeId> clearedSffNodeIDs = sfcOfFlowProgrammer.finishRspFlowsUpdate(rsp.getPathId());
+                for (NodeId sffNodeId : clearedSffNodeIDs) {
+                    setSffInitialized(sffNodeId, false);
+                }
+            } else {
+                LOG.warn("updateRenderedServicePath: keeping previous flows for RSP: name [{}] Id [{}]",
+                        rsp.getName(), rsp.getPathId());
+                sfcOfFlowProgrammer.abortRspFlowsUpdate(rsp.getPathId());
+            }
+        } finally {
+            sfcSynchronizer.unlock();
+        }
+    }
 
+    /**
+     * Calculates the flows of an RSP and writes them to the data store. Must
+     * be called with the synchronizer lock held.
+     *
+     * @param rsp
+     *            - the Rendered Service Path to render
+     * @return true if the RSP was rendered, false otherwise
+     */
+    private boolean renderRenderedServicePath(RenderedServicePath rsp) {
+        SfcRspLatencyTracer.markStage(rsp.getPathId(), RspLifecycleStage.RENDERER_DISPATCH);
+        try {
             sfcOfProviderUtils.addRsp(rsp.getPathId());
 
             //
@@ -149,21 +239,25 @@ public class SfcOfRspProcessor {
                 configureTransportEgressFlows(entry, sffGraph, transportProcessor);
             }
 
+            SfcRspLatencyTracer.markStage(rsp.getPathId(), RspLifecycleStage.FLOW_GENERATION);
+
             // Flush the flows to the data store
             this.sfcOfFlowProgrammer.flushFlows();
+            SfcRspLatencyTracer.markStage(rsp.getPathId(), RspLifecycleStage.FLOW_FLUSH);
 
             // Update the operational datastore if necessary (without blocking)
             transportProcessor.updateOperationalDSInfo(sffGraph, rsp);
 
             LOG.info("Processing complete for RSP: name [{}] Id [{}]", rsp.getName(), rsp.getPathId());
+            return true;
 
         } catch (SfcRenderingException e) {
             LOG.error("SfcRenderingException in processRenderedServicePath: ", e.getMessage(), e);
+            return false;
         } finally {
             // If there were any errors, purge any remaining flows so they're
             // not written
             this.sfcOfFlowProgrammer.purgeFlows();
-            sfcSynchronizer.unlock();
             sfcOfProviderUtils.removeRsp(rsp.getPathId());
         }
     }
@@ -175,7 +269,32 @@ public class SfcOfRspProcessor {
      *            - the Rendered Service Path to delete
      */
     public void deleteRenderedServicePath(RenderedServicePath rsp) {
-        Set<NodeId> clearedSffNodeIDs = sfcOfFlowProgrammer.deleteRspFlows(rsp.getPathId());
+        deleteRenderedServicePaths(Collections.singletonList(rsp));
+    }
+
+    /**
+     * Deletes the OpenFlow flows associated with several Rendered Service
+     * Paths at once, as when many RSPs are torn down together.
+     *
+     * @param rsps
+     *            - the Rendered Service Paths to delete
+     */
+    public void deleteRenderedServicePaths(Collection<RenderedServicePath> rsps) {
+        Map<Long, Set<String>> rspSffNodeNames = new HashMap<>();
+        // Read the SFFs at once only when they are shared by several RSPs
+        boolean snapshot = rsps.size() > 1;
+        try {
+            if (snapshot) {
+                sfcOfProviderUtils.beginSnapshot();
+            }
+            rsps.forEach(rsp -> rspSffNodeNames.put(rsp.getPathId(), getRspSffNodeNames(rsp)));
+        } finally {
+            if (snapshot) {
+                sfcOfProviderUtils.endSnapshot();
+            }
+        }
+
+        Set<NodeId> clearedSffNodeIDs = sfcOfFlowProgrammer.deleteRspsFlows(rspSffNodeNames);
         for (NodeId sffNodeId : clearedSffNodeIDs) {
             setSffInitialized(sffNodeId, false);
         }
@@ -183,7 +302,45 @@ public class SfcOfRspProcessor {
         // not necessary to build a transport processor; simply update SFF state
         // if the RSP
         // being deleted contains dpnid information (asynchronously)
-        getOperDsHandler().onRspDeletion(rsp);
+        for (RenderedServicePath rsp : rsps) {
+            getOperDsHandler().onRspDeletion(rsp);
+            if (isMacChaining(rsp)) {
+                VirtualMacAddress.releaseChainIdFor(rsp.getPathId());
+            }
+        }
+    }
+
+    /**
+     * Get the openflow node names of the SFFs an RSP goes through, used to
+     * delete the flows of the RSP from those switches only.
+     *
+     * @param rsp
+     *            - the Rendered Service Path
+     * @return the openflow node names of the SFFs of the RSP that are known
+     */
+    private Set<String> getRspSffNodeNames(RenderedServicePath rsp) {
+        Set<String> sffNodeNames = new HashSet<>();
+        if (rsp.getRenderedServicePathHop() == null) {
+            return sffNodeNames;
+        }
+        try {
+            sfcOfProviderUtils.addRsp(rsp.getPathId());
+            for (RenderedServicePathHop rspHop : rsp.getRenderedServicePathHop()) {
+                RspLogicalSffAugmentation lsffAugmentation = rspHop.getAugmentation(RspLogicalSffAugmentation.class);
+                String sffNodeName = sfcOfProviderUtils.getSffOpenFlowNodeName(rspHop.getServiceFunctionForwarder(),
+                        rsp.getPathId(), lsffAugmentation == null ? null : lsffAugmentation.getDpnId());
+                if (sffNodeName != null) {
+                    sffNodeNames.add(sffNodeName);
+                }
+            }
+        } finally {
+            sfcOfProviderUtils.removeRsp(rsp.getPathId());
+        }
+        return sffNodeNames;
+    }
+
+    private static boolean isMacChaining(RenderedServicePath rsp) {
+        return MacChaining.class.equals(rsp.getSfcEncapsulation());
     }
 
     private OperDsUpdateHandlerInterface getOperDsHandler() {
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer.sfg;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The buckets of the group rendered for a service function group, one per
+ * service function.
+ *
+ * <p>
+ * The OpenFlow 1.3 group modifications carry no bucket id, the switches
+ * number the buckets by their position in the bucket list and select the
+ * bucket of a select group by hashing the packet fields together with that
+ * number. Each service function therefore keeps its position for as long as
+ * it is a member of the group: a new member is appended, and the slot of a
+ * removed member is taken by the last member, so that only the flows of the
+ * removed member and of the moved one are remapped instead of the flows of
+ * all the members after the removed one.
+ */
+public class SfgBucketLayout {
+
+    private final String sffName;
+    private final String openflowNodeId;
+    private final long groupId;
+    private final int groupType;
+    // the buckets by service function name, and the service functions by
+    // bucket position
+    private final Map<String, GroupBucketInfo> buckets = new HashMap<>();
+    private final List<String> slots = new ArrayList<>();
+
+    public SfgBucketLayout(String sffName, String openflowNodeId, long groupId, int groupType) {
+        this.sffName = sffName;
+        this.openflowNodeId = openflowNodeId;
+        this.groupId = groupId;
+        this.groupType = groupType;
+    }
+
+    /**
+     * Check if the buckets can be reused for a group rendered with the given
+     * parameters.
+     *
+     * @param theSffName
+     *            the SFF of the service functions
+     * @param theOpenflowNodeId
+     *            the switch of the SFF
+     * @param theGroupId
+     *            the openflow group id
+     * @param theGroupType
+     *            the openflow group type
+     * @return true if the group is rendered on the same switch with the same
+     *         id and type
+     */
+    public boolean matches(String theSffName, String theOpenflowNodeId, long theGroupId, int theGroupType) {
+        return Objects.equals(sffName, theSffName) && Objects.equals(openflowNodeId, theOpenflowNodeId)
+                && groupId == theGroupId && groupType == theGroupType;
+    }
+
+    public String getSffName() {
+        return sffName;
+    }
+
+    public String getOpenflowNodeId() {
+        return openflowNodeId;
+    }
+
+    public long getGroupId() {
+        return groupId;
+    }
+
+    public int getGroupType() {
+        return groupType;
+    }
+
+    /**
+     * Update the buckets to the given members: the buckets of the removed
+     * members are dropped, their slots being taken by the last members, the
+     * buckets of the other members are rebuilt, so that a change of the
+     * address or port of a member is rendered, and the buckets of the new
+     * members are appended.
+     *
+     * @param sfNames
+     *            the service functions of the group
+     * @param bucketBuilder
+     *            builds the bucket of a member, returns null if it cannot be
+     *            built, in which case a new member is left out and an
+     *            existing member keeps its bucket; the index is set by this
+     *            method
+     * @return true if a bucket was added, removed or changed
+     */
+    public boolean update(Collection<String> sfNames, Function<String, GroupBucketInfo> bucketBuilder) {
+        Set<String> members = new LinkedHashSet<>(sfNames);
+        boolean changed = false;
+        int slot = 0;
+        while (slot < slots.size()) {
+            String sfName = slots.get(slot);
+            if (!members.contains(sfName)) {
+                removeSlot(slot);
+                changed = true;
+                // the slot now holds the last member, if any
+                continue;
+            }
+            GroupBucketInfo bucket = bucketBuilder.apply(sfName);
+            if (bucket != null && !isSameBucket(bucket, buckets.get(sfName))) {
+                bucket.setIndex(slot);
+                buckets.put(sfName, bucket);
+                changed = true;
+            }
+            slot++;
+        }
+
+        for (String sfName : members) {
+            if (buckets.containsKey(sfName)) {
+                continue;
+            }
+            GroupBucketInfo bucket = bucketBuilder.apply(sfName);
+            if (bucket == null) {
+                continue;
+            }
+            bucket.setIndex(slots.size());
+            slots.add(sfName);
+            buckets.put(sfName, bucket);
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * Get the buckets.
+     *
+     * @return the buckets, in the order of their bucket ids, which are their
+     *         positions in the list
+     */
+    public List<GroupBucketInfo> getBuckets() {
+        List<GroupBucketInfo> sortedBuckets = new ArrayList<>(slots.size());
+        slots.forEach(sfName -> sortedBuckets.add(buckets.get(sfName)));
+        return sortedBuckets;
+    }
+
+    // drop the bucket of a slot, moving the bucket of the last slot into it
+    private void removeSlot(int slot) {
+        buckets.remove(slots.get(slot));
+        String lastSfName = slots.remove(slots.size() - 1);
+        if (slot < slots.size()) {
+            slots.set(slot, lastSfName);
+            buckets.get(lastSfName).setIndex(slot);
+        }
+    }
+
+    private static boolean isSameBucket(GroupBucketInfo bucket, GroupBucketInfo otherBucket) {
+        return otherBucket != null && Objects.equals(bucket.getSfMac(), otherBucket.getSfMac())
+                && Objects.equals(bucket.getSfIp(), otherBucket.getSfIp())
+                && Objects.equals(bucket.getOutPort(), otherBucket.getOutPort())
+                && Objects.equals(bucket.getWeight(), otherBucket.getWeight());
+    }
+}
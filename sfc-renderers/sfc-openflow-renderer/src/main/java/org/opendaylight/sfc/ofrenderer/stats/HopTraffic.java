@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer.stats;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * The traffic steered to the service function of a hop of a rendered service
+ * path.
+ */
+public class HopTraffic {
+    private final short serviceIndex;
+    private final String sfName;
+    private final long packets;
+    private final long bytes;
+    private final double packetRate;
+    private final double byteRate;
+
+    @ConstructorProperties({"serviceIndex", "sfName", "packets", "bytes", "packetRate", "byteRate"})
+    public HopTraffic(short serviceIndex, String sfName, long packets, long bytes, double packetRate,
+            double byteRate) {
+        this.serviceIndex = serviceIndex;
+        this.sfName = sfName;
+        this.packets = packets;
+        this.bytes = bytes;
+        this.packetRate = packetRate;
+        this.byteRate = byteRate;
+    }
+
+    public short getServiceIndex() {
+        return serviceIndex;
+    }
+
+    public String getSfName() {
+        return sfName;
+    }
+
+    public long getPackets() {
+        return packets;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public double getPacketRate() {
+        return packetRate;
+    }
+
+    public double getByteRate() {
+        return byteRate;
+    }
+
+    @Override
+    public String toString() {
+        return "HopTraffic [serviceIndex=" + serviceIndex + ", sfName=" + sfName + ", packets=" + packets
+                + ", bytes=" + bytes + ", packetRate=" + packetRate + ", byteRate=" + byteRate + "]";
+    }
+}
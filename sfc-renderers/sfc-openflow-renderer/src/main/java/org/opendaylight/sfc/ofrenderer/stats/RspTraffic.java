@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer.stats;
+
+import java.beans.ConstructorProperties;
+import java.util.List;
+
+/**
+ * The traffic carried by a rendered service path, in total and per hop.
+ */
+public class RspTraffic {
+    private final String rspName;
+    private final long pathId;
+    private final long packets;
+    private final long bytes;
+    private final double packetRate;
+    private final double byteRate;
+    private final List<HopTraffic> hops;
+
+    @ConstructorProperties({"rspName", "pathId", "packets", "bytes", "packetRate", "byteRate", "hops"})
+    public RspTraffic(String rspName, long pathId, long packets, long bytes, double packetRate, double byteRate,
+            List<HopTraffic> hops) {
+        this.rspName = rspName;
+        this.pathId = pathId;
+        this.packets = packets;
+        this.bytes = bytes;
+        this.packetRate = packetRate;
+        this.byteRate = byteRate;
+        this.hops = hops;
+    }
+
+    public String getRspName() {
+        return rspName;
+    }
+
+    public long getPathId() {
+        return pathId;
+    }
+
+    public long getPackets() {
+        return packets;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public double getPacketRate() {
+        return packetRate;
+    }
+
+    public double getByteRate() {
+        return byteRate;
+    }
+
+    /**
+     * Get the traffic of each hop, for the transports carrying the service
+     * index in the packets.
+     *
+     * @return the hops, in path order, empty if the hops cannot be told
+     *         apart
+     */
+    public List<HopTraffic> getHops() {
+        return hops;
+    }
+
+    @Override
+    public String toString() {
+        return "RspTraffic [rspName=" + rspName + ", pathId=" + pathId + ", packets=" + packets + ", bytes=" + bytes
+                + ", packetRate=" + packetRate + ", byteRate=" + byteRate + ", hops=" + hops + "]";
+    }
+}
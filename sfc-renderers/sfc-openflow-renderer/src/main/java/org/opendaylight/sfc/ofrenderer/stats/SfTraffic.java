@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer.stats;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * The traffic steered to a service function by all the rendered service
+ * paths using it.
+ */
+public class SfTraffic {
+    private final String sfName;
+    private final int hopCount;
+    private final long packets;
+    private final long bytes;
+    private final double packetRate;
+    private final double byteRate;
+
+    @ConstructorProperties({"sfName", "hopCount", "packets", "bytes", "packetRate", "byteRate"})
+    public SfTraffic(String sfName, int hopCount, long packets, long bytes, double packetRate, double byteRate) {
+        this.sfName = sfName;
+        this.hopCount = hopCount;
+        this.packets = packets;
+        this.bytes = bytes;
+        this.packetRate = packetRate;
+        this.byteRate = byteRate;
+    }
+
+    public String getSfName() {
+        return sfName;
+    }
+
+    /**
+     * Get the number of hops of rendered service paths using the service
+     * function.
+     *
+     * @return the number of hops
+     */
+    public int getHopCount() {
+        return hopCount;
+    }
+
+    public long getPackets() {
+        return packets;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public double getPacketRate() {
+        return packetRate;
+    }
+
+    public double getByteRate() {
+        return byteRate;
+    }
+
+    @Override
+    public String toString() {
+        return "SfTraffic [sfName=" + sfName + ", hopCount=" + hopCount + ", packets=" + packets + ", bytes="
+                + bytes + ", packetRate=" + packetRate + ", byteRate=" + byteRate + "]";
+    }
+}
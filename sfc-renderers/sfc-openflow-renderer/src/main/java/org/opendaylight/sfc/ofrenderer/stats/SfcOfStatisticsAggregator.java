@@ -0,0 +1,425 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer.stats;
+
+import com.google.common.base.Optional;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
+import org.opendaylight.sfc.ofrenderer.openflow.SfcOfFlowProgrammerImpl;
+import org.opendaylight.sfc.util.openflow.SfcOpenflowUtils;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.RenderedServicePaths;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHop;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.Table;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.statistics.rev130819.FlowStatisticsData;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.statistics.rev130819.flow.statistics.FlowStatistics;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.flow.Match;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflowplugin.extension.general.rev140714.GeneralAugMatchNodesNodeTableFlow;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflowplugin.extension.general.rev140714.general.extension.list.grouping.ExtensionList;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflowplugin.extension.nicira.match.rev140714.NxAugMatchNodesNodeTableFlow;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Attributes the traffic counted by the switches to the rendered service
+ * paths, their hops and their service functions.
+ *
+ * <p>
+ * The flow statistics gathered by the openflow plugin in the operational
+ * inventory are read periodically. Only the next hop flows of the RSPs are
+ * considered: every packet of a path goes through exactly one of them on each
+ * switch it crosses before reaching a service function, and the path id
+ * encoded in their cookie tells which RSP they belong to. With NSH, the
+ * service index they match tells which hop they serve; a hop handled on two
+ * switches, the one steering the packets to the switch of the service
+ * function and that one, is counted once. The traffic of an RSP is the one
+ * of its busiest hop, or of its busiest switch for the transports without a
+ * service index, which is the traffic entering the path as long as the
+ * service functions do not generate packets. Group statistics are not read:
+ * the packets sent to a service function group are counted by the next hop
+ * flow pointing to the group.
+ *
+ * <p>
+ * The counters of each RSP are kept in a {@link TrafficRingBuffer} of a fixed
+ * size, the counters of each hop only as long as needed to compute their
+ * rate.
+ */
+public class SfcOfStatisticsAggregator implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcOfStatisticsAggregator.class);
+
+    public static final long DEFAULT_POLL_INTERVAL_MILLIS = 30000;
+    // 30 minutes at the default poll interval
+    public static final int DEFAULT_HISTORY_SIZE = 60;
+
+    // the key of the counters of the flows that do not match a service index
+    private static final short NO_SERVICE_INDEX = -1;
+    private static final int PACKETS = 0;
+    private static final int BYTES = 1;
+    private static final long SHUTDOWN_TIME = 5;
+
+    private static final InstanceIdentifier<RenderedServicePaths> RSPS_IID = InstanceIdentifier
+            .create(RenderedServicePaths.class);
+    private static final InstanceIdentifier<Nodes> NODES_IID = InstanceIdentifier.create(Nodes.class);
+
+    private final DataBroker dataBroker;
+    private final int historySize;
+    private final ScheduledExecutorService executor;
+    private final Map<Long, RspState> rspStates = new ConcurrentHashMap<>();
+    private final AtomicLong pollCount = new AtomicLong();
+    private volatile long lastPollFlowCount;
+    private volatile long lastPollDurationMillis;
+
+    /**
+     * Constructor.
+     *
+     * @param dataBroker
+     *            - the data broker used to read the RSPs and the inventory
+     * @param historySize
+     *            - the number of samples kept per RSP, at least 2
+     */
+    public SfcOfStatisticsAggregator(DataBroker dataBroker, int historySize) {
+        if (historySize < 2) {
+            throw new IllegalArgumentException("The history size must be at least 2, got " + historySize);
+        }
+        this.dataBroker = dataBroker;
+        this.historySize = historySize;
+        this.executor = new ScheduledThreadPoolExecutor(1);
+    }
+
+    /**
+     * Start reading the statistics periodically.
+     *
+     * @param pollIntervalMillis
+     *            - the time between two reads
+     */
+    public void start(long pollIntervalMillis) {
+        LOG.info("start: reading the RSP statistics every {} ms", pollIntervalMillis);
+        executor.scheduleWithFixedDelay(this::poll, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Read the statistics from the calling thread.
+     *
+     * @return true if the statistics were read, false otherwise
+     */
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    public boolean poll() {
+        try {
+            return poll(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            LOG.error("poll: failed reading the RSP statistics", e);
+            return false;
+        }
+    }
+
+    /**
+     * Read the statistics from the calling thread, recording them with the
+     * given timestamp.
+     *
+     * @param timestamp
+     *            - the time of the read, in milliseconds since the epoch
+     * @return true if the statistics were read, false otherwise
+     */
+    public boolean poll(long timestamp) {
+        long start = System.nanoTime();
+        List<RenderedServicePath> rsps;
+        List<Node> nodes;
+        try (ReadOnlyTransaction readTx = dataBroker.newReadOnlyTransaction()) {
+            Optional<RenderedServicePaths> rspsContainer = readTx.read(LogicalDatastoreType.OPERATIONAL, RSPS_IID)
+                    .checkedGet();
+            Optional<Nodes> nodesContainer = readTx.read(LogicalDatastoreType.OPERATIONAL, NODES_IID).checkedGet();
+            rsps = rspsContainer.isPresent() && rspsContainer.get().getRenderedServicePath() != null
+                    ? rspsContainer.get().getRenderedServicePath() : Collections.emptyList();
+            nodes = nodesContainer.isPresent() && nodesContainer.get().getNode() != null
+                    ? nodesContainer.get().getNode() : Collections.emptyList();
+        } catch (ReadFailedException e) {
+            LOG.error("poll: failed reading the RSPs and the inventory", e);
+            return false;
+        }
+
+        // path id -> service index -> node -> packets and bytes
+        Map<Long, Map<Short, Map<String, long[]>>> counters = new HashMap<>();
+        long flowCount = 0;
+        for (Node node : nodes) {
+            FlowCapableNode flowCapableNode = node.getAugmentation(FlowCapableNode.class);
+            if (flowCapableNode == null || flowCapableNode.getTable() == null) {
+                continue;
+            }
+            for (Table table : flowCapableNode.getTable()) {
+                if (table.getFlow() == null) {
+                    continue;
+                }
+                for (Flow flow : table.getFlow()) {
+                    if (addFlowCounters(node.getId().getValue(), flow, counters)) {
+                        flowCount++;
+                    }
+                }
+            }
+        }
+
+        Set<Long> pathIds = new HashSet<>();
+        for (RenderedServicePath rsp : rsps) {
+            pathIds.add(rsp.getPathId());
+            updateRspState(rsp, counters.getOrDefault(rsp.getPathId(), Collections.emptyMap()), timestamp);
+        }
+        rspStates.keySet().retainAll(pathIds);
+
+        pollCount.incrementAndGet();
+        lastPollFlowCount = flowCount;
+        lastPollDurationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        LOG.debug("poll: read [{}] next hop flows of [{}] RSPs on [{}] nodes in [{}] ms", flowCount, rsps.size(),
+                nodes.size(), lastPollDurationMillis);
+        return true;
+    }
+
+    private static boolean addFlowCounters(String nodeName, Flow flow, Map<Long, Map<Short, Map<String,
+            long[]>>> counters) {
+        if (flow.getId() == null || !flow.getId().getValue().startsWith(SfcOfFlowProgrammerImpl.FLOW_NAME_NEXT_HOP)
+                || flow.getCookie() == null || !SfcOpenflowUtils.isRspCookie(flow.getCookie().getValue())) {
+            return false;
+        }
+        FlowStatisticsData statisticsData = flow.getAugmentation(FlowStatisticsData.class);
+        FlowStatistics statistics = statisticsData == null ? null : statisticsData.getFlowStatistics();
+        if (statistics == null || statistics.getPacketCount() == null || statistics.getByteCount() == null) {
+            return false;
+        }
+
+        long pathId = SfcOpenflowUtils.getRspCookiePathId(flow.getCookie().getValue());
+        long[] nodeCounters = counters.computeIfAbsent(pathId, key -> new HashMap<>())
+                .computeIfAbsent(getServiceIndex(flow.getMatch()), key -> new HashMap<>())
+                .computeIfAbsent(nodeName, key -> new long[2]);
+        nodeCounters[PACKETS] += statistics.getPacketCount().getValue().longValue();
+        nodeCounters[BYTES] += statistics.getByteCount().getValue().longValue();
+        return true;
+    }
+
+    private static short getServiceIndex(Match match) {
+        GeneralAugMatchNodesNodeTableFlow extensions = match == null ? null
+                : match.getAugmentation(GeneralAugMatchNodesNodeTableFlow.class);
+        if (extensions == null || extensions.getExtensionList() == null) {
+            return NO_SERVICE_INDEX;
+        }
+        for (ExtensionList extension : extensions.getExtensionList()) {
+            NxAugMatchNodesNodeTableFlow nxMatch = extension.getExtension() == null ? null
+                    : extension.getExtension().getAugmentation(NxAugMatchNodesNodeTableFlow.class);
+            if (nxMatch != null && nxMatch.getNxmNxNsi() != null) {
+                return nxMatch.getNxmNxNsi().getNsi();
+            }
+        }
+        return NO_SERVICE_INDEX;
+    }
+
+    private void updateRspState(RenderedServicePath rsp, Map<Short, Map<String, long[]>> rspCounters,
+            long timestamp) {
+        String rspName = rsp.getName().getValue();
+        RspState rspState = rspStates.compute(rsp.getPathId(), (pathId, state) -> state == null
+                || !state.rspName.equals(rspName) ? new RspState(rspName, historySize) : state);
+
+        long[] rspTotal = null;
+        for (Map.Entry<Short, Map<String, long[]>> entry : rspCounters.entrySet()) {
+            // the switches serving the same hop see the same packets
+            long[] hopCounters = getBusiest(entry.getValue().values());
+            rspTotal = getBusiest(rspTotal, hopCounters);
+        }
+        if (rspTotal == null) {
+            // not installed yet or no statistics
+            return;
+        }
+        rspState.traffic.add(timestamp, rspTotal[PACKETS], rspTotal[BYTES]);
+
+        Set<Short> serviceIndexes = new HashSet<>();
+        if (rsp.getRenderedServicePathHop() != null) {
+            for (RenderedServicePathHop hop : rsp.getRenderedServicePathHop()) {
+                Map<String, long[]> hopNodeCounters = rspCounters.get(hop.getServiceIndex());
+                if (hopNodeCounters == null || hop.getServiceFunctionName() == null) {
+                    continue;
+                }
+                String sfName = hop.getServiceFunctionName().getValue();
+                long[] hopCounters = getBusiest(hopNodeCounters.values());
+                rspState.hops.compute(hop.getServiceIndex(), (serviceIndex, state) -> state == null
+                        || !state.sfName.equals(sfName) ? new HopState(sfName) : state)
+                        .traffic.add(timestamp, hopCounters[PACKETS], hopCounters[BYTES]);
+                serviceIndexes.add(hop.getServiceIndex());
+            }
+        }
+        rspState.hops.keySet().retainAll(serviceIndexes);
+    }
+
+    private static long[] getBusiest(Iterable<long[]> counters) {
+        long[] busiest = null;
+        for (long[] candidate : counters) {
+            busiest = getBusiest(busiest, candidate);
+        }
+        return busiest;
+    }
+
+    private static long[] getBusiest(long[] counters1, long[] counters2) {
+        if (counters1 == null) {
+            return counters2;
+        }
+        return counters2 != null && counters2[PACKETS] > counters1[PACKETS] ? counters2 : counters1;
+    }
+
+    /**
+     * Get the traffic of all the RSPs with statistics.
+     *
+     * @return the traffic of the RSPs, by path id
+     */
+    public List<RspTraffic> getRspTraffic() {
+        return rspStates.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> toRspTraffic(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get the traffic of an RSP.
+     *
+     * @param pathId
+     *            - the path id of the RSP
+     * @return the traffic, null if there are no statistics for the RSP
+     */
+    public RspTraffic getRspTraffic(long pathId) {
+        RspState rspState = rspStates.get(pathId);
+        return rspState == null ? null : toRspTraffic(pathId, rspState);
+    }
+
+    /**
+     * Get the traffic samples kept for an RSP.
+     *
+     * @param pathId
+     *            - the path id of the RSP
+     * @return the samples, oldest first
+     */
+    public List<TrafficSample> getRspTimeSeries(long pathId) {
+        RspState rspState = rspStates.get(pathId);
+        return rspState == null ? Collections.emptyList() : rspState.traffic.getSamples();
+    }
+
+    /**
+     * Get the traffic steered to each service function, summing the hops of
+     * all the RSPs using it.
+     *
+     * @return the traffic of the service functions, by name
+     */
+    public List<SfTraffic> getSfTraffic() {
+        Map<String, List<TrafficRingBuffer>> sfHops = new HashMap<>();
+        rspStates.values().forEach(rspState -> rspState.hops.values().forEach(
+            hopState -> sfHops.computeIfAbsent(hopState.sfName, key -> new ArrayList<>()).add(hopState.traffic)));
+        return sfHops.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> toSfTraffic(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get the traffic steered to a service function, summing the hops of all
+     * the RSPs using it.
+     *
+     * @param sfName
+     *            - the name of the service function
+     * @return the traffic, null if there are no statistics for the service
+     *         function
+     */
+    public SfTraffic getSfTraffic(String sfName) {
+        List<TrafficRingBuffer> hops = new ArrayList<>();
+        rspStates.values().forEach(rspState -> rspState.hops.values().stream()
+                .filter(hopState -> hopState.sfName.equals(sfName))
+                .forEach(hopState -> hops.add(hopState.traffic)));
+        return hops.isEmpty() ? null : toSfTraffic(sfName, hops);
+    }
+
+    public long getPollCount() {
+        return pollCount.get();
+    }
+
+    public long getLastPollFlowCount() {
+        return lastPollFlowCount;
+    }
+
+    public long getLastPollDurationMillis() {
+        return lastPollDurationMillis;
+    }
+
+    private static RspTraffic toRspTraffic(long pathId, RspState rspState) {
+        List<HopTraffic> hops = rspState.hops.entrySet().stream()
+                .sorted(Map.Entry.<Short, HopState>comparingByKey(Comparator.reverseOrder()))
+                .map(entry -> new HopTraffic(entry.getKey(), entry.getValue().sfName,
+                        entry.getValue().traffic.getLatestPackets(), entry.getValue().traffic.getLatestBytes(),
+                        entry.getValue().traffic.getPacketRate(), entry.getValue().traffic.getByteRate()))
+                .collect(Collectors.toList());
+        TrafficRingBuffer traffic = rspState.traffic;
+        return new RspTraffic(rspState.rspName, pathId, traffic.getLatestPackets(), traffic.getLatestBytes(),
+                traffic.getPacketRate(), traffic.getByteRate(), hops);
+    }
+
+    private static SfTraffic toSfTraffic(String sfName, List<TrafficRingBuffer> hops) {
+        long packets = 0;
+        long bytes = 0;
+        double packetRate = 0;
+        double byteRate = 0;
+        for (TrafficRingBuffer hop : hops) {
+            packets += hop.getLatestPackets();
+            bytes += hop.getLatestBytes();
+            packetRate += hop.getPacketRate();
+            byteRate += hop.getByteRate();
+        }
+        return new SfTraffic(sfName, hops.size(), packets, bytes, packetRate, byteRate);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(SHUTDOWN_TIME, TimeUnit.SECONDS);
+        rspStates.clear();
+    }
+
+    private static class RspState {
+        private final String rspName;
+        private final TrafficRingBuffer traffic;
+        private final Map<Short, HopState> hops = new ConcurrentHashMap<>();
+
+        RspState(String rspName, int historySize) {
+            this.rspName = rspName;
+            this.traffic = new TrafficRingBuffer(historySize);
+        }
+    }
+
+    private static class HopState {
+        private final String sfName;
+        // two samples are enough to compute the rate
+        private final TrafficRingBuffer traffic = new TrafficRingBuffer(2);
+
+        HopState(String sfName) {
+            this.sfName = sfName;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer.stats;
+
+import java.util.List;
+
+/**
+ * JMX interface to the per RSP traffic statistics gathered by
+ * {@link SfcOfStatisticsAggregator}.
+ */
+public interface SfcOfStatisticsMXBean {
+
+    /**
+     * Get the latest traffic of all the RSPs, with their hops.
+     *
+     * @return the list of RSP traffic, by path id
+     */
+    List<RspTraffic> getRspTraffic();
+
+    /**
+     * Get the latest traffic steered to each service function.
+     *
+     * @return the list of SF traffic, by name
+     */
+    List<SfTraffic> getSfTraffic();
+
+    /**
+     * Get the traffic samples kept for an RSP.
+     *
+     * @param pathId
+     *            the path id of the RSP
+     * @return the samples, oldest first
+     */
+    List<TrafficSample> getRspTimeSeries(long pathId);
+
+    long getPollCount();
+
+    long getLastPollFlowCount();
+
+    long getLastPollDurationMillis();
+
+    /**
+     * Read the statistics now, without waiting for the next periodic read.
+     *
+     * @return true if the statistics were read
+     */
+    boolean poll();
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer.stats;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanRegistrationException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.NotCompliantMBeanException;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registers the per RSP traffic statistics in the platform MBean server,
+ * under the {@value #OBJECT_NAME} name.
+ */
+public class SfcOfStatisticsMXBeanImpl implements SfcOfStatisticsMXBean, AutoCloseable {
+
+    public static final String OBJECT_NAME = "org.opendaylight.sfc:type=OpenflowRendererStatistics";
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcOfStatisticsMXBeanImpl.class);
+
+    private final MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+    private final SfcOfStatisticsAggregator aggregator;
+
+    private ObjectName objectName;
+
+    public SfcOfStatisticsMXBeanImpl(SfcOfStatisticsAggregator aggregator) {
+        this.aggregator = aggregator;
+    }
+
+    public void register() {
+        try {
+            objectName = new ObjectName(OBJECT_NAME);
+            mbeanServer.registerMBean(this, objectName);
+            LOG.info("Registered openflow renderer statistics MBean {}", OBJECT_NAME);
+        } catch (MalformedObjectNameException | InstanceAlreadyExistsException | MBeanRegistrationException
+                | NotCompliantMBeanException e) {
+            LOG.error("Failed to register openflow renderer statistics MBean {}", OBJECT_NAME, e);
+            objectName = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            mbeanServer.unregisterMBean(objectName);
+        } catch (InstanceNotFoundException | MBeanRegistrationException e) {
+            LOG.warn("Failed to unregister openflow renderer statistics MBean {}", OBJECT_NAME, e);
+        }
+        objectName = null;
+    }
+
+    @Override
+    public List<RspTraffic> getRspTraffic() {
+        return aggregator.getRspTraffic();
+    }
+
+    @Override
+    public List<SfTraffic> getSfTraffic() {
+        return aggregator.getSfTraffic();
+    }
+
+    @Override
+    public List<TrafficSample> getRspTimeSeries(long pathId) {
+        return aggregator.getRspTimeSeries(pathId);
+    }
+
+    @Override
+    public long getPollCount() {
+        return aggregator.getPollCount();
+    }
+
+    @Override
+    public long getLastPollFlowCount() {
+        return aggregator.getLastPollFlowCount();
+    }
+
+    @Override
+    public long getLastPollDurationMillis() {
+        return aggregator.getLastPollDurationMillis();
+    }
+
+    @Override
+    public boolean poll() {
+        return aggregator.poll();
+    }
+}
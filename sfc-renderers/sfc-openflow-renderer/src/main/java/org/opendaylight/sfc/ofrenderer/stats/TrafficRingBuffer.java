@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer.stats;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A time series of packet and byte counters with a fixed memory footprint:
+ * once full, each new sample overwrites the oldest one. The samples are held
+ * in plain arrays, so that thousands of series can be kept without creating
+ * an object per sample.
+ *
+ * <p>
+ * The counters are expected to grow. A counter lower than the previous one
+ * means that the flows were installed again and their counters restarted
+ * from zero; the rate is then computed from the new counter alone.
+ */
+public class TrafficRingBuffer {
+
+    private static final double MILLIS_PER_SECOND = 1000.0;
+
+    private final long[] timestamps;
+    private final long[] packets;
+    private final long[] bytes;
+    // the index the next sample is written to
+    private int next;
+    private int size;
+
+    public TrafficRingBuffer(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("At least two samples are needed to compute rates");
+        }
+        timestamps = new long[capacity];
+        packets = new long[capacity];
+        bytes = new long[capacity];
+    }
+
+    public synchronized void add(long timestamp, long packetCount, long byteCount) {
+        timestamps[next] = timestamp;
+        packets[next] = packetCount;
+        bytes[next] = byteCount;
+        next = (next + 1) % timestamps.length;
+        size = Math.min(size + 1, timestamps.length);
+    }
+
+    public int getCapacity() {
+        return timestamps.length;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long getLatestPackets() {
+        return size == 0 ? 0 : packets[index(size - 1)];
+    }
+
+    public synchronized long getLatestBytes() {
+        return size == 0 ? 0 : bytes[index(size - 1)];
+    }
+
+    /**
+     * Get the packet rate between the last two samples.
+     *
+     * @return the packets per second, 0 if there are less than two samples
+     */
+    public synchronized double getPacketRate() {
+        return getRate(packets);
+    }
+
+    /**
+     * Get the byte rate between the last two samples.
+     *
+     * @return the bytes per second, 0 if there are less than two samples
+     */
+    public synchronized double getByteRate() {
+        return getRate(bytes);
+    }
+
+    /**
+     * Get the samples, oldest first.
+     *
+     * @return a copy of the samples
+     */
+    public synchronized List<TrafficSample> getSamples() {
+        List<TrafficSample> samples = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int index = index(i);
+            samples.add(new TrafficSample(timestamps[index], packets[index], bytes[index]));
+        }
+        return samples;
+    }
+
+    private double getRate(long[] counters) {
+        if (size < 2) {
+            return 0;
+        }
+        int last = index(size - 1);
+        int previous = index(size - 2);
+        long interval = timestamps[last] - timestamps[previous];
+        if (interval <= 0) {
+            return 0;
+        }
+        long delta = counters[last] >= counters[previous] ? counters[last] - counters[previous] : counters[last];
+        return delta * MILLIS_PER_SECOND / interval;
+    }
+
+    // the array index of the i-th oldest sample
+    private int index(int sample) {
+        return (next - size + sample + timestamps.length) % timestamps.length;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer.stats;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * The packet and byte counters of a rendered service path at a given time.
+ */
+public class TrafficSample {
+    private final long timestamp;
+    private final long packets;
+    private final long bytes;
+
+    @ConstructorProperties({"timestamp", "packets", "bytes"})
+    public TrafficSample(long timestamp, long packets, long bytes) {
+        this.timestamp = timestamp;
+        this.packets = packets;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Get the time the counters were read.
+     *
+     * @return the time, in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getPackets() {
+        return packets;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "TrafficSample [timestamp=" + timestamp + ", packets=" + packets + ", bytes=" + bytes + "]";
+    }
+}
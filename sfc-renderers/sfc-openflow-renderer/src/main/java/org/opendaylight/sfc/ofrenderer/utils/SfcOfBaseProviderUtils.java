@@ -50,6 +50,20 @@ public abstract class SfcOfBaseProviderUtils {
 
     public abstract void removeRsp(long rspId);
 
+    /**
+     * Read at once all the SFs and SFFs, to be used instead of reading them
+     * one by one until {@link #endSnapshot()} is called. Useful when many RSPs
+     * are processed together. Does nothing by default.
+     */
+    public void beginSnapshot() {
+    }
+
+    /**
+     * Drop the SFs and SFFs read by {@link #beginSnapshot()}.
+     */
+    public void endSnapshot() {
+    }
+
     public abstract ServiceFunction getServiceFunction(SfName sfName, long rspId);
 
     public abstract ServiceFunctionType getServiceFunctionType(SfName sfName, long rspId);
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer.utils;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import org.opendaylight.mdsal.eos.binding.api.Entity;
+import org.opendaylight.mdsal.eos.binding.api.EntityOwnershipCandidateRegistration;
+import org.opendaylight.mdsal.eos.binding.api.EntityOwnershipChange;
+import org.opendaylight.mdsal.eos.binding.api.EntityOwnershipListener;
+import org.opendaylight.mdsal.eos.binding.api.EntityOwnershipListenerRegistration;
+import org.opendaylight.mdsal.eos.binding.api.EntityOwnershipService;
+import org.opendaylight.mdsal.eos.common.api.CandidateAlreadyRegisteredException;
+import org.opendaylight.sfc.util.openflow.writer.SfcOfNodeOwnership;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shards the writing of the openflow flows among the members of a cluster by
+ * switch, using the entity ownership service. Every member registers as a
+ * candidate for the ownership of each switch the first time it renders flows
+ * for it, and only the owner of a switch writes its flows. When a member
+ * fails, the ownership of its switches moves to the remaining members, which
+ * are notified so that they write the flows of the switches they take over.
+ * A member withdraws its candidacy for a switch once no path uses it.
+ */
+public class SfcOfEntityOwnership implements SfcOfNodeOwnership, EntityOwnershipListener, AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcOfEntityOwnership.class);
+
+    public static final String ENTITY_TYPE = "sfc-openflow-node";
+
+    private final EntityOwnershipService entityOwnershipService;
+    private final Consumer<String> ownershipGainedHandler;
+    private final EntityOwnershipListenerRegistration listenerRegistration;
+    private final Map<String, EntityOwnershipCandidateRegistration> candidateRegistrations;
+    private final Map<Entity, String> entityNodeNames;
+    private final Set<String> ownedNodeNames;
+
+    /**
+     * Constructor.
+     *
+     * @param entityOwnershipService
+     *            - the cluster entity ownership service
+     * @param ownershipGainedHandler
+     *            - called with the openflow node name of each switch this
+     *            member takes over the ownership of
+     */
+    public SfcOfEntityOwnership(EntityOwnershipService entityOwnershipService,
+            Consumer<String> ownershipGainedHandler) {
+        this.entityOwnershipService = entityOwnershipService;
+        this.ownershipGainedHandler = ownershipGainedHandler;
+        this.candidateRegistrations = new ConcurrentHashMap<>();
+        this.entityNodeNames = new ConcurrentHashMap<>();
+        this.ownedNodeNames = ConcurrentHashMap.newKeySet();
+        this.listenerRegistration = entityOwnershipService.registerListener(ENTITY_TYPE, this);
+    }
+
+    /**
+     * Check if this member owns a switch, registering it as a candidate for
+     * the ownership of the switch if it was not yet. The ownership of a switch
+     * is granted asynchronously, so the first time a switch is seen it is
+     * usually not owned yet; its flows are then written when the ownership is
+     * granted.
+     *
+     * @param sffNodeName
+     *            - the openflow node name of the switch
+     * @return true if this member owns the switch, false otherwise
+     */
+    @Override
+    public boolean isNodeOwned(String sffNodeName) {
+        candidateRegistrations.computeIfAbsent(sffNodeName, this::registerCandidate);
+        return ownedNodeNames.contains(sffNodeName);
+    }
+
+    private EntityOwnershipCandidateRegistration registerCandidate(String sffNodeName) {
+        Entity entity = new Entity(ENTITY_TYPE, sffNodeName);
+        entityNodeNames.put(entity, sffNodeName);
+        try {
+            LOG.debug("registerCandidate: registering as candidate for node {}", sffNodeName);
+            return entityOwnershipService.registerCandidate(entity);
+        } catch (CandidateAlreadyRegisteredException e) {
+            LOG.warn("registerCandidate: already registered as candidate for node {}", sffNodeName, e);
+            return null;
+        }
+    }
+
+    /**
+     * Withdraw the candidacy of this member for the ownership of a switch no
+     * longer used by any path. The member registers again as a candidate if
+     * a path uses the switch later on.
+     *
+     * @param sffNodeName
+     *            - the openflow node name of the switch
+     */
+    @Override
+    public void releaseNode(String sffNodeName) {
+        EntityOwnershipCandidateRegistration candidateRegistration = candidateRegistrations.remove(sffNodeName);
+        entityNodeNames.remove(new Entity(ENTITY_TYPE, sffNodeName));
+        ownedNodeNames.remove(sffNodeName);
+        if (candidateRegistration != null) {
+            LOG.debug("releaseNode: unregistering as candidate for node {}", sffNodeName);
+            candidateRegistration.close();
+        }
+    }
+
+    @Override
+    public void ownershipChanged(EntityOwnershipChange ownershipChange) {
+        String sffNodeName = entityNodeNames.get(ownershipChange.getEntity());
+        if (sffNodeName == null) {
+            return;
+        }
+
+        LOG.info("ownershipChanged: node {} ownership changed to {}", sffNodeName, ownershipChange.getState());
+        if (ownershipChange.getState().isOwner()) {
+            if (ownedNodeNames.add(sffNodeName)) {
+                ownershipGainedHandler.accept(sffNodeName);
+            }
+        } else {
+            ownedNodeNames.remove(sffNodeName);
+        }
+    }
+
+    @Override
+    public void close() {
+        listenerRegistration.close();
+        candidateRegistrations.values().forEach(EntityOwnershipCandidateRegistration::close);
+        candidateRegistrations.clear();
+        entityNodeNames.clear();
+        ownedNodeNames.clear();
+    }
+}
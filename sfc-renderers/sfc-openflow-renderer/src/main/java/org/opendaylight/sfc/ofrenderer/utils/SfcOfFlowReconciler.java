@@ -0,0 +1,372 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer.utils;
+
+import com.google.common.base.Optional;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
+import org.opendaylight.sfc.util.openflow.SfcOpenflowUtils;
+import org.opendaylight.sfc.util.openflow.writer.FlowDetails;
+import org.opendaylight.sfc.util.openflow.writer.FlowSetRemoverTask;
+import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterImpl;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowTableRef;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.Table;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.TableKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.AddFlowInputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.RemoveFlowInputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.SalFlowService;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.FlowCookie;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.FlowRef;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.service.rev130918.AddGroupInputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.service.rev130918.SalGroupService;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.GroupRef;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.Group;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.GroupKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeRef;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reconciles the flows and groups the renderer expects on a switch with the
+ * ones the switch actually holds, as reported in the operational inventory.
+ * Only the differences are pushed: the expected flows and groups missing on
+ * the switch are added to it again, and the SFC flows on the switch that are
+ * no longer expected are removed. The flows are compared on their table,
+ * priority and cookie only, as the match and instructions read back from a
+ * switch are not normalized the way the renderer builds them. A flow on the
+ * switch with the id of an expected flow is that flow if they have the same
+ * table, priority and cookie; the other flows on the switch stand for any
+ * expected flow with the same table, priority and cookie, as a switch may
+ * report a flow under an id of its own. No flow is removed from a switch the
+ * renderer expects no flow on, as its paths may not be rendered yet.
+ *
+ * <p>
+ * Reconciliations are scheduled per switch: requests for a switch already
+ * waiting to be reconciled are merged, and at most
+ * {@link #MAX_CONCURRENT_RECONCILIATIONS} switches are reconciled
+ * concurrently.
+ */
+public class SfcOfFlowReconciler implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcOfFlowReconciler.class);
+
+    public static final int MAX_CONCURRENT_RECONCILIATIONS = 4;
+    // time given to the statistics of a reconnected switch to reach the
+    // operational inventory before it is reconciled
+    public static final long RECONCILIATION_DELAY_MILLIS = 10000;
+    private static final long SHUTDOWN_TIME = 5;
+    // priority of the flows set without one, as defined by openflow
+    private static final int DEFAULT_FLOW_PRIORITY = 0x8000;
+
+    private final DataBroker dataBroker;
+    private final SfcOfFlowWriterImpl flowWriter;
+    private final SfcSynchronizer sfcSynchronizer;
+    private final SalFlowService salFlowService;
+    private final SalGroupService salGroupService;
+    private final ScheduledExecutorService executor;
+    private final Set<String> scheduledNodeNames;
+
+    /**
+     * Constructor.
+     *
+     * @param dataBroker
+     *            - the data broker used to read the inventory and to write
+     *            the missing flows
+     * @param flowWriter
+     *            - the flow writer holding the expected flows and groups
+     * @param sfcSynchronizer
+     *            - the lock serializing the access to the flow writer
+     * @param salFlowService
+     *            - the service used to add the missing flows to the switches
+     *            and to remove the stale ones; if null, the missing flows are
+     *            only written again to the data store, and the stale flows
+     *            only removed from it
+     * @param salGroupService
+     *            - the service used to add the missing groups to the
+     *            switches; if null, they are only written again to the data
+     *            store
+     */
+    public SfcOfFlowReconciler(DataBroker dataBroker, SfcOfFlowWriterImpl flowWriter,
+            SfcSynchronizer sfcSynchronizer, SalFlowService salFlowService, SalGroupService salGroupService) {
+        this.dataBroker = dataBroker;
+        this.flowWriter = flowWriter;
+        this.sfcSynchronizer = sfcSynchronizer;
+        this.salFlowService = salFlowService;
+        this.salGroupService = salGroupService;
+        this.executor = new ScheduledThreadPoolExecutor(MAX_CONCURRENT_RECONCILIATIONS);
+        this.scheduledNodeNames = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Schedule the reconciliation of a switch. Nothing is done if the switch
+     * is already waiting to be reconciled.
+     *
+     * @param sffNodeName
+     *            - the openflow node name of the switch
+     * @param delayMillis
+     *            - the time to wait before reconciling the switch
+     * @return true if the reconciliation was scheduled, false if it was
+     *         already
+     */
+    public boolean scheduleReconciliation(String sffNodeName, long delayMillis) {
+        if (!scheduledNodeNames.add(sffNodeName)) {
+            LOG.debug("scheduleReconciliation: node {} already scheduled", sffNodeName);
+            return false;
+        }
+        LOG.info("scheduleReconciliation: reconciling node {} in {} ms", sffNodeName, delayMillis);
+        executor.schedule(() -> {
+            // requests received from now on need a new reconciliation, the
+            // state of the switch read by this one may be already outdated
+            scheduledNodeNames.remove(sffNodeName);
+            reconcileNode(sffNodeName);
+        }, delayMillis, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    /**
+     * Reconcile a switch from the calling thread.
+     *
+     * @param sffNodeName
+     *            - the openflow node name of the switch
+     * @return the number of flows and groups written or removed, -1 if the
+     *         switch was not reconciled
+     */
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    public int reconcileNode(String sffNodeName) {
+        try {
+            return doReconcileNode(sffNodeName);
+        } catch (RuntimeException e) {
+            LOG.error("reconcileNode: failed reconciling node {}", sffNodeName, e);
+            return -1;
+        }
+    }
+
+    private int doReconcileNode(String sffNodeName) {
+        List<FlowDetails> expectedFlows;
+        List<Group> expectedGroups;
+        sfcSynchronizer.lock();
+        try {
+            if (!flowWriter.isNodeOwned(sffNodeName)) {
+                LOG.debug("reconcileNode: node {} is owned by another instance", sffNodeName);
+                return -1;
+            }
+            expectedFlows = flowWriter.getNodeFlows(sffNodeName);
+            expectedGroups = flowWriter.getNodeGroups(sffNodeName);
+        } finally {
+            sfcSynchronizer.unlock();
+        }
+
+        InstanceIdentifier<FlowCapableNode> nodeIid = getNodeIid(sffNodeName);
+        FlowCapableNode node = readOperationalNode(nodeIid);
+        if (node == null) {
+            LOG.info("reconcileNode: node {} is not connected", sffNodeName);
+            return -1;
+        }
+
+        Map<Short, List<Flow>> installedFlows = new HashMap<>();
+        if (node.getTable() != null) {
+            node.getTable().stream()
+                    .filter(table -> table.getFlow() != null)
+                    .forEach(table -> installedFlows.put(table.getId(), table.getFlow()));
+        }
+        Set<GroupKey> installedGroups = node.getGroup() == null ? Collections.emptySet()
+                : node.getGroup().stream().map(Group::getKey).collect(Collectors.toSet());
+
+        // the switch flows are first matched to the expected flows by id, then
+        // by signature
+        Map<List<Object>, FlowDetails> expectedFlowsById = expectedFlows.stream()
+                .collect(Collectors.toMap(flowDetails -> Arrays.<Object>asList(flowDetails.getTableKey().getId(),
+                        flowDetails.getFlowKey()), Function.identity()));
+        Set<FlowDetails> presentFlows = Collections.newSetFromMap(new IdentityHashMap<>());
+        Map<Short, List<Flow>> unknownFlows = new HashMap<>();
+        installedFlows.forEach((tableId, flows) -> flows.forEach(flow -> {
+            FlowDetails expectedFlow = expectedFlowsById.get(Arrays.<Object>asList(tableId, flow.getKey()));
+            if (expectedFlow != null
+                    && getFlowSignature(tableId, expectedFlow.getFlow()).equals(getFlowSignature(tableId, flow))) {
+                presentFlows.add(expectedFlow);
+            } else {
+                unknownFlows.computeIfAbsent(tableId, id -> new ArrayList<>()).add(flow);
+            }
+        }));
+
+        Map<List<Object>, List<FlowDetails>> expectedFlowsBySignature = expectedFlows.stream()
+                .filter(flowDetails -> !presentFlows.contains(flowDetails))
+                .collect(Collectors.groupingBy(flowDetails -> getFlowSignature(flowDetails.getTableKey().getId(),
+                        flowDetails.getFlow())));
+        List<Flow> staleFlows = new ArrayList<>();
+        unknownFlows.forEach((tableId, flows) -> flows.forEach(flow -> {
+            List<FlowDetails> sameSignatureFlows = expectedFlowsBySignature.get(getFlowSignature(tableId, flow));
+            if (sameSignatureFlows != null && !sameSignatureFlows.isEmpty()) {
+                presentFlows.add(sameSignatureFlows.remove(sameSignatureFlows.size() - 1));
+            } else if (isSfcCookie(flow.getCookie())) {
+                staleFlows.add(flow);
+            }
+        }));
+
+        List<FlowDetails> missingFlows = expectedFlows.stream()
+                .filter(flowDetails -> !presentFlows.contains(flowDetails))
+                .collect(Collectors.toList());
+        List<Group> missingGroups = expectedGroups.stream()
+                .filter(group -> !installedGroups.contains(group.getKey()))
+                .collect(Collectors.toList());
+
+        if (expectedFlows.isEmpty() && !staleFlows.isEmpty()) {
+            // right after a restart, the flow writer holds no flow until the
+            // paths are rendered again, which does not make the switch flows
+            // stale
+            LOG.info("reconcileNode: node {} expects no flow, keeping its [{}] SFC flows", sffNodeName,
+                    staleFlows.size());
+            staleFlows.clear();
+        }
+
+        LOG.info("reconcileNode: node {} expects [{}] flows and [{}] groups, [{}] flows and [{}] groups missing, "
+                + "[{}] flows stale", sffNodeName, expectedFlows.size(), expectedGroups.size(), missingFlows.size(),
+                missingGroups.size(), staleFlows.size());
+
+        // the stale flows are removed first, as a stale flow may have the
+        // same match and priority as a missing one that replaces it
+        if (!staleFlows.isEmpty()) {
+            removeStaleFlows(sffNodeName, staleFlows, missingFlows, expectedFlows);
+        }
+        if (!missingFlows.isEmpty() || !missingGroups.isEmpty()) {
+            // the data store may have lost them too; otherwise they are
+            // already in it, so writing them does not notify the flow rules
+            // manager, and they are pushed to the switch directly
+            flowWriter.rewriteNodeEntries(sffNodeName, missingFlows, missingGroups);
+            addMissingEntries(sffNodeName, missingFlows, missingGroups);
+        }
+
+        return missingFlows.size() + missingGroups.size() + staleFlows.size();
+    }
+
+    private void removeStaleFlows(String sffNodeName, List<Flow> staleFlows, List<FlowDetails> missingFlows,
+            List<FlowDetails> expectedFlows) {
+        // a stale flow with the id of an expected flow is the outdated
+        // content of that flow, which stays in the data store
+        Set<List<Object>> expectedFlowKeys = expectedFlows.stream()
+                .map(flowDetails -> Arrays.<Object>asList(flowDetails.getTableKey(), flowDetails.getFlowKey()))
+                .collect(Collectors.toSet());
+        Set<FlowDetails> flowsToDelete = staleFlows.stream()
+                .map(flow -> new FlowDetails(sffNodeName, flow.getKey(), new TableKey(flow.getTableId())))
+                .filter(flowDetails -> !expectedFlowKeys.contains(
+                        Arrays.<Object>asList(flowDetails.getTableKey(), flowDetails.getFlowKey())))
+                .collect(Collectors.toCollection(HashSet::new));
+        new FlowSetRemoverTask(dataBroker, flowsToDelete).run();
+
+        // the flows read back from the switch with an id of their own are not
+        // in the data store, remove them from the switch directly; a strict
+        // removal also removes a missing flow added again with the same match
+        // and priority, so the flows sharing the table and priority of a
+        // missing flow are left to the next reconciliation
+        if (salFlowService == null) {
+            return;
+        }
+        InstanceIdentifier<Node> nodeIid = InstanceIdentifier.builder(Nodes.class)
+                .child(Node.class, new NodeKey(new NodeId(sffNodeName))).build();
+        for (Flow flow : staleFlows) {
+            if (missingFlows.stream().anyMatch(flowDetails -> flow.getTableId().equals(
+                    flowDetails.getTableKey().getId()) && getPriority(flow) == getPriority(flowDetails.getFlow()))) {
+                continue;
+            }
+            InstanceIdentifier<Table> tableIid = getNodeIid(sffNodeName).child(Table.class,
+                    new TableKey(flow.getTableId()));
+            salFlowService.removeFlow(new RemoveFlowInputBuilder(flow)
+                    .setNode(new NodeRef(nodeIid))
+                    .setFlowTable(new FlowTableRef(tableIid))
+                    .setStrict(true)
+                    .build());
+        }
+    }
+
+    private void addMissingEntries(String sffNodeName, List<FlowDetails> missingFlows, List<Group> missingGroups) {
+        InstanceIdentifier<Node> nodeIid = InstanceIdentifier.builder(Nodes.class)
+                .child(Node.class, new NodeKey(new NodeId(sffNodeName))).build();
+        // the groups go first, as the flows may refer to them
+        if (salGroupService != null) {
+            for (Group group : missingGroups) {
+                salGroupService.addGroup(new AddGroupInputBuilder(group)
+                        .setNode(new NodeRef(nodeIid))
+                        .setGroupRef(new GroupRef(getNodeIid(sffNodeName).child(Group.class, group.getKey())))
+                        .build());
+            }
+        }
+        if (salFlowService != null) {
+            for (FlowDetails flowDetails : missingFlows) {
+                InstanceIdentifier<Table> tableIid = getNodeIid(sffNodeName).child(Table.class,
+                        flowDetails.getTableKey());
+                salFlowService.addFlow(new AddFlowInputBuilder(flowDetails.getFlow())
+                        .setNode(new NodeRef(nodeIid))
+                        .setFlowTable(new FlowTableRef(tableIid))
+                        .setFlowRef(new FlowRef(tableIid.child(Flow.class, flowDetails.getFlowKey())))
+                        .build());
+            }
+        }
+    }
+
+    private FlowCapableNode readOperationalNode(InstanceIdentifier<FlowCapableNode> nodeIid) {
+        try (ReadOnlyTransaction readTx = dataBroker.newReadOnlyTransaction()) {
+            Optional<FlowCapableNode> node = readTx.read(LogicalDatastoreType.OPERATIONAL, nodeIid).checkedGet();
+            return node.orNull();
+        } catch (ReadFailedException e) {
+            LOG.error("readOperationalNode: failed reading {}", nodeIid, e);
+            return null;
+        }
+    }
+
+    private static InstanceIdentifier<FlowCapableNode> getNodeIid(String sffNodeName) {
+        return InstanceIdentifier.builder(Nodes.class).child(Node.class, new NodeKey(new NodeId(sffNodeName)))
+                .augmentation(FlowCapableNode.class).build();
+    }
+
+    // the fields compared between the expected flows and the switch flows
+    private static List<Object> getFlowSignature(Short tableId, Flow flow) {
+        return Arrays.asList(tableId, getPriority(flow),
+                flow.getCookie() == null ? BigInteger.ZERO : flow.getCookie().getValue());
+    }
+
+    private static int getPriority(Flow flow) {
+        return flow.getPriority() == null ? DEFAULT_FLOW_PRIORITY : flow.getPriority();
+    }
+
+    private static boolean isSfcCookie(FlowCookie cookie) {
+        return cookie != null && SfcOpenflowUtils.isSfcCookie(cookie.getValue());
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(SHUTDOWN_TIME, TimeUnit.SECONDS);
+        scheduledNodeNames.clear();
+    }
+}
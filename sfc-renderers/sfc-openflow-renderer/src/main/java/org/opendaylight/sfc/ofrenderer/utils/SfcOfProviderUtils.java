@@ -13,6 +13,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.sfc.ovs.provider.SfcOvsUtil;
 import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
@@ -22,8 +23,10 @@ import org.opendaylight.sfc.provider.api.SfcProviderServiceFunctionGroupAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceTypeAPI;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.ServiceFunctions;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.ovs.rev140701.SffOvsBridgeAugmentation;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.ServiceFunctionForwarders;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarder.base.SffDataPlaneLocator;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfg.rev150214.service.function.groups.ServiceFunctionGroup;
@@ -64,10 +67,43 @@ public class SfcOfProviderUtils extends SfcOfBaseProviderUtils {
 
     private final Map<Long, RspContext> rspIdToContext;
 
+    // all the SFs and SFFs, read at once while many RSPs are processed
+    // together; the SFFs are augmented with their openflow node on first use
+    private volatile Map<SfName, ServiceFunction> snapshotServiceFunctions = Collections.emptyMap();
+    private volatile Map<SffName, ServiceFunctionForwarder> snapshotServiceFunctionForwarders =
+            Collections.emptyMap();
+    private final Map<SffName, ServiceFunctionForwarder> snapshotAugmentedForwarders = new ConcurrentHashMap<>();
+
     public SfcOfProviderUtils() {
         rspIdToContext = new HashMap<>();
     }
 
+    @Override
+    public void beginSnapshot() {
+        Map<SfName, ServiceFunction> sfs = new ConcurrentHashMap<>();
+        ServiceFunctions allSfs = SfcProviderServiceFunctionAPI.readAllServiceFunctions();
+        if (allSfs != null && allSfs.getServiceFunction() != null) {
+            allSfs.getServiceFunction().forEach(sf -> sfs.put(sf.getName(), sf));
+        }
+
+        Map<SffName, ServiceFunctionForwarder> sffs = new ConcurrentHashMap<>();
+        ServiceFunctionForwarders allSffs = SfcProviderServiceForwarderAPI.readAllServiceFunctionForwarders();
+        if (allSffs != null && allSffs.getServiceFunctionForwarder() != null) {
+            allSffs.getServiceFunctionForwarder().forEach(sff -> sffs.put(sff.getName(), sff));
+        }
+
+        LOG.info("beginSnapshot: read {} SFs and {} SFFs", sfs.size(), sffs.size());
+        snapshotServiceFunctions = sfs;
+        snapshotServiceFunctionForwarders = sffs;
+    }
+
+    @Override
+    public void endSnapshot() {
+        snapshotServiceFunctions = Collections.emptyMap();
+        snapshotServiceFunctionForwarders = Collections.emptyMap();
+        snapshotAugmentedForwarders.clear();
+    }
+
     @Override
     public void addRsp(long rspId) {
         rspIdToContext.put(rspId, new RspContext());
@@ -92,6 +128,9 @@ public class SfcOfProviderUtils extends SfcOfBaseProviderUtils {
         RspContext rspContext = rspIdToContext.get(rspId);
 
         ServiceFunction sf = rspContext.serviceFunctions.get(sfName);
+        if (sf == null) {
+            sf = snapshotServiceFunctions.get(sfName);
+        }
         if (sf == null) {
             sf = SfcProviderServiceFunctionAPI.readServiceFunction(sfName);
             if (sf != null) {
@@ -128,6 +167,11 @@ public class SfcOfProviderUtils extends SfcOfBaseProviderUtils {
         RspContext rspContext = rspIdToContext.get(rspId);
 
         ServiceFunctionForwarder sff = rspContext.serviceFunctionFowarders.get(sffName);
+        if (sff == null && snapshotServiceFunctionForwarders.containsKey(sffName)) {
+            sff = snapshotAugmentedForwarders.computeIfAbsent(sffName,
+                name -> SfcOvsUtil.augmentSffWithOpenFlowNodeId(snapshotServiceFunctionForwarders.get(name)));
+            rspContext.serviceFunctionFowarders.put(sffName, sff);
+        }
         if (sff == null) {
             sff = SfcProviderServiceForwarderAPI.readServiceFunctionForwarder(sffName);
             if (sff != null) {
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.base.Optional;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
+import org.opendaylight.controller.md.sal.binding.test.AbstractDataBrokerTest;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.mdsal.eos.binding.api.Entity;
+import org.opendaylight.mdsal.eos.binding.api.EntityOwnershipCandidateRegistration;
+import org.opendaylight.mdsal.eos.binding.api.EntityOwnershipChange;
+import org.opendaylight.mdsal.eos.binding.api.EntityOwnershipListener;
+import org.opendaylight.mdsal.eos.binding.api.EntityOwnershipListenerRegistration;
+import org.opendaylight.mdsal.eos.binding.api.EntityOwnershipService;
+import org.opendaylight.mdsal.eos.common.api.EntityOwnershipChangeState;
+import org.opendaylight.sfc.ofrenderer.openflow.SfcOfFlowProgrammerImpl;
+import org.opendaylight.sfc.ofrenderer.processors.SfcOfRspProcessor;
+import org.opendaylight.sfc.ofrenderer.utils.SfcOfEntityOwnership;
+import org.opendaylight.sfc.ofrenderer.utils.SfcOfProviderUtilsTestMock;
+import org.opendaylight.sfc.ofrenderer.utils.SfcSynchronizer;
+import org.opendaylight.sfc.util.openflow.writer.FlowDetails;
+import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterImpl;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.Nsh;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.VxlanGpe;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.powermock.reflect.Whitebox;
+
+/**
+ * Renders the same RSP on several in-process renderer instances sharing an
+ * in-memory data store, as the members of a cluster do, and checks that the
+ * flows of each switch are only written by the instance owning it, and
+ * written again by another instance when the ownership moves to it.
+ */
+public class SfcOfClusterShardingTest extends AbstractDataBrokerTest {
+
+    private static final long WAIT_TIMEOUT_MILLIS = 5000;
+    private static final long WAIT_STEP_MILLIS = 50;
+
+    private SfcOfProviderUtilsTestMock sfcUtilsTestMock;
+    private RenderedServicePath rsp;
+    private List<Member> members;
+
+    /**
+     * A cluster member: an openflow renderer instance with its own flow
+     * writer and view of the switch ownership.
+     */
+    private static final class Member {
+        private final SfcOfFlowWriterImpl flowWriter;
+        private final SfcOfEntityOwnership ownership;
+        private final SfcOfRspProcessor rspProcessor;
+        private final EntityOwnershipCandidateRegistration candidateRegistration;
+
+        Member(DataBroker dataBroker, SfcOfProviderUtilsTestMock sfcUtils) throws Exception {
+            EntityOwnershipService entityOwnershipService = mock(EntityOwnershipService.class);
+            when(entityOwnershipService.registerListener(anyString(), any(EntityOwnershipListener.class)))
+                    .thenReturn(mock(EntityOwnershipListenerRegistration.class));
+            candidateRegistration = mock(EntityOwnershipCandidateRegistration.class);
+            when(entityOwnershipService.registerCandidate(any(Entity.class))).thenReturn(candidateRegistration);
+
+            SfcSynchronizer sfcSynchronizer = new SfcSynchronizer();
+            flowWriter = new SfcOfFlowWriterImpl();
+            flowWriter.setDataProvider(dataBroker);
+            ownership = new SfcOfEntityOwnership(entityOwnershipService, sffNodeName -> {
+                try {
+                    sfcSynchronizer.lock();
+                    flowWriter.restoreNodeFlows(sffNodeName);
+                } finally {
+                    sfcSynchronizer.unlock();
+                }
+            });
+            flowWriter.setNodeOwnership(ownership);
+            rspProcessor = new SfcOfRspProcessor(new SfcOfFlowProgrammerImpl(flowWriter), sfcUtils, sfcSynchronizer,
+                    null, dataBroker);
+        }
+
+        void changeOwnership(String sffNodeName, EntityOwnershipChangeState state) {
+            ownership.ownershipChanged(
+                    new EntityOwnershipChange(new Entity(SfcOfEntityOwnership.ENTITY_TYPE, sffNodeName), state));
+        }
+
+        int countStoredFlows(String sffNodeName) {
+            Map<Long, Map<String, List<FlowDetails>>> flows = Whitebox.getInternalState(flowWriter,
+                    "rspNameToFlowsMap");
+            // flows with the same key in the same table are a single entry in
+            // the data store
+            return (int) flows.values().stream()
+                    .flatMap(flowsPerSff -> flowsPerSff.getOrDefault(sffNodeName, Collections.emptyList()).stream())
+                    .map(flowDetails -> Arrays.asList(flowDetails.getTableKey(), flowDetails.getFlowKey()))
+                    .distinct()
+                    .count();
+        }
+
+        void close() throws Exception {
+            ownership.close();
+            flowWriter.shutdown();
+        }
+    }
+
+    @Before
+    public void before() throws Exception {
+        sfcUtilsTestMock = new SfcOfProviderUtilsTestMock();
+        rsp = new RspBuilder(sfcUtilsTestMock).createRspFromSfTypes(
+                Arrays.asList(new SftTypeName("firewall"), new SftTypeName("dpi")), VxlanGpe.class, Nsh.class);
+        members = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            members.add(new Member(getDataBroker(), sfcUtilsTestMock));
+        }
+    }
+
+    @After
+    public void after() throws Exception {
+        for (Member member : members) {
+            member.close();
+        }
+    }
+
+    @Test
+    public void writeFlowsOfOwnedSwitchesOnly() throws Exception {
+        members.forEach(member -> member.rspProcessor.processRenderedServicePath(rsp));
+
+        List<String> sffNodeNames = getSffNodeNames(members.get(0));
+        assertEquals(2, sffNodeNames.size());
+        String firstNode = sffNodeNames.get(0);
+        String secondNode = sffNodeNames.get(1);
+        int firstNodeFlows = members.get(0).countStoredFlows(firstNode);
+        int secondNodeFlows = members.get(0).countStoredFlows(secondNode);
+        assertTrue(firstNodeFlows > 0);
+        assertTrue(secondNodeFlows > 0);
+
+        // no member owns any switch yet: all members rendered the RSP, none
+        // wrote its flows
+        assertEquals(0, countWrittenFlows(firstNode));
+        assertEquals(0, countWrittenFlows(secondNode));
+
+        // the first member is elected owner of the first switch only
+        members.get(0).changeOwnership(firstNode, EntityOwnershipChangeState.LOCAL_OWNERSHIP_GRANTED);
+        members.get(1).changeOwnership(firstNode, EntityOwnershipChangeState.REMOTE_OWNERSHIP_CHANGED);
+        members.get(2).changeOwnership(firstNode, EntityOwnershipChangeState.REMOTE_OWNERSHIP_CHANGED);
+        assertTrue(awaitWrittenFlows(firstNode, firstNodeFlows));
+        assertEquals(0, countWrittenFlows(secondNode));
+
+        // the first member fails, the second one takes over both switches
+        members.remove(0).close();
+        members.get(0).changeOwnership(firstNode, EntityOwnershipChangeState.LOCAL_OWNERSHIP_GRANTED);
+        members.get(0).changeOwnership(secondNode, EntityOwnershipChangeState.LOCAL_OWNERSHIP_GRANTED);
+        members.get(1).changeOwnership(secondNode, EntityOwnershipChangeState.REMOTE_OWNERSHIP_CHANGED);
+        assertTrue(awaitWrittenFlows(firstNode, firstNodeFlows));
+        assertTrue(awaitWrittenFlows(secondNode, secondNodeFlows));
+
+        // the RSP is deleted by its owner, the other member only forgets it
+        members.forEach(member -> member.rspProcessor.deleteRenderedServicePath(rsp));
+        assertTrue(awaitWrittenFlows(firstNode, 0));
+        assertTrue(awaitWrittenFlows(secondNode, 0));
+        assertEquals(0, members.get(1).countStoredFlows(firstNode));
+
+        // no path uses the switches any more, the members are no longer
+        // candidates for their ownership
+        for (Member member : members) {
+            verify(member.candidateRegistration, times(2)).close();
+        }
+    }
+
+    private List<String> getSffNodeNames(Member member) {
+        Map<Long, Map<String, List<FlowDetails>>> flows = Whitebox.getInternalState(member.flowWriter,
+                "rspNameToFlowsMap");
+        List<String> sffNodeNames = new ArrayList<>(flows.get(rsp.getPathId()).keySet());
+        Collections.sort(sffNodeNames);
+        return sffNodeNames;
+    }
+
+    private boolean awaitWrittenFlows(String sffNodeName, int expectedFlows) throws Exception {
+        long deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MILLIS;
+        while (countWrittenFlows(sffNodeName) != expectedFlows) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(WAIT_STEP_MILLIS);
+        }
+        return true;
+    }
+
+    private int countWrittenFlows(String sffNodeName) throws Exception {
+        InstanceIdentifier<FlowCapableNode> nodeIid = InstanceIdentifier.builder(Nodes.class)
+                .child(Node.class, new NodeKey(new NodeId(sffNodeName))).augmentation(FlowCapableNode.class).build();
+        try (ReadOnlyTransaction readTx = getDataBroker().newReadOnlyTransaction()) {
+            Optional<FlowCapableNode> node = readTx.read(LogicalDatastoreType.CONFIGURATION, nodeIid).checkedGet();
+            if (!node.isPresent() || node.get().getTable() == null) {
+                return 0;
+            }
+            return node.get().getTable().stream()
+                    .mapToInt(table -> table.getFlow() == null ? 0 : table.getFlow().size())
+                    .sum();
+        }
+    }
+}
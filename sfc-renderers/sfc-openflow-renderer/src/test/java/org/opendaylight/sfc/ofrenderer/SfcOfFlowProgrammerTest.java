@@ -849,6 +849,27 @@ public class SfcOfFlowProgrammerTest {
         }
     }
 
+    @Test
+    public void configureVlanTransportEgressFlowSharedActions() {
+        // The push VLAN action is shared by all the VLAN egress flows, the
+        // flows written first must not see the actions of the later ones
+        sfcOfFlowProgrammer.configureVlanTransportEgressFlow(SFF_NAME, MAC_SRC, MAC_DST, VLAN_ID, PORT, PATH_ID);
+        List<Action> firstActions = ((ApplyActionsCase) sfcOfFlowWriter.getFlowBuilder().getInstructions()
+                .getInstruction().get(0).getInstruction()).getApplyActions().getAction();
+        sfcOfFlowProgrammer.configureVlanTransportEgressFlow(SFF_NAME, MAC_SRC, MAC_DST, VLAN_ID + 1, PORT,
+                PATH_ID + 1);
+        List<Action> secondActions = ((ApplyActionsCase) sfcOfFlowWriter.getFlowBuilder().getInstructions()
+                .getInstruction().get(0).getInstruction()).getApplyActions().getAction();
+
+        assertEquals(4, firstActions.size());
+        assertEquals(4, secondActions.size());
+        assertEquals(firstActions.get(0), secondActions.get(0));
+        assertEquals(VLAN_ID, ((SetFieldCase) firstActions.get(1).getAction()).getSetField().getVlanMatch()
+                .getVlanId().getVlanId().getValue().intValue());
+        assertEquals(VLAN_ID + 1, ((SetFieldCase) secondActions.get(1).getAction()).getSetField().getVlanMatch()
+                .getVlanId().getVlanId().getValue().intValue());
+    }
+
     /**
      * Unit test to check match and action fields from flows.
      *
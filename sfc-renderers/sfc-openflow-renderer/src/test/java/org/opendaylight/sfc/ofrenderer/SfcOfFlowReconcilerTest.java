@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.base.Optional;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.binding.test.AbstractDataBrokerTest;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.ofrenderer.openflow.SfcOfFlowProgrammerImpl;
+import org.opendaylight.sfc.ofrenderer.processors.SfcOfRspProcessor;
+import org.opendaylight.sfc.ofrenderer.utils.SfcOfFlowReconciler;
+import org.opendaylight.sfc.ofrenderer.utils.SfcOfProviderUtilsTestMock;
+import org.opendaylight.sfc.ofrenderer.utils.SfcSynchronizer;
+import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
+import org.opendaylight.sfc.util.openflow.SfcOpenflowUtils;
+import org.opendaylight.sfc.util.openflow.writer.FlowDetails;
+import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterImpl;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.Nsh;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.VxlanGpe;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNodeBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.Table;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.TableBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.TableKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.AddFlowInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.RemoveFlowInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.SalFlowService;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.FlowCookie;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.service.rev130918.SalGroupService;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.powermock.reflect.Whitebox;
+
+/**
+ * Renders an RSP, simulates a switch that lost some of its flows and holds a
+ * stale SFC flow, and checks that the reconciliation only adds the missing
+ * flows and removes the stale one.
+ */
+public class SfcOfFlowReconcilerTest extends AbstractDataBrokerTest {
+
+    private static final long WAIT_TIMEOUT_MILLIS = 5000;
+    private static final long WAIT_STEP_MILLIS = 50;
+    private static final short STALE_FLOW_TABLE = 10;
+
+    private SfcOfFlowWriterImpl flowWriter;
+    private SfcOfFlowReconciler flowReconciler;
+    private SalFlowService salFlowService;
+    private String sffNodeName;
+    private int renderedFlows;
+
+    @Before
+    public void before() throws Exception {
+        SfcDataStoreAPI.setDataProviderAux(getDataBroker());
+        SfcOfProviderUtilsTestMock sfcUtilsTestMock = new SfcOfProviderUtilsTestMock();
+        RenderedServicePath rsp = new RspBuilder(sfcUtilsTestMock).createRspFromSfTypes(
+                Arrays.asList(new SftTypeName("firewall"), new SftTypeName("dpi")), VxlanGpe.class, Nsh.class);
+
+        SfcSynchronizer sfcSynchronizer = new SfcSynchronizer();
+        flowWriter = new SfcOfFlowWriterImpl();
+        flowWriter.setDataProvider(getDataBroker());
+        salFlowService = mock(SalFlowService.class);
+        flowReconciler = new SfcOfFlowReconciler(getDataBroker(), flowWriter, sfcSynchronizer, salFlowService,
+                mock(SalGroupService.class));
+        new SfcOfRspProcessor(new SfcOfFlowProgrammerImpl(flowWriter), sfcUtilsTestMock, sfcSynchronizer, null,
+                getDataBroker()).processRenderedServicePath(rsp);
+
+        Map<Long, Map<String, List<FlowDetails>>> flows = Whitebox.getInternalState(flowWriter, "rspNameToFlowsMap");
+        List<String> sffNodeNames = new ArrayList<>(flows.get(rsp.getPathId()).keySet());
+        assertFalse(sffNodeNames.isEmpty());
+        Collections.sort(sffNodeNames);
+        sffNodeName = sffNodeNames.get(0);
+        renderedFlows = flowWriter.getNodeFlows(sffNodeName).size();
+        assertTrue(renderedFlows > 2);
+        assertTrue(awaitConfigFlows(renderedFlows));
+    }
+
+    @After
+    public void after() throws Exception {
+        flowReconciler.close();
+        flowWriter.shutdown();
+    }
+
+    @Test
+    public void reconcileMissingAndStaleFlows() throws Exception {
+        // the switch holds all the flows but two, and a stale SFC flow left
+        // from a previous path together with a flow of another application
+        List<Flow> configFlows = getFlows(LogicalDatastoreType.CONFIGURATION);
+        List<Flow> installedFlows = new ArrayList<>(configFlows.subList(2, configFlows.size()));
+        installedFlows.add(createFlow("staleSfcFlow", SfcOfFlowProgrammerImpl.TRANSPORT_EGRESS_COOKIE_STR_BASE
+                + SfcOfFlowProgrammerImpl.TRANSPORT_EGRESS_NSH_VXGPE_COOKIE));
+        installedFlows.add(createFlow("otherAppFlow", "1234"));
+        writeOperationalFlows(installedFlows);
+        // both flows were lost by the data store too, e.g. after a partial
+        // commit failure
+        deleteConfigFlows(configFlows.subList(0, 2));
+
+        assertEquals(3, flowReconciler.reconcileNode(sffNodeName));
+
+        assertEquals(renderedFlows, getFlows(LogicalDatastoreType.CONFIGURATION).size());
+        verify(salFlowService, times(2)).addFlow(any(AddFlowInput.class));
+        verify(salFlowService, times(1)).removeFlow(any(RemoveFlowInput.class));
+    }
+
+    @Test
+    public void reconcileFlowWithStaleContent() throws Exception {
+        // the switch holds all the flows, but one of them with an outdated
+        // priority; the flow is still in the data store
+        List<Flow> installedFlows = getFlows(LogicalDatastoreType.CONFIGURATION);
+        Flow sfcFlow = getSfcFlow(installedFlows);
+        installedFlows.set(installedFlows.indexOf(sfcFlow),
+                new FlowBuilder(sfcFlow).setPriority(sfcFlow.getPriority() + 1).build());
+        writeOperationalFlows(installedFlows);
+
+        assertEquals(2, flowReconciler.reconcileNode(sffNodeName));
+
+        // the flow is added again, and the outdated one removed from the
+        // switch
+        assertEquals(renderedFlows, getFlows(LogicalDatastoreType.CONFIGURATION).size());
+        verify(salFlowService, times(1)).addFlow(any(AddFlowInput.class));
+        verify(salFlowService, times(1)).removeFlow(any(RemoveFlowInput.class));
+    }
+
+    @Test
+    public void reconcileInSyncNode() throws Exception {
+        writeOperationalFlows(getFlows(LogicalDatastoreType.CONFIGURATION));
+
+        assertEquals(0, flowReconciler.reconcileNode(sffNodeName));
+        verify(salFlowService, times(0)).addFlow(any(AddFlowInput.class));
+        verify(salFlowService, times(0)).removeFlow(any(RemoveFlowInput.class));
+    }
+
+    @Test
+    public void reconcileFlowWithSwitchId() throws Exception {
+        // the switch reports one of the flows under an id of its own, and
+        // with a match and instructions of its own making
+        List<Flow> installedFlows = getFlows(LogicalDatastoreType.CONFIGURATION);
+        Flow sfcFlow = getSfcFlow(installedFlows);
+        installedFlows.set(installedFlows.indexOf(sfcFlow), new FlowBuilder(sfcFlow)
+                .setId(new FlowId("#UF$TABLE*1"))
+                .setKey(new FlowKey(new FlowId("#UF$TABLE*1")))
+                .setMatch(null)
+                .setInstructions(null)
+                .build());
+        writeOperationalFlows(installedFlows);
+
+        assertEquals(0, flowReconciler.reconcileNode(sffNodeName));
+        verify(salFlowService, times(0)).addFlow(any(AddFlowInput.class));
+        verify(salFlowService, times(0)).removeFlow(any(RemoveFlowInput.class));
+    }
+
+    @Test
+    public void reconcileNodeWithoutExpectedFlows() throws Exception {
+        // the renderer has not rendered any path on the switch yet
+        sffNodeName = "openflow:unrendered";
+        writeOperationalFlows(Collections.singletonList(createFlow("sfcFlow",
+                SfcOfFlowProgrammerImpl.TRANSPORT_EGRESS_COOKIE_STR_BASE
+                        + SfcOfFlowProgrammerImpl.TRANSPORT_EGRESS_NSH_VXGPE_COOKIE)));
+
+        assertEquals(0, flowReconciler.reconcileNode(sffNodeName));
+        assertEquals(1, getFlows(LogicalDatastoreType.OPERATIONAL).size());
+        verify(salFlowService, times(0)).removeFlow(any(RemoveFlowInput.class));
+    }
+
+    @Test
+    public void reconcileDisconnectedNode() throws Exception {
+        assertEquals(-1, flowReconciler.reconcileNode(sffNodeName));
+    }
+
+    @Test
+    public void scheduleReconciliation() throws Exception {
+        List<Flow> configFlows = getFlows(LogicalDatastoreType.CONFIGURATION);
+        writeOperationalFlows(configFlows.subList(1, configFlows.size()));
+        deleteConfigFlows(configFlows.subList(0, 1));
+
+        assertTrue(flowReconciler.scheduleReconciliation(sffNodeName, WAIT_STEP_MILLIS));
+        assertTrue(awaitConfigFlows(renderedFlows));
+        verify(salFlowService, timeout(WAIT_TIMEOUT_MILLIS)).addFlow(any(AddFlowInput.class));
+    }
+
+    private static Flow getSfcFlow(List<Flow> flows) {
+        return flows.stream()
+                .filter(flow -> flow.getCookie() != null && SfcOpenflowUtils.isSfcCookie(flow.getCookie().getValue()))
+                .findFirst().get();
+    }
+
+    private Flow createFlow(String flowId, String cookie) {
+        return new FlowBuilder()
+                .setId(new FlowId(flowId))
+                .setKey(new FlowKey(new FlowId(flowId)))
+                .setTableId(STALE_FLOW_TABLE)
+                .setPriority(1)
+                .setCookie(new FlowCookie(new BigInteger(cookie, 16)))
+                .build();
+    }
+
+    private InstanceIdentifier<FlowCapableNode> getNodeIid() {
+        return InstanceIdentifier.builder(Nodes.class).child(Node.class, new NodeKey(new NodeId(sffNodeName)))
+                .augmentation(FlowCapableNode.class).build();
+    }
+
+    private void writeOperationalFlows(List<Flow> flows) throws Exception {
+        List<Table> tables = flows.stream()
+                .collect(Collectors.groupingBy(Flow::getTableId))
+                .entrySet().stream()
+                .map(entry -> new TableBuilder().setId(entry.getKey()).setKey(new TableKey(entry.getKey()))
+                        .setFlow(entry.getValue()).build())
+                .collect(Collectors.toList());
+        WriteTransaction writeTx = getDataBroker().newWriteOnlyTransaction();
+        writeTx.put(LogicalDatastoreType.OPERATIONAL, getNodeIid(),
+                new FlowCapableNodeBuilder().setTable(tables).build(), true);
+        writeTx.submit().checkedGet();
+    }
+
+    private void deleteConfigFlows(List<Flow> flows) throws Exception {
+        WriteTransaction writeTx = getDataBroker().newWriteOnlyTransaction();
+        flows.forEach(flow -> writeTx.delete(LogicalDatastoreType.CONFIGURATION,
+                getNodeIid().child(Table.class, new TableKey(flow.getTableId())).child(Flow.class, flow.getKey())));
+        writeTx.submit().checkedGet();
+    }
+
+    private boolean awaitConfigFlows(int expectedFlows) throws Exception {
+        long deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MILLIS;
+        while (getFlows(LogicalDatastoreType.CONFIGURATION).size() != expectedFlows) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(WAIT_STEP_MILLIS);
+        }
+        return true;
+    }
+
+    private List<Flow> getFlows(LogicalDatastoreType datastoreType) throws Exception {
+        try (ReadOnlyTransaction readTx = getDataBroker().newReadOnlyTransaction()) {
+            Optional<FlowCapableNode> node = readTx.read(datastoreType, getNodeIid()).checkedGet();
+            if (!node.isPresent() || node.get().getTable() == null) {
+                return new ArrayList<>();
+            }
+            return node.get().getTable().stream()
+                    .filter(table -> table.getFlow() != null)
+                    .flatMap(table -> table.getFlow().stream())
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.base.Optional;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
+import org.opendaylight.controller.md.sal.binding.test.AbstractDataBrokerTest;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.ofrenderer.openflow.SfcOfFlowProgrammerImpl;
+import org.opendaylight.sfc.ofrenderer.processors.SfcOfRspProcessor;
+import org.opendaylight.sfc.ofrenderer.utils.SfcOfProviderUtilsTestMock;
+import org.opendaylight.sfc.ofrenderer.utils.SfcSynchronizer;
+import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
+import org.opendaylight.sfc.util.openflow.OpenflowConstants;
+import org.opendaylight.sfc.util.openflow.SfcOpenflowUtils;
+import org.opendaylight.sfc.util.openflow.writer.FlowDetails;
+import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterImpl;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.Nsh;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.VxlanGpe;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.RemoveFlowInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.SalFlowService;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.powermock.reflect.Whitebox;
+
+/**
+ * Renders two RSPs and checks that the flows of an RSP are deleted from the
+ * flows stored for it by the renderer that wrote them, and by the path id
+ * encoded in their cookie, with a single flow removal per switch of the RSP,
+ * by a renderer that lost track of them.
+ */
+public class SfcOfRspCookieDeletionTest extends AbstractDataBrokerTest {
+
+    private static final long WAIT_TIMEOUT_MILLIS = 5000;
+    private static final long WAIT_STEP_MILLIS = 50;
+
+    private SfcOfProviderUtilsTestMock sfcUtilsTestMock;
+    private SfcOfFlowWriterImpl flowWriter;
+    private SfcOfRspProcessor rspProcessor;
+    private SalFlowService salFlowService;
+    private RenderedServicePath rsp1;
+    private RenderedServicePath rsp2;
+
+    @Before
+    public void before() throws Exception {
+        SfcDataStoreAPI.setDataProviderAux(getDataBroker());
+        sfcUtilsTestMock = new SfcOfProviderUtilsTestMock();
+        RspBuilder rspBuilder = new RspBuilder(sfcUtilsTestMock);
+        rsp1 = rspBuilder.createRspFromSfTypes(Arrays.asList(new SftTypeName("firewall"), new SftTypeName("dpi")),
+                VxlanGpe.class, Nsh.class);
+        rsp2 = rspBuilder.createRspFromSfTypes(
+                Arrays.asList(new SftTypeName("firewall"), new SftTypeName("http-header-enrichment")),
+                VxlanGpe.class, Nsh.class);
+
+        flowWriter = new SfcOfFlowWriterImpl();
+        flowWriter.setDataProvider(getDataBroker());
+        salFlowService = mock(SalFlowService.class);
+        flowWriter.setFlowService(salFlowService);
+        rspProcessor = new SfcOfRspProcessor(new SfcOfFlowProgrammerImpl(flowWriter), sfcUtilsTestMock,
+                new SfcSynchronizer(), null, getDataBroker());
+        rspProcessor.processRenderedServicePath(rsp1);
+        rspProcessor.processRenderedServicePath(rsp2);
+
+        Map<Long, Map<String, List<FlowDetails>>> flows = Whitebox.getInternalState(flowWriter, "rspNameToFlowsMap");
+        Set<String> sffNodeNames = flows.values().stream()
+                .flatMap(flowsPerSff -> flowsPerSff.keySet().stream())
+                .collect(Collectors.toSet());
+        int renderedFlows = sffNodeNames.stream().mapToInt(name -> flowWriter.getNodeFlows(name).size()).sum();
+        assertTrue(awaitConfigFlows(renderedFlows));
+        assertFalse(getRspFlows(rsp1.getPathId()).isEmpty());
+        assertFalse(getRspFlows(rsp2.getPathId()).isEmpty());
+    }
+
+    @After
+    public void after() throws Exception {
+        flowWriter.shutdown();
+    }
+
+    @Test
+    public void deleteRenderedServicePath() throws Exception {
+        int rsp2Flows = getRspFlows(rsp2.getPathId()).size();
+
+        rspProcessor.deleteRenderedServicePath(rsp1);
+
+        // the stored flows of the RSP are deleted, without reading the
+        // switches
+        assertTrue(awaitNoRspFlows(rsp1.getPathId()));
+        assertEquals(rsp2Flows, getRspFlows(rsp2.getPathId()).size());
+        verify(salFlowService, never()).removeFlow(any(RemoveFlowInput.class));
+    }
+
+    @Test
+    public void deleteRenderedServicePaths() throws Exception {
+        rspProcessor.deleteRenderedServicePaths(Arrays.asList(rsp1, rsp2));
+
+        assertTrue(awaitNoRspFlows(rsp1.getPathId()));
+        assertTrue(awaitNoRspFlows(rsp2.getPathId()));
+        verify(salFlowService, never()).removeFlow(any(RemoveFlowInput.class));
+    }
+
+    @Test
+    public void deleteRenderedServicePathWithoutStoredFlows() throws Exception {
+        Set<String> rsp1NodeNames = getRspNodeNames(rsp1.getPathId());
+        int rsp2Flows = getRspFlows(rsp2.getPathId()).size();
+
+        // a renderer that did not write the flows, e.g. after a restart,
+        // deletes them from the switches of the RSP hops
+        SfcOfFlowWriterImpl restartedFlowWriter = new SfcOfFlowWriterImpl();
+        restartedFlowWriter.setDataProvider(getDataBroker());
+        restartedFlowWriter.setFlowService(salFlowService);
+        new SfcOfRspProcessor(new SfcOfFlowProgrammerImpl(restartedFlowWriter), sfcUtilsTestMock,
+                new SfcSynchronizer(), null, getDataBroker()).deleteRenderedServicePath(rsp1);
+        restartedFlowWriter.shutdown();
+
+        assertTrue(getRspFlows(rsp1.getPathId()).isEmpty());
+        assertEquals(rsp2Flows, getRspFlows(rsp2.getPathId()).size());
+        assertRemovedByCookie(rsp1NodeNames.size(), rsp1.getPathId());
+    }
+
+    @Test
+    public void deleteRspsFlowsWithoutStoredFlows() throws Exception {
+        Set<String> rsp1NodeNames = getRspNodeNames(rsp1.getPathId());
+        Set<String> rsp2NodeNames = getRspNodeNames(rsp2.getPathId());
+        int initializationFlows = getFlows().size() - getRspFlows(rsp1.getPathId()).size()
+                - getRspFlows(rsp2.getPathId()).size();
+        Map<Long, Set<String>> rspSffNodeNames = new HashMap<>();
+        rspSffNodeNames.put(rsp1.getPathId(), rsp1NodeNames);
+        rspSffNodeNames.put(rsp2.getPathId(), rsp2NodeNames);
+
+        // a renderer that did not write the flows, e.g. after a restart
+        SfcOfFlowWriterImpl restartedFlowWriter = new SfcOfFlowWriterImpl();
+        restartedFlowWriter.setDataProvider(getDataBroker());
+        restartedFlowWriter.setFlowService(salFlowService);
+        new SfcOfFlowProgrammerImpl(restartedFlowWriter).deleteRspsFlows(rspSffNodeNames);
+        restartedFlowWriter.shutdown();
+
+        assertTrue(getRspFlows(rsp1.getPathId()).isEmpty());
+        assertTrue(getRspFlows(rsp2.getPathId()).isEmpty());
+        assertEquals(initializationFlows, getFlows().size());
+        // a single flow removal per RSP on each of its switches
+        verify(salFlowService, times(rsp1NodeNames.size() + rsp2NodeNames.size()))
+                .removeFlow(any(RemoveFlowInput.class));
+    }
+
+    private void assertRemovedByCookie(int nodes, long pathId) {
+        ArgumentCaptor<RemoveFlowInput> inputCaptor = ArgumentCaptor.forClass(RemoveFlowInput.class);
+        verify(salFlowService, times(nodes)).removeFlow(inputCaptor.capture());
+        for (RemoveFlowInput input : inputCaptor.getAllValues()) {
+            assertEquals(SfcOpenflowUtils.createRspCookie(pathId, 0), input.getCookie().getValue());
+            assertEquals(SfcOpenflowUtils.getRspCookieMask(), input.getCookieMask().getValue());
+            assertEquals(Short.valueOf(OpenflowConstants.OFPTT_ALL), input.getTableId());
+            assertFalse(input.isStrict());
+        }
+    }
+
+    private Set<String> getRspNodeNames(long pathId) throws Exception {
+        return readNodes().stream()
+                .filter(node -> getNodeFlows(node).stream().anyMatch(flow -> isRspFlow(flow, pathId)))
+                .map(node -> node.getId().getValue())
+                .collect(Collectors.toSet());
+    }
+
+    private List<Flow> getRspFlows(long pathId) throws Exception {
+        return getFlows().stream().filter(flow -> isRspFlow(flow, pathId)).collect(Collectors.toList());
+    }
+
+    private static boolean isRspFlow(Flow flow, long pathId) {
+        return flow.getCookie() != null && SfcOpenflowUtils.isRspCookie(flow.getCookie().getValue())
+                && SfcOpenflowUtils.getRspCookiePathId(flow.getCookie().getValue()) == pathId;
+    }
+
+    private boolean awaitNoRspFlows(long pathId) throws Exception {
+        long deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MILLIS;
+        while (!getRspFlows(pathId).isEmpty()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(WAIT_STEP_MILLIS);
+        }
+        return true;
+    }
+
+    private boolean awaitConfigFlows(int expectedFlows) throws Exception {
+        long deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MILLIS;
+        while (getFlows().size() != expectedFlows) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(WAIT_STEP_MILLIS);
+        }
+        return true;
+    }
+
+    private List<Flow> getFlows() throws Exception {
+        return readNodes().stream()
+                .flatMap(node -> getNodeFlows(node).stream())
+                .collect(Collectors.toList());
+    }
+
+    private static List<Flow> getNodeFlows(Node node) {
+        FlowCapableNode flowCapableNode = node.getAugmentation(FlowCapableNode.class);
+        if (flowCapableNode == null || flowCapableNode.getTable() == null) {
+            return new ArrayList<>();
+        }
+        return flowCapableNode.getTable().stream()
+                .filter(table -> table.getFlow() != null)
+                .flatMap(table -> table.getFlow().stream())
+                .collect(Collectors.toList());
+    }
+
+    private List<Node> readNodes() throws Exception {
+        try (ReadOnlyTransaction readTx = getDataBroker().newReadOnlyTransaction()) {
+            Optional<Nodes> nodes = readTx.read(LogicalDatastoreType.CONFIGURATION,
+                    InstanceIdentifier.create(Nodes.class)).checkedGet();
+            if (!nodes.isPresent() || nodes.get().getNode() == null) {
+                return new ArrayList<>();
+            }
+            return nodes.get().getNode();
+        }
+    }
+}
@@ -200,6 +200,47 @@ public class SfcOfRspTransactionalProcessorTest {
         Assert.assertTrue(areSffsFreeOfInitializationFlows(theMap));
     }
 
+    /*
+     * Create RSP, then update it without any change. - Check that the flows of
+     * the RSP are kept - Check that no flow is scheduled for deletion - Check
+     * that no SFF is returned to the "uninitialized" state
+     */
+    @Test
+    public void testSingleRSPUpdate() throws Exception {
+        LOG.info("testSingleRSPUpdate");
+
+        // needs to be done inside the test(it is cleared in before() method
+        // between tests)
+        this.nshRsp = rspBuilder.createRspFromSfTypes(serviceFunctionChain1, VxlanGpe.class, Nsh.class);
+        this.sfcOfRspProcessor.processRenderedServicePath(nshRsp);
+
+        Map<Long, Map<String, List<FlowDetails>>> theMap = Whitebox.getInternalState(sfcFlowWriterTestMock,
+                "rspNameToFlowsMap");
+        Set<FlowDetails> flowsBeforeUpdate = theMap.get(nshRsp.getPathId()).values().stream()
+                .flatMap(List::stream).collect(Collectors.toSet());
+
+        LOG.info("testSingleRSPUpdate: flow creation completed - starting update");
+        this.sfcOfRspProcessor.updateRenderedServicePath(nshRsp);
+
+        verify(sfcFlowWriterTestMock, times(2)).flushFlows();
+        verify(sfcFlowWriterTestMock).deleteFlowSet();
+        PowerMockito.verifyPrivate(this.sfcOfRspProcessor, times(0)).invoke("setSffInitialized", anyObject(),
+                Matchers.eq(false));
+
+        // the same flows are rendered again for the RSP
+        Set<FlowDetails> flowsAfterUpdate = theMap.get(nshRsp.getPathId()).values().stream()
+                .flatMap(List::stream).collect(Collectors.toSet());
+        assertThat(flowsAfterUpdate.size(), is(flowsBeforeUpdate.size()));
+
+        // no flow is stale, so none is scheduled for deletion
+        Set<FlowDetails> deletedFlows = Whitebox.getInternalState(sfcFlowWriterTestMock, "setOfFlowsToDelete");
+        Assert.assertTrue(deletedFlows.isEmpty());
+
+        Map<Long, Map<String, List<FlowDetails>>> theUpdateMap = Whitebox.getInternalState(sfcFlowWriterTestMock,
+                "rspFlowsBeforeUpdateMap");
+        Assert.assertTrue(theUpdateMap.isEmpty());
+    }
+
     /*
      * Create RSP 1, store flow count. Create RSP 2, store flows. Delete RSP2,
      * check that flows are the same than after creation of RSP1 Then Delete
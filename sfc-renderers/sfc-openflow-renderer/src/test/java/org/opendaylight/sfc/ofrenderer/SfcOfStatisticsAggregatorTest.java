@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.binding.test.AbstractDataBrokerTest;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.ofrenderer.openflow.SfcOfFlowProgrammerImpl;
+import org.opendaylight.sfc.ofrenderer.stats.HopTraffic;
+import org.opendaylight.sfc.ofrenderer.stats.RspTraffic;
+import org.opendaylight.sfc.ofrenderer.stats.SfTraffic;
+import org.opendaylight.sfc.ofrenderer.stats.SfcOfStatisticsAggregator;
+import org.opendaylight.sfc.ofrenderer.stats.TrafficRingBuffer;
+import org.opendaylight.sfc.ofrenderer.stats.TrafficSample;
+import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
+import org.opendaylight.sfc.util.openflow.SfcOpenflowUtils;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.RenderedServicePaths;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePathBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePathKey;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHop;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHopBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHopKey;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.yang.types.rev130715.Counter64;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNodeBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.Table;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.TableBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.TableKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.statistics.rev130819.FlowStatisticsData;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.statistics.rev130819.FlowStatisticsDataBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.statistics.rev130819.flow.statistics.FlowStatisticsBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.FlowCookie;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * Writes two RSPs and the statistics of their flows on three switches to the
+ * operational data store, and checks the traffic attributed to the RSPs, their
+ * hops and their service functions.
+ */
+public class SfcOfStatisticsAggregatorTest extends AbstractDataBrokerTest {
+
+    private static final long PATH_ID1 = 5;
+    private static final long PATH_ID2 = 6;
+    private static final short FIRST_INDEX = 255;
+    private static final short SECOND_INDEX = 254;
+    private static final short NEXT_HOP_TABLE = 10;
+    private static final short INGRESS_TABLE = 1;
+    private static final long NEXT_HOP_FLOW_TYPE = 0x20;
+    private static final String NODE1 = "openflow:1";
+    private static final String NODE2 = "openflow:2";
+    private static final double DELTA = 0.001;
+
+    private SfcOfStatisticsAggregator aggregator;
+
+    @Before
+    public void before() throws Exception {
+        SfcDataStoreAPI.setDataProviderAux(getDataBroker());
+        aggregator = new SfcOfStatisticsAggregator(getDataBroker(), 3);
+        writeRsp(createRsp("rsp1", PATH_ID1, "sf1", "sf2"));
+        writeRsp(createRsp("rsp2", PATH_ID2, "sf1"));
+    }
+
+    @After
+    public void after() throws Exception {
+        aggregator.close();
+    }
+
+    @Test
+    public void aggregateRspHopAndSfTraffic() throws Exception {
+        writeCounters(100, 80, 40);
+        assertTrue(aggregator.poll(1000));
+
+        RspTraffic rsp1 = aggregator.getRspTraffic(PATH_ID1);
+        assertEquals("rsp1", rsp1.getRspName());
+        // the first hop is counted once, not on both switches
+        assertEquals(100, rsp1.getPackets());
+        assertEquals(100 * 100, rsp1.getBytes());
+        assertEquals(0, rsp1.getPacketRate(), DELTA);
+        assertEquals(2, rsp1.getHops().size());
+        assertEquals(FIRST_INDEX, rsp1.getHops().get(0).getServiceIndex());
+        assertEquals("sf1", rsp1.getHops().get(0).getSfName());
+        assertEquals(100, rsp1.getHops().get(0).getPackets());
+        assertEquals("sf2", rsp1.getHops().get(1).getSfName());
+        assertEquals(80, rsp1.getHops().get(1).getPackets());
+        // the flow without statistics and the classifier flow are skipped
+        assertEquals(5, aggregator.getLastPollFlowCount());
+
+        writeCounters(300, 280, 40);
+        assertTrue(aggregator.poll(3000));
+
+        rsp1 = aggregator.getRspTraffic(PATH_ID1);
+        assertEquals(300, rsp1.getPackets());
+        assertEquals(100, rsp1.getPacketRate(), DELTA);
+        assertEquals(100 * 100, rsp1.getByteRate(), DELTA);
+        HopTraffic secondHop = rsp1.getHops().get(1);
+        assertEquals(280, secondHop.getPackets());
+        assertEquals(100, secondHop.getPacketRate(), DELTA);
+
+        List<TrafficSample> samples = aggregator.getRspTimeSeries(PATH_ID1);
+        assertEquals(2, samples.size());
+        assertEquals(1000, samples.get(0).getTimestamp());
+        assertEquals(3000, samples.get(1).getTimestamp());
+
+        SfTraffic sf1 = aggregator.getSfTraffic("sf1");
+        assertEquals(2, sf1.getHopCount());
+        assertEquals(300 + 40, sf1.getPackets());
+        assertEquals(100, sf1.getPacketRate(), DELTA);
+        assertEquals(Arrays.asList("sf1", "sf2"), Arrays.asList(aggregator.getSfTraffic().get(0).getSfName(),
+                aggregator.getSfTraffic().get(1).getSfName()));
+        assertEquals(2, aggregator.getRspTraffic().size());
+        assertEquals(2, aggregator.getPollCount());
+    }
+
+    @Test
+    public void forgetDeletedRsp() throws Exception {
+        writeCounters(100, 80, 40);
+        assertTrue(aggregator.poll(1000));
+        assertEquals(40, aggregator.getRspTraffic(PATH_ID2).getPackets());
+
+        WriteTransaction writeTx = getDataBroker().newWriteOnlyTransaction();
+        writeTx.delete(LogicalDatastoreType.OPERATIONAL, InstanceIdentifier.builder(RenderedServicePaths.class)
+                .child(RenderedServicePath.class, new RenderedServicePathKey(new RspName("rsp2"))).build());
+        writeTx.submit().checkedGet();
+        assertTrue(aggregator.poll(2000));
+
+        assertNull(aggregator.getRspTraffic(PATH_ID2));
+        assertEquals(1, aggregator.getSfTraffic("sf1").getHopCount());
+    }
+
+    @Test
+    public void ringBufferWrapsAndHandlesCounterReset() {
+        TrafficRingBuffer buffer = new TrafficRingBuffer(3);
+        buffer.add(1000, 10, 1000);
+        buffer.add(2000, 20, 2000);
+        buffer.add(3000, 30, 3000);
+        buffer.add(4000, 40, 4000);
+        assertEquals(3, buffer.size());
+        assertEquals(2000, buffer.getSamples().get(0).getTimestamp());
+        assertEquals(10, buffer.getPacketRate(), DELTA);
+
+        // the flow was re-installed, its counters restarted from zero
+        buffer.add(6000, 8, 800);
+        assertEquals(4, buffer.getPacketRate(), DELTA);
+        assertEquals(400, buffer.getByteRate(), DELTA);
+    }
+
+    private static RenderedServicePath createRsp(String rspName, long pathId, String... sfNames) {
+        List<RenderedServicePathHop> hops = new ArrayList<>();
+        for (short hopNumber = 0; hopNumber < sfNames.length; hopNumber++) {
+            hops.add(new RenderedServicePathHopBuilder()
+                    .setKey(new RenderedServicePathHopKey(hopNumber))
+                    .setHopNumber(hopNumber)
+                    .setServiceIndex((short) (FIRST_INDEX - hopNumber))
+                    .setServiceFunctionName(new SfName(sfNames[hopNumber]))
+                    .build());
+        }
+        return new RenderedServicePathBuilder()
+                .setKey(new RenderedServicePathKey(new RspName(rspName)))
+                .setName(new RspName(rspName))
+                .setPathId(pathId)
+                .setStartingIndex(FIRST_INDEX)
+                .setRenderedServicePathHop(hops)
+                .build();
+    }
+
+    private void writeRsp(RenderedServicePath rsp) throws Exception {
+        WriteTransaction writeTx = getDataBroker().newWriteOnlyTransaction();
+        writeTx.put(LogicalDatastoreType.OPERATIONAL, InstanceIdentifier.builder(RenderedServicePaths.class)
+                .child(RenderedServicePath.class, rsp.getKey()).build(), rsp, true);
+        writeTx.submit().checkedGet();
+    }
+
+    private void writeCounters(long firstHopPackets, long secondHopPackets, long rsp2Packets) throws Exception {
+        // the first switch steers the packets of the first hop to the second
+        // switch, which sends them to the service function
+        writeFlows(NODE1, Arrays.asList(
+                createNextHopFlow(PATH_ID1, FIRST_INDEX, firstHopPackets),
+                createFlow("transportIngress_1", INGRESS_TABLE, PATH_ID1, null, firstHopPackets)));
+        writeFlows(NODE2, Arrays.asList(
+                createNextHopFlow(PATH_ID1, FIRST_INDEX, firstHopPackets),
+                createNextHopFlow(PATH_ID1, SECOND_INDEX, secondHopPackets),
+                createNextHopFlow(PATH_ID2, FIRST_INDEX, rsp2Packets),
+                createNextHopFlow(PATH_ID2, SECOND_INDEX, null)));
+        writeFlows("openflow:3", Arrays.asList(createNextHopFlow(PATH_ID1, SECOND_INDEX, secondHopPackets)));
+    }
+
+    private static Flow createNextHopFlow(long pathId, short nsi, Long packets) {
+        String flowId = SfcOfFlowProgrammerImpl.FLOW_NAME_NEXT_HOP + "_" + nsi + "_" + pathId;
+        return createFlow(flowId, NEXT_HOP_TABLE, pathId, nsi, packets);
+    }
+
+    private static Flow createFlow(String flowId, short tableId, long pathId, Short nsi, Long packets) {
+        FlowBuilder flowBuilder = new FlowBuilder()
+                .setId(new FlowId(flowId))
+                .setKey(new FlowKey(new FlowId(flowId)))
+                .setTableId(tableId)
+                .setPriority(1)
+                .setCookie(new FlowCookie(SfcOpenflowUtils.createRspCookie(pathId, NEXT_HOP_FLOW_TYPE)));
+        if (nsi != null) {
+            flowBuilder.setMatch(SfcOpenflowUtils.getNshMatches(pathId, nsi).build());
+        }
+        if (packets != null) {
+            flowBuilder.addAugmentation(FlowStatisticsData.class, new FlowStatisticsDataBuilder()
+                    .setFlowStatistics(new FlowStatisticsBuilder()
+                            .setPacketCount(new Counter64(BigInteger.valueOf(packets)))
+                            .setByteCount(new Counter64(BigInteger.valueOf(packets * 100)))
+                            .build())
+                    .build());
+        }
+        return flowBuilder.build();
+    }
+
+    private void writeFlows(String nodeName, List<Flow> flows) throws Exception {
+        List<Table> tables = flows.stream()
+                .collect(Collectors.groupingBy(Flow::getTableId))
+                .entrySet().stream()
+                .map(entry -> new TableBuilder().setId(entry.getKey()).setKey(new TableKey(entry.getKey()))
+                        .setFlow(entry.getValue()).build())
+                .collect(Collectors.toList());
+        WriteTransaction writeTx = getDataBroker().newWriteOnlyTransaction();
+        writeTx.put(LogicalDatastoreType.OPERATIONAL, InstanceIdentifier.builder(Nodes.class)
+                .child(Node.class, new NodeKey(new NodeId(nodeName))).augmentation(FlowCapableNode.class).build(),
+                new FlowCapableNodeBuilder().setTable(tables).build(), true);
+        writeTx.submit().checkedGet();
+    }
+}
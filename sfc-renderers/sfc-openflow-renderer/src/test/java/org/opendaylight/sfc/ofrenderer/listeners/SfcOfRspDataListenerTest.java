@@ -13,6 +13,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import org.junit.Before;
@@ -42,6 +43,12 @@ public class SfcOfRspDataListenerTest {
     @Mock
     DataObjectModification<RenderedServicePath> dataObjectModificationRsp;
 
+    @Mock
+    DataTreeModification<RenderedServicePath> dataTreeModificationRsp2;
+
+    @Mock
+    DataObjectModification<RenderedServicePath> dataObjectModificationRsp2;
+
     Collection<DataTreeModification<RenderedServicePath>> rspModifications;
 
     SfcOfRspDataListener sfcOfRspDataListener;
@@ -63,6 +70,28 @@ public class SfcOfRspDataListenerTest {
         verifyNoMoreInteractions(sfcOfRspProcessor);
     }
 
+    @Test
+    public void onDataTreeChangedInitialSync() throws Exception {
+        RenderedServicePath rsp1 = new RenderedServicePathBuilder().setName(new RspName("RSP1")).build();
+        RenderedServicePath rsp2 = new RenderedServicePathBuilder().setName(new RspName("RSP2")).build();
+        when(dataObjectModificationRsp.getModificationType()).thenReturn(DataObjectModification.ModificationType.WRITE);
+        when(dataObjectModificationRsp.getDataAfter()).thenReturn(rsp1);
+        when(dataObjectModificationRsp2.getModificationType())
+                .thenReturn(DataObjectModification.ModificationType.WRITE);
+        when(dataObjectModificationRsp2.getDataAfter()).thenReturn(rsp2);
+        when(dataTreeModificationRsp2.getRootNode()).thenReturn(dataObjectModificationRsp2);
+
+        // the existing RSPs are rendered in bulk
+        sfcOfRspDataListener.onDataTreeChanged(Arrays.asList(dataTreeModificationRsp, dataTreeModificationRsp2));
+        verify(sfcOfRspProcessor).processRenderedServicePaths(Arrays.asList(rsp1, rsp2));
+
+        // the RSPs created afterwards are rendered one by one
+        sfcOfRspDataListener.onDataTreeChanged(Arrays.asList(dataTreeModificationRsp, dataTreeModificationRsp2));
+        verify(sfcOfRspProcessor).processRenderedServicePath(same(rsp1));
+        verify(sfcOfRspProcessor).processRenderedServicePath(same(rsp2));
+        verifyNoMoreInteractions(sfcOfRspProcessor);
+    }
+
     @Test
     public void onDataTreeChangedRerender() throws Exception {
         RenderedServicePath rerenderRsp = new RenderedServicePathBuilder().setName(new RspName("RSP1")).build();
@@ -70,8 +99,7 @@ public class SfcOfRspDataListenerTest {
         when(dataObjectModificationRsp.getDataAfter()).thenReturn(rerenderRsp);
         when(dataObjectModificationRsp.getDataBefore()).thenReturn(rerenderRsp);
         sfcOfRspDataListener.onDataTreeChanged(rspModifications);
-        verify(sfcOfRspProcessor).processRenderedServicePath(same(rerenderRsp));
-        verify(sfcOfRspProcessor).deleteRenderedServicePath(same(rerenderRsp));
+        verify(sfcOfRspProcessor).updateRenderedServicePath(same(rerenderRsp));
         verifyNoMoreInteractions(sfcOfRspProcessor);
     }
 
@@ -96,4 +124,22 @@ public class SfcOfRspDataListenerTest {
         verify(sfcOfRspProcessor).deleteRenderedServicePath(same(oldRsp));
         verifyNoMoreInteractions(sfcOfRspProcessor);
     }
+
+    @Test
+    public void onDataTreeChangedDeleteSeveral() throws Exception {
+        RenderedServicePath oldRsp1 = new RenderedServicePathBuilder().setName(new RspName("RSP1")).build();
+        RenderedServicePath oldRsp2 = new RenderedServicePathBuilder().setName(new RspName("RSP2")).build();
+        when(dataObjectModificationRsp.getModificationType())
+                .thenReturn(DataObjectModification.ModificationType.DELETE);
+        when(dataObjectModificationRsp.getDataBefore()).thenReturn(oldRsp1);
+        when(dataObjectModificationRsp2.getModificationType())
+                .thenReturn(DataObjectModification.ModificationType.DELETE);
+        when(dataObjectModificationRsp2.getDataBefore()).thenReturn(oldRsp2);
+        when(dataTreeModificationRsp2.getRootNode()).thenReturn(dataObjectModificationRsp2);
+
+        // the deleted RSPs are removed in bulk
+        sfcOfRspDataListener.onDataTreeChanged(Arrays.asList(dataTreeModificationRsp, dataTreeModificationRsp2));
+        verify(sfcOfRspProcessor).deleteRenderedServicePaths(Arrays.asList(oldRsp1, oldRsp2));
+        verifyNoMoreInteractions(sfcOfRspProcessor);
+    }
 }
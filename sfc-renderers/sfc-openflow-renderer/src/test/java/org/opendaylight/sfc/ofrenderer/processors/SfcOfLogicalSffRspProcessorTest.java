@@ -18,7 +18,6 @@ import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 import static org.opendaylight.sfc.ofrenderer.openflow.SfcOfFlowProgrammerImpl.COOKIE_BIGINT_HEX_RADIX;
 import static org.opendaylight.sfc.ofrenderer.openflow.SfcOfFlowProgrammerImpl.TABLE_INDEX_CLASSIFIER;
-import static org.opendaylight.sfc.ofrenderer.openflow.SfcOfFlowProgrammerImpl.TRANSPORT_EGRESS_COOKIE_STR_BASE;
 import static org.opendaylight.sfc.ofrenderer.openflow.SfcOfFlowProgrammerImpl.TRANSPORT_EGRESS_NSH_ETH_LASTHOP_NSH_LOCAL_COOKIE;
 import static org.opendaylight.sfc.ofrenderer.openflow.SfcOfFlowProgrammerImpl.TRANSPORT_EGRESS_NSH_ETH_LASTHOP_NSH_REMOTE_COOKIE;
 import static org.opendaylight.sfc.ofrenderer.openflow.SfcOfFlowProgrammerImpl.TRANSPORT_EGRESS_NSH_ETH_LASTHOP_PIPELINE_COOKIE;
@@ -946,41 +945,31 @@ public class SfcOfLogicalSffRspProcessorTest {
         assertThat(theFlow.getCookie().getValue(), notNullValue());
         BigInteger cookie = theFlow.getCookie().getValue();
 
-        BigInteger egresspipelineCookie = new BigInteger(
-                TRANSPORT_EGRESS_COOKIE_STR_BASE + TRANSPORT_EGRESS_NSH_ETH_LASTHOP_PIPELINE_COOKIE,
-                COOKIE_BIGINT_HEX_RADIX);
+        BigInteger egresspipelineCookie = rspCookie(theNsp, TRANSPORT_EGRESS_NSH_ETH_LASTHOP_PIPELINE_COOKIE);
         if (cookie.equals(egresspipelineCookie)) {
             assertTransportEgressLastHopPipelineFlow(theFlow, theNsp, theNsi, theSfMacAddress);
             return;
         }
 
-        BigInteger remoteTunnelCookie = new BigInteger(
-                TRANSPORT_EGRESS_COOKIE_STR_BASE + TRANSPORT_EGRESS_NSH_ETH_LASTHOP_TUNNEL_REMOTE_COOKIE,
-                COOKIE_BIGINT_HEX_RADIX);
+        BigInteger remoteTunnelCookie = rspCookie(theNsp, TRANSPORT_EGRESS_NSH_ETH_LASTHOP_TUNNEL_REMOTE_COOKIE);
         if (cookie.equals(remoteTunnelCookie)) {
             assertTransportEgressLastHopRemoteTunnel(theFlow, theNsp, theNsi, theOutputPort);
             return;
         }
 
-        BigInteger localTunnelCookie = new BigInteger(
-                TRANSPORT_EGRESS_COOKIE_STR_BASE + TRANSPORT_EGRESS_NSH_ETH_LASTHOP_TUNNEL_LOCAL_COOKIE,
-                COOKIE_BIGINT_HEX_RADIX);
+        BigInteger localTunnelCookie = rspCookie(theNsp, TRANSPORT_EGRESS_NSH_ETH_LASTHOP_TUNNEL_LOCAL_COOKIE);
         if (cookie.equals(localTunnelCookie)) {
             assertTransportEgressLastHopLocalTunnel(theFlow, theNsp, theNsi, theSffIpAddress);
             return;
         }
 
-        BigInteger remoteNshCookie = new BigInteger(
-                TRANSPORT_EGRESS_COOKIE_STR_BASE + TRANSPORT_EGRESS_NSH_ETH_LASTHOP_NSH_REMOTE_COOKIE,
-                COOKIE_BIGINT_HEX_RADIX);
+        BigInteger remoteNshCookie = rspCookie(theNsp, TRANSPORT_EGRESS_NSH_ETH_LASTHOP_NSH_REMOTE_COOKIE);
         if (cookie.equals(remoteNshCookie)) {
             assertTransportEgressLastHopRemoteNsh(theFlow, theNsp, theNsi, theOutputPort);
             return;
         }
 
-        BigInteger localNshCookie = new BigInteger(
-                TRANSPORT_EGRESS_COOKIE_STR_BASE + TRANSPORT_EGRESS_NSH_ETH_LASTHOP_NSH_LOCAL_COOKIE,
-                COOKIE_BIGINT_HEX_RADIX);
+        BigInteger localNshCookie = rspCookie(theNsp, TRANSPORT_EGRESS_NSH_ETH_LASTHOP_NSH_LOCAL_COOKIE);
         if (cookie.equals(localNshCookie)) {
             assertTransportEgressLastHopLocalNsh(theFlow, theNsp, theNsi, theSffIpAddress);
             return;
@@ -988,4 +977,8 @@ public class SfcOfLogicalSffRspProcessorTest {
 
         assert false : "Unrecognized cookie on last hop egress flow, cookie = " + cookie;
     }
+
+    private static BigInteger rspCookie(long theNsp, String theCookieType) {
+        return SfcOpenflowUtils.createRspCookie(theNsp, Long.parseLong(theCookieType, COOKIE_BIGINT_HEX_RADIX));
+    }
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer.sfg;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SfgBucketLayoutTest {
+
+    private static final int GROUP_SIZE = 64;
+
+    private SfgBucketLayout layout;
+    private List<String> builtBuckets;
+    private Map<String, String> sfMacs;
+
+    @Before
+    public void setUp() {
+        layout = new SfgBucketLayout("sff1", "openflow:1", 1, 1);
+        builtBuckets = new ArrayList<>();
+        sfMacs = new HashMap<>();
+    }
+
+    @Test
+    public void addMemberKeepsBucketIds() {
+        List<String> sfNames = IntStream.range(0, GROUP_SIZE).mapToObj(i -> "sf" + i).collect(Collectors.toList());
+        assertTrue(layout.update(sfNames, this::buildBucket));
+        assertEquals(GROUP_SIZE, builtBuckets.size());
+        Map<String, Integer> bucketIds = getBucketIds();
+
+        List<String> newSfNames = new ArrayList<>(sfNames);
+        newSfNames.add(0, "sfNew");
+        assertTrue(layout.update(newSfNames, this::buildBucket));
+
+        assertEquals(GROUP_SIZE + 1, layout.getBuckets().size());
+        Map<String, Integer> newBucketIds = getBucketIds();
+        assertEquals(Integer.valueOf(GROUP_SIZE), newBucketIds.remove("sfNew"));
+        assertEquals(bucketIds, newBucketIds);
+    }
+
+    @Test
+    public void removedMemberSlotTakenByLastMember() {
+        layout.update(Arrays.asList("sf0", "sf1", "sf2", "sf3"), this::buildBucket);
+        assertTrue(layout.update(Arrays.asList("sf0", "sf2", "sf3"), this::buildBucket));
+
+        // the buckets are numbered by their position in the group
+        assertEquals(Arrays.asList("sf0", "sf3", "sf2"), getBucketOrder());
+        assertEquals(Arrays.asList(0, 1, 2), getBucketIndexes());
+
+        // a new member is appended
+        layout.update(Arrays.asList("sf0", "sf2", "sf3", "sf4"), this::buildBucket);
+        assertEquals(Arrays.asList("sf0", "sf3", "sf2", "sf4"), getBucketOrder());
+        assertEquals(Arrays.asList(0, 1, 2, 3), getBucketIndexes());
+    }
+
+    @Test
+    public void removedMembers() {
+        layout.update(Arrays.asList("sf0", "sf1", "sf2", "sf3", "sf4"), this::buildBucket);
+        assertTrue(layout.update(Arrays.asList("sf1", "sf2"), this::buildBucket));
+
+        assertEquals(Arrays.asList("sf2", "sf1"), getBucketOrder());
+        assertEquals(Arrays.asList(0, 1), getBucketIndexes());
+
+        assertTrue(layout.update(Collections.emptyList(), this::buildBucket));
+        assertTrue(layout.getBuckets().isEmpty());
+    }
+
+    @Test
+    public void unchangedMembers() {
+        layout.update(Arrays.asList("sf0", "sf1"), this::buildBucket);
+
+        assertFalse(layout.update(Arrays.asList("sf1", "sf0"), this::buildBucket));
+        assertEquals(Arrays.asList("sf0", "sf1"), getBucketOrder());
+    }
+
+    @Test
+    public void changedMemberBucketIsRebuilt() {
+        layout.update(Arrays.asList("sf0", "sf1", "sf2"), this::buildBucket);
+
+        sfMacs.put("sf1", "00:00:00:00:00:11");
+        assertTrue(layout.update(Arrays.asList("sf0", "sf1", "sf2"), this::buildBucket));
+
+        GroupBucketInfo bucket = layout.getBuckets().get(1);
+        assertEquals("sf1", bucket.getOutPort());
+        assertEquals("00:00:00:00:00:11", bucket.getSfMac());
+        assertEquals(1, bucket.getIndex());
+        assertEquals(Arrays.asList("sf0", "sf1", "sf2"), getBucketOrder());
+    }
+
+    @Test
+    public void existingMemberWithoutBucketKeepsIt() {
+        layout.update(Arrays.asList("sf0", "sf1"), this::buildBucket);
+
+        assertFalse(layout.update(Arrays.asList("sf0", "sf1"),
+            sfName -> "sf0".equals(sfName) ? null : buildBucket(sfName)));
+        assertEquals(Arrays.asList("sf0", "sf1"), getBucketOrder());
+    }
+
+    @Test
+    public void memberWithoutBucketIsLeftOut() {
+        assertTrue(layout.update(Arrays.asList("sf0", "missing", "sf1"),
+            sfName -> "missing".equals(sfName) ? null : buildBucket(sfName)));
+
+        assertEquals(2, layout.getBuckets().size());
+        assertEquals(Integer.valueOf(1), getBucketIds().get("sf1"));
+    }
+
+    @Test
+    public void matches() {
+        assertTrue(layout.matches("sff1", "openflow:1", 1, 1));
+        assertFalse(layout.matches("sff2", "openflow:1", 1, 1));
+        assertFalse(layout.matches("sff1", "openflow:2", 1, 1));
+        assertFalse(layout.matches("sff1", "openflow:1", 2, 1));
+        assertFalse(layout.matches("sff1", "openflow:1", 1, 0));
+    }
+
+    private GroupBucketInfo buildBucket(String sfName) {
+        builtBuckets.add(sfName);
+        GroupBucketInfo bucket = new GroupBucketInfo();
+        bucket.setOutPort(sfName);
+        bucket.setSfMac(sfMacs.get(sfName));
+        return bucket;
+    }
+
+    private List<String> getBucketOrder() {
+        return layout.getBuckets().stream().map(GroupBucketInfo::getOutPort).collect(Collectors.toList());
+    }
+
+    private List<Integer> getBucketIndexes() {
+        return layout.getBuckets().stream().map(GroupBucketInfo::getIndex).collect(Collectors.toList());
+    }
+
+    private Map<String, Integer> getBucketIds() {
+        Map<String, Integer> bucketIds = new HashMap<>();
+        layout.getBuckets().forEach(bucket -> bucketIds.put(bucket.getOutPort(), bucket.getIndex()));
+        return bucketIds;
+    }
+}
@@ -0,0 +1,799 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer.simulator;
+
+import com.google.common.collect.ImmutableMap;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.opendaylight.sfc.ofrenderer.simulator.SimulatedPacket.Field;
+import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterImpl;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Prefix;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.yang.types.rev130715.MacAddress;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.action.DecNwTtlCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.action.DropActionCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.action.GroupActionCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.action.OutputActionCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.action.PopMplsActionCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.action.PopVlanActionCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.action.PushMplsActionCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.action.PushVlanActionCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.action.SetDlTypeActionCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.action.SetFieldCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.action.SetNwDstActionCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.action.set.field._case.SetField;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.list.Action;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.address.address.Ipv4;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.flow.Match;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.instruction.instruction.ApplyActionsCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.instruction.instruction.GoToTableCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.instruction.instruction.WriteActionsCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.instruction.instruction.WriteMetadataCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.instruction.list.Instruction;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.GroupTypes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.group.buckets.Bucket;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.Group;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.EthernetMatch;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.IpMatch;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.ProtocolMatchFields;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.VlanMatch;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.layer._3.match.ArpMatch;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.layer._3.match.Ipv4Match;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflowplugin.extension.general.rev140714.GeneralAugMatchNodesNodeTableFlow;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflowplugin.extension.general.rev140714.general.extension.list.grouping.ExtensionList;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflowplugin.extension.nicira.action.rev140714.NxActionPopNshGrouping;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflowplugin.extension.nicira.action.rev140714.NxActionPushNshGrouping;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflowplugin.extension.nicira.action.rev140714.NxActionRegLoadGrouping;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflowplugin.extension.nicira.action.rev140714.NxActionRegMoveGrouping;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflowplugin.extension.nicira.action.rev140714.NxActionResubmitGrouping;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflowplugin.extension.nicira.action.rev140714.nx.action.reg.load.grouping.NxRegLoad;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflowplugin.extension.nicira.action.rev140714.nx.action.reg.move.grouping.NxRegMove;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflowplugin.extension.nicira.action.rev140714.nx.action.resubmit.grouping.NxResubmit;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflowplugin.extension.nicira.match.rev140714.NxAugMatchNodesNodeTableFlow;
+import org.opendaylight.yangtools.yang.binding.DataContainer;
+
+/**
+ * In-memory OpenFlow pipeline used to check the flows rendered for service
+ * paths without a data plane. The flows and groups of each switch are loaded,
+ * for example from the {@link SfcOfFlowWriterImpl} the renderer wrote them
+ * to, and synthetic packets are traced through the tables of a switch,
+ * following the goto-table instructions, the resubmit actions and the
+ * groups until the packet is output or dropped.
+ *
+ * <p>
+ * Only the matches and actions used by the SFC renderers are modelled. A
+ * flow with a match the simulator does not know never matches, and an
+ * unknown action or instruction is skipped and reported in the trace. The
+ * flows of each table are indexed by the exact value they match on the
+ * service path, the MPLS label, the VLAN or the destination MAC, so that a
+ * lookup does not need to scan the flows of all the paths of the switch.
+ */
+public class OfPipelineSimulator {
+
+    // Same limit as OVS
+    private static final int MAX_RESUBMIT_DEPTH = 64;
+
+    // The fields a flow is indexed by, in order of preference
+    private static final Field[] INDEX_FIELDS = {Field.NSP, Field.MPLS_LABEL, Field.VLAN_ID, Field.ETH_DST,
+        Field.ETH_SRC};
+
+    // The fields of the nicira load and move actions, by the name of the
+    // source or destination choice without the Src/Dst prefix and the Case
+    // suffix
+    private static final Map<String, Field> NX_FIELDS = ImmutableMap.<String, Field>builder()
+            .put("NxNsp", Field.NSP).put("NxNsi", Field.NSI)
+            .put("NxNshc1", Field.NSC1).put("NxNshc2", Field.NSC2)
+            .put("NxNshc3", Field.NSC3).put("NxNshc4", Field.NSC4)
+            .put("NxNshMdtype", Field.NSH_MDTYPE).put("NxNshNp", Field.NSH_NP)
+            .put("NxTunId", Field.TUN_ID).put("NxTunIpv4Dst", Field.TUN_IPV4_DST)
+            .put("NxTunGpeNp", Field.TUN_GPE_NP)
+            .put("NxEncapEthSrc", Field.ENCAP_ETH_SRC).put("NxEncapEthDst", Field.ENCAP_ETH_DST)
+            .put("OfEthSrc", Field.ETH_SRC).put("OfEthDst", Field.ETH_DST)
+            .put("NxReg", Field.REG0)
+            .put("OfArpOp", Field.ARP_OP).put("NxArpSha", Field.ARP_SHA).put("NxArpTha", Field.ARP_THA)
+            .put("OfArpSpa", Field.ARP_SPA).put("OfArpTpa", Field.ARP_TPA)
+            .build();
+
+    private static final Field[] NSH_FIELDS = {Field.NSP, Field.NSI, Field.NSC1, Field.NSC2, Field.NSC3,
+        Field.NSC4, Field.NSH_MDTYPE, Field.NSH_NP};
+
+    private static final String INPORT = "INPORT";
+
+    private final Map<String, Map<Short, FlowTable>> nodeTables = new HashMap<>();
+    private final Map<String, Map<Long, Group>> nodeGroups = new HashMap<>();
+    private int flowCount;
+    private int unsupportedFlowCount;
+
+    /**
+     * Load the flows and groups a flow writer keeps for some switches.
+     *
+     * @param flowWriter
+     *            the flow writer the renderer wrote the flows to
+     * @param nodeNames
+     *            the openflow node names of the switches
+     */
+    public void load(SfcOfFlowWriterImpl flowWriter, Collection<String> nodeNames) {
+        for (String nodeName : nodeNames) {
+            flowWriter.getNodeFlows(nodeName).forEach(flowDetails -> addFlow(nodeName, flowDetails.getFlow()));
+            flowWriter.getNodeGroups(nodeName).forEach(group -> addGroup(nodeName, group));
+        }
+    }
+
+    /**
+     * Add a flow to a switch, replacing the flow with the same id in the same
+     * table if any.
+     *
+     * @param nodeName
+     *            the openflow node name of the switch
+     * @param flow
+     *            the flow
+     */
+    public void addFlow(String nodeName, Flow flow) {
+        CompiledFlow compiledFlow = new CompiledFlow(flow);
+        FlowTable table = nodeTables.computeIfAbsent(nodeName, key -> new HashMap<>())
+                .computeIfAbsent(compiledFlow.tableId, key -> new FlowTable());
+        CompiledFlow replaced = table.add(compiledFlow);
+        if (replaced == null) {
+            flowCount++;
+        } else if (!replaced.supported) {
+            unsupportedFlowCount--;
+        }
+        if (!compiledFlow.supported) {
+            unsupportedFlowCount++;
+        }
+    }
+
+    public void addGroup(String nodeName, Group group) {
+        nodeGroups.computeIfAbsent(nodeName, key -> new HashMap<>()).put(group.getGroupId().getValue(), group);
+    }
+
+    public Set<String> getNodeNames() {
+        return nodeTables.keySet();
+    }
+
+    public int getFlowCount() {
+        return flowCount;
+    }
+
+    /**
+     * Get the number of flows with a match the simulator does not model.
+     * These flows never match any packet.
+     *
+     * @return the number of flows
+     */
+    public int getUnsupportedFlowCount() {
+        return unsupportedFlowCount;
+    }
+
+    /**
+     * Trace a packet received by a switch from the first table.
+     *
+     * @param nodeName
+     *            the openflow node name of the switch
+     * @param packet
+     *            the packet, which is not modified
+     * @return the trace
+     */
+    public PipelineTrace trace(String nodeName, SimulatedPacket packet) {
+        return trace(nodeName, (short) 0, packet);
+    }
+
+    /**
+     * Trace a packet received by a switch from a given table.
+     *
+     * @param nodeName
+     *            the openflow node name of the switch
+     * @param tableId
+     *            the table to start from
+     * @param packet
+     *            the packet, which is not modified
+     * @return the trace
+     */
+    public PipelineTrace trace(String nodeName, short tableId, SimulatedPacket packet) {
+        TraceContext context = new TraceContext(nodeName, new SimulatedPacket(packet));
+        processTable(context, tableId, 0);
+        if (!context.trace.isDropped()) {
+            // the action set is executed once the pipeline is over
+            applyActions(context, context.actionSet, 0);
+        }
+        return context.trace;
+    }
+
+    private void processTable(TraceContext context, short tableId, int depth) {
+        if (depth > MAX_RESUBMIT_DEPTH) {
+            context.trace.addUnsupported("resubmit depth exceeded in table " + tableId);
+            context.trace.setDropped(true);
+            return;
+        }
+
+        short currentTableId = tableId;
+        while (!context.trace.isDropped()) {
+            FlowTable table = nodeTables.getOrDefault(context.nodeName, new HashMap<>()).get(currentTableId);
+            CompiledFlow flow = table == null ? null : table.lookup(context.packet);
+            if (flow == null) {
+                context.trace.setTableMiss(true);
+                context.trace.setDropped(true);
+                return;
+            }
+            context.trace.addStep(new PipelineTrace.Step(currentTableId, flow.flowId, flow.priority, flow.cookie));
+
+            Short gotoTableId = applyInstructions(context, flow, depth);
+            if (gotoTableId == null) {
+                return;
+            }
+            if (gotoTableId <= currentTableId) {
+                context.trace.addUnsupported("goto table " + gotoTableId + " from table " + currentTableId);
+                context.trace.setDropped(true);
+                return;
+            }
+            currentTableId = gotoTableId;
+        }
+    }
+
+    // Apply the instructions of a flow in the order OpenFlow mandates,
+    // returning the table to go to if any
+    private Short applyInstructions(TraceContext context, CompiledFlow flow, int depth) {
+        Short gotoTableId = null;
+        List<Action> applyActions = null;
+        for (Instruction instruction : flow.instructions) {
+            if (instruction.getInstruction() instanceof ApplyActionsCase) {
+                applyActions = ((ApplyActionsCase) instruction.getInstruction()).getApplyActions().getAction();
+            } else if (instruction.getInstruction() instanceof WriteActionsCase) {
+                List<Action> actions = ((WriteActionsCase) instruction.getInstruction()).getWriteActions()
+                        .getAction();
+                if (actions != null) {
+                    context.actionSet.addAll(actions);
+                }
+            } else if (instruction.getInstruction() instanceof WriteMetadataCase) {
+                WriteMetadataCase writeMetadata = (WriteMetadataCase) instruction.getInstruction();
+                long mask = toLong(writeMetadata.getWriteMetadata().getMetadataMask(), -1L);
+                long value = toLong(writeMetadata.getWriteMetadata().getMetadata(), 0L);
+                long metadata = context.packet.has(Field.METADATA) ? context.packet.get(Field.METADATA) : 0L;
+                context.packet.set(Field.METADATA, metadata & ~mask | value & mask);
+            } else if (instruction.getInstruction() instanceof GoToTableCase) {
+                gotoTableId = ((GoToTableCase) instruction.getInstruction()).getGoToTable().getTableId();
+            } else if (instruction.getInstruction() != null) {
+                context.trace.addUnsupported(
+                        instruction.getInstruction().getImplementedInterface().getSimpleName() + " in flow "
+                                + flow.flowId);
+            }
+        }
+        if (applyActions != null) {
+            applyActions(context, applyActions, depth);
+        }
+        return context.trace.isDropped() ? null : gotoTableId;
+    }
+
+    private void applyActions(TraceContext context, List<Action> actions, int depth) {
+        if (actions == null) {
+            return;
+        }
+        List<Action> orderedActions = new ArrayList<>(actions);
+        orderedActions.sort(Comparator.comparing(action -> action.getOrder() == null ? 0 : action.getOrder()));
+        for (Action action : orderedActions) {
+            if (context.trace.isDropped()) {
+                return;
+            }
+            applyAction(context, action.getAction(), depth);
+        }
+    }
+
+    private void applyAction(TraceContext context,
+            org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.Action action, int depth) {
+        SimulatedPacket packet = context.packet;
+        if (action instanceof OutputActionCase) {
+            String port = SimulatedPacket.normalizePort(
+                    ((OutputActionCase) action).getOutputAction().getOutputNodeConnector().getValue());
+            if (INPORT.equals(port) || "IN_PORT".equals(port)) {
+                port = packet.getInPort();
+            }
+            context.trace.addOutput(new PipelineTrace.Output(port, new SimulatedPacket(packet)));
+        } else if (action instanceof DropActionCase) {
+            context.trace.setDropped(true);
+        } else if (action instanceof GroupActionCase) {
+            applyGroup(context, ((GroupActionCase) action).getGroupAction().getGroupId(), depth);
+        } else if (action instanceof PushVlanActionCase) {
+            packet.set(Field.VLAN_ID, 0);
+        } else if (action instanceof PopVlanActionCase) {
+            packet.remove(Field.VLAN_ID);
+        } else if (action instanceof PushMplsActionCase) {
+            packet.set(Field.ETH_TYPE, ((PushMplsActionCase) action).getPushMplsAction().getEthernetType());
+            packet.set(Field.MPLS_LABEL, 0);
+        } else if (action instanceof PopMplsActionCase) {
+            packet.set(Field.ETH_TYPE, ((PopMplsActionCase) action).getPopMplsAction().getEthernetType());
+            packet.remove(Field.MPLS_LABEL);
+        } else if (action instanceof SetFieldCase) {
+            applySetField(context, ((SetFieldCase) action).getSetField());
+        } else if (action instanceof SetDlTypeActionCase) {
+            packet.set(Field.ETH_TYPE, ((SetDlTypeActionCase) action).getSetDlTypeAction().getDlType().getValue());
+        } else if (action instanceof SetNwDstActionCase
+                && ((SetNwDstActionCase) action).getSetNwDstAction().getAddress() instanceof Ipv4) {
+            Ipv4 address = (Ipv4) ((SetNwDstActionCase) action).getSetNwDstAction().getAddress();
+            packet.set(Field.IPV4_DST, prefixAddress(address.getIpv4Address()));
+        } else if (action instanceof DecNwTtlCase) {
+            // TTLs are not modelled
+            return;
+        } else if (action instanceof NxActionRegLoadGrouping) {
+            applyRegLoad(context, ((NxActionRegLoadGrouping) action).getNxRegLoad());
+        } else if (action instanceof NxActionRegMoveGrouping) {
+            applyRegMove(context, ((NxActionRegMoveGrouping) action).getNxRegMove());
+        } else if (action instanceof NxActionResubmitGrouping) {
+            applyResubmit(context, ((NxActionResubmitGrouping) action).getNxResubmit(), depth);
+        } else if (action instanceof NxActionPushNshGrouping) {
+            // the NSH fields are loaded by the actions that follow
+            return;
+        } else if (action instanceof NxActionPopNshGrouping) {
+            for (Field field : NSH_FIELDS) {
+                packet.remove(field);
+            }
+        } else if (action != null) {
+            context.trace.addUnsupported(action.getImplementedInterface().getSimpleName());
+        }
+    }
+
+    private void applySetField(TraceContext context, SetField setField) {
+        SimulatedPacket packet = context.packet;
+        EthernetMatch ethernetMatch = setField.getEthernetMatch();
+        if (ethernetMatch != null && ethernetMatch.getEthernetSource() != null) {
+            packet.setMac(Field.ETH_SRC, ethernetMatch.getEthernetSource().getAddress().getValue());
+        }
+        if (ethernetMatch != null && ethernetMatch.getEthernetDestination() != null) {
+            packet.setMac(Field.ETH_DST, ethernetMatch.getEthernetDestination().getAddress().getValue());
+        }
+        if (setField.getVlanMatch() != null && setField.getVlanMatch().getVlanId() != null
+                && setField.getVlanMatch().getVlanId().getVlanId() != null) {
+            packet.set(Field.VLAN_ID, setField.getVlanMatch().getVlanId().getVlanId().getValue());
+        }
+        if (setField.getProtocolMatchFields() != null && setField.getProtocolMatchFields().getMplsLabel() != null) {
+            packet.set(Field.MPLS_LABEL, setField.getProtocolMatchFields().getMplsLabel());
+        }
+        if (setField.getIpMatch() != null && setField.getIpMatch().getIpDscp() != null) {
+            // DSCP is not modelled
+            return;
+        }
+        if (setField.getLayer3Match() != null || setField.getLayer4Match() != null) {
+            context.trace.addUnsupported("set field " + setField);
+        }
+    }
+
+    private void applyRegLoad(TraceContext context, NxRegLoad regLoad) {
+        Field field = getNxField(regLoad.getDst().getDstChoice());
+        if (field == null) {
+            context.trace.addUnsupported("load to " + regLoad.getDst().getDstChoice());
+            return;
+        }
+        int start = regLoad.getDst().getStart();
+        long mask = bitMask(start, regLoad.getDst().getEnd());
+        long current = context.packet.has(field) ? context.packet.get(field) : 0L;
+        context.packet.set(field, current & ~mask | regLoad.getValue().longValue() << start & mask);
+    }
+
+    private void applyRegMove(TraceContext context, NxRegMove regMove) {
+        Field srcField = getNxField(regMove.getSrc().getSrcChoice());
+        Field dstField = getNxField(regMove.getDst().getDstChoice());
+        if (srcField == null || dstField == null) {
+            context.trace.addUnsupported(
+                    "move from " + regMove.getSrc().getSrcChoice() + " to " + regMove.getDst().getDstChoice());
+            return;
+        }
+        int srcStart = regMove.getSrc().getStart();
+        int dstStart = regMove.getDst().getStart();
+        long srcValue = context.packet.has(srcField) ? context.packet.get(srcField) : 0L;
+        long bits = (srcValue & bitMask(srcStart, regMove.getSrc().getEnd())) >>> srcStart;
+        long dstMask = bitMask(dstStart, regMove.getDst().getEnd());
+        long current = context.packet.has(dstField) ? context.packet.get(dstField) : 0L;
+        context.packet.set(dstField, current & ~dstMask | bits << dstStart & dstMask);
+    }
+
+    private void applyResubmit(TraceContext context, NxResubmit resubmit, int depth) {
+        if (resubmit.getTable() == null) {
+            context.trace.addUnsupported("resubmit without table");
+            return;
+        }
+        String inPort = context.packet.getInPort();
+        if (resubmit.getInPort() != null) {
+            context.packet.setInPort(String.valueOf(resubmit.getInPort()));
+        }
+        processTable(context, resubmit.getTable(), depth + 1);
+        // a table miss in a resubmitted table does not end the pipeline
+        if (context.trace.isTableMiss()) {
+            context.trace.setTableMiss(false);
+            context.trace.setDropped(false);
+        }
+        context.packet.setInPort(inPort);
+    }
+
+    private void applyGroup(TraceContext context, long groupId, int depth) {
+        Group group = nodeGroups.getOrDefault(context.nodeName, new HashMap<>()).get(groupId);
+        if (group == null || group.getBuckets() == null || group.getBuckets().getBucket() == null
+                || group.getBuckets().getBucket().isEmpty()) {
+            context.trace.addUnsupported("missing group " + groupId);
+            context.trace.setDropped(true);
+            return;
+        }
+
+        List<Bucket> buckets = group.getBuckets().getBucket();
+        if (group.getGroupType() == GroupTypes.GroupAll) {
+            SimulatedPacket packet = context.packet;
+            for (Bucket bucket : buckets) {
+                context.packet = new SimulatedPacket(packet);
+                applyActions(context, bucket.getAction(), depth);
+            }
+            context.packet = packet;
+        } else if (group.getGroupType() == GroupTypes.GroupSelect) {
+            // a switch hashes the packet headers, any bucket will do as long
+            // as the same packet always goes to the same bucket
+            int bucket = Math.floorMod(context.packet.toString().hashCode(), buckets.size());
+            applyActions(context, buckets.get(bucket).getAction(), depth);
+        } else {
+            applyActions(context, buckets.get(0).getAction(), depth);
+        }
+    }
+
+    private static Field getNxField(DataContainer choice) {
+        if (choice == null) {
+            return null;
+        }
+        String name = choice.getImplementedInterface().getSimpleName();
+        if (name.length() <= "Dst".length() + "Case".length()) {
+            return null;
+        }
+        return NX_FIELDS.get(name.substring("Dst".length(), name.length() - "Case".length()));
+    }
+
+    private static long bitMask(int start, int end) {
+        int bits = end - start + 1;
+        return (bits >= Long.SIZE ? -1L : (1L << bits) - 1) << start;
+    }
+
+    private static long toLong(BigInteger value, long defaultValue) {
+        return value == null ? defaultValue : value.longValue();
+    }
+
+    private static long prefixAddress(Ipv4Prefix prefix) {
+        return SimulatedPacket.ipv4ToLong(prefix.getValue().split("/")[0]);
+    }
+
+    private static long prefixMask(Ipv4Prefix prefix) {
+        String[] parts = prefix.getValue().split("/");
+        int length = parts.length > 1 ? Integer.parseInt(parts[1]) : 32;
+        return length == 0 ? 0L : 0xFFFFFFFFL << 32 - length & 0xFFFFFFFFL;
+    }
+
+    private static class TraceContext {
+        private final String nodeName;
+        private final PipelineTrace trace;
+        private final List<Action> actionSet = new ArrayList<>();
+        private SimulatedPacket packet;
+
+        TraceContext(String nodeName, SimulatedPacket packet) {
+            this.nodeName = nodeName;
+            this.packet = packet;
+            this.trace = new PipelineTrace(nodeName);
+        }
+    }
+
+    /**
+     * A match on a field, with the bits to compare.
+     */
+    private static class FieldMatch {
+        private final Field field;
+        private final long value;
+        private final long mask;
+
+        FieldMatch(Field field, long value, long mask) {
+            this.field = field;
+            this.value = value & mask;
+            this.mask = mask;
+        }
+    }
+
+    /**
+     * A flow with its match translated to the fields of a simulated packet.
+     */
+    private static class CompiledFlow {
+        private final short tableId;
+        private final int priority;
+        private final String flowId;
+        private final BigInteger cookie;
+        private final List<Instruction> instructions;
+        private final Map<Field, FieldMatch> matches = new EnumMap<>(Field.class);
+        private String inPort;
+        private boolean vlanPresent;
+        private boolean supported = true;
+
+        CompiledFlow(Flow flow) {
+            tableId = flow.getTableId();
+            priority = flow.getPriority() == null ? 0 : flow.getPriority();
+            flowId = flow.getId() == null ? null : flow.getId().getValue();
+            cookie = flow.getCookie() == null ? null : flow.getCookie().getValue();
+            List<Instruction> flowInstructions = new ArrayList<>();
+            if (flow.getInstructions() != null && flow.getInstructions().getInstruction() != null) {
+                flowInstructions.addAll(flow.getInstructions().getInstruction());
+                flowInstructions.sort(Comparator.comparing(
+                    instruction -> instruction.getOrder() == null ? 0 : instruction.getOrder()));
+            }
+            instructions = flowInstructions;
+            compileMatch(flow.getMatch());
+        }
+
+        private void compileMatch(Match match) {
+            if (match == null) {
+                return;
+            }
+            if (match.getInPort() != null) {
+                inPort = SimulatedPacket.normalizePort(match.getInPort().getValue());
+            }
+            compileEthernetMatch(match.getEthernetMatch());
+            compileVlanMatch(match.getVlanMatch());
+            compileProtocolMatchFields(match.getProtocolMatchFields());
+            compileIpMatch(match.getIpMatch());
+            if (match.getMetadata() != null) {
+                addMatch(Field.METADATA, toLong(match.getMetadata().getMetadata(), 0L),
+                        toLong(match.getMetadata().getMetadataMask(), -1L));
+            }
+            if (match.getLayer3Match() instanceof Ipv4Match) {
+                Ipv4Match ipv4Match = (Ipv4Match) match.getLayer3Match();
+                if (ipv4Match.getIpv4Source() != null) {
+                    addMatch(Field.IPV4_SRC, prefixAddress(ipv4Match.getIpv4Source()),
+                            prefixMask(ipv4Match.getIpv4Source()));
+                }
+                if (ipv4Match.getIpv4Destination() != null) {
+                    addMatch(Field.IPV4_DST, prefixAddress(ipv4Match.getIpv4Destination()),
+                            prefixMask(ipv4Match.getIpv4Destination()));
+                }
+            } else if (match.getLayer3Match() instanceof ArpMatch) {
+                compileArpMatch((ArpMatch) match.getLayer3Match());
+            } else if (match.getLayer3Match() != null) {
+                supported = false;
+            }
+            if (match.getLayer4Match() != null || match.getIcmpv4Match() != null || match.getIcmpv6Match() != null
+                    || match.getTcpFlagsMatch() != null || match.getTunnel() != null) {
+                supported = false;
+            }
+            GeneralAugMatchNodesNodeTableFlow extensions = match.getAugmentation(
+                    GeneralAugMatchNodesNodeTableFlow.class);
+            if (extensions != null && extensions.getExtensionList() != null) {
+                extensions.getExtensionList().forEach(this::compileExtension);
+            }
+        }
+
+        private void compileEthernetMatch(EthernetMatch ethernetMatch) {
+            if (ethernetMatch == null) {
+                return;
+            }
+            if (ethernetMatch.getEthernetType() != null) {
+                addMatch(Field.ETH_TYPE, ethernetMatch.getEthernetType().getType().getValue(), -1L);
+            }
+            if (ethernetMatch.getEthernetSource() != null) {
+                addMacMatch(Field.ETH_SRC, ethernetMatch.getEthernetSource().getAddress(),
+                        ethernetMatch.getEthernetSource().getMask());
+            }
+            if (ethernetMatch.getEthernetDestination() != null) {
+                addMacMatch(Field.ETH_DST, ethernetMatch.getEthernetDestination().getAddress(),
+                        ethernetMatch.getEthernetDestination().getMask());
+            }
+        }
+
+        private void compileVlanMatch(VlanMatch vlanMatch) {
+            if (vlanMatch == null) {
+                return;
+            }
+            if (vlanMatch.getVlanPcp() != null || vlanMatch.getVlanId() == null) {
+                supported = false;
+            } else if (vlanMatch.getVlanId().getVlanId() != null) {
+                addMatch(Field.VLAN_ID, vlanMatch.getVlanId().getVlanId().getValue(), -1L);
+            } else if (Boolean.TRUE.equals(vlanMatch.getVlanId().isVlanIdPresent())) {
+                vlanPresent = true;
+            } else {
+                supported = false;
+            }
+        }
+
+        private void compileProtocolMatchFields(ProtocolMatchFields protocolMatchFields) {
+            if (protocolMatchFields == null) {
+                return;
+            }
+            if (protocolMatchFields.getMplsLabel() == null || protocolMatchFields.getMplsBos() != null
+                    || protocolMatchFields.getMplsTc() != null || protocolMatchFields.getPbb() != null) {
+                supported = false;
+            } else {
+                addMatch(Field.MPLS_LABEL, protocolMatchFields.getMplsLabel(), -1L);
+            }
+        }
+
+        private void compileIpMatch(IpMatch ipMatch) {
+            if (ipMatch == null) {
+                return;
+            }
+            if (ipMatch.getIpProtocol() == null || ipMatch.getIpDscp() != null || ipMatch.getIpEcn() != null) {
+                supported = false;
+            } else {
+                addMatch(Field.IP_PROTOCOL, ipMatch.getIpProtocol(), -1L);
+            }
+        }
+
+        private void compileArpMatch(ArpMatch arpMatch) {
+            if (arpMatch.getArpOp() != null) {
+                addMatch(Field.ARP_OP, arpMatch.getArpOp(), -1L);
+            }
+            if (arpMatch.getArpSourceTransportAddress() != null) {
+                addMatch(Field.ARP_SPA, prefixAddress(arpMatch.getArpSourceTransportAddress()),
+                        prefixMask(arpMatch.getArpSourceTransportAddress()));
+            }
+            if (arpMatch.getArpTargetTransportAddress() != null) {
+                addMatch(Field.ARP_TPA, prefixAddress(arpMatch.getArpTargetTransportAddress()),
+                        prefixMask(arpMatch.getArpTargetTransportAddress()));
+            }
+            if (arpMatch.getArpSourceHardwareAddress() != null || arpMatch.getArpTargetHardwareAddress() != null) {
+                supported = false;
+            }
+        }
+
+        private void compileExtension(ExtensionList extension) {
+            NxAugMatchNodesNodeTableFlow nxMatch = extension.getExtension() == null ? null
+                    : extension.getExtension().getAugmentation(NxAugMatchNodesNodeTableFlow.class);
+            if (nxMatch == null) {
+                supported = false;
+                return;
+            }
+            int matchCount = matches.size();
+            if (nxMatch.getNxmNxNsp() != null) {
+                addMatch(Field.NSP, nxMatch.getNxmNxNsp().getValue(), -1L);
+            }
+            if (nxMatch.getNxmNxNsi() != null) {
+                addMatch(Field.NSI, nxMatch.getNxmNxNsi().getNsi(), -1L);
+            }
+            if (nxMatch.getNxmNxNshc1() != null) {
+                addMatch(Field.NSC1, nxMatch.getNxmNxNshc1().getValue(), -1L);
+            }
+            if (nxMatch.getNxmNxNshc2() != null) {
+                addMatch(Field.NSC2, nxMatch.getNxmNxNshc2().getValue(), -1L);
+            }
+            if (nxMatch.getNxmNxNshMdtype() != null) {
+                addMatch(Field.NSH_MDTYPE, nxMatch.getNxmNxNshMdtype().getValue(), -1L);
+            }
+            if (nxMatch.getNxmNxNshNp() != null) {
+                addMatch(Field.NSH_NP, nxMatch.getNxmNxNshNp().getValue(), -1L);
+            }
+            if (nxMatch.getNxmNxTunGpeNp() != null) {
+                addMatch(Field.TUN_GPE_NP, nxMatch.getNxmNxTunGpeNp().getValue(), -1L);
+            }
+            if (nxMatch.getNxmNxEncapEthType() != null) {
+                addMatch(Field.ENCAP_ETH_TYPE, nxMatch.getNxmNxEncapEthType().getValue(), -1L);
+            }
+            if (nxMatch.getNxmNxEncapEthSrc() != null) {
+                addMacMatch(Field.ENCAP_ETH_SRC, nxMatch.getNxmNxEncapEthSrc().getMacAddress(), null);
+            }
+            if (nxMatch.getNxmNxEncapEthDst() != null) {
+                addMacMatch(Field.ENCAP_ETH_DST, nxMatch.getNxmNxEncapEthDst().getMacAddress(), null);
+            }
+            if (nxMatch.getNxmNxReg() != null) {
+                addMatch(Field.REG0, nxMatch.getNxmNxReg().getValue(), -1L);
+            }
+            if (matches.size() == matchCount) {
+                // none of the extensions the simulator knows
+                supported = false;
+            }
+        }
+
+        private void addMacMatch(Field field, MacAddress address, MacAddress mask) {
+            addMatch(field, SimulatedPacket.macToLong(address.getValue()),
+                    mask == null ? -1L : SimulatedPacket.macToLong(mask.getValue()));
+        }
+
+        private void addMatch(Field field, Number value, long mask) {
+            matches.put(field, new FieldMatch(field, value.longValue(), mask));
+        }
+
+        // the field the flow is indexed by: one it matches exactly
+        Field getIndexField() {
+            for (Field field : INDEX_FIELDS) {
+                FieldMatch match = matches.get(field);
+                if (match != null && match.mask == -1L) {
+                    return field;
+                }
+            }
+            return null;
+        }
+
+        boolean matches(SimulatedPacket packet) {
+            if (!supported) {
+                return false;
+            }
+            if (inPort != null && !inPort.equals(packet.getInPort())) {
+                return false;
+            }
+            if (vlanPresent && !packet.has(Field.VLAN_ID)) {
+                return false;
+            }
+            for (FieldMatch match : matches.values()) {
+                Long value = packet.get(match.field);
+                if (value == null || (value & match.mask) != match.value) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * The flows of a table, sorted by decreasing priority and indexed by the
+     * value of a field they match exactly.
+     */
+    private static class FlowTable {
+        private static final Comparator<CompiledFlow> BY_PRIORITY = (flow1, flow2) -> Integer
+                .compare(flow2.priority, flow1.priority);
+
+        private final Map<String, CompiledFlow> flowsById = new HashMap<>();
+        private final List<CompiledFlow> unindexedFlows = new ArrayList<>();
+        private final Map<Field, Map<Long, List<CompiledFlow>>> indexedFlows = new EnumMap<>(Field.class);
+        private boolean sorted = true;
+
+        CompiledFlow add(CompiledFlow flow) {
+            CompiledFlow replaced = flow.flowId == null ? null : flowsById.put(flow.flowId, flow);
+            if (replaced != null) {
+                getFlows(replaced).remove(replaced);
+            }
+            getFlows(flow).add(flow);
+            sorted = false;
+            return replaced;
+        }
+
+        private List<CompiledFlow> getFlows(CompiledFlow flow) {
+            Field indexField = flow.getIndexField();
+            if (indexField == null) {
+                return unindexedFlows;
+            }
+            return indexedFlows.computeIfAbsent(indexField, key -> new HashMap<>())
+                    .computeIfAbsent(flow.matches.get(indexField).value, key -> new ArrayList<>());
+        }
+
+        CompiledFlow lookup(SimulatedPacket packet) {
+            if (!sorted) {
+                unindexedFlows.sort(BY_PRIORITY);
+                indexedFlows.values().forEach(flowsByValue -> flowsByValue.values()
+                        .forEach(flows -> flows.sort(BY_PRIORITY)));
+                sorted = true;
+            }
+
+            CompiledFlow best = findMatch(unindexedFlows, packet, null);
+            for (Map.Entry<Field, Map<Long, List<CompiledFlow>>> entry : indexedFlows.entrySet()) {
+                Long value = packet.get(entry.getKey());
+                List<CompiledFlow> flows = value == null ? null : entry.getValue().get(value);
+                if (flows != null) {
+                    best = findMatch(flows, packet, best);
+                }
+            }
+            return best;
+        }
+
+        // the first flow matching the packet with a priority higher than the
+        // best match so far, or the best match so far
+        private static CompiledFlow findMatch(List<CompiledFlow> flows, SimulatedPacket packet,
+                CompiledFlow bestMatch) {
+            for (CompiledFlow flow : flows) {
+                if (bestMatch != null && flow.priority <= bestMatch.priority) {
+                    break;
+                }
+                if (flow.matches(packet)) {
+                    return flow;
+                }
+            }
+            return bestMatch;
+        }
+    }
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer.simulator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.binding.test.AbstractDataBrokerTest;
+import org.opendaylight.sfc.ofrenderer.RspBuilder;
+import org.opendaylight.sfc.ofrenderer.openflow.SfcOfFlowProgrammerImpl;
+import org.opendaylight.sfc.ofrenderer.processors.SfcOfRspProcessor;
+import org.opendaylight.sfc.ofrenderer.simulator.SimulatedPacket.Field;
+import org.opendaylight.sfc.ofrenderer.utils.SfcOfProviderUtilsTestMock;
+import org.opendaylight.sfc.ofrenderer.utils.SfcSynchronizer;
+import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
+import org.opendaylight.sfc.util.macchaining.VirtualMacAddress;
+import org.opendaylight.sfc.util.openflow.OpenflowConstants;
+import org.opendaylight.sfc.util.openflow.SfcOpenflowUtils;
+import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterImpl;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHop;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.IpPortLocator;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.Nsh;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.VxlanGpe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Traces packets through the flows rendered for service paths with the
+ * {@link OfPipelineSimulator}: the flows rendered by the RSP processor for a
+ * few chains, the flows of a hop in each transport, and the flows of ten
+ * thousand paths over a few switches.
+ */
+public class OfPipelineSimulatorTest extends AbstractDataBrokerTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OfPipelineSimulatorTest.class);
+
+    private static final int SCALE_PATHS = 10000;
+    private static final int SCALE_HOPS = 3;
+    private static final int SCALE_SWITCHES = 20;
+    private static final String SCALE_PORT = "1";
+    // a generous bound for loading and tracing all the scaled paths
+    private static final long SCALE_TIME_LIMIT_MILLIS = 10000;
+    private static final String RSP_PORT = "7";
+    private static final String NODE_NAME = "openflow:1";
+    private static final long PATH_ID = 1;
+    private static final String PREV_HOP_MAC = "00:00:00:00:00:01";
+    private static final String SFF_MAC = "00:00:00:00:00:02";
+    private static final String NEXT_HOP_MAC = "00:00:00:00:00:03";
+    private static final int HOP_VLAN = 100;
+    private static final int NEXT_HOP_VLAN = 101;
+    private static final long HOP_MPLS_LABEL = 1000;
+    private static final long NEXT_HOP_MPLS_LABEL = 1001;
+
+    private SfcOfProviderUtilsTestMock sfcUtilsTestMock;
+    private SfcOfFlowWriterImpl flowWriter;
+
+    @Before
+    public void before() {
+        SfcDataStoreAPI.setDataProviderAux(getDataBroker());
+        sfcUtilsTestMock = new SfcOfProviderUtilsTestMock();
+        flowWriter = new SfcOfFlowWriterImpl();
+        flowWriter.setDataProvider(getDataBroker());
+        // keep the flows in memory only, none of the switches is owned
+        flowWriter.setNodeOwnership(sffNodeName -> false);
+    }
+
+    @After
+    public void after() {
+        flowWriter.shutdown();
+    }
+
+    @Test
+    public void traceNshRenderedServicePaths() {
+        RspBuilder rspBuilder = new RspBuilder(sfcUtilsTestMock);
+        List<RenderedServicePath> rsps = Arrays.asList(
+                rspBuilder.createRspFromSfTypes(Arrays.asList(new SftTypeName("firewall"), new SftTypeName("dpi")),
+                        VxlanGpe.class, Nsh.class),
+                rspBuilder.createRspFromSfTypes(Arrays.asList(new SftTypeName("firewall"), new SftTypeName("qos"),
+                        new SftTypeName("http-header-enrichment")), VxlanGpe.class, Nsh.class));
+        SfcOfRspProcessor rspProcessor = new SfcOfRspProcessor(new SfcOfFlowProgrammerImpl(flowWriter),
+                sfcUtilsTestMock, new SfcSynchronizer(), null, getDataBroker());
+        rsps.forEach(rspProcessor::processRenderedServicePath);
+
+        Set<String> nodeNames = new HashSet<>();
+        rsps.forEach(rsp -> rsp.getRenderedServicePathHop().forEach(
+            hop -> nodeNames.add(sfcUtilsTestMock.getSffOpenFlowNodeName(hop.getServiceFunctionForwarder(),
+                    rsp.getPathId()))));
+        OfPipelineSimulator simulator = new OfPipelineSimulator();
+        simulator.load(flowWriter, nodeNames);
+        assertTrue(simulator.getFlowCount() > 0);
+        assertEquals(0, simulator.getUnsupportedFlowCount());
+
+        for (RenderedServicePath rsp : rsps) {
+            for (RenderedServicePathHop hop : rsp.getRenderedServicePathHop()) {
+                String nodeName = sfcUtilsTestMock.getSffOpenFlowNodeName(hop.getServiceFunctionForwarder(),
+                        rsp.getPathId());
+                // the SFF has no port details, the packets go back to the
+                // port they came from
+                PipelineTrace trace = simulator.trace(nodeName,
+                        SimulatedPacket.nsh(rsp.getPathId(), hop.getServiceIndex()).setInPort(RSP_PORT));
+
+                assertForwarded(trace);
+                assertTrue(trace.getTables().contains(SfcOfFlowProgrammerImpl.TABLE_INDEX_NEXT_HOP));
+                assertTrue(trace.getTables().contains(SfcOfFlowProgrammerImpl.TABLE_INDEX_TRANSPORT_EGRESS));
+                assertEquals(RSP_PORT, trace.getOutputs().get(0).getPort());
+                SimulatedPacket packet = trace.getOutputs().get(0).getPacket();
+                assertEquals(Long.valueOf(rsp.getPathId()), packet.get(Field.NSP));
+                assertEquals(Long.valueOf(hop.getServiceIndex()), packet.get(Field.NSI));
+                assertEquals(Long.valueOf(SimulatedPacket.ipv4ToLong(getSfIp(hop, rsp.getPathId()))),
+                        packet.get(Field.TUN_IPV4_DST));
+            }
+        }
+    }
+
+    @Test
+    public void traceVlanServicePath() {
+        SfcOfFlowProgrammerImpl flowProgrammer = new SfcOfFlowProgrammerImpl(flowWriter);
+        programMatchAnyFlows(flowProgrammer, NODE_NAME);
+        flowProgrammer.setFlowRspId(PATH_ID);
+        flowProgrammer.configureVlanTransportIngressFlow(NODE_NAME);
+        flowProgrammer.configureVlanPathMapperFlow(NODE_NAME, HOP_VLAN, PATH_ID, false);
+        flowProgrammer.configureMacNextHopFlow(NODE_NAME, PATH_ID, PREV_HOP_MAC, NEXT_HOP_MAC);
+        flowProgrammer.configureVlanTransportEgressFlow(NODE_NAME, SFF_MAC, NEXT_HOP_MAC, NEXT_HOP_VLAN, RSP_PORT,
+                PATH_ID);
+        flowProgrammer.flushFlows();
+        OfPipelineSimulator simulator = new OfPipelineSimulator();
+        simulator.load(flowWriter, Collections.singleton(NODE_NAME));
+
+        PipelineTrace trace = simulator.trace(NODE_NAME,
+                SimulatedPacket.vlan(HOP_VLAN, PREV_HOP_MAC).setInPort(SCALE_PORT));
+
+        assertForwarded(trace);
+        assertEquals(Arrays.asList(SfcOfFlowProgrammerImpl.TABLE_INDEX_CLASSIFIER,
+                SfcOfFlowProgrammerImpl.TABLE_INDEX_TRANSPORT_INGRESS,
+                SfcOfFlowProgrammerImpl.TABLE_INDEX_PATH_MAPPER,
+                SfcOfFlowProgrammerImpl.TABLE_INDEX_NEXT_HOP,
+                SfcOfFlowProgrammerImpl.TABLE_INDEX_TRANSPORT_EGRESS), trace.getTables());
+        PipelineTrace.Output output = trace.getOutputs().get(0);
+        assertEquals(RSP_PORT, output.getPort());
+        assertEquals(Long.valueOf(NEXT_HOP_VLAN), output.getPacket().get(Field.VLAN_ID));
+        assertEquals(Long.valueOf(SimulatedPacket.macToLong(SFF_MAC)), output.getPacket().get(Field.ETH_SRC));
+        assertEquals(Long.valueOf(SimulatedPacket.macToLong(NEXT_HOP_MAC)), output.getPacket().get(Field.ETH_DST));
+    }
+
+    @Test
+    public void traceMplsServicePath() {
+        SfcOfFlowProgrammerImpl flowProgrammer = new SfcOfFlowProgrammerImpl(flowWriter);
+        programMatchAnyFlows(flowProgrammer, NODE_NAME);
+        flowProgrammer.setFlowRspId(PATH_ID);
+        flowProgrammer.configureMplsTransportIngressFlow(NODE_NAME);
+        flowProgrammer.configureMplsPathMapperFlow(NODE_NAME, HOP_MPLS_LABEL, PATH_ID, false);
+        flowProgrammer.configureMacNextHopFlow(NODE_NAME, PATH_ID, PREV_HOP_MAC, NEXT_HOP_MAC);
+        flowProgrammer.configureMplsTransportEgressFlow(NODE_NAME, SFF_MAC, NEXT_HOP_MAC, NEXT_HOP_MPLS_LABEL,
+                RSP_PORT, PATH_ID);
+        flowProgrammer.flushFlows();
+        OfPipelineSimulator simulator = new OfPipelineSimulator();
+        simulator.load(flowWriter, Collections.singleton(NODE_NAME));
+
+        PipelineTrace trace = simulator.trace(NODE_NAME,
+                SimulatedPacket.mpls(HOP_MPLS_LABEL, PREV_HOP_MAC).setInPort(SCALE_PORT));
+
+        assertForwarded(trace);
+        assertEquals(Arrays.asList(SfcOfFlowProgrammerImpl.TABLE_INDEX_CLASSIFIER,
+                SfcOfFlowProgrammerImpl.TABLE_INDEX_TRANSPORT_INGRESS,
+                SfcOfFlowProgrammerImpl.TABLE_INDEX_PATH_MAPPER,
+                SfcOfFlowProgrammerImpl.TABLE_INDEX_NEXT_HOP,
+                SfcOfFlowProgrammerImpl.TABLE_INDEX_TRANSPORT_EGRESS), trace.getTables());
+        PipelineTrace.Output output = trace.getOutputs().get(0);
+        assertEquals(RSP_PORT, output.getPort());
+        assertEquals(Long.valueOf(NEXT_HOP_MPLS_LABEL), output.getPacket().get(Field.MPLS_LABEL));
+        assertEquals(Long.valueOf(SfcOpenflowUtils.ETHERTYPE_MPLS_UCAST), output.getPacket().get(Field.ETH_TYPE));
+        assertEquals(Long.valueOf(SimulatedPacket.macToLong(SFF_MAC)), output.getPacket().get(Field.ETH_SRC));
+        assertEquals(Long.valueOf(SimulatedPacket.macToLong(NEXT_HOP_MAC)), output.getPacket().get(Field.ETH_DST));
+    }
+
+    @Test
+    public void traceMacChainingServicePath() {
+        VirtualMacAddress pathMac = VirtualMacAddress.getForwardAddress(PATH_ID, 0);
+        String hopMac = pathMac.getHop((short) 255).getValue();
+        String nextHopMac = pathMac.getHop((short) 254).getValue();
+        try {
+            SfcOfFlowProgrammerImpl flowProgrammer = new SfcOfFlowProgrammerImpl(flowWriter);
+            programMatchAnyFlows(flowProgrammer, NODE_NAME);
+            flowProgrammer.setFlowRspId(PATH_ID);
+            flowProgrammer.configureMacChainingTransportIngressFlow(NODE_NAME);
+            // the previous service function swaps the MAC addresses
+            flowProgrammer.configureMacChainingNextHopFlow(NODE_NAME, hopMac, NEXT_HOP_MAC, nextHopMac, false);
+            flowProgrammer.configureMacChainingSfTransportEgressFlow(NODE_NAME, NEXT_HOP_MAC, RSP_PORT, null);
+            flowProgrammer.flushFlows();
+            OfPipelineSimulator simulator = new OfPipelineSimulator();
+            simulator.load(flowWriter, Collections.singleton(NODE_NAME));
+
+            PipelineTrace trace = simulator.trace(NODE_NAME,
+                    SimulatedPacket.macChaining(PREV_HOP_MAC, hopMac).setInPort(SCALE_PORT));
+
+            assertForwarded(trace);
+            assertEquals(Arrays.asList(SfcOfFlowProgrammerImpl.TABLE_INDEX_CLASSIFIER,
+                    SfcOfFlowProgrammerImpl.TABLE_INDEX_TRANSPORT_INGRESS,
+                    SfcOfFlowProgrammerImpl.TABLE_INDEX_PATH_MAPPER,
+                    SfcOfFlowProgrammerImpl.TABLE_INDEX_PATH_MAPPER_ACL,
+                    SfcOfFlowProgrammerImpl.TABLE_INDEX_NEXT_HOP,
+                    SfcOfFlowProgrammerImpl.TABLE_INDEX_TRANSPORT_EGRESS), trace.getTables());
+            PipelineTrace.Output output = trace.getOutputs().get(0);
+            assertEquals(RSP_PORT, output.getPort());
+            assertEquals(Long.valueOf(SimulatedPacket.macToLong(nextHopMac)), output.getPacket().get(Field.ETH_SRC));
+            assertEquals(Long.valueOf(SimulatedPacket.macToLong(NEXT_HOP_MAC)),
+                    output.getPacket().get(Field.ETH_DST));
+        } finally {
+            VirtualMacAddress.releaseChainIdFor(PATH_ID);
+        }
+    }
+
+    @Test
+    public void traceUnknownServicePath() {
+        SfcOfFlowProgrammerImpl flowProgrammer = new SfcOfFlowProgrammerImpl(flowWriter);
+        List<String> nodeNames = programScalePaths(flowProgrammer, 1);
+        OfPipelineSimulator simulator = new OfPipelineSimulator();
+        simulator.load(flowWriter, nodeNames);
+
+        PipelineTrace trace = simulator.trace(nodeNames.get(0), SimulatedPacket.nsh(SCALE_PATHS + 1, (short) 255)
+                .setInPort(SCALE_PORT));
+
+        assertFalse(trace.isForwarded());
+        assertTrue(trace.isDropped());
+        assertFalse(trace.isTableMiss());
+        assertEquals(Arrays.asList(SfcOfFlowProgrammerImpl.TABLE_INDEX_CLASSIFIER,
+                SfcOfFlowProgrammerImpl.TABLE_INDEX_TRANSPORT_INGRESS), trace.getTables());
+    }
+
+    @Test
+    public void traceScaledServicePaths() {
+        SfcOfFlowProgrammerImpl flowProgrammer = new SfcOfFlowProgrammerImpl(flowWriter);
+        List<String> nodeNames = programScalePaths(flowProgrammer, SCALE_PATHS);
+
+        long start = System.nanoTime();
+        OfPipelineSimulator simulator = new OfPipelineSimulator();
+        simulator.load(flowWriter, nodeNames);
+        long loaded = System.nanoTime();
+        for (long pathId = 1; pathId <= SCALE_PATHS; pathId++) {
+            for (int hop = 0; hop < SCALE_HOPS; hop++) {
+                short nsi = (short) (255 - hop);
+                PipelineTrace trace = simulator.trace(getScaleNodeName(nodeNames, pathId, hop),
+                        SimulatedPacket.nsh(pathId, nsi).setInPort(SCALE_PORT));
+
+                assertForwarded(trace);
+                assertEquals(Arrays.asList(SfcOfFlowProgrammerImpl.TABLE_INDEX_CLASSIFIER,
+                        SfcOfFlowProgrammerImpl.TABLE_INDEX_TRANSPORT_INGRESS,
+                        SfcOfFlowProgrammerImpl.TABLE_INDEX_NEXT_HOP,
+                        SfcOfFlowProgrammerImpl.TABLE_INDEX_TRANSPORT_EGRESS), trace.getTables());
+                PipelineTrace.Output output = trace.getOutputs().get(0);
+                assertEquals(SCALE_PORT, output.getPort());
+                assertEquals(Long.valueOf(SimulatedPacket.ipv4ToLong(getScaleSfIp(pathId, hop))),
+                        output.getPacket().get(Field.TUN_IPV4_DST));
+            }
+        }
+        long traced = System.nanoTime();
+
+        LOG.info("traceScaledServicePaths: loaded {} flows in {} ms, traced {} packets in {} ms",
+                simulator.getFlowCount(), (loaded - start) / 1000000, SCALE_PATHS * SCALE_HOPS,
+                (traced - loaded) / 1000000);
+        assertTrue("loading and tracing the paths took too long",
+                TimeUnit.NANOSECONDS.toMillis(traced - start) < SCALE_TIME_LIMIT_MILLIS);
+    }
+
+    // Program the NSH flows of service paths over a pool of switches, hop
+    // by hop as the RSP processor does, without building the paths
+    private List<String> programScalePaths(SfcOfFlowProgrammerImpl flowProgrammer, int paths) {
+        List<String> nodeNames = new ArrayList<>();
+        for (int switchIndex = 1; switchIndex <= SCALE_SWITCHES; switchIndex++) {
+            nodeNames.add("openflow:" + switchIndex);
+        }
+
+        nodeNames.forEach(nodeName -> programMatchAnyFlows(flowProgrammer, nodeName));
+
+        for (long pathId = 1; pathId <= paths; pathId++) {
+            flowProgrammer.setFlowRspId(pathId);
+            for (int hop = 0; hop < SCALE_HOPS; hop++) {
+                String nodeName = getScaleNodeName(nodeNames, pathId, hop);
+                short nsi = (short) (255 - hop);
+                flowProgrammer.configureNshVxgpeTransportIngressFlow(nodeName, pathId, nsi);
+                flowProgrammer.configureNshVxgpeNextHopFlow(nodeName, getScaleSfIp(pathId, hop), null, pathId, nsi);
+                flowProgrammer.configureNshVxgpeTransportEgressFlow(nodeName, pathId, nsi, SCALE_PORT);
+            }
+        }
+        flowProgrammer.flushFlows();
+        return nodeNames;
+    }
+
+    // Program the initialization flows of a switch, as the RSP processor does
+    private static void programMatchAnyFlows(SfcOfFlowProgrammerImpl flowProgrammer, String nodeName) {
+        flowProgrammer.setFlowRspId(OpenflowConstants.SFC_FLOWS);
+        flowProgrammer.configureClassifierTableMatchAny(nodeName);
+        flowProgrammer.configureTransportIngressTableMatchAny(nodeName);
+        flowProgrammer.configurePathMapperTableMatchAny(nodeName);
+        flowProgrammer.configurePathMapperAclTableMatchAny(nodeName);
+        flowProgrammer.configureNextHopTableMatchAny(nodeName);
+        flowProgrammer.configureTransportEgressTableMatchAny(nodeName);
+    }
+
+    private static String getScaleNodeName(List<String> nodeNames, long pathId, int hop) {
+        return nodeNames.get((int) ((pathId + hop) % nodeNames.size()));
+    }
+
+    private static String getScaleSfIp(long pathId, int hop) {
+        return "10." + hop + "." + (pathId >> 8 & 0xFF) + "." + (pathId & 0xFF);
+    }
+
+    private String getSfIp(RenderedServicePathHop hop, long pathId) {
+        ServiceFunction sf = sfcUtilsTestMock.getServiceFunction(hop.getServiceFunctionName(), pathId);
+        IpPortLocator locator = (IpPortLocator) sf.getSfDataPlaneLocator().get(0).getLocatorType();
+        return new String(locator.getIp().getValue());
+    }
+
+    private static void assertForwarded(PipelineTrace trace) {
+        assertTrue(trace.toString(), trace.isForwarded());
+        assertFalse(trace.toString(), trace.isDropped());
+        assertTrue(trace.toString(), trace.getUnsupported().isEmpty());
+        assertEquals(trace.toString(), 1, trace.getOutputs().size());
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer.simulator;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The result of tracing a packet through the flow tables of a switch: the
+ * flows hit, in order, and the packets sent out of the switch. A packet
+ * that is dropped, either explicitly or by a table miss, has no outputs.
+ */
+public class PipelineTrace {
+
+    /**
+     * A flow hit while tracing the packet.
+     */
+    public static class Step {
+        private final short tableId;
+        private final String flowId;
+        private final int priority;
+        private final BigInteger cookie;
+
+        Step(short tableId, String flowId, int priority, BigInteger cookie) {
+            this.tableId = tableId;
+            this.flowId = flowId;
+            this.priority = priority;
+            this.cookie = cookie;
+        }
+
+        public short getTableId() {
+            return tableId;
+        }
+
+        public String getFlowId() {
+            return flowId;
+        }
+
+        public int getPriority() {
+            return priority;
+        }
+
+        public BigInteger getCookie() {
+            return cookie;
+        }
+
+        @Override
+        public String toString() {
+            return "table=" + tableId + " flow=" + flowId + " priority=" + priority;
+        }
+    }
+
+    /**
+     * A packet sent out of the switch, with its headers as they were when the
+     * output action was applied.
+     */
+    public static class Output {
+        private final String port;
+        private final SimulatedPacket packet;
+
+        Output(String port, SimulatedPacket packet) {
+            this.port = port;
+            this.packet = packet;
+        }
+
+        public String getPort() {
+            return port;
+        }
+
+        public SimulatedPacket getPacket() {
+            return packet;
+        }
+
+        @Override
+        public String toString() {
+            return "output=" + port + " " + packet;
+        }
+    }
+
+    private final String nodeName;
+    private final List<Step> steps = new ArrayList<>();
+    private final List<Output> outputs = new ArrayList<>();
+    private final List<String> unsupported = new ArrayList<>();
+    private boolean dropped;
+    private boolean tableMiss;
+
+    PipelineTrace(String nodeName) {
+        this.nodeName = nodeName;
+    }
+
+    void addStep(Step step) {
+        steps.add(step);
+    }
+
+    void addOutput(Output output) {
+        outputs.add(output);
+    }
+
+    void addUnsupported(String description) {
+        unsupported.add(description);
+    }
+
+    void setDropped(boolean dropped) {
+        this.dropped = dropped;
+    }
+
+    void setTableMiss(boolean tableMiss) {
+        this.tableMiss = tableMiss;
+    }
+
+    public String getNodeName() {
+        return nodeName;
+    }
+
+    public List<Step> getSteps() {
+        return steps;
+    }
+
+    /**
+     * Get the tables the packet went through, in order.
+     *
+     * @return the table ids
+     */
+    public List<Short> getTables() {
+        return steps.stream().map(Step::getTableId).collect(Collectors.toList());
+    }
+
+    public List<Output> getOutputs() {
+        return outputs;
+    }
+
+    /**
+     * Check if the packet was sent out of the switch. Packets sent to the
+     * controller or to the NORMAL pipeline count as sent.
+     *
+     * @return true if there is at least one output
+     */
+    public boolean isForwarded() {
+        return !outputs.isEmpty();
+    }
+
+    public boolean isDropped() {
+        return dropped;
+    }
+
+    /**
+     * Check if the packet did not match any flow of a table it was sent to.
+     *
+     * @return true on a table miss
+     */
+    public boolean isTableMiss() {
+        return tableMiss;
+    }
+
+    /**
+     * Get the actions and instructions found on the way that the simulator
+     * does not model. They were skipped, so the trace may differ from what a
+     * switch would do.
+     *
+     * @return the description of the skipped actions and instructions
+     */
+    public List<String> getUnsupported() {
+        return unsupported;
+    }
+
+    @Override
+    public String toString() {
+        return "PipelineTrace [node=" + nodeName + ", steps=" + steps + ", outputs=" + outputs + ", dropped="
+                + dropped + ", tableMiss=" + tableMiss + ", unsupported=" + unsupported + "]";
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer.simulator;
+
+import com.google.common.net.InetAddresses;
+import java.util.EnumMap;
+import java.util.Map;
+import org.opendaylight.sfc.util.openflow.SfcOpenflowUtils;
+
+/**
+ * Header fields of a packet traced through the {@link OfPipelineSimulator}.
+ * Only the fields matched or modified by the SFC flows are modelled, all of
+ * them as unsigned values held in a long: MAC and IPv4 addresses are stored
+ * in their numeric form. A field that is not set is absent, which is not the
+ * same as being zero: a flow matching on a field never matches a packet
+ * without it.
+ */
+public class SimulatedPacket {
+
+    public enum Field {
+        ETH_TYPE, ETH_SRC, ETH_DST, VLAN_ID, MPLS_LABEL, IP_PROTOCOL, IPV4_SRC, IPV4_DST, METADATA,
+        NSP, NSI, NSC1, NSC2, NSC3, NSC4, NSH_MDTYPE, NSH_NP, TUN_ID, TUN_IPV4_DST, TUN_GPE_NP,
+        ENCAP_ETH_TYPE, ENCAP_ETH_SRC, ENCAP_ETH_DST, REG0, ARP_OP, ARP_SHA, ARP_THA, ARP_SPA, ARP_TPA
+    }
+
+    private final Map<Field, Long> fields;
+    private String inPort;
+
+    public SimulatedPacket() {
+        fields = new EnumMap<>(Field.class);
+    }
+
+    public SimulatedPacket(SimulatedPacket packet) {
+        fields = new EnumMap<>(packet.fields);
+        inPort = packet.inPort;
+    }
+
+    /**
+     * Create a packet of a service path in the NSH encapsulation, as sent by
+     * a classifier or a service function.
+     *
+     * @param nsp
+     *            the NSH service path
+     * @param nsi
+     *            the NSH service index
+     * @return the packet
+     */
+    public static SimulatedPacket nsh(long nsp, short nsi) {
+        return new SimulatedPacket().set(Field.NSP, nsp).set(Field.NSI, nsi);
+    }
+
+    /**
+     * Create a packet of a service path in the VLAN transport, as sent by the
+     * previous hop.
+     *
+     * @param vlanId
+     *            the VLAN id of the hop
+     * @param srcMac
+     *            the MAC address of the previous hop
+     * @return the packet
+     */
+    public static SimulatedPacket vlan(int vlanId, String srcMac) {
+        return new SimulatedPacket().set(Field.VLAN_ID, vlanId).setMac(Field.ETH_SRC, srcMac);
+    }
+
+    /**
+     * Create a packet of a service path in the MPLS transport, as sent by the
+     * previous hop.
+     *
+     * @param mplsLabel
+     *            the MPLS label of the hop
+     * @param srcMac
+     *            the MAC address of the previous hop
+     * @return the packet
+     */
+    public static SimulatedPacket mpls(long mplsLabel, String srcMac) {
+        return new SimulatedPacket().set(Field.ETH_TYPE, SfcOpenflowUtils.ETHERTYPE_MPLS_UCAST)
+                .set(Field.MPLS_LABEL, mplsLabel).setMac(Field.ETH_SRC, srcMac);
+    }
+
+    /**
+     * Create a packet of a service path in the MAC chaining encapsulation, as
+     * sent by a service function.
+     *
+     * @param srcMac
+     *            the source MAC address
+     * @param dstMac
+     *            the destination MAC address, the virtual MAC address of the
+     *            hop for a service function swapping the MAC addresses
+     * @return the packet
+     */
+    public static SimulatedPacket macChaining(String srcMac, String dstMac) {
+        return new SimulatedPacket().setMac(Field.ETH_SRC, srcMac).setMac(Field.ETH_DST, dstMac);
+    }
+
+    public String getInPort() {
+        return inPort;
+    }
+
+    /**
+     * Set the port the packet is received on. Port names of the form
+     * "openflow:1:2" or "output:2" are reduced to the port number.
+     *
+     * @param port
+     *            the port
+     * @return this packet
+     */
+    public SimulatedPacket setInPort(String port) {
+        inPort = normalizePort(port);
+        return this;
+    }
+
+    public boolean has(Field field) {
+        return fields.containsKey(field);
+    }
+
+    public Long get(Field field) {
+        return fields.get(field);
+    }
+
+    public SimulatedPacket set(Field field, long value) {
+        fields.put(field, value);
+        return this;
+    }
+
+    public SimulatedPacket setMac(Field field, String mac) {
+        return set(field, macToLong(mac));
+    }
+
+    public SimulatedPacket setIpv4(Field field, String ip) {
+        return set(field, ipv4ToLong(ip));
+    }
+
+    public SimulatedPacket remove(Field field) {
+        fields.remove(field);
+        return this;
+    }
+
+    public static long macToLong(String mac) {
+        return Long.parseLong(mac.replace(":", ""), 16);
+    }
+
+    public static long ipv4ToLong(String ip) {
+        return InetAddresses.coerceToInteger(InetAddresses.forString(ip)) & 0xFFFFFFFFL;
+    }
+
+    static String normalizePort(String port) {
+        if (port == null) {
+            return null;
+        }
+        int separator = port.lastIndexOf(':');
+        return separator < 0 ? port : port.substring(separator + 1);
+    }
+
+    @Override
+    public String toString() {
+        return "SimulatedPacket [inPort=" + inPort + ", fields=" + fields + "]";
+    }
+}
@@ -13,8 +13,8 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
-import org.opendaylight.genius.datastoreutils.listeners.AbstractSyncDataTreeChangeListener;
 import org.opendaylight.sfc.pot.netconf.renderer.provider.SfcPotNetconfIoam;
+import org.opendaylight.sfc.provider.listeners.AbstractKeyedAsyncDataTreeChangeListener;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.RenderedServicePaths;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
@@ -29,7 +29,7 @@ import org.slf4j.LoggerFactory;
  * @version 0.1
  */
 @Singleton
-public class SfcPotNetconfRSPListener extends AbstractSyncDataTreeChangeListener<RenderedServicePath> {
+public class SfcPotNetconfRSPListener extends AbstractKeyedAsyncDataTreeChangeListener<RenderedServicePath> {
 
     private static final Logger LOG = LoggerFactory.getLogger(SfcPotNetconfRSPListener.class);
 
@@ -37,8 +37,9 @@ public class SfcPotNetconfRSPListener extends AbstractSyncDataTreeChangeListener
 
     @Inject
     public SfcPotNetconfRSPListener(DataBroker dataBroker, SfcPotNetconfIoam sfcPotNetconfIoam) {
+        // single lane: the PoT polynomial API keeps the RSP being configured in its state
         super(dataBroker, LogicalDatastoreType.OPERATIONAL,
-              InstanceIdentifier.builder(RenderedServicePaths.class).child(RenderedServicePath.class).build());
+              InstanceIdentifier.builder(RenderedServicePaths.class).child(RenderedServicePath.class).build(), 1);
         this.sfcPotNetconfIoam = sfcPotNetconfIoam;
     }
 
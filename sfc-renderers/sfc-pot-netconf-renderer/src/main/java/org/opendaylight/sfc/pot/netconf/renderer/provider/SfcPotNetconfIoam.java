@@ -11,10 +11,10 @@ package org.opendaylight.sfc.pot.netconf.renderer.provider;
 import io.netty.util.Timeout;
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -98,7 +98,7 @@ public class SfcPotNetconfIoam {
     @Inject
     public SfcPotNetconfIoam(SfcPotNetconfNodeManager sfcPotNetconfNodeManager) {
         this.nodeManager = sfcPotNetconfNodeManager;
-        this.pathConfig = new HashMap<>();
+        this.pathConfig = new ConcurrentHashMap<>();
     }
 
     /* Utility functions */
@@ -510,7 +510,7 @@ public class SfcPotNetconfIoam {
      * PoT deletion configurations to the nodes.
      */
     public void deleteRsp(RenderedServicePath rsp) {
-        HashSet<Config> configHash = pathConfig.get(rsp.getName().getValue());
+        HashSet<Config> configHash = pathConfig.remove(rsp.getName().getValue());
         SfcPotTimerData potTimerData = SfcPotTimerData.getInstance();
 
         /* Disable timers */
@@ -523,7 +523,6 @@ public class SfcPotNetconfIoam {
                 LOG.debug("iOAM:PoT:SB:Cleaning up for node:{}", cfg.nodeId);
                 SfcPotNetconfReaderWriterAPI.delete(cfg.broker, LogicalDatastoreType.CONFIGURATION, cfg.iid);
             }
-            pathConfig.remove(rsp.getName().getValue());
         }
     }
 }
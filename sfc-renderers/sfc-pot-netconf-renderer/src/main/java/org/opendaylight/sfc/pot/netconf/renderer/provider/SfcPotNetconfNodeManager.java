@@ -8,8 +8,8 @@
 
 package org.opendaylight.sfc.pot.netconf.renderer.provider;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -53,8 +53,8 @@ public class SfcPotNetconfNodeManager implements BindingAwareProvider {
     private MountPointService mountService;
     private final TopologyId topologyId = new TopologyId("topology-netconf");
 
-    private final Map<NodeId, Node> connectedNodes = new HashMap<>();
-    private final Map<NodeId, DataBroker> activeMountPoints = new HashMap<>();
+    private final Map<NodeId, Node> connectedNodes = new ConcurrentHashMap<>();
+    private final Map<NodeId, DataBroker> activeMountPoints = new ConcurrentHashMap<>();
 
     @Inject
     public SfcPotNetconfNodeManager(BindingAwareBroker bindingAwareBroker) {
@@ -64,7 +64,7 @@ public class SfcPotNetconfNodeManager implements BindingAwareProvider {
     }
 
     /* Add Node information to local datastore, after checks. */
-    public void updateNode(Node node) {
+    public synchronized void updateNode(Node node) {
         NetconfNode netconfNode = node.getAugmentation(NetconfNode.class);
 
         /* Check connection status */
@@ -88,7 +88,7 @@ public class SfcPotNetconfNodeManager implements BindingAwareProvider {
     }
 
     /* Removes node from local datastore. */
-    public void removeNode(Node node) {
+    public synchronized void removeNode(Node node) {
         NetconfNode netconfNode = node.getAugmentation(NetconfNode.class);
         if (netconfNode == null) {
             LOG.warn("iOAM:PoT:SB: Netconf node is invalid.");
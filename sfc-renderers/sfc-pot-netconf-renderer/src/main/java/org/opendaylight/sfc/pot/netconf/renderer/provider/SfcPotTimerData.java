@@ -9,8 +9,8 @@
 package org.opendaylight.sfc.pot.netconf.renderer.provider;
 
 import io.netty.util.Timeout;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.nb.pot.rev161122.TimeResolution;
 
@@ -46,7 +46,7 @@ public final class SfcPotTimerData {
     private final Map<String, SfcPotRspInfo> potRspInfoStore;
 
     private SfcPotTimerData() {
-        potRspInfoStore = new HashMap<>();
+        potRspInfoStore = new ConcurrentHashMap<>();
     }
 
     public static SfcPotTimerData getInstance() {
@@ -337,7 +337,8 @@ public class SfcPotNetconfRspProcessorTest extends AbstractDataBrokerTest {
                 .setSymmetric(true);
         CreateRenderedPathInput createRenderedPathInput = createRenderedPathInputBuilder.build();
 
-        SfcProviderRenderedPathAPI.createRenderedServicePathAndState(serviceFunctionPath, createRenderedPathInput);
+        SfcProviderRenderedPathAPI.createRenderedServicePathsAndState(serviceFunctionPath, createRenderedPathInput,
+                null);
 
         // Note: Intermediate checks skipped
         ServiceFunctionClassifierBuilder serviceFunctionClassifierBuilder = new ServiceFunctionClassifierBuilder();
@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2017 Ericsson S.A. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.sfc.shell;
+
+import org.apache.karaf.shell.api.action.Command;
+import org.apache.karaf.shell.api.action.Option;
+import org.apache.karaf.shell.api.action.lifecycle.Service;
+import org.apache.karaf.shell.support.table.Col;
+import org.apache.karaf.shell.support.table.ShellTable;
+import org.opendaylight.sfc.provider.perf.RspStageLatency;
+import org.opendaylight.sfc.provider.perf.SfcRspLatencyTracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Karaf CLI command to show the latency of each stage of the Rendered Service
+ * Path life cycle, from its creation until its flows are committed.
+ */
+@Service
+@Command(scope = "sfc", name = "perf", description = "Show the Rendered Service Path life cycle latency per stage")
+public class RspPerfCommand extends AbstractCommand {
+
+    @Option(name = "-reset", aliases = {"--reset"}, description = "Clear the latencies after showing them", required =
+            false, multiValued = false)
+    private boolean reset;
+
+    private final ShellTable table;
+
+    private static final Logger LOG = LoggerFactory.getLogger(RspPerfCommand.class);
+
+    public RspPerfCommand() {
+        table = new ShellTable();
+        table.column(new Col("Stage"));
+        table.column(new Col("Count"));
+        table.column(new Col("p50 (us)"));
+        table.column(new Col("p99 (us)"));
+        table.column(new Col("p999 (us)"));
+        table.column(new Col("Max (us)"));
+    }
+
+    @Override
+    public Object execute() throws Exception {
+        if (!SfcRspLatencyTracer.isEnabled()) {
+            getConsole().println("RSP latency tracing is disabled");
+        }
+        for (RspStageLatency latency : SfcRspLatencyTracer.getStageLatencies()) {
+            LOG.debug("RSP stage latency: {}", latency);
+            table.addRow().addContent(latency.getStage(), latency.getCount(), latency.getP50(), latency.getP99(),
+                                      latency.getP999(), latency.getMax());
+        }
+        table.print(getConsole());
+        if (reset) {
+            SfcRspLatencyTracer.reset();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.util.macchaining;
+
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A pool of chain ids, each of them reserved for a chain identified by an
+ * {@link UUID}.
+ *
+ * <p>
+ * The pool has no global lock: the ids in use are kept in a bitset of atomic
+ * words, reserved and released by compare-and-set, and the chains are mapped
+ * to their ids in a concurrent map, read without locking once the chain has
+ * an id. Each chain has a preferred id, and gets the first free id from it
+ * on, so that the same chains reserved in the same order get the same ids
+ * every time the pool is built.
+ */
+public final class ChainIdPool {
+
+    private static final int WORD_BITS = Long.SIZE;
+
+    private final int capacity;
+    private final AtomicLongArray inUse;
+    private final ConcurrentMap<UUID, Integer> chainIds = new ConcurrentHashMap<>();
+
+    public ChainIdPool(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid capacity %d", capacity));
+        }
+        this.capacity = capacity;
+        this.inUse = new AtomicLongArray((capacity + WORD_BITS - 1) / WORD_BITS);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return chainIds.size();
+    }
+
+    /**
+     * Get the id of a chain, reserving one if the chain has none yet.
+     *
+     * @param uuid
+     *            the chain
+     * @param preferredId
+     *            the id to reserve if free, taken modulo the capacity; the
+     *            next free one otherwise
+     * @return the id of the chain
+     * @throws NoSuchElementException
+     *             if all the ids are in use
+     */
+    public int getChainIdFor(UUID uuid, long preferredId) {
+        Integer id = chainIds.get(uuid);
+        if (id != null) {
+            return id;
+        }
+        // only a chain without id yet locks its own bin of the map, so that
+        // an id is never reserved for a chain that already got one
+        return chainIds.computeIfAbsent(uuid,
+            key -> reserveId((int) Math.floorMod(preferredId, (long) capacity)));
+    }
+
+    /**
+     * Get the id of a chain, without reserving one if the chain has none.
+     *
+     * @param uuid
+     *            the chain
+     * @return the id of the chain, null if it has none
+     */
+    public Integer peekChainIdFor(UUID uuid) {
+        return chainIds.get(uuid);
+    }
+
+    /**
+     * Release the id of a chain.
+     *
+     * @param uuid
+     *            the chain
+     * @return true if the chain had an id
+     */
+    public boolean release(UUID uuid) {
+        Integer id = chainIds.remove(uuid);
+        if (id == null) {
+            return false;
+        }
+        releaseId(id);
+        return true;
+    }
+
+    /**
+     * Release an id, and forget the chain it was reserved for.
+     *
+     * @param id
+     *            the id
+     * @throws IllegalArgumentException
+     *             if the id is not reserved
+     */
+    public void releaseChainId(int id) {
+        if (id < 0 || id >= capacity) {
+            throw new IllegalArgumentException(String.format("Id must be in between 0 and %d", capacity));
+        }
+        chainIds.values().remove(id);
+        releaseId(id);
+    }
+
+    private int reserveId(int preferredId) {
+        int words = inUse.length();
+        int startWord = preferredId / WORD_BITS;
+        long startBits = -1L << preferredId % WORD_BITS;
+        // the word of the preferred id is visited twice: from the preferred
+        // id on first, and below it once all the other words are full
+        for (int i = 0; i <= words; i++) {
+            int word = (startWord + i) % words;
+            long mask = getValidBits(word);
+            if (i == 0) {
+                mask &= startBits;
+            } else if (i == words) {
+                mask &= ~startBits;
+            }
+            long bits = inUse.get(word);
+            long free = ~bits & mask;
+            while (free != 0) {
+                long bit = Long.lowestOneBit(free);
+                if (inUse.compareAndSet(word, bits, bits | bit)) {
+                    return word * WORD_BITS + Long.numberOfTrailingZeros(bit);
+                }
+                bits = inUse.get(word);
+                free = ~bits & mask;
+            }
+        }
+        throw new NoSuchElementException("No more ids available (are you calling release()?)");
+    }
+
+    private void releaseId(int id) {
+        int word = id / WORD_BITS;
+        long bit = 1L << id % WORD_BITS;
+        long bits;
+        do {
+            bits = inUse.get(word);
+            if ((bits & bit) == 0) {
+                throw new IllegalArgumentException(String.format("Id %d was not previously reserved", id));
+            }
+        } while (!inUse.compareAndSet(word, bits, bits & ~bit));
+    }
+
+    private long getValidBits(int word) {
+        int remaining = capacity - word * WORD_BITS;
+        return remaining >= WORD_BITS ? -1L : (1L << remaining) - 1;
+    }
+}
@@ -9,11 +9,7 @@
 package org.opendaylight.sfc.util.macchaining;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import java.util.Deque;
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.Map;
-import java.util.NoSuchElementException;
+import java.util.Collection;
 import java.util.UUID;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.yang.types.rev130715.MacAddress;
 
@@ -22,14 +18,19 @@ import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.yang.types.
      +-----------------+----+----+------+-----+------+
      |       OUI       | R  | B  | PORT | CID | SFID |
      +-----------------+----+----+------+-----+------+
+
+    The lengths of the PORT and CID fields can be changed with the
+    org.opendaylight.sfc.macchaining.port-length and
+    org.opendaylight.sfc.macchaining.cid-length system properties, to fit more
+    chains at the expense of the ports or of the SFs per chain.
 */
 public final class VirtualMacAddress {
 
     // Configuration values
     private static final long BASE_OUI = 0xF00000000000L;
     private static final int FLAGS_LEN = 2;
-    private static final int PORT_LEN = 6;
-    private static final int CID_LEN = 8;
+    private static final int PORT_LEN = Integer.getInteger("org.opendaylight.sfc.macchaining.port-length", 6);
+    private static final int CID_LEN = Integer.getInteger("org.opendaylight.sfc.macchaining.cid-length", 8);
     private static final int MAC_OUI_SIZE = 24;
 
 
@@ -38,18 +39,12 @@ public final class VirtualMacAddress {
     private static final int MAX_PORT;
     private static final int MAX_CID;
 
-    private static final Map<UUID, Integer> MAPPING;
-
-    private static final Object LOCKER = new Object();
-    private static final Deque<Integer> POOL;
-    private static final boolean[] IN_USE;
+    private static final ChainIdPool POOL;
 
     static {
-        MAPPING = new HashMap<>();
-
         int bitsUsed = PORT_LEN + CID_LEN + FLAGS_LEN;
         int bitsRemaining = MAC_OUI_SIZE - bitsUsed;
-        if (bitsRemaining <= 1) {
+        if (PORT_LEN < 0 || CID_LEN <= 0 || bitsRemaining <= 1) {
             throw new IllegalArgumentException(String.format(
                     "The sum of PORT_LEN and CID_LEN must be lower than %d",
                     MAC_OUI_SIZE - FLAGS_LEN
@@ -58,53 +53,43 @@ public final class VirtualMacAddress {
 
         SFID_LEN = bitsRemaining;
 
-
-        // TODO: Load database information and exclude the IDs already used
         MAX_CID = (int) Math.pow(2, CID_LEN);
-        IN_USE = new boolean[MAX_CID];
-        POOL = new LinkedList<>();
-        for (int i = 0; i < MAX_CID; i++) {
-            POOL.add(i);
-        }
+        POOL = new ChainIdPool(MAX_CID);
 
         MAX_FLAGS = (int) Math.pow(2, FLAGS_LEN);
         MAX_PORT = (int) Math.pow(2, PORT_LEN);
     }
 
-    private static int reserveId() {
-        synchronized (LOCKER) {
-            if (POOL.isEmpty()) {
-                throw new NoSuchElementException("No more ids available (are you calling release()?)");
-            }
-            int id = POOL.pop();
-            IN_USE[id] = true;
-            return id;
-        }
+    public static int getChainIdFor(UUID uuid) {
+        // the preferred chain id is derived from the chain, so that a chain
+        // that did not collide with another one gets the same id again
+        return POOL.getChainIdFor(uuid, uuid.getLeastSignificantBits());
     }
 
-    private static void releaseId(int id) {
-        synchronized (LOCKER) {
-            if (id < 0 || id >= MAX_CID) {
-                throw new IllegalArgumentException(String.format("Id must be in between 0 and %d", MAX_CID));
-            }
-            if (!IN_USE[id]) {
-                throw new IllegalArgumentException(String.format("Id %d was not previously reserved", id));
-            }
-            IN_USE[id] = false;
-            POOL.push(id);
-        }
+    /**
+     * Reserve the chain ids of existing chains, as needed on start-up before
+     * any new chain takes the preferred ids of the existing ones. The chains
+     * are given their ids in ascending order. The ids are not persisted: a
+     * chain gets the id it had before only if it had its preferred id, or if
+     * it collided the same way, so a chain that took another id at runtime
+     * may get a different one, and its flows are rendered with the new id.
+     *
+     * @param uuids
+     *            the path ids of the chains
+     */
+    public static void reserveChainIds(Collection<Long> uuids) {
+        uuids.stream().sorted().distinct().forEach(uuid -> getChainIdFor(new UUID(0, uuid)));
     }
 
-    public static int getChainIdFor(UUID uuid) {
-        synchronized (MAPPING) {
-            Integer id = MAPPING.get(uuid);
-            if (id == null) {
-                id = reserveId();
-                MAPPING.put(uuid, id);
-            }
-
-            return id;
-        }
+    /**
+     * Release the chain id of a chain.
+     *
+     * @param uuid
+     *            the path id of the chain
+     * @return true if the chain had an id
+     */
+    public static boolean releaseChainIdFor(long uuid) {
+        return POOL.release(new UUID(0, uuid));
     }
 
     public static VirtualMacAddress getForwardAddress(long uuid, long port) {
@@ -112,6 +97,22 @@ public final class VirtualMacAddress {
         return new VirtualMacAddress(BI_FORWARD, port, getChainIdFor(id));
     }
 
+    /**
+     * Get the forward address of a chain only if the chain already has an id,
+     * so that a chain id is never reserved before the existing chains get
+     * theirs on start-up.
+     *
+     * @param uuid
+     *            the path id of the chain
+     * @param port
+     *            the port
+     * @return the forward address, null if the chain has no id
+     */
+    public static VirtualMacAddress peekForwardAddress(long uuid, long port) {
+        Integer chainId = POOL.peekChainIdFor(new UUID(0, uuid));
+        return chainId == null ? null : new VirtualMacAddress(BI_FORWARD, port, chainId);
+    }
+
     public static VirtualMacAddress getBackwardAddress(long uuid, long port) {
         UUID id = new UUID(0, uuid);
         return new VirtualMacAddress(BI_BACKWARD, port, getChainIdFor(id));
@@ -176,7 +177,7 @@ public final class VirtualMacAddress {
     }
 
     public void release() {
-        releaseId(chainId);
+        POOL.releaseChainId(chainId);
     }
 
     //TODO: not tested yet
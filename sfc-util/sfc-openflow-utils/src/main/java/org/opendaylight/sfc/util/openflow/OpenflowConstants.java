@@ -22,6 +22,22 @@ public final class OpenflowConstants {
 
     public static final short NSH_NP_ETH = 0x3;
 
+    // Cookie of the flows of a rendered service path: bits 63-40 hold the SFC
+    // cookie marker, bits 39-16 the path ID of the RSP and bits 15-0 the flow
+    // type. All the flows of an RSP can be matched with the RSP cookie mask.
+    // The marker differs from the legacy transport egress cookie base
+    // "BA5EBA11", whose cookies carry no path ID
+    public static final long SFC_COOKIE_MARKER = 0x5FC5FCL;
+    public static final long SFC_LEGACY_COOKIE_BASE = 0xBA5EBA11L;
+    public static final int SFC_LEGACY_COOKIE_BASE_SHIFT = 32;
+    public static final int SFC_COOKIE_MARKER_SHIFT = 40;
+    public static final int SFC_COOKIE_PATH_ID_SHIFT = 16;
+    public static final long SFC_COOKIE_PATH_ID_MASK = 0xFFFFFFL;
+    public static final long SFC_COOKIE_FLOW_TYPE_MASK = 0xFFFFL;
+
+    // Table ID matching all the tables of a switch
+    public static final short OFPTT_ALL = 0xFF;
+
     private OpenflowConstants() {
     }
 }
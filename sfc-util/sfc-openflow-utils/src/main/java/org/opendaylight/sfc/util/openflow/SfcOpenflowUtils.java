@@ -239,6 +239,94 @@ public final class SfcOpenflowUtils {
         return createFlowBuilder(table, priority, new BigInteger("20", COOKIE_BIGINT_INT_RADIX), flowName, match, isb);
     }
 
+    //
+    // Rendered service path cookie methods
+    //
+
+    /**
+     * Create the cookie of a flow of a rendered service path.
+     *
+     * @param pathId
+     *            - the path ID of the RSP, only its 24 lower bits are encoded
+     * @param flowType
+     *            - the flow type, only its 16 lower bits are encoded
+     * @return the cookie, made of the SFC cookie marker, the path ID and the
+     *         flow type
+     */
+    public static BigInteger createRspCookie(final long pathId, final long flowType) {
+        return toUnsignedBigInteger(OpenflowConstants.SFC_COOKIE_MARKER << OpenflowConstants.SFC_COOKIE_MARKER_SHIFT
+                | (pathId & OpenflowConstants.SFC_COOKIE_PATH_ID_MASK) << OpenflowConstants.SFC_COOKIE_PATH_ID_SHIFT
+                | (flowType & OpenflowConstants.SFC_COOKIE_FLOW_TYPE_MASK));
+    }
+
+    /**
+     * Get the cookie mask matching all the flows of a rendered service path,
+     * whatever their flow type.
+     *
+     * @return the cookie mask covering the SFC cookie marker and the path ID
+     */
+    public static BigInteger getRspCookieMask() {
+        return toUnsignedBigInteger(-1L << OpenflowConstants.SFC_COOKIE_PATH_ID_SHIFT);
+    }
+
+    /**
+     * Check if a cookie was written by SFC, either for a rendered service path
+     * or with the legacy transport egress cookie base.
+     *
+     * @param cookie
+     *            - the cookie to check
+     * @return true if the cookie was written by SFC, false otherwise
+     */
+    public static boolean isSfcCookie(final BigInteger cookie) {
+        return isRspCookie(cookie)
+                || cookie != null
+                && cookie.shiftRight(OpenflowConstants.SFC_LEGACY_COOKIE_BASE_SHIFT).longValue()
+                    == OpenflowConstants.SFC_LEGACY_COOKIE_BASE;
+    }
+
+    /**
+     * Check if a cookie carries the SFC cookie marker, and thus the path ID of
+     * a rendered service path.
+     *
+     * @param cookie
+     *            - the cookie to check
+     * @return true if the cookie was created with
+     *         {@link #createRspCookie(long, long)}, false otherwise
+     */
+    public static boolean isRspCookie(final BigInteger cookie) {
+        return cookie != null
+                && cookie.shiftRight(OpenflowConstants.SFC_COOKIE_MARKER_SHIFT).longValue()
+                    == OpenflowConstants.SFC_COOKIE_MARKER;
+    }
+
+    /**
+     * Get the path ID of the rendered service path encoded in a cookie.
+     *
+     * @param cookie
+     *            - a cookie created with {@link #createRspCookie(long, long)}
+     * @return the path ID of the RSP
+     */
+    public static long getRspCookiePathId(final BigInteger cookie) {
+        return (cookie.longValue() >>> OpenflowConstants.SFC_COOKIE_PATH_ID_SHIFT)
+                & OpenflowConstants.SFC_COOKIE_PATH_ID_MASK;
+    }
+
+    /**
+     * Get the flow type encoded in a cookie.
+     *
+     * @param cookie
+     *            - a cookie created with {@link #createRspCookie(long, long)}
+     * @return the flow type
+     */
+    public static long getRspCookieFlowType(final BigInteger cookie) {
+        return cookie.longValue() & OpenflowConstants.SFC_COOKIE_FLOW_TYPE_MASK;
+    }
+
+    private static BigInteger toUnsignedBigInteger(final long value) {
+        BigInteger bigValue = BigInteger.valueOf(value);
+        return value < 0 ? bigValue.add(BigInteger.ONE.shiftLeft(Long.SIZE)) : bigValue;
+    }
+
     //
     // Add Match methods
     //
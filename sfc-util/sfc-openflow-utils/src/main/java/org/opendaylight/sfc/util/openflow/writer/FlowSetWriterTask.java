@@ -15,6 +15,8 @@ import java.util.concurrent.ExecutionException;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.provider.perf.RspLifecycleStage;
+import org.opendaylight.sfc.provider.perf.SfcRspLatencyTracer;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.Table;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
@@ -68,6 +70,8 @@ public class FlowSetWriterTask implements Runnable {
 
         try {
             submitFuture.get();
+            flowsToWrite.stream().mapToLong(FlowDetails::getRspId).distinct()
+                    .forEach(rspId -> SfcRspLatencyTracer.markStage(rspId, RspLifecycleStage.FLOW_COMMIT));
         } catch (ExecutionException | InterruptedException e) {
             LOG.error("deleteTransactionAPI: Transaction failed. Message: {}", e.getMessage(), e);
         }
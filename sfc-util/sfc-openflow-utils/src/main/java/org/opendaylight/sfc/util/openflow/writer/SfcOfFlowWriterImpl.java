@@ -8,15 +8,21 @@
 
 package org.opendaylight.sfc.util.openflow.writer;
 
+import com.google.common.base.Optional;
+import com.google.common.collect.Lists;
 import com.google.common.eventbus.EventBus;
+import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -25,18 +31,28 @@ import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
 import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
 import org.opendaylight.sfc.util.openflow.OpenflowConstants;
+import org.opendaylight.sfc.util.openflow.SfcOpenflowUtils;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.Table;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.TableKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.RemoveFlowInputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.SalFlowService;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.FlowCookie;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.flow.MatchBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.Group;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.GroupBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.GroupKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeRef;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
@@ -57,6 +73,8 @@ import org.slf4j.LoggerFactory;
 
 public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
     private static final long SHUTDOWN_TIME = 5;
+    private static final int FLOWS_BATCH_TRANSACTION_SIZE = 5000;
+    private static final int FLOWS_BATCH_THREADS = 8;
     private static final String LOGSTR_THREAD_EXCEPTION = "Exception executing Thread: {}";
     private static final Logger LOG = LoggerFactory.getLogger(SfcOfFlowWriterImpl.class);
 
@@ -68,12 +86,21 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
     // indexed by the corresponding SFFs
     private final Map<Long, Map<String, List<FlowDetails>>> rspNameToFlowsMap;
 
+    // Flows that were installed for a rendered service path before an update
+    // of that path started, indexed by the corresponding SFFs. They are used
+    // to skip rewriting unchanged flows and to remove the stale ones once the
+    // update is finished
+    private final Map<Long, Map<String, List<FlowDetails>>> rspFlowsBeforeUpdateMap;
+
     // temporary list of flows to be deleted. All of them will be deleted when
     // deleteFlowSet() is called
     private final Set<FlowDetails> setOfFlowsToDelete;
     // temporary list of flows to be added. All of them will be deleted when
     // flushFlows() is called
     private final Set<FlowDetails> setOfFlowsToAdd;
+    // flows flushed while a batch is in progress, to be written when the
+    // batch is flushed; null if no batch is in progress
+    private Set<FlowDetails> batchedFlows;
 
     private DataBroker dataProvider;
 
@@ -81,12 +108,31 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
 
     private final EventBus eventBus;
 
+    // Groups written to each SFF, kept so they can be written again when this
+    // instance takes over the ownership of the SFF
+    private final Map<String, Map<GroupKey, Group>> sffGroupsMap;
+
+    // The switches whose flows are written by this instance; all of them if
+    // not set
+    private SfcOfNodeOwnership nodeOwnership;
+
+    // SFFs no longer featured in any RSP, released from the node ownership
+    // once their flows are deleted
+    private final Set<String> orphanSffNodeNames;
+
+    // Removes the flows of the rendered service paths from the switches by
+    // cookie; the flows are removed one by one if not set
+    private SalFlowService flowService;
+
     public SfcOfFlowWriterImpl() {
         this.threadPoolExecutorService = Executors.newSingleThreadExecutor();
         this.rspNameToFlowsMap = new ConcurrentHashMap<>();
+        this.rspFlowsBeforeUpdateMap = new ConcurrentHashMap<>();
         this.flowBuilder = null;
         this.setOfFlowsToDelete = new HashSet<>();
         this.setOfFlowsToAdd = new HashSet<>();
+        this.sffGroupsMap = new ConcurrentHashMap<>();
+        this.orphanSffNodeNames = ConcurrentHashMap.newKeySet();
         eventBus = new EventBus();
     }
 
@@ -100,6 +146,104 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
         dataProvider = dataBroker;
     }
 
+    /**
+     * Set the switches whose flows are written by this instance. The flows
+     * of the other switches are still calculated and stored, so that they
+     * can be written by {@link #restoreNodeFlows(String)} if this instance
+     * takes over their ownership.
+     *
+     * @param theNodeOwnership
+     *            - the ownership of the switches
+     */
+    public void setNodeOwnership(SfcOfNodeOwnership theNodeOwnership) {
+        nodeOwnership = theNodeOwnership;
+    }
+
+    /**
+     * Set the service used to remove all the flows of a rendered service path
+     * from a switch at once, matching them by the path ID encoded in their
+     * cookie. Only the flows written with cookies created by
+     * {@link SfcOpenflowUtils#createRspCookie(long, long)} can be removed this
+     * way.
+     *
+     * @param theFlowService
+     *            - the flow service of the switches
+     */
+    public void setFlowService(SalFlowService theFlowService) {
+        flowService = theFlowService;
+    }
+
+    /**
+     * Check if the flows of a switch are written by this instance.
+     *
+     * @param sffNodeName
+     *            - the openflow node name of the switch
+     * @return true if this instance writes the flows of the switch
+     */
+    public boolean isNodeOwned(String sffNodeName) {
+        return nodeOwnership == null || nodeOwnership.isNodeOwned(sffNodeName);
+    }
+
+    /**
+     * Get the flows expected on a switch, that is, the flows stored for all
+     * the rendered service paths using it. Flows with the same key in the
+     * same table are a single entry on the switch, and only one of them is
+     * returned.
+     *
+     * @param sffNodeName
+     *            - the openflow node name of the switch
+     * @return the expected flows of the switch
+     */
+    public List<FlowDetails> getNodeFlows(String sffNodeName) {
+        Map<List<Object>, FlowDetails> nodeFlows = new HashMap<>();
+        rspNameToFlowsMap.values().stream()
+                .map(flowsPerSff -> flowsPerSff.get(sffNodeName))
+                .filter(flows -> flows != null)
+                .flatMap(List::stream)
+                .filter(flowDetails -> flowDetails.getFlow() != null)
+                .forEach(flowDetails -> nodeFlows.put(
+                        Arrays.asList(flowDetails.getTableKey(), flowDetails.getFlowKey()), flowDetails));
+        return new ArrayList<>(nodeFlows.values());
+    }
+
+    /**
+     * Get the groups expected on a switch.
+     *
+     * @param sffNodeName
+     *            - the openflow node name of the switch
+     * @return the expected groups of the switch
+     */
+    public List<Group> getNodeGroups(String sffNodeName) {
+        Map<GroupKey, Group> groups = sffGroupsMap.get(sffNodeName);
+        return groups == null ? new ArrayList<>() : new ArrayList<>(groups.values());
+    }
+
+    /**
+     * Write again some of the flows and groups of a switch, for example the
+     * ones found missing on the switch. Unlike {@link #flushFlows()}, the
+     * flows are written synchronously from the calling thread, in
+     * transactions of a bounded size, and none of the pending flows are
+     * written.
+     *
+     * @param sffNodeName
+     *            - the openflow node name of the switch
+     * @param flows
+     *            - the flows to write
+     * @param groups
+     *            - the groups to write
+     */
+    public void rewriteNodeEntries(String sffNodeName, Collection<FlowDetails> flows, Collection<Group> groups) {
+        if (!isNodeOwned(sffNodeName)) {
+            LOG.debug("rewriteNodeEntries: node {} is owned by another instance", sffNodeName);
+            return;
+        }
+        LOG.info("rewriteNodeEntries: writing [{}] flows and [{}] groups of node {}", flows.size(), groups.size(),
+                sffNodeName);
+        Lists.partition(new ArrayList<>(flows), FLOWS_BATCH_TRANSACTION_SIZE)
+                .forEach(partition -> new FlowSetWriterTask(dataProvider, new HashSet<>(partition)).run());
+        groups.forEach(group -> writeGroup(sffNodeName, group, true));
+    }
+
     @Override
     public void injectTransaction(WriteTransaction theTx) {
         tx = theTx;
@@ -155,11 +299,12 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
         LOG.debug("writeFlow storing flow to Node {}, table {}", sffNodeName, flow.getTableId());
 
         // Add the flow to the set of flows to be added in a single transaction
-        setOfFlowsToAdd.add(new FlowDetails(sffNodeName, flow.getKey(), new TableKey(flow.getTableId()),
-                flowBuilder.build(), rspId));
+        FlowDetails flowDetails = new FlowDetails(sffNodeName, flow.getKey(), new TableKey(flow.getTableId()),
+                flowBuilder.build(), rspId);
+        setOfFlowsToAdd.add(flowDetails);
 
         // This will store the flow info and rspId for removal later
-        storeFlowDetails(rspId, sffNodeName, flow.getKey(), flow.getTableId());
+        storeFlowDetails(flowDetails);
     }
 
     @Override
@@ -170,14 +315,12 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
         // Add the flow to the set of flows to be added in a single transaction
         setOfFlowsToAdd.add(theFlowData);
 
-        storeFlowDetails(theFlowData.getRspId(), theFlowData.getSffNodeName(), theFlowData.getFlowKey(),
-                theFlowData.getTableKey().getId());
+        storeFlowDetails(theFlowData);
     }
 
     @Override
     public boolean writeFlows(Collection<FlowDetails> theFlows) {
-        theFlows.forEach(flow -> storeFlowDetails(flow.getRspId(), flow.getSffNodeName(), flow.getFlowKey(),
-                flow.getTableKey().getId()));
+        theFlows.forEach(this::storeFlowDetails);
         return setOfFlowsToAdd.addAll(theFlows);
     }
 
@@ -212,10 +355,26 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
     public void flushFlows() {
         LOG.info("flushFlows: creating flowWriter task, writing [{}] flows.", setOfFlowsToAdd.size());
 
+        if (!rspFlowsBeforeUpdateMap.isEmpty()) {
+            // Flows of a path being updated that are already installed with
+            // the very same content do not need to be written again
+            setOfFlowsToAdd.removeIf(this::isFlowAlreadyInstalled);
+        }
+
+        // The flows of the switches owned by other instances are written by
+        // them
+        setOfFlowsToAdd.removeIf(flowDetails -> !isNodeOwned(flowDetails.getSffNodeName()));
+
         if (setOfFlowsToAdd.isEmpty()) {
             return;
         }
 
+        if (batchedFlows != null) {
+            batchedFlows.addAll(setOfFlowsToAdd);
+            setOfFlowsToAdd.clear();
+            return;
+        }
+
         FlowSetWriterTask writerThread = tx == null ? new FlowSetWriterTask(dataProvider, setOfFlowsToAdd)
                 : new FlowSetWriterTask(setOfFlowsToAdd, tx);
 
@@ -230,6 +389,54 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
         setOfFlowsToAdd.clear();
     }
 
+    @Override
+    public void beginFlowsBatch() {
+        if (batchedFlows == null) {
+            batchedFlows = new HashSet<>();
+        }
+    }
+
+    /**
+     * Write the flows flushed since the batch started. The flows of each
+     * switch are written in transactions of up to
+     * FLOWS_BATCH_TRANSACTION_SIZE flows, the transactions of different
+     * switches in parallel, and this method returns once all of them are
+     * committed.
+     */
+    @Override
+    public void flushFlowsBatch() {
+        if (batchedFlows == null) {
+            LOG.warn("flushFlowsBatch: no batch in progress");
+            return;
+        }
+
+        Map<String, List<FlowDetails>> flowsPerSff = batchedFlows.stream()
+                .collect(Collectors.groupingBy(FlowDetails::getSffNodeName));
+        int flowCount = batchedFlows.size();
+        batchedFlows = null;
+
+        List<Callable<Object>> writerTasks = new ArrayList<>();
+        flowsPerSff.values().forEach(flows -> Lists.partition(flows, FLOWS_BATCH_TRANSACTION_SIZE).forEach(
+            transactionFlows -> writerTasks.add(Executors.callable(
+                    new FlowSetWriterTask(dataProvider, new HashSet<>(transactionFlows))))));
+        LOG.info("flushFlowsBatch: writing [{}] flows to [{}] switches in [{}] transactions", flowCount,
+                flowsPerSff.size(), writerTasks.size());
+        if (writerTasks.isEmpty()) {
+            return;
+        }
+
+        ExecutorService batchExecutorService = Executors
+                .newFixedThreadPool(Math.min(writerTasks.size(), FLOWS_BATCH_THREADS));
+        try {
+            batchExecutorService.invokeAll(writerTasks);
+        } catch (InterruptedException e) {
+            LOG.error("flushFlowsBatch: interrupted while writing the flows", e);
+            Thread.currentThread().interrupt();
+        } finally {
+            batchExecutorService.shutdown();
+        }
+    }
+
     /**
      * Purge any unwritten flows not written-deleted yet. This should be called
      * upon errors, when the remaining buffered flows should not be persisted
@@ -241,17 +448,17 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
     }
 
     /**
-     * storeFlowDetails Store the flow details so the flows are easy to delete.
-     * later
+     * storeFlowDetails Store the flow details so the flows are easy to delete
+     * later. The flow itself is kept too, so that it can be compared with the
+     * flow rendered for the same path on a later update.
      *
-     * @param sffNodeName
-     *            - the SFF the flow is written to
-     * @param flowKey
-     *            - the flow key of the new flow
-     * @param tableId
-     *            - the table the flow was written to
+     * @param flowDetails
+     *            - the details of the flow, including the rspId and the SFF
+     *            the flow is written to
      */
-    private void storeFlowDetails(final Long rspId, final String sffNodeName, FlowKey flowKey, short tableId) {
+    private void storeFlowDetails(final FlowDetails flowDetails) {
+        final Long rspId = flowDetails.getRspId();
+        final String sffNodeName = flowDetails.getSffNodeName();
         LOG.debug("storeFlowDetails - gonna store rspId: {}, sffName: {}", rspId, sffNodeName);
         if (!rspNameToFlowsMap.containsKey(rspId)) {
             rspNameToFlowsMap.put(rspId, new HashMap<>());
@@ -261,19 +468,158 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
             rspNameToFlowsMap.get(rspId).put(sffNodeName, new ArrayList<>());
         }
 
-        rspNameToFlowsMap.get(rspId).get(sffNodeName)
-                .add(new FlowDetails(sffNodeName, flowKey, new TableKey(tableId), rspId));
+        rspNameToFlowsMap.get(rspId).get(sffNodeName).add(flowDetails);
+    }
+
+    /**
+     * Check if a flow to be written belongs to a path being updated and was
+     * already installed with the same content before the update started.
+     *
+     * @param flowDetails
+     *            - the flow to be written
+     * @return true if the very same flow is already installed, false otherwise
+     */
+    private boolean isFlowAlreadyInstalled(final FlowDetails flowDetails) {
+        if (flowDetails.getFlow() == null) {
+            return false;
+        }
+        Map<String, List<FlowDetails>> flowsBeforeUpdate = rspFlowsBeforeUpdateMap.get(flowDetails.getRspId());
+        if (flowsBeforeUpdate == null || !flowsBeforeUpdate.containsKey(flowDetails.getSffNodeName())) {
+            return false;
+        }
+        return flowsBeforeUpdate.get(flowDetails.getSffNodeName()).stream()
+                .filter(installed -> isSameFlowEntry(installed, flowDetails))
+                .anyMatch(installed -> flowDetails.getFlow().equals(installed.getFlow()));
+    }
+
+    /**
+     * Check if two flows identify the same flow entry, this is, they have the
+     * same flow key, in the same table, in the same SFF.
+     */
+    private static boolean isSameFlowEntry(final FlowDetails flow1, final FlowDetails flow2) {
+        return flow1.getSffNodeName().equals(flow2.getSffNodeName())
+                && flow1.getTableKey().equals(flow2.getTableKey())
+                && flow1.getFlowKey().equals(flow2.getFlowKey());
+    }
+
+    /**
+     * Start updating the flows of the given rspId. The flows currently
+     * installed for the path are set apart, so the flows rendered from now on
+     * for the path are stored as the new set of flows of the path.
+     *
+     * @param rspId
+     *            - the rspId to update flows for
+     */
+    @Override
+    public void beginRspFlowsUpdate(final Long rspId) {
+        Map<String, List<FlowDetails>> flowsBeforeUpdate = rspNameToFlowsMap.remove(rspId);
+        rspFlowsBeforeUpdateMap.put(rspId, flowsBeforeUpdate == null ? new HashMap<>() : flowsBeforeUpdate);
+        LOG.debug("beginRspFlowsUpdate() started update of RSP [{}]", rspId);
+    }
+
+    /**
+     * Finish updating the flows of the given rspId. The flows that were
+     * installed before the update and have not been rendered again are stored
+     * in the deletion buffer; actual transactional deletion is performed when
+     * deleteFlowSet() is called, which must happen after the new flows have
+     * been flushed so that traffic is not disrupted.
+     *
+     * @param rspId
+     *            - the rspId to finish the update for
+     */
+    @Override
+    public void finishRspFlowsUpdate(final Long rspId) {
+        Map<String, List<FlowDetails>> flowsBeforeUpdate = rspFlowsBeforeUpdateMap.remove(rspId);
+        if (flowsBeforeUpdate == null) {
+            LOG.warn("finishRspFlowsUpdate() RSP [{}] is not being updated", rspId);
+            return;
+        }
+
+        Map<String, List<FlowDetails>> flowsAfterUpdate = rspNameToFlowsMap.getOrDefault(rspId, new HashMap<>());
+        List<FlowDetails> staleFlows = new ArrayList<>();
+        flowsBeforeUpdate.forEach((sffName, flowsPerSff) -> {
+            List<FlowDetails> renderedFlows = flowsAfterUpdate.getOrDefault(sffName, new ArrayList<>());
+            flowsPerSff.stream()
+                    .filter(installed -> renderedFlows.stream().noneMatch(
+                        rendered -> isSameFlowEntry(installed, rendered)))
+                    .forEach(staleFlows::add);
+        });
+
+        setOfFlowsToDelete.addAll(staleFlows);
+        LOG.debug("finishRspFlowsUpdate() added {} stale flows of RSP [{}] to the delete list", staleFlows.size(),
+                rspId);
+    }
+
+    /**
+     * Abort updating the flows of the given rspId. The flows rendered for the
+     * path since the update started are discarded, and the flows installed
+     * before the update are considered again the flows of the path.
+     *
+     * @param rspId
+     *            - the rspId to abort the update for
+     */
+    @Override
+    public void abortRspFlowsUpdate(final Long rspId) {
+        Map<String, List<FlowDetails>> flowsBeforeUpdate = rspFlowsBeforeUpdateMap.remove(rspId);
+        if (flowsBeforeUpdate == null) {
+            LOG.warn("abortRspFlowsUpdate() RSP [{}] is not being updated", rspId);
+            return;
+        }
+        if (flowsBeforeUpdate.isEmpty()) {
+            rspNameToFlowsMap.remove(rspId);
+        } else {
+            rspNameToFlowsMap.put(rspId, flowsBeforeUpdate);
+        }
+        LOG.debug("abortRspFlowsUpdate() aborted update of RSP [{}]", rspId);
+    }
+
+    /**
+     * Write again all the flows and groups stored for a switch. To be called
+     * when this instance takes over the ownership of the switch, so that the
+     * switch gets the flows of the paths rendered while it was owned by
+     * another instance.
+     *
+     * @param sffNodeName
+     *            - the openflow node name of the switch
+     */
+    public void restoreNodeFlows(String sffNodeName) {
+        rspNameToFlowsMap.values().stream()
+                .map(flowsPerSff -> flowsPerSff.get(sffNodeName))
+                .filter(flows -> flows != null)
+                .flatMap(List::stream)
+                .filter(flowDetails -> flowDetails.getFlow() != null)
+                .forEach(setOfFlowsToAdd::add);
+        LOG.info("restoreNodeFlows: restoring [{}] flows of node {}", setOfFlowsToAdd.size(), sffNodeName);
+        flushFlows();
+
+        Map<GroupKey, Group> groups = sffGroupsMap.get(sffNodeName);
+        if (groups != null) {
+            groups.values().forEach(group -> writeGroup(sffNodeName, group, true));
+        }
     }
 
     @Override
     public void writeGroupToDataStore(String sffNodeName, GroupBuilder gb, boolean isAdd) {
-        GroupKey gk = new GroupKey(gb.getGroupId());
+        Group group = gb.build();
+        if (isAdd) {
+            sffGroupsMap.computeIfAbsent(sffNodeName, key -> new ConcurrentHashMap<>()).put(group.getKey(), group);
+        } else if (sffGroupsMap.containsKey(sffNodeName)) {
+            sffGroupsMap.get(sffNodeName).remove(group.getKey());
+        }
+
+        if (!isNodeOwned(sffNodeName)) {
+            LOG.debug("writeGroupToDataStore: node {} is owned by another instance", sffNodeName);
+            return;
+        }
+        writeGroup(sffNodeName, group, isAdd);
+    }
+
+    private void writeGroup(String sffNodeName, Group group, boolean isAdd) {
         NodeKey theNodeKey = new NodeKey(new NodeId(sffNodeName));
 
         InstanceIdentifier<Group> groupIID = InstanceIdentifier.builder(Nodes.class).child(Node.class, theNodeKey)
-                .augmentation(FlowCapableNode.class).child(Group.class, gk).build();
+                .augmentation(FlowCapableNode.class).child(Group.class, group.getKey()).build();
 
-        Group group = gb.build();
         LOG.debug("about to write group to data store \nID: {}\nGroup: {}", groupIID, group);
         if (isAdd) {
             if (!SfcDataStoreAPI.writeMergeTransactionAPI(groupIID, group, LogicalDatastoreType.CONFIGURATION)) {
@@ -325,12 +671,131 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
         LOG.debug("deleteRspFlows() added {} flows to the delete list", setOfFlowsToDelete.size());
     }
 
+    /**
+     * Delete all flows created for the given RSPs. The flows stored for an
+     * RSP are deleted as with {@link #deleteRspFlows(Long)}. The flows of the
+     * RSPs this instance did not store, for example after a restart, are
+     * deleted by the path ID encoded in their cookie: they are looked up in
+     * the configuration data store of the given switches of the RSP owned by
+     * this instance and deleted from it in a single transaction, and, if the
+     * flow service is set, removed from each switch with a single request
+     * matching their cookie with the RSP cookie mask.
+     *
+     * @param rspSffNodeNames
+     *            the IDs of the RSPs, each with the openflow node names of
+     *            its switches
+     */
+    @Override
+    public void deleteRspsFlows(final Map<Long, Set<String>> rspSffNodeNames) {
+        Map<Long, Set<String>> unknownRspSffNodeNames = new HashMap<>();
+        rspSffNodeNames.forEach((rspId, sffNodeNames) -> {
+            rspFlowsBeforeUpdateMap.remove(rspId);
+            if (rspNameToFlowsMap.containsKey(rspId)) {
+                deleteRspFlows(rspId);
+            } else {
+                unknownRspSffNodeNames.put(rspId, sffNodeNames);
+            }
+        });
+        if (unknownRspSffNodeNames.isEmpty() || dataProvider == null) {
+            return;
+        }
+
+        // the path ids of the RSPs to delete from each switch
+        Map<String, Set<Long>> nodePathIds = new HashMap<>();
+        unknownRspSffNodeNames.forEach((rspId, sffNodeNames) -> sffNodeNames.stream()
+                .filter(this::isNodeOwned)
+                .forEach(sffNodeName -> nodePathIds.computeIfAbsent(sffNodeName, key -> new HashSet<>())
+                        .add(rspId & OpenflowConstants.SFC_COOKIE_PATH_ID_MASK)));
+
+        Set<FlowDetails> rspFlows = new HashSet<>();
+        nodePathIds.forEach((sffNodeName, pathIds) -> rspFlows.addAll(readRspFlowsByCookie(sffNodeName, pathIds)));
+        LOG.info("deleteRspsFlows() deleting [{}] flows of RSPs {} from [{}] nodes by cookie", rspFlows.size(),
+                unknownRspSffNodeNames.keySet(), nodePathIds.size());
+        if (!rspFlows.isEmpty()) {
+            new FlowSetRemoverTask(dataProvider, rspFlows).run();
+        }
+
+        if (flowService != null) {
+            nodePathIds.forEach((sffNodeName, pathIds) -> pathIds.forEach(pathId -> removeNodeFlowsByCookie(
+                    sffNodeName, SfcOpenflowUtils.createRspCookie(pathId, 0), SfcOpenflowUtils.getRspCookieMask())));
+        }
+    }
+
+    /**
+     * Read the flows of the given RSPs from the configuration data store of a
+     * switch.
+     *
+     * @param sffNodeName
+     *            - the openflow node name of the switch
+     * @param pathIds
+     *            - the path IDs of the RSPs, as encoded in the flow cookies
+     * @return the flows of the RSPs on the switch
+     */
+    private Set<FlowDetails> readRspFlowsByCookie(final String sffNodeName, final Set<Long> pathIds) {
+        Set<FlowDetails> rspFlows = new HashSet<>();
+        InstanceIdentifier<FlowCapableNode> nodeIid = InstanceIdentifier.builder(Nodes.class)
+                .child(Node.class, new NodeKey(new NodeId(sffNodeName))).augmentation(FlowCapableNode.class).build();
+        Optional<FlowCapableNode> flowCapableNode;
+        try (ReadOnlyTransaction readTx = dataProvider.newReadOnlyTransaction()) {
+            flowCapableNode = readTx.read(LogicalDatastoreType.CONFIGURATION, nodeIid).checkedGet();
+        } catch (ReadFailedException e) {
+            LOG.error("readRspFlowsByCookie: failed to read node {}: {}", sffNodeName, e.getMessage(), e);
+            return rspFlows;
+        }
+        if (!flowCapableNode.isPresent() || flowCapableNode.get().getTable() == null) {
+            return rspFlows;
+        }
+
+        for (Table table : flowCapableNode.get().getTable()) {
+            if (table.getFlow() == null) {
+                continue;
+            }
+            for (Flow flow : table.getFlow()) {
+                if (isRspCookie(flow.getCookie(), pathIds)) {
+                    rspFlows.add(new FlowDetails(sffNodeName, flow.getKey(), table.getKey()));
+                }
+            }
+        }
+        return rspFlows;
+    }
+
+    private static boolean isRspCookie(final FlowCookie cookie, final Set<Long> pathIds) {
+        return cookie != null && SfcOpenflowUtils.isRspCookie(cookie.getValue())
+                && pathIds.contains(SfcOpenflowUtils.getRspCookiePathId(cookie.getValue()));
+    }
+
+    /**
+     * Remove from a switch, in all its tables, the flows whose cookie matches
+     * the given cookie under the given mask.
+     */
+    private void removeNodeFlowsByCookie(final String sffNodeName, final BigInteger cookie,
+            final BigInteger cookieMask) {
+        InstanceIdentifier<Node> nodeIid = InstanceIdentifier.builder(Nodes.class)
+                .child(Node.class, new NodeKey(new NodeId(sffNodeName))).build();
+        LOG.debug("removeNodeFlowsByCookie: removing flows with cookie {}/{} from node {}", cookie.toString(16),
+                cookieMask.toString(16), sffNodeName);
+        flowService.removeFlow(new RemoveFlowInputBuilder()
+                .setNode(new NodeRef(nodeIid))
+                .setTableId(OpenflowConstants.OFPTT_ALL)
+                .setCookie(new FlowCookie(cookie))
+                .setCookieMask(new FlowCookie(cookieMask))
+                .setMatch(new MatchBuilder().build())
+                .setStrict(false)
+                .setBarrier(false)
+                .build());
+    }
+
     @Override
     @SuppressWarnings("checkstyle:IllegalCatch")
     public void deleteFlowSet() {
         LOG.info("deleteFlowSet: deleting {} flows", setOfFlowsToDelete.size());
 
+        // The flows of the switches owned by other instances are deleted by
+        // them
+        setOfFlowsToDelete.removeIf(flowDetails -> !isNodeOwned(flowDetails.getSffNodeName()));
+
         if (setOfFlowsToDelete.isEmpty()) {
+            releaseOrphanSffs();
             return;
         }
         FlowSetRemoverTask fsrt = tx == null ? new FlowSetRemoverTask(dataProvider, setOfFlowsToDelete)
@@ -346,6 +811,21 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
 
         // Clear the entries
         setOfFlowsToDelete.clear();
+        releaseOrphanSffs();
+    }
+
+    /**
+     * Release the ownership of the SFFs no longer featured in any RSP, now
+     * that their flows are deleted.
+     */
+    private void releaseOrphanSffs() {
+        if (nodeOwnership != null) {
+            orphanSffNodeNames.stream()
+                    .filter(sffNodeName -> timesFeaturedInRsps(sffNodeName) == 0)
+                    .filter(sffNodeName -> sffGroupsMap.getOrDefault(sffNodeName, Collections.emptyMap()).isEmpty())
+                    .forEach(nodeOwnership::releaseNode);
+        }
+        orphanSffNodeNames.clear();
     }
 
     /**
@@ -378,6 +858,7 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
             setOfFlowsToDelete.addAll(theInitializationFlows.get(sffName));
             // delete the cache of initialization flows of orphan SFFs
             theInitializationFlows.remove(sffName);
+            orphanSffNodeNames.add(sffName);
         });
 
         return sffNodeIDs;
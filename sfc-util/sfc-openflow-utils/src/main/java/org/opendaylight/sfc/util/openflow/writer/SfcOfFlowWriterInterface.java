@@ -9,6 +9,7 @@
 package org.opendaylight.sfc.util.openflow.writer;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
@@ -63,6 +64,45 @@ public interface SfcOfFlowWriterInterface {
      */
     void deleteRspFlows(Long rspId);
 
+    /**
+     * Delete all flows created for the given RSPs. The flows of the RSPs that
+     * are not stored are matched by the path ID encoded in their cookie on the
+     * given switches.
+     *
+     * @param rspSffNodeNames
+     *            the IDs of the RSPs, each with the openflow node names of
+     *            its switches
+     */
+    void deleteRspsFlows(Map<Long, Set<String>> rspSffNodeNames);
+
+    /**
+     * Start updating the flows of a particular RSP. Flows written for the RSP
+     * from now on and identical to the ones already installed are not written
+     * again on flush.
+     *
+     * @param rspId
+     *            the ID of the RSP
+     */
+    void beginRspFlowsUpdate(Long rspId);
+
+    /**
+     * Finish updating the flows of a particular RSP, buffering for deletion
+     * the flows installed before the update that were not written again.
+     *
+     * @param rspId
+     *            the ID of the RSP
+     */
+    void finishRspFlowsUpdate(Long rspId);
+
+    /**
+     * Abort updating the flows of a particular RSP, restoring the flows
+     * installed before the update as the flows of the RSP.
+     *
+     * @param rspId
+     *            the ID of the RSP
+     */
+    void abortRspFlowsUpdate(Long rspId);
+
     /**
      * Delete initialization flows from SFFs whenever they're no longer featured
      * in a RenderedServicePath.
@@ -77,6 +117,19 @@ public interface SfcOfFlowWriterInterface {
     // Flush any flows that havent been written to the data store yet
     void flushFlows();
 
+    /**
+     * Start a batch of flows. The flows flushed from now on are not written
+     * until {@link #flushFlowsBatch()} is called, so that the flows of many
+     * RSPs are written together.
+     */
+    void beginFlowsBatch();
+
+    /**
+     * Write all the flows flushed since the batch started, in large
+     * transactions per switch, and end the batch.
+     */
+    void flushFlowsBatch();
+
     // Performs the deletion of any flows that havent been deleted from the data
     // store yet
     void deleteFlowSet();
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.util.openflow.writer;
+
+/**
+ * Decides which switches this controller instance writes flows to. In a
+ * cluster every instance renders all the paths, but only the owner of a
+ * switch writes its flows and groups to the data store.
+ */
+public interface SfcOfNodeOwnership {
+
+    /**
+     * Check if this controller instance owns a switch.
+     *
+     * @param sffNodeName
+     *            - the openflow node name of the switch
+     * @return true if the flows of the switch are to be written by this
+     *         instance, false otherwise
+     */
+    boolean isNodeOwned(String sffNodeName);
+
+    /**
+     * Stop taking part in the ownership of a switch that is no longer used by
+     * any path, so that another instance does not need to take it over.
+     *
+     * @param sffNodeName
+     *            - the openflow node name of the switch
+     */
+    default void releaseNode(String sffNodeName) {
+    }
+}
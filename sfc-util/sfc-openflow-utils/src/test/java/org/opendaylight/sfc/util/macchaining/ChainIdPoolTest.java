@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.util.macchaining;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class ChainIdPoolTest {
+
+    @Test
+    public void preferredIdOrNextFree() {
+        ChainIdPool pool = new ChainIdPool(100);
+        assertEquals(5, pool.getChainIdFor(new UUID(0, 5), 5));
+        // collides with the previous chain
+        assertEquals(6, pool.getChainIdFor(new UUID(0, 105), 105));
+        // the same chain keeps its id
+        assertEquals(5, pool.getChainIdFor(new UUID(0, 5), 5));
+        // wraps around from the last id
+        assertEquals(99, pool.getChainIdFor(new UUID(0, 99), 99));
+        assertEquals(0, pool.getChainIdFor(new UUID(0, 199), 199));
+        assertEquals(4, pool.size());
+    }
+
+    @Test
+    public void releaseAndReuse() {
+        ChainIdPool pool = new ChainIdPool(70);
+        for (long i = 0; i < 70; i++) {
+            assertEquals(i, pool.getChainIdFor(new UUID(0, i), i));
+        }
+
+        assertTrue(pool.release(new UUID(0, 65)));
+        assertFalse(pool.release(new UUID(0, 65)));
+        assertEquals(65, pool.getChainIdFor(new UUID(0, 100), 1));
+
+        pool.releaseChainId(3);
+        assertEquals(3, pool.getChainIdFor(new UUID(0, 3), 3));
+    }
+
+    @Test
+    public void peekDoesNotReserve() {
+        ChainIdPool pool = new ChainIdPool(10);
+        assertNull(pool.peekChainIdFor(new UUID(0, 5)));
+        assertEquals(0, pool.size());
+        assertEquals(5, pool.getChainIdFor(new UUID(0, 5), 5));
+        assertEquals(Integer.valueOf(5), pool.peekChainIdFor(new UUID(0, 5)));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void exhausted() {
+        ChainIdPool pool = new ChainIdPool(2);
+        pool.getChainIdFor(new UUID(0, 0), 0);
+        pool.getChainIdFor(new UUID(0, 1), 0);
+        pool.getChainIdFor(new UUID(0, 2), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void releaseNotReserved() {
+        new ChainIdPool(10).releaseChainId(3);
+    }
+
+    @Test
+    public void concurrentChainsGetDistinctIds() throws Exception {
+        final int threads = 8;
+        final int chainsPerThread = 500;
+        ChainIdPool pool = new ChainIdPool(threads * chainsPerThread);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Callable<List<Integer>>> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            tasks.add(() -> {
+                List<Integer> ids = new ArrayList<>();
+                for (long i = 0; i < threads * chainsPerThread; i++) {
+                    // all the threads ask for the same chains
+                    ids.add(pool.getChainIdFor(new UUID(0, i), 0));
+                }
+                return ids;
+            });
+        }
+
+        List<List<Integer>> results = new ArrayList<>();
+        for (Future<List<Integer>> future : executor.invokeAll(tasks)) {
+            results.add(future.get());
+        }
+        executor.shutdown();
+
+        // every thread saw the same id for each chain, and no id is shared
+        results.forEach(ids -> assertEquals(results.get(0), ids));
+        Set<Integer> distinctIds = new HashSet<>(results.get(0));
+        assertEquals(threads * chainsPerThread, distinctIds.size());
+        assertEquals(threads * chainsPerThread, pool.size());
+    }
+}
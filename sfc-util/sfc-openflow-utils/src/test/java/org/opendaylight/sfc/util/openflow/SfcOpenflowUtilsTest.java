@@ -290,4 +290,38 @@ public class SfcOpenflowUtilsTest {
                                 { new BigInteger(new Integer(256 * 256).toString()), "00:00:00:01:00:00" },
                                 { MAX_MAC, "ff:ff:ff:ff:ff:ff" } };
     }
+
+    @Test
+    @Parameters(method = "rspCookieParams")
+    public void testRspCookie(long pathId, long flowType, String expectedCookie) {
+        BigInteger cookie = SfcOpenflowUtils.createRspCookie(pathId, flowType);
+
+        Assert.assertEquals("bad rsp cookie!", new BigInteger(expectedCookie, 16), cookie);
+        Assert.assertTrue(SfcOpenflowUtils.isSfcCookie(cookie));
+        Assert.assertTrue(SfcOpenflowUtils.isRspCookie(cookie));
+        Assert.assertEquals(pathId, SfcOpenflowUtils.getRspCookiePathId(cookie));
+        Assert.assertEquals(flowType, SfcOpenflowUtils.getRspCookieFlowType(cookie));
+        Assert.assertEquals("cookie does not match the rsp cookie mask!",
+                SfcOpenflowUtils.createRspCookie(pathId, 0), cookie.and(SfcOpenflowUtils.getRspCookieMask()));
+    }
+
+    public Object[][] rspCookieParams() {
+        return new Object[][] { { 0L, 0x14L, "5FC5FC0000000014" },
+                                { 1L, 0x101L, "5FC5FC0000010101" },
+                                { 4095L, 0x203L, "5FC5FC000FFF0203" },
+                                { 0xFFFFFFL, 0xFFFFL, "5FC5FCFFFFFFFFFF" } };
+    }
+
+    @Test
+    public void testIsSfcCookie() {
+        Assert.assertEquals(new BigInteger("FFFFFFFFFFFF0000", 16), SfcOpenflowUtils.getRspCookieMask());
+        // legacy cookies are SFC cookies, but carry no path id
+        Assert.assertTrue(SfcOpenflowUtils.isSfcCookie(new BigInteger("BA5EBA1100000101", 16)));
+        Assert.assertFalse(SfcOpenflowUtils.isRspCookie(new BigInteger("BA5EBA1100000101", 16)));
+        Assert.assertFalse(SfcOpenflowUtils.isSfcCookie(new BigInteger("20")));
+        Assert.assertFalse(SfcOpenflowUtils.isSfcCookie(new BigInteger("BA5EBB0000010101", 16)));
+        Assert.assertFalse(SfcOpenflowUtils.isSfcCookie(new BigInteger("BA5EBA0000010101", 16)));
+        Assert.assertFalse(SfcOpenflowUtils.isSfcCookie(null));
+        Assert.assertFalse(SfcOpenflowUtils.isRspCookie(null));
+    }
 }
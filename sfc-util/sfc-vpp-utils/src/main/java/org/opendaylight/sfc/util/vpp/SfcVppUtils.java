@@ -73,9 +73,7 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.clas
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.VppClassifierBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.VppNode;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.VppNodeName;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.classify.table.base.attributes.ClassifySession;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.classify.table.base.attributes.ClassifySessionBuilder;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.classify.table.base.attributes.ClassifySessionKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.vpp.classifier.ClassifyTable;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.vpp.classifier.ClassifyTableBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.vpp.classifier.rev161214.vpp.classifier.ClassifyTableKey;
@@ -630,50 +628,54 @@ public final class SfcVppUtils {
     }
 
     private static ClassifyTableBuilder buildClassifyTable(String classifyTableKey, String nextTableKey,
-            final HexString mask) {
+            final HexString mask, int sessionCount) {
         ClassifyTableBuilder classifyTableBuilder = new ClassifyTableBuilder();
         classifyTableBuilder.setName(classifyTableKey);
         if (nextTableKey != null) {
             classifyTableBuilder.setNextTable(nextTableKey);
         }
         classifyTableBuilder.setClassifierNode(new VppNodeName("l2-input-classify"));
-        classifyTableBuilder.setNbuckets(2L);
-        classifyTableBuilder.setMemorySize(104857L);
+        // VPP wants a power of two number of buckets, one per session is enough
+        classifyTableBuilder.setNbuckets((long) Math.max(2, Integer.highestOneBit(sessionCount - 1) << 1));
+        classifyTableBuilder.setMemorySize(Math.max(104857L, sessionCount * 256L));
         classifyTableBuilder.setMissNext(new VppNode(PacketHandlingAction.Deny));
         classifyTableBuilder.setMask(mask);
         return classifyTableBuilder;
     }
 
-    public static void addClassifyTable(final DataBroker dataBroker, ClassifyTable classifyTable, String vppNode) {
+    public static void addClassifyTables(final DataBroker dataBroker, List<ClassifyTable> classifyTables,
+            String vppNode) {
         final DataBroker vppDataBroker = dataBroker;
         final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
 
-        if (FIRST_TABLE.putIfAbsent(vppNode, classifyTable.getName()) == null) {
+        if (FIRST_TABLE.putIfAbsent(vppNode, classifyTables.get(0).getName()) == null) {
             VppClassifierBuilder vppClassifierBuilder = new VppClassifierBuilder();
-            List<ClassifyTable> classifyTableList = new ArrayList<>();
-            classifyTableList.add(classifyTable);
-            vppClassifierBuilder.setClassifyTable(classifyTableList);
-            LOG.info("addClassifyTable: {}", vppClassifierBuilder.build());
+            vppClassifierBuilder.setClassifyTable(new ArrayList<>(classifyTables));
+            LOG.info("addClassifyTables: {}", vppClassifierBuilder.build());
 
             final InstanceIdentifier<VppClassifier> vppClassifierIid = InstanceIdentifier.create(VppClassifier.class);
             wTx.put(LogicalDatastoreType.CONFIGURATION, vppClassifierIid, vppClassifierBuilder.build());
         } else {
-            final InstanceIdentifier<ClassifyTable> classifyTableIid = InstanceIdentifier.create(VppClassifier.class)
-                    .child(ClassifyTable.class, classifyTable.getKey());
-            wTx.put(LogicalDatastoreType.CONFIGURATION, classifyTableIid, classifyTable);
-            LOG.info("addClassifyTable: {}", classifyTable);
+            for (ClassifyTable classifyTable : classifyTables) {
+                final InstanceIdentifier<ClassifyTable> classifyTableIid = InstanceIdentifier
+                        .create(VppClassifier.class).child(ClassifyTable.class, classifyTable.getKey());
+                wTx.put(LogicalDatastoreType.CONFIGURATION, classifyTableIid, classifyTable);
+                LOG.info("addClassifyTables: {}", classifyTable);
+            }
         }
         addFuturesCallback(wTx);
     }
 
-    private static void removeClassifyTable(final DataBroker dataBroker, final String classifyTableKey,
+    private static void removeClassifyTables(final DataBroker dataBroker, final List<String> classifyTableKeys,
             String vppNode) {
         final DataBroker vppDataBroker = dataBroker;
         final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
-        final InstanceIdentifier<ClassifyTable> classifyTableIid = InstanceIdentifier.create(VppClassifier.class)
-                .child(ClassifyTable.class, new ClassifyTableKey(classifyTableKey));
-        LOG.info("removeClassifyTable on vpp node {}: table: {}", vppNode, classifyTableKey);
-        wTx.delete(LogicalDatastoreType.CONFIGURATION, classifyTableIid);
+        for (String classifyTableKey : classifyTableKeys) {
+            final InstanceIdentifier<ClassifyTable> classifyTableIid = InstanceIdentifier.create(VppClassifier.class)
+                    .child(ClassifyTable.class, new ClassifyTableKey(classifyTableKey));
+            LOG.info("removeClassifyTable on vpp node {}: table: {}", vppNode, classifyTableKey);
+            wTx.delete(LogicalDatastoreType.CONFIGURATION, classifyTableIid);
+        }
         addFuturesCallback(wTx);
     }
 
@@ -687,18 +689,6 @@ public final class SfcVppUtils {
         return classifySessionBuilder;
     }
 
-    private static void removeClassifySession(final DataBroker dataBroker, final String classifyTableKey,
-            HexString match, String vppNode) {
-        final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
-        final InstanceIdentifier<ClassifySession> classifySessionIid = InstanceIdentifier.create(VppClassifier.class)
-                .child(ClassifyTable.class, new ClassifyTableKey(classifyTableKey))
-                .child(ClassifySession.class, new ClassifySessionKey(match));
-        LOG.info("removeClassifySession on vpp node {}: table: {}, session: {}", vppNode, classifyTableKey, match);
-        wTx.delete(LogicalDatastoreType.CONFIGURATION, classifySessionIid);
-        addFuturesCallback(wTx);
-    }
-
     public static void enableIngressAcl(final DataBroker dataBroker, final String interfaceName,
             final String classifyTableKey, String vppNode) {
         IngressBuilder ingressBuilder = new IngressBuilder();
@@ -726,42 +716,42 @@ public final class SfcVppUtils {
         addFuturesCallback(wTx);
     }
 
-    private static void saveClassifyTableKey(String vppNode, String rsp, String classifyTableKey) {
-        String rspKey = vppNode + "_" + rsp;
-        List<String> tblIdList = RSP_TABLE_ID_LIST.computeIfAbsent(rspKey, key -> new ArrayList<>());
+    private static void saveClassifyTableKey(String vppNode, String owner, String classifyTableKey) {
+        String ownerKey = vppNode + "_" + owner;
+        List<String> tblIdList = RSP_TABLE_ID_LIST.computeIfAbsent(ownerKey, key -> new ArrayList<>());
 
         synchronized (tblIdList) {
             tblIdList.add(classifyTableKey);
         }
     }
 
-    public static String getSavedClassifyTableKey(String vppNode, String rsp, int index) {
-        String rspKey = vppNode + "_" + rsp;
+    public static List<String> getSavedClassifyTableKeys(String vppNode, String owner) {
+        String ownerKey = vppNode + "_" + owner;
 
-        List<String> tblIdList = RSP_TABLE_ID_LIST.get(rspKey);
+        List<String> tblIdList = RSP_TABLE_ID_LIST.get(ownerKey);
         if (tblIdList == null) {
-            return null;
+            return new ArrayList<>();
         }
 
         synchronized (tblIdList) {
-            if (tblIdList.size() <= index) {
-                return null;
-            }
-
-            return tblIdList.get(index);
+            return new ArrayList<>(tblIdList);
         }
     }
 
-    public static ClassifyTableBuilder buildVppClassifyTable(SffName sffName, String rsp, HexString mask,
-            boolean hasNext) {
+    public static void clearSavedClassifyTableKeys(String vppNode, String owner) {
+        RSP_TABLE_ID_LIST.remove(vppNode + "_" + owner);
+    }
+
+    public static ClassifyTableBuilder buildVppClassifyTable(SffName sffName, String owner, HexString mask,
+            int sessionCount, boolean hasNext) {
         Integer index = getNextTableIndex(sffName.getValue());
         String classifyTableKey = buildClassifyTableKey(index);
-        saveClassifyTableKey(sffName.getValue(), rsp, classifyTableKey);
+        saveClassifyTableKey(sffName.getValue(), owner, classifyTableKey);
         String nextTableKey = null;
         if (hasNext) {
             nextTableKey = buildClassifyTableKey(index + 1);
         }
-        return buildClassifyTable(classifyTableKey, nextTableKey, mask);
+        return buildClassifyTable(classifyTableKey, nextTableKey, mask, sessionCount);
     }
 
     public static ClassifySessionBuilder buildVppClassifySession(ClassifyTableBuilder classifyTableBuilder,
@@ -770,24 +760,24 @@ public final class SfcVppUtils {
     }
 
     public static boolean configureVppClassifier(DataBroker dataBroker, SffName sffName,
-            List<ClassifyTableBuilder> classifyTableList, List<ClassifySessionBuilder> classifySessionList) {
-        for (int i = classifyTableList.size() - 1; i >= 0; i--) {
-            ClassifyTableBuilder classifyTableBuilder = classifyTableList.get(i);
-            ClassifySessionBuilder classifySessionBuilder = classifySessionList.get(i);
-            List<ClassifySession> sessionList = new ArrayList<>();
-            sessionList.add(classifySessionBuilder.build());
-            classifyTableBuilder.setClassifySession(sessionList);
-            addClassifyTable(dataBroker, classifyTableBuilder.build(), sffName.getValue());
+            List<ClassifyTableBuilder> classifyTableList) {
+        if (classifyTableList.isEmpty()) {
+            return false;
+        }
+        List<ClassifyTable> classifyTables = new ArrayList<>(classifyTableList.size());
+        for (ClassifyTableBuilder classifyTableBuilder : classifyTableList) {
+            classifyTables.add(classifyTableBuilder.build());
         }
+        addClassifyTables(dataBroker, classifyTables, sffName.getValue());
         return true;
     }
 
-    public static boolean removeVppClassifier(DataBroker dataBroker, SffName sffName, List<String> tableKeyList,
-            List<HexString> matchList) {
-        for (int i = 0; i < tableKeyList.size(); i++) {
-            removeClassifySession(dataBroker, tableKeyList.get(i), matchList.get(i), sffName.getValue());
-            removeClassifyTable(dataBroker, tableKeyList.get(i), sffName.getValue());
+    public static boolean removeVppClassifier(DataBroker dataBroker, SffName sffName, List<String> tableKeyList) {
+        if (tableKeyList.isEmpty()) {
+            return false;
         }
+        // removing a table removes its sessions too
+        removeClassifyTables(dataBroker, tableKeyList, sffName.getValue());
         return true;
     }
 
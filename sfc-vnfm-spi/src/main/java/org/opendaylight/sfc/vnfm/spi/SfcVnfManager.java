@@ -8,6 +8,11 @@
 
 package org.opendaylight.sfc.vnfm.spi;
 
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.ServiceFunctionType;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ss.rev140701.service.statistics.group.StatisticByTimestamp;
@@ -24,6 +29,31 @@ public interface SfcVnfManager {
      */
     boolean createSf(ServiceFunctionType sfType);
 
+    /**
+     * This method creates several service functions of the service function
+     * type provided. By default, they are created one after the other from
+     * the calling thread, a failed creation failing its future.
+     *
+     * @param sfType
+     *            the type of the service functions
+     * @param count
+     *            the number of service functions to create
+     * @return one future per service function, set to true if the service
+     *         function was created, false otherwise
+     */
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    default List<ListenableFuture<Boolean>> createSfs(ServiceFunctionType sfType, int count) {
+        List<ListenableFuture<Boolean>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            try {
+                futures.add(Futures.immediateFuture(createSf(sfType)));
+            } catch (RuntimeException e) {
+                futures.add(Futures.immediateFailedFuture(e));
+            }
+        }
+        return futures;
+    }
+
     /**
      * This method deletes service function from SfcVnfManager.
      *
@@ -33,6 +63,29 @@ public interface SfcVnfManager {
      */
     boolean deleteSf(ServiceFunction sf);
 
+    /**
+     * This method deletes several service functions from SfcVnfManager. By
+     * default, they are deleted one after the other from the calling thread,
+     * a failed deletion failing its future.
+     *
+     * @param sfs
+     *            the service functions to delete from SfcVnfManager
+     * @return one future per service function, in the same order, set to
+     *         true if the service function was deleted, false otherwise
+     */
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    default List<ListenableFuture<Boolean>> deleteSfs(Collection<ServiceFunction> sfs) {
+        List<ListenableFuture<Boolean>> futures = new ArrayList<>(sfs.size());
+        for (ServiceFunction sf : sfs) {
+            try {
+                futures.add(Futures.immediateFuture(deleteSf(sf)));
+            } catch (RuntimeException e) {
+                futures.add(Futures.immediateFailedFuture(e));
+            }
+        }
+        return futures;
+    }
+
     /**
      * Get the service statistics for provided service function.
      *
@@ -9,13 +9,22 @@
 package org.opendaylight.sfc.tacker.api;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
 import com.sun.jersey.api.client.Client;
 import com.sun.jersey.api.client.ClientResponse;
 import com.sun.jersey.api.client.WebResource;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
 import org.opendaylight.sfc.tacker.dto.Attributes;
 import org.opendaylight.sfc.tacker.dto.Auth;
 import org.opendaylight.sfc.tacker.dto.KeystoneRequest;
@@ -38,7 +47,12 @@ public final class TackerManager implements AutoCloseableSfcVnfManager {
     private static final Gson GSON = new GsonBuilder().registerTypeAdapter(Date.class, DATE_DESERIALIZER).create();
     private static final Integer CONNECT_TIMEOUT_MILLISEC = 7000;
     private static final Integer READ_TIMEOUT_MILLISEC = 5000;
+    // a token is renewed this long before it expires, so that it does not
+    // expire while a request is in flight
+    private static final long TOKEN_REFRESH_MARGIN_MILLISEC = 60000;
+    private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 10;
     private final Client client;
+    private final ListeningExecutorService executor;
     private final String baseUri;
     private final int tackerPort;
     private final int keystonePort;
@@ -50,26 +64,27 @@ public final class TackerManager implements AutoCloseableSfcVnfManager {
         Preconditions.checkArgument(builder.getTackerPort() != 0);
         Preconditions.checkArgument(builder.getKeystonePort() != 0);
         Preconditions.checkNotNull(builder.getAuth());
+        Preconditions.checkArgument(builder.getMaxConcurrentRequests() > 0);
 
         this.baseUri = builder.getBaseUri();
         this.tackerPort = builder.getTackerPort();
         this.keystonePort = builder.getKeystonePort();
         this.auth = builder.getAuth();
 
+        // The client and its resources are thread safe: the concurrent
+        // requests share it, and the keep-alive connections it opens
         client = Client.create();
         client.setReadTimeout(READ_TIMEOUT_MILLISEC);
         client.setConnectTimeout(CONNECT_TIMEOUT_MILLISEC);
+        // bounds the requests, and so the connections, opened at once
+        executor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(
+                builder.getMaxConcurrentRequests(),
+                new ThreadFactoryBuilder().setNameFormat("sfc-tacker-%d").setDaemon(true).build()));
     }
 
     @Override
     public boolean createSf(ServiceFunctionType sfType) {
 
-        Token authToken = getToken();
-        if (authToken == null) {
-            LOG.error("Failed to Acquire Authentication token!");
-            return false;
-        }
-
         WebResource webResource = client.resource(baseUri + ":" + tackerPort).path("/v1.0/vnfs");
         TackerRequest tackerRequest = TackerRequest.builder()
             .setVnf(Vnf.builder()
@@ -77,68 +92,113 @@ public final class TackerManager implements AutoCloseableSfcVnfManager {
                 .setAttributes(Attributes.builder().setServiceType(sfType.getType().getValue()).build())
                 .build())
             .build();
+        String requestJson = GSON.toJson(tackerRequest);
 
-        ClientResponse response = webResource.type(javax.ws.rs.core.MediaType.APPLICATION_JSON)
+        ClientResponse response = sendAuthenticated(authToken -> webResource
+            .type(javax.ws.rs.core.MediaType.APPLICATION_JSON)
             .header("X-Auth-Token", authToken.getId())
-            .header("X-Auth-Project-Id", authToken.getTenant().getName()).post(ClientResponse.class,
-                    GSON.toJson(tackerRequest));
+            .header("X-Auth-Project-Id", authToken.getTenant().getName()).post(ClientResponse.class, requestJson));
 
         if (response != null) {
-            switch (response.getStatus()) {
-                case 201:
-                    String json = response.getEntity(String.class);
-                    TackerResponse tackerResponse = GSON.fromJson(json, TackerResponse.class);
-                    LOG.info("VNF successfully created.");
-                    LOG.debug(GSON.toJson(tackerResponse));
-                    return true;
-                case 401:
-                    LOG.debug("Unauthorized! Wrong username or password.");
-                    break;
-                default:
-                    TackerError error = GSON.fromJson(response.getEntity(String.class), TackerError.class);
-                    LOG.debug(error.toString());
-                    break;
+            try {
+                switch (response.getStatus()) {
+                    case 201:
+                        String json = response.getEntity(String.class);
+                        TackerResponse tackerResponse = GSON.fromJson(json, TackerResponse.class);
+                        LOG.info("VNF successfully created.");
+                        LOG.debug(GSON.toJson(tackerResponse));
+                        return true;
+                    case 401:
+                        LOG.debug("Unauthorized! Wrong username or password.");
+                        break;
+                    default:
+                        TackerError error = GSON.fromJson(response.getEntity(String.class), TackerError.class);
+                        LOG.debug(error.toString());
+                        break;
+                }
+            } finally {
+                response.close();
             }
         }
         return false;
     }
 
+    /**
+     * Create service functions of the given type concurrently, sharing a
+     * single authentication token.
+     *
+     * @param sfType
+     *            the type of the service functions
+     * @param count
+     *            the number of service functions to create
+     * @return one future per service function, set to true if the service
+     *         function was created, false otherwise
+     */
     @Override
-    public boolean deleteSf(ServiceFunction sf) {
-
-        Token authToken = getToken();
-        if (authToken == null) {
-            LOG.error("Failed to Acquire Authentication token!");
-            return false;
+    public List<ListenableFuture<Boolean>> createSfs(ServiceFunctionType sfType, int count) {
+        // acquired once here instead of by each of the concurrent requests
+        getToken();
+        List<ListenableFuture<Boolean>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            futures.add(executor.submit(() -> createSf(sfType)));
         }
+        return futures;
+    }
+
+    @Override
+    public boolean deleteSf(ServiceFunction sf) {
 
         String vnfId = sf.getName().getValue();
         WebResource webResource = client.resource(baseUri + ":" + tackerPort).path("/v1.0/vnfs/" + vnfId);
-        ClientResponse response = webResource.type(javax.ws.rs.core.MediaType.APPLICATION_JSON)
+        ClientResponse response = sendAuthenticated(authToken -> webResource
+            .type(javax.ws.rs.core.MediaType.APPLICATION_JSON)
             .header("X-Auth-Token", authToken.getId())
             .header("X-Auth-Project-Id", authToken.getTenant().getName())
-            .delete(ClientResponse.class);
+            .delete(ClientResponse.class));
 
         if (response != null) {
-            switch (response.getStatus()) {
-                case 200:
-                    LOG.info("VNF:" + vnfId + " successfully deleted.");
-                    return true;
-                case 404:
-                    LOG.debug("404 - Not Found:" + response.toString());
-                    return false;
-                case 405:
-                    LOG.debug("405 - Method not found: " + response.toString());
-                    return false;
-                default:
-                    TackerError error = GSON.fromJson(response.getEntity(String.class), TackerError.class);
-                    LOG.debug(error.toString());
-                    break;
+            try {
+                switch (response.getStatus()) {
+                    case 200:
+                        LOG.info("VNF:" + vnfId + " successfully deleted.");
+                        return true;
+                    case 404:
+                        LOG.debug("404 - Not Found:" + response.toString());
+                        return false;
+                    case 405:
+                        LOG.debug("405 - Method not found: " + response.toString());
+                        return false;
+                    default:
+                        TackerError error = GSON.fromJson(response.getEntity(String.class), TackerError.class);
+                        LOG.debug(error.toString());
+                        break;
+                }
+            } finally {
+                response.close();
             }
         }
         return false;
     }
 
+    /**
+     * Delete service functions concurrently, sharing a single authentication
+     * token.
+     *
+     * @param sfs
+     *            the service functions to delete
+     * @return one future per service function, in the same order, set to
+     *         true if the service function was deleted, false otherwise
+     */
+    @Override
+    public List<ListenableFuture<Boolean>> deleteSfs(Collection<ServiceFunction> sfs) {
+        getToken();
+        List<ListenableFuture<Boolean>> futures = new ArrayList<>(sfs.size());
+        for (ServiceFunction sf : sfs) {
+            futures.add(executor.submit(() -> deleteSf(sf)));
+        }
+        return futures;
+    }
+
     @Override
     public StatisticByTimestamp getSfStatistics(ServiceFunction sf) {
         // TODO implement method
@@ -147,23 +207,53 @@ public final class TackerManager implements AutoCloseableSfcVnfManager {
 
     @Override
     public void close() throws Exception {
+        this.executor.shutdownNow();
         this.client.destroy();
     }
 
-    private Token getToken() {
-        if (this.token == null) {
-            this.token = requestToken();
+    /**
+     * Send a request with the current token. If Tacker rejects the token,
+     * e.g. because it was revoked, it is renewed and the request sent again
+     * once.
+     */
+    private ClientResponse sendAuthenticated(Function<Token, ClientResponse> request) {
+        Token authToken = getToken();
+        if (authToken == null) {
+            LOG.error("Failed to Acquire Authentication token!");
+            return null;
         }
-        if (this.token != null) {
-            Date currentDate = new Date();
-            if (!(currentDate.getTime() < token.getExpires().getTime()
-                    && currentDate.getTime() >= token.getIssuedAt().getTime())) {
-                this.token = null;
+
+        ClientResponse response = request.apply(authToken);
+        if (response != null && response.getStatus() == 401) {
+            invalidateToken(authToken);
+            Token renewedToken = getToken();
+            if (renewedToken != null) {
+                response.close();
+                response = request.apply(renewedToken);
             }
         }
+        return response;
+    }
+
+    /**
+     * Get the cached token, requesting a new one from Keystone if there is
+     * none or if it is about to expire.
+     */
+    private synchronized Token getToken() {
+        if (this.token == null || this.token.getExpires() == null
+                || System.currentTimeMillis() + TOKEN_REFRESH_MARGIN_MILLISEC >= this.token.getExpires().getTime()) {
+            this.token = requestToken();
+        }
         return this.token;
     }
 
+    private synchronized void invalidateToken(Token rejectedToken) {
+        // another request may have renewed it already
+        if (this.token == rejectedToken) {
+            this.token = null;
+        }
+    }
+
     private Token requestToken() {
         WebResource webResource = client.resource(baseUri + ":" + keystonePort).path("/v2.0/tokens");
         KeystoneRequest keystoneRequest = new KeystoneRequest(this.auth);
@@ -172,17 +262,21 @@ public final class TackerManager implements AutoCloseableSfcVnfManager {
             .post(ClientResponse.class, GSON.toJson(keystoneRequest));
 
         if (response != null) {
-            switch (response.getStatus()) {
-                case 200:
-                    String json = response.getEntity(String.class);
-                    JsonObject jsonObject =
-                            GSON.fromJson(json, JsonObject.class).getAsJsonObject("access").getAsJsonObject("token");
-
-                    LOG.debug("Authentication token successfully created.");
-                    return GSON.fromJson(jsonObject, Token.class);
-                default:
-                    LOG.debug(response.getEntity(String.class));
-                    break;
+            try {
+                switch (response.getStatus()) {
+                    case 200:
+                        String json = response.getEntity(String.class);
+                        JsonObject jsonObject = GSON.fromJson(json, JsonObject.class).getAsJsonObject("access")
+                                .getAsJsonObject("token");
+
+                        LOG.debug("Authentication token successfully created.");
+                        return GSON.fromJson(jsonObject, Token.class);
+                    default:
+                        LOG.debug(response.getEntity(String.class));
+                        break;
+                }
+            } finally {
+                response.close();
             }
         }
         return null;
@@ -198,6 +292,7 @@ public final class TackerManager implements AutoCloseableSfcVnfManager {
         private int tackerPort;
         private int keystonePort;
         private Auth auth;
+        private int maxConcurrentRequests = DEFAULT_MAX_CONCURRENT_REQUESTS;
 
         public String getBaseUri() {
             return baseUri;
@@ -235,6 +330,15 @@ public final class TackerManager implements AutoCloseableSfcVnfManager {
             return this;
         }
 
+        public int getMaxConcurrentRequests() {
+            return maxConcurrentRequests;
+        }
+
+        public TackerManagerBuilder setMaxConcurrentRequests(int maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+            return this;
+        }
+
         public TackerManager build() {
             return new TackerManager(this);
         }
@@ -8,8 +8,15 @@
 package org.opendaylight.sfc.tacker.api;
 
 import com.google.common.base.Preconditions;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.mdsal.eos.binding.api.EntityOwnershipService;
+import org.opendaylight.sfc.tacker.autoscaler.AutoscalerPolicy;
+import org.opendaylight.sfc.tacker.autoscaler.SfcProviderSfLoadReader;
+import org.opendaylight.sfc.tacker.autoscaler.SfcSfAutoscaler;
+import org.opendaylight.sfc.tacker.autoscaler.SfcSfAutoscalerOwnership;
 import org.opendaylight.sfc.tacker.dto.Auth;
 import org.opendaylight.sfc.tacker.dto.PasswordCredentials;
+import org.opendaylight.sfc.vnfm.spi.SfcVnfManager;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.ServiceFunctionType;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ss.rev140701.service.statistics.group.StatisticByTimestamp;
@@ -60,4 +67,51 @@ public class TackerManagerFactory {
         return TackerManager.builder().setAuth(auth).setBaseUri(config.getSfcVnfmUri())
                 .setKeystonePort(config.getSfcVnfmKeystonePort()).setTackerPort(config.getSfcVnfmTackerPort()).build();
     }
+
+    /**
+     * Create the service function autoscaler, started if enabled in the
+     * configuration. In a cluster, it only runs on the member owning it.
+     *
+     * @param config
+     *            the tacker configuration
+     * @param vnfManager
+     *            the VNF manager creating the new instances
+     * @param entityOwnershipService
+     *            the cluster entity ownership service electing the member
+     *            running the autoscaler
+     * @return the autoscaler, to be closed on shutdown
+     */
+    public AutoCloseable newAutoscaler(final VnfmTackerConfig config, final SfcVnfManager vnfManager,
+            final EntityOwnershipService entityOwnershipService) {
+        Preconditions.checkNotNull(config);
+
+        if (config.isSfcAutoscalerEnabled() == null || !config.isSfcAutoscalerEnabled()) {
+            return () -> {
+                // NOOP
+            };
+        }
+
+        AutoscalerPolicy.AutoscalerPolicyBuilder policyBuilder = AutoscalerPolicy.builder();
+        if (config.getSfcAutoscalerHighCpuUtilization() != null) {
+            policyBuilder.setHighCpuUtilization(config.getSfcAutoscalerHighCpuUtilization());
+        }
+        if (config.getSfcAutoscalerLowCpuUtilization() != null) {
+            policyBuilder.setLowCpuUtilization(config.getSfcAutoscalerLowCpuUtilization());
+        }
+        if (config.getSfcAutoscalerMaxPoolSize() != null) {
+            policyBuilder.setMaxPoolSize(config.getSfcAutoscalerMaxPoolSize().intValue());
+        }
+        if (config.getSfcAutoscalerCooldown() != null) {
+            policyBuilder.setCooldownMillis(TimeUnit.SECONDS.toMillis(config.getSfcAutoscalerCooldown()));
+        }
+
+        SfcSfAutoscaler autoscaler = new SfcSfAutoscaler(vnfManager, new SfcProviderSfLoadReader(),
+                policyBuilder.build());
+        SfcSfAutoscalerOwnership ownership = new SfcSfAutoscalerOwnership(entityOwnershipService, autoscaler);
+        autoscaler.start();
+        return () -> {
+            ownership.close();
+            autoscaler.close();
+        };
+    }
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.tacker.autoscaler;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * When and how much the {@link SfcSfAutoscaler} scales a service function
+ * type.
+ *
+ * <p>
+ * A type becomes overloaded when the average CPU utilization of its service
+ * functions reaches the high watermark, or when the average number of RSPs
+ * per service function does, and stops being overloaded only once both
+ * averages fall below their low watermark. Between two scale ups of a type,
+ * the new instances must have registered, or failed to within the
+ * registration timeout, and the cooldown must have elapsed.
+ */
+public final class AutoscalerPolicy {
+
+    private final long highCpuUtilization;
+    private final long lowCpuUtilization;
+    private final int highRspsPerSf;
+    private final int lowRspsPerSf;
+    private final int scaleStep;
+    private final int maxPoolSize;
+    private final long cooldownMillis;
+    private final long registrationTimeoutMillis;
+    private final long pollIntervalMillis;
+
+    private AutoscalerPolicy(AutoscalerPolicyBuilder builder) {
+        Preconditions.checkArgument(builder.lowCpuUtilization <= builder.highCpuUtilization);
+        Preconditions.checkArgument(builder.lowRspsPerSf <= builder.highRspsPerSf);
+        Preconditions.checkArgument(builder.scaleStep > 0);
+        Preconditions.checkArgument(builder.pollIntervalMillis > 0);
+
+        this.highCpuUtilization = builder.highCpuUtilization;
+        this.lowCpuUtilization = builder.lowCpuUtilization;
+        this.highRspsPerSf = builder.highRspsPerSf;
+        this.lowRspsPerSf = builder.lowRspsPerSf;
+        this.scaleStep = builder.scaleStep;
+        this.maxPoolSize = builder.maxPoolSize;
+        this.cooldownMillis = builder.cooldownMillis;
+        this.registrationTimeoutMillis = builder.registrationTimeoutMillis;
+        this.pollIntervalMillis = builder.pollIntervalMillis;
+    }
+
+    public static AutoscalerPolicyBuilder builder() {
+        return new AutoscalerPolicyBuilder();
+    }
+
+    public long getHighCpuUtilization() {
+        return highCpuUtilization;
+    }
+
+    public long getLowCpuUtilization() {
+        return lowCpuUtilization;
+    }
+
+    /**
+     * Get the high watermark of the average number of RSPs per service
+     * function.
+     *
+     * @return the watermark, 0 if the RSPs are not considered
+     */
+    public int getHighRspsPerSf() {
+        return highRspsPerSf;
+    }
+
+    public int getLowRspsPerSf() {
+        return lowRspsPerSf;
+    }
+
+    public int getScaleStep() {
+        return scaleStep;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    public long getCooldownMillis() {
+        return cooldownMillis;
+    }
+
+    public long getRegistrationTimeoutMillis() {
+        return registrationTimeoutMillis;
+    }
+
+    public long getPollIntervalMillis() {
+        return pollIntervalMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "AutoscalerPolicy [highCpuUtilization=" + highCpuUtilization + ", lowCpuUtilization="
+                + lowCpuUtilization + ", highRspsPerSf=" + highRspsPerSf + ", lowRspsPerSf=" + lowRspsPerSf
+                + ", scaleStep=" + scaleStep + ", maxPoolSize=" + maxPoolSize + ", cooldownMillis=" + cooldownMillis
+                + ", registrationTimeoutMillis=" + registrationTimeoutMillis + ", pollIntervalMillis="
+                + pollIntervalMillis + "]";
+    }
+
+    public static class AutoscalerPolicyBuilder {
+
+        private long highCpuUtilization = 80;
+        private long lowCpuUtilization = 60;
+        private int highRspsPerSf;
+        private int lowRspsPerSf;
+        private int scaleStep = 1;
+        private int maxPoolSize = 10;
+        private long cooldownMillis = 300000;
+        private long registrationTimeoutMillis = 600000;
+        private long pollIntervalMillis = 30000;
+
+        public AutoscalerPolicyBuilder setHighCpuUtilization(long highCpuUtilization) {
+            this.highCpuUtilization = highCpuUtilization;
+            return this;
+        }
+
+        public AutoscalerPolicyBuilder setLowCpuUtilization(long lowCpuUtilization) {
+            this.lowCpuUtilization = lowCpuUtilization;
+            return this;
+        }
+
+        public AutoscalerPolicyBuilder setHighRspsPerSf(int highRspsPerSf) {
+            this.highRspsPerSf = highRspsPerSf;
+            return this;
+        }
+
+        public AutoscalerPolicyBuilder setLowRspsPerSf(int lowRspsPerSf) {
+            this.lowRspsPerSf = lowRspsPerSf;
+            return this;
+        }
+
+        public AutoscalerPolicyBuilder setScaleStep(int scaleStep) {
+            this.scaleStep = scaleStep;
+            return this;
+        }
+
+        public AutoscalerPolicyBuilder setMaxPoolSize(int maxPoolSize) {
+            this.maxPoolSize = maxPoolSize;
+            return this;
+        }
+
+        public AutoscalerPolicyBuilder setCooldownMillis(long cooldownMillis) {
+            this.cooldownMillis = cooldownMillis;
+            return this;
+        }
+
+        public AutoscalerPolicyBuilder setRegistrationTimeoutMillis(long registrationTimeoutMillis) {
+            this.registrationTimeoutMillis = registrationTimeoutMillis;
+            return this;
+        }
+
+        public AutoscalerPolicyBuilder setPollIntervalMillis(long pollIntervalMillis) {
+            this.pollIntervalMillis = pollIntervalMillis;
+            return this;
+        }
+
+        public AutoscalerPolicy build() {
+            return new AutoscalerPolicy(this);
+        }
+    }
+}
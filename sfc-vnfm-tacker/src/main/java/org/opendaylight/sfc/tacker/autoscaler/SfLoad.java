@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.tacker.autoscaler;
+
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+
+/**
+ * The load of a service function, as seen by the {@link SfcSfAutoscaler}.
+ */
+public final class SfLoad {
+
+    private final SfName sfName;
+    private final Long cpuUtilization;
+    private final int rspCount;
+
+    /**
+     * Constructor.
+     *
+     * @param sfName
+     *            the name of the service function
+     * @param cpuUtilization
+     *            the CPU utilization percentage last reported by the service
+     *            function, null if it never reported it
+     * @param rspCount
+     *            the number of rendered service paths going through the
+     *            service function
+     */
+    public SfLoad(SfName sfName, Long cpuUtilization, int rspCount) {
+        this.sfName = sfName;
+        this.cpuUtilization = cpuUtilization;
+        this.rspCount = rspCount;
+    }
+
+    public SfName getSfName() {
+        return sfName;
+    }
+
+    public Long getCpuUtilization() {
+        return cpuUtilization;
+    }
+
+    public int getRspCount() {
+        return rspCount;
+    }
+
+    @Override
+    public String toString() {
+        return "SfLoad [sfName=" + sfName.getValue() + ", cpuUtilization=" + cpuUtilization + ", rspCount="
+                + rspCount + "]";
+    }
+}
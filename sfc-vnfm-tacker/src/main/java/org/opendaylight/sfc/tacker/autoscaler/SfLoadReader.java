@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.tacker.autoscaler;
+
+import java.util.List;
+import java.util.Map;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
+
+/**
+ * Source of the load of the service functions watched by the
+ * {@link SfcSfAutoscaler}.
+ */
+public interface SfLoadReader {
+
+    /**
+     * Read the load of all the service functions.
+     *
+     * @return the load of the service functions, by service function type,
+     *         null if it could not be read
+     */
+    Map<SftTypeName, List<SfLoad>> readLoad();
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.tacker.autoscaler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
+import org.opendaylight.sfc.provider.api.SfcProviderServiceTypeAPI;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.ServiceFunctionsState;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.state.ServiceFunctionState;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.ServiceFunctionTypes;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.ServiceFunctionType;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.service.function.type.SftServiceFunctionName;
+import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.sf.desc.mon.rev141201.ServiceFunctionState1;
+import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.sf.desc.mon.rev141201.service.functions.state.service.function.state.SfcSfDescMon;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * Reads the load of the service functions from the SFC data store: the
+ * service functions of each type, the CPU utilization of their description
+ * monitor report, as populated by sfc-netconf, and the RSPs recorded in their
+ * operational state. The whole state is read at once instead of one service
+ * function at a time.
+ */
+public class SfcProviderSfLoadReader implements SfLoadReader {
+
+    private static final InstanceIdentifier<ServiceFunctionsState> SFS_STATE_IID = InstanceIdentifier
+            .create(ServiceFunctionsState.class);
+
+    @Override
+    public Map<SftTypeName, List<SfLoad>> readLoad() {
+        ServiceFunctionTypes sfTypes = SfcProviderServiceTypeAPI.readAllServiceFunctionTypes();
+        if (sfTypes == null || sfTypes.getServiceFunctionType() == null) {
+            return null;
+        }
+
+        Map<SfName, ServiceFunctionState> sfStates = new HashMap<>();
+        ServiceFunctionsState sfsState = SfcDataStoreAPI.readTransactionAPI(SFS_STATE_IID,
+                LogicalDatastoreType.OPERATIONAL);
+        if (sfsState != null && sfsState.getServiceFunctionState() != null) {
+            sfsState.getServiceFunctionState().forEach(sfState -> sfStates.put(sfState.getName(), sfState));
+        }
+
+        Map<SftTypeName, List<SfLoad>> load = new HashMap<>();
+        for (ServiceFunctionType sfType : sfTypes.getServiceFunctionType()) {
+            List<SftServiceFunctionName> sfNames = sfType.getSftServiceFunctionName() == null
+                    ? Collections.emptyList() : sfType.getSftServiceFunctionName();
+            List<SfLoad> typeLoad = new ArrayList<>(sfNames.size());
+            for (SftServiceFunctionName sftSfName : sfNames) {
+                SfName sfName = new SfName(sftSfName.getName());
+                typeLoad.add(getLoad(sfName, sfStates.get(sfName)));
+            }
+            load.put(sfType.getType(), typeLoad);
+        }
+        return load;
+    }
+
+    private static SfLoad getLoad(SfName sfName, ServiceFunctionState sfState) {
+        if (sfState == null) {
+            return new SfLoad(sfName, null, 0);
+        }
+        int rspCount = sfState.getSfServicePath() == null ? 0 : sfState.getSfServicePath().size();
+        ServiceFunctionState1 monitorState = sfState.getAugmentation(ServiceFunctionState1.class);
+        SfcSfDescMon sfDescMon = monitorState == null ? null : monitorState.getSfcSfDescMon();
+        Long cpuUtilization = null;
+        if (sfDescMon != null && sfDescMon.getMonitoringInfo() != null
+                && sfDescMon.getMonitoringInfo().getResourceUtilization() != null) {
+            cpuUtilization = sfDescMon.getMonitoringInfo().getResourceUtilization().getCPUUtilization();
+        }
+        return new SfLoad(sfName, cpuUtilization, rspCount);
+    }
+}
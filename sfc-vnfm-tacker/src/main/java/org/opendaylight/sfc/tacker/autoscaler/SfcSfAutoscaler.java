@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.tacker.autoscaler;
+
+import com.google.common.util.concurrent.Futures;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.sfc.vnfm.spi.SfcVnfManager;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.ServiceFunctionType;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.ServiceFunctionTypeBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Adds service function instances through the VNF manager when the service
+ * functions of a type are overloaded, as defined by the
+ * {@link AutoscalerPolicy}.
+ *
+ * <p>
+ * The load is read periodically. Once the new instances register as service
+ * functions of the type, they take their share of the new RSPs: the load
+ * balance scheduler picks the service function with the lowest CPU
+ * utilization, and one that has not reported its utilization yet before any
+ * other. The RSPs already rendered are not moved.
+ *
+ * <p>
+ * In a cluster, only the member owning the autoscaling, as set by
+ * {@link SfcSfAutoscalerOwnership}, reads the load periodically, so that the
+ * members do not each create the new instances.
+ */
+public class SfcSfAutoscaler implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcSfAutoscaler.class);
+
+    private static final long SHUTDOWN_TIME = 5;
+
+    private final SfcVnfManager vnfManager;
+    private final SfLoadReader loadReader;
+    private final AutoscalerPolicy policy;
+    private final ScheduledExecutorService executor;
+    private final Map<SftTypeName, TypeState> typeStates = new ConcurrentHashMap<>();
+    private volatile boolean owner;
+
+    public SfcSfAutoscaler(SfcVnfManager vnfManager, SfLoadReader loadReader, AutoscalerPolicy policy) {
+        this.vnfManager = vnfManager;
+        this.loadReader = loadReader;
+        this.policy = policy;
+        this.executor = new ScheduledThreadPoolExecutor(1);
+    }
+
+    /**
+     * Start watching the load periodically, while this member owns the
+     * autoscaling.
+     */
+    public void start() {
+        LOG.info("start: autoscaling the service functions with {}", policy);
+        executor.scheduleWithFixedDelay(() -> {
+            if (owner) {
+                evaluate();
+            }
+        }, policy.getPollIntervalMillis(), policy.getPollIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Set whether this member owns the autoscaling. A member taking the
+     * ownership over starts from a fresh state, as the load it saw last may
+     * have been handled by another member since.
+     *
+     * @param owner
+     *            true if this member owns the autoscaling
+     */
+    public void setOwner(boolean owner) {
+        if (owner && !this.owner) {
+            typeStates.clear();
+        }
+        LOG.info("setOwner: autoscaling owned by this member: {}", owner);
+        this.owner = owner;
+    }
+
+    /**
+     * Read the load and scale the overloaded service function types from the
+     * calling thread.
+     *
+     * @return the number of service function instances created
+     */
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    public int evaluate() {
+        try {
+            return evaluate(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            LOG.error("evaluate: failed autoscaling the service functions", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Read the load and scale the overloaded service function types from the
+     * calling thread, at the given time.
+     *
+     * @param now
+     *            the current time, in milliseconds
+     * @return the number of service function instances created
+     */
+    public int evaluate(long now) {
+        Map<SftTypeName, List<SfLoad>> load = loadReader.readLoad();
+        if (load == null) {
+            LOG.warn("evaluate: failed reading the service function load");
+            return 0;
+        }
+        typeStates.keySet().retainAll(load.keySet());
+
+        int created = 0;
+        for (Map.Entry<SftTypeName, List<SfLoad>> entry : load.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                // no instance to scale out from
+                continue;
+            }
+            created += evaluateType(entry.getKey(), entry.getValue(), now);
+        }
+        return created;
+    }
+
+    /**
+     * Check if a service function type is considered overloaded.
+     *
+     * @param sfType
+     *            the service function type
+     * @return true if the type is overloaded
+     */
+    public boolean isOverloaded(SftTypeName sfType) {
+        TypeState typeState = typeStates.get(sfType);
+        return typeState != null && typeState.overloaded;
+    }
+
+    private int evaluateType(SftTypeName sfType, List<SfLoad> sfLoads, long now) {
+        TypeState typeState = typeStates.computeIfAbsent(sfType, key -> new TypeState());
+        int poolSize = sfLoads.size();
+        Double cpuUtilization = getAverageCpuUtilization(sfLoads);
+        double rspsPerSf = sfLoads.stream().mapToInt(SfLoad::getRspCount).sum() / (double) poolSize;
+
+        // hysteresis: a type enters the overload at the high watermarks and
+        // leaves it under the low ones, so that it does not flap around a
+        // single threshold
+        if (!typeState.overloaded && isAboveHighWatermark(cpuUtilization, rspsPerSf)) {
+            LOG.info("evaluateType: SF type {} overloaded, CPU utilization {}, RSPs per SF {}", sfType.getValue(),
+                    cpuUtilization, rspsPerSf);
+            typeState.overloaded = true;
+        } else if (typeState.overloaded && isBelowLowWatermark(cpuUtilization, rspsPerSf)) {
+            LOG.info("evaluateType: SF type {} no longer overloaded, CPU utilization {}, RSPs per SF {}",
+                    sfType.getValue(), cpuUtilization, rspsPerSf);
+            typeState.overloaded = false;
+        }
+
+        if (typeState.expectedPoolSize > 0) {
+            if (poolSize >= typeState.expectedPoolSize) {
+                LOG.info("evaluateType: the new instances of SF type {} registered, {} instances",
+                        sfType.getValue(), poolSize);
+                typeState.expectedPoolSize = 0;
+            } else if (now - typeState.lastScaleTime < policy.getRegistrationTimeoutMillis()) {
+                // the load does not account for the new instances yet
+                return 0;
+            } else {
+                LOG.warn("evaluateType: only {} of the {} expected instances of SF type {} registered", poolSize,
+                        typeState.expectedPoolSize, sfType.getValue());
+                typeState.expectedPoolSize = 0;
+            }
+        }
+
+        if (!typeState.overloaded || (typeState.lastScaleTime != null
+                && now - typeState.lastScaleTime < policy.getCooldownMillis())) {
+            return 0;
+        }
+
+        int count = Math.min(policy.getScaleStep(), policy.getMaxPoolSize() - poolSize);
+        if (count <= 0) {
+            LOG.warn("evaluateType: SF type {} overloaded but already at the maximum of {} instances",
+                    sfType.getValue(), policy.getMaxPoolSize());
+            return 0;
+        }
+
+        int created = createSfs(sfType, count);
+        typeState.lastScaleTime = now;
+        if (created > 0) {
+            typeState.expectedPoolSize = poolSize + created;
+        }
+        LOG.info("evaluateType: created {} of {} new instances of SF type {}", created, count, sfType.getValue());
+        return created;
+    }
+
+    // a VNF manager may send the requests concurrently, e.g. tacker shares
+    // one authentication among them
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private int createSfs(SftTypeName sfType, int count) {
+        ServiceFunctionType serviceFunctionType = new ServiceFunctionTypeBuilder().setType(sfType).build();
+        List<Boolean> results;
+        try {
+            results = Futures.successfulAsList(vnfManager.createSfs(serviceFunctionType, count)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (ExecutionException | RuntimeException e) {
+            // e.g. the VNF manager is not configured
+            LOG.error("createSfs: failed creating the instances of SF type {}", sfType.getValue(), e);
+            return 0;
+        }
+        // the failed requests have a null result
+        return (int) results.stream().filter(Boolean.TRUE::equals).count();
+    }
+
+    private static Double getAverageCpuUtilization(List<SfLoad> sfLoads) {
+        long total = 0;
+        int reported = 0;
+        for (SfLoad sfLoad : sfLoads) {
+            if (sfLoad.getCpuUtilization() != null) {
+                total += sfLoad.getCpuUtilization();
+                reported++;
+            }
+        }
+        return reported == 0 ? null : (double) total / reported;
+    }
+
+    private boolean isAboveHighWatermark(Double cpuUtilization, double rspsPerSf) {
+        return (cpuUtilization != null && cpuUtilization >= policy.getHighCpuUtilization())
+                || (policy.getHighRspsPerSf() > 0 && rspsPerSf >= policy.getHighRspsPerSf());
+    }
+
+    private boolean isBelowLowWatermark(Double cpuUtilization, double rspsPerSf) {
+        return (cpuUtilization == null || cpuUtilization < policy.getLowCpuUtilization())
+                && (policy.getHighRspsPerSf() == 0 || rspsPerSf < policy.getLowRspsPerSf());
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(SHUTDOWN_TIME, TimeUnit.SECONDS);
+    }
+
+    private static class TypeState {
+        private boolean overloaded;
+        private Long lastScaleTime;
+        // the pool size once the instances being created register, 0 if none
+        private int expectedPoolSize;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.tacker.autoscaler;
+
+import org.opendaylight.mdsal.eos.binding.api.Entity;
+import org.opendaylight.mdsal.eos.binding.api.EntityOwnershipCandidateRegistration;
+import org.opendaylight.mdsal.eos.binding.api.EntityOwnershipChange;
+import org.opendaylight.mdsal.eos.binding.api.EntityOwnershipListener;
+import org.opendaylight.mdsal.eos.binding.api.EntityOwnershipListenerRegistration;
+import org.opendaylight.mdsal.eos.binding.api.EntityOwnershipService;
+import org.opendaylight.mdsal.eos.common.api.CandidateAlreadyRegisteredException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Elects the cluster member running the {@link SfcSfAutoscaler}, using the
+ * entity ownership service. Every member registers as a candidate for the
+ * ownership of a single autoscaler entity, and only its owner scales the
+ * service functions out. When the owner fails, the ownership moves to one of
+ * the remaining members.
+ */
+public class SfcSfAutoscalerOwnership implements EntityOwnershipListener, AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcSfAutoscalerOwnership.class);
+
+    public static final String ENTITY_TYPE = "sfc-sf-autoscaler";
+    public static final String ENTITY_NAME = "autoscaler";
+
+    private final SfcSfAutoscaler autoscaler;
+    private final EntityOwnershipListenerRegistration listenerRegistration;
+    private final EntityOwnershipCandidateRegistration candidateRegistration;
+
+    /**
+     * Constructor.
+     *
+     * @param entityOwnershipService
+     *            - the cluster entity ownership service
+     * @param autoscaler
+     *            - the autoscaler to run while this member owns it
+     */
+    public SfcSfAutoscalerOwnership(EntityOwnershipService entityOwnershipService, SfcSfAutoscaler autoscaler) {
+        this.autoscaler = autoscaler;
+        this.listenerRegistration = entityOwnershipService.registerListener(ENTITY_TYPE, this);
+        this.candidateRegistration = registerCandidate(entityOwnershipService);
+    }
+
+    private static EntityOwnershipCandidateRegistration registerCandidate(
+            EntityOwnershipService entityOwnershipService) {
+        try {
+            return entityOwnershipService.registerCandidate(new Entity(ENTITY_TYPE, ENTITY_NAME));
+        } catch (CandidateAlreadyRegisteredException e) {
+            LOG.warn("registerCandidate: already registered as candidate for the autoscaler", e);
+            return null;
+        }
+    }
+
+    @Override
+    public void ownershipChanged(EntityOwnershipChange ownershipChange) {
+        LOG.info("ownershipChanged: autoscaler ownership changed to {}", ownershipChange.getState());
+        autoscaler.setOwner(ownershipChange.getState().isOwner());
+    }
+
+    @Override
+    public void close() {
+        listenerRegistration.close();
+        if (candidateRegistration != null) {
+            candidateRegistration.close();
+        }
+        autoscaler.setOwner(false);
+    }
+}
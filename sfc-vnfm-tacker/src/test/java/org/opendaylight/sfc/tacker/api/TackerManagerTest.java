@@ -8,6 +8,7 @@
 
 package org.opendaylight.sfc.tacker.api;
 
+import com.google.common.util.concurrent.Futures;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.sun.jersey.api.container.grizzly2.GrizzlyServerFactory;
@@ -20,9 +21,12 @@ import java.io.IOException;
 import java.net.URI;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.DefaultValue;
@@ -69,7 +73,10 @@ public class TackerManagerTest extends JerseyTest {
     private static final int KEYSTONE_PORT = 4321;
     private static final DateSerializer DATE_SERIALIZER = new DateSerializer();
     private static final Gson GSON = new GsonBuilder().registerTypeAdapter(Date.class, DATE_SERIALIZER).create();
-    private static final List<String> VNFS = new ArrayList<>();
+    private static final List<String> VNFS = Collections.synchronizedList(new ArrayList<>());
+    private static final AtomicInteger TOKEN_REQUESTS = new AtomicInteger();
+    private static final int BULK_SIZE = 20;
+    private static final long BULK_TIMEOUT_SEC = 30;
     private static TackerManager tackerManager;
     private static HttpServer server;
     private static HttpServer keystoneServer;
@@ -232,6 +239,57 @@ public class TackerManagerTest extends JerseyTest {
         Assert.assertFalse(tackerManager.deleteSf(sf));
     }
 
+    @Test
+    public void createSfsTest() throws Exception {
+        TackerManager bulkTackerManager = buildTackerManager("admin");
+        int tokenRequests = TOKEN_REQUESTS.get();
+        ServiceFunctionType sfType = new ServiceFunctionTypeBuilder().setType(new SftTypeName("firewall")).build();
+
+        List<Boolean> results = Futures.allAsList(bulkTackerManager.createSfs(sfType, BULK_SIZE))
+            .get(BULK_TIMEOUT_SEC, TimeUnit.SECONDS);
+        Assert.assertEquals(BULK_SIZE, results.size());
+        Assert.assertFalse(results.contains(false));
+        // all the concurrent creations shared one token
+        Assert.assertEquals(tokenRequests + 1, TOKEN_REQUESTS.get());
+
+        ServiceFunction sf = new ServiceFunctionBuilder().setName(new SfName(sfType.getType().getValue()))
+            .setType(sfType.getType())
+            .build();
+        results = Futures.allAsList(bulkTackerManager.deleteSfs(Collections.nCopies(BULK_SIZE, sf)))
+            .get(BULK_TIMEOUT_SEC, TimeUnit.SECONDS);
+        Assert.assertFalse(results.contains(false));
+        Assert.assertEquals(tokenRequests + 1, TOKEN_REQUESTS.get());
+        bulkTackerManager.close();
+    }
+
+    @Test
+    public void expiringTokenIsRenewed() throws Exception {
+        // the keystone stub issues tokens expiring within the refresh margin
+        // to this user
+        TackerManager expiringTackerManager = buildTackerManager("expiring");
+        int tokenRequests = TOKEN_REQUESTS.get();
+        ServiceFunction sf =
+                new ServiceFunctionBuilder().setName(new SfName("Nope")).setType(new SftTypeName("nope")).build();
+
+        Assert.assertFalse(expiringTackerManager.deleteSf(sf));
+        Assert.assertFalse(expiringTackerManager.deleteSf(sf));
+        Assert.assertEquals(tokenRequests + 2, TOKEN_REQUESTS.get());
+        expiringTackerManager.close();
+    }
+
+    private static TackerManager buildTackerManager(String username) {
+        return TackerManager.builder()
+            .setBaseUri(BASE_URI)
+            .setTackerPort(BASE_PORT)
+            .setKeystonePort(KEYSTONE_PORT)
+            .setMaxConcurrentRequests(4)
+            .setAuth(Auth.builder()
+                .setTenantName("admin")
+                .setPasswordCredentials(new PasswordCredentials(username, "devstack"))
+                .build())
+            .build();
+    }
+
     @Override
     protected AppDescriptor configure() {
         return new WebAppDescriptor.Builder().build();
@@ -306,15 +364,17 @@ public class TackerManagerTest extends JerseyTest {
         @POST
         public Response postVnf(String json) {
             KeystoneRequest testRequest = GSON.fromJson(json, KeystoneRequest.class);
+            String username = testRequest.getAuth().getPasswordCredentials().getUsername();
             if (testRequest.getAuth().getTenantName().equals("admin")
-                    && testRequest.getAuth().getPasswordCredentials().getUsername().equals("admin")
+                    && (username.equals("admin") || username.equals("expiring"))
                     && testRequest.getAuth().getPasswordCredentials().getPassword().equals("devstack")) {
                 SimpleDateFormat dateFormatGmt = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS");
                 dateFormatGmt.setTimeZone(TimeZone.getTimeZone("GMT"));
                 new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS");
 
                 Date now = DateUtils.getUtcDate(new Date());
-                Date expire = DateUtils.addHours(new Date(now.getTime()), 1);
+                Date expire = username.equals("expiring") ? new Date(now.getTime() + 1000)
+                        : DateUtils.addHours(new Date(now.getTime()), 1);
 
                 token = Token.builder()
                     .setIssuedAt(now)
@@ -324,6 +384,7 @@ public class TackerManagerTest extends JerseyTest {
                         .setName("admin").build()).setAuditIds(new String[] {"LUMVW2kmQU29kwkZv8VCZg"}).build();
 
                 String response = "{\"access\":{\"token\":" + GSON.toJson(token) + "}}";
+                TOKEN_REQUESTS.incrementAndGet();
 
                 return Response.status(Response.Status.OK)
                     .type(MediaType.APPLICATION_JSON_TYPE)
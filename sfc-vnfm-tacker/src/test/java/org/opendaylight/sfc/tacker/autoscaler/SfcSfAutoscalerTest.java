@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.tacker.autoscaler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
+
+public class SfcSfAutoscalerTest {
+
+    private static final SftTypeName FIREWALL = new SftTypeName("firewall");
+    private static final SftTypeName DPI = new SftTypeName("dpi");
+    private static final long COOLDOWN = 1000;
+    private static final long REGISTRATION_TIMEOUT = 5000;
+
+    private SimulatedVnfManager vnfManager;
+    private SfcSfAutoscaler autoscaler;
+
+    @Before
+    public void setUp() {
+        vnfManager = new SimulatedVnfManager();
+        AutoscalerPolicy policy = AutoscalerPolicy.builder()
+                .setHighCpuUtilization(80)
+                .setLowCpuUtilization(60)
+                .setHighRspsPerSf(10)
+                .setLowRspsPerSf(5)
+                .setScaleStep(2)
+                .setMaxPoolSize(5)
+                .setCooldownMillis(COOLDOWN)
+                .setRegistrationTimeoutMillis(REGISTRATION_TIMEOUT)
+                .build();
+        autoscaler = new SfcSfAutoscaler(vnfManager, vnfManager, policy);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        autoscaler.close();
+    }
+
+    @Test
+    public void scaleUpOverloadedType() {
+        vnfManager.setLoad(FIREWALL, 2, 90L, 1);
+        vnfManager.setLoad(DPI, 2, 50L, 1);
+
+        assertEquals(2, autoscaler.evaluate(0));
+        assertTrue(autoscaler.isOverloaded(FIREWALL));
+        assertFalse(autoscaler.isOverloaded(DPI));
+    }
+
+    @Test
+    public void scaleUpOnRspCount() {
+        vnfManager.setLoad(FIREWALL, 2, null, 12);
+
+        assertEquals(2, autoscaler.evaluate(0));
+    }
+
+    @Test
+    public void waitForRegistrationAndCooldown() {
+        vnfManager.setLoad(FIREWALL, 1, 90L, 1);
+        assertEquals(2, autoscaler.evaluate(0));
+
+        // still overloaded, but the new instances did not register yet
+        assertEquals(0, autoscaler.evaluate(COOLDOWN + 1));
+
+        vnfManager.registerPendingInstances();
+        // the new instances have not reported their load yet, the average
+        // of the others did not change
+        assertEquals(2, autoscaler.evaluate(COOLDOWN + 2));
+        assertEquals(4, vnfManager.getCreatedInstances());
+
+        // in cooldown
+        vnfManager.registerPendingInstances();
+        assertEquals(0, autoscaler.evaluate(COOLDOWN + 3));
+    }
+
+    @Test
+    public void registrationTimeout() {
+        vnfManager.setLoad(FIREWALL, 1, 90L, 1);
+        assertEquals(2, autoscaler.evaluate(0));
+
+        assertEquals(0, autoscaler.evaluate(REGISTRATION_TIMEOUT - 1));
+        assertEquals(2, autoscaler.evaluate(REGISTRATION_TIMEOUT));
+    }
+
+    @Test
+    public void hysteresis() {
+        vnfManager.setLoad(FIREWALL, 1, 90L, 1);
+        assertEquals(2, autoscaler.evaluate(0));
+        vnfManager.registerPendingInstances();
+
+        // between the watermarks the type stays overloaded
+        vnfManager.setLoad(FIREWALL, 3, 70L, 1);
+        assertEquals(2, autoscaler.evaluate(COOLDOWN));
+        assertTrue(autoscaler.isOverloaded(FIREWALL));
+        vnfManager.registerPendingInstances();
+
+        vnfManager.setLoad(FIREWALL, 5, 50L, 1);
+        assertEquals(0, autoscaler.evaluate(2 * COOLDOWN));
+        assertFalse(autoscaler.isOverloaded(FIREWALL));
+
+        // and is not overloaded again until the high watermark
+        vnfManager.setLoad(FIREWALL, 5, 75L, 1);
+        assertEquals(0, autoscaler.evaluate(3 * COOLDOWN));
+        assertFalse(autoscaler.isOverloaded(FIREWALL));
+    }
+
+    @Test
+    public void maxPoolSize() {
+        vnfManager.setLoad(FIREWALL, 4, 90L, 1);
+        assertEquals(1, autoscaler.evaluate(0));
+        vnfManager.registerPendingInstances();
+
+        assertEquals(0, autoscaler.evaluate(COOLDOWN));
+        assertEquals(1, vnfManager.getCreatedInstances());
+    }
+
+    @Test
+    public void failedCreationRetriedAfterCooldown() {
+        vnfManager.setLoad(FIREWALL, 1, 90L, 1);
+        vnfManager.setFailing(true);
+        assertEquals(0, autoscaler.evaluate(0));
+
+        vnfManager.setFailing(false);
+        assertEquals(0, autoscaler.evaluate(COOLDOWN - 1));
+        assertEquals(2, autoscaler.evaluate(COOLDOWN));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.tacker.autoscaler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.opendaylight.sfc.vnfm.spi.SfcVnfManager;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.ServiceFunctionType;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ss.rev140701.service.statistics.group.StatisticByTimestamp;
+
+/**
+ * A VNF manager backend and SF load source for testing the autoscaler. The
+ * instances it creates only show up in the load once registered, and the
+ * load of each type is set by the test.
+ */
+public class SimulatedVnfManager implements SfcVnfManager, SfLoadReader {
+
+    private final Map<SftTypeName, List<SfLoad>> load = new HashMap<>();
+    private final Map<SftTypeName, Integer> pendingInstances = new HashMap<>();
+    private int createdInstances;
+    private boolean failing;
+
+    /**
+     * Set the load of a type, the same for all its instances.
+     *
+     * @param sfType
+     *            the service function type
+     * @param instances
+     *            the number of registered instances
+     * @param cpuUtilization
+     *            the CPU utilization of each instance, null if not reported
+     * @param rspCount
+     *            the number of RSPs of each instance
+     */
+    public void setLoad(SftTypeName sfType, int instances, Long cpuUtilization, int rspCount) {
+        List<SfLoad> sfLoads = new ArrayList<>();
+        for (int i = 0; i < instances; i++) {
+            sfLoads.add(new SfLoad(new SfName(sfType.getValue() + "-" + i), cpuUtilization, rspCount));
+        }
+        load.put(sfType, sfLoads);
+    }
+
+    /**
+     * Register the instances created so far, which have not reported their
+     * load yet.
+     */
+    public void registerPendingInstances() {
+        pendingInstances.forEach((sfType, count) -> {
+            List<SfLoad> sfLoads = load.computeIfAbsent(sfType, key -> new ArrayList<>());
+            for (int i = 0; i < count; i++) {
+                sfLoads.add(new SfLoad(new SfName(sfType.getValue() + "-" + sfLoads.size()), null, 0));
+            }
+        });
+        pendingInstances.clear();
+    }
+
+    public int getCreatedInstances() {
+        return createdInstances;
+    }
+
+    public void setFailing(boolean failing) {
+        this.failing = failing;
+    }
+
+    @Override
+    public Map<SftTypeName, List<SfLoad>> readLoad() {
+        Map<SftTypeName, List<SfLoad>> copy = new HashMap<>();
+        load.forEach((sfType, sfLoads) -> copy.put(sfType, new ArrayList<>(sfLoads)));
+        return copy;
+    }
+
+    @Override
+    public boolean createSf(ServiceFunctionType sfType) {
+        if (failing) {
+            return false;
+        }
+        pendingInstances.merge(sfType.getType(), 1, Integer::sum);
+        createdInstances++;
+        return true;
+    }
+
+    @Override
+    public boolean deleteSf(ServiceFunction sf) {
+        return false;
+    }
+
+    @Override
+    public StatisticByTimestamp getSfStatistics(ServiceFunction sf) {
+        return null;
+    }
+}
@@ -7,11 +7,26 @@
  */
 package org.opendaylight.sfc.sfclisp.provider;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.opendaylight.lispflowmapping.lisp.util.LispAddressUtil;
 import org.opendaylight.lispflowmapping.lisp.util.SourceDestKeyHelper;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
@@ -62,12 +77,25 @@ public class LispUpdater implements ILispUpdater, AutoCloseable {
 
     private static final Logger LOG = LoggerFactory.getLogger(LispUpdater.class);
 
+    private static final long MAPPING_CACHE_TTL_SECONDS = 60;
+    private static final long MAPPING_CACHE_SIZE = 10000;
+
     private final ExecutorService executor = SpecialExecutors.newBlockingBoundedCachedThreadPool(
             5, 1000, "LispUpdater");
+    // the mappings looked up in the mapping service, by EID. The mappings
+    // registered or removed from here are invalidated, the others expire
+    private final Cache<Eid, MappingRecord> mappingCache;
     private final OdlMappingserviceService lfmService;
 
     public LispUpdater(OdlMappingserviceService lfmService) {
+        this(lfmService, Ticker.systemTicker());
+    }
+
+    @VisibleForTesting
+    LispUpdater(OdlMappingserviceService lfmService, Ticker ticker) {
         this.lfmService = lfmService;
+        this.mappingCache = CacheBuilder.newBuilder().ticker(ticker)
+                .expireAfterWrite(MAPPING_CACHE_TTL_SECONDS, TimeUnit.SECONDS).maximumSize(MAPPING_CACHE_SIZE).build();
     }
 
     public OdlMappingserviceService getMappingserviceService() {
@@ -94,13 +122,144 @@ public class LispUpdater implements ILispUpdater, AutoCloseable {
         }
     }
 
+    /**
+     * Look up in parallel the mappings of the LISP locators of the given
+     * SFFs, so that updating their LISP data afterwards does not wait on the
+     * mapping service for each of them.
+     *
+     * @param serviceFunctionForwarders
+     *            the SFFs to update
+     */
+    public void prefetchSffLispData(Collection<ServiceFunctionForwarder> serviceFunctionForwarders) {
+        Set<Eid> eids = new LinkedHashSet<>();
+        for (ServiceFunctionForwarder serviceFunctionForwarder : serviceFunctionForwarders) {
+            Lisp lispLocation = getLispLocationFromSff(serviceFunctionForwarder.getSffDataPlaneLocator());
+            if (lispLocation != null) {
+                eids.add(getLocatorEid(lispLocation));
+            }
+        }
+        fetchMappings(eids);
+    }
+
+    /**
+     * Look up in parallel the mappings of the LISP locators of the given SFs,
+     * so that updating their LISP data afterwards does not wait on the
+     * mapping service for each of them.
+     *
+     * @param serviceFunctions
+     *            the SFs to update
+     */
+    public void prefetchSfLispData(Collection<ServiceFunction> serviceFunctions) {
+        Set<Eid> eids = new LinkedHashSet<>();
+        for (ServiceFunction serviceFunction : serviceFunctions) {
+            Lisp lispLocation = getLispLocationFromSf(serviceFunction.getSfDataPlaneLocator());
+            if (lispLocation != null) {
+                eids.add(getLocatorEid(lispLocation));
+            }
+        }
+        fetchMappings(eids);
+    }
+
+    private static Eid getLocatorEid(Lisp lispLocation) {
+        return LispAddressUtil.toIpPrefixEid(lispLocation.getEid(), 0);
+    }
+
+    private MappingRecord getMapping(Eid eid) {
+        MappingRecord mapping = mappingCache.getIfPresent(eid);
+        if (mapping == null) {
+            Object[] methodParameters = { eid };
+            mapping = (MappingRecord) SfcLispUtil.submitCallable(
+                    new SfcLispFlowMappingApi(lfmService, SfcLispFlowMappingApi.Method.GET_MAPPING, methodParameters),
+                    executor);
+            if (mapping != null) {
+                mappingCache.put(eid, mapping);
+            }
+        }
+        return mapping;
+    }
+
+    private void fetchMappings(Collection<Eid> eids) {
+        List<Eid> missingEids = new ArrayList<>();
+        List<Callable<Object>> callables = new ArrayList<>();
+        for (Eid eid : eids) {
+            if (mappingCache.getIfPresent(eid) == null) {
+                Object[] methodParameters = { eid };
+                missingEids.add(eid);
+                callables.add(new SfcLispFlowMappingApi(lfmService, SfcLispFlowMappingApi.Method.GET_MAPPING,
+                        methodParameters));
+            }
+        }
+
+        List<Object> replies = invokeAll(callables);
+        for (int i = 0; i < replies.size(); i++) {
+            if (replies.get(i) != null) {
+                mappingCache.put(missingEids.get(i), (MappingRecord) replies.get(i));
+            }
+        }
+    }
+
+    private void addMappings(Map<Eid, List<Rloc>> mappings) {
+        List<Callable<Object>> callables = new ArrayList<>();
+        mappings.forEach((eid, locators) -> {
+            Object[] methodParameters = { eid, locators };
+            callables.add(new SfcLispFlowMappingApi(lfmService, SfcLispFlowMappingApi.Method.ADD_MAPPING,
+                    methodParameters));
+        });
+        invokeAll(callables);
+        mappingCache.invalidateAll(mappings.keySet());
+    }
+
+    private void removeMappings(Collection<Eid> eids) {
+        List<Callable<Object>> callables = new ArrayList<>();
+        for (Eid eid : eids) {
+            Object[] methodParameters = { eid };
+            callables.add(new SfcLispFlowMappingApi(lfmService, SfcLispFlowMappingApi.Method.DELETE_MAPPING,
+                    methodParameters));
+        }
+        invokeAll(callables);
+        mappingCache.invalidateAll(eids);
+    }
+
+    /**
+     * Run mapping service calls in parallel on the executor and wait for all
+     * of them.
+     *
+     * @param callables
+     *            the calls to run
+     * @return the results of the calls, in order, null for the ones that
+     *         failed
+     */
+    private List<Object> invokeAll(List<Callable<Object>> callables) {
+        List<Object> results = new ArrayList<>(callables.size());
+        if (callables.isEmpty()) {
+            return results;
+        }
+
+        List<Future<Object>> futures;
+        try {
+            futures = executor.invokeAll(callables);
+        } catch (InterruptedException e) {
+            LOG.warn("Interrupted while running {} mapping service calls", callables.size(), e);
+            Thread.currentThread().interrupt();
+            return Collections.nCopies(callables.size(), null);
+        }
+
+        for (Future<Object> future : futures) {
+            Object result = null;
+            try {
+                result = future.get();
+            } catch (InterruptedException | ExecutionException e) {
+                LOG.warn("Mapping service call failed", e);
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
     private
             ServiceFunctionForwarder
                 updateLispData(Lisp lispLocation, ServiceFunctionForwarder serviceFunctionForwarder) {
-        Object[] methodParameters = { LispAddressUtil.toIpPrefixEid(lispLocation.getEid(), 0) };
-        MappingRecord reply = (MappingRecord) SfcLispUtil.submitCallable(
-                new SfcLispFlowMappingApi(lfmService, SfcLispFlowMappingApi.Method.GET_MAPPING, methodParameters),
-                executor);
+        MappingRecord reply = getMapping(getLocatorEid(lispLocation));
         if (reply == null) {
             return serviceFunctionForwarder;
         }
@@ -125,10 +284,7 @@ public class LispUpdater implements ILispUpdater, AutoCloseable {
     }
 
     private ServiceFunction updateLispData(Lisp lispLocation, ServiceFunction serviceFunction) {
-        Object[] methodParameters = { LispAddressUtil.toIpPrefixEid(lispLocation.getEid(), 0) };
-        MappingRecord reply = (MappingRecord) SfcLispUtil.submitCallable(
-                new SfcLispFlowMappingApi(lfmService, SfcLispFlowMappingApi.Method.GET_MAPPING, methodParameters),
-                executor);
+        MappingRecord reply = getMapping(getLocatorEid(lispLocation));
         if (reply == null) {
             return serviceFunction;
         }
@@ -212,10 +368,7 @@ public class LispUpdater implements ILispUpdater, AutoCloseable {
     }
 
     private IpAddress findLastHop(Eid prefix) {
-        Object[] methodParameters = { prefix };
-        MappingRecord reply = (MappingRecord) SfcLispUtil.submitCallable(
-                new SfcLispFlowMappingApi(lfmService, SfcLispFlowMappingApi.Method.GET_MAPPING, methodParameters),
-                executor);
+        MappingRecord reply = getMapping(prefix);
         if (reply == null) {
             return null;
         }
@@ -237,11 +390,7 @@ public class LispUpdater implements ILispUpdater, AutoCloseable {
 
     private void buildAndRegisterTeMapping(Eid eid, List<IpAddress> hopList) {
         Rloc locatorPath = LispAddressUtil.asTeLcafRloc(hopList);
-        List<Rloc> locators = Collections.singletonList(locatorPath);
-        Object[] methodParameters = { eid, locators };
-        SfcLispUtil.submitCallable(
-                new SfcLispFlowMappingApi(lfmService, SfcLispFlowMappingApi.Method.ADD_MAPPING, methodParameters),
-                executor);
+        addMappings(Collections.singletonMap(eid, Collections.singletonList(locatorPath)));
     }
 
     private Eid getSrcDstFromAce(AceIp ipMatch) {
@@ -371,20 +520,41 @@ public class LispUpdater implements ILispUpdater, AutoCloseable {
         }
     }
 
-    private void registerMapping(Eid eid, Rloc rloc) {
-        List<Rloc> locators = Collections.singletonList(rloc);
-        Object[] methodParameters = { eid, locators };
-        SfcLispUtil.submitCallable(
-                new SfcLispFlowMappingApi(lfmService, SfcLispFlowMappingApi.Method.ADD_MAPPING, methodParameters),
-                executor);
+    public void registerPath(RenderedServicePath rsp) {
+        registerPaths(Collections.singletonList(rsp));
     }
 
-    private void registerElpMapping(Eid eid, List<IpAddress> hopList) {
-        Rloc locatorPath = LispAddressUtil.asTeLcafRloc(hopList);
-        registerMapping(eid, locatorPath);
+    /**
+     * Register the service path mappings of RSPs, with the explicit locator
+     * path of their hops. The SFFs shared by the RSPs are read once and the
+     * mappings are registered in parallel.
+     *
+     * @param rsps
+     *            the RSPs to register
+     */
+    public void registerPaths(Collection<RenderedServicePath> rsps) {
+        Map<SffName, ServiceFunctionForwarder> sffs = new HashMap<>();
+        Map<Eid, List<Rloc>> mappings = new LinkedHashMap<>();
+        for (RenderedServicePath rsp : rsps) {
+            List<IpAddress> hopIpList = getHopIpList(rsp, sffs);
+            if (hopIpList != null) {
+                Rloc locatorPath = LispAddressUtil.asTeLcafRloc(hopIpList);
+                mappings.put(getServicePathEid(rsp), Collections.singletonList(locatorPath));
+            }
+        }
+        addMappings(mappings);
+
+        // TODO for each ACE in the RSP's ACL we should insert a SourceDest
+        // mapping pointing at the ServicePath LCAF.
+        // For now we can't because we default to SourceDest mapping lookups in
+        // LFM so both the classifier and the end
+        // of chain xTR would retrieve the same mapping. The solution is to use
+        // an ELP as a locator BUT at this time
+        // the hops can only be SimpleAddresses. The ServicePath LCAF is not
+        // one.
     }
 
-    public void registerPath(RenderedServicePath rsp) {
+    private List<IpAddress> getHopIpList(RenderedServicePath rsp, Map<SffName, ServiceFunctionForwarder> sffs) {
         // build locator paths from rsp hops and the locators of each src/dst
         // pair of the associated
         // acl's aces
@@ -393,10 +563,11 @@ public class LispUpdater implements ILispUpdater, AutoCloseable {
         for (RenderedServicePathHop hop : hops) {
             SffDataPlaneLocatorName locatorName = hop.getServiceFunctionForwarderLocator();
             SffName sffName = hop.getServiceFunctionForwarder();
-            ServiceFunctionForwarder sff = SfcProviderServiceForwarderAPI.readServiceFunctionForwarder(sffName);
+            ServiceFunctionForwarder sff = sffs.computeIfAbsent(sffName,
+                    SfcProviderServiceForwarderAPI::readServiceFunctionForwarder);
             if (sff == null) {
                 LOG.warn("Couldn't find SFF {} that supports hop {} in datastore", sffName, hop.getHopNumber());
-                return;
+                return null;
             }
 
             List<SffDataPlaneLocator> locators = sff.getSffDataPlaneLocator();
@@ -421,30 +592,16 @@ public class LispUpdater implements ILispUpdater, AutoCloseable {
             }
             if (!found) {
                 LOG.debug("Couldn't find locator for SFF {}. Aborting!", sff);
-                return;
+                return null;
             }
         }
+        return hopIpList;
+    }
 
+    private static Eid getServicePathEid(RenderedServicePath rsp) {
         // TODO fix VNI. The RSP's tenant ID is a string (UUID?) we need a long
-        Eid spEid = LispAddressUtil.asServicePathEid(0, rsp.getPathId().longValue(),
+        return LispAddressUtil.asServicePathEid(0, rsp.getPathId().longValue(),
                 LispAddressUtil.STARTING_SERVICE_INDEX);
-        registerElpMapping(spEid, hopIpList);
-
-        // TODO for each ACE in the RSP's ACL we should insert a SourceDest
-        // mapping pointing at the ServicePath LCAF.
-        // For now we can't because we default to SourceDest mapping lookups in
-        // LFM so both the classifier and the end
-        // of chain xTR would retrieve the same mapping. The solution is to use
-        // an ELP as a locator BUT at this time
-        // the hops can only be SimpleAddresses. The ServicePath LCAF is not
-        // one.
-    }
-
-    private void removeMapping(Eid eid) {
-        Object[] methodParameters = { eid };
-        SfcLispUtil.submitCallable(
-                new SfcLispFlowMappingApi(lfmService, SfcLispFlowMappingApi.Method.DELETE_MAPPING, methodParameters),
-                executor);
     }
 
     @Deprecated
@@ -460,17 +617,28 @@ public class LispUpdater implements ILispUpdater, AutoCloseable {
                 if (matches.getAceType() instanceof AceIp) {
                     AceIp ipMatch = (AceIp) matches.getAceType();
                     Eid srcDst = getSrcDstFromAce(ipMatch);
-                    removeMapping(srcDst);
+                    removeMappings(Collections.singletonList(srcDst));
                 }
             }
         }
     }
 
     public void deletePath(RenderedServicePath rsp) {
-        // remove ServicePath mapping
-        Eid spEid = LispAddressUtil.asServicePathEid(0, rsp.getPathId().longValue(),
-                LispAddressUtil.STARTING_SERVICE_INDEX);
-        removeMapping(spEid);
+        deletePaths(Collections.singletonList(rsp));
+    }
+
+    /**
+     * Remove the service path mappings of RSPs, in parallel.
+     *
+     * @param rsps
+     *            the RSPs to remove
+     */
+    public void deletePaths(Collection<RenderedServicePath> rsps) {
+        List<Eid> spEids = new ArrayList<>();
+        for (RenderedServicePath rsp : rsps) {
+            spEids.add(getServicePathEid(rsp));
+        }
+        removeMappings(spEids);
     }
 
     // "Possible null pointer dereference of acl1 on branch that might be infeasible" - false positive - ignore it.
@@ -493,31 +661,28 @@ public class LispUpdater implements ILispUpdater, AutoCloseable {
             return false;
         }
 
+        // the rule names are the keys of the ACEs
+        Map<String, Ace> aces2ByName = new HashMap<>();
+        for (Ace ace2 : aces2) {
+            aces2ByName.put(ace2.getRuleName(), ace2);
+        }
+
         for (Ace it1 : aces1) {
             Matches matches1 = it1.getMatches();
             if (!(matches1.getAceType() instanceof AceIp)) {
                 continue;
             }
-            AceIp ipMatch1 = (AceIp) matches1.getAceType();
-            Eid sd1 = getSrcDstFromAce(ipMatch1);
-
-            boolean found = false;
-            for (Ace it2 : aces2) {
-                if (it1.getRuleName().equals(it2.getRuleName())) {
-                    found = true;
-                    Matches matches2 = it2.getMatches();
-                    if (!(matches2.getAceType() instanceof AceIp)) {
-                        continue;
-                    }
-                    AceIp ipMatch2 = (AceIp) matches2.getAceType();
-                    Eid sd2 = getSrcDstFromAce(ipMatch2);
-                    if (!sd1.equals(sd2)) {
-                        return false;
-                    }
-                }
+            Ace it2 = aces2ByName.get(it1.getRuleName());
+            if (it2 == null) {
+                return false;
             }
-
-            if (!found) {
+            Matches matches2 = it2.getMatches();
+            if (!(matches2.getAceType() instanceof AceIp)) {
+                continue;
+            }
+            Eid sd1 = getSrcDstFromAce((AceIp) matches1.getAceType());
+            Eid sd2 = getSrcDstFromAce((AceIp) matches2.getAceType());
+            if (!Objects.equals(sd1, sd2)) {
                 return false;
             }
         }
@@ -15,6 +15,8 @@
 package org.opendaylight.sfc.sfclisp.provider.listener;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.DataObjectModification;
 import org.opendaylight.controller.md.sal.binding.api.DataTreeModification;
@@ -38,30 +40,43 @@ public class SfcLispRspEntryDataListener extends SfcLispAbstractDataListener<Ren
 
     @Override
     public void onDataTreeChanged(Collection<DataTreeModification<RenderedServicePath>> changes) {
+        // the RSPs to register and delete, by path id, so that the mappings
+        // of the whole batch are sent together, for the last change of each
+        // path only
+        Map<Long, RenderedServicePath> registeredRsps = new LinkedHashMap<>();
+        Map<Long, RenderedServicePath> deletedRsps = new LinkedHashMap<>();
         for (DataTreeModification<RenderedServicePath> change: changes) {
             DataObjectModification<RenderedServicePath> rootNode = change.getRootNode();
             switch (rootNode.getModificationType()) {
                 case SUBTREE_MODIFIED:
                 case WRITE:
+                    RenderedServicePath newRsp = rootNode.getDataAfter();
                     if (rootNode.getDataBefore() == null) {
-                        RenderedServicePath renderedServicePath = rootNode.getDataAfter();
-                        LOG.debug("\nCreated Rendered Service Path: {}", renderedServicePath.toString());
-                        lispUpdater.registerPath(renderedServicePath);
+                        LOG.debug("\nCreated Rendered Service Path: {}", newRsp.toString());
                     } else {
-                        RenderedServicePath newRsp = rootNode.getDataAfter();
-                        RenderedServicePath oldRsp = rootNode.getDataBefore();
-                        LOG.debug("\nUpdated Rendered Service Path \nnew: {} \noriginal: {}", newRsp, oldRsp);
-                        lispUpdater.updatePath(newRsp, oldRsp);
+                        LOG.debug("\nUpdated Rendered Service Path \nnew: {} \noriginal: {}", newRsp,
+                                rootNode.getDataBefore());
                     }
+                    // an update overwrites the mapping
+                    deletedRsps.remove(newRsp.getPathId());
+                    registeredRsps.put(newRsp.getPathId(), newRsp);
                     break;
                 case DELETE:
                     RenderedServicePath renderedServicePath = rootNode.getDataBefore();
                     LOG.debug("\nRemoved Rendered Service Path: {}", renderedServicePath);
-                    lispUpdater.deletePath(renderedServicePath);
+                    registeredRsps.remove(renderedServicePath.getPathId());
+                    deletedRsps.put(renderedServicePath.getPathId(), renderedServicePath);
                     break;
                 default:
                     break;
             }
         }
+
+        if (!deletedRsps.isEmpty()) {
+            lispUpdater.deletePaths(deletedRsps.values());
+        }
+        if (!registeredRsps.isEmpty()) {
+            lispUpdater.registerPaths(registeredRsps.values());
+        }
     }
 }
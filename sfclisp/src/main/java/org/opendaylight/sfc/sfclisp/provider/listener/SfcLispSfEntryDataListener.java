@@ -7,7 +7,9 @@
  */
 package org.opendaylight.sfc.sfclisp.provider.listener;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.DataObjectModification;
 import org.opendaylight.controller.md.sal.binding.api.DataTreeModification;
@@ -50,6 +52,7 @@ public class SfcLispSfEntryDataListener extends SfcLispAbstractDataListener<Serv
             LOG.debug("\n########## Start: {}", Thread.currentThread().getStackTrace()[1]);
         }
 
+        List<ServiceFunction> createdServiceFunctions = new ArrayList<>();
         for (DataTreeModification<ServiceFunction> change: changes) {
             DataObjectModification<ServiceFunction> rootNode = change.getRootNode();
             switch (rootNode.getModificationType()) {
@@ -59,7 +62,7 @@ public class SfcLispSfEntryDataListener extends SfcLispAbstractDataListener<Serv
                         ServiceFunction createdServiceFunction = rootNode.getDataAfter();
 
                         if (lispUpdater.containsLispAddress(createdServiceFunction)) {
-                            sfcProviderServiceLispAPI.lispUpdateServiceFunction(createdServiceFunction);
+                            createdServiceFunctions.add(createdServiceFunction);
                         }
                     }
                     break;
@@ -68,6 +71,11 @@ public class SfcLispSfEntryDataListener extends SfcLispAbstractDataListener<Serv
             }
         }
 
+        if (!createdServiceFunctions.isEmpty()) {
+            lispUpdater.prefetchSfLispData(createdServiceFunctions);
+            createdServiceFunctions.forEach(sfcProviderServiceLispAPI::lispUpdateServiceFunction);
+        }
+
         if (LOG.isDebugEnabled()) {
             LOG.debug("\n########## Stop: {}", Thread.currentThread().getStackTrace()[1]);
         }
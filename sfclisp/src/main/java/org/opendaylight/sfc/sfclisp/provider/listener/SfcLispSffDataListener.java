@@ -62,6 +62,7 @@ public class SfcLispSffDataListener extends SfcLispAbstractDataListener<ServiceF
                         ServiceFunctionForwarders updatedServiceFunctionForwarders = rootNode.getDataAfter();
                         List<ServiceFunctionForwarder> serviceFunctionForwarderList = updatedServiceFunctionForwarders
                                 .getServiceFunctionForwarder();
+                        lispUpdater.prefetchSffLispData(serviceFunctionForwarderList);
                         for (ServiceFunctionForwarder serviceFunctionForwarder : serviceFunctionForwarderList) {
                             if (lispUpdater.containsLispAddress(serviceFunctionForwarder)) {
                                 sfcProviderServiceLispAPI.lispUpdateServiceFunctionForwarder(serviceFunctionForwarder);
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.sfclisp.provider;
+
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.base.Ticker;
+import com.google.common.util.concurrent.Futures;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.lispflowmapping.lisp.util.LispAddressUtil;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfDataPlaneLocatorName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.function.base.SfDataPlaneLocatorBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.function.base.SfDataPlaneLocatorKey;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunctionBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sl.rev140701.data.plane.locator.locator.type.LispBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.lfm.lisp.proto.rev151105.mapping.record.container.MappingRecordBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.lfm.mappingservice.rev150906.GetMappingInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.lfm.mappingservice.rev150906.GetMappingOutput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.lfm.mappingservice.rev150906.GetMappingOutputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.lfm.mappingservice.rev150906.OdlMappingserviceService;
+import org.opendaylight.yangtools.yang.common.RpcResult;
+import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
+
+public class LispUpdaterTest {
+
+    private static final String SF1_EID = "10.0.0.1";
+    private static final String SF2_EID = "10.0.0.2";
+
+    private final AtomicLong nanos = new AtomicLong();
+    private OdlMappingserviceService lfmService;
+    private LispUpdater lispUpdater;
+
+    @Before
+    public void setUp() {
+        lfmService = mock(OdlMappingserviceService.class);
+        when(lfmService.getMapping(any(GetMappingInput.class))).thenReturn(mappingReply());
+        lispUpdater = new LispUpdater(lfmService, new Ticker() {
+            @Override
+            public long read() {
+                return nanos.get();
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        lispUpdater.close();
+    }
+
+    @Test
+    public void mappingCachedUntilExpiry() {
+        ServiceFunction sf = buildLispSf("sf1", SF1_EID);
+
+        assertSame(sf, lispUpdater.updateLispData(sf));
+        lispUpdater.updateLispData(sf);
+        verify(lfmService, times(1)).getMapping(getMappingInput(SF1_EID));
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        lispUpdater.updateLispData(sf);
+        verify(lfmService, times(1)).getMapping(getMappingInput(SF1_EID));
+
+        // past the TTL the mapping service is asked again
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        lispUpdater.updateLispData(sf);
+        verify(lfmService, times(2)).getMapping(getMappingInput(SF1_EID));
+    }
+
+    @Test
+    public void prefetchedMappingsAreCached() {
+        ServiceFunction sf1 = buildLispSf("sf1", SF1_EID);
+        ServiceFunction sf2 = buildLispSf("sf2", SF2_EID);
+
+        lispUpdater.prefetchSfLispData(Arrays.asList(sf1, sf2));
+        lispUpdater.updateLispData(sf1);
+        lispUpdater.updateLispData(sf2);
+
+        verify(lfmService, times(1)).getMapping(getMappingInput(SF1_EID));
+        verify(lfmService, times(1)).getMapping(getMappingInput(SF2_EID));
+    }
+
+    @Test
+    public void partialLookupFailure() {
+        when(lfmService.getMapping(getMappingInput(SF2_EID)))
+                .thenReturn(Futures.immediateFailedFuture(new IllegalStateException("lookup failed")));
+        ServiceFunction sf1 = buildLispSf("sf1", SF1_EID);
+        ServiceFunction sf2 = buildLispSf("sf2", SF2_EID);
+
+        lispUpdater.prefetchSfLispData(Arrays.asList(sf1, sf2));
+
+        // the successful lookup is cached, the failed one is not
+        lispUpdater.updateLispData(sf1);
+        assertSame(sf2, lispUpdater.updateLispData(sf2));
+        verify(lfmService, times(1)).getMapping(getMappingInput(SF1_EID));
+        verify(lfmService, times(2)).getMapping(getMappingInput(SF2_EID));
+    }
+
+    @Test
+    public void failedLookupDoesNotFailTheOthers() {
+        when(lfmService.getMapping(getMappingInput(SF1_EID))).thenThrow(new IllegalStateException("lookup failed"));
+        ServiceFunction sf1 = buildLispSf("sf1", SF1_EID);
+        ServiceFunction sf2 = buildLispSf("sf2", SF2_EID);
+
+        lispUpdater.prefetchSfLispData(Arrays.asList(sf1, sf2));
+
+        lispUpdater.updateLispData(sf2);
+        verify(lfmService, times(1)).getMapping(getMappingInput(SF2_EID));
+    }
+
+    private static Future<RpcResult<GetMappingOutput>> mappingReply() {
+        return RpcResultBuilder.success(new GetMappingOutputBuilder()
+                .setMappingRecord(new MappingRecordBuilder().setLocatorRecord(new ArrayList<>()).build()).build())
+                .buildFuture();
+    }
+
+    private static GetMappingInput getMappingInput(String eid) {
+        return SfcLispUtil.buildGetMappingInput(
+                LispAddressUtil.toIpPrefixEid(new IpAddress(new Ipv4Address(eid)), 0));
+    }
+
+    private static ServiceFunction buildLispSf(String sfName, String eid) {
+        SfDataPlaneLocatorName locatorName = new SfDataPlaneLocatorName(sfName + "-dpl");
+        return new ServiceFunctionBuilder().setName(new SfName(sfName))
+                .setSfDataPlaneLocator(Collections.singletonList(new SfDataPlaneLocatorBuilder()
+                        .setName(locatorName).setKey(new SfDataPlaneLocatorKey(locatorName))
+                        .setLocatorType(new LispBuilder().setEid(new IpAddress(new Ipv4Address(eid))).build())
+                        .build()))
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.sfclisp.provider.listener;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.DataObjectModification;
+import org.opendaylight.controller.md.sal.binding.api.DataObjectModification.ModificationType;
+import org.opendaylight.controller.md.sal.binding.api.DataTreeModification;
+import org.opendaylight.sfc.sfclisp.provider.LispUpdater;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePathBuilder;
+
+public class SfcLispRspEntryDataListenerTest {
+
+    private LispUpdater lispUpdater;
+    private SfcLispRspEntryDataListener listener;
+
+    @Before
+    public void setUp() {
+        lispUpdater = mock(LispUpdater.class);
+        listener = new SfcLispRspEntryDataListener(mock(DataBroker.class), lispUpdater);
+    }
+
+    @Test
+    public void updatesOfAPathAreCoalesced() {
+        RenderedServicePath rsp1 = buildRsp("rsp1", 1L, 255);
+        RenderedServicePath rsp1Updated = buildRsp("rsp1", 1L, 254);
+        RenderedServicePath rsp2 = buildRsp("rsp2", 2L, 255);
+
+        listener.onDataTreeChanged(Arrays.asList(
+                modification(ModificationType.WRITE, null, rsp1),
+                modification(ModificationType.WRITE, null, rsp2),
+                modification(ModificationType.SUBTREE_MODIFIED, rsp1, rsp1Updated)));
+
+        // one registration per path, with its last data
+        assertEquals(Arrays.asList(rsp1Updated, rsp2), captureRegisteredPaths());
+        verify(lispUpdater, never()).deletePaths(any());
+    }
+
+    @Test
+    public void pathDeletedAfterWriteIsOnlyDeleted() {
+        RenderedServicePath rsp1 = buildRsp("rsp1", 1L, 255);
+        RenderedServicePath rsp2 = buildRsp("rsp2", 2L, 255);
+
+        listener.onDataTreeChanged(Arrays.asList(
+                modification(ModificationType.WRITE, null, rsp1),
+                modification(ModificationType.WRITE, null, rsp2),
+                modification(ModificationType.DELETE, rsp1, null)));
+
+        assertEquals(Collections.singletonList(rsp1), captureDeletedPaths());
+        assertEquals(Collections.singletonList(rsp2), captureRegisteredPaths());
+    }
+
+    @Test
+    public void pathWrittenAfterDeleteIsOnlyRegistered() {
+        RenderedServicePath rsp1 = buildRsp("rsp1", 1L, 255);
+        RenderedServicePath rsp1Recreated = buildRsp("rsp1", 1L, 254);
+
+        listener.onDataTreeChanged(Arrays.asList(
+                modification(ModificationType.DELETE, rsp1, null),
+                modification(ModificationType.WRITE, null, rsp1Recreated)));
+
+        assertEquals(Collections.singletonList(rsp1Recreated), captureRegisteredPaths());
+        verify(lispUpdater, never()).deletePaths(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<RenderedServicePath> captureRegisteredPaths() {
+        ArgumentCaptor<Collection> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(lispUpdater).registerPaths(captor.capture());
+        return new ArrayList<>(captor.getValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<RenderedServicePath> captureDeletedPaths() {
+        ArgumentCaptor<Collection> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(lispUpdater).deletePaths(captor.capture());
+        return new ArrayList<>(captor.getValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DataTreeModification<RenderedServicePath> modification(ModificationType modificationType,
+            RenderedServicePath dataBefore, RenderedServicePath dataAfter) {
+        DataObjectModification<RenderedServicePath> rootNode = mock(DataObjectModification.class);
+        when(rootNode.getModificationType()).thenReturn(modificationType);
+        when(rootNode.getDataBefore()).thenReturn(dataBefore);
+        when(rootNode.getDataAfter()).thenReturn(dataAfter);
+        DataTreeModification<RenderedServicePath> modification = mock(DataTreeModification.class);
+        when(modification.getRootNode()).thenReturn(rootNode);
+        return modification;
+    }
+
+    private static RenderedServicePath buildRsp(String rspName, long pathId, int startingIndex) {
+        return new RenderedServicePathBuilder().setName(new RspName(rspName)).setPathId(pathId)
+                .setStartingIndex((short) startingIndex).build();
+    }
+}